@@ -48,6 +48,7 @@
 import org.infinispan.client.hotrod.impl.RemoteCacheManagerAdminImpl;
 import org.infinispan.client.hotrod.impl.operations.OperationsFactory;
 import org.infinispan.client.hotrod.impl.operations.PingResponse;
+import org.infinispan.client.hotrod.impl.operations.ValueCompressor;
 import org.infinispan.client.hotrod.impl.protocol.CodecHolder;
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.transaction.SyncModeTransactionTable;
@@ -543,13 +544,18 @@ private <K, V> RemoteCache<K, V> createRemoteCache(String cacheName, boolean for
          }
       }
 
+      ValueCompressor compressor;
       synchronized (cacheName2RemoteCache) {
-         startRemoteCache(remoteCache, forceReturnValue);
+         compressor = startRemoteCache(remoteCache, forceReturnValue, cacheConfiguration);
          RemoteCacheHolder holder = new RemoteCacheHolder(remoteCache, forceReturnValueOverride);
          remoteCache.resolveStorage(pingResponse.isObjectStorage());
          cacheName2RemoteCache.putIfAbsent(key, holder);
-         return remoteCache;
       }
+      if (compressor != null && started) {
+         // The servers joining later negotiate the compression the first time they are contacted
+         await(compressor.negotiate(channelFactory.getServers()));
+      }
+      return remoteCache;
    }
 
    private <K, V> InternalRemoteCache<K, V> createRemoteCache(String cacheName) {
@@ -585,11 +591,15 @@ protected <K, V> NearCacheService<K, V> createNearCacheService(String cacheName,
       return NearCacheService.create(cfg, listenerNotifier);
    }
 
-   private void startRemoteCache(InternalRemoteCache<?, ?> remoteCache, boolean forceReturnValue) {
+   private ValueCompressor startRemoteCache(InternalRemoteCache<?, ?> remoteCache, boolean forceReturnValue,
+                                            RemoteCacheConfiguration cacheConfiguration) {
       OperationsFactory operationsFactory = createOperationFactory(remoteCache.getName(),
             forceReturnValue, remoteCache.clientStatistics());
+      ValueCompressor compressor = cacheConfiguration == null ? null :
+            operationsFactory.valueCompression(cacheConfiguration.compression(), cacheConfiguration.compressionThreshold());
       initRemoteCache(remoteCache, operationsFactory);
       remoteCache.start();
+      return compressor;
    }
 
    // Method that handles cache initialization - needed as a placeholder
@@ -725,6 +735,21 @@ public int getIdleConnectionCount() {
       return channelFactory.getNumIdle();
    }
 
+   @Override
+   public int getInFlightRequestCount() {
+      return channelFactory.getNumInFlight();
+   }
+
+   @Override
+   public int getMaxInFlightRequestsPerConnection() {
+      return channelFactory.getMaxInFlight();
+   }
+
+   @Override
+   public int getPendingConnectionRequestCount() {
+      return channelFactory.getNumPending();
+   }
+
    @Override
    public long getRetries() {
       return channelFactory.getRetries();
@@ -5,17 +5,22 @@
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.AUTH_CLIENT_SUBJECT;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.AUTH_SERVER_NAME;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.BATCH_SIZE;
+import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_COMPRESSION_ALGORITHM_SUFFIX;
+import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_COMPRESSION_THRESHOLD_SUFFIX;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_CONFIGURATION_SUFFIX;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_MARSHALLER;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_NEAR_CACHE_MODE_SUFFIX;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_PREFIX;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_TEMPLATE_NAME_SUFFIX;
+import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_WRITE_COALESCING_DELAY_SUFFIX;
+import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_WRITE_COALESCING_MAX_OPERATIONS_SUFFIX;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CLIENT_INTELLIGENCE;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CONNECTION_POOL_EXHAUSTED_ACTION;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CONNECTION_POOL_MAX_ACTIVE;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CONNECTION_POOL_MAX_PENDING_REQUESTS;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CONNECTION_POOL_MAX_WAIT;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CONNECTION_POOL_MIN_EVICTABLE_IDLE_TIME;
+import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CONNECTION_POOL_MULTIPLEXED;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CONNECTION_POOL_MIN_IDLE;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CONNECT_TIMEOUT;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CONTEXT_INITIALIZERS;
@@ -449,6 +454,7 @@ public Properties properties() {
       properties.setProperty(CONNECTION_POOL_MIN_EVICTABLE_IDLE_TIME, connectionPool().minEvictableIdleTime());
       properties.setProperty("minEvictableIdleTimeMillis", connectionPool().minEvictableIdleTime());
       properties.setProperty(CONNECTION_POOL_MAX_PENDING_REQUESTS, connectionPool().maxPendingRequests());
+      properties.setProperty(CONNECTION_POOL_MULTIPLEXED, connectionPool().multiplexed());
 
       StringBuilder servers = new StringBuilder();
       for (ServerConfiguration server : servers()) {
@@ -526,6 +532,10 @@ public Properties properties() {
          }
          properties.setProperty(prefix + CACHE_NEAR_CACHE_MODE_SUFFIX, remoteCache.nearCacheMode().name());
          properties.setProperty(prefix + CACHE_NEAR_CACHE_MODE_SUFFIX, remoteCache.nearCacheMaxEntries());
+         properties.setProperty(prefix + CACHE_WRITE_COALESCING_DELAY_SUFFIX, remoteCache.writeCoalescingDelay());
+         properties.setProperty(prefix + CACHE_WRITE_COALESCING_MAX_OPERATIONS_SUFFIX, remoteCache.writeCoalescingMaxOperations());
+         properties.setProperty(prefix + CACHE_COMPRESSION_ALGORITHM_SUFFIX, remoteCache.compression().name());
+         properties.setProperty(prefix + CACHE_COMPRESSION_THRESHOLD_SUFFIX, remoteCache.compressionThreshold());
          Marshaller marshaller = remoteCache.marshaller();
          if (marshaller != null) {
             properties.setProperty(prefix + CACHE_MARSHALLER, remoteCache.marshaller().getClass().getName());
@@ -13,14 +13,17 @@ public class ConnectionPoolConfiguration {
    private final int minIdle;
    private final long minEvictableIdleTime;
    private final int maxPendingRequests;
+   private final boolean multiplexed;
 
-   ConnectionPoolConfiguration(ExhaustedAction exhaustedAction, int maxActive, long maxWait, int minIdle, long minEvictableIdleTime, int maxPendingRequests) {
+   ConnectionPoolConfiguration(ExhaustedAction exhaustedAction, int maxActive, long maxWait, int minIdle, long minEvictableIdleTime, int maxPendingRequests,
+                               boolean multiplexed) {
       this.exhaustedAction = exhaustedAction;
       this.maxActive = maxActive;
       this.maxWait = maxWait;
       this.minIdle = minIdle;
       this.minEvictableIdleTime = minEvictableIdleTime;
       this.maxPendingRequests = maxPendingRequests;
+      this.multiplexed = multiplexed;
    }
 
    public ExhaustedAction exhaustedAction() {
@@ -47,6 +50,10 @@ public int maxPendingRequests() {
       return maxPendingRequests;
    }
 
+   public boolean multiplexed() {
+      return multiplexed;
+   }
+
    @Override
    public String toString() {
       return "ConnectionPoolConfiguration{" +
@@ -56,6 +63,7 @@ public String toString() {
             ", minIdle=" + minIdle +
             ", minEvictableIdleTime=" + minEvictableIdleTime +
             ", maxPendingRequests=" + maxPendingRequests +
+            ", multiplexed=" + multiplexed +
             '}';
    }
 }
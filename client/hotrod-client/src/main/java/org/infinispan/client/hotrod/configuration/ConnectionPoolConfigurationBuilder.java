@@ -21,6 +21,7 @@ public class ConnectionPoolConfigurationBuilder extends AbstractConfigurationChi
    private int minIdle = ConfigurationProperties.DEFAULT_MIN_IDLE;
    private long minEvictableIdleTime = ConfigurationProperties.DEFAULT_MIN_EVICTABLE_IDLE_TIME;
    private int maxPendingRequests = ConfigurationProperties.DEFAULT_MAX_PENDING_REQUESTS;
+   private boolean multiplexed = ConfigurationProperties.DEFAULT_MULTIPLEXED;
 
    ConnectionPoolConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
@@ -118,6 +119,21 @@ public ConnectionPoolConfigurationBuilder maxPendingRequests(int maxPendingReque
       return this;
    }
 
+   /**
+    * Enables multiplexing the requests over the connections of each server. Requests do not acquire a connection of
+    * the pool but are written to the connection with the fewest requests awaiting a response, and the responses are
+    * matched to the requests by their message id. A new connection is only created when all the connections to the
+    * server have {@link #maxPendingRequests(int)} requests awaiting a response, so a few connections are enough for
+    * many concurrent requests. Operations which keep writing to the connection, like streaming a value, are given a
+    * new connection of their own, even when {@link #maxActive(int)} is reached, which is closed afterwards if the pool
+    * has too many connections.
+    * Default setting for this parameter is false.
+    */
+   public ConnectionPoolConfigurationBuilder multiplexed(boolean multiplexed) {
+      this.multiplexed = multiplexed;
+      return this;
+   }
+
    /**
     * Configures the connection pool parameter according to properties
     */
@@ -141,13 +157,14 @@ public ConnectionPoolConfigurationBuilder withPoolProperties(Properties properti
       maxPendingRequests(typed.getIntProperty(ConfigurationProperties.CONNECTION_POOL_MAX_PENDING_REQUESTS,
             typed.getIntProperty("maxPendingRequests", maxPendingRequests, true),
             true));
+      multiplexed(typed.getBooleanProperty(ConfigurationProperties.CONNECTION_POOL_MULTIPLEXED, multiplexed, true));
 
       return this;
    }
 
    @Override
    public ConnectionPoolConfiguration create() {
-      return new ConnectionPoolConfiguration(exhaustedAction, maxActive, maxWait, minIdle, minEvictableIdleTime, maxPendingRequests);
+      return new ConnectionPoolConfiguration(exhaustedAction, maxActive, maxWait, minIdle, minEvictableIdleTime, maxPendingRequests, multiplexed);
    }
 
    @Override
@@ -158,6 +175,7 @@ public ConnectionPoolConfigurationBuilder read(ConnectionPoolConfiguration templ
       minIdle = template.minIdle();
       minEvictableIdleTime = template.minEvictableIdleTime();
       maxPendingRequests = template.maxPendingRequests();
+      multiplexed = template.multiplexed();
       return this;
    }
 
@@ -7,6 +7,7 @@
 import org.infinispan.commons.configuration.attributes.Attribute;
 import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.io.CompressionAlgorithm;
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.tx.lookup.TransactionManagerLookup;
 
@@ -28,9 +29,13 @@ public class RemoteCacheConfiguration {
    public static final AttributeDefinition<TransactionManagerLookup> TRANSACTION_MANAGER = AttributeDefinition.builder("transaction-manager", GenericTransactionManagerLookup.getInstance(), TransactionManagerLookup.class).build();
    public static final AttributeDefinition<Marshaller> MARSHALLER = AttributeDefinition.builder("marshaller", null, Marshaller.class).build();
    public static final AttributeDefinition<Class> MARSHALLER_CLASS = AttributeDefinition.builder("marshallerClass", null, Class.class).build();
+   public static final AttributeDefinition<Long> WRITE_COALESCING_DELAY = AttributeDefinition.builder("write-coalescing-delay", 0L).build();
+   public static final AttributeDefinition<Integer> WRITE_COALESCING_MAX_OPERATIONS = AttributeDefinition.builder("write-coalescing-max-operations", 64).build();
+   public static final AttributeDefinition<CompressionAlgorithm> COMPRESSION = AttributeDefinition.builder("compression", CompressionAlgorithm.NONE).build();
+   public static final AttributeDefinition<Integer> COMPRESSION_THRESHOLD = AttributeDefinition.builder("compression-threshold", 1024).build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(RemoteCacheConfiguration.class, CONFIGURATION, FORCE_RETURN_VALUES, NAME, MARSHALLER, MARSHALLER_CLASS, NEAR_CACHE_MODE, NEAR_CACHE_MAX_ENTRIES, NEAR_CACHE_BLOOM_FILTER, NEAR_CACHE_FACTORY, TEMPLATE_NAME, TRANSACTION_MODE, TRANSACTION_MANAGER);
+      return new AttributeSet(RemoteCacheConfiguration.class, CONFIGURATION, FORCE_RETURN_VALUES, NAME, MARSHALLER, MARSHALLER_CLASS, NEAR_CACHE_MODE, NEAR_CACHE_MAX_ENTRIES, NEAR_CACHE_BLOOM_FILTER, NEAR_CACHE_FACTORY, TEMPLATE_NAME, TRANSACTION_MODE, TRANSACTION_MANAGER, WRITE_COALESCING_DELAY, WRITE_COALESCING_MAX_OPERATIONS, COMPRESSION, COMPRESSION_THRESHOLD);
    }
 
    private final Attribute<String> configuration;
@@ -44,6 +49,10 @@ static AttributeSet attributeDefinitionSet() {
    private final Attribute<String> templateName;
    private final Attribute<TransactionMode> transactionMode;
    private final Attribute<TransactionManagerLookup> transactionManager;
+   private final Attribute<Long> writeCoalescingDelay;
+   private final Attribute<Integer> writeCoalescingMaxOperations;
+   private final Attribute<CompressionAlgorithm> compression;
+   private final Attribute<Integer> compressionThreshold;
    private final AttributeSet attributes;
 
    RemoteCacheConfiguration(AttributeSet attributes) {
@@ -59,6 +68,10 @@ static AttributeSet attributeDefinitionSet() {
       templateName = attributes.attribute(TEMPLATE_NAME);
       transactionMode = attributes.attribute(TRANSACTION_MODE);
       transactionManager = attributes.attribute(TRANSACTION_MANAGER);
+      writeCoalescingDelay = attributes.attribute(WRITE_COALESCING_DELAY);
+      writeCoalescingMaxOperations = attributes.attribute(WRITE_COALESCING_MAX_OPERATIONS);
+      compression = attributes.attribute(COMPRESSION);
+      compressionThreshold = attributes.attribute(COMPRESSION_THRESHOLD);
    }
 
    public String configuration() {
@@ -109,6 +122,30 @@ public TransactionManagerLookup transactionManagerLookup() {
       return transactionManager.get();
    }
 
+   /**
+    * @return the delay in microseconds during which puts are buffered before they are sent together, or 0 if writes
+    * are not coalesced.
+    */
+   public long writeCoalescingDelay() {
+      return writeCoalescingDelay.get();
+   }
+
+   public int writeCoalescingMaxOperations() {
+      return writeCoalescingMaxOperations.get();
+   }
+
+   /**
+    * @return the algorithm proposed to the server to compress the values of this cache, or {@link
+    * CompressionAlgorithm#NONE} if values are not compressed.
+    */
+   public CompressionAlgorithm compression() {
+      return compression.get();
+   }
+
+   public int compressionThreshold() {
+      return compressionThreshold.get();
+   }
+
    AttributeSet attributes() {
       return attributes;
    }
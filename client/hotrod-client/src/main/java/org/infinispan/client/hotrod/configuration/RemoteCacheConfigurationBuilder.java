@@ -1,5 +1,7 @@
 package org.infinispan.client.hotrod.configuration;
 
+import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.COMPRESSION;
+import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.COMPRESSION_THRESHOLD;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.CONFIGURATION;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.FORCE_RETURN_VALUES;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.MARSHALLER;
@@ -12,6 +14,8 @@
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.TEMPLATE_NAME;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.TRANSACTION_MANAGER;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.TRANSACTION_MODE;
+import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.WRITE_COALESCING_DELAY;
+import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.WRITE_COALESCING_MAX_OPERATIONS;
 import static org.infinispan.client.hotrod.logging.Log.HOTROD;
 import static org.infinispan.commons.util.Util.getInstance;
 import static org.infinispan.commons.util.Util.loadClass;
@@ -21,6 +25,7 @@
 import java.nio.charset.StandardCharsets;
 import java.util.Properties;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import jakarta.transaction.TransactionManager;
@@ -35,6 +40,7 @@
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.io.CompressionAlgorithm;
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.tx.lookup.TransactionManagerLookup;
 import org.infinispan.commons.util.FileLookupFactory;
@@ -238,6 +244,64 @@ public RemoteCacheConfigurationBuilder transactionManagerLookup(TransactionManag
       return this;
    }
 
+   /**
+    * Enables the coalescing of the writes to this cache: puts without flags are buffered for up to the given delay and
+    * sent together, with one request per server owning the keys. This reduces the number of requests when many
+    * independent puts are invoked concurrently, at the cost of a higher latency for each of them. A delay of 0, the
+    * default, disables the coalescing.
+    * <p>
+    * Coalescing is meant for {@link org.infinispan.client.hotrod.RemoteCache#putAsync(Object, Object) putAsync}: a
+    * synchronous {@code put} waits for its reply, so every call waits the full delay, unless the maximum number of
+    * operations is reached first. Reads and the other writes send the buffered puts first, without waiting for the
+    * delay.
+    *
+    * @param delay the maximum time a put is buffered before it is sent
+    * @param unit the unit of the delay
+    * @return an instance of the builder
+    */
+   public RemoteCacheConfigurationBuilder writeCoalescing(long delay, TimeUnit unit) {
+      attributes.attribute(WRITE_COALESCING_DELAY).set(unit.toMicros(delay));
+      return this;
+   }
+
+   /**
+    * Specifies the maximum number of puts buffered when {@link #writeCoalescing(long, TimeUnit) write coalescing} is
+    * enabled. The buffered puts are sent as soon as this number is reached, without waiting for the delay to elapse.
+    *
+    * @param maxOperations the maximum number of puts sent together
+    * @return an instance of the builder
+    */
+   public RemoteCacheConfigurationBuilder writeCoalescingMaxOperations(int maxOperations) {
+      attributes.attribute(WRITE_COALESCING_MAX_OPERATIONS).set(maxOperations);
+      return this;
+   }
+
+   /**
+    * Proposes to the server to compress the values of this cache with the given algorithm. The values are only
+    * compressed when the server is configured with the same algorithm, otherwise they are sent as they are.
+    * {@link CompressionAlgorithm#LZ4} and {@link CompressionAlgorithm#ZSTD} require the aircompressor library on the
+    * classpath. Defaults to {@link CompressionAlgorithm#NONE}.
+    *
+    * @param algorithm the compression algorithm
+    * @return an instance of the builder
+    */
+   public RemoteCacheConfigurationBuilder compression(CompressionAlgorithm algorithm) {
+      attributes.attribute(COMPRESSION).set(algorithm);
+      return this;
+   }
+
+   /**
+    * Specifies the minimum size in bytes of the values which are compressed, when {@link
+    * #compression(CompressionAlgorithm) compression} is enabled. Defaults to 1024.
+    *
+    * @param threshold the minimum size of the compressed values
+    * @return an instance of the builder
+    */
+   public RemoteCacheConfigurationBuilder compressionThreshold(int threshold) {
+      attributes.attribute(COMPRESSION_THRESHOLD).set(threshold);
+      return this;
+   }
+
    @Override
    public void validate() {
       if (attributes.attribute(CONFIGURATION).isModified() && attributes.attribute(TEMPLATE_NAME).isModified()) {
@@ -249,6 +313,13 @@ public void validate() {
       if (attributes.attribute(TRANSACTION_MANAGER).get() == null) {
          throw HOTROD.invalidTransactionManagerLookup();
       }
+      if (attributes.attribute(WRITE_COALESCING_DELAY).get() < 0 || attributes.attribute(WRITE_COALESCING_MAX_OPERATIONS).get() < 1) {
+         throw HOTROD.invalidWriteCoalescing(attributes.attribute(NAME).get());
+      }
+      attributes.attribute(COMPRESSION).get().checkAvailable();
+      if (attributes.attribute(COMPRESSION_THRESHOLD).get() < 0) {
+         throw HOTROD.invalidCompressionThreshold(attributes.attribute(NAME).get());
+      }
    }
 
    @Override
@@ -276,6 +347,10 @@ public ConfigurationBuilder withProperties(Properties properties) {
       findCacheProperty(typed, ConfigurationProperties.CACHE_TRANSACTION_MODE_SUFFIX, v -> this.transactionMode(TransactionMode.valueOf(v)));
       findCacheProperty(typed, ConfigurationProperties.CACHE_TRANSACTION_MANAGER_LOOKUP_SUFFIX, this::transactionManagerLookupClass);
       findCacheProperty(typed, ConfigurationProperties.CACHE_MARSHALLER, this::marshaller);
+      findCacheProperty(typed, ConfigurationProperties.CACHE_WRITE_COALESCING_DELAY_SUFFIX, v -> this.writeCoalescing(Long.parseLong(v), TimeUnit.MICROSECONDS));
+      findCacheProperty(typed, ConfigurationProperties.CACHE_WRITE_COALESCING_MAX_OPERATIONS_SUFFIX, v -> this.writeCoalescingMaxOperations(Integer.parseInt(v)));
+      findCacheProperty(typed, ConfigurationProperties.CACHE_COMPRESSION_ALGORITHM_SUFFIX, v -> this.compression(CompressionAlgorithm.valueOf(v)));
+      findCacheProperty(typed, ConfigurationProperties.CACHE_COMPRESSION_THRESHOLD_SUFFIX, v -> this.compressionThreshold(Integer.parseInt(v)));
       return builder;
    }
 
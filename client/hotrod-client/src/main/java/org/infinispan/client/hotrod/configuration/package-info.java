@@ -161,6 +161,12 @@
  *          <td>Specifies maximum number of {@link org.infinispan.client.hotrod.configuration.ConnectionPoolConfigurationBuilder#maxPendingRequests(int) requests} sent over single connection at one instant.</td>
  *       </tr>
  *       <tr>
+ *          <td><b>infinispan.client.hotrod.connection_pool.multiplexed</b></td>
+ *          <td>Boolean</td>
+ *          <td>false</td>
+ *          <td>Whether the requests are {@link org.infinispan.client.hotrod.configuration.ConnectionPoolConfigurationBuilder#multiplexed(boolean) multiplexed} over the connections of each server instead of each request acquiring a connection of the pool.</td>
+ *       </tr>
+ *       <tr>
  *          <th colspan="4">Thread pool properties</th>
  *       </tr>
  *       <tr>
@@ -524,6 +530,30 @@
  *          <td>{@link org.infinispan.commons.marshall.ProtoStreamMarshaller} unless another marshaller is used.</td>
  *          <td>The {@link org.infinispan.client.hotrod.configuration.ConfigurationBuilder#marshaller(String) marshaller} that serializes keys and values for the specified cache.</td>
  *       </tr>
+ *       <tr>
+ *          <td><b>infinispan.client.hotrod.cache.<i>cachename</i>.write_coalescing.delay</b></td>
+ *          <td>Long</td>
+ *          <td>0 (disabled)</td>
+ *          <td>The {@link org.infinispan.client.hotrod.configuration.RemoteCacheConfigurationBuilder#writeCoalescing(long, java.util.concurrent.TimeUnit) delay}, in microseconds, during which puts to the specified cache are buffered and sent together.</td>
+ *       </tr>
+ *       <tr>
+ *          <td><b>infinispan.client.hotrod.cache.<i>cachename</i>.write_coalescing.max_operations</b></td>
+ *          <td>Integer</td>
+ *          <td>64</td>
+ *          <td>The {@link org.infinispan.client.hotrod.configuration.RemoteCacheConfigurationBuilder#writeCoalescingMaxOperations(int) maximum} number of puts to the specified cache buffered before they are sent.</td>
+ *       </tr>
+ *       <tr>
+ *          <td><b>infinispan.client.hotrod.cache.<i>cachename</i>.compression.algorithm</b></td>
+ *          <td>String (NONE, DEFLATE, LZ4, ZSTD)</td>
+ *          <td>NONE</td>
+ *          <td>The {@link org.infinispan.client.hotrod.configuration.RemoteCacheConfigurationBuilder#compression(org.infinispan.commons.io.CompressionAlgorithm) algorithm} proposed to the server to compress the values of the specified cache.</td>
+ *       </tr>
+ *       <tr>
+ *          <td><b>infinispan.client.hotrod.cache.<i>cachename</i>.compression.threshold</b></td>
+ *          <td>Integer</td>
+ *          <td>1024</td>
+ *          <td>The {@link org.infinispan.client.hotrod.configuration.RemoteCacheConfigurationBuilder#compressionThreshold(int) minimum} size in bytes of the compressed values of the specified cache.</td>
+ *       </tr>
  *    </tbody>
  * </table>
  *
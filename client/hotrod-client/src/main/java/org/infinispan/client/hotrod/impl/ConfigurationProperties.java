@@ -108,6 +108,7 @@ public class ConfigurationProperties {
    public static final String CONNECTION_POOL_MAX_PENDING_REQUESTS = ICH + "connection_pool.max_pending_requests";
    public static final String CONNECTION_POOL_MIN_EVICTABLE_IDLE_TIME = ICH + "connection_pool.min_evictable_idle_time";
    public static final String CONNECTION_POOL_EXHAUSTED_ACTION = ICH + "connection_pool.exhausted_action";
+   public static final String CONNECTION_POOL_MULTIPLEXED = ICH + "connection_pool.multiplexed";
    // XSite properties
    public static final String CLUSTER_PROPERTIES_PREFIX = ICH + "cluster";
    public static final Pattern CLUSTER_PROPERTIES_PREFIX_REGEX =
@@ -129,6 +130,10 @@ public class ConfigurationProperties {
    public static final String CACHE_TEMPLATE_NAME_SUFFIX = ".template_name";
    public static final String CACHE_TRANSACTION_MODE_SUFFIX = ".transaction.transaction_mode";
    public static final String CACHE_TRANSACTION_MANAGER_LOOKUP_SUFFIX = ".transaction.transaction_manager_lookup";
+   public static final String CACHE_WRITE_COALESCING_DELAY_SUFFIX = ".write_coalescing.delay";
+   public static final String CACHE_WRITE_COALESCING_MAX_OPERATIONS_SUFFIX = ".write_coalescing.max_operations";
+   public static final String CACHE_COMPRESSION_ALGORITHM_SUFFIX = ".compression.algorithm";
+   public static final String CACHE_COMPRESSION_THRESHOLD_SUFFIX = ".compression.threshold";
    public static final String DNS_RESOLVER_MIN_TTL = ".dns_resolver_min_ttl";
    public static final String DNS_RESOLVER_MAX_TTL = ".dns_resolver_max_ttl";
    public static final String DNS_RESOLVER_NEGATIVE_TTL = ".dns_resolver_negative_ttl";
@@ -151,6 +156,7 @@ public class ConfigurationProperties {
    public static final int DEFAULT_BATCH_SIZE = 10_000;
    public static final int DEFAULT_MAX_PENDING_REQUESTS = 5;
    public static final long DEFAULT_MIN_EVICTABLE_IDLE_TIME = 180000L;
+   public static final boolean DEFAULT_MULTIPLEXED = false;
    public static final int DEFAULT_MAX_ACTIVE = -1;
    public static final int DEFAULT_MAX_WAIT = -1;
    public static final int DEFAULT_MIN_IDLE = -1;
@@ -606,6 +612,14 @@ public void setConnectionPoolMinEvictableIdleTime(long connectionPoolMinEvictabl
       props.setProperty(CONNECTION_POOL_MIN_EVICTABLE_IDLE_TIME, connectionPoolMinEvictableIdleTime);
    }
 
+   public boolean isConnectionPoolMultiplexed() {
+      return props.getBooleanProperty(CONNECTION_POOL_MULTIPLEXED, DEFAULT_MULTIPLEXED);
+   }
+
+   public void setConnectionPoolMultiplexed(boolean connectionPoolMultiplexed) {
+      props.setProperty(CONNECTION_POOL_MULTIPLEXED, connectionPoolMultiplexed);
+   }
+
    public ExhaustedAction getConnectionPoolExhaustedAction() {
       return props.getEnumProperty(CONNECTION_POOL_EXHAUSTED_ACTION, ExhaustedAction.class, ExhaustedAction.WAIT);
    }
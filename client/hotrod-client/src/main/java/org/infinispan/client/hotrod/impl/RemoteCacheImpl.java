@@ -16,6 +16,7 @@
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
@@ -30,6 +31,7 @@
 import org.infinispan.client.hotrod.ServerStatistics;
 import org.infinispan.client.hotrod.StreamingRemoteCache;
 import org.infinispan.client.hotrod.configuration.Configuration;
+import org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration;
 import org.infinispan.client.hotrod.configuration.StatisticsConfiguration;
 import org.infinispan.client.hotrod.event.impl.ClientListenerNotifier;
 import org.infinispan.client.hotrod.exceptions.RemoteCacheManagerNotStartedException;
@@ -86,6 +88,7 @@
    private DataFormat dataFormat;
    protected ClientStatistics clientStatistics;
    private ObjectName mbeanObjectName;
+   private WriteCoalescer writeCoalescer;
 
    public RemoteCacheImpl(RemoteCacheManager rcm, String name, TimeService timeService) {
       this(rcm, name, timeService, null);
@@ -123,12 +126,19 @@ public void init(OperationsFactory operationsFactory,
     */
    @Override
    public void init(OperationsFactory operationsFactory, Configuration configuration) {
-      init(operationsFactory, configuration.batchSize());
+      RemoteCacheConfiguration cacheConfiguration = configuration.remoteCaches().get(name);
+      WriteCoalescer writeCoalescer = null;
+      if (cacheConfiguration != null && cacheConfiguration.writeCoalescingDelay() > 0) {
+         writeCoalescer = new WriteCoalescer(operationsFactory, cacheConfiguration.writeCoalescingDelay(),
+               cacheConfiguration.writeCoalescingMaxOperations());
+      }
+      init(operationsFactory, configuration.batchSize(), writeCoalescer);
    }
 
-   private void init(OperationsFactory operationsFactory, int batchSize) {
+   private void init(OperationsFactory operationsFactory, int batchSize, WriteCoalescer writeCoalescer) {
       this.operationsFactory = operationsFactory;
       this.batchSize = batchSize;
+      this.writeCoalescer = writeCoalescer;
    }
 
    private void registerMBean(ObjectName jmxParent) {
@@ -174,9 +184,12 @@ public RemoteCacheContainer getRemoteCacheContainer() {
    @Override
    public CompletableFuture<Boolean> removeWithVersionAsync(final K key, final long version) {
       assertRemoteCacheManagerIsStarted();
-      RemoveIfUnmodifiedOperation<V> op = operationsFactory.newRemoveIfUnmodifiedOperation(
-            keyAsObjectIfNeeded(key), keyToBytes(key), version, dataFormat);
-      return op.execute().thenApply(response -> response.getCode().isUpdated());
+      byte[] keyBytes = keyToBytes(key);
+      return afterCoalescedWrites(keyBytes, () -> {
+         RemoveIfUnmodifiedOperation<V> op = operationsFactory.newRemoveIfUnmodifiedOperation(
+               keyAsObjectIfNeeded(key), keyBytes, version, dataFormat);
+         return op.execute().thenApply(response -> response.getCode().isUpdated());
+      });
    }
 
    @Override
@@ -186,9 +199,13 @@ public CompletableFuture<V> mergeAsync(K key, V value, BiFunction<? super V, ? s
 
    public CompletableFuture<Boolean> replaceWithVersionAsync(K key, V newValue, long version, long lifespan, TimeUnit lifespanTimeUnit, long maxIdle, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
-      ReplaceIfUnmodifiedOperation op = operationsFactory.newReplaceIfUnmodifiedOperation(
-            keyAsObjectIfNeeded(key), keyToBytes(key), valueToBytes(newValue), lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit, version, dataFormat);
-      return op.execute().thenApply(response -> response.getCode().isUpdated());
+      byte[] keyBytes = keyToBytes(key);
+      byte[] valueBytes = valueToBytes(newValue);
+      return afterCoalescedWrites(keyBytes, () -> {
+         ReplaceIfUnmodifiedOperation op = operationsFactory.newReplaceIfUnmodifiedOperation(
+               keyAsObjectIfNeeded(key), keyBytes, valueBytes, lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit, version, dataFormat);
+         return op.execute().thenApply(response -> response.getCode().isUpdated());
+      });
    }
 
    @Override
@@ -238,17 +255,41 @@ public Publisher<Entry<K, MetadataValue<V>>> publishEntriesWithMetadata(Set<Inte
    @Override
    public CompletableFuture<MetadataValue<V>> getWithMetadataAsync(K key) {
       assertRemoteCacheManagerIsStarted();
-      GetWithMetadataOperation<V> op = operationsFactory.newGetWithMetadataOperation(
-            keyAsObjectIfNeeded(key), keyToBytes(key), dataFormat);
-      return op.execute();
+      byte[] keyBytes = keyToBytes(key);
+      return afterCoalescedWrites(keyBytes, () -> {
+         GetWithMetadataOperation<V> op = operationsFactory.newGetWithMetadataOperation(
+               keyAsObjectIfNeeded(key), keyBytes, dataFormat);
+         return op.execute();
+      });
    }
 
    @Override
    public RetryAwareCompletionStage<MetadataValue<V>> getWithMetadataAsync(K key, SocketAddress preferredAddres) {
       assertRemoteCacheManagerIsStarted();
-      GetWithMetadataOperation<V> op = operationsFactory.newGetWithMetadataOperation(
-            keyAsObjectIfNeeded(key), keyToBytes(key), dataFormat, preferredAddres);
-      return op.internalExecute();
+      byte[] keyBytes = keyToBytes(key);
+      CompletionStage<Void> coalescedWrites = writeCoalescer == null ? null : writeCoalescer.flush(keyBytes);
+      if (coalescedWrites == null) {
+         return operationsFactory.newGetWithMetadataOperation(keyAsObjectIfNeeded(key), keyBytes, dataFormat,
+               preferredAddres).internalExecute();
+      }
+      DelayedRetryAwareStage<MetadataValue<V>> delayed = new DelayedRetryAwareStage<>();
+      coalescedWrites.whenComplete((ignore, t) -> {
+         try {
+            RetryAwareCompletionStage<MetadataValue<V>> stage = operationsFactory.newGetWithMetadataOperation(
+                  keyAsObjectIfNeeded(key), keyBytes, dataFormat, preferredAddres).internalExecute();
+            delayed.stage = stage;
+            stage.whenComplete((value, throwable) -> {
+               if (throwable != null) {
+                  delayed.completeExceptionally(throwable);
+               } else {
+                  delayed.complete(value);
+               }
+            });
+         } catch (Throwable throwable) {
+            delayed.completeExceptionally(throwable);
+         }
+      });
+      return delayed;
    }
 
    @Override
@@ -261,8 +302,10 @@ public CompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> map, lo
       for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
          byteMap.put(keyToBytes(entry.getKey()), valueToBytes(entry.getValue()));
       }
-      PutAllParallelOperation op = operationsFactory.newPutAllOperation(byteMap, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit, dataFormat);
-      return op.execute();
+      return afterCoalescedWrites(() -> {
+         PutAllParallelOperation op = operationsFactory.newPutAllOperation(byteMap, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit, dataFormat);
+         return op.execute();
+      });
    }
 
    @Override
@@ -305,16 +348,28 @@ public CompletableFuture<V> putAsync(K key, V value, long lifespan, TimeUnit lif
       if (log.isTraceEnabled()) {
          log.tracef("About to add (K,V): (%s, %s) lifespan:%d, maxIdle:%d", key, value, lifespan, maxIdleTime);
       }
-      PutOperation<V> op = operationsFactory.newPutKeyValueOperation(keyAsObjectIfNeeded(key),
-            keyToBytes(key), valueToBytes(value), lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit, dataFormat);
-      return op.execute();
+      if (writeCoalescer != null && !operationsFactory.hasFlags()) {
+         // Without flags the previous value is not returned, so the put can be sent with others
+         CompletableFuture<Void> coalesced = writeCoalescer.put(keyToBytes(key), valueToBytes(value), lifespan, lifespanUnit,
+               maxIdleTime, maxIdleTimeUnit, dataFormat);
+         return coalesced.thenApply(ignore -> null);
+      }
+      byte[] keyBytes = keyToBytes(key);
+      byte[] valueBytes = valueToBytes(value);
+      return afterCoalescedWrites(keyBytes, () -> {
+         PutOperation<V> op = operationsFactory.newPutKeyValueOperation(keyAsObjectIfNeeded(key),
+               keyBytes, valueBytes, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit, dataFormat);
+         return op.execute();
+      });
    }
 
    @Override
    public CompletableFuture<Void> clearAsync() {
       assertRemoteCacheManagerIsStarted();
-      ClearOperation op = operationsFactory.newClearOperation();
-      return op.execute();
+      return afterCoalescedWrites(() -> {
+         ClearOperation op = operationsFactory.newClearOperation();
+         return op.execute();
+      });
    }
 
    @Override
@@ -407,9 +462,13 @@ public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
    @Override
    public CompletableFuture<V> putIfAbsentAsync(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
-      PutIfAbsentOperation<V> op = operationsFactory.newPutIfAbsentOperation(keyAsObjectIfNeeded(key),
-            keyToBytes(key), valueToBytes(value), lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit, dataFormat);
-      return op.execute();
+      byte[] keyBytes = keyToBytes(key);
+      byte[] valueBytes = valueToBytes(value);
+      return afterCoalescedWrites(keyBytes, () -> {
+         PutIfAbsentOperation<V> op = operationsFactory.newPutIfAbsentOperation(keyAsObjectIfNeeded(key),
+               keyBytes, valueBytes, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit, dataFormat);
+         return op.execute();
+      });
    }
 
    @Override
@@ -438,10 +497,13 @@ public CompletableFuture<Boolean> replaceAsync(K key, V oldValue, V newValue, lo
    @Override
    public CompletableFuture<V> removeAsync(Object key) {
       assertRemoteCacheManagerIsStarted();
-      RemoveOperation<V> removeOperation = operationsFactory.newRemoveOperation(keyAsObjectIfNeeded(key), keyToBytes(key), dataFormat);
-      // TODO: It sucks that you need the prev value to see if it works...
-      // We need to find a better API for RemoteCache...
-      return removeOperation.execute();
+      byte[] keyBytes = keyToBytes(key);
+      return afterCoalescedWrites(keyBytes, () -> {
+         RemoveOperation<V> removeOperation = operationsFactory.newRemoveOperation(keyAsObjectIfNeeded(key), keyBytes, dataFormat);
+         // TODO: It sucks that you need the prev value to see if it works...
+         // We need to find a better API for RemoteCache...
+         return removeOperation.execute();
+      });
    }
 
    @Override
@@ -466,17 +528,24 @@ public CompletableFuture<Boolean> removeAsync(Object key, Object value) {
    @Override
    public CompletableFuture<V> replaceAsync(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
-      ReplaceOperation<V> op = operationsFactory.newReplaceOperation(keyAsObjectIfNeeded(key),
-            keyToBytes(key), valueToBytes(value), lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit, dataFormat);
-      return op.execute();
+      byte[] keyBytes = keyToBytes(key);
+      byte[] valueBytes = valueToBytes(value);
+      return afterCoalescedWrites(keyBytes, () -> {
+         ReplaceOperation<V> op = operationsFactory.newReplaceOperation(keyAsObjectIfNeeded(key),
+               keyBytes, valueBytes, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit, dataFormat);
+         return op.execute();
+      });
    }
 
    @Override
    public CompletableFuture<Boolean> containsKeyAsync(K key) {
       assertRemoteCacheManagerIsStarted();
-      ContainsKeyOperation op = operationsFactory.newContainsKeyOperation(
-            keyAsObjectIfNeeded(key), keyToBytes(key), dataFormat);
-      return op.execute();
+      byte[] keyBytes = keyToBytes(key);
+      return afterCoalescedWrites(keyBytes, () -> {
+         ContainsKeyOperation op = operationsFactory.newContainsKeyOperation(
+               keyAsObjectIfNeeded(key), keyBytes, dataFormat);
+         return op.execute();
+      });
    }
 
    @Override
@@ -495,8 +564,10 @@ public CompletableFuture<Map<K, V>> getAllAsync(Set<?> keys) {
       for (Object key : keys) {
          byteKeys.add(keyToBytes(key));
       }
-      GetAllParallelOperation<K, V> op = operationsFactory.newGetAllOperation(byteKeys, dataFormat);
-      return op.execute().thenApply(Collections::unmodifiableMap);
+      return afterCoalescedWrites(() -> {
+         GetAllParallelOperation<K, V> op = operationsFactory.newGetAllOperation(byteKeys, dataFormat);
+         return op.execute().thenApply(Collections::unmodifiableMap);
+      });
    }
 
    @Override
@@ -508,9 +579,49 @@ public void start() {
 
    @Override
    public void stop() {
+      if (writeCoalescer != null) {
+         writeCoalescer.flush();
+      }
       unregisterMBean();
    }
 
+   /**
+    * Runs an operation on a key once the puts of the key buffered or sent by the write coalescing have completed, so
+    * that the operation is not applied before them even when it is sent on another connection.
+    */
+   private <T> CompletableFuture<T> afterCoalescedWrites(byte[] keyBytes, Supplier<CompletableFuture<T>> operation) {
+      return afterCoalescedWrites(writeCoalescer == null ? null : writeCoalescer.flush(keyBytes), operation);
+   }
+
+   /**
+    * Runs an operation on any number of keys once all the puts buffered or sent by the write coalescing have completed.
+    */
+   private <T> CompletableFuture<T> afterCoalescedWrites(Supplier<CompletableFuture<T>> operation) {
+      return afterCoalescedWrites(writeCoalescer == null ? null : writeCoalescer.flush(), operation);
+   }
+
+   private static <T> CompletableFuture<T> afterCoalescedWrites(CompletionStage<Void> coalescedWrites,
+                                                               Supplier<CompletableFuture<T>> operation) {
+      if (coalescedWrites == null) {
+         return operation.get();
+      }
+      // The operation runs even if the puts failed, as it was invoked after them
+      return coalescedWrites.handle((ignore, t) -> null).thenCompose(ignore -> operation.get()).toCompletableFuture();
+   }
+
+   /**
+    * The stage of an operation which is only executed once the coalesced puts of its key have completed.
+    */
+   private static class DelayedRetryAwareStage<E> extends CompletableFuture<E> implements RetryAwareCompletionStage<E> {
+      volatile RetryAwareCompletionStage<E> stage;
+
+      @Override
+      public Boolean wasRetried() {
+         RetryAwareCompletionStage<E> stage = this.stage;
+         return stage == null ? null : stage.wasRetried();
+      }
+   }
+
    @Override
    public String getName() {
       return name;
@@ -587,8 +698,10 @@ public InternalRemoteCache<K, V> withFlags(Flag... flags) {
    public CompletableFuture<V> getAsync(Object key) {
       assertRemoteCacheManagerIsStarted();
       byte[] keyBytes = keyToBytes(key);
-      GetOperation<V> gco = operationsFactory.newGetKeyOperation(keyAsObjectIfNeeded(key), keyBytes, dataFormat);
-      CompletableFuture<V> result = gco.execute();
+      CompletableFuture<V> result = afterCoalescedWrites(keyBytes, () -> {
+         GetOperation<V> gco = operationsFactory.newGetKeyOperation(keyAsObjectIfNeeded(key), keyBytes, dataFormat);
+         return gco.execute();
+      });
       if (log.isTraceEnabled()) {
          result.thenAccept(value -> log.tracef("For key(%s) returning %s", key, value));
       }
@@ -686,7 +799,7 @@ public <T, U> InternalRemoteCache<T, U> withDataFormat(DataFormat newDataFormat)
 
    private <T, U> RemoteCacheImpl<T, U> newInstance() {
       RemoteCacheImpl<T, U> copy = new RemoteCacheImpl<>(this.remoteCacheManager, name, clientStatistics);
-      copy.init(this.operationsFactory, this.batchSize);
+      copy.init(this.operationsFactory, this.batchSize, this.writeCoalescer);
       return copy;
    }
 
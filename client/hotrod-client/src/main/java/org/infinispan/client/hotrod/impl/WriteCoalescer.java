@@ -0,0 +1,250 @@
+package org.infinispan.client.hotrod.impl;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.client.hotrod.DataFormat;
+import org.infinispan.client.hotrod.impl.operations.OperationsFactory;
+import org.infinispan.client.hotrod.impl.transport.netty.ChannelFactory;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.marshall.WrappedByteArray;
+
+import net.jcip.annotations.GuardedBy;
+
+/**
+ * Buffers the puts to a remote cache for a short delay, or until enough of them are buffered, and sends them together
+ * with one put all request per server owning their keys.
+ * <p>
+ * Only puts with the same expiration and data format are sent together, and a put of a key which is already buffered
+ * sends the buffered puts first. Each put completes when the request containing it completes.
+ * <p>
+ * The server does not order the requests sent on different connections, so a batch containing a key which is still
+ * being put by a previous batch is only sent once that put completed, and the other operations on a key run after the
+ * puts of the key with {@link #flush(byte[])}. The puts of a key are therefore applied in the order they were invoked,
+ * and before the operations invoked after them.
+ *
+ * @since 15.0
+ */
+public class WriteCoalescer {
+   private static final Log log = LogFactory.getLog(WriteCoalescer.class, Log.class);
+
+   private final OperationsFactory operationsFactory;
+   private final long delay;
+   private final int maxOperations;
+   @GuardedBy("this")
+   private Batch batch;
+   // The puts sent to the servers and not completed yet, by key
+   private final ConcurrentMap<WrappedByteArray, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+   /**
+    * @param delay the maximum time a put is buffered, in microseconds
+    * @param maxOperations the number of buffered puts which are sent without waiting for the delay to elapse
+    */
+   public WriteCoalescer(OperationsFactory operationsFactory, long delay, int maxOperations) {
+      this.operationsFactory = operationsFactory;
+      this.delay = delay;
+      this.maxOperations = maxOperations;
+   }
+
+   /**
+    * Buffers a put.
+    *
+    * @return a future completed once the put has been applied by the server
+    */
+   public CompletableFuture<Void> put(byte[] key, byte[] value, long lifespan, TimeUnit lifespanUnit, long maxIdle,
+                                      TimeUnit maxIdleUnit, DataFormat dataFormat) {
+      WrappedByteArray wrappedKey = new WrappedByteArray(key);
+      CompletableFuture<Void> future = new CompletableFuture<>();
+      Batch previous = null;
+      Batch full = null;
+      synchronized (this) {
+         if (batch != null && !batch.accepts(wrappedKey, lifespan, lifespanUnit, maxIdle, maxIdleUnit, dataFormat)) {
+            previous = take();
+         }
+         if (batch == null) {
+            Batch newBatch = new Batch(lifespan, lifespanUnit, maxIdle, maxIdleUnit, dataFormat);
+            newBatch.timeout = operationsFactory.getChannelFactory().getEventLoopGroup()
+                  .schedule(() -> flush(newBatch), delay, TimeUnit.MICROSECONDS);
+            batch = newBatch;
+         }
+         batch.puts.put(wrappedKey, new Put(value, future));
+         if (batch.puts.size() >= maxOperations) {
+            full = take();
+         }
+      }
+      // The batches are sent without holding the lock, a taken batch is no longer modified
+      if (previous != null) {
+         previous.send();
+      }
+      if (full != null) {
+         full.send();
+      }
+      return future;
+   }
+
+   /**
+    * Sends the buffered puts without waiting for the delay to elapse.
+    *
+    * @return a stage completed once all the puts sent to the servers have completed, or null if there are none
+    */
+   public CompletionStage<Void> flush() {
+      Batch sent = null;
+      synchronized (this) {
+         if (batch != null) {
+            sent = take();
+         }
+      }
+      if (sent != null) {
+         sent.send();
+      }
+      if (inFlight.isEmpty()) {
+         return null;
+      }
+      return CompletableFuture.allOf(inFlight.values().toArray(new CompletableFuture[0]));
+   }
+
+   /**
+    * Sends the buffered puts without waiting for the delay to elapse, so that an operation on the given key can run
+    * after the put of the key.
+    *
+    * @return a stage completed once the put of the key has completed, or null if the key is not being put
+    */
+   public CompletionStage<Void> flush(byte[] key) {
+      Batch sent;
+      synchronized (this) {
+         sent = batch != null ? take() : null;
+      }
+      if (sent != null) {
+         sent.send();
+      }
+      return inFlight.get(new WrappedByteArray(key));
+   }
+
+   private void flush(Batch scheduled) {
+      synchronized (this) {
+         // The batch may have been sent already because it was full
+         if (batch != scheduled) {
+            return;
+         }
+         take();
+      }
+      scheduled.send();
+   }
+
+   @GuardedBy("this")
+   private Batch take() {
+      Batch taken = batch;
+      batch = null;
+      taken.timeout.cancel(false);
+      // Registered while holding the lock, so that the batches containing the same key are sent in order
+      List<CompletableFuture<Void>> previous = new ArrayList<>();
+      for (Map.Entry<WrappedByteArray, Put> entry : taken.puts.entrySet()) {
+         WrappedByteArray key = entry.getKey();
+         CompletableFuture<Void> future = entry.getValue().future;
+         CompletableFuture<Void> previousPut = inFlight.put(key, future);
+         if (previousPut != null && !previousPut.isDone()) {
+            previous.add(previousPut);
+         }
+         future.whenComplete((ignore, t) -> inFlight.remove(key, future));
+      }
+      if (!previous.isEmpty()) {
+         taken.previousPuts = CompletableFuture.allOf(previous.toArray(new CompletableFuture[0]));
+      }
+      return taken;
+   }
+
+   private static class Put {
+      final byte[] value;
+      final CompletableFuture<Void> future;
+
+      Put(byte[] value, CompletableFuture<Void> future) {
+         this.value = value;
+         this.future = future;
+      }
+   }
+
+   private class Batch {
+      final long lifespan;
+      final TimeUnit lifespanUnit;
+      final long maxIdle;
+      final TimeUnit maxIdleUnit;
+      final DataFormat dataFormat;
+      final Map<WrappedByteArray, Put> puts = new LinkedHashMap<>();
+      Future<?> timeout;
+      // The puts of previous batches for the same keys, which must complete before this batch is sent
+      CompletableFuture<Void> previousPuts;
+
+      Batch(long lifespan, TimeUnit lifespanUnit, long maxIdle, TimeUnit maxIdleUnit, DataFormat dataFormat) {
+         this.lifespan = lifespan;
+         this.lifespanUnit = lifespanUnit;
+         this.maxIdle = maxIdle;
+         this.maxIdleUnit = maxIdleUnit;
+         this.dataFormat = dataFormat;
+      }
+
+      boolean accepts(WrappedByteArray key, long lifespan, TimeUnit lifespanUnit, long maxIdle, TimeUnit maxIdleUnit,
+                      DataFormat dataFormat) {
+         return this.lifespan == lifespan && this.lifespanUnit == lifespanUnit && this.maxIdle == maxIdle &&
+               this.maxIdleUnit == maxIdleUnit && this.dataFormat == dataFormat && !puts.containsKey(key);
+      }
+
+      void send() {
+         if (previousPuts != null) {
+            // Sent even if the previous puts failed, as the puts of this batch were invoked after them
+            previousPuts.whenComplete((ignore, t) -> sendNow());
+         } else {
+            sendNow();
+         }
+      }
+
+      private void sendNow() {
+         ChannelFactory channelFactory = operationsFactory.getChannelFactory();
+         byte[] cacheName = operationsFactory.getCacheNameBytes();
+         // The server is null when the client does not know the owners of the keys
+         Map<SocketAddress, Map<WrappedByteArray, Put>> putsByServer = new HashMap<>();
+         for (Map.Entry<WrappedByteArray, Put> entry : puts.entrySet()) {
+            SocketAddress server = channelFactory.getHashAwareServer(entry.getKey().getBytes(), cacheName);
+            putsByServer.computeIfAbsent(server, s -> new LinkedHashMap<>()).put(entry.getKey(), entry.getValue());
+         }
+         for (Map.Entry<SocketAddress, Map<WrappedByteArray, Put>> entry : putsByServer.entrySet()) {
+            Map<WrappedByteArray, Put> serverPuts = entry.getValue();
+            if (log.isTraceEnabled()) {
+               log.tracef("Sending %d coalesced puts to %s", serverPuts.size(), entry.getKey());
+            }
+            Map<byte[], byte[]> map = new HashMap<>(serverPuts.size() * 2);
+            List<CompletableFuture<Void>> futures = new ArrayList<>(serverPuts.size());
+            for (Map.Entry<WrappedByteArray, Put> put : serverPuts.entrySet()) {
+               map.put(put.getKey().getBytes(), put.getValue().value);
+               futures.add(put.getValue().future);
+            }
+            CompletableFuture<Void> stage;
+            try {
+               stage = operationsFactory.newPutAllOperation(map, lifespan, lifespanUnit, maxIdle, maxIdleUnit,
+                     dataFormat, 0).execute();
+            } catch (Throwable t) {
+               stage = CompletableFuture.failedFuture(t);
+            }
+            stage.whenComplete((ignore, t) -> {
+               for (CompletableFuture<Void> future : futures) {
+                  if (t != null) {
+                     future.completeExceptionally(t);
+                  } else {
+                     future.complete(null);
+                  }
+               }
+            });
+         }
+      }
+   }
+}
@@ -16,6 +16,7 @@
 import org.infinispan.commons.util.Util;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
 import net.jcip.annotations.Immutable;
 
 /**
@@ -28,6 +29,7 @@
 public abstract class AbstractKeyOperation<T> extends StatsAffectingRetryingOperation<T> {
    protected final Object key;
    protected final byte[] keyBytes;
+   protected ValueCompressor valueCompressor;
 
    protected AbstractKeyOperation(short requestCode, short responseCode, Codec codec, ChannelFactory channelFactory,
                                   Object key, byte[] keyBytes, byte[] cacheName, AtomicReference<ClientTopology> clientTopology, int flags,
@@ -39,6 +41,27 @@ protected AbstractKeyOperation(short requestCode, short responseCode, Codec code
       this.keyBytes = keyBytes;
    }
 
+   /**
+    * Compresses the values of the request and of its response, when the server negotiated it.
+    */
+   void valueCompressor(ValueCompressor valueCompressor) {
+      this.valueCompressor = valueCompressor;
+   }
+
+   @Override
+   public void invoke(Channel channel) {
+      if (valueCompressor != null) {
+         // The flag tells the server that the values are compressed, and the response is read with the same flags
+         int flags = valueCompressor.isNegotiated(channel) ? flags() | COMPRESSED_VALUES_FLAG : flags() & ~COMPRESSED_VALUES_FLAG;
+         header.flags(flags);
+      }
+      super.invoke(channel);
+   }
+
+   protected final boolean compressedValues() {
+      return (flags() & COMPRESSED_VALUES_FLAG) != 0;
+   }
+
    @Override
    protected void fetchChannelAndInvoke(int retryCount, Set<SocketAddress> failedServers) {
       if (retryCount == 0) {
@@ -50,6 +50,7 @@ protected AbstractKeyValueOperation(short requestCode, short responseCode, Codec
    }
 
    protected void sendKeyValueOperation(Channel channel) {
+      byte[] value = valueToSend();
       ByteBuf buf = channel.alloc().buffer(codec.estimateHeaderSize(header) + keyBytes.length +
             codec.estimateExpirationSize(lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit) + value.length);
 
@@ -60,6 +61,13 @@ protected void sendKeyValueOperation(Channel channel) {
       channel.writeAndFlush(buf);
    }
 
+   /**
+    * Returns the value to send to the server of the current request, compressed if it negotiated the compression.
+    */
+   protected final byte[] valueToSend() {
+      return compressedValues() ? valueCompressor.compress(value) : value;
+   }
+
    @Override
    protected void addParams(StringBuilder sb) {
       super.addParams(sb);
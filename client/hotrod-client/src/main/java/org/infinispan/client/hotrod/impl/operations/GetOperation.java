@@ -42,7 +42,7 @@ public void executeOperation(Channel channel) {
    public void acceptResponse(ByteBuf buf, short status, HeaderDecoder decoder) {
       if (!HotRodConstants.isNotExist(status) && HotRodConstants.isSuccess(status)) {
          statsDataRead(true);
-         complete(dataFormat().valueToObj(ByteBufUtil.readArray(buf), cfg.getClassAllowList()));
+         complete(dataFormat().valueToObj(ByteBufUtil.readValueArray(buf, flags()), cfg.getClassAllowList()));
       } else {
          statsDataRead(false);
          complete(null);
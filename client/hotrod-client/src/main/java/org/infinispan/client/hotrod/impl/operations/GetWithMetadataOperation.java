@@ -72,13 +72,13 @@ protected void fetchChannelAndInvoke(int retryCount, Set<SocketAddress> failedSe
 
    @Override
    public void acceptResponse(ByteBuf buf, short status, HeaderDecoder decoder) {
-      MetadataValue<V> metadataValue = readMetadataValue(buf, status, dataFormat(), cfg.getClassAllowList());
+      MetadataValue<V> metadataValue = readMetadataValue(buf, status, dataFormat(), cfg.getClassAllowList(), flags());
       statsDataRead(metadataValue != null);
       complete(metadataValue);
    }
 
    public static <V> MetadataValue<V> readMetadataValue(ByteBuf buf, short status, DataFormat dataFormat,
-         ClassAllowList classAllowList) {
+         ClassAllowList classAllowList, int requestFlags) {
       if (HotRodConstants.isNotExist(status) || (!HotRodConstants.isSuccess(status) && !HotRodConstants.hasPrevious(status))) {
          return null;
       }
@@ -99,7 +99,7 @@ public static <V> MetadataValue<V> readMetadataValue(ByteBuf buf, short status,
       if (log.isTraceEnabled()) {
          log.tracef("Received version: %d", version);
       }
-      V value = dataFormat.valueToObj(ByteBufUtil.readArray(buf), classAllowList);
+      V value = dataFormat.valueToObj(ByteBufUtil.readValueArray(buf, requestFlags), classAllowList);
 
       return new MetadataValueImpl<>(creation, lifespan, lastUsed, maxIdle, version, value);
    }
@@ -0,0 +1,52 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.net.SocketAddress;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.infinispan.client.hotrod.configuration.Configuration;
+import org.infinispan.client.hotrod.impl.ClientTopology;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.netty.ChannelFactory;
+import org.infinispan.client.hotrod.impl.transport.netty.HeaderDecoder;
+import org.infinispan.commons.io.CompressionAlgorithm;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+/**
+ * Sends the compression algorithms supported by the client to a server, and returns the one it chose to compress the
+ * values of the cache, or {@link CompressionAlgorithm#NONE} if they must not be compressed.
+ *
+ * @since 15.0
+ */
+public class NegotiateCompressionOperation extends RetryOnFailureOperation<CompressionAlgorithm> {
+   private final SocketAddress server;
+   private final byte[] algorithms;
+
+   protected NegotiateCompressionOperation(Codec codec, ChannelFactory channelFactory, byte[] cacheName,
+                                           AtomicReference<ClientTopology> clientTopology, int flags, Configuration cfg,
+                                           SocketAddress server, byte[] algorithms) {
+      super(NEGOTIATE_COMPRESSION_REQUEST, NEGOTIATE_COMPRESSION_RESPONSE, codec, channelFactory, cacheName,
+            clientTopology, flags, cfg, null, null);
+      this.server = server;
+      this.algorithms = algorithms;
+   }
+
+   @Override
+   protected void fetchChannelAndInvoke(int retryCount, Set<SocketAddress> failedServers) {
+      // Each server negotiates the compression separately
+      channelFactory.fetchChannelAndInvoke(server, this);
+   }
+
+   @Override
+   protected void executeOperation(Channel channel) {
+      scheduleRead(channel);
+      sendArrayOperation(channel, algorithms);
+   }
+
+   @Override
+   public void acceptResponse(ByteBuf buf, short status, HeaderDecoder decoder) {
+      complete(CompressionAlgorithm.valueOf(buf.readByte()));
+   }
+}
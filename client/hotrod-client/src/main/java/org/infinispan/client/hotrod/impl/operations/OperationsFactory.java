@@ -4,6 +4,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -29,6 +31,7 @@
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.infinispan.client.hotrod.telemetry.impl.TelemetryService;
+import org.infinispan.commons.io.CompressionAlgorithm;
 import org.infinispan.commons.util.IntSet;
 
 import io.netty.channel.Channel;
@@ -65,6 +68,8 @@ public class OperationsFactory implements HotRodConstants {
 
    private final TelemetryService telemetryService;
 
+   private volatile ValueCompressor valueCompressor;
+
    public OperationsFactory(ChannelFactory channelFactory, String cacheName, boolean forceReturnValue, ClientListenerNotifier listenerNotifier, Configuration cfg, ClientStatistics clientStatistics) {
       this.channelFactory = channelFactory;
       this.cacheNameBytes = cacheName == null ? DEFAULT_CACHE_NAME_BYTES : RemoteCacheManager.cacheNameBytes(cacheName);
@@ -106,6 +111,10 @@ public String getCacheName() {
       return cacheName;
    }
 
+   public byte[] getCacheNameBytes() {
+      return cacheNameBytes;
+   }
+
    public ChannelFactory getChannelFactory() {
       return channelFactory;
    }
@@ -114,9 +123,34 @@ public Codec getCodec() {
       return channelFactory.getNegotiatedCodec();
    }
 
+   /**
+    * Compresses the values of the operations created from now on, for the servers which negotiate the algorithm.
+    *
+    * @param algorithm the algorithm requested by the client, or {@link CompressionAlgorithm#NONE} to stop compressing
+    * @param threshold the minimum size in bytes of the values which are compressed
+    * @return the compressor negotiating the algorithm with the servers, or null if the values are not compressed
+    */
+   public ValueCompressor valueCompression(CompressionAlgorithm algorithm, int threshold) {
+      ValueCompressor compressor = algorithm == CompressionAlgorithm.NONE ? null :
+            new ValueCompressor(algorithm, threshold, server -> negotiateCompression(server, algorithm));
+      this.valueCompressor = compressor;
+      return compressor;
+   }
+
+   private CompletionStage<Boolean> negotiateCompression(SocketAddress server, CompressionAlgorithm algorithm) {
+      // Older servers do not support compression, and would fail the request
+      return channelFactory.fetchChannelAndInvoke(server, newPingOperation(true)).thenCompose(pingResponse -> {
+         if (!pingResponse.getServerOps().contains((short) NEGOTIATE_COMPRESSION_REQUEST)) {
+            return CompletableFuture.completedFuture(false);
+         }
+         byte[] algorithms = {algorithm.id()};
+         return newNegotiateCompressionOperation(server, algorithms).execute().thenApply(chosen -> chosen == algorithm);
+      });
+   }
+
    public <V> GetOperation<V> newGetKeyOperation(Object key, byte[] keyBytes, DataFormat dataFormat) {
-      return new GetOperation<>(
-            getCodec(), channelFactory, key, keyBytes, cacheNameBytes, clientTopologyRef, flags(), cfg, dataFormat, clientStatistics);
+      return compressValues(new GetOperation<>(
+            getCodec(), channelFactory, key, keyBytes, cacheNameBytes, clientTopologyRef, flags(), cfg, dataFormat, clientStatistics));
    }
 
    public <K, V> GetAllParallelOperation<K, V> newGetAllOperation(Set<byte[]> keys, DataFormat dataFormat) {
@@ -138,10 +172,10 @@ public <V> RemoveIfUnmodifiedOperation<V> newRemoveIfUnmodifiedOperation(Object
 
    public ReplaceIfUnmodifiedOperation newReplaceIfUnmodifiedOperation(Object key, byte[] keyBytes,
                                                                        byte[] value, long lifespan, TimeUnit lifespanTimeUnit, long maxIdle, TimeUnit maxIdleTimeUnit, long version, DataFormat dataFormat) {
-      return new ReplaceIfUnmodifiedOperation(
+      return compressValues(new ReplaceIfUnmodifiedOperation(
             getCodec(), channelFactory, key, keyBytes, cacheNameBytes, clientTopologyRef, flags(lifespan, maxIdle),
             cfg, value, lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit, version, dataFormat, clientStatistics,
-            telemetryService);
+            telemetryService));
    }
 
    public <V> GetWithMetadataOperation<V> newGetWithMetadataOperation(Object key, byte[] keyBytes, DataFormat dataFormat) {
@@ -150,9 +184,9 @@ public <V> GetWithMetadataOperation<V> newGetWithMetadataOperation(Object key, b
 
    public <V> GetWithMetadataOperation<V> newGetWithMetadataOperation(Object key, byte[] keyBytes, DataFormat dataFormat,
                                                                       SocketAddress listenerServer) {
-      return new GetWithMetadataOperation<>(
+      return compressValues(new GetWithMetadataOperation<>(
             getCodec(), channelFactory, key, keyBytes, cacheNameBytes, clientTopologyRef, flags(), cfg, dataFormat, clientStatistics,
-            listenerServer);
+            listenerServer));
    }
 
    public StatsOperation newStatsOperation() {
@@ -163,10 +197,10 @@ public StatsOperation newStatsOperation() {
    public <V> PutOperation<V> newPutKeyValueOperation(Object key, byte[] keyBytes, byte[] value,
                                                       long lifespan, TimeUnit lifespanTimeUnit, long maxIdle,
                                                       TimeUnit maxIdleTimeUnit, DataFormat dataFormat) {
-      return new PutOperation<>(
+      return compressValues(new PutOperation<>(
             getCodec(), channelFactory, key, keyBytes, cacheNameBytes, clientTopologyRef, flags(lifespan, maxIdle),
             cfg, value, lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit, dataFormat, clientStatistics,
-            telemetryService);
+            telemetryService));
    }
 
    public PutAllParallelOperation newPutAllOperation(Map<byte[], byte[]> map,
@@ -176,21 +210,32 @@ public PutAllParallelOperation newPutAllOperation(Map<byte[], byte[]> map,
             lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit, dataFormat, clientStatistics, telemetryService);
    }
 
+   /**
+    * Same as {@link #newPutAllOperation(Map, long, TimeUnit, long, TimeUnit, DataFormat)}, but with the given flags
+    * instead of the flags set for the current thread, for puts which are sent by another thread.
+    */
+   public PutAllParallelOperation newPutAllOperation(Map<byte[], byte[]> map, long lifespan, TimeUnit lifespanTimeUnit,
+                                                     long maxIdle, TimeUnit maxIdleTimeUnit, DataFormat dataFormat, int flags) {
+      return new PutAllParallelOperation(
+            getCodec(), channelFactory, map, cacheNameBytes, clientTopologyRef, expirationFlags(flags, lifespan, maxIdle),
+            cfg, lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit, dataFormat, clientStatistics, telemetryService);
+   }
+
    public <V> PutIfAbsentOperation<V> newPutIfAbsentOperation(Object key, byte[] keyBytes, byte[] value,
                                                               long lifespan, TimeUnit lifespanUnit, long maxIdleTime,
                                                               TimeUnit maxIdleTimeUnit, DataFormat dataFormat) {
-      return new PutIfAbsentOperation<>(
+      return compressValues(new PutIfAbsentOperation<>(
             getCodec(), channelFactory, key, keyBytes, cacheNameBytes, clientTopologyRef, flags(lifespan, maxIdleTime),
             cfg, value, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit, dataFormat, clientStatistics,
-            telemetryService);
+            telemetryService));
    }
 
    public <V> ReplaceOperation<V> newReplaceOperation(Object key, byte[] keyBytes, byte[] values,
                                                       long lifespan, TimeUnit lifespanTimeUnit, long maxIdle, TimeUnit maxIdleTimeUnit, DataFormat dataFormat) {
-      return new ReplaceOperation<>(
+      return compressValues(new ReplaceOperation<>(
             getCodec(), channelFactory, key, keyBytes, cacheNameBytes, clientTopologyRef, flags(lifespan, maxIdle),
             cfg, values, lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit, dataFormat, clientStatistics,
-            telemetryService);
+            telemetryService));
    }
 
    public ContainsKeyOperation newContainsKeyOperation(Object key, byte[] keyBytes, DataFormat dataFormat) {
@@ -232,6 +277,11 @@ public AddBloomNearCacheClientListenerOperation newAddNearCacheListenerOperation
             listener, dataFormat, bloomFilterBits, remoteCache);
    }
 
+   public NegotiateCompressionOperation newNegotiateCompressionOperation(SocketAddress server, byte[] algorithms) {
+      return new NegotiateCompressionOperation(getCodec(), channelFactory, cacheNameBytes, clientTopologyRef, flags(), cfg,
+            server, algorithms);
+   }
+
    public UpdateBloomFilterOperation newUpdateBloomFilterOperation(SocketAddress address, byte[] bloomBytes) {
       return new UpdateBloomFilterOperation(getCodec(), channelFactory, cacheNameBytes, clientTopologyRef, flags(), cfg, address,
             bloomBytes);
@@ -278,8 +328,16 @@ public AdminOperation newAdminOperation(String taskName, Map<String, byte[]> mar
             clientTopologyRef, flags(), cfg, taskName, marshalledParams);
    }
 
+   private <T extends AbstractKeyOperation<?>> T compressValues(T operation) {
+      operation.valueCompressor(valueCompressor);
+      return operation;
+   }
+
    private int flags(long lifespan, long maxIdle) {
-      int intFlags = flags();
+      return expirationFlags(flags(), lifespan, maxIdle);
+   }
+
+   private static int expirationFlags(int intFlags, long lifespan, long maxIdle) {
       if (lifespan == 0) {
          intFlags |= Flag.DEFAULT_LIFESPAN.getFlagInt();
       }
@@ -313,6 +371,14 @@ public void setFlags(int intFlags) {
       this.flagsMap.set(intFlags);
    }
 
+   /**
+    * @return whether the next operation of the current thread is invoked with any flag, without consuming the flags.
+    */
+   public boolean hasFlags() {
+      Integer threadLocalFlags = this.flagsMap.get();
+      return forceReturnValue || (threadLocalFlags != null && threadLocalFlags != 0);
+   }
+
    public boolean hasFlag(Flag flag) {
       Integer threadLocalFlags = this.flagsMap.get();
       return threadLocalFlags != null && (threadLocalFlags & flag.getFlagInt()) != 0;
@@ -75,6 +75,12 @@ public void executeOperation(Channel channel) {
    public void releaseChannel(Channel channel) {
    }
 
+   @Override
+   public boolean requiresExclusiveChannel() {
+      // The value is written to the channel by the output stream after the header
+      return true;
+   }
+
    @Override
    public boolean completeExceptionally(Throwable ex) {
       closeFuture.completeExceptionally(ex);
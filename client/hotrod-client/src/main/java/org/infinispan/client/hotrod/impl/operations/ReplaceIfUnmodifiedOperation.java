@@ -43,6 +43,7 @@ public ReplaceIfUnmodifiedOperation(Codec codec, ChannelFactory channelFactory,
    protected void executeOperation(Channel channel) {
       scheduleRead(channel);
 
+      byte[] value = valueToSend();
       ByteBuf buf = channel.alloc().buffer(codec.estimateHeaderSize(header) + ByteBufUtil.estimateArraySize(keyBytes) +
             codec.estimateExpirationSize(lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit) + 8 +
             ByteBufUtil.estimateArraySize(value));
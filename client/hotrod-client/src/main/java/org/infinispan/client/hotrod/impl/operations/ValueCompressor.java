@@ -0,0 +1,88 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.net.SocketAddress;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
+import org.infinispan.client.hotrod.impl.transport.netty.ChannelRecord;
+import org.infinispan.commons.io.CompressionAlgorithm;
+import org.infinispan.commons.io.ValueCompression;
+
+import io.netty.channel.Channel;
+
+/**
+ * Compresses the values of a cache sent to the servers which negotiated the compression. Each server negotiates it
+ * separately, the first time the client contacts it, so that the requests sent to a server which does not support it,
+ * or which did not reply yet, keep the plain values and do not have the {@link HotRodConstants#COMPRESSED_VALUES_FLAG}
+ * flag.
+ *
+ * @since 15.0
+ */
+public class ValueCompressor {
+   private final CompressionAlgorithm algorithm;
+   private final int threshold;
+   private final Function<SocketAddress, CompletionStage<Boolean>> negotiation;
+   private final ConcurrentMap<SocketAddress, CompletableFuture<Boolean>> servers = new ConcurrentHashMap<>();
+
+   /**
+    * @param algorithm   the algorithm requested by the client
+    * @param threshold   the minimum size in bytes of the values which are compressed
+    * @param negotiation negotiates the algorithm with a server, and returns whether the server accepted it
+    */
+   ValueCompressor(CompressionAlgorithm algorithm, int threshold,
+                   Function<SocketAddress, CompletionStage<Boolean>> negotiation) {
+      this.algorithm = algorithm;
+      this.threshold = threshold;
+      this.negotiation = negotiation;
+   }
+
+   public CompressionAlgorithm algorithm() {
+      return algorithm;
+   }
+
+   /**
+    * Negotiates the compression with the given servers, and completes once they all replied.
+    */
+   public CompletionStage<Void> negotiate(Collection<? extends SocketAddress> addresses) {
+      return CompletableFuture.allOf(addresses.stream().map(this::negotiated).toArray(CompletableFuture[]::new));
+   }
+
+   /**
+    * Returns whether the values sent to the server of the channel must be compressed. The negotiation starts the first
+    * time a server is seen, and its requests keep the plain values until it completes.
+    */
+   boolean isNegotiated(Channel channel) {
+      return negotiated(ChannelRecord.of(channel).getUnresolvedAddress()).getNow(Boolean.FALSE);
+   }
+
+   byte[] compress(byte[] value) {
+      return ValueCompression.compress(value, algorithm, threshold);
+   }
+
+   private CompletableFuture<Boolean> negotiated(SocketAddress server) {
+      CompletableFuture<Boolean> negotiated = servers.get(server);
+      if (negotiated != null) {
+         return negotiated;
+      }
+      CompletableFuture<Boolean> started = new CompletableFuture<>();
+      negotiated = servers.putIfAbsent(server, started);
+      if (negotiated != null) {
+         return negotiated;
+      }
+      negotiation.apply(server).whenComplete((accepted, t) -> {
+         if (t != null) {
+            // The server could not be reached, negotiate again the next time it is contacted
+            servers.remove(server, started);
+            started.complete(Boolean.FALSE);
+         } else {
+            started.complete(accepted);
+         }
+      });
+      return started;
+   }
+}
@@ -293,7 +293,7 @@ public AbstractClientEvent readCacheEvent(ByteBuf buf, Function<byte[], DataForm
    @Override
    public Object returnPossiblePrevValue(ByteBuf buf, short status, DataFormat dataFormat, int flags, ClassAllowList allowList, Marshaller marshaller) {
       if (HotRodConstants.hasPrevious(status)) {
-         return dataFormat.valueToObj(ByteBufUtil.readArray(buf), allowList);
+         return dataFormat.valueToObj(ByteBufUtil.readValueArray(buf, flags), allowList);
       } else {
          return null;
       }
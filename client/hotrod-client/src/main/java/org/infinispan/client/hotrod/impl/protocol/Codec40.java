@@ -23,7 +23,7 @@ public HeaderParams writeHeader(ByteBuf buf, HeaderParams params) {
    @Override
    public Object returnPossiblePrevValue(ByteBuf buf, short status, DataFormat dataFormat, int flags, ClassAllowList allowList, Marshaller marshaller) {
       if (HotRodConstants.hasPrevious(status)) {
-         MetadataValue<Object> metadataValue = GetWithMetadataOperation.readMetadataValue(buf, status, dataFormat, allowList);
+         MetadataValue<Object> metadataValue = GetWithMetadataOperation.readMetadataValue(buf, status, dataFormat, allowList, flags);
          return metadataValue != null ? metadataValue.getValue() : null;
       } else {
          return null;
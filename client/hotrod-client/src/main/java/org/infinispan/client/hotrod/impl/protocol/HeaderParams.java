@@ -17,7 +17,7 @@ public class HeaderParams {
    final short opCode;
    final short opRespCode;
    byte[] cacheName;
-   final int flags;
+   int flags;
    final byte txMarker;
    final AtomicReference<ClientTopology> clientTopology;
    final long messageId;
@@ -74,6 +74,11 @@ public int flags() {
       return flags;
    }
 
+   public HeaderParams flags(int flags) {
+      this.flags = flags;
+      return this;
+   }
+
    public AtomicReference<ClientTopology> getClientTopology() {
       return clientTopology;
    }
@@ -71,6 +71,7 @@ public interface HotRodConstants {
 
    byte ADD_BLOOM_FILTER_NEAR_CACHE_LISTENER_REQUEST = 0x41;
    byte UPDATE_BLOOM_FILTER_REQUEST = 0x43;
+   byte NEGOTIATE_COMPRESSION_REQUEST = 0x45;
 
    byte COUNTER_CREATE_REQUEST = 0x4B;
    byte COUNTER_GET_CONFIGURATION_REQUEST = 0x4D;
@@ -123,6 +124,7 @@ public interface HotRodConstants {
    byte ROLLBACK_RESPONSE = 0x40;
    byte ADD_BLOOM_FILTER_NEAR_CACHE_LISTENER_RESPONSE = 0x42;
    byte UPDATE_BLOOM_FILTER_RESPONSE = 0x44;
+   byte NEGOTIATE_COMPRESSION_RESPONSE = 0x46;
    byte FORGET_TX_RESPONSE = 0x7A;
    byte FETCH_TX_RECOVERY_RESPONSE = 0x7C;
    byte PREPARE_TX_2_RESPONSE = 0x7E;
@@ -192,6 +194,9 @@ public interface HotRodConstants {
    byte INFINITE_LIFESPAN = 0x01;
    byte INFINITE_MAXIDLE = 0x02;
 
+   // request flag, the values of the request and of its response are compressed frames
+   int COMPRESSED_VALUES_FLAG = 0x0040;
+
    int DEFAULT_CACHE_TOPOLOGY = -1;
    int SWITCH_CLUSTER_TOPOLOGY = -2;
 
@@ -6,6 +6,7 @@
 
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.transaction.manager.RemoteXid;
+import org.infinispan.commons.io.ValueCompression;
 import org.infinispan.commons.util.Util;
 
 import io.netty.buffer.ByteBuf;
@@ -23,6 +24,15 @@ public static byte[] readArray(ByteBuf buf) {
       return bytes;
    }
 
+   /**
+    * Reads a value from the response of a request sent with the given flags, and decompresses it when the request
+    * has the {@link HotRodConstants#COMPRESSED_VALUES_FLAG} flag.
+    */
+   public static byte[] readValueArray(ByteBuf buf, int requestFlags) {
+      byte[] bytes = readArray(buf);
+      return (requestFlags & HotRodConstants.COMPRESSED_VALUES_FLAG) != 0 ? ValueCompression.decompress(bytes) : bytes;
+   }
+
    public static String readString(ByteBuf buf) {
       byte[] strContent = readArray(buf);
       return new String(strContent, HotRodConstants.HOTROD_STRING_CHARSET);
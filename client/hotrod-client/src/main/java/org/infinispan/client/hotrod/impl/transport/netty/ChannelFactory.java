@@ -221,7 +221,7 @@ protected ChannelPool createChannelPool(Bootstrap bootstrap, ChannelInitializer
       return new ChannelPool(bootstrap.config().group().next(), address, channelInitializer,
             configuration.connectionPool().exhaustedAction(), this::onConnectionEvent,
             configuration.connectionPool().maxWait(), maxConnections,
-            configuration.connectionPool().maxPendingRequests());
+            configuration.connectionPool().maxPendingRequests(), configuration.connectionPool().multiplexed());
    }
 
    protected final OperationsFactory getOperationsFactory() {
@@ -750,6 +750,13 @@ public Marshaller getMarshaller() {
       return marshaller;
    }
 
+   /**
+    * @return the event loop group of the connections, on which short tasks of the client can be scheduled.
+    */
+   public EventLoopGroup getEventLoopGroup() {
+      return eventLoopGroup;
+   }
+
    public String getCurrentClusterName() {
       return topologyInfo.getCluster().getName();
    }
@@ -800,6 +807,23 @@ public int getNumIdle() {
       return channelPoolMap.values().stream().mapToInt(ChannelPool::getIdle).sum();
    }
 
+   public int getNumInFlight(SocketAddress address) {
+      ChannelPool pool = channelPoolMap.get(address);
+      return pool == null ? 0 : pool.getInFlight();
+   }
+
+   public int getNumInFlight() {
+      return channelPoolMap.values().stream().mapToInt(ChannelPool::getInFlight).sum();
+   }
+
+   public int getMaxInFlight() {
+      return channelPoolMap.values().stream().mapToInt(ChannelPool::getMaxInFlight).max().orElse(0);
+   }
+
+   public int getNumPending() {
+      return channelPoolMap.values().stream().mapToInt(ChannelPool::getPending).sum();
+   }
+
    public Configuration getConfiguration() {
       return configuration;
    }
@@ -19,4 +19,13 @@ public interface ChannelOperation {
     * @param cause
     */
    void cancel(SocketAddress address, Throwable cause);
+
+   /**
+    * Whether the operation keeps writing to the channel after it is invoked, so that no other request may be sent over
+    * the channel until it is released. Other operations write their request at once and can share the channel with
+    * other requests awaiting a response when the connection pool is multiplexed.
+    */
+   default boolean requiresExclusiveChannel() {
+      return false;
+   }
 }
@@ -5,9 +5,12 @@
 import java.net.SocketAddress;
 import java.util.Deque;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.locks.StampedLock;
@@ -32,6 +35,13 @@
  * channel is available.
  * <p>
  * The connections are handled LIFO, pending requests are handled FIFO.
+ * <p>
+ * When the pool is multiplexed the idle connections stay in the pool while requests are awaiting a response on them:
+ * an operation writes its request to the connection with the fewest requests awaiting a response, as long as it has
+ * less than {@code maxPendingRequests} of them, without acquiring the connection. The connection is only acquired
+ * when it is created, and the operations {@link ChannelOperation#requiresExclusiveChannel() requiring} a connection
+ * of their own are always given a new connection, even beyond {@code maxConnections}, which is closed once released
+ * if the pool has too many connections. The pending requests are handled once a response is received.
  */
 class ChannelPool {
    enum ChannelEventType { CONNECTED, CLOSED_IDLE, CLOSED_ACTIVE, CONNECT_FAILED}
@@ -41,6 +51,8 @@ enum ChannelEventType { CONNECTED, CLOSED_IDLE, CLOSED_ACTIVE, CONNECT_FAILED}
 
    private final Deque<Channel> channels = PlatformDependent.newConcurrentDeque();
    private final Deque<ChannelOperation> callbacks = PlatformDependent.newConcurrentDeque();
+   // All the connected channels, idle or not, for the statistics
+   private final Set<Channel> connections = ConcurrentHashMap.newKeySet();
    private final EventExecutor executor;
    private final SocketAddress address;
    private final ChannelInitializer newChannelInvoker;
@@ -49,6 +61,9 @@ enum ChannelEventType { CONNECTED, CLOSED_IDLE, CLOSED_ACTIVE, CONNECT_FAILED}
    private final long maxWait;
    private final int maxConnections;
    private final int maxPendingRequests;
+   private final boolean multiplexed;
+   private final AtomicInteger maxInFlight = new AtomicInteger();
+   private final AtomicBoolean pendingScheduled = new AtomicBoolean();
    private final AtomicInteger created = new AtomicInteger();
    private final AtomicInteger active = new AtomicInteger();
    private final AtomicInteger connected = new AtomicInteger();
@@ -58,7 +73,7 @@ enum ChannelEventType { CONNECTED, CLOSED_IDLE, CLOSED_ACTIVE, CONNECT_FAILED}
 
    ChannelPool(EventExecutor executor, SocketAddress address, ChannelInitializer newChannelInvoker,
                ExhaustedAction exhaustedAction, BiConsumer<ChannelPool, ChannelEventType> connectionFailureListener,
-               long maxWait, int maxConnections, int maxPendingRequests) {
+               long maxWait, int maxConnections, int maxPendingRequests, boolean multiplexed) {
       this.connectionFailureListener = connectionFailureListener;
       this.executor = executor;
       this.address = address;
@@ -67,6 +82,7 @@ enum ChannelEventType { CONNECTED, CLOSED_IDLE, CLOSED_ACTIVE, CONNECT_FAILED}
       this.maxWait = maxWait;
       this.maxConnections = maxConnections;
       this.maxPendingRequests = maxPendingRequests;
+      this.multiplexed = multiplexed;
    }
 
    public void acquire(ChannelOperation callback) {
@@ -85,9 +101,13 @@ public void acquire(ChannelOperation callback) {
          callback = timeoutCallback;
       }
 
-      // Between the check time and adding the callback to the queue, we could have a channel available.
-      // Let's just try again.
-      if (!executeOrEnqueue(callback)) {
+      if (multiplexed) {
+         // The callback is invoked once a response frees a connection or a new connection is created
+         enqueue(callback);
+         schedulePending();
+      } else if (!executeOrEnqueue(callback)) {
+         // Between the check time and adding the callback to the queue, we could have a channel available.
+         // Let's just try again.
          boolean remove = false;
          try {
             remove = executeDirectlyIfPossible(callback);
@@ -103,6 +123,9 @@ public void acquire(ChannelOperation callback) {
    }
 
    boolean executeDirectlyIfPossible(ChannelOperation callback) {
+      if (multiplexed) {
+         return executeMultiplexedIfPossible(callback);
+      }
       Channel channel;
       int fullChannelsSeen = 0;
       while ((channel = channels.pollFirst()) != null) {
@@ -121,6 +144,57 @@ boolean executeDirectlyIfPossible(ChannelOperation callback) {
          }
          return activateChannel(channel, callback, false);
       }
+      return createChannelIfPossible(callback);
+   }
+
+   private boolean executeMultiplexedIfPossible(ChannelOperation callback) {
+      if (callback.requiresExclusiveChannel()) {
+         // Other operations could write to a channel taken from the pool
+         int currentCreated = created.incrementAndGet();
+         int currentActive = active.incrementAndGet();
+         if (log.isTraceEnabled()) log.tracef("[%s] Creating new exclusive channel, created = %d, active = %d", address, currentCreated, currentActive);
+         createAndInvoke(callback);
+         return true;
+      }
+      Channel channel = leastLoadedChannel();
+      if (channel != null) {
+         return invoke(channel, callback, false);
+      }
+      if (created.get() > connected.get()) {
+         // A connection is being created, wait for it instead of creating another one
+         return false;
+      }
+      return createChannelIfPossible(callback);
+   }
+
+   /**
+    * @return the idle channel with the fewest requests awaiting a response, or null if they all have
+    * {@code maxPendingRequests} of them
+    */
+   private Channel leastLoadedChannel() {
+      Channel leastLoaded = null;
+      int leastInFlight = maxPendingRequests;
+      for (Channel channel : channels) {
+         if (!channel.isActive()) {
+            channels.remove(channel);
+            continue;
+         }
+         if (!channel.isWritable()) {
+            continue;
+         }
+         int inFlight = channel.pipeline().get(HeaderDecoder.class).registeredOperations();
+         if (inFlight < leastInFlight) {
+            leastLoaded = channel;
+            leastInFlight = inFlight;
+            if (inFlight == 0) {
+               break;
+            }
+         }
+      }
+      return leastLoaded;
+   }
+
+   private boolean createChannelIfPossible(ChannelOperation callback) {
       int current = created.get();
       while (current < maxConnections) {
          if (created.compareAndSet(current, current + 1)) {
@@ -174,6 +248,51 @@ private boolean executeOrEnqueue(ChannelOperation callback) {
       return activateChannel(channel, callback, false);
    }
 
+   private void enqueue(ChannelOperation callback) {
+      long stamp = lock.writeLock();
+      try {
+         if (log.isTraceEnabled()) log.tracef("[%s] No channel available, adding callback to the queue %s", address, callback);
+         callbacks.addLast(callback);
+      } finally {
+         lock.unlockWrite(stamp);
+      }
+   }
+
+   /**
+    * Schedules the invocation of the pending callbacks of a multiplexed pool, unless it is already scheduled.
+    */
+   private void schedulePending() {
+      if (!callbacks.isEmpty() && pendingScheduled.compareAndSet(false, true)) {
+         // Do not execute the callbacks in the thread releasing a channel or reading a response
+         executor.execute(this::executePending);
+      }
+   }
+
+   /**
+    * Invokes the pending callbacks of a multiplexed pool while there is a channel available for them. The callbacks
+    * are invoked one after the other so that each request is registered before choosing the channel of the next one.
+    */
+   private void executePending() {
+      pendingScheduled.set(false);
+      ChannelOperation callback;
+      while (!terminated && (callback = acquireHead()) != null) {
+         boolean executed;
+         try {
+            executed = executeMultiplexedIfPossible(callback);
+         } catch (Throwable t) {
+            callback.cancel(address, t);
+            continue;
+         }
+         if (!executed) {
+            callbacks.addFirst(callback);
+            // A channel could have become available before the callback was back in the queue
+            if (leastLoadedChannel() == null) {
+               return;
+            }
+         }
+      }
+   }
+
    private void createAndInvoke(ChannelOperation callback) {
       try {
          newChannelInvoker.createChannel().whenComplete((channel, throwable) -> {
@@ -192,13 +311,20 @@ private void createAndInvoke(ChannelOperation callback) {
                connectionFailureListener.accept(this, ChannelEventType.CONNECT_FAILED);
                callback.cancel(address, throwable);
                maybeRejectPendingCallbacks(throwable);
+               if (multiplexed) {
+                  schedulePending();
+               }
             } else {
                suspected = false;
+               connections.add(channel);
                int currentConnected = connected.incrementAndGet();
                if (log.isTraceEnabled()) log.tracef("[%s] Channel connected, created = %d, active = %d, connected = %d",
                                                     address, created.get(), active.get(), currentConnected);
                callback.invoke(channel);
                connectionFailureListener.accept(this, ChannelEventType.CONNECTED);
+               if (multiplexed) {
+                  schedulePending();
+               }
             }
          });
       } catch (Throwable t) {
@@ -223,6 +349,10 @@ private void createAndInvoke(ChannelOperation callback) {
    public void release(Channel channel, ChannelRecord record) {
       // The channel can be closed when it's idle (due to idle timeout or closed connection)
       if (record.isIdle()) {
+         if (multiplexed) {
+            // The operation did not acquire the channel, it shared it with other operations
+            return;
+         }
          HOTROD.warnf("Cannot release channel %s because it is idle", channel);
          return;
       }
@@ -246,6 +376,18 @@ public void release(Channel channel, ChannelRecord record) {
          HOTROD.warnf("[%s] Invalid active count after releasing channel %s", address, channel);
       }
 
+      if (multiplexed) {
+         if (created.get() > maxConnections) {
+            // The channel was created for an operation requiring a channel of its own
+            if (log.isTraceEnabled()) log.tracef("[%s] Closing channel %s above the maximum number of connections", address, channel);
+            discardChannel(channel);
+            return;
+         }
+         channels.addFirst(channel);
+         schedulePending();
+         return;
+      }
+
       ChannelOperation callback;
       // We're protecting against concurrent acquires, concurrent releases are fine
       // hopefully the acquire will usually get the channel through the fast (non-locking) path
@@ -272,6 +414,10 @@ public void releaseClosedChannel(Channel channel, ChannelRecord channelRecord) {
       }
 
       boolean idle = channelRecord.closeAndWasIdle();
+      connections.remove(channel);
+      if (multiplexed) {
+         channels.remove(channel);
+      }
 
       int currentCreated = created.decrementAndGet();
       int currentActive = !idle ? active.decrementAndGet() : active.get();
@@ -285,6 +431,10 @@ public void releaseClosedChannel(Channel channel, ChannelRecord channelRecord) {
          HOTROD.warnf("Invalid active count after closing channel %s", channel);
       }
       connectionFailureListener.accept( this, idle ? ChannelEventType.CLOSED_IDLE : ChannelEventType.CLOSED_ACTIVE);
+      if (multiplexed) {
+         // The pool may create a new connection for the pending callbacks
+         schedulePending();
+      }
    }
 
    private boolean activateChannel(Channel channel, ChannelOperation callback, boolean useExecutor) {
@@ -293,6 +443,10 @@ private boolean activateChannel(Channel channel, ChannelOperation callback, bool
       if (log.isTraceEnabled()) log.tracef("[%s] Activated record %s, created = %d, active = %d", address, channel, created.get(), currentActive);
       ChannelRecord record = ChannelRecord.of(channel);
       record.setAcquired();
+      return invoke(channel, callback, useExecutor);
+   }
+
+   private boolean invoke(Channel channel, ChannelOperation callback, boolean useExecutor) {
       if (useExecutor) {
          // Do not execute another operation in releasing thread, we could run out of stack
          executor.execute(() -> {
@@ -335,6 +489,52 @@ public int getConnected() {
       return connected.get();
    }
 
+   /**
+    * @return the number of requests awaiting a response on all the connections
+    */
+   public int getInFlight() {
+      int inFlight = 0;
+      for (Channel channel : connections) {
+         HeaderDecoder decoder = channel.pipeline().get(HeaderDecoder.class);
+         if (decoder != null) {
+            inFlight += decoder.registeredOperations();
+         }
+      }
+      return inFlight;
+   }
+
+   /**
+    * @return the highest number of requests awaiting a response on a single connection
+    */
+   public int getMaxInFlight() {
+      return maxInFlight.get();
+   }
+
+   /**
+    * @return the number of operations waiting for a connection
+    */
+   public int getPending() {
+      return callbacks.size();
+   }
+
+   /**
+    * Invoked when a request was registered on a channel of this pool.
+    */
+   void operationRegistered(int inFlight) {
+      if (inFlight > maxInFlight.get()) {
+         maxInFlight.accumulateAndGet(inFlight, Math::max);
+      }
+   }
+
+   /**
+    * Invoked when the response of a request was received on a channel of this pool.
+    */
+   void operationCompleted() {
+      if (multiplexed) {
+         schedulePending();
+      }
+   }
+
    public void close() {
       terminated = true;
       long stamp = lock.writeLock();
@@ -390,6 +590,7 @@ public String toString() {
             ", maxWait=" + maxWait +
             ", maxConnections=" + maxConnections +
             ", maxPendingRequests=" + maxPendingRequests +
+            ", multiplexed=" + multiplexed +
             ", created=" + created +
             ", active=" + active +
             ", connected=" + connected +
@@ -429,7 +630,18 @@ public void invoke(Channel channel) {
 
       @Override
       public void cancel(SocketAddress address, Throwable cause) {
-         throw new UnsupportedOperationException();
+         ScheduledFuture<?> timeoutFuture = this.timeoutFuture;
+         if (timeoutFuture != null) {
+            timeoutFuture.cancel(false);
+         }
+         if (invokedUpdater.compareAndSet(this, 0, 1)) {
+            callback.cancel(address, cause);
+         }
+      }
+
+      @Override
+      public boolean requiresExclusiveChannel() {
+         return callback.requiresExclusiveChannel();
       }
    }
 }
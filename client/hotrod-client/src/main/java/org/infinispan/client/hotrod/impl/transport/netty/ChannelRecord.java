@@ -41,6 +41,10 @@ public SocketAddress getUnresolvedAddress() {
       return unresolvedAddress;
    }
 
+   ChannelPool getChannelPool() {
+      return channelPool;
+   }
+
    @Override
    public boolean complete(Channel channel) {
       // Only add the listener once (or never, if completed exceptionally)
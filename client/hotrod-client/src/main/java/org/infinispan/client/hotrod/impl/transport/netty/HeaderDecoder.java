@@ -80,6 +80,10 @@ public void registerOperation(Channel channel, HotRodOperation<?> operation) {
          if (retries == null) retries = new ConcurrentHashMap<>();
          retries.compute(operation.header().messageId(), INCREMENT);
       }
+      ChannelRecord record = ChannelRecord.of(channel);
+      if (record != null) {
+         record.getChannelPool().operationRegistered(incomplete.size());
+      }
       operation.scheduleTimeout(channel);
    }
 
@@ -137,6 +141,11 @@ protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
                if (log.isTraceEnabled()) {
                   log.tracef("Received response for request %d, %s", messageId, operation);
                }
+               ChannelRecord record = ChannelRecord.of(ctx.channel());
+               if (record != null) {
+                  // Another request may be sent over this channel
+                  record.getChannelPool().operationCompleted();
+               }
                checkpoint(State.READ_HEADER);
                // fall through
             case READ_HEADER:
@@ -24,6 +24,21 @@ public interface RemoteCacheManagerMXBean {
     */
    int getIdleConnectionCount();
 
+   /**
+    * Returns the number of requests awaiting a response on all the connections
+    */
+   int getInFlightRequestCount();
+
+   /**
+    * Returns the highest number of requests that were awaiting a response on a single connection
+    */
+   int getMaxInFlightRequestsPerConnection();
+
+   /**
+    * Returns the number of operations waiting for a connection to become available
+    */
+   int getPendingConnectionRequestCount();
+
    /**
     * Returns the total number of retries that have been executed
     */
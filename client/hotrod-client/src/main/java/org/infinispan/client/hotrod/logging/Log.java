@@ -399,4 +399,10 @@ public interface Log extends BasicLogger {
    @Message(value = "OpenTelemetry API is present in the classpath, but the tracing propagation is not enabled. Client context tracing will not be propagated.", id = 4111)
    void openTelemetryPropagationDisabled();
 
+   @Message(value = "Invalid write coalescing configuration for cache '%s': the delay cannot be negative and the maximum number of operations must be positive", id = 4112)
+   CacheConfigurationException invalidWriteCoalescing(String cacheName);
+
+   @Message(value = "Invalid compression threshold for cache '%s': the threshold cannot be negative", id = 4113)
+   CacheConfigurationException invalidCompressionThreshold(String cacheName);
+
 }
@@ -2,12 +2,27 @@
 
 import java.util.function.BiConsumer;
 
+import org.infinispan.client.hotrod.DataFormat;
 import org.infinispan.client.hotrod.MetadataValue;
 import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
+import org.infinispan.commons.configuration.ClassAllowList;
 
 /**
  * @since 14.0
  **/
 public interface NearCacheFactory {
    <K,V> NearCache<K, V> createNearCache(NearCacheConfiguration config, BiConsumer<K, MetadataValue<V>> removedConsumer);
+
+   /**
+    * Creates the near cache of a remote cache, for near caches which store the values marshalled. The default
+    * implementation ignores the data format.
+    *
+    * @param dataFormat the data format of the remote cache, used to marshall and unmarshall its values
+    * @param allowList the classes which can be unmarshalled
+    * @since 15.0
+    */
+   default <K, V> NearCache<K, V> createNearCache(NearCacheConfiguration config, BiConsumer<K, MetadataValue<V>> removedConsumer,
+                                                  DataFormat dataFormat, ClassAllowList allowList) {
+      return createNearCache(config, removedConsumer);
+   }
 }
@@ -0,0 +1,248 @@
+package org.infinispan.client.hotrod.near;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+
+import org.infinispan.client.hotrod.DataFormat;
+import org.infinispan.client.hotrod.MetadataValue;
+import org.infinispan.client.hotrod.impl.MetadataValueImpl;
+import org.infinispan.commons.configuration.ClassAllowList;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.util.IllegalReferenceCountException;
+
+/**
+ * Near cache storing the marshalled values in off-heap memory, so that large values are not part of the heap of the
+ * client and do not lengthen its garbage collections.
+ * <p>
+ * The cache is bounded by the number of bytes of the marshalled values, and the values are unmarshalled each time they
+ * are read. An optional on-heap tier keeps the unmarshalled values of the most frequently read keys.
+ * <p>
+ * As the value objects are not kept, a stored value is equal to any {@link MetadataValue} with the same version.
+ *
+ * @since 15.0
+ */
+final class OffHeapNearCache<K, V> implements NearCache<K, V> {
+   // Unpooled buffers are freed as soon as they are released and are never reused by another value
+   private static final ByteBufAllocator ALLOCATOR = UnpooledByteBufAllocator.DEFAULT;
+
+   private final DataFormat dataFormat;
+   private final ClassAllowList allowList;
+   private final Cache<K, StoredValue<V>> cache;
+   private final ConcurrentMap<K, StoredValue<V>> map;
+   private final Cache<K, MetadataValue<V>> hotTier;
+
+   private OffHeapNearCache(DataFormat dataFormat, ClassAllowList allowList, long maxBytes, int hotEntries,
+                            BiConsumer<? super K, ? super MetadataValue<V>> removedConsumer) {
+      this.dataFormat = dataFormat;
+      this.allowList = allowList;
+      this.hotTier = hotEntries > 0 ? Caffeine.newBuilder().maximumSize(hotEntries).build() : null;
+      this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .<K, StoredValue<V>>weigher((key, value) -> value.size())
+            // Free the memory of the removed values on the thread removing them
+            .executor(Runnable::run)
+            .<K, StoredValue<V>>removalListener((key, value, cause) -> {
+               if (hotTier != null) {
+                  hotTier.invalidate(key);
+               }
+               value.release();
+               removedConsumer.accept(key, value.metadata);
+            })
+            .build();
+      this.map = cache.asMap();
+   }
+
+   static <K, V> NearCache<K, V> create(DataFormat dataFormat, ClassAllowList allowList, long maxBytes, int hotEntries,
+                                        BiConsumer<? super K, ? super MetadataValue<V>> removedConsumer) {
+      return new OffHeapNearCache<>(dataFormat, allowList, maxBytes, hotEntries, removedConsumer);
+   }
+
+   @Override
+   public boolean putIfAbsent(K key, MetadataValue<V> value) {
+      StoredValue<V> stored = store(value);
+      if (map.putIfAbsent(key, stored) == null) {
+         return true;
+      }
+      stored.release();
+      return false;
+   }
+
+   @Override
+   public boolean replace(K key, MetadataValue<V> prevValue, MetadataValue<V> newValue) {
+      StoredValue<V> current = map.get(key);
+      if (current == null || !current.matches(prevValue)) {
+         return false;
+      }
+      StoredValue<V> stored = store(newValue);
+      if (map.replace(key, current, stored)) {
+         return true;
+      }
+      stored.release();
+      return false;
+   }
+
+   @Override
+   public boolean remove(K key) {
+      return map.remove(key) != null;
+   }
+
+   @Override
+   public boolean remove(K key, MetadataValue<V> value) {
+      StoredValue<V> current = map.get(key);
+      return current != null && current.matches(value) && map.remove(key, current);
+   }
+
+   @Override
+   public MetadataValue<V> get(K key) {
+      if (hotTier != null) {
+         MetadataValue<V> value = hotTier.getIfPresent(key);
+         if (value != null) {
+            return value;
+         }
+      }
+      StoredValue<V> stored = map.get(key);
+      if (stored == null) {
+         return null;
+      }
+      MetadataValue<V> value = read(stored);
+      if (value != null && stored.bytes != null && hotTier != null) {
+         hotTier.put(key, value);
+         // The value may have been removed or replaced before it was added to the hot tier
+         if (map.get(key) != stored) {
+            hotTier.invalidate(key);
+         }
+      }
+      return value;
+   }
+
+   @Override
+   public void clear() {
+      map.clear();
+      if (hotTier != null) {
+         hotTier.invalidateAll();
+      }
+   }
+
+   @Override
+   public int size() {
+      // Make sure to clean up any evicted entries so the returned size is correct
+      cache.cleanUp();
+      return map.size();
+   }
+
+   @Override
+   public Iterator<Map.Entry<K, MetadataValue<V>>> iterator() {
+      Iterator<Map.Entry<K, StoredValue<V>>> iterator = map.entrySet().iterator();
+      return new Iterator<>() {
+         @Override
+         public boolean hasNext() {
+            return iterator.hasNext();
+         }
+
+         @Override
+         public Map.Entry<K, MetadataValue<V>> next() {
+            return new LazyEntry(iterator.next());
+         }
+      };
+   }
+
+   private StoredValue<V> store(MetadataValue<V> value) {
+      if (value.getValue() == null) {
+         // A placeholder for a value being read from the server, compared by identity
+         return new StoredValue<>(value, null);
+      }
+      byte[] bytes = dataFormat.valueToBytes(value.getValue());
+      ByteBuf buf = ALLOCATOR.directBuffer(bytes.length, bytes.length).writeBytes(bytes);
+      MetadataValue<V> metadata = new MetadataValueImpl<>(value.getCreated(), value.getLifespan(), value.getLastUsed(),
+            value.getMaxIdle(), value.getVersion(), null);
+      return new StoredValue<>(metadata, buf);
+   }
+
+   private MetadataValue<V> read(StoredValue<V> stored) {
+      if (stored.bytes == null) {
+         return stored.metadata;
+      }
+      byte[] bytes = stored.copyBytes();
+      if (bytes == null) {
+         // Removed concurrently
+         return null;
+      }
+      MetadataValue<V> metadata = stored.metadata;
+      return new MetadataValueImpl<>(metadata.getCreated(), metadata.getLifespan(), metadata.getLastUsed(),
+            metadata.getMaxIdle(), metadata.getVersion(), dataFormat.valueToObj(bytes, allowList));
+   }
+
+   private static final class StoredValue<V> {
+      // The metadata without the value, or the placeholder itself
+      final MetadataValue<V> metadata;
+      final ByteBuf bytes;
+
+      StoredValue(MetadataValue<V> metadata, ByteBuf bytes) {
+         this.metadata = metadata;
+         this.bytes = bytes;
+      }
+
+      int size() {
+         return bytes == null ? 0 : bytes.capacity();
+      }
+
+      boolean matches(MetadataValue<V> value) {
+         if (bytes == null) {
+            return metadata == value;
+         }
+         return value != null && value.getValue() != null && metadata.getVersion() == value.getVersion();
+      }
+
+      byte[] copyBytes() {
+         try {
+            bytes.retain();
+         } catch (IllegalReferenceCountException e) {
+            return null;
+         }
+         try {
+            byte[] copy = new byte[bytes.readableBytes()];
+            bytes.getBytes(bytes.readerIndex(), copy);
+            return copy;
+         } finally {
+            bytes.release();
+         }
+      }
+
+      void release() {
+         if (bytes != null) {
+            bytes.release();
+         }
+      }
+   }
+
+   private final class LazyEntry implements Map.Entry<K, MetadataValue<V>> {
+      private final Map.Entry<K, StoredValue<V>> entry;
+
+      LazyEntry(Map.Entry<K, StoredValue<V>> entry) {
+         this.entry = entry;
+      }
+
+      @Override
+      public K getKey() {
+         return entry.getKey();
+      }
+
+      @Override
+      public MetadataValue<V> getValue() {
+         return read(entry.getValue());
+      }
+
+      @Override
+      public MetadataValue<V> setValue(MetadataValue<V> value) {
+         throw new UnsupportedOperationException();
+      }
+   }
+}
@@ -0,0 +1,63 @@
+package org.infinispan.client.hotrod.near;
+
+import java.util.function.BiConsumer;
+
+import org.infinispan.client.hotrod.DataFormat;
+import org.infinispan.client.hotrod.MetadataValue;
+import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
+import org.infinispan.commons.configuration.ClassAllowList;
+
+/**
+ * Creates near caches which store the marshalled values in off-heap memory, bounded by their size in bytes instead of
+ * their number. The values are unmarshalled when they are read, and the unmarshalled values of the most frequently read
+ * keys can be kept on the heap.
+ * <p>
+ * The {@link NearCacheConfiguration#maxEntries() maximum number of entries} of the near cache is only used to size its
+ * bloom filter.
+ *
+ * @since 15.0
+ */
+public class OffHeapNearCacheFactory implements NearCacheFactory {
+   public static final long DEFAULT_MAX_BYTES = 64 * 1024 * 1024;
+
+   private final long maxBytes;
+   private final int hotEntries;
+
+   /**
+    * Creates near caches storing up to {@link #DEFAULT_MAX_BYTES} bytes of values, without an on-heap tier.
+    */
+   public OffHeapNearCacheFactory() {
+      this(DEFAULT_MAX_BYTES, 0);
+   }
+
+   /**
+    * @param maxBytes the maximum number of bytes of the marshalled values stored by each near cache
+    * @param hotEntries the number of unmarshalled values kept on the heap, or 0 to unmarshall the values on every read
+    */
+   public OffHeapNearCacheFactory(long maxBytes, int hotEntries) {
+      if (maxBytes <= 0) {
+         throw new IllegalArgumentException("The maximum number of bytes must be positive");
+      }
+      if (hotEntries < 0) {
+         throw new IllegalArgumentException("The number of hot entries cannot be negative");
+      }
+      this.maxBytes = maxBytes;
+      this.hotEntries = hotEntries;
+   }
+
+   @Override
+   public <K, V> NearCache<K, V> createNearCache(NearCacheConfiguration config, BiConsumer<K, MetadataValue<V>> removedConsumer) {
+      throw new UnsupportedOperationException("The off-heap near cache requires the data format of the remote cache");
+   }
+
+   @Override
+   public <K, V> NearCache<K, V> createNearCache(NearCacheConfiguration config, BiConsumer<K, MetadataValue<V>> removedConsumer,
+                                                 DataFormat dataFormat, ClassAllowList allowList) {
+      return OffHeapNearCache.create(dataFormat, allowList, maxBytes, hotEntries, removedConsumer);
+   }
+
+   @Override
+   public String toString() {
+      return "OffHeapNearCacheFactory{maxBytes=" + maxBytes + ", hotEntries=" + hotEntries + "}";
+   }
+}
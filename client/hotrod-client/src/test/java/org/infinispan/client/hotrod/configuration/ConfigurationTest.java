@@ -14,6 +14,7 @@
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CONNECTION_POOL_MAX_WAIT;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CONNECTION_POOL_MIN_EVICTABLE_IDLE_TIME;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CONNECTION_POOL_MIN_IDLE;
+import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CONNECTION_POOL_MULTIPLEXED;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CONNECT_TIMEOUT;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.HASH_FUNCTION_PREFIX;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.JAVA_SERIAL_ALLOWLIST;
@@ -82,6 +83,7 @@
 import org.infinispan.client.hotrod.transaction.lookup.RemoteTransactionManagerLookup;
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.Combine;
+import org.infinispan.commons.io.CompressionAlgorithm;
 import org.infinispan.commons.marshall.JavaSerializationMarshaller;
 import org.infinispan.commons.marshall.ProtoStreamMarshaller;
 import org.infinispan.commons.marshall.UTF8StringMarshaller;
@@ -109,6 +111,7 @@ public class ConfigurationTest extends AbstractInfinispanTest {
       OPTIONS.put("minEvictableIdleTimeMillis", c -> c.connectionPool().minEvictableIdleTime());
       OPTIONS.put(CONNECTION_POOL_MIN_EVICTABLE_IDLE_TIME, c -> c.connectionPool().minEvictableIdleTime());
       OPTIONS.put(CONNECTION_POOL_MAX_PENDING_REQUESTS, c -> c.connectionPool().maxPendingRequests());
+      OPTIONS.put(CONNECTION_POOL_MULTIPLEXED, c -> c.connectionPool().multiplexed());
       OPTIONS.put(CONNECT_TIMEOUT, Configuration::connectionTimeout);
       OPTIONS.put(PROTOCOL_VERSION, Configuration::version);
       OPTIONS.put(SO_TIMEOUT, Configuration::socketTimeout);
@@ -197,6 +200,7 @@ public void testConfiguration() {
             .minEvictableIdleTime(12000)
             .exhaustedAction(ExhaustedAction.WAIT)
             .maxPendingRequests(12)
+            .multiplexed(true)
             .connectionTimeout(100)
             .version(ProtocolVersion.PROTOCOL_VERSION_29)
             .consistentHashImpl(2, SomeCustomConsistentHashV2.class)
@@ -260,6 +264,7 @@ public void testWithProperties() {
       p.setProperty("timeBetweenEvictionRunsMillis", "15000");
       p.setProperty(CONNECTION_POOL_MIN_EVICTABLE_IDLE_TIME, "12000");
       p.setProperty(CONNECTION_POOL_MAX_PENDING_REQUESTS, "12");
+      p.setProperty(CONNECTION_POOL_MULTIPLEXED, "true");
       p.setProperty("testOnBorrow", "true");
       p.setProperty("testOnReturn", "true");
       p.setProperty("testWhileIdle", "false");
@@ -583,6 +588,7 @@ private void validateConfiguration(Configuration configuration) {
       assertEqualsConfig(12000L, "minEvictableIdleTimeMillis", configuration);
       assertEqualsConfig(12000L, CONNECTION_POOL_MIN_EVICTABLE_IDLE_TIME, configuration);
       assertEqualsConfig(12, CONNECTION_POOL_MAX_PENDING_REQUESTS, configuration);
+      assertEqualsConfig(true, CONNECTION_POOL_MULTIPLEXED, configuration);
       assertEqualsConfig(100, CONNECT_TIMEOUT, configuration);
       assertEqualsConfig(100, SO_TIMEOUT, configuration);
       assertEqualsConfig(false, TCP_NO_DELAY, configuration);
@@ -745,10 +751,16 @@ public void testCacheNames() throws IOException {
       RemoteCacheConfiguration cache = configuration.remoteCaches().get("mycache");
       assertEquals("org.infinispan.DIST_SYNC", cache.templateName());
       assertTrue(cache.forceReturnValues());
+      assertEquals(500, cache.writeCoalescingDelay());
+      assertEquals(32, cache.writeCoalescingMaxOperations());
+      assertEquals(CompressionAlgorithm.DEFLATE, cache.compression());
+      assertEquals(256, cache.compressionThreshold());
       assertTrue(configuration.remoteCaches().containsKey("org.infinispan.yourcache"));
       cache = configuration.remoteCaches().get("org.infinispan.yourcache");
       assertEquals("org.infinispan.DIST_ASYNC", cache.templateName());
       assertEquals(NearCacheMode.INVALIDATED, cache.nearCacheMode());
+      assertEquals(0, cache.writeCoalescingDelay());
+      assertEquals(CompressionAlgorithm.NONE, cache.compression());
       assertTrue(configuration.remoteCaches().containsKey("org.infinispan.*"));
       cache = configuration.remoteCaches().get("org.infinispan.*");
       assertEquals("org.infinispan.REPL_SYNC", cache.templateName());
@@ -769,5 +781,9 @@ public void testPerCacheMarshallerConfig() throws IOException {
       Properties props = configuration.properties();
       assertEquals(JavaSerializationMarshaller.class.getName(), props.getProperty("infinispan.client.hotrod.cache.mycache.marshaller"));
       assertEquals(UTF8StringMarshaller.class.getName(), props.getProperty("infinispan.client.hotrod.cache.org.infinispan.yourcache.marshaller"));
+      assertEquals("500", props.getProperty("infinispan.client.hotrod.cache.mycache.write_coalescing.delay"));
+      assertEquals("32", props.getProperty("infinispan.client.hotrod.cache.mycache.write_coalescing.max_operations"));
+      assertEquals("DEFLATE", props.getProperty("infinispan.client.hotrod.cache.mycache.compression.algorithm"));
+      assertEquals("256", props.getProperty("infinispan.client.hotrod.cache.mycache.compression.threshold"));
    }
 }
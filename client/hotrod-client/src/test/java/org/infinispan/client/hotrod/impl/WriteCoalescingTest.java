@@ -0,0 +1,144 @@
+package org.infinispan.client.hotrod.impl;
+
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.test.SingleHotRodServerTest;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "client.hotrod.impl.WriteCoalescingTest")
+public class WriteCoalescingTest extends SingleHotRodServerTest {
+   // Only sent when full or flushed by another write
+   private static final String BATCHED = "batched";
+   // Sent by the timer
+   private static final String DELAYED = "delayed";
+   private static final int MAX_OPERATIONS = 10;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      EmbeddedCacheManager cacheManager = super.createCacheManager();
+      cacheManager.defineConfiguration(BATCHED, hotRodCacheConfiguration().build());
+      cacheManager.defineConfiguration(DELAYED, hotRodCacheConfiguration().build());
+      return cacheManager;
+   }
+
+   @Override
+   protected ConfigurationBuilder createHotRodClientConfigurationBuilder(String host, int serverPort) {
+      ConfigurationBuilder builder = super.createHotRodClientConfigurationBuilder(host, serverPort);
+      builder.remoteCache(BATCHED).writeCoalescing(1, TimeUnit.HOURS).writeCoalescingMaxOperations(MAX_OPERATIONS);
+      builder.remoteCache(DELAYED).writeCoalescing(10, TimeUnit.MILLISECONDS);
+      return builder;
+   }
+
+   public void testPutsSentWhenFull() throws Exception {
+      RemoteCache<String, String> cache = remoteCacheManager.getCache(BATCHED);
+      // Reads send the buffered puts, so check the server cache directly
+      int serverSize = cacheManager.getCache(BATCHED).size();
+      List<CompletableFuture<String>> futures = new ArrayList<>();
+      for (int i = 0; i < MAX_OPERATIONS - 1; i++) {
+         futures.add(cache.putAsync("full-" + i, "v" + i));
+      }
+      for (CompletableFuture<String> future : futures) {
+         assertFalse(future.isDone());
+      }
+      assertEquals(serverSize, cacheManager.getCache(BATCHED).size());
+
+      futures.add(cache.putAsync("full-" + (MAX_OPERATIONS - 1), "v" + (MAX_OPERATIONS - 1)));
+      for (CompletableFuture<String> future : futures) {
+         assertNull(future.get(10, TimeUnit.SECONDS));
+      }
+      for (int i = 0; i < MAX_OPERATIONS; i++) {
+         assertEquals("v" + i, cache.get("full-" + i));
+      }
+   }
+
+   public void testPutsSentBeforeOtherWrites() throws Exception {
+      RemoteCache<String, String> cache = remoteCacheManager.getCache(BATCHED);
+      CompletableFuture<String> put = cache.putAsync("other-0", "v0");
+      assertFalse(put.isDone());
+
+      cache.remove("other-1");
+      put.get(10, TimeUnit.SECONDS);
+      assertEquals("v0", cache.get("other-0"));
+   }
+
+   public void testPutsSentBeforeReads() throws Exception {
+      RemoteCache<String, String> cache = remoteCacheManager.getCache(BATCHED);
+      CompletableFuture<String> put = cache.putAsync("read-0", "v0");
+      assertFalse(put.isDone());
+      assertEquals("v0", cache.get("read-0"));
+      put.get(10, TimeUnit.SECONDS);
+
+      cache.putAsync("read-1", "v1");
+      assertTrue(cache.containsKey("read-1"));
+      cache.putAsync("read-2", "v2");
+      assertEquals("v2", cache.getWithMetadata("read-2").getValue());
+      cache.putAsync("read-3", "v3");
+      assertEquals(Map.of("read-0", "v0", "read-3", "v3"), cache.getAll(Set.of("read-0", "read-3")));
+   }
+
+   public void testPutOfBufferedKey() throws Exception {
+      RemoteCache<String, String> cache = remoteCacheManager.getCache(BATCHED);
+      CompletableFuture<String> first = cache.putAsync("same", "v1");
+      CompletableFuture<String> second = cache.putAsync("same", "v2");
+      first.get(10, TimeUnit.SECONDS);
+      assertFalse(second.isDone());
+
+      cache.remove("same-other");
+      second.get(10, TimeUnit.SECONDS);
+      assertEquals("v2", cache.get("same"));
+   }
+
+   public void testOperationsAfterPutsOfTheirKey() throws Exception {
+      RemoteCache<String, String> cache = remoteCacheManager.getCache(BATCHED);
+      CompletableFuture<String> put = cache.putAsync("ordered", "v1");
+      CompletableFuture<String> remove = cache.removeAsync("ordered");
+      remove.get(10, TimeUnit.SECONDS);
+      assertTrue(put.isDone());
+      assertNull(cache.get("ordered"));
+
+      // The second batch is only sent once the first one has put the key
+      CompletableFuture<String> first = cache.putAsync("ordered", "v1");
+      CompletableFuture<String> second = cache.putAsync("ordered", "v2");
+      CompletableFuture<String> get = cache.getAsync("ordered");
+      assertEquals("v2", get.get(10, TimeUnit.SECONDS));
+      assertTrue(first.isDone());
+      assertTrue(second.isDone());
+      assertEquals("v2", cache.get("ordered"));
+   }
+
+   public void testPutsWithFlagsNotBuffered() throws Exception {
+      RemoteCache<String, String> cache = remoteCacheManager.getCache(BATCHED);
+      assertNull(cache.withFlags(Flag.FORCE_RETURN_VALUE).putAsync("flags", "v1").get(10, TimeUnit.SECONDS));
+      assertEquals("v1", cache.withFlags(Flag.FORCE_RETURN_VALUE).putAsync("flags", "v2").get(10, TimeUnit.SECONDS));
+   }
+
+   public void testPutsSentAfterDelay() throws Exception {
+      RemoteCache<String, String> cache = remoteCacheManager.getCache(DELAYED);
+      List<CompletableFuture<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+         futures.add(cache.putAsync("delayed-" + i, "v" + i));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+      for (int i = 0; i < 100; i++) {
+         assertEquals("v" + i, cache.get("delayed-" + i));
+      }
+      // Synchronous puts wait for the delay
+      cache.put("delayed-sync", "v");
+      assertEquals("v", cache.get("delayed-sync"));
+   }
+}
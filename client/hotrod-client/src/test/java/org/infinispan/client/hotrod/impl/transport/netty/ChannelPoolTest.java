@@ -31,6 +31,7 @@
 public class ChannelPoolTest extends AbstractRetryTest {
 
    private int retries = 0;
+   private boolean multiplexed = false;
 
    public ChannelPoolTest() {}
 
@@ -49,6 +50,7 @@ protected ConfigurationBuilder getCacheConfig() {
    @Override
    protected void amendRemoteCacheManagerConfiguration(org.infinispan.client.hotrod.configuration.ConfigurationBuilder builder) {
       builder.maxRetries(retries);
+      builder.connectionPool().multiplexed(multiplexed);
    }
 
    public void testClosingSockAndKillingServerFinishesOperations() throws Exception {
@@ -156,9 +158,14 @@ private ChannelPoolTest withRetries(int retries) {
       return this;
    }
 
+   private ChannelPoolTest multiplexed() {
+      this.multiplexed = true;
+      return this;
+   }
+
    @Override
    protected String parameters() {
-      return "[retries=" + retries + ", nbrServers=" + nbrOfServers + "]";
+      return "[retries=" + retries + ", nbrServers=" + nbrOfServers + ", multiplexed=" + multiplexed + "]";
    }
 
    @Override
@@ -168,6 +175,8 @@ public Object[] factory() {
             new ChannelPoolTest(1).withRetries(0),
             new ChannelPoolTest().withRetries(10),
             new ChannelPoolTest(1).withRetries(10),
+            new ChannelPoolTest().withRetries(10).multiplexed(),
+            new ChannelPoolTest(1).withRetries(10).multiplexed(),
       };
    }
 }
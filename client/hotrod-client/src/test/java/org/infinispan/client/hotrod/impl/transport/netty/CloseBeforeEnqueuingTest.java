@@ -157,7 +157,7 @@ protected ChannelPool createChannelPool(Bootstrap bootstrap, ChannelInitializer
          return new ChannelPool(bootstrap.config().group().next(), address, channelInitializer,
                configuration.connectionPool().exhaustedAction(), this::onConnectionEvent,
                configuration.connectionPool().maxWait(), maxConnections,
-               configuration.connectionPool().maxPendingRequests()) {
+               configuration.connectionPool().maxPendingRequests(), configuration.connectionPool().multiplexed()) {
 
             @Override
             boolean executeDirectlyIfPossible(ChannelOperation callback) {
@@ -0,0 +1,71 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.test.SingleHotRodServerTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "client.hotrod.impl.transport.netty.MultiplexedChannelPoolTest")
+public class MultiplexedChannelPoolTest extends SingleHotRodServerTest {
+   private static final int MAX_PENDING_REQUESTS = 4;
+   private static final int NUM_REQUESTS = 200;
+
+   @Override
+   protected ConfigurationBuilder createHotRodClientConfigurationBuilder(String host, int serverPort) {
+      ConfigurationBuilder builder = super.createHotRodClientConfigurationBuilder(host, serverPort);
+      builder.connectionPool().multiplexed(true).maxActive(1).maxPendingRequests(MAX_PENDING_REQUESTS);
+      return builder;
+   }
+
+   public void testRequestsShareConnection() throws Exception {
+      RemoteCache<String, String> cache = remoteCacheManager.getCache();
+      List<CompletableFuture<String>> futures = new ArrayList<>(NUM_REQUESTS);
+      for (int i = 0; i < NUM_REQUESTS; i++) {
+         futures.add(cache.putAsync("k" + i, "v" + i));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+      for (int i = 0; i < NUM_REQUESTS; i++) {
+         assertEquals("v" + i, cache.get("k" + i));
+      }
+      assertEquals(1, remoteCacheManager.getConnectionCount());
+      assertEquals(0, remoteCacheManager.getInFlightRequestCount());
+      assertEquals(0, remoteCacheManager.getPendingConnectionRequestCount());
+      int maxInFlight = remoteCacheManager.getMaxInFlightRequestsPerConnection();
+      // Only the requests written concurrently by the calling thread and the pool may exceed the limit
+      assertTrue("Max in-flight requests: " + maxInFlight, maxInFlight <= MAX_PENDING_REQUESTS + 1);
+   }
+
+   public void testStreamingUsesExclusiveConnection() throws Exception {
+      RemoteCache<String, byte[]> cache = remoteCacheManager.getCache();
+      byte[] value = new byte[1000];
+      try (OutputStream os = cache.streaming().put("stream")) {
+         for (int i = 0; i < value.length; i++) {
+            value[i] = (byte) i;
+            os.write(i);
+            if (i % 100 == 0) {
+               // Requests written while the value is streamed must not use the streaming connection
+               cache.put("k" + i, new byte[]{(byte) i});
+            }
+         }
+      }
+      try (InputStream is = cache.streaming().get("stream")) {
+         assertEquals(value.length, is.readAllBytes().length);
+      }
+      for (int i = 0; i < value.length; i += 100) {
+         assertEquals((byte) i, cache.get("k" + i)[0]);
+      }
+      // The streaming connection exceeded the maximum number of connections and was closed once released
+      eventually(() -> remoteCacheManager.getConnectionCount() == 1);
+   }
+}
@@ -0,0 +1,120 @@
+package org.infinispan.client.hotrod.near;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotSame;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.client.hotrod.MetadataValue;
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
+import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
+import org.infinispan.client.hotrod.test.SingleHotRodServerTest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "client.hotrod.near.OffHeapNearCacheTest")
+public class OffHeapNearCacheTest extends SingleHotRodServerTest {
+   private static final int MAX_BYTES = 2048;
+   private static final String LARGE_VALUE = "v".repeat(200);
+
+   private int hotEntries;
+   private AssertsNearCache<Integer, String> assertClient;
+
+   private OffHeapNearCacheTest hotEntries(int hotEntries) {
+      this.hotEntries = hotEntries;
+      return this;
+   }
+
+   @Factory
+   public Object[] factory() {
+      return new Object[]{
+            new OffHeapNearCacheTest().hotEntries(0),
+            new OffHeapNearCacheTest().hotEntries(10),
+      };
+   }
+
+   @Override
+   protected String parameters() {
+      return "[hotEntries-" + hotEntries + "]";
+   }
+
+   @Override
+   protected void teardown() {
+      if (assertClient != null) {
+         assertClient.stop();
+         assertClient = null;
+      }
+      super.teardown();
+   }
+
+   @AfterMethod(alwaysRun = true)
+   @Override
+   protected void clearContent() {
+      super.clearContent();
+      // Clear the near cache too
+      remoteCacheManager.getCache().clear();
+      assertClient.resetEvents();
+   }
+
+   @Override
+   protected RemoteCacheManager getRemoteCacheManager() {
+      ConfigurationBuilder builder = HotRodClientTestingUtil.newRemoteConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort());
+      builder.nearCache().mode(NearCacheMode.INVALIDATED).maxEntries(-1)
+            .nearCacheFactory(new OffHeapNearCacheFactory(MAX_BYTES, hotEntries));
+      assertClient = AssertsNearCache.create(cache(), builder);
+      return assertClient.manager;
+   }
+
+   public void testGetNearCache() {
+      assertClient.expectNoNearEvents();
+      assertClient.get(1, null).expectNearGetMiss(1);
+      assertClient.put(1, "v1").expectNearPreemptiveRemove(1);
+      assertClient.get(1, "v1").expectNearGetMissWithValue(1, "v1");
+      assertClient.get(1, "v1").expectNearGetValue(1, "v1");
+      assertClient.remove(1).expectNearRemove(1);
+      assertClient.get(1, null).expectNearGetMiss(1);
+   }
+
+   public void testUpdateNearCache() {
+      assertClient.expectNoNearEvents();
+      assertClient.put(1, "v1").expectNearPreemptiveRemove(1);
+      assertClient.put(1, "v2").expectNearRemove(1);
+      assertClient.get(1, "v2").expectNearGetMissWithValue(1, "v2");
+      assertClient.get(1, "v2").expectNearGetValue(1, "v2");
+      assertClient.getWithMetadata(1, "v2").expectNearGetValueVersion(1, "v2");
+      assertClient.put(1, "v3").expectNearRemove(1);
+      assertClient.get(1, "v3").expectNearGetMissWithValue(1, "v3");
+      assertClient.remove(1).expectNearRemove(1);
+   }
+
+   public void testEvictAfterReachingMaxBytes() {
+      int entries = 2 * MAX_BYTES / LARGE_VALUE.length();
+      for (int i = 0; i < entries; i++) {
+         assertClient.put(i, LARGE_VALUE + i).expectNearPreemptiveRemove(i);
+         assertClient.get(i, LARGE_VALUE + i).expectNearGetMissWithValue(i, LARGE_VALUE + i);
+      }
+      int size = assertClient.nearCacheSize();
+      assertTrue("Near cache size " + size, size > 0 && size < entries);
+      for (int i = 0; i < entries; i++) {
+         assertEquals(LARGE_VALUE + i, assertClient.remote.get(i));
+      }
+   }
+
+   public void testHotTier() {
+      assertClient.put(1, "v1").expectNearPreemptiveRemove(1);
+      assertClient.get(1, "v1").expectNearGetMissWithValue(1, "v1");
+      MetadataValue<String> first = assertClient.remote.getWithMetadata(1);
+      MetadataValue<String> second = assertClient.remote.getWithMetadata(1);
+      assertEquals("v1", second.getValue());
+      if (hotEntries > 0) {
+         assertSame(first, second);
+      } else {
+         // Unmarshalled on every read
+         assertNotSame(first.getValue(), second.getValue());
+      }
+   }
+}
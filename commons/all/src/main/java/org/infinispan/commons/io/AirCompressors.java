@@ -0,0 +1,68 @@
+package org.infinispan.commons.io;
+
+import static org.infinispan.commons.logging.Log.CONTAINER;
+
+import java.util.Arrays;
+
+import io.airlift.compress.Compressor;
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.MalformedInputException;
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
+
+/**
+ * The {@link CompressionAlgorithm#LZ4} and {@link CompressionAlgorithm#ZSTD} implementations. They are kept in a
+ * separate class, so that the aircompressor classes are only loaded when one of these algorithms is used.
+ * <p>
+ * The compressors and decompressors keep internal buffers and are not thread safe, so each thread uses its own.
+ *
+ * @since 15.0
+ */
+final class AirCompressors {
+   private static final ThreadLocal<Compressor> LZ4_COMPRESSOR = ThreadLocal.withInitial(Lz4Compressor::new);
+   private static final ThreadLocal<Decompressor> LZ4_DECOMPRESSOR = ThreadLocal.withInitial(Lz4Decompressor::new);
+   private static final ThreadLocal<Compressor> ZSTD_COMPRESSOR = ThreadLocal.withInitial(ZstdCompressor::new);
+   private static final ThreadLocal<Decompressor> ZSTD_DECOMPRESSOR = ThreadLocal.withInitial(ZstdDecompressor::new);
+
+   private AirCompressors() {
+   }
+
+   static byte[] compressLz4(byte[] value) {
+      return compress(LZ4_COMPRESSOR.get(), value);
+   }
+
+   static byte[] decompressLz4(byte[] src, int offset, int length, int uncompressedLength) {
+      return decompress(CompressionAlgorithm.LZ4, LZ4_DECOMPRESSOR.get(), src, offset, length, uncompressedLength);
+   }
+
+   static byte[] compressZstd(byte[] value) {
+      return compress(ZSTD_COMPRESSOR.get(), value);
+   }
+
+   static byte[] decompressZstd(byte[] src, int offset, int length, int uncompressedLength) {
+      return decompress(CompressionAlgorithm.ZSTD, ZSTD_DECOMPRESSOR.get(), src, offset, length, uncompressedLength);
+   }
+
+   private static byte[] compress(Compressor compressor, byte[] value) {
+      byte[] dst = new byte[compressor.maxCompressedLength(value.length)];
+      int length = compressor.compress(value, 0, value.length, dst, 0, dst.length);
+      return Arrays.copyOf(dst, length);
+   }
+
+   private static byte[] decompress(CompressionAlgorithm algorithm, Decompressor decompressor, byte[] src, int offset,
+                                    int length, int uncompressedLength) {
+      algorithm.checkUncompressedLength(length, uncompressedLength);
+      byte[] dst = new byte[uncompressedLength];
+      try {
+         int read = decompressor.decompress(src, offset, length, dst, 0, uncompressedLength);
+         if (read != uncompressedLength) {
+            throw new MalformedInputException(offset, "Expected " + uncompressedLength + " bytes but got " + read);
+         }
+      } catch (MalformedInputException e) {
+         throw CONTAINER.cannotDecompressValue(algorithm.name(), e);
+      }
+      return dst;
+   }
+}
@@ -0,0 +1,187 @@
+package org.infinispan.commons.io;
+
+import static org.infinispan.commons.logging.Log.CONTAINER;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The algorithms which can compress values. Each algorithm has a stable identifier, which is written in front of the
+ * compressed bytes by {@link ValueCompression}, so that they can be decompressed without any other information.
+ * <p>
+ * {@link #DEFLATE} is always available. {@link #LZ4} and {@link #ZSTD} use the pure Java implementations of the
+ * aircompressor library, and are only {@link #isAvailable() available} when it is present on the classpath.
+ *
+ * @since 15.0
+ */
+public enum CompressionAlgorithm {
+   NONE(0, 1) {
+      @Override
+      byte[] compress(byte[] value) {
+         return value;
+      }
+
+      @Override
+      byte[] decompress(byte[] src, int offset, int length, int uncompressedLength) {
+         return Arrays.copyOfRange(src, offset, offset + length);
+      }
+   },
+   // A deflate block cannot expand more than 1032 times
+   DEFLATE(1, 1032) {
+      @Override
+      byte[] compress(byte[] value) {
+         Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+         try {
+            deflater.setInput(value);
+            deflater.finish();
+            byte[] dst = new byte[value.length + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+               if (length == dst.length) {
+                  dst = Arrays.copyOf(dst, dst.length * 2);
+               }
+               length += deflater.deflate(dst, length, dst.length - length);
+            }
+            return length == dst.length ? dst : Arrays.copyOf(dst, length);
+         } finally {
+            deflater.end();
+         }
+      }
+
+      @Override
+      byte[] decompress(byte[] src, int offset, int length, int uncompressedLength) {
+         checkUncompressedLength(length, uncompressedLength);
+         Inflater inflater = new Inflater();
+         try {
+            inflater.setInput(src, offset, length);
+            byte[] dst = new byte[uncompressedLength];
+            int read = 0;
+            while (read < uncompressedLength && !inflater.finished()) {
+               int n = inflater.inflate(dst, read, uncompressedLength - read);
+               if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                  break;
+               }
+               read += n;
+            }
+            if (read != uncompressedLength) {
+               throw new DataFormatException("Expected " + uncompressedLength + " bytes but got " + read);
+            }
+            return dst;
+         } catch (DataFormatException e) {
+            throw CONTAINER.cannotDecompressValue(name(), e);
+         } finally {
+            inflater.end();
+         }
+      }
+   },
+   // Each byte of an LZ4 match length expands to at most 255 bytes
+   LZ4(2, 255) {
+      @Override
+      byte[] compress(byte[] value) {
+         return AirCompressors.compressLz4(value);
+      }
+
+      @Override
+      byte[] decompress(byte[] src, int offset, int length, int uncompressedLength) {
+         return AirCompressors.decompressLz4(src, offset, length, uncompressedLength);
+      }
+
+      @Override
+      public boolean isAvailable() {
+         return AIRCOMPRESSOR_AVAILABLE;
+      }
+   },
+   // The smallest zstd block, a run of a single byte, expands to at most 128 KiB
+   ZSTD(3, 32768) {
+      @Override
+      byte[] compress(byte[] value) {
+         return AirCompressors.compressZstd(value);
+      }
+
+      @Override
+      byte[] decompress(byte[] src, int offset, int length, int uncompressedLength) {
+         return AirCompressors.decompressZstd(src, offset, length, uncompressedLength);
+      }
+
+      @Override
+      public boolean isAvailable() {
+         return AIRCOMPRESSOR_AVAILABLE;
+      }
+   };
+
+   private static final boolean AIRCOMPRESSOR_AVAILABLE = isClassPresent("io.airlift.compress.zstd.ZstdCompressor");
+   private static final CompressionAlgorithm[] CACHED_VALUES = values();
+
+   private final byte id;
+   private final int maxRatio;
+
+   CompressionAlgorithm(int id, int maxRatio) {
+      this.id = (byte) id;
+      this.maxRatio = maxRatio;
+   }
+
+   /**
+    * @return the identifier written in front of the bytes compressed with this algorithm.
+    */
+   public byte id() {
+      return id;
+   }
+
+   /**
+    * @return whether this algorithm can be used in the current runtime.
+    */
+   public boolean isAvailable() {
+      return true;
+   }
+
+   /**
+    * @throws org.infinispan.commons.CacheConfigurationException if this algorithm is not {@link #isAvailable()
+    *                                                            available}
+    */
+   public void checkAvailable() {
+      if (!isAvailable()) {
+         throw CONTAINER.compressionAlgorithmNotAvailable(name());
+      }
+   }
+
+   /**
+    * @return whether the algorithm could have compressed a value of the given length to the given number of bytes.
+    */
+   boolean isValidUncompressedLength(int compressedLength, long uncompressedLength) {
+      return uncompressedLength >= 0 && uncompressedLength <= (long) compressedLength * maxRatio;
+   }
+
+   /**
+    * Checks the uncompressed length read from a frame before allocating the value, so that a frame which claims more
+    * than its compressed bytes can hold is rejected.
+    *
+    * @throws IllegalArgumentException if the length is not valid
+    */
+   void checkUncompressedLength(int compressedLength, int uncompressedLength) {
+      if (!isValidUncompressedLength(compressedLength, uncompressedLength)) {
+         throw CONTAINER.invalidUncompressedLength(uncompressedLength, compressedLength, name());
+      }
+   }
+
+   abstract byte[] compress(byte[] value);
+
+   abstract byte[] decompress(byte[] src, int offset, int length, int uncompressedLength);
+
+   public static CompressionAlgorithm valueOf(byte id) {
+      if (id < 0 || id >= CACHED_VALUES.length) {
+         throw CONTAINER.unknownCompressionAlgorithm(id);
+      }
+      return CACHED_VALUES[id];
+   }
+
+   private static boolean isClassPresent(String className) {
+      try {
+         Class.forName(className, false, CompressionAlgorithm.class.getClassLoader());
+         return true;
+      } catch (ClassNotFoundException | LinkageError e) {
+         return false;
+      }
+   }
+}
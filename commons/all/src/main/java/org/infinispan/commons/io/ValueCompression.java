@@ -0,0 +1,103 @@
+package org.infinispan.commons.io;
+
+import static org.infinispan.commons.logging.Log.CONTAINER;
+
+/**
+ * Converts values to and from compressed frames. A frame starts with the {@link CompressionAlgorithm#id() identifier}
+ * of the algorithm which compressed it. A frame with the {@link CompressionAlgorithm#NONE} identifier contains the
+ * value as is after it. Any other frame contains the length of the uncompressed value, as a variable length integer,
+ * followed by the compressed bytes.
+ * <p>
+ * Values smaller than the threshold, and values that do not get smaller when compressed, are kept uncompressed, so a
+ * frame is never more than one byte bigger than its value. The uncompressed length of a frame can never exceed what
+ * its algorithm can produce from the compressed bytes, so frames received from untrusted peers are rejected before
+ * allocating their value.
+ *
+ * @since 15.0
+ */
+public final class ValueCompression {
+
+   private ValueCompression() {
+   }
+
+   /**
+    * Creates the frame of a value.
+    *
+    * @param value     the value to compress
+    * @param algorithm the algorithm to compress with
+    * @param threshold the minimum size in bytes of the values which are compressed
+    * @return the frame containing the value
+    */
+   public static byte[] compress(byte[] value, CompressionAlgorithm algorithm, int threshold) {
+      if (algorithm != CompressionAlgorithm.NONE && value.length >= threshold) {
+         byte[] compressed = algorithm.compress(value);
+         int headerSize = 1 + UnsignedNumeric.sizeUnsignedInt(value.length);
+         if (headerSize + compressed.length <= value.length &&
+               algorithm.isValidUncompressedLength(compressed.length, value.length)) {
+            byte[] frame = new byte[headerSize + compressed.length];
+            frame[0] = algorithm.id();
+            UnsignedNumeric.writeUnsignedInt(frame, 1, value.length);
+            System.arraycopy(compressed, 0, frame, headerSize, compressed.length);
+            return frame;
+         }
+      }
+      byte[] frame = new byte[value.length + 1];
+      frame[0] = CompressionAlgorithm.NONE.id();
+      System.arraycopy(value, 0, frame, 1, value.length);
+      return frame;
+   }
+
+   /**
+    * @return the value contained in the frame.
+    * @throws IllegalArgumentException if the frame is not valid
+    */
+   public static byte[] decompress(byte[] frame) {
+      CompressionAlgorithm algorithm = algorithm(frame);
+      if (algorithm == CompressionAlgorithm.NONE) {
+         return algorithm.decompress(frame, 1, frame.length - 1, frame.length - 1);
+      }
+      algorithm.checkAvailable();
+      int headerSize = headerSize(frame);
+      int uncompressedLength = UnsignedNumeric.readUnsignedInt(frame, 1);
+      return algorithm.decompress(frame, headerSize, frame.length - headerSize, uncompressedLength);
+   }
+
+   /**
+    * Checks that a frame can be decompressed in this runtime without decompressing it: its algorithm must be available
+    * and its uncompressed length valid.
+    *
+    * @throws IllegalArgumentException if the frame is not valid
+    * @throws org.infinispan.commons.CacheConfigurationException if the algorithm of the frame is not available
+    */
+   public static void validate(byte[] frame) {
+      CompressionAlgorithm algorithm = algorithm(frame);
+      if (algorithm != CompressionAlgorithm.NONE) {
+         algorithm.checkAvailable();
+         int headerSize = headerSize(frame);
+         algorithm.checkUncompressedLength(frame.length - headerSize, UnsignedNumeric.readUnsignedInt(frame, 1));
+      }
+   }
+
+   /**
+    * @return the algorithm which compressed the frame.
+    */
+   public static CompressionAlgorithm algorithm(byte[] frame) {
+      if (frame.length == 0) {
+         throw new IllegalArgumentException("Empty compressed frame");
+      }
+      return CompressionAlgorithm.valueOf(frame[0]);
+   }
+
+   /**
+    * @return the size of the algorithm identifier and of the uncompressed length of a compressed frame.
+    */
+   private static int headerSize(byte[] frame) {
+      // The uncompressed length is an int, written in 5 bytes at most
+      for (int i = 1; i < frame.length && i <= 5; ++i) {
+         if ((frame[i] & 0x80) == 0) {
+            return i + 1;
+         }
+      }
+      throw CONTAINER.truncatedCompressedFrame(frame.length);
+   }
+}
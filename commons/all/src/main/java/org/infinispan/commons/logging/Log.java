@@ -278,6 +278,21 @@ public interface Log extends BasicLogger {
    @Message(value = "RESP cache '%s' key media type must be configured as application/octet-stream but was %s", id = 964)
    IllegalArgumentException respCacheKeyMediaTypeSupplied(String cacheName, MediaType mediaType);
 
+   @Message(value = "Unknown compression algorithm identifier %d", id = 965)
+   IllegalArgumentException unknownCompressionAlgorithm(int id);
+
+   @Message(value = "Compression algorithm %s is not available, the aircompressor library is missing from the classpath", id = 966)
+   CacheConfigurationException compressionAlgorithmNotAvailable(String algorithm);
+
+   @Message(value = "Cannot decompress a value compressed with %s", id = 967)
+   CacheException cannotDecompressValue(String algorithm, @Cause Throwable cause);
+
+   @Message(value = "Invalid uncompressed length %d for %d bytes compressed with %s", id = 968)
+   IllegalArgumentException invalidUncompressedLength(int uncompressedLength, int compressedLength, String algorithm);
+
+   @Message(value = "Truncated compressed frame of %d bytes", id = 969)
+   IllegalArgumentException truncatedCompressedFrame(int length);
+
    //----- counters exceptions // don't use the same id range ------
 
    @Message(value = CounterOutOfBoundsException.FORMAT_MESSAGE, id = 29501)
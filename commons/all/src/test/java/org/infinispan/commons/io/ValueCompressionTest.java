@@ -0,0 +1,87 @@
+package org.infinispan.commons.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @since 15.0
+ */
+public class ValueCompressionTest {
+
+   @Test
+   public void testRoundTrip() {
+      byte[] value = "{\"name\":\"infinispan\",\"tags\":[\"cache\",\"cache\",\"cache\",\"cache\"]}".repeat(100)
+            .getBytes(StandardCharsets.UTF_8);
+      for (CompressionAlgorithm algorithm : CompressionAlgorithm.values()) {
+         if (!algorithm.isAvailable()) {
+            continue;
+         }
+         byte[] frame = ValueCompression.compress(value, algorithm, 0);
+         assertEquals(algorithm, ValueCompression.algorithm(frame));
+         if (algorithm != CompressionAlgorithm.NONE) {
+            assertTrue(algorithm + " did not compress", frame.length < value.length / 4);
+         }
+         assertArrayEquals(value, ValueCompression.decompress(frame));
+      }
+   }
+
+   @Test
+   public void testBelowThreshold() {
+      byte[] value = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa".getBytes(StandardCharsets.UTF_8);
+      byte[] frame = ValueCompression.compress(value, CompressionAlgorithm.DEFLATE, value.length + 1);
+      assertEquals(CompressionAlgorithm.NONE, ValueCompression.algorithm(frame));
+      assertEquals(value.length + 1, frame.length);
+      assertArrayEquals(value, ValueCompression.decompress(frame));
+   }
+
+   @Test
+   public void testIncompressible() {
+      byte[] value = new byte[256];
+      new Random(42).nextBytes(value);
+      byte[] frame = ValueCompression.compress(value, CompressionAlgorithm.DEFLATE, 0);
+      assertEquals(CompressionAlgorithm.NONE, ValueCompression.algorithm(frame));
+      assertArrayEquals(value, ValueCompression.decompress(frame));
+   }
+
+   @Test
+   public void testEmptyValue() {
+      byte[] frame = ValueCompression.compress(new byte[0], CompressionAlgorithm.DEFLATE, 0);
+      assertArrayEquals(new byte[0], ValueCompression.decompress(frame));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testUnknownAlgorithm() {
+      ValueCompression.decompress(new byte[]{42, 1, 2, 3});
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testUncompressedLengthAboveRatio() {
+      // A few bytes claiming a value of about 2 GiB
+      byte[] frame = new byte[]{CompressionAlgorithm.DEFLATE.id(), (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 1, 2, 3};
+      ValueCompression.validate(frame);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testNegativeUncompressedLength() {
+      byte[] frame = new byte[]{CompressionAlgorithm.DEFLATE.id(), (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 1, 2, 3};
+      ValueCompression.decompress(frame);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testTruncatedFrame() {
+      ValueCompression.decompress(new byte[]{CompressionAlgorithm.DEFLATE.id(), (byte) 0x80});
+   }
+
+   @Test
+   public void testValidate() {
+      byte[] value = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa".getBytes(StandardCharsets.UTF_8);
+      ValueCompression.validate(ValueCompression.compress(value, CompressionAlgorithm.DEFLATE, 0));
+      ValueCompression.validate(ValueCompression.compress(value, CompressionAlgorithm.NONE, 0));
+   }
+}
@@ -686,6 +686,17 @@ default CompletableFuture<CacheEntry<K, V>> getCacheEntryAsync(Object key) {
     */
    Map<K, CacheEntry<K, V>> getAllCacheEntries(Set<?> keys);
 
+   /**
+    * Asynchronous version of {@link #getAllCacheEntries(Set)}.
+    *
+    * @param keys The keys whose associated values are to be returned.
+    * @return a future with a map of the entries that were found for the given keys
+    * @since 15.0
+    */
+   default CompletableFuture<Map<K, CacheEntry<K, V>>> getAllCacheEntriesAsync(Set<?> keys) {
+      throw new UnsupportedOperationException("getAllCacheEntriesAsync");
+   }
+
    /**
     * Executes an equivalent of {@link Map#putAll(Map)}, returning previous values of the modified entries.
     *
@@ -299,6 +299,11 @@ public Map<K, CacheEntry<K, V>> getAllCacheEntries(Set<?> keys) {
       return map;
    }
 
+   @Override
+   public CompletableFuture<Map<K, CacheEntry<K, V>>> getAllCacheEntriesAsync(Set<?> keys) {
+      return CompletableFuture.completedFuture(getAllCacheEntries(keys));
+   }
+
    @Override
    public CompletableFuture<V> computeAsync(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction, Metadata metadata) {
       return CompletableFuture.completedFuture(compute(key, remappingFunction, metadata));
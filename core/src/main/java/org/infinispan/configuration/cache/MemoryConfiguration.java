@@ -22,11 +22,12 @@ public class MemoryConfiguration extends ConfigurationElement<MemoryConfiguratio
    public static final AttributeDefinition<String> MAX_SIZE = AttributeDefinition.builder(Attribute.MAX_SIZE, null, String.class).build();
    public static final AttributeDefinition<Long> MAX_COUNT = AttributeDefinition.builder(Attribute.MAX_COUNT, -1L).build();
    public static final AttributeDefinition<EvictionStrategy> WHEN_FULL = AttributeDefinition.builder(Attribute.WHEN_FULL, EvictionStrategy.NONE).immutable().build();
+   public static final AttributeDefinition<OffHeapAllocatorType> ALLOCATOR = AttributeDefinition.builder(Attribute.ALLOCATOR, OffHeapAllocatorType.UNPOOLED).immutable().build();
 
    private final MemoryStorageConfiguration memoryStorageConfiguration;
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(MemoryConfiguration.class, STORAGE, MAX_SIZE, MAX_COUNT, WHEN_FULL);
+      return new AttributeSet(MemoryConfiguration.class, STORAGE, MAX_SIZE, MAX_COUNT, WHEN_FULL, ALLOCATOR);
    }
 
    MemoryConfiguration(AttributeSet attributes, MemoryStorageConfiguration memoryStorageConfiguration) {
@@ -94,6 +95,13 @@ public StorageType storage() {
       return attributes.attribute(STORAGE).get();
    }
 
+   /**
+    * @return The {@link OffHeapAllocatorType} used to allocate entries when the storage is off-heap.
+    */
+   public OffHeapAllocatorType allocator() {
+      return attributes.attribute(ALLOCATOR).get();
+   }
+
    /**
     * Size of the eviction, -1 if disabled
     * @deprecated Since 11.0, use {@link #maxCount()} or {@link #maxSize()} to obtain
@@ -114,6 +114,20 @@ public MemoryConfigurationBuilder storage(StorageType storageType) {
       return this;
    }
 
+   /**
+    * Defines how native memory is allocated for entries when {@link StorageType#OFF_HEAP} storage is used.
+    * @param allocator the allocator type
+    * @return this configuration builder
+    */
+   public MemoryConfigurationBuilder allocator(OffHeapAllocatorType allocator) {
+      attributes.attribute(MemoryConfiguration.ALLOCATOR).set(allocator);
+      return this;
+   }
+
+   public OffHeapAllocatorType allocator() {
+      return attributes.attribute(MemoryConfiguration.ALLOCATOR).get();
+   }
+
    public MemoryConfigurationBuilder maxSize(String size) {
       newAttributesUsed = true;
       attributes.attribute(MemoryConfiguration.MAX_SIZE).set(size);
@@ -305,6 +319,10 @@ public void validate() {
             }
          }
       }
+      OffHeapAllocatorType allocator = allocator();
+      if (allocator != OffHeapAllocatorType.UNPOOLED && storage() != StorageType.OFF_HEAP) {
+         throw CONFIG.allocatorRequiresOffHeapStorage(allocator, storage());
+      }
       checkBinaryRequirement();
    }
 
@@ -0,0 +1,19 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * Defines how native memory is obtained for entries when the cache uses {@link StorageType#OFF_HEAP} storage.
+ *
+ * @since 15.0
+ */
+public enum OffHeapAllocatorType {
+   /**
+    * Every entry is allocated and freed directly through the operating system allocator.
+    */
+   UNPOOLED,
+   /**
+    * Entries are allocated from size classed slabs carved from large pre-allocated arenas, with per thread caches of
+    * free blocks. This reduces allocation cost and fragmentation of the process memory for write-heavy caches, at the
+    * cost of retaining the arenas until the cache is stopped.
+    */
+   POOLED
+}
@@ -4,6 +4,7 @@
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.FRAGMENTATION_FACTOR;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.LOCATION;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.MAX_ENTRIES;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.OFF_HEAP_INDEX;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
@@ -82,6 +83,16 @@ public SingleFileStoreConfigurationBuilder fragmentationFactor(float fragmentati
       return this;
    }
 
+   /**
+    * Keeps the index of keys and their position in the file outside the Java heap, storing the keys in their
+    * serialized form. The index is also written to disk when the store stops, so that the next start does not have
+    * to read the whole file to rebuild it. Cannot be used together with {@link #maxEntries(int)}.
+    */
+   public SingleFileStoreConfigurationBuilder offHeapIndex(boolean offHeapIndex) {
+      attributes.attribute(OFF_HEAP_INDEX).set(offHeapIndex);
+      return this;
+   }
+
    @Override
    public void validate() {
       Attribute<Boolean> segmentedAttribute = attributes.attribute(SEGMENTED);
@@ -89,6 +100,9 @@ public void validate() {
       if (segmentedAttribute.get() && maxEntriesAttribute.get() > 0) {
          throw Log.CONFIG.segmentedSingleFileStoreDoesNotSupportMaxEntries();
       }
+      if (attributes.attribute(OFF_HEAP_INDEX).get() && maxEntriesAttribute.get() > 0) {
+         throw Log.CONFIG.singleFileStoreOffHeapIndexDoesNotSupportMaxEntries();
+      }
       super.validate();
    }
 
@@ -18,6 +18,7 @@ public enum Attribute {
     ADDRESS_COUNT,
     AFTER,
     ALIASES,
+    ALLOCATOR,
     @Deprecated
     ALLOW_DUPLICATE_DOMAINS("duplicate-domains"),
     @Deprecated
@@ -43,7 +44,9 @@ public enum Attribute {
     CLASS,
     CLUSTER,
     COMMIT_INTERVAL,
+    COMPACTION_RATE_LIMIT,
     COMPACTION_THRESHOLD,
+    COMPACTION_WORKERS,
     COMPLETED_TX_TIMEOUT("complete-timeout"),
     CONCURRENCY_LEVEL,
     CONFIGURATION,
@@ -75,6 +78,8 @@ public enum Attribute {
     FLUSH_LOCK_TIMEOUT,
     FRAGMENTATION_FACTOR,
     GAUGES,
+    GROUP_COMMIT_DELAY,
+    GROUP_COMMIT_SIZE,
     GROUP_NAME,
     GROUP_ONLY_MAPPING,
     HISTOGRAMS,
@@ -112,6 +117,7 @@ public enum Attribute {
     MAX_ENTRIES,
     MAX_FILE_SIZE,
     MAX_IDLE,
+    MAX_MAPPED_SIZE,
     MAX_NODE_SIZE,
     MAX_RETRIES,
     MIN_SIZE,
@@ -122,6 +128,7 @@ public enum Attribute {
     MBEAN_SERVER_LOOKUP,
     MERGE_POLICY,
     MEDIA_TYPE,
+    MEMORY_MAPPED,
     MIN_NODE_SIZE,
     MODE,
     NODE_NAME,
@@ -132,6 +139,7 @@ public enum Attribute {
     NAMES_AS_TAGS,
     NON_BLOCKING_EXECUTOR,
     NOTIFICATIONS,
+    OFF_HEAP_INDEX,
     ON_REHASH("onRehash"),
     OPEN_FILES_LIMIT,
     OWNERS,
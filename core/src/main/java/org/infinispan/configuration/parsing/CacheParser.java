@@ -1221,6 +1221,20 @@ protected void parseFileStore(ConfigurationReader reader, ConfigurationBuilderHo
                   throw ParseUtils.unexpectedAttribute(reader, i);
                }
                break;
+            case COMPACTION_WORKERS:
+               if (fileStoreBuilder != null) {
+                  fileStoreBuilder.compactionWorkers(ParseUtils.parseInt(reader, i, value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            case COMPACTION_RATE_LIMIT:
+               if (fileStoreBuilder != null) {
+                  fileStoreBuilder.compactionRateLimit(ParseUtils.parseLong(reader, i, value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
             case PURGE: {
                actualStoreConfig.purgeOnStartup(ParseUtils.parseBoolean(reader, i, value));
                break;
@@ -1274,6 +1288,18 @@ private void parseData(ConfigurationReader reader, SoftIndexFileStoreConfigurati
             case SYNC_WRITES:
                builder.syncWrites(ParseUtils.parseBoolean(reader, i, value));
                break;
+            case MEMORY_MAPPED:
+               builder.memoryMapped(ParseUtils.parseBoolean(reader, i, value));
+               break;
+            case MAX_MAPPED_SIZE:
+               builder.maxMappedSize(ParseUtils.parseLong(reader, i, value));
+               break;
+            case GROUP_COMMIT_DELAY:
+               builder.groupCommitDelay(ParseUtils.parseLong(reader, i, value));
+               break;
+            case GROUP_COMMIT_SIZE:
+               builder.groupCommitSize(ParseUtils.parseInt(reader, i, value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1339,6 +1365,10 @@ protected void parseSingleFileStore(ConfigurationReader reader, ConfigurationBui
                storeBuilder.fragmentationFactor(Float.parseFloat(value));
                break;
             }
+            case OFF_HEAP_INDEX: {
+               storeBuilder.offHeapIndex(ParseUtils.parseBoolean(reader, i, value));
+               break;
+            }
             default: {
                parseStoreAttribute(reader, i, storeBuilder);
             }
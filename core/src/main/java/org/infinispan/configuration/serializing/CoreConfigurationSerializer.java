@@ -692,6 +692,7 @@ private void writeMemory(ConfigurationWriter writer, Configuration configuration
             attributes.write(writer, MemoryConfiguration.MAX_SIZE, Attribute.MAX_SIZE);
          }
          attributes.write(writer, MemoryConfiguration.WHEN_FULL, Attribute.WHEN_FULL);
+         attributes.write(writer, MemoryConfiguration.ALLOCATOR, Attribute.ALLOCATOR);
          writer.writeEndElement();
       }
    }
@@ -860,7 +861,11 @@ private void writeDataElement(ConfigurationWriter writer, SoftIndexFileStoreConf
       configuration.data().attributes().write(writer, Element.DATA.getLocalName(),
             DataConfiguration.DATA_LOCATION,
             DataConfiguration.MAX_FILE_SIZE,
-            DataConfiguration.SYNC_WRITES);
+            DataConfiguration.SYNC_WRITES,
+            DataConfiguration.MEMORY_MAPPED,
+            DataConfiguration.MAX_MAPPED_SIZE,
+            DataConfiguration.GROUP_COMMIT_DELAY,
+            DataConfiguration.GROUP_COMMIT_SIZE);
    }
 
    private void writeIndexElement(ConfigurationWriter writer, SoftIndexFileStoreConfiguration configuration) {
@@ -3,11 +3,13 @@
 import java.util.Iterator;
 import java.util.Spliterator;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.ObjIntConsumer;
 
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.offheap.OffHeapValueConsumer;
 import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Stop;
@@ -232,4 +234,19 @@ public void resize(long newSize) {
    public boolean hasExpirable() {
       return delegate().hasExpirable();
    }
+
+   @Override
+   public boolean enableKeyPrefixIndex() {
+      return delegate().enableKeyPrefixIndex();
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> keyPrefixIterator(IntSet segments, byte[] prefix, LongAdder visited) {
+      return delegate().keyPrefixIterator(segments, prefix, visited);
+   }
+
+   @Override
+   public boolean readOffHeapValue(int segment, Object k, OffHeapValueConsumer consumer) {
+      return delegate().readOffHeapValue(segment, k, consumer);
+   }
 }
@@ -13,6 +13,7 @@
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -27,6 +28,8 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.offheap.OffHeapConcurrentMap;
+import org.infinispan.container.offheap.OffHeapValueConsumer;
 import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.eviction.EvictionManager;
 import org.infinispan.eviction.impl.PassivationManager;
@@ -75,6 +78,8 @@
     */
    private final AtomicLong expirable = new AtomicLong();
 
+   private volatile KeyPrefixIndex keyPrefixIndex;
+
    protected abstract PeekableTouchableMap<K, V> getMapForSegment(int segment);
    protected abstract int getSegmentForKey(Object key);
 
@@ -113,6 +118,12 @@ public InternalCacheEntry<K, V> peek(Object k) {
       return peek(getSegmentForKey(k), k);
    }
 
+   @Override
+   public boolean readOffHeapValue(int segment, Object k, OffHeapValueConsumer consumer) {
+      PeekableTouchableMap<K, V> map = getMapForSegment(segment);
+      return map instanceof OffHeapConcurrentMap && ((OffHeapConcurrentMap) map).readValue(k, consumer);
+   }
+
    @Override
    public boolean touch(int segment, Object k, long currentTimeMillis) {
       PeekableTouchableMap<K, V> entries = getMapForSegment(segment);
@@ -160,6 +171,7 @@ public void put(int segment, K k, V v, Metadata metadata, PrivateMetadata intern
          else entryAdded(copy);
 
          putEntryInMap(entries, segment, k, copy);
+         if (e == null) keyAdded(segment, k);
       } else {
          log.tracef("Insertion attempted for key: %s but there was no map created for it at segment: %d", k, segment);
       }
@@ -201,6 +213,7 @@ public InternalCacheEntry<K, V> remove(int segment, Object k) {
          if (e == null) {
             return null;
          }
+         keyRemoved(segment, k);
 
          if (e.canExpire()) {
             entryRemoved(e);
@@ -234,6 +247,7 @@ public CompletionStage<Void> evict(int segment, K key) {
          evictionStageRef.set(handleEviction(entry, null, passivator.running(), null, this, null));
          computeEntryRemoved(o, entry);
          entryRemoved(entry);
+         keyRemoved(segment, o);
          return null;
       });
       return evictionStageRef.get();
@@ -254,10 +268,12 @@ public InternalCacheEntry<K, V> compute(int segment, K key, DataContainer.Comput
          } else if (newEntry == null) {
             computeEntryRemoved(k, oldEntry);
             entryRemoved(oldEntry);
+            keyRemoved(segment, k);
             return null;
          }
          computeEntryWritten(k, newEntry);
          entryAdded(newEntry);
+         if (oldEntry == null) keyAdded(segment, k);
          if (log.isTraceEnabled())
             log.tracef("Store %s in container", newEntry);
          return newEntry;
@@ -277,9 +293,66 @@ public void clear(IntSet segments) {
             segmentRemoved(map);
             map.clear();
          }
+         keySegmentCleared(segment);
       });
    }
 
+   @Override
+   public synchronized boolean enableKeyPrefixIndex() {
+      if (keyPrefixIndex == null) {
+         KeyPrefixIndex index = new KeyPrefixIndex(keyPrefixIndexSegments());
+         // Writes update the index as soon as it is visible, the existing keys are added afterwards
+         keyPrefixIndex = index;
+         iteratorIncludingExpired().forEachRemaining(ice -> index.add(getSegmentForKey(ice.getKey()), ice.getKey()));
+      }
+      return true;
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> keyPrefixIterator(IntSet segments, byte[] prefix, LongAdder visited) {
+      KeyPrefixIndex index = keyPrefixIndex;
+      if (index == null || !index.isComplete()) {
+         return null;
+      }
+      return new KeyPrefixIterator(index, segments, prefix, visited);
+   }
+
+   /**
+    * @return the number of segments of the key prefix index, which must match the segments passed to the write
+    * operations
+    */
+   protected int keyPrefixIndexSegments() {
+      return configuration.clustering().hash().numSegments();
+   }
+
+   protected final void keyAdded(int segment, Object key) {
+      KeyPrefixIndex index = keyPrefixIndex;
+      if (index != null) {
+         index.add(segment, key);
+      }
+   }
+
+   protected final void keyRemoved(int segment, Object key) {
+      KeyPrefixIndex index = keyPrefixIndex;
+      if (index != null) {
+         index.remove(segment, key);
+      }
+   }
+
+   protected final void keySegmentCleared(int segment) {
+      KeyPrefixIndex index = keyPrefixIndex;
+      if (index != null) {
+         index.clear(segment);
+      }
+   }
+
+   protected final void allKeysCleared() {
+      KeyPrefixIndex index = keyPrefixIndex;
+      if (index != null) {
+         index.clear();
+      }
+   }
+
    /**
     * This method is invoked every time an entry is written inside a compute block
     * @param key key passed to compute method
@@ -399,6 +472,63 @@ protected InternalCacheEntry<K, V> getNext() {
       }
    }
 
+   /**
+    * Iterates over the keys of the prefix index and returns their entries, skipping the expired ones and removing the
+    * keys which are no longer in the container.
+    */
+   private class KeyPrefixIterator extends AbstractIterator<InternalCacheEntry<K, V>> {
+      private final KeyPrefixIndex index;
+      private final IntSet segments;
+      private final byte[] prefix;
+      private final LongAdder visited;
+      private final long now = timeService.wallClockTime();
+      private int slot = -1;
+      private Iterator<Map.Entry<byte[], Object>> keys = Collections.emptyIterator();
+
+      KeyPrefixIterator(KeyPrefixIndex index, IntSet segments, byte[] prefix, LongAdder visited) {
+         this.index = index;
+         this.segments = segments;
+         this.prefix = prefix;
+         this.visited = visited;
+      }
+
+      @Override
+      protected InternalCacheEntry<K, V> getNext() {
+         while (true) {
+            while (!keys.hasNext()) {
+               if (!nextSlot()) {
+                  return null;
+               }
+            }
+            Map.Entry<byte[], Object> key = keys.next();
+            if (visited != null) {
+               visited.increment();
+            }
+            int segment = getSegmentForKey(key.getValue());
+            // A single slot holds all the segments, so the requested ones are checked here
+            if (segments != null && index.numSegments() == 1 && !segments.contains(keyPartitioner.getSegment(key.getValue()))) {
+               continue;
+            }
+            InternalCacheEntry<K, V> ice = peek(segment, key.getValue());
+            if (ice == null) {
+               index.removeStale(segment, key.getKey(), key.getValue());
+            } else if (!ice.canExpire() || !ice.isExpired(now)) {
+               return ice;
+            }
+         }
+      }
+
+      private boolean nextSlot() {
+         do {
+            if (++slot >= index.numSegments()) {
+               return false;
+            }
+         } while (segments != null && index.numSegments() > 1 && !segments.contains(slot));
+         keys = index.keys(slot, prefix);
+         return true;
+      }
+   }
+
    protected Caffeine<K, InternalCacheEntry<K, V>> applyListener(Caffeine<K, InternalCacheEntry<K, V>> caffeine,
          DefaultEvictionListener listener) {
       return caffeine.executor(new WithinThreadExecutor()).evictionListener((key, value, cause) -> {
@@ -533,6 +663,11 @@ public void onRemoval(K key, InternalCacheEntry<K, V> value, RemovalCause cause)
             if (future != null) {
                future.complete(null);
             }
+            // The key may have been written again since, in which case the index holds the new key instance
+            KeyPrefixIndex index = keyPrefixIndex;
+            if (index != null) {
+               index.removeStale(getSegmentForKey(key), key);
+            }
          }
       }
    }
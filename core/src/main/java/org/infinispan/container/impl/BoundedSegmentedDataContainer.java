@@ -143,12 +143,14 @@ public void clear() {
       for (int i = 0; i < maps.length(); ++i) {
          clearMapIfPresent(i);
       }
+      allKeysCleared();
    }
 
    @Override
    public void clear(IntSet segments) {
       clear(segments, false);
       segments.forEach((IntConsumer) this::clearMapIfPresent);
+      segments.forEach((IntConsumer) this::keySegmentCleared);
    }
 
    private void clearMapIfPresent(int segment) {
@@ -239,6 +241,7 @@ public void removeSegments(IntSet segments) {
       super.removeSegments(segments);
       // Finally remove the entries from bounded cache
       clear(segments, false);
+      segments.forEach((IntConsumer) this::keySegmentCleared);
    }
 
    private Policy.Eviction<K, InternalCacheEntry<K, V>> eviction() {
@@ -157,8 +157,9 @@ public int sizeIncludingExpired() {
    public void clear(IntSet segments) {
       Iterator<InternalCacheEntry<K, V>> iter = iteratorIncludingExpired(segments);
       while (iter.hasNext()) {
-         iter.next();
+         InternalCacheEntry<K, V> ice = iter.next();
          iter.remove();
+         keyRemoved(-1, ice.getKey());
       }
    }
 
@@ -167,6 +168,13 @@ public void clear(IntSet segments) {
    public void clear() {
       log.tracef("Clearing data container");
       entries.clear();
+      allKeysCleared();
+   }
+
+   @Override
+   protected int keyPrefixIndexSegments() {
+      // The segment is not known by all the writes, so a single index holds all the keys
+      return 1;
    }
 
    @Override
@@ -216,6 +216,7 @@ public void clear() {
             map.clear();
          }
       }
+      allKeysCleared();
    }
 
    @Override
@@ -289,6 +290,7 @@ private void stopMap(int segment, boolean notifyListener) {
             listeners.forEach(c -> c.accept(map.values()));
          }
          segmentRemoved(map);
+         keySegmentCleared(segment);
          if (map instanceof AutoCloseable) {
             try {
                ((AutoCloseable) map).close();
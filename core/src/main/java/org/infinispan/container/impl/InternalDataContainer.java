@@ -3,6 +3,7 @@
 import java.util.Iterator;
 import java.util.Spliterator;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.ObjIntConsumer;
 
@@ -10,6 +11,7 @@
 import org.infinispan.commons.util.IntSets;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.offheap.OffHeapValueConsumer;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.PrivateMetadata;
 import org.reactivestreams.Publisher;
@@ -290,4 +292,44 @@ default void cleanUp() {
     * @return true if any entry can expire, false otherwise.
     */
    boolean hasExpirable();
+
+   /**
+    * Enables an index of the keys sorted by their bytes, so that {@link #keyPrefixIterator(IntSet, byte[], LongAdder)}
+    * can return the entries whose key starts with a prefix without iterating over the whole container. Only keys that
+    * are byte arrays or {@link org.infinispan.commons.marshall.WrappedBytes} can be indexed. Invoking this method when
+    * the index is already enabled has no effect.
+    *
+    * @return false if this container does not support the index
+    */
+   default boolean enableKeyPrefixIndex() {
+      return false;
+   }
+
+   /**
+    * Returns an iterator over the entries whose key starts with the given bytes, skipping the expired ones. The
+    * iterator is weakly consistent, like {@link #iterator()}.
+    *
+    * @param segments the segments to iterate over, or null for all of them
+    * @param prefix the bytes the keys start with
+    * @param visited if not null, incremented for every key of the index visited, which includes the keys skipped
+    * @return the iterator, or null if the key prefix index is not enabled or some keys could not be indexed
+    */
+   default Iterator<InternalCacheEntry<K, V>> keyPrefixIterator(IntSet segments, byte[] prefix, LongAdder visited) {
+      return null;
+   }
+
+   /**
+    * Passes the location of the value mapped to the key to the consumer, when the value is stored off-heap and can be
+    * read without copying it to the heap. The entry cannot be removed or evicted until the consumer returns, and the
+    * read counts as an access for eviction like {@link #get(int, Object)}. Absent and expired entries are never passed
+    * to the consumer, so callers must fall back to {@link #get(int, Object)} when this method returns false.
+    *
+    * @param segment segment for the key
+    * @param k key under which the entry is stored
+    * @param consumer the consumer of the value location
+    * @return true if the consumer was invoked, false if the value could not be read in place
+    */
+   default boolean readOffHeapValue(int segment, Object k, OffHeapValueConsumer consumer) {
+      return false;
+   }
 }
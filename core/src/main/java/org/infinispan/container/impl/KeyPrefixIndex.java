@@ -0,0 +1,164 @@
+package org.infinispan.container.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.infinispan.commons.marshall.WrappedBytes;
+
+/**
+ * An index of the keys of a data container sorted by their bytes, kept per segment, so that the keys starting with a
+ * given prefix can be found without iterating over the whole container.
+ * <p>
+ * Only keys that are byte arrays or {@link WrappedBytes} can be indexed. Once a key of another type is added the index
+ * is no longer complete and must not be used for lookups.
+ * <p>
+ * The index may contain keys which are no longer in the container, for example after an entry is evicted. The
+ * container checks every key found in the index and removes the stale ones with {@link #removeStale(int, byte[], Object)}.
+ *
+ * @since 15.0
+ */
+public class KeyPrefixIndex {
+   private final AtomicReferenceArray<ConcurrentNavigableMap<byte[], Object>> segments;
+   private volatile boolean complete = true;
+
+   KeyPrefixIndex(int numSegments) {
+      this.segments = new AtomicReferenceArray<>(Math.max(1, numSegments));
+   }
+
+   /**
+    * @return whether every key added to the index could be indexed
+    */
+   public boolean isComplete() {
+      return complete;
+   }
+
+   /**
+    * @return the number of keys in the index, including the stale ones
+    */
+   public long size() {
+      long size = 0;
+      for (int i = 0; i < segments.length(); ++i) {
+         ConcurrentNavigableMap<byte[], Object> keys = segments.get(i);
+         if (keys != null) {
+            size += keys.size();
+         }
+      }
+      return size;
+   }
+
+   void add(int segment, Object key) {
+      byte[] bytes = toBytes(key);
+      if (bytes == null) {
+         complete = false;
+         return;
+      }
+      ConcurrentNavigableMap<byte[], Object> keys = segments.get(slot(segment));
+      if (keys == null) {
+         keys = new ConcurrentSkipListMap<>(Arrays::compareUnsigned);
+         if (!segments.compareAndSet(slot(segment), null, keys)) {
+            keys = segments.get(slot(segment));
+         }
+      }
+      keys.put(bytes, key);
+   }
+
+   void remove(int segment, Object key) {
+      byte[] bytes = toBytes(key);
+      ConcurrentNavigableMap<byte[], Object> keys = segments.get(slot(segment));
+      if (bytes != null && keys != null) {
+         keys.remove(bytes);
+      }
+   }
+
+   /**
+    * Removes a key found in the index but not in the container. The key object is compared so that a key written
+    * again concurrently, which replaces the object, is kept.
+    */
+   void removeStale(int segment, Object key) {
+      byte[] bytes = toBytes(key);
+      if (bytes != null) {
+         removeStale(segment, bytes, key);
+      }
+   }
+
+   void removeStale(int segment, byte[] bytes, Object key) {
+      ConcurrentNavigableMap<byte[], Object> keys = segments.get(slot(segment));
+      if (keys != null) {
+         // Map.remove(key, value) compares with equals, which would also remove an equal key written again since
+         keys.computeIfPresent(bytes, (k, current) -> current == key ? null : current);
+      }
+   }
+
+   void clear(int segment) {
+      ConcurrentNavigableMap<byte[], Object> keys = segments.get(slot(segment));
+      if (keys != null) {
+         keys.clear();
+      }
+   }
+
+   void clear() {
+      for (int i = 0; i < segments.length(); ++i) {
+         segments.set(i, null);
+      }
+      complete = true;
+   }
+
+   int numSegments() {
+      return segments.length();
+   }
+
+   /**
+    * @return the keys of the given slot starting with the prefix, each mapped to the key object of the container
+    */
+   Iterator<Map.Entry<byte[], Object>> keys(int slot, byte[] prefix) {
+      ConcurrentNavigableMap<byte[], Object> keys = segments.get(slot);
+      if (keys == null) {
+         return Collections.emptyIterator();
+      }
+      if (prefix.length == 0) {
+         return keys.entrySet().iterator();
+      }
+      byte[] end = prefixEnd(prefix);
+      ConcurrentNavigableMap<byte[], Object> range = end == null ? keys.tailMap(prefix, true) : keys.subMap(prefix, true, end, false);
+      return range.entrySet().iterator();
+   }
+
+   private int slot(int segment) {
+      return segments.length() == 1 || segment < 0 ? 0 : segment;
+   }
+
+   /**
+    * @return the smallest byte array greater than all the arrays starting with the prefix, or null if there is none
+    */
+   static byte[] prefixEnd(byte[] prefix) {
+      int i = prefix.length - 1;
+      while (i >= 0 && prefix[i] == (byte) 0xFF) {
+         i--;
+      }
+      if (i < 0) {
+         return null;
+      }
+      byte[] end = Arrays.copyOf(prefix, i + 1);
+      end[i]++;
+      return end;
+   }
+
+   static byte[] toBytes(Object key) {
+      if (key instanceof byte[]) {
+         return (byte[]) key;
+      } else if (key instanceof WrappedBytes) {
+         WrappedBytes wrapped = (WrappedBytes) key;
+         byte[] bytes = wrapped.getBytes();
+         if (wrapped.backArrayOffset() == 0 && wrapped.getLength() == bytes.length) {
+            return bytes;
+         }
+         return Arrays.copyOfRange(bytes, wrapped.backArrayOffset(), wrapped.backArrayOffset() + wrapped.getLength());
+      }
+      return null;
+   }
+}
@@ -9,6 +9,7 @@
 import java.util.Spliterator;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -166,6 +167,7 @@ public void clear(IntSet segments) {
          IntSet finalExtraSegments = extraSegments;
          nonOwnedEntries.keySet().removeIf(k -> finalExtraSegments.contains(getSegmentForKey(k)));
       }
+      segments.forEach((IntConsumer) this::keySegmentCleared);
    }
 
    @Override
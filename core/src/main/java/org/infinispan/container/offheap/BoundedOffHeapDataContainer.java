@@ -88,6 +88,11 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> get(int segment, Object k)
       return super.get(0, k);
    }
 
+   @Override
+   public boolean readOffHeapValue(int segment, Object k, OffHeapValueConsumer consumer) {
+      return super.readOffHeapValue(0, k, consumer);
+   }
+
    @Override
    public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(int segment, WrappedBytes key,
                                                                  ComputeAction<WrappedBytes, WrappedBytes> action) {
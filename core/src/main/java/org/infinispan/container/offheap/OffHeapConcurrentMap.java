@@ -692,6 +692,48 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> peek(Object key) {
       return peekOrGet((WrappedBytes) key, true);
    }
 
+   /**
+    * Reads the value of a key in place, while holding the read lock of its entry so that it cannot be removed, evicted
+    * or moved by a resize until the consumer returns. The read counts as a retrieval for eviction.
+    * @param key the key to read
+    * @param consumer the consumer of the value location
+    * @return {@code true} if the consumer was invoked, {@code false} if the entry is absent, expired or cannot be
+    * read in place by {@link OffHeapEntryFactory#readValue(long, OffHeapValueConsumer)}
+    */
+   public boolean readValue(Object key, OffHeapValueConsumer consumer) {
+      if (!(key instanceof WrappedBytes)) {
+         return false;
+      }
+      WrappedBytes k = (WrappedBytes) key;
+      int hashCode = k.hashCode();
+      int lockOffset = getLockOffset(hashCode);
+      StampedLock stampedLock = locks.getLockWithOffset(lockOffset);
+      long readStamp = stampedLock.readLock();
+      try {
+         checkDeallocation();
+         MemoryAddressHash memoryLookup;
+         if (pendingBlocks != null && pendingBlocks.contains(lockOffset)) {
+            memoryLookup = this.oldMemoryLookup;
+         } else {
+            memoryLookup = this.memoryLookup;
+         }
+         long bucketAddress = memoryLookup.getMemoryAddressOffset(getMemoryOffset(memoryLookup, hashCode));
+         if (bucketAddress == 0) {
+            return false;
+         }
+         long actualAddress = performGet(bucketAddress, k, hashCode);
+         // Expired entries are left to the regular read, which notifies the expiration manager
+         if (actualAddress == 0 || offHeapEntryFactory.isExpired(actualAddress) ||
+               !offHeapEntryFactory.readValue(actualAddress, consumer)) {
+            return false;
+         }
+         entryRetrieved(actualAddress);
+         return true;
+      } finally {
+         stampedLock.unlockRead(readStamp);
+      }
+   }
+
    @Override
    public void putNoReturn(WrappedBytes key, InternalCacheEntry<WrappedBytes, WrappedBytes> value) {
       int hashCode = key.hashCode();
@@ -109,6 +109,12 @@ public void clear() {
       map.clear();
    }
 
+   @Override
+   public boolean enableKeyPrefixIndex() {
+      // The keys only live off-heap, indexing them would copy all of them back to the heap
+      return false;
+   }
+
    @Override
    public void forEachSegment(ObjIntConsumer<PeekableTouchableMap<WrappedBytes, WrappedBytes>> segmentMapConsumer) {
       segmentMapConsumer.accept(map, 0);
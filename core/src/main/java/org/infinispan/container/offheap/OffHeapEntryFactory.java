@@ -26,7 +26,8 @@ public interface OffHeapEntryFactory extends KeyValueMetadataSizeCalculator<Wrap
     * Returns how many bytes in memory this address location uses assuming it is an {@link InternalCacheEntry}.
     *
     * @param address the address of the entry
-    * @param includeAllocationOverhead if true, align to 8 bytes and add 16 bytes allocation overhead
+    * @param includeAllocationOverhead if true, add the overhead of the allocator, such as the rounding to a size class
+    *                                  of the pooled allocator
     * @return how many bytes this address was estimated to be
     */
    long getSize(long address, boolean includeAllocationOverhead);
@@ -94,6 +95,15 @@ default boolean equalsKey(long address, WrappedBytes wrappedBytes) {
     */
    boolean isExpired(long address);
 
+   /**
+    * Passes the location of the value of the entry to the consumer, without copying it to the heap. Entries with
+    * custom metadata or max idle are not read, because their expiration cannot be checked or updated in place.
+    * @param address the address of the entry to read, which must not be freed until the consumer returns
+    * @param consumer the consumer of the value location
+    * @return {@code true} if the consumer was invoked, {@code false} if the entry has no value or cannot be read
+    */
+   boolean readValue(long address, OffHeapValueConsumer consumer);
+
    /**
     * Method used to calculate how much memory in size the key, value and metadata use.
     * @param key The key for this entry to be used in size calculation
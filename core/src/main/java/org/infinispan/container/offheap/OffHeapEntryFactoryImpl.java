@@ -1,6 +1,5 @@
 package org.infinispan.container.offheap;
 
-import static org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator.estimateSizeOverhead;
 import static org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator.offHeapEntrySize;
 
 import java.io.IOException;
@@ -237,7 +236,7 @@ public long getSize(long entryAddress, boolean includeAllocationOverhead) {
       }
 
       int size = headerOffset + keyLength + metadataLength + valueLength + internalMetadataLength;
-      return includeAllocationOverhead ? estimateSizeOverhead(size) : size;
+      return includeAllocationOverhead ? allocator.allocationSize(size) : size;
    }
 
    @Override
@@ -472,6 +471,46 @@ public boolean equalsKey(long address, WrappedBytes wrappedBytes, int hashCode)
       return true;
    }
 
+   @Override
+   public boolean readValue(long address, OffHeapValueConsumer consumer) {
+      // 16 bytes for eviction if needed (optional)
+      // 8 bytes for linked pointer
+      int offset = evictionEnabled ? 24 : 8;
+
+      byte metadataType = MEMORY.getByte(address, offset);
+      if ((metadataType & (CUSTOM | TRANSIENT | TRANSIENT_MORTAL)) != 0) {
+         // Max idle has to be updated on every read, and custom metadata expiration is not checked off-heap
+         return false;
+      }
+      offset += 1;
+      // Ignore hashCode bytes
+      offset += 4;
+      int keyLength = MEMORY.getInt(address, offset);
+      offset += 4;
+
+      int metadataLength;
+      if ((metadataType & HAS_VERSION) != 0) {
+         metadataLength = MEMORY.getInt(address, offset);
+         offset += 4;
+      } else {
+         metadataLength = (metadataType & MORTAL) != 0 ? 16 : 0;
+      }
+
+      int valueSize = MEMORY.getInt(address, offset);
+      offset += 4;
+      if (valueSize <= 0) {
+         return false;
+      }
+
+      // Ignore internal metadata bytes
+      if (requiresInternalMetadataSize(metadataType)) {
+         offset += 4;
+      }
+
+      consumer.accept(address + offset + keyLength + metadataLength, valueSize);
+      return true;
+   }
+
    /**
     * Returns whether entry is expired.
     * @param address the address of the entry to check
@@ -589,7 +628,7 @@ public long calculateSize(WrappedBytes key, WrappedBytes value, Metadata metadat
       long internalMetadataSize = shouldWriteInternalMetadata(internalMetadata) ?
                                   marshall(internalMetadata).length + 4:
                                   0;
-      return estimateSizeOverhead(totalSize + metadataSize + internalMetadataSize);
+      return allocator.allocationSize(totalSize + metadataSize + internalMetadataSize);
    }
 
    @Override
@@ -661,7 +700,8 @@ public long updateMaxIdle(long address, long currentTimeMillis) {
       if (newMetadataSize != metadataSize) {
          // The new marshalled size is different then before, we have to rewrite the object!
          // Offset is still set to the end of the key bytes (before metadata)
-         long newPointer = MEMORY.allocate(newMetadataSize + offset + valueSize + internalMetadataSize);
+         // The caller frees the old entry through the allocator, so the new one must come from it as well
+         long newPointer = allocator.allocate(newMetadataSize + offset + valueSize + internalMetadataSize);
          // This writes the next pointer, eviction pointers (if applicable),
          // type, hashCode, keyLength, metadataLength, valueLength and key bytes.
          MEMORY.copy(address, 0, newPointer, 0, offset);
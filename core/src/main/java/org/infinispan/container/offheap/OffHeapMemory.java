@@ -159,6 +159,43 @@ long allocate(long size) {
       return address;
    }
 
+   /**
+    * Reserves a region of native memory that is subdivided by the caller. The region itself is not tracked, instead
+    * the caller is expected to invoke {@link #markAllocated(long, long)} for every block handed out from it.
+    */
+   long reserve(long size) {
+      long address = UNSAFE.allocateMemory(size);
+      if (log.isTraceEnabled()) {
+         log.tracef("Reserved off-heap region at 0x%016x with %d bytes", address, size);
+      }
+      return address;
+   }
+
+   void release(long address) {
+      if (log.isTraceEnabled()) {
+         log.tracef("Released off-heap region at 0x%016x", address);
+      }
+      UNSAFE.freeMemory(address);
+   }
+
+   void markAllocated(long address, long size) {
+      if (log.isTraceEnabled()) {
+         Long prev = allocatedBlocks.put(address, size);
+         if (prev != null) {
+            throw new IllegalArgumentException();
+         }
+      }
+   }
+
+   void markFreed(long address) {
+      if (log.isTraceEnabled()) {
+         Long prev = allocatedBlocks.remove(address);
+         if (prev == null) {
+            throw new IllegalArgumentException();
+         }
+      }
+   }
+
    void free(long address) {
       if (log.isTraceEnabled()) {
          Long prev = allocatedBlocks.remove(address);
@@ -23,4 +23,32 @@ public interface OffHeapMemoryAllocator {
    void deallocate(long memoryAddress, long size);
 
    long getAllocatedAmount();
+
+   /**
+    * Returns the amount of memory an allocation of the given size is accounted for, including the overhead of the
+    * allocator, so that the bounded containers count what {@link #getAllocatedAmount()} counts.
+    * @param size the size that would be provided to allocate
+    * @return the amount of memory used by the allocation in bytes
+    */
+   default long allocationSize(long size) {
+      return UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(size);
+   }
+
+   /**
+    * Returns the amount of native memory in bytes this allocator has obtained from the operating system, which may
+    * be larger than {@link #getAllocatedAmount()} when memory is pooled.
+    * @return the reserved amount of memory in bytes
+    */
+   default long getReservedAmount() {
+      return getAllocatedAmount();
+   }
+
+   /**
+    * Returns the amount of reserved memory in bytes that cannot currently be used for entries. This includes the
+    * unused part of pooled blocks as well as pooled blocks which are free.
+    * @return the fragmented amount of memory in bytes
+    */
+   default long getFragmentedAmount() {
+      return 0;
+   }
 }
@@ -0,0 +1,17 @@
+package org.infinispan.container.offheap;
+
+/**
+ * Receives the location of a value stored off-heap. The memory is only guaranteed to contain the value while
+ * {@link #accept(long, int)} runs: the entry can be removed, evicted or resized as soon as it returns, so the bytes
+ * must be copied before then and the address must not be kept.
+ *
+ * @since 15.0
+ */
+@FunctionalInterface
+public interface OffHeapValueConsumer {
+   /**
+    * @param address the absolute memory address of the first byte of the value
+    * @param length the number of bytes of the value
+    */
+   void accept(long address, int length);
+}
@@ -0,0 +1,350 @@
+package org.infinispan.container.offheap;
+
+import java.lang.ref.WeakReference;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Memory allocator that pools native memory instead of requesting it from the operating system on every allocation.
+ * <p>
+ * Requested sizes are rounded up to a size class. Blocks of a size class are carved from slabs which are themselves
+ * carved from large arenas. Freed blocks are kept in a small per thread cache and, once that overflows, in a shared
+ * free list for their size class, so that they can be reused by subsequent allocations of the same class. Requests
+ * larger than {@link #MAX_POOLED_SIZE} are not pooled and go directly to the operating system.
+ * <p>
+ * The blocks cached by a thread which has terminated are moved back to the shared free lists the next time another
+ * thread has to refill its cache, so that short-lived threads do not leak pooled memory.
+ * <p>
+ * Arenas are only released when the allocator is stopped, which happens after the data container has freed all of
+ * its entries.
+ * @since 15.0
+ */
+@Scope(Scopes.NAMED_CACHE)
+public class PooledOffHeapMemoryAllocator implements OffHeapMemoryAllocator {
+   private static final Log log = LogFactory.getLog(PooledOffHeapMemoryAllocator.class, Log.class);
+   private static final OffHeapMemory MEMORY = OffHeapMemory.INSTANCE;
+
+   // Sizes up to SMALL_LIMIT are rounded to a multiple of 16, after which every power of two is split in 4 classes
+   private static final int QUANTUM = 16;
+   private static final int SMALL_LIMIT = 128;
+   private static final int SMALL_CLASSES = SMALL_LIMIT / QUANTUM;
+   private static final int CLASSES_PER_DOUBLING = 4;
+   static final int MAX_POOLED_SIZE = 32 * 1024;
+   static final int SLAB_SIZE = 256 * 1024;
+   static final int ARENA_SIZE = 16 * SLAB_SIZE;
+
+   private static final int[] CLASS_SIZES;
+
+   static {
+      int classCount = sizeClass(MAX_POOLED_SIZE) + 1;
+      CLASS_SIZES = new int[classCount];
+      for (int size = QUANTUM, i = 0; i < classCount; ++size) {
+         if (sizeClass(size) == i) {
+            // The first size mapping to the next class tells us the size of the previous one
+            if (i > 0) CLASS_SIZES[i - 1] = size - 1;
+            i++;
+         }
+      }
+      CLASS_SIZES[classCount - 1] = MAX_POOLED_SIZE;
+   }
+
+   static final int THREAD_CACHE_SIZE = 64;
+   static final int THREAD_CACHE_BATCH = THREAD_CACHE_SIZE / 2;
+
+   private final SizeClass[] sizeClasses;
+   private final LongAdder amountAllocated = new LongAdder();
+   private final LongAdder amountRequested = new LongAdder();
+   private final AtomicLong amountReserved = new AtomicLong();
+
+   // Guarded by this
+   private final AddressStack arenas = new AddressStack(4);
+   private long arenaAddress;
+   private long arenaOffset = ARENA_SIZE;
+
+   // Every thread cache in use, so that the caches of terminated threads can be reclaimed
+   private final Queue<ThreadCache> threadCaches = new ConcurrentLinkedQueue<>();
+   private volatile ThreadLocal<ThreadCache> threadCache = ThreadLocal.withInitial(this::newThreadCache);
+
+   public PooledOffHeapMemoryAllocator() {
+      sizeClasses = new SizeClass[CLASS_SIZES.length];
+      for (int i = 0; i < sizeClasses.length; ++i) {
+         sizeClasses[i] = new SizeClass(CLASS_SIZES[i]);
+      }
+   }
+
+   /**
+    * Returns the size class index for the given size, which must be greater than 0 and not greater than
+    * {@link #MAX_POOLED_SIZE}.
+    */
+   static int sizeClass(long size) {
+      if (size <= SMALL_LIMIT) {
+         return (int) ((size + QUANTUM - 1) / QUANTUM) - 1;
+      }
+      int power = 63 - Long.numberOfLeadingZeros(size - 1);
+      int step = power - 2;
+      int group = power - Integer.numberOfTrailingZeros(SMALL_LIMIT);
+      return SMALL_CLASSES + group * CLASSES_PER_DOUBLING + (int) ((size - 1 - (1L << power)) >> step);
+   }
+
+   /**
+    * Returns the amount of memory that is actually handed out for an allocation of the given size.
+    */
+   static long classSize(long size) {
+      return size > MAX_POOLED_SIZE ? UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(size) :
+            CLASS_SIZES[sizeClass(size)];
+   }
+
+   @Override
+   public long allocationSize(long size) {
+      return classSize(size);
+   }
+
+   @Override
+   public long allocate(long memoryLength) {
+      if (memoryLength > MAX_POOLED_SIZE) {
+         long estimatedMemoryLength = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(memoryLength);
+         long memoryLocation = MEMORY.allocate(memoryLength);
+         amountAllocated.add(estimatedMemoryLength);
+         amountRequested.add(estimatedMemoryLength);
+         amountReserved.addAndGet(estimatedMemoryLength);
+         if (log.isTraceEnabled()) {
+            log.tracef("Allocated unpooled off-heap memory at 0x%016x with %d bytes. Total size: %d", memoryLocation,
+                  estimatedMemoryLength, amountAllocated.sum());
+         }
+         return memoryLocation;
+      }
+      int index = sizeClass(memoryLength);
+      SizeClass sizeClass = sizeClasses[index];
+      AddressStack cache = threadCache.get().forClass(index);
+      if (cache.isEmpty()) {
+         reclaimTerminatedThreadCaches();
+         sizeClass.refill(cache, THREAD_CACHE_BATCH);
+      }
+      long memoryLocation = cache.pop();
+      MEMORY.markAllocated(memoryLocation, sizeClass.size);
+      amountAllocated.add(sizeClass.size);
+      amountRequested.add(memoryLength);
+      if (log.isTraceEnabled()) {
+         log.tracef("Allocated pooled off-heap memory at 0x%016x with %d bytes. Total size: %d", memoryLocation,
+               sizeClass.size, amountAllocated.sum());
+      }
+      return memoryLocation;
+   }
+
+   @Override
+   public void deallocate(long memoryAddress, long size) {
+      if (size > MAX_POOLED_SIZE) {
+         long estimatedMemoryLength = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(size);
+         amountAllocated.add(-estimatedMemoryLength);
+         amountRequested.add(-estimatedMemoryLength);
+         amountReserved.addAndGet(-estimatedMemoryLength);
+         if (log.isTraceEnabled()) {
+            log.tracef("Deallocating unpooled off-heap memory at 0x%016x with %d bytes. Total size: %d", memoryAddress,
+                  estimatedMemoryLength, amountAllocated.sum());
+         }
+         MEMORY.free(memoryAddress);
+         return;
+      }
+      int index = sizeClass(size);
+      SizeClass sizeClass = sizeClasses[index];
+      MEMORY.markFreed(memoryAddress);
+      amountAllocated.add(-sizeClass.size);
+      amountRequested.add(-size);
+      if (log.isTraceEnabled()) {
+         log.tracef("Deallocating pooled off-heap memory at 0x%016x with %d bytes. Total size: %d", memoryAddress,
+               sizeClass.size, amountAllocated.sum());
+      }
+      AddressStack cache = threadCache.get().forClass(index);
+      if (cache.size() == THREAD_CACHE_SIZE) {
+         sizeClass.flush(cache, THREAD_CACHE_BATCH);
+      }
+      cache.push(memoryAddress);
+   }
+
+   @Override
+   public long getAllocatedAmount() {
+      return amountAllocated.sum();
+   }
+
+   @Override
+   public long getReservedAmount() {
+      return amountReserved.get();
+   }
+
+   @Override
+   public long getFragmentedAmount() {
+      return amountReserved.get() - amountRequested.sum();
+   }
+
+   /**
+    * Releases all the arenas back to the operating system. Must only be invoked once all allocated memory has been
+    * deallocated.
+    */
+   @Stop
+   public synchronized void stop() {
+      // Blocks cached by other threads point into the arenas we are about to release, just drop those caches
+      threadCache = ThreadLocal.withInitial(this::newThreadCache);
+      threadCaches.clear();
+      for (SizeClass sizeClass : sizeClasses) {
+         sizeClass.clear();
+      }
+      long released = 0;
+      while (!arenas.isEmpty()) {
+         MEMORY.release(arenas.pop());
+         released += ARENA_SIZE;
+      }
+      amountReserved.addAndGet(-released);
+      arenaAddress = 0;
+      arenaOffset = ARENA_SIZE;
+      if (log.isTraceEnabled()) {
+         log.tracef("Released %d bytes of pooled off-heap memory", released);
+      }
+   }
+
+   private ThreadCache newThreadCache() {
+      ThreadCache cache = new ThreadCache(Thread.currentThread());
+      threadCaches.add(cache);
+      return cache;
+   }
+
+   /**
+    * Moves the blocks cached by terminated threads to the shared free lists. Nobody else uses the cache of a terminated
+    * thread, and removing it from the queue first ensures only one thread moves its blocks.
+    */
+   private void reclaimTerminatedThreadCaches() {
+      for (ThreadCache cache : threadCaches) {
+         if (!cache.isOwnerAlive() && threadCaches.remove(cache)) {
+            for (int i = 0; i < cache.caches.length; ++i) {
+               AddressStack addresses = cache.caches[i];
+               if (addresses != null && !addresses.isEmpty()) {
+                  sizeClasses[i].flush(addresses, addresses.size());
+               }
+            }
+         }
+      }
+   }
+
+   private synchronized long reserveSlab() {
+      if (arenaOffset == ARENA_SIZE) {
+         arenaAddress = MEMORY.reserve(ARENA_SIZE);
+         arenaOffset = 0;
+         arenas.push(arenaAddress);
+         amountReserved.addAndGet(ARENA_SIZE);
+      }
+      long slab = arenaAddress + arenaOffset;
+      arenaOffset += SLAB_SIZE;
+      return slab;
+   }
+
+   private final class SizeClass {
+      private final int size;
+      private final int blocksPerSlab;
+      // All the following are guarded by this
+      private final AddressStack freeList = new AddressStack(THREAD_CACHE_SIZE);
+      private long slabAddress;
+      private int slabBlocksLeft;
+
+      SizeClass(int size) {
+         this.size = size;
+         this.blocksPerSlab = SLAB_SIZE / size;
+      }
+
+      /**
+       * Moves up to {@code count} blocks into the given cache, reusing freed blocks before carving new ones.
+       */
+      synchronized void refill(AddressStack cache, int count) {
+         int moved = 0;
+         while (moved < count && !freeList.isEmpty()) {
+            cache.push(freeList.pop());
+            moved++;
+         }
+         while (moved < count) {
+            if (slabBlocksLeft == 0) {
+               slabAddress = reserveSlab();
+               slabBlocksLeft = blocksPerSlab;
+            }
+            cache.push(slabAddress);
+            slabAddress += size;
+            slabBlocksLeft--;
+            moved++;
+         }
+      }
+
+      synchronized void flush(AddressStack cache, int count) {
+         for (int i = 0; i < count; ++i) {
+            freeList.push(cache.pop());
+         }
+      }
+
+      synchronized void clear() {
+         freeList.clear();
+         slabAddress = 0;
+         slabBlocksLeft = 0;
+      }
+   }
+
+   private static final class ThreadCache {
+      private final AddressStack[] caches = new AddressStack[CLASS_SIZES.length];
+      private final WeakReference<Thread> owner;
+
+      ThreadCache(Thread owner) {
+         this.owner = new WeakReference<>(owner);
+      }
+
+      boolean isOwnerAlive() {
+         Thread thread = owner.get();
+         return thread != null && thread.isAlive();
+      }
+
+      AddressStack forClass(int index) {
+         AddressStack cache = caches[index];
+         if (cache == null) {
+            cache = new AddressStack(THREAD_CACHE_SIZE);
+            caches[index] = cache;
+         }
+         return cache;
+      }
+   }
+
+   private static final class AddressStack {
+      private long[] addresses;
+      private int size;
+
+      AddressStack(int initialCapacity) {
+         addresses = new long[initialCapacity];
+      }
+
+      void push(long address) {
+         if (size == addresses.length) {
+            long[] newAddresses = new long[size << 1];
+            System.arraycopy(addresses, 0, newAddresses, 0, size);
+            addresses = newAddresses;
+         }
+         addresses[size++] = address;
+      }
+
+      long pop() {
+         return addresses[--size];
+      }
+
+      int size() {
+         return size;
+      }
+
+      boolean isEmpty() {
+         return size == 0;
+      }
+
+      void clear() {
+         size = 0;
+      }
+   }
+}
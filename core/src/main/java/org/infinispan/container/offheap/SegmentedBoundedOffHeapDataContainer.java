@@ -459,4 +459,10 @@ public long capacity() {
    public long evictionSize() {
       return currentSize;
    }
+
+   @Override
+   public boolean enableKeyPrefixIndex() {
+      // The keys only live off-heap, indexing them would copy all of them back to the heap
+      return false;
+   }
 }
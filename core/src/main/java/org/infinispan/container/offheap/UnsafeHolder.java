@@ -7,11 +7,13 @@
 import sun.misc.Unsafe;
 
 /**
+ * Holds the {@link Unsafe} instance used for native memory by the off-heap container, and by the other internal
+ * components that need it.
  * @author wburns
  * @since 9.0
  */
-class UnsafeHolder {
-   static Unsafe UNSAFE = UnsafeHolder.getUnsafe();
+public class UnsafeHolder {
+   public static final Unsafe UNSAFE = UnsafeHolder.getUnsafe();
 
    @SuppressWarnings("restriction")
    private static Unsafe getUnsafe() {
@@ -791,6 +791,22 @@ public long getOffHeapMemoryUsed() {
       return allocator.getAllocatedAmount();
    }
 
+   @ManagedAttribute(
+         description = "Amount of off-heap memory reserved from the operating system by this cache (bytes)",
+         displayName = "Off-Heap memory reserved"
+   )
+   public long getOffHeapMemoryReserved() {
+      return allocator.getReservedAmount();
+   }
+
+   @ManagedAttribute(
+         description = "Amount of reserved off-heap memory not used by entries of this cache (bytes)",
+         displayName = "Off-Heap memory fragmentation"
+   )
+   public long getOffHeapMemoryFragmentation() {
+      return allocator.getFragmentedAmount();
+   }
+
    @ManagedAttribute(
          description = "Amount of nodes required to guarantee data consistency",
          displayName = "Required Minimum Nodes"
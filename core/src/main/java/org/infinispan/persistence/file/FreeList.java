@@ -0,0 +1,150 @@
+package org.infinispan.persistence.file;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+import org.infinispan.persistence.file.SingleFileStore.FileEntry;
+
+/**
+ * The free entries of a {@link SingleFileStore} file, kept in buckets by size class.
+ * <p>
+ * Bucket {@code i} holds the entries with a size from {@code 2^i} to {@code 2^(i+1) - 1}, sorted by size and offset.
+ * An allocation only searches the bucket of the requested size, and otherwise takes the smallest entry of the first
+ * larger bucket that has one not being read, instead of walking a single set holding every free entry.
+ * <p>
+ * All the methods are synchronized on this instance. Callers that need several operations to be atomic, or that
+ * iterate over the entries, must synchronize on this instance too.
+ *
+ * @since 15.0
+ */
+class FreeList implements Iterable<FileEntry> {
+   private final TreeSet<FileEntry>[] buckets = new TreeSet[Integer.SIZE];
+   private int size;
+
+   private static int bucket(int entrySize) {
+      return 31 - Integer.numberOfLeadingZeros(Math.max(entrySize, 1));
+   }
+
+   synchronized boolean add(FileEntry fe) {
+      int bucket = bucket(fe.size);
+      TreeSet<FileEntry> entries = buckets[bucket];
+      if (entries == null) {
+         entries = buckets[bucket] = new TreeSet<>();
+      }
+      if (entries.add(fe)) {
+         size++;
+         return true;
+      }
+      return false;
+   }
+
+   synchronized boolean remove(FileEntry fe) {
+      TreeSet<FileEntry> entries = buckets[bucket(fe.size)];
+      if (entries != null && entries.remove(fe)) {
+         size--;
+         return true;
+      }
+      return false;
+   }
+
+   /**
+    * Removes and returns the smallest free entry of at least {@code len} bytes that has no readers.
+    *
+    * @return the removed entry or {@code null} if there is none
+    */
+   synchronized FileEntry take(int len) {
+      int bucket = bucket(len);
+      TreeSet<FileEntry> entries = buckets[bucket];
+      if (entries != null) {
+         FileEntry fe = takeUnlocked(entries.tailSet(new FileEntry(0, len)).iterator());
+         if (fe != null) {
+            return fe;
+         }
+      }
+      for (int i = bucket + 1; i < buckets.length; ++i) {
+         entries = buckets[i];
+         if (entries != null) {
+            FileEntry fe = takeUnlocked(entries.iterator());
+            if (fe != null) {
+               return fe;
+            }
+         }
+      }
+      return null;
+   }
+
+   private FileEntry takeUnlocked(Iterator<FileEntry> iterator) {
+      while (iterator.hasNext()) {
+         FileEntry fe = iterator.next();
+         // ignore entries that are still in use by concurrent readers
+         if (!fe.isLocked()) {
+            iterator.remove();
+            size--;
+            return fe;
+         }
+      }
+      return null;
+   }
+
+   synchronized int size() {
+      return size;
+   }
+
+   synchronized void clear() {
+      for (int i = 0; i < buckets.length; ++i) {
+         buckets[i] = null;
+      }
+      size = 0;
+   }
+
+   synchronized List<FileEntry> toList() {
+      List<FileEntry> list = new ArrayList<>(size);
+      forEach(list::add);
+      return list;
+   }
+
+   /**
+    * Iterates over the entries from the smallest to the largest. The caller must hold the monitor of this instance
+    * and must not modify it while iterating.
+    */
+   @Override
+   public Iterator<FileEntry> iterator() {
+      return new Iterator<>() {
+         private int bucket = -1;
+         private Iterator<FileEntry> current = nextBucket();
+
+         private Iterator<FileEntry> nextBucket() {
+            while (++bucket < buckets.length) {
+               if (buckets[bucket] != null && !buckets[bucket].isEmpty()) {
+                  return buckets[bucket].iterator();
+               }
+            }
+            return null;
+         }
+
+         @Override
+         public boolean hasNext() {
+            while (current != null && !current.hasNext()) {
+               current = nextBucket();
+            }
+            return current != null;
+         }
+
+         @Override
+         public FileEntry next() {
+            if (!hasNext()) {
+               throw new NoSuchElementException();
+            }
+            return current.next();
+         }
+      };
+   }
+
+   @Override
+   public synchronized String toString() {
+      return toList().toString();
+   }
+}
@@ -0,0 +1,488 @@
+package org.infinispan.persistence.file;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.persistence.file.SingleFileStore.FileEntry;
+import org.infinispan.persistence.spi.PersistenceException;
+
+/**
+ * The index of a {@link SingleFileStore} segment, mapping keys to their {@link FileEntry}, kept outside the Java heap.
+ * <p>
+ * Keys are stored in their serialized form in an arena of direct memory, and the slots of the open-addressing table,
+ * also allocated in direct memory, hold the arena address of the key, its hash and the {@link FileEntry} fields. A
+ * lookup marshalls the key and compares the serialized bytes, so the only objects kept on heap are the
+ * {@link FileEntry} instances that are being read, which are shared through the {@code pins} map so that
+ * {@link FileEntry#waitUnlocked()} and {@link FileEntry#isLocked()} see every reader.
+ * <p>
+ * All the public methods are synchronized on this instance, like the {@link java.util.Collections#synchronizedMap(Map)}
+ * used by the heap index. Iterating over the entries requires the caller to synchronize on this instance.
+ *
+ * @since 15.0
+ */
+class OffHeapFileIndex<K> extends AbstractMap<K, FileEntry> {
+   /*
+    * 8 bytes - file offset
+    * 8 bytes - expiration time
+    * 4 bytes - key address in the arena
+    * 4 bytes - key length, 0 if the slot is empty
+    * 4 bytes - key hash
+    * 4 bytes - entry size
+    * 4 bytes - value length
+    * 4 bytes - metadata length
+    * 4 bytes - internal metadata length
+    * 4 bytes - padding
+    */
+   private static final int SLOT_SIZE = 48;
+   private static final int OFFSET = 0;
+   private static final int EXPIRY = 8;
+   private static final int KEY_ADDRESS = 16;
+   private static final int KEY_LENGTH = 20;
+   private static final int HASH = 24;
+   private static final int SIZE = 28;
+   private static final int DATA_LENGTH = 32;
+   private static final int METADATA_LENGTH = 36;
+   private static final int INTERNAL_METADATA_LENGTH = 40;
+
+   private static final int INITIAL_CAPACITY = 64;
+   private static final int MAX_CAPACITY = Integer.highestOneBit(Integer.MAX_VALUE / SLOT_SIZE);
+   private static final int INITIAL_ARENA_SIZE = 16 * 1024;
+   private static final MurmurHash3 HASH_FUNCTION = MurmurHash3.getInstance();
+
+   private final Marshaller marshaller;
+   private final Map<Long, FileEntry> pins;
+
+   private ByteBuffer table;
+   private int capacity;
+   private int count;
+
+   private ByteBuffer arena;
+   private int arenaPosition;
+   private int garbage;
+
+   OffHeapFileIndex(Marshaller marshaller, Map<Long, FileEntry> pins) {
+      this.marshaller = marshaller;
+      this.pins = pins;
+      allocateTable(INITIAL_CAPACITY);
+      arena = ByteBuffer.allocateDirect(INITIAL_ARENA_SIZE);
+   }
+
+   private void allocateTable(int capacity) {
+      this.capacity = capacity;
+      this.table = ByteBuffer.allocateDirect(capacity * SLOT_SIZE).order(ByteOrder.nativeOrder());
+   }
+
+   @Override
+   public synchronized int size() {
+      return count;
+   }
+
+   @Override
+   public synchronized boolean containsKey(Object key) {
+      byte[] keyBytes = toBytes(key);
+      return find(keyBytes, 0, keyBytes.length, HASH_FUNCTION.hash(keyBytes)) >= 0;
+   }
+
+   @Override
+   public synchronized FileEntry get(Object key) {
+      byte[] keyBytes = toBytes(key);
+      int slot = find(keyBytes, 0, keyBytes.length, HASH_FUNCTION.hash(keyBytes));
+      return slot < 0 ? null : entryAt(slot);
+   }
+
+   @Override
+   public synchronized FileEntry put(K key, FileEntry value) {
+      byte[] keyBytes = toBytes(key);
+      return putSerialized(keyBytes, 0, keyBytes.length, value);
+   }
+
+   /**
+    * Same as {@link #put(Object, FileEntry)}, but with a key that has already been marshalled.
+    */
+   synchronized FileEntry putSerialized(byte[] keyBytes, int keyOffset, int keyLength, FileEntry value) {
+      int hash = hash(keyBytes, keyOffset, keyLength);
+      int slot = find(keyBytes, keyOffset, keyLength, hash);
+      if (slot >= 0) {
+         FileEntry previous = entryAt(slot);
+         writeEntry(slot, value);
+         return previous;
+      }
+      if (count + 1 > capacity - (capacity >>> 2)) {
+         resize();
+      }
+      int keyAddress = appendKey(keyBytes, keyOffset, keyLength);
+      slot = hash & (capacity - 1);
+      while (keyLength(slot) != 0) {
+         slot = (slot + 1) & (capacity - 1);
+      }
+      int base = slot * SLOT_SIZE;
+      table.putInt(base + KEY_ADDRESS, keyAddress);
+      table.putInt(base + KEY_LENGTH, keyLength);
+      table.putInt(base + HASH, hash);
+      writeEntry(slot, value);
+      count++;
+      return null;
+   }
+
+   @Override
+   public synchronized FileEntry remove(Object key) {
+      byte[] keyBytes = toBytes(key);
+      int slot = find(keyBytes, 0, keyBytes.length, HASH_FUNCTION.hash(keyBytes));
+      if (slot < 0) {
+         return null;
+      }
+      FileEntry previous = entryAt(slot);
+      removeSlot(slot);
+      return previous;
+   }
+
+   @Override
+   public synchronized void clear() {
+      allocateTable(INITIAL_CAPACITY);
+      arena = ByteBuffer.allocateDirect(INITIAL_ARENA_SIZE);
+      arenaPosition = 0;
+      garbage = 0;
+      count = 0;
+   }
+
+   /**
+    * The iteration requires holding the monitor of this instance, and the keys of the entries are unmarshalled on
+    * demand.
+    */
+   @Override
+   public Set<Entry<K, FileEntry>> entrySet() {
+      return new AbstractSet<>() {
+         @Override
+         public Iterator<Entry<K, FileEntry>> iterator() {
+            return new EntryIterator();
+         }
+
+         @Override
+         public int size() {
+            return OffHeapFileIndex.this.size();
+         }
+      };
+   }
+
+   /**
+    * Writes the serialized keys and their file entries, so that {@link #readFrom(DataInput)} can restore them
+    * without reading the data file.
+    */
+   synchronized void writeTo(DataOutput output) throws IOException {
+      output.writeInt(count);
+      byte[] keyBytes = new byte[0];
+      for (int slot = 0; slot < capacity; ++slot) {
+         int keyLength = keyLength(slot);
+         if (keyLength == 0)
+            continue;
+
+         if (keyBytes.length < keyLength) {
+            keyBytes = new byte[keyLength];
+         }
+         readKey(slot, keyBytes);
+         FileEntry fe = entryAt(slot);
+         output.writeInt(keyLength);
+         output.write(keyBytes, 0, keyLength);
+         output.writeLong(fe.offset);
+         output.writeInt(fe.size);
+         output.writeInt(fe.dataLen);
+         output.writeInt(fe.metadataLen);
+         output.writeInt(fe.internalMetadataLen);
+         output.writeLong(fe.expiryTime);
+      }
+   }
+
+   synchronized void readFrom(DataInput input) throws IOException {
+      int entries = input.readInt();
+      for (int i = 0; i < entries; ++i) {
+         int keyLength = input.readInt();
+         byte[] keyBytes = new byte[keyLength];
+         input.readFully(keyBytes);
+         long offset = input.readLong();
+         int size = input.readInt();
+         int dataLen = input.readInt();
+         int metadataLen = input.readInt();
+         int internalMetadataLen = input.readInt();
+         long expiryTime = input.readLong();
+         putSerialized(keyBytes, 0, keyLength,
+               new FileEntry(offset, size, keyLength, dataLen, metadataLen, internalMetadataLen, expiryTime));
+      }
+   }
+
+   private byte[] toBytes(Object key) {
+      try {
+         return marshaller.objectToByteBuffer(key);
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new PersistenceException(e);
+      }
+   }
+
+   private K toKey(byte[] keyBytes) {
+      try {
+         return (K) marshaller.objectFromByteBuffer(keyBytes);
+      } catch (IOException | ClassNotFoundException e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   private static int hash(byte[] bytes, int offset, int length) {
+      if (offset == 0 && length == bytes.length) {
+         return HASH_FUNCTION.hash(bytes);
+      }
+      byte[] copy = new byte[length];
+      System.arraycopy(bytes, offset, copy, 0, length);
+      return HASH_FUNCTION.hash(copy);
+   }
+
+   private int keyLength(int slot) {
+      return table.getInt(slot * SLOT_SIZE + KEY_LENGTH);
+   }
+
+   private void readKey(int slot, byte[] dst) {
+      int base = slot * SLOT_SIZE;
+      arena.duplicate().position(table.getInt(base + KEY_ADDRESS)).get(dst, 0, table.getInt(base + KEY_LENGTH));
+   }
+
+   /**
+    * @return the slot of the key or {@code -1} if the key is not present
+    */
+   private int find(byte[] keyBytes, int keyOffset, int keyLength, int hash) {
+      int mask = capacity - 1;
+      for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+         int base = slot * SLOT_SIZE;
+         int slotKeyLength = table.getInt(base + KEY_LENGTH);
+         if (slotKeyLength == 0) {
+            return -1;
+         }
+         if (slotKeyLength == keyLength && table.getInt(base + HASH) == hash &&
+               keyEquals(table.getInt(base + KEY_ADDRESS), keyBytes, keyOffset, keyLength)) {
+            return slot;
+         }
+      }
+   }
+
+   private boolean keyEquals(int address, byte[] keyBytes, int keyOffset, int keyLength) {
+      for (int i = 0; i < keyLength; ++i) {
+         if (arena.get(address + i) != keyBytes[keyOffset + i])
+            return false;
+      }
+      return true;
+   }
+
+   private FileEntry entryAt(int slot) {
+      int base = slot * SLOT_SIZE;
+      long offset = table.getLong(base + OFFSET);
+      int size = table.getInt(base + SIZE);
+      int keyLength = table.getInt(base + KEY_LENGTH);
+      // Reuse the instance being read, so that readers and writers agree on the entry lock
+      FileEntry pinned = pins.get(offset);
+      if (pinned != null && pinned.size == size && pinned.keyLen == keyLength) {
+         return pinned;
+      }
+      return new FileEntry(offset, size, keyLength, table.getInt(base + DATA_LENGTH),
+            table.getInt(base + METADATA_LENGTH), table.getInt(base + INTERNAL_METADATA_LENGTH),
+            table.getLong(base + EXPIRY), pins);
+   }
+
+   private void writeEntry(int slot, FileEntry fe) {
+      int base = slot * SLOT_SIZE;
+      table.putLong(base + OFFSET, fe.offset);
+      table.putLong(base + EXPIRY, fe.expiryTime);
+      table.putInt(base + SIZE, fe.size);
+      table.putInt(base + DATA_LENGTH, fe.dataLen);
+      table.putInt(base + METADATA_LENGTH, fe.metadataLen);
+      table.putInt(base + INTERNAL_METADATA_LENGTH, fe.internalMetadataLen);
+   }
+
+   /**
+    * Empties the slot and shifts back the following entries of the cluster that would not be found otherwise.
+    */
+   private void removeSlot(int slot) {
+      garbage += keyLength(slot);
+      count--;
+      int mask = capacity - 1;
+      int hole = slot;
+      for (int next = (hole + 1) & mask; ; next = (next + 1) & mask) {
+         int base = next * SLOT_SIZE;
+         if (table.getInt(base + KEY_LENGTH) == 0)
+            break;
+
+         int home = table.getInt(base + HASH) & mask;
+         // Move the entry if its home slot is not between the hole and its current slot
+         if (((next - home) & mask) >= ((next - hole) & mask)) {
+            copySlot(next, hole);
+            hole = next;
+         }
+      }
+      table.putInt(hole * SLOT_SIZE + KEY_LENGTH, 0);
+   }
+
+   private void copySlot(int from, int to) {
+      ByteBuffer src = table.duplicate();
+      src.position(from * SLOT_SIZE).limit(from * SLOT_SIZE + SLOT_SIZE);
+      table.duplicate().position(to * SLOT_SIZE).put(src);
+   }
+
+   private void resize() {
+      if (capacity >= MAX_CAPACITY) {
+         throw new PersistenceException("The off-heap index cannot hold more than " + (MAX_CAPACITY - (MAX_CAPACITY >>> 2)) + " entries");
+      }
+      ByteBuffer oldTable = table;
+      int oldCapacity = capacity;
+      allocateTable(capacity << 1);
+      int mask = capacity - 1;
+      for (int oldSlot = 0; oldSlot < oldCapacity; ++oldSlot) {
+         int oldBase = oldSlot * SLOT_SIZE;
+         if (oldTable.getInt(oldBase + KEY_LENGTH) == 0)
+            continue;
+
+         int slot = oldTable.getInt(oldBase + HASH) & mask;
+         while (keyLength(slot) != 0) {
+            slot = (slot + 1) & mask;
+         }
+         ByteBuffer src = oldTable.duplicate();
+         src.position(oldBase).limit(oldBase + SLOT_SIZE);
+         table.duplicate().position(slot * SLOT_SIZE).put(src);
+      }
+   }
+
+   private int appendKey(byte[] keyBytes, int keyOffset, int keyLength) {
+      if (arena.capacity() - arenaPosition < keyLength) {
+         long live = arenaPosition - garbage;
+         if (garbage >= live) {
+            compactArena(keyLength);
+         } else {
+            long newSize = Math.max((long) arena.capacity() << 1, (long) arenaPosition + keyLength);
+            if (newSize > Integer.MAX_VALUE) {
+               throw new PersistenceException("The off-heap index keys cannot exceed " + Integer.MAX_VALUE + " bytes");
+            }
+            ByteBuffer newArena = ByteBuffer.allocateDirect((int) newSize);
+            newArena.put(arena.duplicate().position(0).limit(arenaPosition));
+            arena = newArena;
+         }
+      }
+      int address = arenaPosition;
+      arena.duplicate().position(address).put(keyBytes, keyOffset, keyLength);
+      arenaPosition += keyLength;
+      return address;
+   }
+
+   /**
+    * Copies the keys of the occupied slots to a new arena, dropping the keys of the removed entries.
+    */
+   private void compactArena(int extraBytes) {
+      int live = arenaPosition - garbage;
+      long newSize = Math.max(INITIAL_ARENA_SIZE, 2L * (live + extraBytes));
+      if (newSize > Integer.MAX_VALUE) {
+         throw new PersistenceException("The off-heap index keys cannot exceed " + Integer.MAX_VALUE + " bytes");
+      }
+      ByteBuffer newArena = ByteBuffer.allocateDirect((int) newSize);
+      for (int slot = 0; slot < capacity; ++slot) {
+         int base = slot * SLOT_SIZE;
+         int keyLength = table.getInt(base + KEY_LENGTH);
+         if (keyLength == 0)
+            continue;
+
+         int address = table.getInt(base + KEY_ADDRESS);
+         table.putInt(base + KEY_ADDRESS, newArena.position());
+         newArena.put(arena.duplicate().position(address).limit(address + keyLength));
+      }
+      arena = newArena;
+      arenaPosition = newArena.position();
+      garbage = 0;
+   }
+
+   /**
+    * Iterates over the slots starting after an empty one, so that the entries moved back by a removal are always
+    * ahead of the iterator.
+    */
+   private class EntryIterator implements Iterator<Entry<K, FileEntry>> {
+      private final int start;
+      private int visited;
+      private int slot;
+      private int current = -1;
+
+      EntryIterator() {
+         int empty = 0;
+         while (count > 0 && keyLength(empty) != 0) {
+            empty++;
+         }
+         start = empty;
+         slot = empty;
+      }
+
+      @Override
+      public boolean hasNext() {
+         while (visited < capacity) {
+            int candidate = (start + 1 + visited) & (capacity - 1);
+            if (keyLength(candidate) != 0) {
+               slot = candidate;
+               return true;
+            }
+            visited++;
+         }
+         return false;
+      }
+
+      @Override
+      public Entry<K, FileEntry> next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         current = slot;
+         visited++;
+         FileEntry fe = entryAt(current);
+         // Copy the key, the slot can be reused once the entry is removed
+         byte[] keyBytes = new byte[keyLength(current)];
+         readKey(current, keyBytes);
+         return new Entry<>() {
+            private K key;
+
+            @Override
+            public K getKey() {
+               if (key == null) {
+                  key = toKey(keyBytes);
+               }
+               return key;
+            }
+
+            @Override
+            public FileEntry getValue() {
+               return fe;
+            }
+
+            @Override
+            public FileEntry setValue(FileEntry value) {
+               throw new UnsupportedOperationException();
+            }
+         };
+      }
+
+      @Override
+      public void remove() {
+         if (current < 0) {
+            throw new IllegalStateException();
+         }
+         removeSlot(current);
+         // The slot may now hold an entry moved back from a later slot
+         if (keyLength(current) != 0) {
+            visited--;
+         }
+         current = -1;
+      }
+   }
+}
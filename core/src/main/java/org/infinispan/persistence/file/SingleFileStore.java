@@ -3,7 +3,13 @@
 import static io.reactivex.rxjava3.core.Flowable.defer;
 import static org.infinispan.util.logging.Log.PERSISTENCE;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
@@ -26,9 +32,8 @@
 import java.util.Map;
 import java.util.PrimitiveIterator;
 import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -97,6 +102,11 @@
  * data loss, and data can be recomputed or re-queried from the original data
  * source.
  * <p/>
+ * Alternatively, the index can be kept off-heap with the keys in serialized form, see
+ * {@link SingleFileStoreConfiguration#offHeapIndex()}. The off-heap index is written to
+ * <tt>&lt;location&gt;/&lt;cache name&gt;.idx</tt> when the store stops, so that the next start does not
+ * have to read the whole data file.
+ * <p/>
  * This class is fully thread safe, yet allows for concurrent load / store
  * of individual cache entries.
  *
@@ -113,6 +123,7 @@
    public static final byte[] MAGIC_12_0 = new byte[]{'F', 'C', 'S', '3'};
    public static final byte[] MAGIC_12_1 = new byte[]{'F', 'C', 'S', '4'};
    public static final byte[] MAGIC_LATEST = MAGIC_12_1;
+   private static final byte[] MAGIC_INDEX = new byte[]{'F', 'C', 'I', '1'};
    private static final byte[] ZERO_INT = {0, 0, 0, 0};
    private static final int KEYLEN_POS = 4;
    /*
@@ -145,7 +156,9 @@
    private FileChannel channel;
    @GuardedBy("resizeLock")
    private Map<K, FileEntry>[] entries;
-   private SortedSet<FileEntry> freeList;
+   // The entries being read, shared by the off-heap indexes that do not keep FileEntry instances
+   private final Map<Long, FileEntry> pins = new ConcurrentHashMap<>();
+   private FreeList freeList;
    private long filePos;
    private File file;
    private float fragmentationFactor = .75f;
@@ -163,6 +176,11 @@ public static File getStoreFile(String directoryPath, String cacheName) {
       return new File(new File(directoryPath), cacheName + ".dat");
    }
 
+   static File getIndexFile(File storeFile) {
+      String name = storeFile.getName();
+      return new File(storeFile.getParentFile(), name.substring(0, name.length() - 4) + ".idx");
+   }
+
    @Override
    public CompletionStage<Void> start(InitializationContext ctx) {
       this.ctx = ctx;
@@ -181,7 +199,7 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       }
 
       entries = new Map[actualNumSegments];
-      freeList = Collections.synchronizedSortedSet(new TreeSet<>());
+      freeList = new FreeList();
 
       // Not really blocking because no other thread can access the lock during start
       blockingAddSegments(IntSets.immutableRangeSet(actualNumSegments));
@@ -203,7 +221,9 @@ private void blockingStart() {
             if (magicHeader != null) {
                migrateNonSegmented(magicHeader);
             } else {
-               rebuildIndex();
+               if (!configuration.offHeapIndex() || !loadIndex()) {
+                  rebuildIndex();
+               }
                processFreeEntries();
             }
          } else if (hasAnyComposedSegmentedFiles()) {
@@ -220,6 +240,11 @@ private void blockingStart() {
             }
          }
 
+         // The index file is only valid until the data file is modified
+         if (!readOnly) {
+            Files.deleteIfExists(getIndexFile(file).toPath());
+         }
+
          // Initialize the fragmentation factor
          fragmentationFactor = configuration.fragmentationFactor();
       } catch (PersistenceException e) {
@@ -332,11 +357,15 @@ private void blockingStop() {
       long stamp = resizeLock.writeLock();
       try {
          if (channel != null) {
+            if (configuration.offHeapIndex() && !configuration.ignoreModifications()) {
+               writeIndex();
+            }
             // reset state
             channel.close();
             channel = null;
             entries = null;
             freeList = null;
+            pins.clear();
          }
       } catch (Exception e) {
          throw new PersistenceException(e);
@@ -398,6 +427,92 @@ private void rebuildIndex() throws Exception {
       }
    }
 
+   /**
+    * Restores the in-memory index from the index file written by {@link #writeIndex()}, if it matches the data file.
+    *
+    * @return {@code true} if the index was restored, {@code false} if it must be rebuilt from the data file
+    */
+   private boolean loadIndex() {
+      File indexFile = getIndexFile(file);
+      if (!indexFile.exists())
+         return false;
+
+      try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+         byte[] magic = new byte[MAGIC_INDEX.length];
+         input.readFully(magic);
+         if (!Arrays.equals(MAGIC_INDEX, magic))
+            throw new IOException("Invalid header");
+
+         long indexedFilePos = input.readLong();
+         if (indexedFilePos != channel.size())
+            throw new IOException("The data file has been modified");
+
+         if (input.readInt() != actualNumSegments)
+            throw new IOException("The number of segments has changed");
+
+         filePos = indexedFilePos;
+         for (int segment = 0; segment < actualNumSegments; ++segment) {
+            ((OffHeapFileIndex<K>) entries[segment]).readFrom(input);
+         }
+         int freeEntries = input.readInt();
+         for (int i = 0; i < freeEntries; ++i) {
+            freeList.add(new FileEntry(input.readLong(), input.readInt()));
+         }
+         if (log.isTraceEnabled()) log.tracef("Loaded index of store %s from %s", cacheName(), indexFile);
+         return true;
+      } catch (Exception e) {
+         PERSISTENCE.ignoringSingleFileStoreIndex(indexFile.getAbsolutePath(), e);
+         for (Map<K, FileEntry> segmentEntries : entries) {
+            segmentEntries.clear();
+         }
+         freeList.clear();
+         return false;
+      }
+   }
+
+   /**
+    * Writes the in-memory index next to the data file, so that the next start does not have to scan the data file.
+    * <p/>
+    * Note: Caller must hold the {@code resizeLock} in exclusive mode.
+    */
+   @GuardedBy("resizeLock")
+   private void writeIndex() {
+      File indexFile = getIndexFile(file);
+      File tmpFile = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+      try {
+         // The data file must be durable before the index that points into it
+         channel.force(true);
+         try (FileOutputStream fileOutput = new FileOutputStream(tmpFile);
+              DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fileOutput))) {
+            output.write(MAGIC_INDEX);
+            output.writeLong(filePos);
+            output.writeInt(actualNumSegments);
+            for (int segment = 0; segment < actualNumSegments; ++segment) {
+               Map<K, FileEntry> segmentEntries = entries[segment];
+               if (segmentEntries != null) {
+                  ((OffHeapFileIndex<K>) segmentEntries).writeTo(output);
+               } else {
+                  output.writeInt(0);
+               }
+            }
+            synchronized (freeList) {
+               output.writeInt(freeList.size());
+               for (FileEntry fe : freeList) {
+                  output.writeLong(fe.offset);
+                  output.writeInt(fe.size);
+               }
+            }
+            output.flush();
+            fileOutput.getFD().sync();
+         }
+         Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+         if (log.isTraceEnabled()) log.tracef("Wrote index of store %s to %s", cacheName(), indexFile);
+      } catch (Exception e) {
+         PERSISTENCE.errorWritingSingleFileStoreIndex(indexFile.getAbsolutePath(), e);
+         tmpFile.delete();
+      }
+   }
+
    private int getSegment(Object key) {
       return segmented ? keyPartitioner.getSegment(key) : 0;
    }
@@ -833,14 +948,9 @@ private boolean blockingContainsKey(int segment, Object key) {
    @GuardedBy("resizeLock.readLock()")
    private FileEntry allocate(int len) {
       synchronized (freeList) {
-         // lookup a free entry of sufficient size
-         SortedSet<FileEntry> candidates = freeList.tailSet(new FileEntry(0, len));
-         for (Iterator<FileEntry> it = candidates.iterator(); it.hasNext(); ) {
-            FileEntry free = it.next();
-            // ignore entries that are still in use by concurrent readers
-            if (free.isLocked())
-               continue;
-
+         // lookup a free entry of sufficient size, ignoring entries that are still in use by concurrent readers
+         FileEntry free = freeList.take(len);
+         if (free != null) {
             // There's no race condition risk between locking the entry on
             // loading and checking whether it's locked (or store allocation),
             // because for the entry to be lockable, it needs to be in the
@@ -848,9 +958,6 @@ private FileEntry allocate(int len) {
             // The only way an entry can be found in the free list is if it's
             // been removed, and to remove it, lock on "entries" needs to be
             // acquired, which is also a pre-requisite for loading data.
-
-            // found one, remove from freeList
-            it.remove();
             return allocateExistingEntry(free, len);
          }
 
@@ -975,7 +1082,13 @@ private void write(int segment, MarshallableEntry<? extends K, ? extends V> mars
             log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
 
          // add the new entry to in-memory index
-         FileEntry oldEntry = segmentEntries.put(marshalledEntry.getKey(), newEntry);
+         FileEntry oldEntry;
+         if (segmentEntries instanceof OffHeapFileIndex) {
+            // Avoid marshalling the key again
+            oldEntry = ((OffHeapFileIndex<K>) segmentEntries).putSerialized(key.getBuf(), key.getOffset(), key.getLength(), newEntry);
+         } else {
+            oldEntry = segmentEntries.put(marshalledEntry.getKey(), newEntry);
+         }
 
          // if we added an entry, check if we need to evict something
          if (oldEntry == null)
@@ -1361,7 +1474,7 @@ private void processFreeEntries() {
          synchronized (freeList) {
             // Get a reverse sorted list of free entries based on file offset (bigger entries will be ahead of smaller entries)
             // This helps to work backwards with free entries at end of the file
-            List<FileEntry> l = new ArrayList<>(freeList);
+            List<FileEntry> l = freeList.toList();
             l.sort(Comparator.comparingLong(fe -> -fe.offset));
 
             truncateFile(l);
@@ -1584,7 +1697,7 @@ Map<K, FileEntry> getEntries() {
       }
    }
 
-   SortedSet<FileEntry> getFreeList() {
+   FreeList getFreeList() {
       return freeList;
    }
 
@@ -1611,6 +1724,11 @@ private void blockingAddSegments(IntSet segments) {
             if (entries[segment] != null)
                continue;
 
+            if (configuration.offHeapIndex()) {
+               entries[segment] = new OffHeapFileIndex<>(ctx.getPersistenceMarshaller(), pins);
+               continue;
+            }
+
             // Only use LinkedHashMap (LRU) for entries when cache store is bounded
             Map<K, FileEntry> entryMap = configuration.maxEntries() > 0 ?
                   new LinkedHashMap<>(16, 0.75f, true) :
@@ -1674,7 +1792,7 @@ private void blockingRemoveSegments(IntSet segments) {
     * <li>{@link #metadataLen} bytes: serialized key</li>
     * </ul>
     */
-   private static class FileEntry implements Comparable<FileEntry> {
+   static class FileEntry implements Comparable<FileEntry> {
       /**
        * File offset of this block.
        */
@@ -1715,6 +1833,11 @@ private static class FileEntry implements Comparable<FileEntry> {
        */
       transient int readers = 0;
 
+      /**
+       * The entries being read by offset, when the index does not keep the instances itself, {@code null} otherwise.
+       */
+      private final Map<Long, FileEntry> pins;
+
       FileEntry(long offset, ByteBuffer buf) {
          this.offset = offset;
          this.size = buf.getInt();
@@ -1723,6 +1846,7 @@ private static class FileEntry implements Comparable<FileEntry> {
          this.metadataLen = buf.getInt();
          this.internalMetadataLen = buf.getInt();
          this.expiryTime = buf.getLong();
+         this.pins = null;
       }
 
       FileEntry(long offset, int size) {
@@ -1730,6 +1854,11 @@ private static class FileEntry implements Comparable<FileEntry> {
       }
 
       FileEntry(long offset, int size, int keyLen, int dataLen, int metadataLen, int internalMetadataLen, long expiryTime) {
+         this(offset, size, keyLen, dataLen, metadataLen, internalMetadataLen, expiryTime, null);
+      }
+
+      FileEntry(long offset, int size, int keyLen, int dataLen, int metadataLen, int internalMetadataLen, long expiryTime,
+                Map<Long, FileEntry> pins) {
          this.offset = offset;
          this.size = size;
          this.keyLen = keyLen;
@@ -1737,6 +1866,7 @@ private static class FileEntry implements Comparable<FileEntry> {
          this.metadataLen = metadataLen;
          this.internalMetadataLen = internalMetadataLen;
          this.expiryTime = expiryTime;
+         this.pins = pins;
       }
 
       synchronized boolean isLocked() {
@@ -1744,13 +1874,17 @@ synchronized boolean isLocked() {
       }
 
       synchronized void lock() {
-         readers++;
+         if (readers++ == 0 && pins != null)
+            pins.put(offset, this);
       }
 
       synchronized void unlock() {
          readers--;
-         if (readers == 0)
+         if (readers == 0) {
+            if (pins != null)
+               pins.remove(offset, this);
             notifyAll();
+         }
       }
 
       synchronized void waitUnlocked() {
@@ -2,6 +2,7 @@
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -12,8 +13,13 @@
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.io.ByteBufferImpl;
@@ -24,6 +30,9 @@
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.reactive.RxJavaInterop;
 import org.infinispan.util.concurrent.AggregateCompletionStage;
 import org.infinispan.util.concurrent.CompletionStages;
@@ -41,10 +50,15 @@
  * Component keeping the data about log file usage - as soon as entries from some file are overwritten so that the file
  * becomes cluttered with old records, the valid records are moved to another file and the old ones are dropped.
  * Expired records are moved as tombstones without values (records of entry removal).
+ * <p>
+ * Files are compacted by a configurable number of workers, each writing to its own compacted file. Scheduled files
+ * wait in a single queue ordered by the ratio of free space, so the files with the most garbage are compacted first,
+ * and the bytes read by all workers can be limited to a rate per second.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
-class Compactor implements Consumer<Object> {
+@MBean(objectName = "SoftIndexFileStoreCompactor", description = "Compaction of the soft index file store data files")
+public class Compactor {
    private static final Log log = LogFactory.getLog(Compactor.class, Log.class);
 
    private final NonBlockingManager nonBlockingManager;
@@ -56,35 +70,40 @@ class Compactor implements Consumer<Object> {
    private final KeyPartitioner keyPartitioner;
    private final int maxFileSize;
    private final double compactionThreshold;
+   private final int workerCount;
+   private final long rateLimit;
    private final Executor blockingExecutor;
 
-   private FlowableProcessor<Object> processor;
+   // Files scheduled for compaction, each one has a COMPACT_PILL sent to one of the workers
+   private final PriorityBlockingQueue<CompactionRequest> pending = new PriorityBlockingQueue<>(11,
+         Comparator.comparingDouble(CompactionRequest::garbageRatio).reversed());
+   private final AtomicInteger nextWorker = new AtomicInteger();
+   // Time in nanoseconds at which the rate limit allows the next read
+   private final AtomicLong nextPermit = new AtomicLong();
+
+   private final LongAdder compactedFiles = new LongAdder();
+   private final LongAdder compactedBytes = new LongAdder();
+   private final LongAdder compactionNanos = new LongAdder();
+   private final LongAdder writtenBytes = new LongAdder();
+   private final LongAdder appendedBytes = new LongAdder();
+
+   // This is never null after start
+   private volatile CompactionWorker[] workers;
 
    private Index index;
    // as processing single scheduled compaction takes a lot of time, we don't use the queue to signalize
    private final AtomicBoolean clearSignal = new AtomicBoolean();
    private volatile boolean terminateSignal = false;
-   // variable used to denote running (not null but not complete) and stopped (not null but complete)
-   // This variable is never to be null
-   private volatile CompletableFuture<?> stopped = CompletableFutures.completedNull();
-
-   private CompletableFuture<Void> paused = CompletableFutures.completedNull();
 
    // Special object used solely for the purpose of resuming the compactor after compacting a file and waiting for
    // all indices to be updated
    private static final Object RESUME_PILL = new Object();
-
-   // This buffer is used by the compactor thread to avoid allocating buffers per entry written that are smaller
-   // than the header size
-   private final java.nio.ByteBuffer REUSED_BUFFER = java.nio.ByteBuffer.allocate(EntryHeader.HEADER_SIZE_11_0);
-
-   FileProvider.Log logFile = null;
-   long nextExpirationTime = -1;
-   int currentOffset = 0;
+   // Special object telling a worker to compact the file with the most garbage from the pending queue
+   private static final Object COMPACT_PILL = new Object();
 
    public Compactor(NonBlockingManager nonBlockingManager, FileProvider fileProvider, TemporaryTable temporaryTable,
          Marshaller marshaller, TimeService timeService, KeyPartitioner keyPartitioner, int maxFileSize,
-         double compactionThreshold, Executor blockingExecutor) {
+         double compactionThreshold, int workerCount, long rateLimit, Executor blockingExecutor) {
       this.nonBlockingManager = nonBlockingManager;
       this.fileProvider = fileProvider;
       this.temporaryTable = temporaryTable;
@@ -93,6 +112,8 @@ public Compactor(NonBlockingManager nonBlockingManager, FileProvider fileProvide
       this.keyPartitioner = keyPartitioner;
       this.maxFileSize = maxFileSize;
       this.compactionThreshold = compactionThreshold;
+      this.workerCount = workerCount;
+      this.rateLimit = rateLimit;
       this.blockingExecutor = blockingExecutor;
    }
 
@@ -123,6 +144,13 @@ public void completeFile(int file, int currentSize, long nextExpirationTime, boo
       }
    }
 
+   /**
+    * Records bytes written by the {@link LogAppender}, used to compute the write amplification of compaction.
+    */
+   void recordAppended(int bytes) {
+      appendedBytes.add(bytes);
+   }
+
    ConcurrentMap<Integer, Stats> getFileStats() {
       return fileStats;
    }
@@ -152,23 +180,17 @@ boolean addFreeFile(int file, int expectedSize, int freeSize, long expirationTim
    }
 
    public void start() {
-      stopped = new CompletableFuture<>();
-
-      processor = UnicastProcessor.create().toSerialized();
       Scheduler scheduler = Schedulers.from(blockingExecutor);
-      processor.observeOn(scheduler)
-            .delay(obj -> {
-               // These types are special and should allow processing always
-               if (obj == RESUME_PILL || obj instanceof CompletableFuture) {
-                  return Flowable.empty();
-               }
-               return RxJavaInterop.voidCompletionStageToFlowable(paused);
-            })
-            .subscribe(this, error -> {
-               log.compactorEncounteredException(error, -1);
-               stopped.completeExceptionally(error);
-            }, () -> stopped.complete(null));
+      CompactionWorker[] workers = new CompactionWorker[workerCount];
+      for (int i = 0; i < workers.length; ++i) {
+         workers[i] = new CompactionWorker(i, scheduler);
+      }
+      this.workers = workers;
 
+      // Requests scheduled before the workers were created have not been signalled yet
+      for (int i = pending.size(); i > 0; --i) {
+         signalWorker();
+      }
       fileStats.forEach((file, stats) -> {
          if (stats.readyToBeScheduled(compactionThreshold, stats.getFree())) {
             schedule(file, stats);
@@ -187,7 +209,8 @@ public interface CompactionExpirationSubscriber {
    }
 
    public void performExpirationCompaction(CompactionExpirationSubscriber subscriber) {
-      processor.onNext(subscriber);
+      // Expiration goes through all the files, other workers won't pick any file it is currently processing
+      workers[0].processor.onNext(subscriber);
    }
 
    // Present for testing only - note is still asynchronous if underlying executor is
@@ -196,8 +219,9 @@ CompletionStage<Void> forceCompactionForAllNonLogFiles() {
       for (Map.Entry<Integer, Stats> stats : fileStats.entrySet()) {
          int fileId = stats.getKey();
          if (!fileProvider.isLogFile(fileId) && !stats.getValue().markedForDeletion && stats.getValue().setScheduled()) {
-            CompactionRequest compactionRequest = new CompactionRequest(fileId);
-            processor.onNext(compactionRequest);
+            CompactionRequest compactionRequest = new CompactionRequest(fileId, stats.getValue().garbageRatio());
+            // Forced requests skip the pending queue and are not delayed by a paused worker
+            nextWorker().processor.onNext(compactionRequest);
             aggregateCompletionStage.dependsOn(compactionRequest);
          }
       }
@@ -242,8 +266,8 @@ private void schedule(int file, Stats stats) {
       assert stats.isScheduled();
       if (!terminateSignal) {
          log.debugf("Scheduling file %d for compaction: %d/%d free", file, stats.free.get(), stats.total);
-         CompactionRequest request = new CompactionRequest(file);
-         processor.onNext(request);
+         CompactionRequest request = new CompactionRequest(file, stats.garbageRatio());
+         submit(request);
          request.whenComplete((__, t) -> {
             if (t != null) {
                log.compactorEncounteredException(t, file);
@@ -254,6 +278,38 @@ private void schedule(int file, Stats stats) {
       }
    }
 
+   private void submit(CompactionRequest request) {
+      pending.add(request);
+      // If the workers are not created yet, start will signal them
+      if (workers != null) {
+         signalWorker();
+      }
+   }
+
+   private void signalWorker() {
+      nextWorker().processor.onNext(COMPACT_PILL);
+   }
+
+   private CompactionWorker nextWorker() {
+      CompactionWorker[] workers = this.workers;
+      return workers[(nextWorker.getAndIncrement() & Integer.MAX_VALUE) % workers.length];
+   }
+
+   /**
+    * Blocks the calling compaction worker until reading the given number of bytes is allowed by the rate limit.
+    */
+   private void throttle(int bytes) {
+      if (rateLimit <= 0) {
+         return;
+      }
+      long cost = bytes * TimeUnit.SECONDS.toNanos(1) / rateLimit;
+      long now = System.nanoTime();
+      long start = Math.max(nextPermit.getAndAccumulate(cost, (permit, c) -> Math.max(permit, now) + c), now);
+      if (start > now) {
+         LockSupport.parkNanos(start - now);
+      }
+   }
+
    /**
     * Immediately sends a request to pause the compactor. The returned stage will complete when the
     * compactor is actually paused. To resume the compactor the {@link #resumeAfterClear()} method
@@ -266,11 +322,18 @@ public CompletionStage<Void> clearAndPause() {
          throw new IllegalStateException("Clear signal was already set for compactor, clear cannot be invoked " +
                "concurrently with another!");
       }
-      ClearFuture clearFuture = new ClearFuture();
-      // Make sure to do this before submitting to processor this is done in the blocking thread
-      clearFuture.whenComplete((ignore, t) -> fileStats.clear());
-      processor.onNext(clearFuture);
-      return clearFuture;
+      AggregateCompletionStage<Void> aggregateCompletionStage = CompletionStages.aggregateCompletionStage();
+      ClearFuture[] clearFutures = new ClearFuture[workers.length];
+      for (int i = 0; i < clearFutures.length; ++i) {
+         clearFutures[i] = new ClearFuture();
+         aggregateCompletionStage.dependsOn(clearFutures[i]);
+      }
+      // Make sure to do this before submitting to the workers so it is done in the blocking thread
+      CompletionStage<Void> stage = aggregateCompletionStage.freeze().whenComplete((ignore, t) -> fileStats.clear());
+      for (int i = 0; i < clearFutures.length; ++i) {
+         workers[i].processor.onNext(clearFutures[i]);
+      }
+      return stage;
    }
 
    private static class ClearFuture extends CompletableFuture<Void> {
@@ -287,36 +350,96 @@ public void resumeAfterClear() {
       }
    }
 
-   private void resumeAfterPause() {
-      processor.onNext(RESUME_PILL);
-   }
-
    public void stopOperations() {
       // This will short circuit any compactor call, so it can only process the entry it may be on currently
       terminateSignal = true;
-      processor.onComplete();
-      // The stopped CompletableFuture is completed in onComplete or onError callback for the processor, so this will
-      // return after all compaction calls are completed
-      stopped.join();
-      if (logFile != null) {
-         Util.close(logFile);
-         // Complete the file, this file should not be compacted
-         completeFile(logFile.fileId, currentOffset, nextExpirationTime, false);
-         logFile = null;
+      for (CompactionWorker worker : workers) {
+         worker.processor.onComplete();
+      }
+      for (CompactionWorker worker : workers) {
+         // The stopped CompletableFuture is completed in onComplete or onError callback for the processor, so this will
+         // return after all compaction calls are completed
+         worker.stopped.join();
+         if (worker.logFile != null) {
+            Util.close(worker.logFile);
+            // Complete the file, this file should not be compacted
+            completeFile(worker.logFile.fileId, worker.currentOffset, worker.nextExpirationTime, false);
+            worker.logFile = null;
+         }
       }
    }
 
+   @ManagedAttribute(
+         description = "Number of data files compacted",
+         displayName = "Compacted files"
+   )
+   public long getCompactedFiles() {
+      return compactedFiles.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of bytes read from data files being compacted",
+         displayName = "Compacted bytes",
+         units = Units.BYTES
+   )
+   public long getCompactedBytes() {
+      return compactedBytes.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of bytes written to compacted files",
+         displayName = "Compaction written bytes",
+         units = Units.BYTES
+   )
+   public long getCompactionWrittenBytes() {
+      return writtenBytes.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Average number of bytes compacted per second while compacting",
+         displayName = "Compaction throughput",
+         units = Units.PER_SECOND
+   )
+   public long getCompactionThroughput() {
+      long nanos = compactionNanos.sum();
+      return nanos > 0 ? (long) (compactedBytes.sum() * (double) TimeUnit.SECONDS.toNanos(1) / nanos) : 0;
+   }
+
+   @ManagedAttribute(
+         description = "Number of data files waiting to be compacted",
+         displayName = "Compaction backlog"
+   )
+   public int getCompactionBacklog() {
+      return pending.size();
+   }
+
+   @ManagedAttribute(
+         description = "Bytes written to data files by writes and compaction divided by the bytes written by writes",
+         displayName = "Write amplification"
+   )
+   public double getWriteAmplification() {
+      long appended = appendedBytes.sum();
+      return appended > 0 ? (appended + writtenBytes.sum()) / (double) appended : 0;
+   }
+
    private static class CompactionRequest extends CompletableFuture<Void> {
       private final int fileId;
+      private final double garbageRatio;
 
-      private CompactionRequest(int fileId) {
+      private CompactionRequest(int fileId, double garbageRatio) {
          this.fileId = fileId;
+         this.garbageRatio = garbageRatio;
+      }
+
+      double garbageRatio() {
+         return garbageRatio;
       }
 
       @Override
       public String toString() {
          return "CompactionRequest{" +
                "fileId=" + fileId +
+               ", garbageRatio=" + garbageRatio +
                '}';
       }
    }
@@ -330,388 +453,463 @@ void handleIgnoredElement(Object o) {
       }
    }
 
-   @Override
-   public void accept(Object o) throws Throwable {
-      if (terminateSignal) {
-         log.tracef("Compactor already terminated, ignoring request " + o);
-         // Just ignore if terminated
-         handleIgnoredElement(o);
-         return;
+   /**
+    * Compacts files one at a time into its own log file. Requests for a worker are processed serially and the worker
+    * pauses itself until the index has applied all moves of the file it compacted: the {@link #COMPACT_PILL}s it
+    * receives meanwhile wait. The log files of a worker are only completed, and so can only be scheduled for compaction
+    * by any worker, once the index has applied all the moves into them.
+    */
+   private class CompactionWorker implements Consumer<Object> {
+      private final int id;
+      private final FlowableProcessor<Object> processor;
+      // variable used to denote running (not null but not complete) and stopped (not null but complete)
+      // This variable is never to be null
+      private final CompletableFuture<?> stopped = new CompletableFuture<>();
+
+      private CompletableFuture<Void> paused = CompletableFutures.completedNull();
+
+      // This buffer is used by the compactor thread to avoid allocating buffers per entry written that are smaller
+      // than the header size
+      private final java.nio.ByteBuffer REUSED_BUFFER = java.nio.ByteBuffer.allocate(EntryHeader.HEADER_SIZE_11_0);
+
+      FileProvider.Log logFile = null;
+      // Moves into the current log file which the index may not have applied yet
+      AggregateCompletionStage<Void> logFileMoves;
+      long nextExpirationTime = -1;
+      int currentOffset = 0;
+
+      CompactionWorker(int id, Scheduler scheduler) {
+         this.id = id;
+         this.processor = UnicastProcessor.create().toSerialized();
+         processor.observeOn(scheduler)
+               .delay(obj -> {
+                  // These types are special and should allow processing always
+                  if (obj == RESUME_PILL || obj instanceof CompletableFuture) {
+                     return Flowable.empty();
+                  }
+                  return RxJavaInterop.voidCompletionStageToFlowable(paused);
+               })
+               .subscribe(this, error -> {
+                  log.compactorEncounteredException(error, -1);
+                  stopped.completeExceptionally(error);
+               }, () -> stopped.complete(null));
       }
-      if (o == RESUME_PILL) {
-         log.tracef("Resuming compactor");
-         // This completion will push all the other tasks that have been delayed in this method call
-         // Note this must be completed in the context of the compactor thread
-         paused.complete(null);
-         return;
+
+      private void resumeAfterPause() {
+         processor.onNext(RESUME_PILL);
       }
-      // Note that this accept is only invoked from a single thread at a time so we don't have to worry about
-      // any other threads decrementing clear signal. However, another thread can increment, that is okay for us
-      if (clearSignal.get()) {
-         // We ignore any entries since it was last cleared
-         if (o instanceof ClearFuture) {
-            log.tracef("Compactor ignoring all future compactions until resumed");
-
-            if (logFile != null) {
-               logFile.close();
-               logFile = null;
-               nextExpirationTime = -1;
-            }
 
-            nonBlockingManager.complete((CompletableFuture<?>) o, null);
-         } else {
-            log.tracef("Ignoring compaction request for %s as compactor is being cleared", o);
+      @Override
+      public void accept(Object o) throws Throwable {
+         if (o == COMPACT_PILL) {
+            // Any worker may take the request, the one with the most garbage is always compacted first
+            o = pending.poll();
+            if (o == null) {
+               return;
+            }
+         }
+         if (terminateSignal) {
+            log.tracef("Compactor already terminated, ignoring request " + o);
+            // Just ignore if terminated
             handleIgnoredElement(o);
+            return;
          }
-         return;
-      }
-
-      if (o instanceof CompactionExpirationSubscriber) {
-         CompactionExpirationSubscriber subscriber = (CompactionExpirationSubscriber) o;
-         try {
-            // We have to copy the file ids into its own collection because it can pickup the compactor files sometimes
-            // causing extra unneeded churn in some cases
-            Set<Integer> currentFiles = new HashSet<>();
-            try (CloseableIterator<Integer> iter = fileProvider.getFileIterator()) {
-               while (iter.hasNext()) {
-                  currentFiles.add(iter.next());
+         if (o == RESUME_PILL) {
+            log.tracef("Resuming compactor worker %d", id);
+            // This completion will push all the other tasks that have been delayed in this method call
+            // Note this must be completed in the context of the compactor thread
+            paused.complete(null);
+            return;
+         }
+         // Note that this accept is only invoked from a single thread at a time so we don't have to worry about
+         // any other threads decrementing clear signal. However, another thread can increment, that is okay for us
+         if (clearSignal.get()) {
+            // We ignore any entries since it was last cleared
+            if (o instanceof ClearFuture) {
+               log.tracef("Compactor worker %d ignoring all future compactions until resumed", id);
+
+               if (logFile != null) {
+                  logFile.close();
+                  logFile = null;
+                  logFileMoves = null;
+                  nextExpirationTime = -1;
                }
+
+               nonBlockingManager.complete((CompletableFuture<?>) o, null);
+            } else {
+               log.tracef("Ignoring compaction request for %s as compactor is being cleared", o);
+               handleIgnoredElement(o);
             }
-            for (int fileId : currentFiles) {
-               boolean isLogFile = fileProvider.isLogFile(fileId);
-               if (isLogFile) {
-                  // Force log file to be in the stats
-                  free(fileId, 0);
+            return;
+         }
+
+         if (o instanceof CompactionExpirationSubscriber) {
+            CompactionExpirationSubscriber subscriber = (CompactionExpirationSubscriber) o;
+            try {
+               // We have to copy the file ids into its own collection because it can pickup the compactor files sometimes
+               // causing extra unneeded churn in some cases
+               Set<Integer> currentFiles = new HashSet<>();
+               try (CloseableIterator<Integer> iter = fileProvider.getFileIterator()) {
+                  while (iter.hasNext()) {
+                     currentFiles.add(iter.next());
+                  }
                }
-               Stats stats = fileStats.get(fileId);
-               long currentTimeMilliseconds = timeService.wallClockTime();
-               if (stats != null) {
-                  // Don't check for expired entries in any files that are marked for deletion or don't have entries
-                  // that can expire yet
-                  // Note that log files do not set the expiration time, so it is always -1 in that case, but we still
-                  // want to check just in case some files are expired there.
-                  // Note that we when compacting an expired entry from the log file we first write to the compacted
-                  // file and then notify the subscriber. Assuming the subscriber then invokes remove expired it
-                  // will actually cause two writes for the same expired entry. This is required though in case if
-                  // the entry is not removed from the listener as we don't want to keep returning the same entry
-                  // to the listener that it has expired.
-                  if (stats.markedForDeletion() || (!isLogFile && stats.nextExpirationTime == -1) || stats.nextExpirationTime > currentTimeMilliseconds) {
-                     log.tracef("Skipping expiration for file %d since it is marked for deletion: %s or its expiration time %s is not yet",
-                           (Object) fileId, stats.markedForDeletion(), stats.nextExpirationTime);
-                     continue;
+               for (int fileId : currentFiles) {
+                  boolean isLogFile = fileProvider.isLogFile(fileId);
+                  if (isLogFile) {
+                     // Force log file to be in the stats
+                     free(fileId, 0);
                   }
-                  // Make sure we don't start another compaction for this file while performing expiration
-                  if (stats.setScheduled()) {
-                     compactSingleFile(fileId, isLogFile, subscriber, currentTimeMilliseconds);
-                     if (isLogFile) {
-                        // Unschedule the compaction for log file as we can't remove it
-                        stats.scheduled.set(false);
+                  Stats stats = fileStats.get(fileId);
+                  long currentTimeMilliseconds = timeService.wallClockTime();
+                  if (stats != null) {
+                     // Don't check for expired entries in any files that are marked for deletion or don't have entries
+                     // that can expire yet
+                     // Note that log files do not set the expiration time, so it is always -1 in that case, but we still
+                     // want to check just in case some files are expired there.
+                     // Note that we when compacting an expired entry from the log file we first write to the compacted
+                     // file and then notify the subscriber. Assuming the subscriber then invokes remove expired it
+                     // will actually cause two writes for the same expired entry. This is required though in case if
+                     // the entry is not removed from the listener as we don't want to keep returning the same entry
+                     // to the listener that it has expired.
+                     if (stats.markedForDeletion() || (!isLogFile && stats.nextExpirationTime == -1) || stats.nextExpirationTime > currentTimeMilliseconds) {
+                        log.tracef("Skipping expiration for file %d since it is marked for deletion: %s or its expiration time %s is not yet",
+                              (Object) fileId, stats.markedForDeletion(), stats.nextExpirationTime);
+                        continue;
                      }
+                     // Make sure we don't start another compaction for this file while performing expiration
+                     if (stats.setScheduled()) {
+                        compactSingleFile(fileId, isLogFile, subscriber, currentTimeMilliseconds);
+                        if (isLogFile) {
+                           // Unschedule the compaction for log file as we can't remove it
+                           stats.scheduled.set(false);
+                        }
+                     }
+                  } else {
+                     log.tracef("Skipping expiration for file %d as it is not included in fileStats", fileId);
                   }
-               } else {
-                  log.tracef("Skipping expiration for file %d as it is not included in fileStats", fileId);
                }
+               subscriber.onComplete();
+            } catch (Throwable t) {
+               subscriber.onError(t);
             }
-            subscriber.onComplete();
-         } catch (Throwable t) {
-            subscriber.onError(t);
+            return;
          }
-         return;
-      }
 
-      CompactionRequest request = (CompactionRequest) o;
-      try {
-         // Any other type submitted has to be a positive integer
-         Stats stats = fileStats.get(request.fileId);
+         CompactionRequest request = (CompactionRequest) o;
+         try {
+            // Any other type submitted has to be a positive integer
+            Stats stats = fileStats.get(request.fileId);
 
-         // Double check that the file wasn't removed. If stats are null that means the file was previously removed
-         // and also make sure the file wasn't marked for deletion, but hasn't yet
-         if (stats != null && !stats.markedForDeletion()) {
-            compactSingleFile(request.fileId, false, null, timeService.wallClockTime());
+            // Double check that the file wasn't removed. If stats are null that means the file was previously removed
+            // and also make sure the file wasn't marked for deletion, but hasn't yet
+            if (stats != null && !stats.markedForDeletion()) {
+               compactSingleFile(request.fileId, false, null, timeService.wallClockTime());
+            }
+            request.complete(null);
+         } catch (Throwable t) {
+            log.trace("Completing compaction for file: " + request.fileId + " due to exception!", t);
+            request.completeExceptionally(t);
          }
-         request.complete(null);
-      } catch (Throwable t) {
-         log.trace("Completing compaction for file: " + request.fileId + " due to exception!", t);
-         request.completeExceptionally(t);
       }
-   }
 
-   /**
-    * Compacts a single file into the current log file. This method has two modes of operation based on if the file
-    * is a log file or not. If it is a log file non expired entries are ignored and only expired entries are "updated"
-    * to be deleted in the new log file and expiration listener is notified. If it is not a log file all entries are
-    * moved to the new log file and the current file is deleted afterwards. If an expired entry is found during compaction
-    * of a non log file the expiration listener is notified and the entry is not moved, however if no expiration listener
-    * is provided the expired entry is moved to the new file as is still expired.
-    * @param scheduledFile the file identifier to compact
-    * @param isLogFile     whether the provided file as a log file, which means we only notify and compact expired
-    *                      entries (ignore others)
-    * @param subscriber    the subscriber that is notified of various entries being expired
-    * @throws IOException            thrown if there was an issue with reading or writing to a file
-    * @throws ClassNotFoundException thrown if there is an issue deserializing the key for an entry
-    */
-   private void compactSingleFile(int scheduledFile, boolean isLogFile, CompactionExpirationSubscriber subscriber,
-         long currentTimeMilliseconds) throws IOException, ClassNotFoundException {
-      assert scheduledFile >= 0;
-      if (subscriber == null) {
-         log.tracef("Compacting file %d isLogFile %b", scheduledFile, Boolean.valueOf(isLogFile));
-      } else {
-         log.tracef("Removing expired entries from file %d isLogFile %b", scheduledFile, Boolean.valueOf(isLogFile));
-      }
-      int scheduledOffset = 0;
-      // Store expired entries to remove after we update the index
-      List<EntryPosition> expiredTemp = subscriber != null ? new ArrayList<>() : null;
-      List<EntryRecord> expiredIndex = subscriber != null ? new ArrayList<>() : null;
-      FileProvider.Handle handle = fileProvider.getFile(scheduledFile);
-      if (handle == null) {
-         throw new IllegalStateException("Compactor should not get deleted file for compaction!");
-      }
-      try {
-         AggregateCompletionStage<Void> aggregateCompletionStage = CompletionStages.aggregateCompletionStage();
-         while (!clearSignal.get() && !terminateSignal) {
-            EntryHeader header = EntryRecord.readEntryHeader(handle, scheduledOffset);
-            if (header == null) {
-               break;
-            }
-            byte[] serializedKey = EntryRecord.readKey(handle, header, scheduledOffset);
-            if (serializedKey == null) {
-               throw new IllegalStateException("End of file reached when reading key on "
-                     + handle.getFileId() + ":" + scheduledOffset);
-            }
-            Object key = marshaller.objectFromByteBuffer(serializedKey);
-            int segment = keyPartitioner.getSegment(key);
-
-            int valueLength = header.valueLength();
-            int indexedOffset = valueLength > 0 ? scheduledOffset : ~scheduledOffset;
-            // Whether to drop the entire index (this cannot be true if truncate is false)
-            // We drop all entries by default unless it is a log file as we can't drop any of those since we may
-            // try to compact a log file multiple times, note modifications to drop variable below should only be to set
-            // it to false
-            int prevFile = -1;
-            int prevOffset = -1;
-            boolean drop = !isLogFile;
-            // Whether to truncate the value
-            boolean truncate = false;
-            EntryPosition entry = temporaryTable.get(segment, key);
-            if (entry != null) {
-               synchronized (entry) {
-                  if (log.isTraceEnabled()) {
-                     log.tracef("Key for %d:%d was found in temporary table on %d:%d",
-                           scheduledFile, scheduledOffset, entry.file, entry.offset);
+      /**
+       * Completes the current log file once the index has applied all the moves into it. Until then the file cannot be
+       * scheduled, as compacting it would read entries which the index does not point to yet.
+       */
+      private void completeLogFile() {
+         int fileId = logFile.fileId;
+         int size = currentOffset;
+         long expirationTime = nextExpirationTime;
+         logFileMoves.freeze().whenComplete((ignore, t) -> completeFile(fileId, size, expirationTime));
+         logFileMoves = null;
+         nextExpirationTime = -1;
+      }
+
+      /**
+       * Compacts a single file into the current log file. This method has two modes of operation based on if the file
+       * is a log file or not. If it is a log file non expired entries are ignored and only expired entries are "updated"
+       * to be deleted in the new log file and expiration listener is notified. If it is not a log file all entries are
+       * moved to the new log file and the current file is deleted afterwards. If an expired entry is found during compaction
+       * of a non log file the expiration listener is notified and the entry is not moved, however if no expiration listener
+       * is provided the expired entry is moved to the new file as is still expired.
+       * @param scheduledFile the file identifier to compact
+       * @param isLogFile     whether the provided file as a log file, which means we only notify and compact expired
+       *                      entries (ignore others)
+       * @param subscriber    the subscriber that is notified of various entries being expired
+       * @throws IOException            thrown if there was an issue with reading or writing to a file
+       * @throws ClassNotFoundException thrown if there is an issue deserializing the key for an entry
+       */
+      private void compactSingleFile(int scheduledFile, boolean isLogFile, CompactionExpirationSubscriber subscriber,
+            long currentTimeMilliseconds) throws IOException, ClassNotFoundException {
+         assert scheduledFile >= 0;
+         if (subscriber == null) {
+            log.tracef("Compacting file %d isLogFile %b", scheduledFile, Boolean.valueOf(isLogFile));
+         } else {
+            log.tracef("Removing expired entries from file %d isLogFile %b", scheduledFile, Boolean.valueOf(isLogFile));
+         }
+         int scheduledOffset = 0;
+         long startNanos = System.nanoTime();
+         // Store expired entries to remove after we update the index
+         List<EntryPosition> expiredTemp = subscriber != null ? new ArrayList<>() : null;
+         List<EntryRecord> expiredIndex = subscriber != null ? new ArrayList<>() : null;
+         FileProvider.Handle handle = fileProvider.getFile(scheduledFile);
+         if (handle == null) {
+            throw new IllegalStateException("Compactor should not get deleted file for compaction!");
+         }
+         try {
+            AggregateCompletionStage<Void> aggregateCompletionStage = CompletionStages.aggregateCompletionStage();
+            while (!clearSignal.get() && !terminateSignal) {
+               EntryHeader header = EntryRecord.readEntryHeader(handle, scheduledOffset);
+               if (header == null) {
+                  break;
+               }
+               throttle(header.totalLength());
+               compactedBytes.add(header.totalLength());
+               byte[] serializedKey = EntryRecord.readKey(handle, header, scheduledOffset);
+               if (serializedKey == null) {
+                  throw new IllegalStateException("End of file reached when reading key on "
+                        + handle.getFileId() + ":" + scheduledOffset);
+               }
+               Object key = marshaller.objectFromByteBuffer(serializedKey);
+               int segment = keyPartitioner.getSegment(key);
+
+               int valueLength = header.valueLength();
+               int indexedOffset = valueLength > 0 ? scheduledOffset : ~scheduledOffset;
+               // Whether to drop the entire index (this cannot be true if truncate is false)
+               // We drop all entries by default unless it is a log file as we can't drop any of those since we may
+               // try to compact a log file multiple times, note modifications to drop variable below should only be to set
+               // it to false
+               int prevFile = -1;
+               int prevOffset = -1;
+               boolean drop = !isLogFile;
+               // Whether to truncate the value
+               boolean truncate = false;
+               EntryPosition entry = temporaryTable.get(segment, key);
+               if (entry != null) {
+                  synchronized (entry) {
+                     if (log.isTraceEnabled()) {
+                        log.tracef("Key for %d:%d was found in temporary table on %d:%d",
+                              scheduledFile, scheduledOffset, entry.file, entry.offset);
+                     }
+                     if (entry.file == scheduledFile && entry.offset == indexedOffset) {
+                        long entryExpiryTime = header.expiryTime();
+                        // It's quite unlikely that we would compact a record that is not indexed yet,
+                        // but let's handle that
+                        if (entryExpiryTime >= 0 && entryExpiryTime <= currentTimeMilliseconds) {
+                           // We can only truncate expired entries if this was compacted with purge expire and this entry
+                           // isn't a removed marker
+                           if (expiredTemp != null && entry.offset >= 0) {
+                              truncate = true;
+                              expiredTemp.add(entry);
+                           }
+                        } else if (isLogFile) {
+                           // Non expired entry in a log file, just skip it
+                           scheduledOffset += header.totalLength();
+                           continue;
+                        }
+                     } else if (entry.file == scheduledFile && entry.offset == ~scheduledOffset) {
+                        // The temporary table doesn't know how many entries we have for a key, so we shouldn't truncate
+                        // or drop
+                        log.tracef("Key for %d:%d ignored as it was expired but was in temporary table");
+                        scheduledOffset += header.totalLength();
+                        continue;
+                     } else {
+                        truncate = true;
+                     }
                   }
-                  if (entry.file == scheduledFile && entry.offset == indexedOffset) {
+                  // When we have found the entry in temporary table, it's possible that the delete operation
+                  // (that was recorded in temporary table) will arrive to index after DROPPED - in that case
+                  // we could remove the entry and delete would not find it
+                  drop = false;
+               } else {
+                  log.tracef("Loading from index for key %s", key);
+                  EntryInfo info = index.getInfo(key, segment, serializedKey);
+                  Objects.requireNonNull(info, "No index info found for key: " + key);
+                  if (info.numRecords <= 0) {
+                     throw new IllegalArgumentException("Number of records " + info.numRecords + " for index of key " + key + " should be more than zero!");
+                  }
+                  if (info.file == scheduledFile && info.offset == scheduledOffset) {
+                     assert header.valueLength() > 0;
                      long entryExpiryTime = header.expiryTime();
-                     // It's quite unlikely that we would compact a record that is not indexed yet,
-                     // but let's handle that
+                     // live record with data
                      if (entryExpiryTime >= 0 && entryExpiryTime <= currentTimeMilliseconds) {
-                        // We can only truncate expired entries if this was compacted with purge expire and this entry
-                        // isn't a removed marker
-                        if (expiredTemp != null && entry.offset >= 0) {
+                        // We can only truncate expired entries if this was compacted with purge expire
+                        if (expiredIndex != null) {
+                           EntryRecord record = index.getRecordEvenIfExpired(key, segment, serializedKey);
                            truncate = true;
-                           expiredTemp.add(entry);
+                           expiredIndex.add(record);
+                           // If there are more entries we cannot drop the index as we need a tombstone
+                           if (info.numRecords > 1) {
+                              drop = false;
+                           }
+                        } else {
+                           // We can't drop an expired entry without notifying, so we write it to the new compacted file
+                           drop = false;
                         }
                      } else if (isLogFile) {
                         // Non expired entry in a log file, just skip it
                         scheduledOffset += header.totalLength();
                         continue;
-                     }
-                  } else if (entry.file == scheduledFile && entry.offset == ~scheduledOffset) {
-                     // The temporary table doesn't know how many entries we have for a key, so we shouldn't truncate
-                     // or drop
-                     log.tracef("Key for %d:%d ignored as it was expired but was in temporary table");
-                     scheduledOffset += header.totalLength();
-                     continue;
-                  } else {
-                     truncate = true;
-                  }
-               }
-               // When we have found the entry in temporary table, it's possible that the delete operation
-               // (that was recorded in temporary table) will arrive to index after DROPPED - in that case
-               // we could remove the entry and delete would not find it
-               drop = false;
-            } else {
-               log.tracef("Loading from index for key %s", key);
-               EntryInfo info = index.getInfo(key, segment, serializedKey);
-               Objects.requireNonNull(info, "No index info found for key: " + key);
-               if (info.numRecords <= 0) {
-                  throw new IllegalArgumentException("Number of records " + info.numRecords + " for index of key " + key + " should be more than zero!");
-               }
-               if (info.file == scheduledFile && info.offset == scheduledOffset) {
-                  assert header.valueLength() > 0;
-                  long entryExpiryTime = header.expiryTime();
-                  // live record with data
-                  if (entryExpiryTime >= 0 && entryExpiryTime <= currentTimeMilliseconds) {
-                     // We can only truncate expired entries if this was compacted with purge expire
-                     if (expiredIndex != null) {
-                        EntryRecord record = index.getRecordEvenIfExpired(key, segment, serializedKey);
-                        truncate = true;
-                        expiredIndex.add(record);
-                        // If there are more entries we cannot drop the index as we need a tombstone
-                        if (info.numRecords > 1) {
-                           drop = false;
-                        }
                      } else {
-                        // We can't drop an expired entry without notifying, so we write it to the new compacted file
                         drop = false;
                      }
+
+                     if (log.isTraceEnabled()) {
+                        log.tracef("Is key %s at %d:%d expired? %s, numRecords? %d", key, scheduledFile, scheduledOffset, truncate, info.numRecords);
+                     }
                   } else if (isLogFile) {
-                     // Non expired entry in a log file, just skip it
+                     // If entry doesn't match the index we can't touch it when it is a log file
                      scheduledOffset += header.totalLength();
                      continue;
-                  } else {
+                  } else if (info.file == scheduledFile && info.offset == ~scheduledOffset && info.numRecords > 1) {
+                     // The entry was expired, but we have other records so we can't drop this one or else the index will rebuild incorrectly
                      drop = false;
+                  } else if (log.isTraceEnabled()) {
+                     log.tracef("Key %s for %d:%d was found in index on %d:%d, %d record => drop", key,
+                           scheduledFile, scheduledOffset, info.file, info.offset, info.numRecords);
                   }
-
-                  if (log.isTraceEnabled()) {
-                     log.tracef("Is key %s at %d:%d expired? %s, numRecords? %d", key, scheduledFile, scheduledOffset, truncate, info.numRecords);
-                  }
-               } else if (isLogFile) {
-                  // If entry doesn't match the index we can't touch it when it is a log file
-                  scheduledOffset += header.totalLength();
-                  continue;
-               } else if (info.file == scheduledFile && info.offset == ~scheduledOffset && info.numRecords > 1) {
-                  // The entry was expired, but we have other records so we can't drop this one or else the index will rebuild incorrectly
-                  drop = false;
-               } else if (log.isTraceEnabled()) {
-                  log.tracef("Key %s for %d:%d was found in index on %d:%d, %d record => drop", key,
-                        scheduledFile, scheduledOffset, info.file, info.offset, info.numRecords);
-               }
-               prevFile = info.file;
-               prevOffset = info.offset;
-            }
-
-            if (drop) {
-               if (log.isTraceEnabled()) {
-                  log.tracef("Drop index for key %s, file %d:%d (%s)", key, scheduledFile, scheduledOffset,
-                        header.valueLength() > 0 ? "record" : "tombstone");
-               }
-               index.handleRequest(IndexRequest.dropped(segment, key, ByteBufferImpl.create(serializedKey), prevFile, prevOffset, scheduledFile, scheduledOffset));
-            } else {
-               if (logFile == null || currentOffset + header.totalLength() > maxFileSize) {
-                  if (logFile != null) {
-                     logFile.close();
-                     completeFile(logFile.fileId, currentOffset, nextExpirationTime);
-                     nextExpirationTime = -1;
-                  }
-                  currentOffset = 0;
-                  logFile = fileProvider.getFileForLog();
-                  log.debugf("Compacting to %d", (Object) logFile.fileId);
+                  prevFile = info.file;
+                  prevOffset = info.offset;
                }
 
-               byte[] serializedValue = null;
-               EntryMetadata metadata = null;
-               byte[] serializedInternalMetadata = null;
-               int entryOffset;
-               int writtenLength;
-               if (header.valueLength() > 0 && !truncate) {
-                  if (header.metadataLength() > 0) {
-                     metadata = EntryRecord.readMetadata(handle, header, scheduledOffset);
-                  }
-                  serializedValue = EntryRecord.readValue(handle, header, scheduledOffset);
-                  if (header.internalMetadataLength() > 0) {
-                     serializedInternalMetadata = EntryRecord.readInternalMetadata(handle, header, scheduledOffset);
-                  }
-                  entryOffset = currentOffset;
-                  writtenLength = header.totalLength();
-                  // Update the next expiration time only for entries that are not removed
-                  nextExpirationTime = ExpiryHelper.mostRecentExpirationTime(nextExpirationTime, header.expiryTime());
-               } else {
-                  entryOffset = ~currentOffset;
-                  writtenLength = header.getHeaderLength() + header.keyLength();
-               }
-               EntryRecord.writeEntry(logFile.fileChannel, REUSED_BUFFER, serializedKey, metadata, serializedValue, serializedInternalMetadata, header.seqId(), header.expiryTime());
-               TemporaryTable.LockedEntry lockedEntry = temporaryTable.replaceOrLock(segment, key, logFile.fileId, entryOffset, scheduledFile, indexedOffset);
-               if (lockedEntry == null) {
+               if (drop) {
                   if (log.isTraceEnabled()) {
-                     log.trace("Found entry in temporary table");
+                     log.tracef("Drop index for key %s, file %d:%d (%s)", key, scheduledFile, scheduledOffset,
+                           header.valueLength() > 0 ? "record" : "tombstone");
                   }
+                  index.handleRequest(IndexRequest.dropped(segment, key, ByteBufferImpl.create(serializedKey), prevFile, prevOffset, scheduledFile, scheduledOffset));
                } else {
-                  boolean update = false;
-                  try {
-                     EntryInfo info = index.getInfo(key, segment, serializedKey);
-                     if (info == null) {
-                        throw new IllegalStateException(String.format(
-                              "%s was not found in index but it was not in temporary table and there's entry on %d:%d", key, scheduledFile, indexedOffset));
-                     } else {
-                        update = info.file == scheduledFile && info.offset == indexedOffset;
+                  if (logFile == null || currentOffset + header.totalLength() > maxFileSize) {
+                     if (logFile != null) {
+                        logFile.close();
+                        completeLogFile();
                      }
+                     currentOffset = 0;
+                     logFile = fileProvider.getFileForLog();
+                     logFileMoves = CompletionStages.aggregateCompletionStage();
+                     log.debugf("Compacting to %d", (Object) logFile.fileId);
+                  }
+
+                  byte[] serializedValue = null;
+                  EntryMetadata metadata = null;
+                  byte[] serializedInternalMetadata = null;
+                  int entryOffset;
+                  int writtenLength;
+                  if (header.valueLength() > 0 && !truncate) {
+                     if (header.metadataLength() > 0) {
+                        metadata = EntryRecord.readMetadata(handle, header, scheduledOffset);
+                     }
+                     serializedValue = EntryRecord.readValue(handle, header, scheduledOffset);
+                     if (header.internalMetadataLength() > 0) {
+                        serializedInternalMetadata = EntryRecord.readInternalMetadata(handle, header, scheduledOffset);
+                     }
+                     entryOffset = currentOffset;
+                     writtenLength = header.totalLength();
+                     // Update the next expiration time only for entries that are not removed
+                     nextExpirationTime = ExpiryHelper.mostRecentExpirationTime(nextExpirationTime, header.expiryTime());
+                  } else {
+                     entryOffset = ~currentOffset;
+                     writtenLength = header.getHeaderLength() + header.keyLength();
+                  }
+                  EntryRecord.writeEntry(logFile.fileChannel, REUSED_BUFFER, serializedKey, metadata, serializedValue, serializedInternalMetadata, header.seqId(), header.expiryTime());
+                  TemporaryTable.LockedEntry lockedEntry = temporaryTable.replaceOrLock(segment, key, logFile.fileId, entryOffset, scheduledFile, indexedOffset);
+                  if (lockedEntry == null) {
                      if (log.isTraceEnabled()) {
-                        log.tracef("In index the key is on %d:%d (%s)", info.file, info.offset, String.valueOf(update));
+                        log.trace("Found entry in temporary table");
                      }
-                  } finally {
-                     if (update) {
-                        temporaryTable.updateAndUnlock(lockedEntry, logFile.fileId, entryOffset);
-                     } else {
-                        temporaryTable.removeAndUnlock(lockedEntry, segment, key);
+                  } else {
+                     boolean update = false;
+                     try {
+                        EntryInfo info = index.getInfo(key, segment, serializedKey);
+                        if (info == null) {
+                           throw new IllegalStateException(String.format(
+                                 "%s was not found in index but it was not in temporary table and there's entry on %d:%d", key, scheduledFile, indexedOffset));
+                        } else {
+                           update = info.file == scheduledFile && info.offset == indexedOffset;
+                        }
+                        if (log.isTraceEnabled()) {
+                           log.tracef("In index the key is on %d:%d (%s)", info.file, info.offset, String.valueOf(update));
+                        }
+                     } finally {
+                        if (update) {
+                           temporaryTable.updateAndUnlock(lockedEntry, logFile.fileId, entryOffset);
+                        } else {
+                           temporaryTable.removeAndUnlock(lockedEntry, segment, key);
+                        }
                      }
                   }
+                  if (log.isTraceEnabled()) {
+                     log.tracef("Update %d:%d -> %d:%d | %d,%d", scheduledFile, indexedOffset,
+                           logFile.fileId, entryOffset, logFile.fileChannel.position(), logFile.fileChannel.size());
+                  }
+                  IndexRequest indexRequest;
+                  ByteBuffer keyBuffer = ByteBufferImpl.create(serializedKey);
+                  if (isLogFile) {
+                     // When it is a log file we are still keeping the original entry, we are just updating it to say
+                     // it was expired
+                     indexRequest = IndexRequest.update(segment, key, keyBuffer, logFile.fileId, entryOffset, writtenLength);
+                  } else {
+                     // entryFile cannot be used as we have to report the file due to free space statistics
+                     indexRequest = IndexRequest.moved(segment, key, keyBuffer, logFile.fileId, entryOffset, writtenLength,
+                           scheduledFile, indexedOffset);
+                  }
+                  CompletionStage<Void> moved = index.handleRequest(indexRequest);
+                  aggregateCompletionStage.dependsOn(moved);
+                  logFileMoves.dependsOn(moved);
+
+                  currentOffset += writtenLength;
+                  writtenBytes.add(writtenLength);
                }
-               if (log.isTraceEnabled()) {
-                  log.tracef("Update %d:%d -> %d:%d | %d,%d", scheduledFile, indexedOffset,
-                        logFile.fileId, entryOffset, logFile.fileChannel.position(), logFile.fileChannel.size());
-               }
-               IndexRequest indexRequest;
-               ByteBuffer keyBuffer = ByteBufferImpl.create(serializedKey);
-               if (isLogFile) {
-                  // When it is a log file we are still keeping the original entry, we are just updating it to say
-                  // it was expired
-                  indexRequest = IndexRequest.update(segment, key, keyBuffer, logFile.fileId, entryOffset, writtenLength);
-               } else {
-                  // entryFile cannot be used as we have to report the file due to free space statistics
-                  indexRequest = IndexRequest.moved(segment, key, keyBuffer, logFile.fileId, entryOffset, writtenLength,
-                        scheduledFile, indexedOffset);
+               scheduledOffset += header.totalLength();
+            }
+            if (!clearSignal.get()) {
+               // We delay the next operation until all prior moves are done. By moving it can trigger another
+               // compaction before the index has been fully updated. Thus we block any other compaction events
+               // until all entries have been moved for this file
+               CompletionStage<Void> aggregate = aggregateCompletionStage.freeze();
+               if (!CompletionStages.isCompletedSuccessfully(aggregate)) {
+                  paused = new CompletableFuture<>();
+                  // We resume after completed, Note that we must complete the {@code paused} variable inside the compactor
+                  // execution pipeline otherwise we can invoke compactor operations in the wrong thread
+                  aggregate.whenComplete((ignore, t) -> {
+                     resumeAfterPause();
+                     if (t != null) {
+                        log.error("There was a problem moving indexes for compactor with file " + logFile.fileId, t);
+                     }
+                  });
                }
-               aggregateCompletionStage.dependsOn(index.handleRequest(indexRequest));
-
-               currentOffset += writtenLength;
             }
-            scheduledOffset += header.totalLength();
+         } finally {
+            handle.close();
+            compactionNanos.add(System.nanoTime() - startNanos);
          }
-         if (!clearSignal.get()) {
-            // We delay the next operation until all prior moves are done. By moving it can trigger another
-            // compaction before the index has been fully updated. Thus we block any other compaction events
-            // until all entries have been moved for this file
-            CompletionStage<Void> aggregate = aggregateCompletionStage.freeze();
-            if (!CompletionStages.isCompletedSuccessfully(aggregate)) {
-               paused = new CompletableFuture<>();
-               // We resume after completed, Note that we must complete the {@code paused} variable inside the compactor
-               // execution pipeline otherwise we can invoke compactor operations in the wrong thread
-               aggregate.whenComplete((ignore, t) -> {
-                  resumeAfterPause();
-                  if (t != null) {
-                     log.error("There was a problem moving indexes for compactor with file " + logFile.fileId, t);
-                  }
-               });
+         if (subscriber != null) {
+            for (EntryPosition entryPosition : expiredTemp) {
+               subscriber.onEntryPosition(entryPosition);
+            }
+            for (EntryRecord entryRecord : expiredIndex) {
+               subscriber.onEntryEntryRecord(entryRecord);
             }
          }
-      } finally {
-         handle.close();
-      }
-      if (subscriber != null) {
-         for (EntryPosition entryPosition : expiredTemp) {
-            subscriber.onEntryPosition(entryPosition);
-         }
-         for (EntryRecord entryRecord : expiredIndex) {
-            subscriber.onEntryEntryRecord(entryRecord);
-         }
-      }
-      if (isLogFile) {
-         log.tracef("Finished expiring entries in log file %d, leaving file as is", scheduledFile);
-      } else if (!terminateSignal && !clearSignal.get()) {
-         // The deletion must be executed only after the index is fully updated.
-         log.tracef("Finished compacting %d, scheduling delete", scheduledFile);
-         // Mark the file for deletion so expiration won't check it
-         Stats stats = fileStats.get(scheduledFile);
-         if (stats != null) {
-            stats.markForDeletion();
+         if (isLogFile) {
+            log.tracef("Finished expiring entries in log file %d, leaving file as is", scheduledFile);
+         } else if (!terminateSignal && !clearSignal.get()) {
+            // The deletion must be executed only after the index is fully updated.
+            log.tracef("Finished compacting %d, scheduling delete", scheduledFile);
+            // Mark the file for deletion so expiration won't check it
+            Stats stats = fileStats.get(scheduledFile);
+            if (stats != null) {
+               stats.markForDeletion();
+            }
+            index.deleteFileAsync(scheduledFile);
+            compactedFiles.increment();
+         } else {
+            log.tracef("Not doing anything to compacted file %d as either the terminate clear signal were set", scheduledFile);
          }
-         index.deleteFileAsync(scheduledFile);
-      } else {
-         log.tracef("Not doing anything to compacted file %d as either the terminate clear signal were set", scheduledFile);
       }
    }
 
-
    static class Stats {
       private final AtomicInteger free;
       private volatile int total;
@@ -722,7 +920,7 @@ static class Stats {
          */
       private volatile boolean completed = false;
       private final AtomicBoolean scheduled = new AtomicBoolean();
-      private boolean markedForDeletion = false;
+      private volatile boolean markedForDeletion = false;
 
       private Stats(int total, int free, long nextExpirationTime) {
          this.free = new AtomicInteger(free);
@@ -755,6 +953,11 @@ public void setNextExpirationTime(long nextExpirationTime) {
          this.nextExpirationTime = nextExpirationTime;
       }
 
+      public double garbageRatio() {
+         int total = this.total;
+         return total > 0 ? free.get() / (double) total : 0;
+      }
+
       public boolean readyToBeScheduled(double compactionThreshold, int free) {
          int total = this.total;
          // Note setScheduled must be last as it changes state
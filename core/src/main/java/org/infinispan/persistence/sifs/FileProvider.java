@@ -9,6 +9,7 @@
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -20,20 +21,34 @@
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.infinispan.commons.stat.TimerTracker;
 import org.infinispan.commons.util.CloseableIterator;
+import org.infinispan.container.offheap.UnsafeHolder;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.persistence.sifs.pmem.PmemUtilWrapper;
 import org.infinispan.util.logging.LogFactory;
 
 /**
  * Provides resource management for files - only limited amount of files may be opened in one moment, and opened file
  * should not be deleted. Also allows to generate file indexes.
+ * <p>
+ * When a maximum mapped size is given, files that are no longer appended are memory mapped while they are open and
+ * reads are served from the mapping instead of the file channel. The total size of the mapped files never exceeds the
+ * maximum; files that do not fit are read through the channel until other mappings are released.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
+@MBean(objectName = "SoftIndexFileStore", description = "Memory mapped reads of the soft index file store data files")
 public class FileProvider {
    private static final org.infinispan.persistence.sifs.Log log =
          LogFactory.getLog(FileProvider.class, org.infinispan.persistence.sifs.Log.class);
@@ -51,6 +66,11 @@ public class FileProvider {
    private final Set<FileIterator> iterators = ConcurrentHashMap.newKeySet();
    private final String prefix;
    private final int maxFileSize;
+   private final long maxMappedSize;
+   private final AtomicLong mappedBytes = new AtomicLong();
+   private final LongAdder mappedReads = new LongAdder();
+   private final LongAdder mappedReadNanos = new LongAdder();
+   private volatile TimerTracker mappedReadTimes;
 
    private int nextFileId = 0;
 
@@ -67,7 +87,16 @@ public class FileProvider {
    }
 
    public FileProvider(Path dataDir, int openFileLimit, String prefix, int maxFileSize) {
+      this(dataDir, openFileLimit, prefix, maxFileSize, 0);
+   }
+
+   /**
+    * @param maxMappedSize the maximum number of bytes of data files that can be memory mapped at the same time, 0 to
+    *                      always read through the file channel
+    */
+   public FileProvider(Path dataDir, int openFileLimit, String prefix, int maxFileSize, long maxMappedSize) {
       this.openFileLimit = openFileLimit;
+      this.maxMappedSize = maxMappedSize;
       this.recordQueue = new ArrayBlockingQueue<>(openFileLimit);
       this.dataDir = dataDir.toFile();
       this.prefix = prefix;
@@ -341,6 +370,38 @@ public void deleteFile(int fileId) {
       }
    }
 
+   @ManagedAttribute(
+         description = "Number of bytes of data files currently memory mapped",
+         displayName = "Mapped bytes",
+         units = Units.BYTES
+   )
+   public long getMappedBytes() {
+      return mappedBytes.get();
+   }
+
+   @ManagedAttribute(
+         description = "Number of reads served from memory mapped data files",
+         displayName = "Mapped reads"
+   )
+   public long getMappedReads() {
+      return mappedReads.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Average number of nanoseconds to copy a read from a memory mapped data file, including page faults",
+         displayName = "Average mapped read time",
+         units = Units.NANOSECONDS
+   )
+   public long getAverageMappedReadTimeNanos() {
+      long reads = mappedReads.sum();
+      return reads == 0 ? 0 : mappedReadNanos.sum() / reads;
+   }
+
+   @ManagedAttribute(description = "Mapped read times", displayName = "Mapped read times", dataType = DataType.TIMER, units = Units.NANOSECONDS)
+   public void setMappedReadTimes(TimerTracker mappedReadTimes) {
+      this.mappedReadTimes = mappedReadTimes;
+   }
+
    public void stop() {
       int open = currentOpenFiles.get();
       while (open > 0) {
@@ -394,7 +455,7 @@ private Handle(Record record) {
 
       public int read(ByteBuffer buffer, long offset) throws IOException {
          if (!usable) throw new IllegalStateException();
-         return record.getFileChannel().read(buffer, offset);
+         return record.read(buffer, offset);
       }
 
       @Override
@@ -419,6 +480,9 @@ private class Record {
       private FileChannel fileChannel;
       private int handleCount;
       private boolean deleteOnClose = false;
+      private volatile MappedByteBuffer mapping;
+      // Set once the file has been mapped or cannot be mapped at all
+      private volatile boolean mappingAttempted;
 
       private Record(FileChannel fileChannel, int fileId) {
          this.fileChannel = fileChannel;
@@ -429,6 +493,82 @@ FileChannel getFileChannel() {
          return fileChannel;
       }
 
+      int read(ByteBuffer buffer, long offset) throws IOException {
+         ByteBuffer mapping = mapping();
+         if (mapping == null) {
+            return fileChannel.read(buffer, offset);
+         }
+         int capacity = mapping.capacity();
+         if (offset >= capacity) {
+            return -1;
+         }
+         int length = (int) Math.min(buffer.remaining(), capacity - offset);
+         long start = System.nanoTime();
+         // Faulting the pages in happens during the copy
+         buffer.put(mapping.duplicate().position((int) offset).limit((int) offset + length));
+         long duration = System.nanoTime() - start;
+         mappedReads.increment();
+         mappedReadNanos.add(duration);
+         TimerTracker timer = mappedReadTimes;
+         if (timer != null) {
+            timer.update(duration, TimeUnit.NANOSECONDS);
+         }
+         return length;
+      }
+
+      private ByteBuffer mapping() throws IOException {
+         if (mappingAttempted || maxMappedSize <= 0) {
+            return mapping;
+         }
+         // The file currently appended is still growing, it will be mapped on the first read after it is sealed
+         if (isLogFile(fileId)) {
+            return null;
+         }
+         synchronized (this) {
+            if (!mappingAttempted && fileChannel != null) {
+               mapping = map();
+            }
+            return mapping;
+         }
+      }
+
+      private MappedByteBuffer map() throws IOException {
+         long size = fileChannel.size();
+         if (size == 0 || size > Integer.MAX_VALUE) {
+            mappingAttempted = true;
+            return null;
+         }
+         for (;;) {
+            long current = mappedBytes.get();
+            if (current + size > maxMappedSize) {
+               // Try again on a later read, other mappings may have been released by then
+               return null;
+            }
+            if (mappedBytes.compareAndSet(current, current + size)) {
+               break;
+            }
+         }
+         mappingAttempted = true;
+         try {
+            return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+         } catch (IOException | UnsupportedOperationException e) {
+            mappedBytes.addAndGet(-size);
+            log.debugf(e, "Cannot map file %d, reading it through the file channel", fileId);
+            return null;
+         }
+      }
+
+      private void unmap() {
+         MappedByteBuffer mapping = this.mapping;
+         this.mapping = null;
+         mappingAttempted = false;
+         if (mapping != null) {
+            mappedBytes.addAndGet(-mapping.capacity());
+            // No handle is using the record anymore, so nobody can read from the mapping
+            UnsafeHolder.UNSAFE.invokeCleaner(mapping);
+         }
+      }
+
       void increaseHandleCount() {
          handleCount++;
       }
@@ -438,6 +578,7 @@ void decreaseHandleCount() throws IOException {
          if (handleCount == 0 && deleteOnClose) {
             // we cannot easily remove the record from queue - keep it there until collection,
             // but physically close and delete the file
+            unmap();
             fileChannel.close();
             fileChannel = null;
             openFiles.remove(fileId, this);
@@ -458,6 +599,7 @@ public int getFileId() {
       }
 
       public void close() throws IOException {
+         unmap();
          fileChannel.close();
          fileChannel = null;
          if (deleteOnClose) {
@@ -474,6 +616,7 @@ public void delete() throws IOException {
       public void deleteOnClose() throws IOException {
          if (handleCount == 0) {
             if (fileChannel != null) {
+               unmap();
                fileChannel.close();
                fileChannel = null;
             }
@@ -13,7 +13,9 @@
 import java.util.Map;
 import java.util.PrimitiveIterator;
 import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
@@ -25,7 +27,10 @@
 
 import org.infinispan.commons.io.UnsignedNumeric;
 import org.infinispan.commons.time.TimeService;
+import org.infinispan.commons.util.BloomFilter;
 import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.commons.util.MurmurHash3BloomFilter;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.util.concurrent.AggregateCompletionStage;
 import org.infinispan.util.concurrent.CompletionStages;
@@ -58,6 +63,20 @@ class Index {
    // 8 bytes free block offset
    // 8 bytes number of elements
    private static final int INDEX_FILE_HEADER_SIZE = 34;
+   // The bloom filter kept for each index segment is sized for twice its keys, 10 bits per key with 3 hash functions
+   // give about 1.7% false positives once it is full
+   private static final int BLOOM_FILTER_BITS_PER_KEY = 10;
+   private static final int BLOOM_FILTER_HASH_FUNCTIONS = 3;
+   private static final int BLOOM_FILTER_MIN_BITS = 1 << 16;
+   private static final int BLOOM_FILTER_MAX_BITS = 1 << 30;
+   // 4 bytes for number of bits
+   // 4 bytes for number of hash functions
+   // 8 bytes number of keys added since the last rebuild
+   // 8 bytes number of keys removed since the last rebuild
+   // 8 bytes number of keys in the index segment
+   private static final int BLOOM_FILTER_HEADER_SIZE = 32;
+   // The filter is only rebuilt once compaction removed at least this many keys from the segment
+   private static final int BLOOM_FILTER_MIN_REMOVALS = 1024;
 
    private final NonBlockingManager nonBlockingManager;
    private final FileProvider fileProvider;
@@ -65,6 +84,8 @@ class Index {
    private final Compactor compactor;
    private final int minNodeSize;
    private final int maxNodeSize;
+   // Runs the bloom filter rebuilds, assigned before the updaters are subscribed
+   private Executor executor;
    private final ReadWriteLock lock = new ReentrantReadWriteLock();
    private final Segment[] segments;
    private final TimeService timeService;
@@ -245,6 +266,9 @@ public EntryRecord getRecordEvenIfExpired(Object key, int cacheSegment, byte[] s
 
    private EntryRecord getRecord(Object key, int cacheSegment, byte[] indexKey, IndexNode.ReadOperation readOperation) throws IOException {
       int segment = (key.hashCode() & Integer.MAX_VALUE) % segments.length;
+      if (!segments[segment].possiblyPresent(indexKey)) {
+         return null;
+      }
       lock.readLock().lock();
       try {
          return IndexNode.applyOnLeaf(segments[segment], cacheSegment, indexKey, segments[segment].rootReadLock(), readOperation);
@@ -258,9 +282,13 @@ private EntryRecord getRecord(Object key, int cacheSegment, byte[] indexKey, Ind
     */
    public EntryPosition getPosition(Object key, int cacheSegment, org.infinispan.commons.io.ByteBuffer serializedKey) throws IOException {
       int segment = (key.hashCode() & Integer.MAX_VALUE) % segments.length;
+      byte[] indexKey = toIndexKey(cacheSegment, serializedKey);
+      if (!segments[segment].possiblyPresent(indexKey)) {
+         return null;
+      }
       lock.readLock().lock();
       try {
-         return IndexNode.applyOnLeaf(segments[segment], cacheSegment, toIndexKey(cacheSegment, serializedKey), segments[segment].rootReadLock(), IndexNode.ReadOperation.GET_POSITION);
+         return IndexNode.applyOnLeaf(segments[segment], cacheSegment, indexKey, segments[segment].rootReadLock(), IndexNode.ReadOperation.GET_POSITION);
       } finally {
          lock.readLock().unlock();
       }
@@ -271,9 +299,13 @@ public EntryPosition getPosition(Object key, int cacheSegment, org.infinispan.co
     */
    public EntryInfo getInfo(Object key, int cacheSegment, byte[] serializedKey) throws IOException {
       int segment = (key.hashCode() & Integer.MAX_VALUE) % segments.length;
+      byte[] indexKey = toIndexKey(cacheSegment, serializedKey);
+      if (!segments[segment].possiblyPresent(indexKey)) {
+         return null;
+      }
       lock.readLock().lock();
       try {
-         return IndexNode.applyOnLeaf(segments[segment], cacheSegment, toIndexKey(cacheSegment, serializedKey), segments[segment].rootReadLock(), IndexNode.ReadOperation.GET_INFO);
+         return IndexNode.applyOnLeaf(segments[segment], cacheSegment, indexKey, segments[segment].rootReadLock(), IndexNode.ReadOperation.GET_INFO);
       } finally {
          lock.readLock().unlock();
       }
@@ -409,6 +441,7 @@ public long getMaxSeqId() throws IOException {
    }
 
    public void start(Executor executor) {
+      this.executor = executor;
       for (int i = 0; i < segments.length; ++i) {
          Segment segment = segments[i];
          flowableProcessors[i]
@@ -442,9 +475,25 @@ static class Segment extends CompletableFuture<Void> implements Consumer<IndexRe
       private final TreeMap<Short, List<IndexSpace>> freeBlocks = new TreeMap<>();
       private final ReadWriteLock rootLock = new ReentrantReadWriteLock();
       private final FileChannel indexFile;
+      private final File bloomFilterFile;
       private long indexFileSize;
 
       private volatile IndexNode root;
+      // Contains every key present in this segment, consulted before looking up the nodes
+      private volatile BloomFilter<byte[]> bloomFilter;
+      // these should be accessed only from the updater thread
+      private int bloomFilterBits;
+      // the filter is grown once the segment holds more keys than this
+      private long bloomFilterCapacity;
+      // filter filled by a background rebuild, keys indexed in the meantime are added to both filters
+      private BloomFilter<byte[]> rebuildingFilter;
+      private int rebuildingFilterBits;
+      private CompletableFuture<Long> rebuild;
+      // keys that set new bits in the filter and keys removed by compaction since the filter was built
+      long filterInsertions;
+      long filterRemovals;
+      // leaves of the index, tombstones included
+      long indexKeys;
 
       private Segment(Index index, int id, TemporaryTable temporaryTable) throws IOException {
          this.index = index;
@@ -452,9 +501,11 @@ private Segment(Index index, int id, TemporaryTable temporaryTable) throws IOExc
 
          File indexFileFile = new File(index.indexDir.toFile(), "index." + id);
          this.indexFile = new RandomAccessFile(indexFileFile, "rw").getChannel();
+         this.bloomFilterFile = new File(index.indexDir.toFile(), "index." + id + ".bloom");
 
          // Just to init to empty
          root = IndexNode.emptyWithLeaves(this);
+         resetBloomFilter();
       }
 
       boolean load() throws IOException {
@@ -470,10 +521,15 @@ boolean load() throws IOException {
             root = new IndexNode(this, rootOffset, rootOccupied);
             loadFreeBlocks(freeBlocksOffset);
             indexFileSize = freeBlocksOffset;
+            if (!loadBloomFilter()) {
+               log.debugf("Bloom filter for index segment %s was not persisted, rebuilding it", bloomFilterFile);
+               rebuildBloomFilter();
+            }
             loaded = true;
          } else {
             this.indexFile.truncate(0);
             root = IndexNode.emptyWithLeaves(this);
+            resetBloomFilter();
             loaded = false;
             // reserve space for shutdown
             indexFileSize = INDEX_FILE_HEADER_SIZE;
@@ -483,6 +539,8 @@ boolean load() throws IOException {
          buffer.limit(4);
          indexFile.position(0);
          write(indexFile, buffer);
+         // The filter is only valid until the index is modified again, it is written on graceful shutdown
+         bloomFilterFile.delete();
 
          return loaded;
       }
@@ -490,6 +548,8 @@ boolean load() throws IOException {
       void reset() throws IOException {
          this.indexFile.truncate(0);
          root = IndexNode.emptyWithLeaves(this);
+         resetBloomFilter();
+         bloomFilterFile.delete();
          // reserve space for shutdown
          indexFileSize = INDEX_FILE_HEADER_SIZE;
          ByteBuffer buffer = ByteBuffer.allocate(INDEX_FILE_HEADER_SIZE);
@@ -509,6 +569,7 @@ public void accept(IndexRequest request) throws Throwable {
          switch (request.getType()) {
             case CLEAR:
                root = IndexNode.emptyWithLeaves(this);
+               resetBloomFilter();
                indexFile.truncate(0);
                indexFileSize = INDEX_FILE_HEADER_SIZE;
                freeBlocks.clear();
@@ -526,6 +587,15 @@ public void accept(IndexRequest request) throws Throwable {
             case UPDATE:
                recordChange = IndexNode.RecordChange.INCREASE;
                overwriteHook = index.updateHook;
+               // Must be added before the entry is removed from the temporary table so readers never miss it,
+               // tombstones are added as well as they stay in the index until compacted
+               byte[] indexKey = toIndexKey(request.getSegment(), request.getSerializedKey());
+               if (bloomFilter.addToFilter(indexKey)) {
+                  filterInsertions++;
+               }
+               if (rebuildingFilter != null) {
+                  rebuildingFilter.addToFilter(indexKey);
+               }
                break;
             case DROPPED:
                recordChange = IndexNode.RecordChange.DECREASE;
@@ -548,12 +618,19 @@ public void accept(IndexRequest request) throws Throwable {
             // The update type will complete it in the switch statement above
             index.nonBlockingManager.complete(request, null);
          }
+         if (recordChange == IndexNode.RecordChange.INCREASE || recordChange == IndexNode.RecordChange.DECREASE) {
+            checkBloomFilter();
+         }
       }
 
       // This is ran when the flowable ends either via normal termination or error
       @Override
       public void run() throws IOException {
          try {
+            if (rebuild != null) {
+               completeBloomFilterRebuild();
+            }
+            storeBloomFilter();
             IndexSpace rootSpace = allocateIndexSpace(root.length());
             root.store(rootSpace);
             indexFile.position(indexFileSize);
@@ -599,6 +676,174 @@ public void run() throws IOException {
          }
       }
 
+      private void resetBloomFilter() {
+         // A running rebuild reads the previous root, its result is discarded
+         rebuild = null;
+         rebuildingFilter = null;
+         setBloomFilter(MurmurHash3BloomFilter.createConcurrentFilter(BLOOM_FILTER_MIN_BITS, BLOOM_FILTER_HASH_FUNCTIONS),
+               BLOOM_FILTER_MIN_BITS);
+         filterInsertions = 0;
+         filterRemovals = 0;
+         indexKeys = 0;
+      }
+
+      private void setBloomFilter(BloomFilter<byte[]> filter, int bits) {
+         bloomFilter = filter;
+         bloomFilterBits = bits;
+         bloomFilterCapacity = bits / (2 * BLOOM_FILTER_BITS_PER_KEY);
+      }
+
+      private static int bloomFilterBits(long keys) {
+         long bits = Math.max(BLOOM_FILTER_MIN_BITS, Math.min(BLOOM_FILTER_MAX_BITS, keys * 2 * BLOOM_FILTER_BITS_PER_KEY));
+         // Whole words so the bits can be persisted as longs
+         return (int) ((bits + 63) & ~63);
+      }
+
+      boolean possiblyPresent(byte[] indexKey) {
+         return bloomFilter.possiblyPresent(indexKey);
+      }
+
+      // these should be invoked only from the updater thread when a leaf is added or removed from the index
+      void keyAdded() {
+         indexKeys++;
+      }
+
+      void keyRemoved() {
+         indexKeys--;
+         filterRemovals++;
+      }
+
+      private void checkBloomFilter() {
+         if (rebuild != null) {
+            if (!rebuild.isDone()) {
+               return;
+            }
+            completeBloomFilterRebuild();
+         }
+         // Either compaction has removed about as many keys as there are in the filter, and the bits of the removed
+         // keys only cause false positives now, or the segment outgrew the filter
+         if ((filterRemovals >= BLOOM_FILTER_MIN_REMOVALS && filterRemovals * 2 >= filterInsertions)
+               || (indexKeys > bloomFilterCapacity && bloomFilterBits < BLOOM_FILTER_MAX_BITS)) {
+            int bits = bloomFilterBits(indexKeys);
+            BloomFilter<byte[]> filter = MurmurHash3BloomFilter.createConcurrentFilter(bits, BLOOM_FILTER_HASH_FUNCTIONS);
+            rebuildingFilter = filter;
+            rebuildingFilterBits = bits;
+            // The leaves are read from the data files, which must not hold up the updates of the index
+            rebuild = CompletableFuture.supplyAsync(() -> {
+               try {
+                  return fillBloomFilter(filter);
+               } catch (IOException e) {
+                  throw new CompletionException(e);
+               }
+            }, index.executor);
+         }
+      }
+
+      private void completeBloomFilterRebuild() {
+         CompletableFuture<Long> rebuild = this.rebuild;
+         BloomFilter<byte[]> filter = rebuildingFilter;
+         this.rebuild = null;
+         rebuildingFilter = null;
+         long keys;
+         try {
+            keys = rebuild.join();
+         } catch (CompletionException | CancellationException e) {
+            // The old filter is still valid, it just lets more lookups through until the next update retries
+            log.cannotRebuildBloomFilter(bloomFilterFile, e);
+            return;
+         }
+         if (log.isTraceEnabled()) {
+            log.tracef("Rebuilt bloom filter of %s with %d bits for %d keys, %d keys were removed since the last rebuild",
+                  bloomFilterFile, rebuildingFilterBits, keys, filterRemovals);
+         }
+         setBloomFilter(filter, rebuildingFilterBits);
+         filterInsertions = keys;
+         filterRemovals = 0;
+      }
+
+      // Adds every index key to the filter, without blocking updates to the index for the whole scan
+      private long fillBloomFilter(BloomFilter<byte[]> filter) throws IOException {
+         return IndexNode.forEachIndexKey(this, rootReadLock(), filter::addToFilter);
+      }
+
+      // this should be accessed only before the index is started
+      void rebuildBloomFilter() throws IOException {
+         // The leaves are not counted until they are read, the entries of the cache are spread evenly on the segments
+         long entries = 0;
+         for (int i = 0; i < index.sizePerSegment.length(); ++i) {
+            entries += index.sizePerSegment.get(i);
+         }
+         int bits = bloomFilterBits(entries / index.segments.length);
+         BloomFilter<byte[]> filter = MurmurHash3BloomFilter.createConcurrentFilter(bits, BLOOM_FILTER_HASH_FUNCTIONS);
+         long keys = fillBloomFilter(filter);
+         if (log.isTraceEnabled()) {
+            log.tracef("Rebuilt bloom filter of %s with %d bits for %d keys", bloomFilterFile, bits, keys);
+         }
+         setBloomFilter(filter, bits);
+         filterInsertions = keys;
+         filterRemovals = 0;
+         indexKeys = keys;
+      }
+
+      private boolean loadBloomFilter() throws IOException {
+         if (!bloomFilterFile.exists()) {
+            return false;
+         }
+         try (FileChannel channel = new RandomAccessFile(bloomFilterFile, "r").getChannel()) {
+            ByteBuffer header = ByteBuffer.allocate(BLOOM_FILTER_HEADER_SIZE);
+            if (!read(channel, header)) {
+               return false;
+            }
+            int bits = header.getInt(0);
+            if (bits < BLOOM_FILTER_MIN_BITS || bits > BLOOM_FILTER_MAX_BITS || bits % 64 != 0
+                  || header.getInt(4) != BLOOM_FILTER_HASH_FUNCTIONS) {
+               return false;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(bits / 8);
+            if (!read(channel, buffer)) {
+               return false;
+            }
+            buffer.flip();
+            IntSet bitSet = IntSets.mutableEmptySet(bits);
+            for (int word = 0; word < bits / 64; ++word) {
+               long value = buffer.getLong();
+               while (value != 0) {
+                  bitSet.set(word * 64 + Long.numberOfTrailingZeros(value));
+                  value &= value - 1;
+               }
+            }
+            BloomFilter<byte[]> filter = MurmurHash3BloomFilter.createConcurrentFilter(bits, BLOOM_FILTER_HASH_FUNCTIONS);
+            filter.setBits(bitSet);
+            setBloomFilter(filter, bits);
+            filterInsertions = header.getLong(8);
+            filterRemovals = header.getLong(16);
+            indexKeys = header.getLong(24);
+            return true;
+         }
+      }
+
+      private void storeBloomFilter() throws IOException {
+         long[] words = new long[bloomFilterBits / 64];
+         for (PrimitiveIterator.OfInt iter = bloomFilter.getIntSet().iterator(); iter.hasNext(); ) {
+            int bit = iter.nextInt();
+            words[bit >>> 6] |= 1L << bit;
+         }
+         ByteBuffer buffer = ByteBuffer.allocate(BLOOM_FILTER_HEADER_SIZE + bloomFilterBits / 8);
+         buffer.putInt(bloomFilterBits);
+         buffer.putInt(BLOOM_FILTER_HASH_FUNCTIONS);
+         buffer.putLong(filterInsertions);
+         buffer.putLong(filterRemovals);
+         buffer.putLong(indexKeys);
+         for (long word : words) {
+            buffer.putLong(word);
+         }
+         buffer.flip();
+         try (FileChannel channel = new RandomAccessFile(bloomFilterFile, "rw").getChannel()) {
+            channel.truncate(0);
+            write(channel, buffer);
+         }
+      }
+
       private void loadFreeBlocks(long freeBlocksOffset) throws IOException {
          indexFile.position(freeBlocksOffset);
          ByteBuffer buffer = ByteBuffer.allocate(8);
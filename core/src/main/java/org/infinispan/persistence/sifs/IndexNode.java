@@ -14,6 +14,7 @@
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.infinispan.commons.io.ByteBufferImpl;
@@ -377,6 +378,65 @@ private static long calculateMaxSeqId(IndexNode node, Index.Segment segment) thr
       return maxSeqId;
    }
 
+   /**
+    * Passes the index key (cache segment prefix followed by the serialized key) of every leaf to the consumer,
+    * including entries that have already expired, and returns the number of keys passed. A node is only locked while
+    * its children are copied, the data files are read without holding any lock so the index can be updated meanwhile.
+    * When a leaf points to a file that was removed by the compactor the scan starts again from the current root, in
+    * which case the keys read before are passed again but are not counted twice.
+    */
+   public static long forEachIndexKey(Index.Segment segment, Lock rootLock, Consumer<byte[]> consumer) throws IOException {
+      int attempts = 0;
+      for (; ; ) {
+         IndexNode root;
+         rootLock.lock();
+         try {
+            root = segment.getRoot();
+         } finally {
+            rootLock.unlock();
+         }
+         try {
+            return forEachIndexKey(root, segment, consumer);
+         } catch (IndexNodeOutdatedException e) {
+            if (attempts > 10) {
+               throw log.indexLooksCorrupt(e);
+            }
+            attempts++;
+            log.tracef(e, "Leaf was moved by the compactor, reading index keys from the current root");
+         }
+      }
+   }
+
+   private static long forEachIndexKey(IndexNode node, Index.Segment segment, Consumer<byte[]> consumer) throws IOException, IndexNodeOutdatedException {
+      LeafNode[] leafNodes;
+      InnerNode[] innerNodes;
+      // The leaves are replaced in place when an entry is overwritten
+      node.lock.readLock().lock();
+      try {
+         leafNodes = node.leafNodes == null ? null : node.leafNodes.clone();
+         innerNodes = node.innerNodes == null ? null : node.innerNodes.clone();
+      } finally {
+         node.lock.readLock().unlock();
+      }
+      long keys = 0;
+      if (leafNodes != null) {
+         for (LeafNode ln : leafNodes) {
+            EntryRecord record = ln.loadHeaderAndKey(segment.getFileProvider());
+            consumer.accept(Index.toIndexKey(ln.cacheSegment, record.getKey()));
+            keys++;
+         }
+      }
+      if (innerNodes != null) {
+         for (InnerNode in : innerNodes) {
+            IndexNode child = in.getIndexNode(segment);
+            if (child != null) {
+               keys += forEachIndexKey(child, segment, consumer);
+            }
+         }
+      }
+      return keys;
+   }
+
    private void updateFileOffsetInFile(int leafOffset, int newFile, int newOffset, short numRecords) throws IOException {
       // Root is -1, so that means the beginning of the file
       long offset = this.offset >= 0 ? this.offset : 0;
@@ -675,6 +735,7 @@ private IndexNode copyWith(IndexRequest request, int cacheSegment, byte[] indexK
       if (leafNodes.length == 0) {
          overwriteHook.setOverwritten(request, cacheSegment, false, -1, -1);
          if (overwriteHook.check(request, -1, -1)) {
+            segment.keyAdded();
             return new IndexNode(segment, prefix, keyParts, new LeafNode[]{new LeafNode(file, offset, (short) 1, cacheSegment)});
          } else {
             segment.getCompactor().free(file, size);
@@ -774,11 +835,13 @@ private IndexNode copyWith(IndexRequest request, int cacheSegment, byte[] indexK
                newLeafNodes = leafNodes;
             }
             segment.getCompactor().free(oldLeafNode.file, hak.getHeader().totalLength());
+            segment.keyRemoved();
          }
       } else {
          // IndexRequest cannot be MOVED or DROPPED when the key is not in the index
          assert recordChange == RecordChange.INCREASE;
          overwriteHook.setOverwritten(request, cacheSegment, false, -1, -1);
+         segment.keyAdded();
 
          // We have to insert the record even if this is a delete request and the key was not found
          // because otherwise we would have incorrect numRecord count. Eventually, Compactor will
@@ -1,5 +1,6 @@
 package org.infinispan.persistence.sifs;
 
+import java.io.File;
 import java.io.IOException;
 
 import org.infinispan.commons.CacheConfigurationException;
@@ -88,4 +89,20 @@ public interface Log extends BasicLogger {
    @LogMessage(level = Logger.Level.ERROR)
    @Message(value = "File id %s encountered an exception while compacting, file may be orphaned", id = 29021)
    void compactorEncounteredException(@Cause Throwable t, int fileId);
+
+   @Message(value = "Compaction workers (%d) should be at least 1.", id = 29022)
+   CacheConfigurationException invalidCompactionWorkers(int value);
+
+   @Message(value = "Compaction rate limit (%d) should not be negative.", id = 29023)
+   CacheConfigurationException invalidCompactionRateLimit(long value);
+
+   @Message(value = "Group commit delay (%d) should not be negative.", id = 29024)
+   CacheConfigurationException invalidGroupCommitDelay(long value);
+
+   @Message(value = "Group commit size (%d) should be at least 1.", id = 29025)
+   CacheConfigurationException invalidGroupCommitSize(int value);
+
+   @LogMessage(level = Logger.Level.WARN)
+   @Message(value = "Cannot rebuild the bloom filter %s, the rebuild will be retried", id = 29026)
+   void cannotRebuildBloomFilter(File bloomFilterFile, @Cause Throwable t);
 }
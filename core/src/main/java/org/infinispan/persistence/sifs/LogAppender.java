@@ -1,5 +1,6 @@
 package org.infinispan.persistence.sifs;
 
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -7,12 +8,19 @@
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.util.Util;
 import org.infinispan.container.entries.ExpiryHelper;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.util.concurrent.CompletionStages;
 import org.infinispan.util.concurrent.NonBlockingManager;
 import org.infinispan.util.logging.LogFactory;
 
@@ -21,9 +29,23 @@
 import io.reactivex.rxjava3.processors.UnicastProcessor;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 
+/**
+ * Appends the log requests to the current log file from a single thread.
+ * <p>
+ * When sync writes are enabled the file is flushed once for a group of writes, and the writes complete after the
+ * flush. By default the group holds the writes that were queued while the previous write was appended. With a group
+ * commit delay, the flush of a group is postponed until the delay elapses or the group reaches the group commit size,
+ * so that writes from more callers share the same flush.
+ */
+@MBean(objectName = "SoftIndexFileStoreLogAppender", description = "Appending of writes to the soft index file store data files")
 public class LogAppender implements Consumer<LogAppender.WriteOperation> {
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass(), Log.class);
 
+   // Maximum number of writes flushed together
+   private static final int MAX_GROUP_SIZE = 1000;
+   // Bucket i of the group size histogram counts the groups with 2^i to 2^(i+1) - 1 writes
+   private static final int GROUP_SIZE_BUCKETS = 32 - Integer.numberOfLeadingZeros(MAX_GROUP_SIZE);
+
    private final NonBlockingManager nonBlockingManager;
    private final Index index;
    private final TemporaryTable temporaryTable;
@@ -31,6 +53,8 @@ public class LogAppender implements Consumer<LogAppender.WriteOperation> {
    private final FileProvider fileProvider;
    private final boolean syncWrites;
    private final int maxFileSize;
+   private final long groupCommitDelay;
+   private final int groupCommitSize;
    // Used to keep track of how many log requests have been submitted. This way if the blocking thread has consumed
    // the same number of log requests it can immediately flush.
    private final AtomicInteger submittedCount = new AtomicInteger();
@@ -38,6 +62,10 @@ public class LogAppender implements Consumer<LogAppender.WriteOperation> {
    // all the log requests that should be completed when the disk is ensured to be flushed
    private final List<Consumer<LogAppender>> toSyncLogRequests;
 
+   private final AtomicLongArray groupSizes = new AtomicLongArray(GROUP_SIZE_BUCKETS);
+   private final LongAdder groupCommits = new LongAdder();
+   private final LongAdder groupCommittedWrites = new LongAdder();
+
    // This buffer is used by the log appender thread to avoid allocating buffers per entry written that are smaller
    // than the header size
    private final java.nio.ByteBuffer REUSED_BUFFER = java.nio.ByteBuffer.allocate(EntryHeader.HEADER_SIZE_11_0);
@@ -50,6 +78,9 @@ public class LogAppender implements Consumer<LogAppender.WriteOperation> {
    private List<LogRequest> delayedLogRequests;
    private FileProvider.Log logFile;
    private long nextExpirationTime = -1;
+   // Bytes appended since the last flush and whether a commit request was scheduled to flush them
+   private int groupBytes;
+   private boolean commitScheduled;
 
    // This is volatile as it can be read from different threads when submitting
    private volatile FlowableProcessor<LogRequest> requestProcessor;
@@ -60,7 +91,8 @@ public class LogAppender implements Consumer<LogAppender.WriteOperation> {
 
    public LogAppender(NonBlockingManager nonBlockingManager, Index index,
                       TemporaryTable temporaryTable, Compactor compactor,
-                      FileProvider fileProvider, boolean syncWrites, int maxFileSize) {
+                      FileProvider fileProvider, boolean syncWrites, int maxFileSize, long groupCommitDelay,
+                      int groupCommitSize) {
       this.nonBlockingManager = nonBlockingManager;
       this.index = index;
       this.temporaryTable = temporaryTable;
@@ -68,6 +100,8 @@ public LogAppender(NonBlockingManager nonBlockingManager, Index index,
       this.fileProvider = fileProvider;
       this.syncWrites = syncWrites;
       this.maxFileSize = maxFileSize;
+      this.groupCommitDelay = groupCommitDelay;
+      this.groupCommitSize = groupCommitSize;
 
       this.toSyncLogRequests = syncWrites ? new ArrayList<>() : null;
    }
@@ -103,6 +137,12 @@ public synchronized void start(Executor executor) {
 
    public synchronized void stop() {
       assert requestProcessor != null;
+      if (syncWrites && groupCommitDelay > 0) {
+         // Flush the writes still waiting for their group commit before the processors are completed
+         LogRequest commitRequest = LogRequest.commitRequest();
+         requestProcessor.onNext(commitRequest);
+         CompletionStages.join(commitRequest);
+      }
       requestProcessor.onComplete();
       requestProcessor = null;
    }
@@ -214,6 +254,10 @@ private void callerAccept(LogRequest request) {
          // This request is created in the same thread - so there can be no dependents
          request.complete(null);
          return;
+      } else if (request.isCommit()) {
+         // Commits only flush the writes that were already appended, so they are never delayed
+         sendToWriteProcessor(request);
+         return;
       } else if (request.isClear()) {
          assert delayedLogRequests == null;
          delayedLogRequests = new ArrayList<>();
@@ -239,6 +283,12 @@ private void sendToWriteProcessor(LogRequest request) {
    public void accept(WriteOperation writeOperation) {
       LogRequest actualRequest = writeOperation.logRequest;
       try {
+         if (actualRequest.isCommit()) {
+            commitScheduled = false;
+            commitGroup();
+            completeRequest(actualRequest);
+            return;
+         }
          if (logFile == null) {
             logFile = fileProvider.getFileForLog();
             log.tracef("Appending records to %s", logFile.fileId);
@@ -256,6 +306,9 @@ public void accept(WriteOperation writeOperation) {
          int actualLength = actualRequest.length();
          if (currentOffset != 0 && currentOffset + actualLength > maxFileSize) {
             // switch to next file
+            if (syncWrites) {
+               commitGroup();
+            }
             logFile.close();
             completePendingLogRequests();
 
@@ -286,12 +339,20 @@ public void accept(WriteOperation writeOperation) {
          } else {
             // This cannot be null when sync writes is true
             toSyncLogRequests.add(la -> la.handleRequestCompletion(actualRequest));
-            if (submittedCount.get() == ++receivedCount || toSyncLogRequests.size() == 1000) {
-               logFile.fileChannel.force(false);
-               completePendingLogRequests();
+            groupBytes += actualLength;
+            boolean drained = submittedCount.get() == ++receivedCount;
+            if (toSyncLogRequests.size() == MAX_GROUP_SIZE || (groupCommitDelay > 0 && groupBytes >= groupCommitSize)) {
+               commitGroup();
+            } else if (drained) {
+               if (groupCommitDelay > 0) {
+                  scheduleCommit();
+               } else {
+                  commitGroup();
+               }
             }
          }
          currentOffset += actualLength;
+         compactor.recordAppended(actualLength);
       } catch (Exception e) {
          log.debugf("Exception encountered while processing log request %s", actualRequest);
          actualRequest.completeExceptionally(e);
@@ -302,10 +363,44 @@ public void complete(Consumer<LogAppender> consumer) throws Throwable {
       consumer.accept(this);
    }
 
+   /**
+    * Flushes the log file and completes all the writes appended since the previous flush. Must only be invoked by
+    * {@link #accept(WriteOperation)} method.
+    */
+   private void commitGroup() throws IOException {
+      int groupSize = toSyncLogRequests.size();
+      if (groupSize == 0) {
+         return;
+      }
+      logFile.fileChannel.force(false);
+      groupSizes.incrementAndGet(31 - Integer.numberOfLeadingZeros(groupSize));
+      groupCommits.increment();
+      groupCommittedWrites.add(groupSize);
+      completePendingLogRequests();
+   }
+
+   /**
+    * Schedules a commit request after the group commit delay, unless one is already pending. Must only be invoked by
+    * {@link #accept(WriteOperation)} method.
+    */
+   private void scheduleCommit() {
+      if (commitScheduled) {
+         return;
+      }
+      commitScheduled = true;
+      nonBlockingManager.asScheduler().scheduleDirect(() -> {
+         FlowableProcessor<LogRequest> processor = requestProcessor;
+         if (processor != null) {
+            processor.onNext(LogRequest.commitRequest());
+         }
+      }, groupCommitDelay, TimeUnit.MILLISECONDS);
+   }
+
    /**
     * Must only be invoked by {@link #accept(WriteOperation)} method.
     */
    private void completePendingLogRequests() {
+      groupBytes = 0;
       if (toSyncLogRequests != null) {
          for (Iterator<Consumer<LogAppender>> iter = toSyncLogRequests.iterator(); iter.hasNext(); ) {
             Consumer<LogAppender> consumer = iter.next();
@@ -315,6 +410,54 @@ private void completePendingLogRequests() {
       }
    }
 
+   @ManagedAttribute(
+         description = "Number of flushes of the data files that made a group of sync writes durable",
+         displayName = "Group commits"
+   )
+   public long getGroupCommits() {
+      return groupCommits.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Average number of sync writes made durable by a single flush",
+         displayName = "Average group commit size"
+   )
+   public double getAverageGroupCommitSize() {
+      long commits = groupCommits.sum();
+      return commits == 0 ? 0 : groupCommittedWrites.sum() / (double) commits;
+   }
+
+   @ManagedOperation(
+         description = "Returns the number of group commits by the number of sync writes made durable together",
+         displayName = "Group commit size histogram"
+   )
+   public String groupCommitSizeHistogram() {
+      StringBuilder sb = new StringBuilder();
+      long[] histogram = getGroupCommitSizes();
+      for (int i = 0; i < histogram.length; ++i) {
+         if (sb.length() > 0) {
+            sb.append(", ");
+         }
+         int from = 1 << i;
+         int to = (from << 1) - 1;
+         sb.append(from);
+         if (to > from) {
+            sb.append('-').append(to);
+         }
+         sb.append('=').append(histogram[i]);
+      }
+      return sb.toString();
+   }
+
+   // Package private for testing
+   long[] getGroupCommitSizes() {
+      long[] histogram = new long[GROUP_SIZE_BUCKETS];
+      for (int i = 0; i < histogram.length; ++i) {
+         histogram[i] = groupSizes.get(i);
+      }
+      return histogram;
+   }
+
    public void setSeqId(long seqId) {
       this.seqId = seqId;
    }
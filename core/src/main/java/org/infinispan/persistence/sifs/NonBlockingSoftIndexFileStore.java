@@ -6,8 +6,10 @@
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -18,6 +20,8 @@
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
+import javax.management.ObjectName;
+
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.configuration.ConfiguredBy;
 import org.infinispan.commons.io.ByteBuffer;
@@ -36,8 +40,11 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.jmx.CacheJmxRegistration;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.PrivateMetadata;
+import org.infinispan.metrics.impl.CacheMetricsRegistration;
 import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration;
 import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
 import org.infinispan.persistence.spi.InitializationContext;
@@ -154,6 +161,8 @@
    private ActionSequencer sizeAndClearSequencer;
    private KeyPartitioner keyPartitioner;
    private InitializationContext ctx;
+   private final List<ObjectName> statisticsObjectNames = new ArrayList<>();
+   private final Set<Object> statisticsMetricIds = new HashSet<>();
 
    @Override
    public Set<Characteristic> characteristics() {
@@ -194,10 +203,15 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       temporaryTable.addSegments(IntSets.immutableRangeSet(cacheConfig.clustering().hash().numSegments()));
 
       fileProvider = new FileProvider(getDataLocation(), configuration.openFilesLimit(), PREFIX_LATEST,
-            configuration.maxFileSize());
+            configuration.maxFileSize(), configuration.memoryMapped() ? configuration.maxMappedSize() : 0);
+      if (configuration.memoryMapped()) {
+         registerStatistics(fileProvider);
+      }
       compactor = new Compactor(ctx.getNonBlockingManager(), fileProvider, temporaryTable, marshaller, timeService,
             keyPartitioner, configuration.maxFileSize(), configuration.compactionThreshold(),
+            configuration.compactionWorkers(), configuration.compactionRateLimit(),
             blockingManager.asExecutor("sifs-compactor"));
+      registerStatistics(compactor);
       try {
          index = new Index(ctx.getNonBlockingManager(), fileProvider, getIndexLocation(), configuration.indexSegments(),
                cacheSegments, configuration.minNodeSize(), configuration.maxNodeSize(), temporaryTable, compactor,
@@ -207,7 +221,11 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       }
       compactor.setIndex(index);
       logAppender = new LogAppender(ctx.getNonBlockingManager(), index, temporaryTable, compactor, fileProvider,
-            configuration.syncWrites(), configuration.maxFileSize());
+            configuration.syncWrites(), configuration.maxFileSize(), configuration.groupCommitDelay(),
+            configuration.groupCommitSize());
+      if (configuration.syncWrites()) {
+         registerStatistics(logAppender);
+      }
       logAppender.start(blockingManager.asExecutor("sifs-log-processor"));
       startIndex();
       final AtomicLong maxSeqId = new AtomicLong(0);
@@ -256,6 +274,39 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       }, "soft-index-start");
    }
 
+   private void registerStatistics(Object statistics) {
+      ComponentRegistry componentRegistry = ctx.getCache().getAdvancedCache().getComponentRegistry();
+      try {
+         CacheJmxRegistration jmxRegistration = componentRegistry.getComponent(CacheJmxRegistration.class);
+         if (jmxRegistration != null && jmxRegistration.enabled()) {
+            statisticsObjectNames.add(jmxRegistration.registerExternalMBean(statistics, jmxRegistration.getGroupName()));
+         }
+         CacheMetricsRegistration metricsRegistration = componentRegistry.getComponent(CacheMetricsRegistration.class);
+         if (metricsRegistration != null && metricsRegistration.metricsEnabled()) {
+            statisticsMetricIds.addAll(metricsRegistration.registerExternalMetrics(statistics, "sifs_"));
+         }
+      } catch (Exception e) {
+         log.debugf(e, "Unable to register the %s statistics of cache %s", statistics.getClass().getSimpleName(), ctx.getCache().getName());
+      }
+   }
+
+   private void unregisterStatistics() {
+      ComponentRegistry componentRegistry = ctx.getCache().getAdvancedCache().getComponentRegistry();
+      try {
+         for (ObjectName objectName : statisticsObjectNames) {
+            componentRegistry.getComponent(CacheJmxRegistration.class).unregisterMBean(objectName);
+         }
+         if (!statisticsMetricIds.isEmpty()) {
+            componentRegistry.getComponent(CacheMetricsRegistration.class).unregisterMetrics(statisticsMetricIds);
+         }
+      } catch (Exception e) {
+         log.debugf(e, "Unable to unregister the file store statistics of cache %s", ctx.getCache().getName());
+      } finally {
+         statisticsObjectNames.clear();
+         statisticsMetricIds.clear();
+      }
+   }
+
    @Override
    public Publisher<MarshallableEntry<K, V>> purgeExpired() {
       return Flowable.defer(() -> {
@@ -458,6 +509,7 @@ public CompletionStage<Void> stop() {
             compactor = null;
             CompletionStages.join(index.stop());
             index = null;
+            unregisterStatistics();
             fileProvider.stop();
             fileProvider = null;
             temporaryTable = null;
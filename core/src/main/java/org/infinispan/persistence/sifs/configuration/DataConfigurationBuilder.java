@@ -1,7 +1,11 @@
 package org.infinispan.persistence.sifs.configuration;
 
 import static org.infinispan.persistence.sifs.configuration.DataConfiguration.DATA_LOCATION;
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.GROUP_COMMIT_DELAY;
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.GROUP_COMMIT_SIZE;
 import static org.infinispan.persistence.sifs.configuration.DataConfiguration.MAX_FILE_SIZE;
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.MAX_MAPPED_SIZE;
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.MEMORY_MAPPED;
 import static org.infinispan.persistence.sifs.configuration.DataConfiguration.SYNC_WRITES;
 
 import org.infinispan.commons.configuration.Builder;
@@ -35,6 +39,26 @@ public DataConfigurationBuilder syncWrites(boolean syncWrites) {
       return this;
    }
 
+   public DataConfigurationBuilder memoryMapped(boolean memoryMapped) {
+      attributes.attribute(MEMORY_MAPPED).set(memoryMapped);
+      return this;
+   }
+
+   public DataConfigurationBuilder maxMappedSize(long maxMappedSize) {
+      attributes.attribute(MAX_MAPPED_SIZE).set(maxMappedSize);
+      return this;
+   }
+
+   public DataConfigurationBuilder groupCommitDelay(long groupCommitDelay) {
+      attributes.attribute(GROUP_COMMIT_DELAY).set(groupCommitDelay);
+      return this;
+   }
+
+   public DataConfigurationBuilder groupCommitSize(int groupCommitSize) {
+      attributes.attribute(GROUP_COMMIT_SIZE).set(groupCommitSize);
+      return this;
+   }
+
    @Override
    public DataConfiguration create() {
       return new DataConfiguration(attributes.protect());
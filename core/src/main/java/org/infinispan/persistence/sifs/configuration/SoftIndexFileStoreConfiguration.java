@@ -19,11 +19,13 @@ public class SoftIndexFileStoreConfiguration extends AbstractStoreConfiguration<
 
    public static final AttributeDefinition<Integer> OPEN_FILES_LIMIT = AttributeDefinition.builder(Attribute.OPEN_FILES_LIMIT, 1000).immutable().build();
    public static final AttributeDefinition<Double> COMPACTION_THRESHOLD = AttributeDefinition.builder(Attribute.COMPACTION_THRESHOLD, 0.5d).immutable().build();
+   public static final AttributeDefinition<Integer> COMPACTION_WORKERS = AttributeDefinition.builder(Attribute.COMPACTION_WORKERS, 1).immutable().build();
+   public static final AttributeDefinition<Long> COMPACTION_RATE_LIMIT = AttributeDefinition.builder(Attribute.COMPACTION_RATE_LIMIT, 0L).immutable().build();
    private final IndexConfiguration index;
    private final DataConfiguration data;
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(SoftIndexFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), OPEN_FILES_LIMIT, COMPACTION_THRESHOLD);
+      return new AttributeSet(SoftIndexFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), OPEN_FILES_LIMIT, COMPACTION_THRESHOLD, COMPACTION_WORKERS, COMPACTION_RATE_LIMIT);
    }
 
    public SoftIndexFileStoreConfiguration(AttributeSet attributes,
@@ -67,6 +69,22 @@ public boolean syncWrites() {
       return data.syncWrites();
    }
 
+   public boolean memoryMapped() {
+      return data.memoryMapped();
+   }
+
+   public long maxMappedSize() {
+      return data.maxMappedSize();
+   }
+
+   public long groupCommitDelay() {
+      return data.groupCommitDelay();
+   }
+
+   public int groupCommitSize() {
+      return data.groupCommitSize();
+   }
+
    public int openFilesLimit() {
       return attributes.attribute(OPEN_FILES_LIMIT).get();
    }
@@ -75,6 +93,14 @@ public double compactionThreshold() {
       return attributes.attribute(COMPACTION_THRESHOLD).get();
    }
 
+   public int compactionWorkers() {
+      return attributes.attribute(COMPACTION_WORKERS).get();
+   }
+
+   public long compactionRateLimit() {
+      return attributes.attribute(COMPACTION_RATE_LIMIT).get();
+   }
+
    public IndexConfiguration index() {
       return index;
    }
@@ -1,7 +1,9 @@
 package org.infinispan.persistence.sifs.configuration;
 
 import static org.infinispan.configuration.cache.AbstractStoreConfiguration.SEGMENTED;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_RATE_LIMIT;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_THRESHOLD;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_WORKERS;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.OPEN_FILES_LIMIT;
 
 import org.infinispan.commons.configuration.Builder;
@@ -121,6 +123,51 @@ public SoftIndexFileStoreConfigurationBuilder syncWrites ( boolean syncWrites){
          return this;
       }
 
+      /**
+       * Sets whether data files that are no longer appended are memory mapped, so that reads are served from the
+       * mapping instead of a positional read on the file.
+       *
+       * Defaults to <code>false</code>.
+       */
+      public SoftIndexFileStoreConfigurationBuilder memoryMapped ( boolean memoryMapped){
+         data.memoryMapped(memoryMapped);
+         return this;
+      }
+
+      /**
+       * Sets the maximum number of bytes of data files that are memory mapped at the same time, when
+       * {@link #memoryMapped(boolean)} is enabled. Files that do not fit are read without mapping them.
+       *
+       * Defaults to <code>268435456</code> (256MB).
+       */
+      public SoftIndexFileStoreConfigurationBuilder maxMappedSize ( long maxMappedSize){
+         data.maxMappedSize(maxMappedSize);
+         return this;
+      }
+
+      /**
+       * Sets the maximum number of milliseconds a write waits for other writes to join its group commit, when
+       * {@link #syncWrites(boolean)} is enabled. All the writes of a group are made durable by a single flush of the
+       * data file and complete together after it.
+       *
+       * Defaults to <code>0</code> (the file is flushed as soon as no more writes are queued).
+       */
+      public SoftIndexFileStoreConfigurationBuilder groupCommitDelay ( long groupCommitDelay){
+         data.groupCommitDelay(groupCommitDelay);
+         return this;
+      }
+
+      /**
+       * Sets the number of written bytes after which a group commit is flushed without waiting for
+       * {@link #groupCommitDelay(long)} to elapse.
+       *
+       * Defaults to <code>1048576</code> (1MB).
+       */
+      public SoftIndexFileStoreConfigurationBuilder groupCommitSize ( int groupCommitSize){
+         data.groupCommitSize(groupCommitSize);
+         return this;
+      }
+
       /**
        * Sets the maximum number of open files.
        *
@@ -141,6 +188,27 @@ public SoftIndexFileStoreConfigurationBuilder compactionThreshold ( double compa
          return this;
       }
 
+      /**
+       * Sets the number of data files that can be compacted concurrently, each into its own file. The files with the
+       * highest ratio of unused space are compacted first.
+       *
+       * Defaults to <code>1</code>.
+       */
+      public SoftIndexFileStoreConfigurationBuilder compactionWorkers ( int compactionWorkers){
+         attributes.attribute(COMPACTION_WORKERS).set(compactionWorkers);
+         return this;
+      }
+
+      /**
+       * Limits the number of bytes per second read from data files by compaction, shared by all the workers.
+       *
+       * Defaults to <code>0</code> (unlimited).
+       */
+      public SoftIndexFileStoreConfigurationBuilder compactionRateLimit ( long compactionRateLimit){
+         attributes.attribute(COMPACTION_RATE_LIMIT).set(compactionRateLimit);
+         return this;
+      }
+
       @Override
       public SoftIndexFileStoreConfiguration create () {
          return new SoftIndexFileStoreConfiguration(attributes.protect(), async.create(), index.create(), data.create());
@@ -171,6 +239,22 @@ protected void validate ( boolean skipClassChecks){
          if (compactionThreshold <= 0 || compactionThreshold > 1) {
             throw log.invalidCompactionThreshold(compactionThreshold);
          }
+         int compactionWorkers = attributes.attribute(COMPACTION_WORKERS).get();
+         if (compactionWorkers < 1) {
+            throw log.invalidCompactionWorkers(compactionWorkers);
+         }
+         long compactionRateLimit = attributes.attribute(COMPACTION_RATE_LIMIT).get();
+         if (compactionRateLimit < 0) {
+            throw log.invalidCompactionRateLimit(compactionRateLimit);
+         }
+         long groupCommitDelay = data.attributes().attribute(DataConfiguration.GROUP_COMMIT_DELAY).get();
+         if (groupCommitDelay < 0) {
+            throw log.invalidGroupCommitDelay(groupCommitDelay);
+         }
+         int groupCommitSize = data.attributes().attribute(DataConfiguration.GROUP_COMMIT_SIZE).get();
+         if (groupCommitSize < 1) {
+            throw log.invalidGroupCommitSize(groupCommitSize);
+         }
       }
 
       @Override
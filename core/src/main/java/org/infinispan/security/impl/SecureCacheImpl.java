@@ -1054,6 +1054,12 @@ public Map<K, CacheEntry<K, V>> getAllCacheEntries(Set<?> keys) {
       return delegate.getAllCacheEntries(keys);
    }
 
+   @Override
+   public CompletableFuture<Map<K, CacheEntry<K, V>>> getAllCacheEntriesAsync(Set<?> keys) {
+      authzManager.checkPermission(subject, AuthorizationPermission.BULK_READ);
+      return delegate.getAllCacheEntriesAsync(keys);
+   }
+
    @Override
    public Map<K, V> getAndPutAll(Map<? extends K, ? extends V> map) {
       authzManager.checkPermission(subject, AuthorizationPermission.BULK_WRITE);
@@ -37,6 +37,7 @@
 import org.infinispan.configuration.cache.BackupFailurePolicy;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
 import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.container.versioning.EntryVersion;
 import org.infinispan.interceptors.impl.ContainerFullException;
@@ -2368,4 +2369,18 @@ CacheConfigurationException storeConfiguredHasBothReadAndWriteOnly(String storeC
 
    @Message(value = "Cache '%s' has number of owners %d but is missing too many members (%d/%d) to reinstall topology", id = 694)
    MissingMembersException missingTooManyMembers(String cacheName, int owners, int missing, int total);
+
+   @Message(value = "SingleFileStore does not support max-entries with the off-heap index", id = 695)
+   CacheConfigurationException singleFileStoreOffHeapIndexDoesNotSupportMaxEntries();
+
+   @LogMessage(level = WARN)
+   @Message(value = "Ignoring the SingleFileStore index file %s, the index will be rebuilt from the data file", id = 696)
+   void ignoringSingleFileStoreIndex(String path, @Cause Throwable cause);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Could not write the SingleFileStore index file %s", id = 697)
+   void errorWritingSingleFileStoreIndex(String path, @Cause Throwable cause);
+
+   @Message(value = "The %s memory allocator requires OFF_HEAP storage but was: %s", id = 698)
+   CacheConfigurationException allocatorRequiresOffHeapStorage(OffHeapAllocatorType allocator, StorageType storage);
 }
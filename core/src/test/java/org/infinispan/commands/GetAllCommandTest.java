@@ -11,6 +11,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.Cache;
 import org.infinispan.configuration.cache.CacheMode;
@@ -152,4 +153,26 @@ public void testGetAllCacheEntries() {
          }
       }
    }
+
+   public void testGetAllCacheEntriesAsync() throws Exception {
+      for (int i = 0; i < numEntries; ++i)
+         advancedCache(i % numNodes).put("key" + i, "value" + i);
+
+      Set<Object> keys = new HashSet<>();
+      for (int i = 0; i < numEntries; i += 2) {
+         keys.add("key" + i);
+      }
+      keys.add("not-present");
+
+      for (Cache<Object, Object> cache : caches()) {
+         Map<Object, CacheEntry<Object, Object>> result = cache.getAdvancedCache().getAllCacheEntriesAsync(keys)
+               .get(10, TimeUnit.SECONDS);
+         assertEquals(result.size(), keys.size() - 1);
+         for (int i = 0; i < numEntries; i += 2) {
+            CacheEntry<Object, Object> entry = result.get("key" + i);
+            assertNotNull(entry);
+            assertEquals(entry.getValue(), "value" + i);
+         }
+      }
+   }
 }
@@ -25,6 +25,7 @@
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.MemoryConfiguration;
 import org.infinispan.configuration.cache.MemoryStorageConfiguration;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
 import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.configuration.parsing.ConfigurationBuilderHolder;
 import org.infinispan.configuration.parsing.ParserRegistry;
@@ -409,6 +410,13 @@ public void testErrorForMultipleThresholds() {
       configBuilder.memory().storage(OFF_HEAP).maxCount(10).maxSize("10TB").build();
    }
 
+   @Test(expectedExceptions = CacheConfigurationException.class,
+         expectedExceptionsMessageRegExp = ".*The POOLED memory allocator requires OFF_HEAP storage.*")
+   public void testPooledAllocatorRequiresOffHeap() {
+      ConfigurationBuilder configBuilder = new ConfigurationBuilder();
+      configBuilder.memory().storage(HEAP).allocator(OffHeapAllocatorType.POOLED).build();
+   }
+
    private void testSerializationAndBack(String xml) {
       // Parse config
       ConfigurationBuilderHolder configurationBuilderHolder = REGISTRY.parse(xml);
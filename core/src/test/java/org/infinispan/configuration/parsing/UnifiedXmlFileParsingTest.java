@@ -41,6 +41,7 @@
 import org.infinispan.configuration.cache.IndexingMode;
 import org.infinispan.configuration.cache.InterceptorConfiguration;
 import org.infinispan.configuration.cache.MemoryConfiguration;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
 import org.infinispan.configuration.cache.PartitionHandlingConfiguration;
 import org.infinispan.configuration.cache.PersistenceConfiguration;
 import org.infinispan.configuration.cache.QueryConfiguration;
@@ -143,6 +144,19 @@ public void check(ConfigurationBuilderHolder holder, int schemaMajor, int schema
 
             query = getConfiguration(holder, "custom-default-max-results").query();
             assertThat(query.hitCountAccuracy()).isEqualTo(1000);
+
+            MemoryConfiguration memory = getConfiguration(holder, "pooled-offheap").memory();
+            assertThat(memory.storage()).isEqualTo(StorageType.OFF_HEAP);
+            assertThat(memory.allocator()).isEqualTo(OffHeapAllocatorType.POOLED);
+
+            SoftIndexFileStoreConfiguration fileStore = (SoftIndexFileStoreConfiguration) getConfiguration(holder, "mapped-file-store").persistence().stores().get(0);
+            assertThat(fileStore.memoryMapped()).isTrue();
+            assertThat(fileStore.maxMappedSize()).isEqualTo(64 * 1024 * 1024);
+            assertThat(fileStore.compactionWorkers()).isEqualTo(4);
+            assertThat(fileStore.compactionRateLimit()).isEqualTo(10 * 1024 * 1024);
+            assertThat(fileStore.syncWrites()).isTrue();
+            assertThat(fileStore.groupCommitDelay()).isEqualTo(5);
+            assertThat(fileStore.groupCommitSize()).isEqualTo(64 * 1024);
          }
       },
       INFINISPAN_140(14, 0) {
@@ -0,0 +1,131 @@
+package org.infinispan.container.impl;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.expiration.impl.InternalExpirationManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.ControlledTimeService;
+import org.mockito.Mockito;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "container.impl.KeyPrefixIndexTest")
+public class KeyPrefixIndexTest extends AbstractInfinispanTest {
+   private static final Metadata METADATA = new EmbeddedMetadata.Builder().build();
+
+   private DefaultDataContainer<Object, Object> dc;
+   private ControlledTimeService timeService;
+
+   @BeforeMethod
+   public void setUp() {
+      dc = new DefaultDataContainer<>(16);
+      InternalEntryFactoryImpl internalEntryFactory = new InternalEntryFactoryImpl();
+      timeService = new ControlledTimeService();
+      TestingUtil.inject(internalEntryFactory, timeService);
+      InternalExpirationManager<?, ?> expirationManager = mock(InternalExpirationManager.class);
+      Mockito.when(expirationManager.entryExpiredInMemory(Mockito.any(), Mockito.anyLong(), Mockito.anyBoolean())).thenReturn(CompletableFutures.completedTrue());
+      TestingUtil.inject(dc, internalEntryFactory, timeService, expirationManager);
+   }
+
+   public void testDisabledByDefault() {
+      dc.put(key("user:1"), "v", METADATA);
+      assertNull(dc.keyPrefixIterator(null, bytes("user:"), null));
+   }
+
+   public void testPrefix() {
+      dc.put(key("user:1"), "v", METADATA);
+      dc.put(key("user:2"), "v", METADATA);
+      assertTrue(dc.enableKeyPrefixIndex());
+      dc.put(key("user:3"), "v", METADATA);
+      dc.put(key("users"), "v", METADATA);
+      dc.put(key("order:1"), "v", METADATA);
+
+      LongAdder visited = new LongAdder();
+      assertEquals(Set.of("user:1", "user:2", "user:3"), keys(dc.keyPrefixIterator(null, bytes("user:"), visited)));
+      assertEquals(3, visited.sum());
+      assertEquals(Set.of("user:1", "user:2", "user:3", "users"), keys(dc.keyPrefixIterator(null, bytes("user"), null)));
+      assertEquals(5, keys(dc.keyPrefixIterator(null, new byte[0], null)).size());
+      assertFalse(dc.keyPrefixIterator(null, bytes("product"), null).hasNext());
+   }
+
+   public void testRemovedKeys() {
+      assertTrue(dc.enableKeyPrefixIndex());
+      dc.put(key("user:1"), "v", METADATA);
+      dc.put(key("user:2"), "v", METADATA);
+      dc.put(key("user:3"), "v", METADATA);
+      dc.remove(key("user:1"));
+      dc.compute(key("user:2"), (k, oldEntry, factory) -> null);
+      assertEquals(Set.of("user:3"), keys(dc.keyPrefixIterator(null, bytes("user:"), null)));
+
+      dc.clear();
+      assertFalse(dc.keyPrefixIterator(null, bytes("user:"), null).hasNext());
+   }
+
+   public void testExpiredEntriesSkipped() {
+      assertTrue(dc.enableKeyPrefixIndex());
+      dc.put(key("user:1"), "v", new EmbeddedMetadata.Builder().lifespan(10, TimeUnit.MILLISECONDS).build());
+      dc.put(key("user:2"), "v", METADATA);
+      timeService.advance(100);
+      LongAdder visited = new LongAdder();
+      assertEquals(Set.of("user:2"), keys(dc.keyPrefixIterator(null, bytes("user:"), visited)));
+      assertEquals(2, visited.sum());
+   }
+
+   public void testNonByteKeys() {
+      assertTrue(dc.enableKeyPrefixIndex());
+      dc.put(key("user:1"), "v", METADATA);
+      dc.put("user:2", "v", METADATA);
+      assertNull(dc.keyPrefixIterator(null, bytes("user:"), null));
+   }
+
+   public void testRemoveStaleKeepsRewrittenKey() {
+      KeyPrefixIndex index = new KeyPrefixIndex(1);
+      WrappedByteArray stale = key("user:1");
+      index.add(0, stale);
+      // The key is written again with an equal object, before the stale one is removed
+      WrappedByteArray rewritten = key("user:1");
+      index.add(0, rewritten);
+      index.removeStale(0, stale);
+      assertEquals(1, index.size());
+      index.removeStale(0, rewritten);
+      assertEquals(0, index.size());
+   }
+
+   public void testPrefixEnd() {
+      assertEquals("abd", new String(KeyPrefixIndex.prefixEnd(bytes("abc")), StandardCharsets.US_ASCII));
+      assertTrue(Arrays.equals(new byte[]{1}, KeyPrefixIndex.prefixEnd(new byte[]{0, (byte) 0xFF, (byte) 0xFF})));
+      assertNull(KeyPrefixIndex.prefixEnd(new byte[]{(byte) 0xFF}));
+   }
+
+   private static Set<String> keys(Iterator<InternalCacheEntry<Object, Object>> it) {
+      Set<String> keys = new TreeSet<>();
+      it.forEachRemaining(ice -> keys.add(new String(((WrappedByteArray) ice.getKey()).getBytes(), StandardCharsets.UTF_8)));
+      return keys;
+   }
+
+   private static WrappedByteArray key(String key) {
+      return new WrappedByteArray(bytes(key));
+   }
+
+   private static byte[] bytes(String s) {
+      return s.getBytes(StandardCharsets.UTF_8);
+   }
+}
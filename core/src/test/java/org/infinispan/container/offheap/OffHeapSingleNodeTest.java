@@ -1,5 +1,6 @@
 package org.infinispan.container.offheap;
 
+import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertNotNull;
 import static org.testng.AssertJUnit.assertNull;
 import static org.testng.AssertJUnit.assertTrue;
@@ -9,17 +10,23 @@
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.infinispan.Cache;
+import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.marshall.WrappedBytes;
 import org.infinispan.commons.time.TimeService;
+import org.infinispan.commons.util.ByRef;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.impl.InternalDataContainer;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.encoding.DataConversion;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.util.ControlledTimeService;
 import org.testng.annotations.Test;
 
+import sun.misc.Unsafe;
+
 /**
  */
 @Test(groups = "functional", testName = "container.offheap.OffHeapSingleNodeTest")
@@ -82,4 +89,41 @@ public void testExpiredEntryCompute() throws IOException, InterruptedException {
       // Now that we did a get, the peek shouldn't return anything
       assertNull(container.peek(keyWB));
    }
+
+   public void testReadOffHeapValue() {
+      Cache<Object, Object> cache = cache(0);
+
+      cache.put("immortal", "value");
+      cache.put("mortal", "value", 10, TimeUnit.MILLISECONDS);
+      cache.put("transient", "value", -1, TimeUnit.MILLISECONDS, 10, TimeUnit.MILLISECONDS);
+
+      WrappedBytes value = (WrappedBytes) cache.getAdvancedCache().getValueDataConversion().toStorage("value");
+
+      assertEquals(value, readOffHeapValue(cache, "immortal"));
+      assertEquals(value, readOffHeapValue(cache, "mortal"));
+      // Max idle has to be updated by the read
+      assertNull(readOffHeapValue(cache, "transient"));
+      assertNull(readOffHeapValue(cache, "missing"));
+
+      timeService.advance(20);
+
+      assertEquals(value, readOffHeapValue(cache, "immortal"));
+      // The expired entry is left to the regular read
+      assertNull(readOffHeapValue(cache, "mortal"));
+      assertNull(cache.get("mortal"));
+   }
+
+   private WrappedBytes readOffHeapValue(Cache<Object, Object> cache, Object key) {
+      Object keyWB = cache.getAdvancedCache().getKeyDataConversion().toStorage(key);
+      int segment = TestingUtil.extractComponent(cache, KeyPartitioner.class).getSegment(keyWB);
+      InternalDataContainer<?, ?> container = TestingUtil.extractComponent(cache, InternalDataContainer.class);
+      ByRef<byte[]> value = new ByRef<>(null);
+      boolean read = container.readOffHeapValue(segment, keyWB, (address, length) -> {
+         byte[] bytes = new byte[length];
+         UnsafeHolder.UNSAFE.copyMemory(null, address, bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, length);
+         value.set(bytes);
+      });
+      assertEquals(read, value.get() != null);
+      return read ? new WrappedByteArray(value.get()) : null;
+   }
 }
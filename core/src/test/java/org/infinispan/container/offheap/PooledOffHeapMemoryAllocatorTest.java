@@ -0,0 +1,127 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "container.offheap.PooledOffHeapMemoryAllocatorTest")
+public class PooledOffHeapMemoryAllocatorTest {
+
+   @DataProvider(name = "classSizes")
+   Object[][] classSizes() {
+      return new Object[][] {
+            { 1, 16 },
+            { 16, 16 },
+            { 17, 32 },
+            { 128, 128 },
+            { 129, 160 },
+            { 250, 256 },
+            { 257, 320 },
+            { 1000, 1024 },
+            { 1025, 1280 },
+            { PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE, PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE },
+      };
+   }
+
+   @Test(dataProvider = "classSizes")
+   public void testClassSizes(long original, long expected) {
+      assertEquals(expected, PooledOffHeapMemoryAllocator.classSize(original));
+   }
+
+   public void testFreedMemoryIsReused() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator();
+      try {
+         long address = allocator.allocate(100);
+         assertEquals(112, allocator.getAllocatedAmount());
+         assertEquals(PooledOffHeapMemoryAllocator.ARENA_SIZE, allocator.getReservedAmount());
+         assertEquals(PooledOffHeapMemoryAllocator.ARENA_SIZE - 100, allocator.getFragmentedAmount());
+
+         allocator.deallocate(address, 100);
+         assertEquals(0, allocator.getAllocatedAmount());
+         // Same size class is served from the thread cache
+         assertEquals(address, allocator.allocate(110));
+         allocator.deallocate(address, 110);
+      } finally {
+         allocator.stop();
+      }
+      assertEquals(0, allocator.getReservedAmount());
+   }
+
+   public void testManyAllocations() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator();
+      try {
+         int count = PooledOffHeapMemoryAllocator.THREAD_CACHE_SIZE * 10;
+         long[] addresses = new long[count];
+         Set<Long> distinct = new HashSet<>();
+         for (int i = 0; i < count; ++i) {
+            addresses[i] = allocator.allocate(48);
+            assertTrue(distinct.add(addresses[i]));
+         }
+         assertEquals(count * 48L, allocator.getAllocatedAmount());
+         for (long address : addresses) {
+            allocator.deallocate(address, 48);
+         }
+         assertEquals(0, allocator.getAllocatedAmount());
+         long reserved = allocator.getReservedAmount();
+         // Everything fits in the arena already reserved
+         for (int i = 0; i < count; ++i) {
+            addresses[i] = allocator.allocate(40);
+         }
+         assertEquals(reserved, allocator.getReservedAmount());
+         for (long address : addresses) {
+            allocator.deallocate(address, 40);
+         }
+      } finally {
+         allocator.stop();
+      }
+   }
+
+   public void testTerminatedThreadCacheIsReclaimed() throws InterruptedException {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator();
+      try {
+         long[] freed = new long[1];
+         Thread thread = new Thread(() -> {
+            freed[0] = allocator.allocate(48);
+            // The block stays in the cache of this thread
+            allocator.deallocate(freed[0], 48);
+         });
+         thread.start();
+         thread.join();
+
+         Set<Long> addresses = new HashSet<>();
+         for (int i = 0; i < PooledOffHeapMemoryAllocator.THREAD_CACHE_BATCH; ++i) {
+            addresses.add(allocator.allocate(48));
+         }
+         assertTrue(addresses.contains(freed[0]));
+         for (long address : addresses) {
+            allocator.deallocate(address, 48);
+         }
+      } finally {
+         allocator.stop();
+      }
+   }
+
+   public void testLargeAllocationsAreNotPooled() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator();
+      try {
+         long size = PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE + 1;
+         long address = allocator.allocate(size);
+         long expected = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(size);
+         assertEquals(expected, allocator.getAllocatedAmount());
+         assertEquals(expected, allocator.getReservedAmount());
+         assertEquals(0, allocator.getFragmentedAmount());
+         allocator.deallocate(address, size);
+         assertEquals(0, allocator.getReservedAmount());
+      } finally {
+         allocator.stop();
+      }
+   }
+}
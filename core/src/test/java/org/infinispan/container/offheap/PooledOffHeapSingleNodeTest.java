@@ -0,0 +1,23 @@
+package org.infinispan.container.offheap;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
+import org.infinispan.configuration.cache.StorageType;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the off-heap single node tests with the {@link PooledOffHeapMemoryAllocator}.
+ */
+@Test(groups = "functional", testName = "container.offheap.PooledOffHeapSingleNodeTest")
+public class PooledOffHeapSingleNodeTest extends OffHeapSingleNodeTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder dcc = getDefaultClusteredCacheConfig(CacheMode.LOCAL, false);
+      dcc.memory().storage(StorageType.OFF_HEAP).allocator(OffHeapAllocatorType.POOLED);
+      addClusterEnabledCacheManager(dcc);
+
+      configureTimeService();
+   }
+}
@@ -0,0 +1,36 @@
+package org.infinispan.container.offheap;
+
+import org.infinispan.commons.util.MemoryUnit;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.transaction.TransactionMode;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the off-heap size tests with the {@link PooledOffHeapMemoryAllocator}, whose allocations are rounded to a size
+ * class.
+ *
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "container.offheap.PooledOffHeapSizeTest")
+public class PooledOffHeapSizeTest extends OffHeapSizeTest {
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder
+            .memory()
+               .storageType(StorageType.OFF_HEAP)
+               .allocator(OffHeapAllocatorType.POOLED)
+               .size(MemoryUnit.MEGABYTES.toBytes(10))
+               .evictionType(EvictionType.MEMORY)
+               .evictionStrategy(EvictionStrategy.EXCEPTION)
+            .transaction()
+               .transactionMode(TransactionMode.TRANSACTIONAL);
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+}
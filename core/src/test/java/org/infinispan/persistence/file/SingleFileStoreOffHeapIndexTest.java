@@ -0,0 +1,95 @@
+package org.infinispan.persistence.file;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the single file store tests with the index kept off-heap and written to disk on stop.
+ *
+ * @since 15.0
+ */
+@Test(groups = "unit", testName = "persistence.SingleFile.SingleFileStoreOffHeapIndexTest")
+public class SingleFileStoreOffHeapIndexTest extends SingleFileStoreTest {
+
+   @Factory
+   @Override
+   public Object[] factory() {
+      return new Object[] {
+            new SingleFileStoreOffHeapIndexTest().segmented(false),
+            new SingleFileStoreOffHeapIndexTest().segmented(true),
+      };
+   }
+
+   @Override
+   protected SingleFileStoreConfigurationBuilder createCacheStoreConfig(PersistenceConfigurationBuilder lcb) {
+      return super.createCacheStoreConfig(lcb).offHeapIndex(true);
+   }
+
+   public void testRestartWithIndexFile() {
+      writeAndDeleteEntries();
+      File indexFile = indexFile();
+
+      store.stopAndWait();
+      assertTrue(indexFile.exists());
+
+      startStore(store);
+      // The index file is only valid until the data file is modified again
+      assertFalse(indexFile.exists());
+      assertEntries();
+      SingleFileStore<?, ?> sfs = (SingleFileStore<?, ?>) store.delegate();
+      assertTrue("Free: " + sfs.getFreeList(), sfs.getFreeList().size() > 0);
+   }
+
+   public void testRestartWithCorruptIndexFile() throws IOException {
+      writeAndDeleteEntries();
+      File indexFile = indexFile();
+
+      store.stopAndWait();
+      try (RandomAccessFile raf = new RandomAccessFile(indexFile, "rw")) {
+         raf.setLength(raf.length() / 2);
+      }
+
+      startStore(store);
+      assertFalse(indexFile.exists());
+      assertEntries();
+   }
+
+   private void writeAndDeleteEntries() {
+      for (int i = 0; i < 100; ++i) {
+         store.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+      for (int i = 0; i < 10; ++i) {
+         assertTrue(store.delete(keyToStorage("k" + i)));
+      }
+      // Overwrite with a bigger value to free the previous entry
+      store.write(marshalledEntry(internalCacheEntry("k50", "a bigger value for k50", -1)));
+   }
+
+   private void assertEntries() {
+      assertEquals(90, store.sizeWait(segments));
+      for (int i = 0; i < 10; ++i) {
+         assertNull(store.loadEntry(keyToStorage("k" + i)));
+      }
+      for (int i = 10; i < 100; ++i) {
+         Object expected = valueToStorage(i == 50 ? "a bigger value for k50" : "v" + i);
+         assertEquals(expected, store.loadEntry(keyToStorage("k" + i)).getValue());
+      }
+   }
+
+   private File indexFile() {
+      File file = TestingUtil.extractField(store.delegate(), "file");
+      return SingleFileStore.getIndexFile(file);
+   }
+}
@@ -0,0 +1,50 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.nio.file.Paths;
+
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the soft index file store tests reading sealed data files through memory mappings.
+ *
+ * @since 15.0
+ */
+@Test(groups = "unit", testName = "persistence.sifs.MemoryMappedSoftIndexFileStoreTest")
+public class MemoryMappedSoftIndexFileStoreTest extends SoftIndexFileStoreTest {
+
+   private static final int MAX_MAPPED_SIZE = 4000;
+
+   @Override
+   protected Configuration buildConfig(ConfigurationBuilder configurationBuilder) {
+      return configurationBuilder.persistence()
+            .addSoftIndexFileStore()
+            .dataLocation(Paths.get(tmpDirectory, "data").toString())
+            .indexLocation(Paths.get(tmpDirectory, "index").toString())
+            .maxFileSize(1000)
+            .memoryMapped(true)
+            .maxMappedSize(MAX_MAPPED_SIZE)
+            .build();
+   }
+
+   public void testReadsFromMappedFiles() {
+      int count = 200;
+      for (int i = 0; i < count; ++i) {
+         store.write(marshalledEntry(internalCacheEntry("key" + i, "value" + i, -1)));
+      }
+      for (int i = 0; i < count; ++i) {
+         MarshallableEntry<?, ?> entry = store.loadEntry("key" + i);
+         assertEquals("value" + i, entry.getValue());
+      }
+      FileProvider fileProvider = TestingUtil.extractField(store.delegate(), "fileProvider");
+      assertTrue(fileProvider.getMappedReads() > 0);
+      // Only some of the sealed files fit in the mapped size
+      assertTrue(fileProvider.getMappedBytes() <= MAX_MAPPED_SIZE);
+   }
+}
@@ -0,0 +1,59 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.concurrent.AggregateCompletionStage;
+import org.infinispan.util.concurrent.CompletionStages;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the soft index file store tests with sync writes made durable by group commits.
+ *
+ * @since 15.0
+ */
+@Test(groups = "unit", testName = "persistence.sifs.SoftIndexFileStoreGroupCommitTest")
+public class SoftIndexFileStoreGroupCommitTest extends SoftIndexFileStoreTest {
+
+   @Override
+   protected Configuration buildConfig(ConfigurationBuilder configurationBuilder) {
+      return configurationBuilder.persistence()
+            .addSoftIndexFileStore()
+            .dataLocation(Paths.get(tmpDirectory, "data").toString())
+            .indexLocation(Paths.get(tmpDirectory, "index").toString())
+            .maxFileSize(1000)
+            .syncWrites(true)
+            .groupCommitDelay(5)
+            .groupCommitSize(64 * 1024)
+            .build();
+   }
+
+   public void testConcurrentWritesShareGroupCommits() {
+      LogAppender logAppender = TestingUtil.extractField(store.delegate(), "logAppender");
+      long commitsBefore = logAppender.getGroupCommits();
+
+      int count = 100;
+      AggregateCompletionStage<Void> writes = CompletionStages.aggregateCompletionStage();
+      for (int i = 0; i < count; ++i) {
+         MarshallableEntry<Object, Object> entry = marshalledEntry(internalCacheEntry("key" + i, "value" + i, -1));
+         writes.dependsOn(store.write(keyPartitioner.getSegment(entry.getKey()), entry));
+      }
+      CompletionStages.join(writes.freeze());
+
+      for (int i = 0; i < count; ++i) {
+         assertEquals("value" + i, store.loadEntry("key" + i).getValue());
+      }
+      long commits = logAppender.getGroupCommits() - commitsBefore;
+      assertTrue(commits > 0);
+      assertTrue("Expected writes to share flushes, but there were " + commits, commits < count);
+      assertTrue(logAppender.getAverageGroupCommitSize() > 1);
+      assertEquals(logAppender.getGroupCommits(), Arrays.stream(logAppender.getGroupCommitSizes()).sum());
+   }
+}
@@ -0,0 +1,51 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.nio.file.Paths;
+
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.concurrent.CompletionStages;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the soft index file store tests with several compaction workers.
+ *
+ * @since 15.0
+ */
+@Test(groups = "unit", testName = "persistence.sifs.SoftIndexFileStoreParallelCompactionTest")
+public class SoftIndexFileStoreParallelCompactionTest extends SoftIndexFileStoreTest {
+
+   @Override
+   protected Configuration buildConfig(ConfigurationBuilder configurationBuilder) {
+      return configurationBuilder.persistence()
+            .addSoftIndexFileStore()
+            .dataLocation(Paths.get(tmpDirectory, "data").toString())
+            .indexLocation(Paths.get(tmpDirectory, "index").toString())
+            .maxFileSize(1000)
+            .compactionWorkers(4)
+            .build();
+   }
+
+   public void testCompactionStatistics() {
+      int count = 100;
+      for (int round = 0; round < 5; ++round) {
+         for (int i = 0; i < count; ++i) {
+            store.write(marshalledEntry(internalCacheEntry("key" + i, "value" + round + "-" + i, -1)));
+         }
+      }
+      Compactor compactor = TestingUtil.extractField(store.delegate(), "compactor");
+      CompletionStages.join(compactor.forceCompactionForAllNonLogFiles());
+
+      for (int i = 0; i < count; ++i) {
+         assertEquals("value4-" + i, store.loadEntry("key" + i).getValue());
+      }
+      assertTrue(compactor.getCompactedFiles() > 0);
+      assertTrue(compactor.getCompactedBytes() >= compactor.getCompactionWrittenBytes());
+      assertTrue(compactor.getWriteAmplification() >= 1);
+      assertEquals(0, compactor.getCompactionBacklog());
+   }
+}
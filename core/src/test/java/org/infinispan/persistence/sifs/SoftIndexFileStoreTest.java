@@ -1,8 +1,17 @@
 package org.infinispan.persistence.sifs;
 
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.infinispan.commons.test.CommonsTestingUtil;
 import org.infinispan.commons.util.Util;
@@ -11,6 +20,7 @@
 import org.infinispan.persistence.BaseNonBlockingStoreTest;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.NonBlockingStore;
+import org.infinispan.test.TestingUtil;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -60,6 +70,79 @@ public void testOverrideWithExpirableAndCompaction() throws InterruptedException
       assertNull(entry != null ? entry.getKey() + "=" + entry.getValue() : null, entry);
    }
 
+   public void testBloomFilterPersistedOnStop() throws IOException {
+      for (int i = 0; i < 100; ++i) {
+         store.write(marshalledEntry(internalCacheEntry("key" + i, "value" + i, -1)));
+      }
+      for (int i = 0; i < 100; i += 2) {
+         store.delete("key" + i);
+      }
+      store.stop();
+      assertFalse(bloomFilterFiles().isEmpty());
+      startStore(store);
+      // The files are removed as soon as the index is modifiable again
+      assertTrue(bloomFilterFiles().isEmpty());
+      // Removing a key does not clear its bits
+      assertEquals(100, bloomFilterCount("filterInsertions"));
+      // The tombstones stay in the index until they are compacted
+      assertEquals(100, bloomFilterCount("indexKeys"));
+      for (int i = 0; i < 100; ++i) {
+         MarshallableEntry<?, ?> entry = store.loadEntry("key" + i);
+         assertEquals(i % 2 == 0 ? null : "value" + i, entry == null ? null : entry.getValue());
+      }
+      assertNull(store.loadEntry("missing"));
+   }
+
+   public void testBloomFilterRebuiltWhenMissing() throws IOException {
+      for (int i = 0; i < 100; ++i) {
+         store.write(marshalledEntry(internalCacheEntry("key" + i, "value" + i, -1)));
+      }
+      for (int i = 0; i < 100; i += 2) {
+         store.delete("key" + i);
+      }
+      store.stop();
+      for (Path file : bloomFilterFiles()) {
+         Files.delete(file);
+      }
+      startStore(store);
+      // Only the keys still referenced by the index are added back, tombstones included until they are compacted
+      long keys = bloomFilterCount("filterInsertions");
+      assertTrue(keys >= 50 && keys <= 100);
+      assertEquals(keys, bloomFilterCount("indexKeys"));
+      assertEquals(0, bloomFilterCount("filterRemovals"));
+      for (int i = 1; i < 100; i += 2) {
+         assertEquals("value" + i, store.loadEntry("key" + i).getValue());
+      }
+   }
+
+   public void testOverwrittenRecordsAreNotBloomFilterRemovals() {
+      for (int i = 0; i < 100; ++i) {
+         store.write(marshalledEntry(internalCacheEntry("foo", "bar" + i, -1)));
+      }
+      store.stop();
+      startStore(store);
+      // Compaction drops the overwritten records, the key itself is still in the index
+      assertEquals(1, bloomFilterCount("indexKeys"));
+      assertEquals(0, bloomFilterCount("filterRemovals"));
+      assertEquals("bar99", store.loadEntry("foo").getValue());
+   }
+
+   private List<Path> bloomFilterFiles() throws IOException {
+      try (Stream<Path> files = Files.walk(Paths.get(tmpDirectory, "index"))) {
+         return files.filter(p -> p.getFileName().toString().endsWith(".bloom")).collect(Collectors.toList());
+      }
+   }
+
+   private long bloomFilterCount(String fieldName) {
+      Index index = TestingUtil.extractField(store.delegate(), "index");
+      Index.Segment[] segments = TestingUtil.extractField(index, "segments");
+      long count = 0;
+      for (Index.Segment segment : segments) {
+         count += (long) TestingUtil.extractField(segment, fieldName);
+      }
+      return count;
+   }
+
    private void writeGibberish() {
       for (int i = 0; i < 100; ++i) {
          store.write(marshalledEntry(internalCacheEntry("foo", "bar", -1)));
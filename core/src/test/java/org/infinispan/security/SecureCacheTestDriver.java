@@ -728,6 +728,11 @@ public void testGetAllCacheEntries_Set(SecureCache<String, String> cache) {
       cache.getAllCacheEntries(Collections.emptySet());
    }
 
+   @TestCachePermission(AuthorizationPermission.BULK_READ)
+   public void testGetAllCacheEntriesAsync_Set(SecureCache<String, String> cache) {
+      cache.getAllCacheEntriesAsync(Collections.emptySet());
+   }
+
    @TestCachePermission(AuthorizationPermission.BULK_READ)
    public void testCacheEntrySet(SecureCache<String, String> cache) {
       cache.getAdvancedCache().getAllCacheEntries(Collections.emptySet());
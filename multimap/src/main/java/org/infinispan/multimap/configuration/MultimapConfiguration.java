@@ -0,0 +1,45 @@
+package org.infinispan.multimap.configuration;
+
+import org.infinispan.commons.configuration.BuiltBy;
+import org.infinispan.commons.configuration.attributes.AttributeDefinition;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+
+/**
+ * The global configuration of the multimap module.
+ *
+ * @since 15.0
+ */
+@BuiltBy(MultimapConfigurationBuilder.class)
+public class MultimapConfiguration {
+
+   static final AttributeDefinition<Boolean> PACKED_BUCKETS = AttributeDefinition.builder("packed-buckets", false)
+         .immutable().build();
+
+   private final AttributeSet attributes;
+
+   MultimapConfiguration(AttributeSet attributes) {
+      this.attributes = attributes;
+   }
+
+   static AttributeSet attributeDefinitionSet() {
+      return new AttributeSet(MultimapConfiguration.class, PACKED_BUCKETS);
+   }
+
+   /**
+    * @return whether the buckets whose elements are all {@code byte[]} are written in the packed layout
+    */
+   public boolean packedBuckets() {
+      return attributes.attribute(PACKED_BUCKETS).get();
+   }
+
+   AttributeSet attributes() {
+      return attributes;
+   }
+
+   @Override
+   public String toString() {
+      return "MultimapConfiguration{" +
+            "attributes=" + attributes +
+            '}';
+   }
+}
@@ -0,0 +1,61 @@
+package org.infinispan.multimap.configuration;
+
+import org.infinispan.commons.configuration.Builder;
+import org.infinispan.commons.configuration.Combine;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+
+/**
+ * The {@link MultimapConfiguration} builder, added with
+ * {@link GlobalConfigurationBuilder#addModule(Class) addModule(MultimapConfigurationBuilder.class)}.
+ *
+ * @since 15.0
+ */
+public class MultimapConfigurationBuilder implements Builder<MultimapConfiguration> {
+
+   private static final MultimapConfiguration DEFAULT = new MultimapConfigurationBuilder(null).create();
+
+   private final AttributeSet attributes = MultimapConfiguration.attributeDefinitionSet();
+
+   public MultimapConfigurationBuilder(GlobalConfigurationBuilder builder) {
+   }
+
+   @Override
+   public AttributeSet attributes() {
+      return attributes;
+   }
+
+   /**
+    * @return the default {@link MultimapConfiguration}.
+    */
+   public static MultimapConfiguration defaultConfiguration() {
+      return DEFAULT;
+   }
+
+   /**
+    * Writes the buckets whose elements are all {@code byte[]}, such as the ones created through the RESP endpoint, in
+    * a compact layout instead of wrapping every element.
+    * <p>
+    * Nodes running an earlier version only read the wrapped layout. Only enable it once every node of the cluster, and
+    * every node sharing its stores, runs a version which reads the packed layout. Packed buckets are always read.
+    * <p>
+    * The marshallers of the buckets are shared by the cache managers of the JVM, which must all use the same value.
+    * <p>
+    * Default value is {@code false}.
+    */
+   public MultimapConfigurationBuilder packedBuckets(boolean packedBuckets) {
+      attributes.attribute(MultimapConfiguration.PACKED_BUCKETS).set(packedBuckets);
+      return this;
+   }
+
+   @Override
+   public MultimapConfiguration create() {
+      return new MultimapConfiguration(attributes.protect());
+   }
+
+   @Override
+   public Builder<?> read(MultimapConfiguration template, Combine combine) {
+      this.attributes.read(template.attributes(), combine);
+      return this;
+   }
+}
@@ -0,0 +1,120 @@
+package org.infinispan.multimap.impl;
+
+/**
+ * A sub command of BITFIELD, reading, writing or incrementing an integer stored at any bit offset of a string value.
+ *
+ * @since 15.0
+ */
+public final class BitfieldOperation {
+   public enum Type {
+      GET, SET, INCRBY
+   }
+
+   public enum Overflow {
+      WRAP, SAT, FAIL
+   }
+
+   private final Type type;
+   private final boolean signed;
+   private final int bits;
+   private final long offset;
+   private final long value;
+   private final Overflow overflow;
+
+   public BitfieldOperation(Type type, boolean signed, int bits, long offset, long value, Overflow overflow) {
+      this.type = type;
+      this.signed = signed;
+      this.bits = bits;
+      this.offset = offset;
+      this.value = value;
+      this.overflow = overflow;
+   }
+
+   public Type type() {
+      return type;
+   }
+
+   public boolean signed() {
+      return signed;
+   }
+
+   public int bits() {
+      return bits;
+   }
+
+   public long offset() {
+      return offset;
+   }
+
+   /**
+    * @return the value to set, or the increment
+    */
+   public long value() {
+      return value;
+   }
+
+   public Overflow overflow() {
+      return overflow;
+   }
+
+   /**
+    * Applies the operation to the value.
+    *
+    * @param holder holds the value, replaced by the updated value when the operation writes
+    * @return the reply of the operation, null when the overflow policy is {@link Overflow#FAIL} and the result
+    * overflows
+    */
+   public Long apply(byte[][] holder) {
+      long old = Bitmaps.getBits(holder[0], offset, bits, signed);
+      if (type == Type.GET) {
+         return old;
+      }
+      long result;
+      if (type == Type.SET) {
+         result = value;
+      } else {
+         result = old + value;
+         // The sum overflows a long, so it is out of range whatever the number of bits
+         if (((old ^ result) & (value ^ result)) < 0) {
+            if (overflow == Overflow.FAIL) {
+               return null;
+            }
+            result = overflow == Overflow.WRAP ? result : value > 0 ? max() : min();
+         }
+      }
+      if (result > max() || result < min()) {
+         switch (overflow) {
+            case FAIL:
+               return null;
+            case SAT:
+               result = result > max() ? max() : min();
+               break;
+            default:
+               result = wrap(result);
+         }
+      }
+      holder[0] = Bitmaps.setBits(holder[0], offset, bits, result);
+      return type == Type.SET ? old : result;
+   }
+
+   private long max() {
+      return signed ? (bits == Long.SIZE ? Long.MAX_VALUE : (1L << (bits - 1)) - 1) : (1L << bits) - 1;
+   }
+
+   private long min() {
+      return signed ? (bits == Long.SIZE ? Long.MIN_VALUE : -(1L << (bits - 1))) : 0;
+   }
+
+   private long wrap(long v) {
+      if (signed) {
+         return (v << (Long.SIZE - bits)) >> (Long.SIZE - bits);
+      }
+      return v & ((1L << bits) - 1);
+   }
+
+   @Override
+   public String toString() {
+      return "BitfieldOperation{" + type + " " + (signed ? "i" : "u") + bits + " " + offset + " " + value +
+            " " + overflow + '}';
+   }
+}
@@ -0,0 +1,245 @@
+package org.infinispan.multimap.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bit operations on string values, as in the Redis bitmap commands.
+ * <p>
+ * The bits are numbered from the most significant bit of the first byte. Bit counts, searches and the bitwise
+ * operations read the value one long at a time, so they touch each word once instead of each byte.
+ *
+ * @since 15.0
+ */
+public final class Bitmaps {
+   /**
+    * The largest bit offset, so that a value is at most 512 MB like in Redis.
+    */
+   public static final long MAX_BIT_OFFSET = (1L << 32) - 1;
+   // Big endian, so that the leading zeros of a word are the first bits of its bytes
+   private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+   private static final byte[] EMPTY = new byte[0];
+
+   public enum Operation {
+      AND, OR, XOR, NOT
+   }
+
+   private Bitmaps() { }
+
+   public static boolean getBit(byte[] value, long offset) {
+      long b = offset >>> 3;
+      if (b >= value.length) {
+         return false;
+      }
+      return (value[(int) b] & (0x80 >>> (offset & 7))) != 0;
+   }
+
+   /**
+    * Sets the bit, growing the value with zeros if it is shorter than the offset.
+    *
+    * @return the value with the bit set, which may be a new array
+    */
+   public static byte[] setBit(byte[] value, long offset, boolean bit) {
+      int b = (int) (offset >>> 3);
+      if (b >= value.length) {
+         value = Arrays.copyOf(value, b + 1);
+      }
+      int mask = 0x80 >>> (offset & 7);
+      value[b] = (byte) (bit ? value[b] | mask : value[b] & ~mask);
+      return value;
+   }
+
+   /**
+    * Counts the bits set between start and end, both inclusive. Negative positions count from the end of the value.
+    *
+    * @param bitUnit whether the positions are bits, or else bytes
+    */
+   public static long bitCount(byte[] value, long start, long end, boolean bitUnit) {
+      long length = bitUnit ? value.length * 8L : value.length;
+      start = start < 0 ? Math.max(0, length + start) : start;
+      end = end < 0 ? Math.max(0, length + end) : Math.min(end, length - 1);
+      if (start > end || length == 0) {
+         return 0;
+      }
+      if (!bitUnit) {
+         return countBytes(value, (int) start, (int) end);
+      }
+      int first = (int) (start >>> 3);
+      int last = (int) (end >>> 3);
+      long count = countBytes(value, first, last);
+      // Remove the bits of the first and last bytes that are out of the range
+      count -= Integer.bitCount(value[first] & ~(0xFF >>> (start & 7)) & 0xFF);
+      count -= Integer.bitCount(value[last] & (0xFF >>> ((end & 7) + 1)));
+      return count;
+   }
+
+   private static long countBytes(byte[] value, int from, int to) {
+      long count = 0;
+      int i = from;
+      for (; i + Long.BYTES <= to + 1; i += Long.BYTES) {
+         count += Long.bitCount((long) LONGS.get(value, i));
+      }
+      for (; i <= to; ++i) {
+         count += Integer.bitCount(value[i] & 0xFF);
+      }
+      return count;
+   }
+
+   /**
+    * Finds the first bit with the given value between start and end, both inclusive. Negative positions count from
+    * the end of the value.
+    *
+    * @param endGiven whether the end is given, otherwise a search for a clear bit that only finds set bits returns the
+    *                 position after the value, as the value is considered padded with zeros
+    * @param bitUnit  whether the positions are bits, or else bytes
+    * @return the position of the bit from the start of the value, or -1 if no bit in the range has the value
+    */
+   public static long bitPos(byte[] value, boolean bit, long start, long end, boolean endGiven, boolean bitUnit) {
+      long length = bitUnit ? value.length * 8L : value.length;
+      start = start < 0 ? Math.max(0, length + start) : start;
+      end = end < 0 ? Math.max(0, length + end) : Math.min(end, length - 1);
+      if (start > end || length == 0) {
+         return -1;
+      }
+      long startBit = bitUnit ? start : start * 8;
+      long endBit = bitUnit ? end : end * 8 + 7;
+      long pos = firstBit(value, bit, startBit, endBit);
+      if (pos < 0 && !bit && !endGiven) {
+         return endBit + 1;
+      }
+      return pos;
+   }
+
+   private static long firstBit(byte[] value, boolean bit, long startBit, long endBit) {
+      long i = startBit;
+      for (; i <= endBit && (i & 7) != 0; ++i) {
+         if (getBit(value, i) == bit) {
+            return i;
+         }
+      }
+      // Look for a word, and then a byte, with a bit that differs from the bits not searched for
+      int b = (int) (i >>> 3);
+      long flipWord = bit ? 0 : -1L;
+      for (; (b + Long.BYTES) * 8L - 1 <= endBit; b += Long.BYTES) {
+         long word = (long) LONGS.get(value, b) ^ flipWord;
+         if (word != 0) {
+            return b * 8L + Long.numberOfLeadingZeros(word);
+         }
+      }
+      int flip = bit ? 0 : 0xFF;
+      for (; b * 8L + 7 <= endBit; ++b) {
+         int v = (value[b] ^ flip) & 0xFF;
+         if (v != 0) {
+            return b * 8L + Integer.numberOfLeadingZeros(v) - 24;
+         }
+      }
+      for (i = b * 8L; i <= endBit; ++i) {
+         if (getBit(value, i) == bit) {
+            return i;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * Applies the bitwise operation to the sources, the shorter sources being padded with zeros.
+    *
+    * @param sources the values, an empty array for a missing key. {@link Operation#NOT} requires a single source
+    * @return the result, as long as the longest source
+    */
+   public static byte[] bitOp(Operation operation, List<byte[]> sources) {
+      int length = 0;
+      for (byte[] source : sources) {
+         length = Math.max(length, source.length);
+      }
+      if (length == 0) {
+         return EMPTY;
+      }
+      byte[] result;
+      switch (operation) {
+         case NOT:
+            if (sources.size() != 1) {
+               throw new IllegalArgumentException("NOT requires a single source");
+            }
+            result = sources.get(0).clone();
+            apply(Operation.XOR, result, null, length);
+            return result;
+         case AND:
+            result = Arrays.copyOf(sources.get(0), length);
+            for (int s = 1; s < sources.size(); ++s) {
+               byte[] source = sources.get(s);
+               apply(Operation.AND, result, source, source.length);
+               // The source is padded with zeros
+               Arrays.fill(result, source.length, length, (byte) 0);
+            }
+            return result;
+         default:
+            result = new byte[length];
+            for (byte[] source : sources) {
+               apply(operation, result, source, source.length);
+            }
+            return result;
+      }
+   }
+
+   // Applies the operation to the first bytes of the result. A null source stands for all bits set
+   private static void apply(Operation operation, byte[] result, byte[] source, int length) {
+      int i = 0;
+      for (; i + Long.BYTES <= length; i += Long.BYTES) {
+         long r = (long) LONGS.get(result, i);
+         long s = source == null ? -1L : (long) LONGS.get(source, i);
+         LONGS.set(result, i, apply(operation, r, s));
+      }
+      for (; i < length; ++i) {
+         long s = source == null ? -1L : source[i];
+         result[i] = (byte) apply(operation, result[i], s);
+      }
+   }
+
+   private static long apply(Operation operation, long r, long s) {
+      switch (operation) {
+         case AND:
+            return r & s;
+         case OR:
+            return r | s;
+         default:
+            return r ^ s;
+      }
+   }
+
+   /**
+    * Reads an integer of the given number of bits, starting from the given bit. The bits after the value are zeros.
+    */
+   public static long getBits(byte[] value, long offset, int bits, boolean signed) {
+      long v = 0;
+      for (int j = 0; j < bits; ++j) {
+         v <<= 1;
+         if (getBit(value, offset + j)) {
+            v |= 1;
+         }
+      }
+      if (signed && bits < Long.SIZE && (v & (1L << (bits - 1))) != 0) {
+         v |= -1L << bits;
+      }
+      return v;
+   }
+
+   /**
+    * Writes the lowest bits of the integer, starting from the given bit.
+    *
+    * @return the value with the bits set, which may be a new array
+    */
+   public static byte[] setBits(byte[] value, long offset, int bits, long v) {
+      int last = (int) ((offset + bits - 1) >>> 3);
+      if (last >= value.length) {
+         value = Arrays.copyOf(value, last + 1);
+      }
+      for (int j = 0; j < bits; ++j) {
+         value = setBit(value, offset + j, ((v >>> (bits - 1 - j)) & 1) != 0);
+      }
+      return value;
+   }
+}
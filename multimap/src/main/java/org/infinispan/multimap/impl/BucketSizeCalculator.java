@@ -0,0 +1,205 @@
+package org.infinispan.multimap.impl;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.CacheEntrySizeCalculator;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.PrimitiveEntrySizeCalculator;
+import org.infinispan.marshall.core.WrappedByteArraySizeCalculator;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.multimap.impl.internal.MultimapObjectWrapper;
+
+/**
+ * Entry size calculator that extends {@link PrimitiveEntrySizeCalculator} to the buckets of the multimap caches.
+ * <p>
+ * Large buckets are not walked entirely: the size of the first {@code samples} elements is averaged and multiplied by
+ * the number of elements, as Redis does for {@code MEMORY USAGE}. A sample count of 0 walks all the elements.
+ *
+ * @since 15.0
+ */
+public class BucketSizeCalculator extends PrimitiveEntrySizeCalculator {
+   public static final int DEFAULT_SAMPLES = 5;
+
+   // A HashMap node holds the hash, the key, the value and the next node, plus a slot in the table
+   private static final long HASH_NODE_SIZE = roundUpToNearest8(HEADER_AND_CLASS_REFERENCE + 4 + 3 * POINTER_SIZE) + POINTER_SIZE;
+   private static final long HASH_MAP_SIZE = roundUpToNearest8(HEADER_AND_CLASS_REFERENCE + 4 * 4 + 4 * POINTER_SIZE);
+   private static final long WRAPPER_SIZE = roundUpToNearest8(HEADER_AND_CLASS_REFERENCE + POINTER_SIZE);
+   private static final long DOUBLE_SIZE = roundUpToNearest8(HEADER_AND_CLASS_REFERENCE + 8);
+   // A skip list node has the element, the next and span arrays and the previous node, with 4/3 levels on average
+   private static final long SKIP_LIST_NODE_SIZE = roundUpToNearest8(HEADER_AND_CLASS_REFERENCE + 4 * POINTER_SIZE)
+         + 2 * roundUpToNearest8(HEADER_AND_CLASS_REFERENCE + 4 + 2 * POINTER_SIZE);
+   private static final long SCORED_VALUE_SIZE = roundUpToNearest8(HEADER_AND_CLASS_REFERENCE + 2 * POINTER_SIZE);
+   private static final long BUCKET_SIZE = roundUpToNearest8(HEADER_AND_CLASS_REFERENCE + 2 * POINTER_SIZE);
+   private static final long ARRAY_HEADER_SIZE = roundUpToNearest8(HEADER_AND_CLASS_REFERENCE + 4);
+
+   private final int samples;
+
+   public BucketSizeCalculator() {
+      this(DEFAULT_SAMPLES);
+   }
+
+   /**
+    * @param samples the number of elements of each bucket to measure, 0 to measure all of them
+    */
+   public BucketSizeCalculator(int samples) {
+      if (samples < 0) {
+         throw new IllegalArgumentException("samples cannot be negative");
+      }
+      this.samples = samples;
+   }
+
+   /**
+    * Returns the approximate memory used by a cache entry holding a bucket or a plain value, including the key and
+    * the metadata.
+    */
+   public static <K, V> long entrySize(K key, CacheEntry<K, V> entry, int samples) {
+      CacheEntrySizeCalculator<K, V> calculator =
+            new CacheEntrySizeCalculator<>(new WrappedByteArraySizeCalculator<K, V>(new BucketSizeCalculator(samples)));
+      if (entry instanceof InternalCacheEntry) {
+         return calculator.calculateSize(key, (InternalCacheEntry<K, V>) entry);
+      }
+      // Only the embedded metadata is taken into account, as for the entries in the data container
+      Metadata metadata = entry.getMetadata() instanceof EmbeddedMetadata ? entry.getMetadata() : null;
+      return calculator.calculateSize(key, entry.getValue(), metadata, entry.getInternalMetadata());
+   }
+
+   @Override
+   protected long handleObject(Object object) {
+      if (object instanceof WrappedBytes) {
+         return roundUpToNearest8(OBJECT_SIZE + POINTER_SIZE * 2) + super.handleObject(((WrappedBytes) object).getBytes());
+      }
+      Class<?> c = object.getClass();
+      if (c == MultimapObjectWrapper.class) {
+         return WRAPPER_SIZE + handleObject(((MultimapObjectWrapper<?>) object).get());
+      } else if (c == ListBucket.class) {
+         return listSize((ListBucket<?>) object);
+      } else if (c == HashMapBucket.class) {
+         return hashSize((HashMapBucket<?, ?>) object);
+      } else if (c == SetBucket.class) {
+         return setSize((SetBucket<?>) object);
+      } else if (c == SortedSetBucket.class) {
+         return sortedSetSize((SortedSetBucket<?>) object);
+      } else if (c == HyperLogLogBucket.class) {
+         return hyperLogLogSize((HyperLogLogBucket) object);
+      } else if (c == StreamBucket.class) {
+         return streamSize((StreamBucket) object);
+      } else if (c == Bucket.class) {
+         Collection<?> values = ((Bucket<?>) object).values;
+         return BUCKET_SIZE + sampled(values.iterator(), values.size(), POINTER_SIZE);
+      }
+      return super.handleObject(object);
+   }
+
+   private long listSize(ListBucket<?> bucket) {
+      SegmentedList<?> values = bucket.values;
+      int segments = (values.size() + SegmentedList.SEGMENT_CAPACITY - 1) / SegmentedList.SEGMENT_CAPACITY;
+      long segmentSize = roundUpToNearest8(HEADER_AND_CLASS_REFERENCE + 8 + 3 * POINTER_SIZE)
+            + roundUpToNearest8(ARRAY_HEADER_SIZE + (long) SegmentedList.SEGMENT_CAPACITY * POINTER_SIZE);
+      return BUCKET_SIZE + segments * segmentSize + sampled(values.iterator(), values.size(), 0);
+   }
+
+   private long hashSize(HashMapBucket<?, ?> bucket) {
+      Map<?, ?> values = bucket.values;
+      int count = 0;
+      long sampledSize = 0;
+      for (Map.Entry<?, ?> e : values.entrySet()) {
+         sampledSize += handleObject(e.getKey()) + handleObject(e.getValue());
+         if (++count == samples) {
+            break;
+         }
+      }
+      return BUCKET_SIZE + HASH_MAP_SIZE + values.size() * HASH_NODE_SIZE + extrapolate(sampledSize, count, values.size());
+   }
+
+   private long setSize(SetBucket<?> bucket) {
+      Collection<?> values = bucket.values;
+      // A HashSet is backed by a HashMap
+      return BUCKET_SIZE + WRAPPER_SIZE + HASH_MAP_SIZE + sampled(values.iterator(), values.size(), HASH_NODE_SIZE);
+   }
+
+   private long sortedSetSize(SortedSetBucket<?> bucket) {
+      int size = bucket.scoredEntries.size();
+      int count = 0;
+      long sampledSize = 0;
+      for (SortedSetBucket.ScoredValue<?> value : bucket.scoredEntries) {
+         sampledSize += handleObject(value.wrappedValue());
+         if (++count == samples) {
+            break;
+         }
+      }
+      // Every member is in the skip list and in the map from the member to its score
+      long perMember = SKIP_LIST_NODE_SIZE + SCORED_VALUE_SIZE + DOUBLE_SIZE + HASH_NODE_SIZE;
+      return BUCKET_SIZE + 2 * HASH_MAP_SIZE + size * perMember + extrapolate(sampledSize, count, size);
+   }
+
+   private long hyperLogLogSize(HyperLogLogBucket bucket) {
+      long size = roundUpToNearest8(HEADER_AND_CLASS_REFERENCE + 2 * POINTER_SIZE + 4 + 8);
+      if (bucket.dense != null) {
+         size += super.handleObject(bucket.dense);
+      }
+      if (bucket.sparse != null) {
+         size += super.handleObject(bucket.sparse);
+      }
+      return size;
+   }
+
+   private long streamSize(StreamBucket bucket) {
+      long length = bucket.size();
+      long segments = (length + StreamBucket.SEGMENT_CAPACITY - 1) / StreamBucket.SEGMENT_CAPACITY;
+      // Every segment has an array of IDs and an array of entries
+      long segmentSize = roundUpToNearest8(HEADER_AND_CLASS_REFERENCE + 8 + 2 * POINTER_SIZE)
+            + 2 * roundUpToNearest8(ARRAY_HEADER_SIZE + (long) StreamBucket.SEGMENT_CAPACITY * POINTER_SIZE)
+            + HASH_NODE_SIZE;
+      long idSize = roundUpToNearest8(HEADER_AND_CLASS_REFERENCE + 16);
+      long size = BUCKET_SIZE + HASH_MAP_SIZE + 3 * idSize + segments * segmentSize + length * idSize;
+      if (length > 0) {
+         List<StreamBucket.Entry> sample = bucket.range(StreamID.MIN, StreamID.MAX, samples == 0 ? -1 : samples, false);
+         long sampledSize = 0;
+         for (StreamBucket.Entry entry : sample) {
+            sampledSize += roundUpToNearest8(ARRAY_HEADER_SIZE + (long) entry.fieldsAndValues().size() * POINTER_SIZE);
+            for (byte[] fieldOrValue : entry.fieldsAndValues()) {
+               sampledSize += super.handleObject(fieldOrValue);
+            }
+         }
+         size += extrapolate(sampledSize, sample.size(), length);
+      }
+      for (StreamBucket.ConsumerGroup group : bucket.groups()) {
+         size += HASH_NODE_SIZE + 2 * HASH_MAP_SIZE + super.handleObject(group.name());
+         for (String consumer : group.consumers()) {
+            size += HASH_NODE_SIZE + roundUpToNearest8(HEADER_AND_CLASS_REFERENCE + POINTER_SIZE + 16)
+                  + super.handleObject(consumer);
+         }
+         // Pending entries share the ID and the consumer name, but each is a tree node and an entry with two longs
+         size += group.pendingCount() * (HASH_NODE_SIZE + roundUpToNearest8(HEADER_AND_CLASS_REFERENCE + 2 * POINTER_SIZE + 16));
+      }
+      return size;
+   }
+
+   /**
+    * Measures the first elements of a collection and extrapolates the result to all of them.
+    */
+   private long sampled(Iterator<?> it, long size, long perElementOverhead) {
+      int count = 0;
+      long sampledSize = 0;
+      while (it.hasNext()) {
+         sampledSize += handleObject(it.next());
+         if (++count == samples) {
+            break;
+         }
+      }
+      return size * perElementOverhead + extrapolate(sampledSize, count, size);
+   }
+
+   private static long extrapolate(long sampledSize, int sampled, long size) {
+      if (sampled == 0 || sampled == size) {
+         return sampledSize;
+      }
+      return (long) ((double) sampledSize / sampled * size);
+   }
+}
@@ -0,0 +1,165 @@
+package org.infinispan.multimap.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.functional.FunctionalMap;
+import org.infinispan.functional.impl.FunctionalMapImpl;
+import org.infinispan.functional.impl.ReadWriteMapImpl;
+import org.infinispan.multimap.impl.function.bitmap.BitCountFunction;
+import org.infinispan.multimap.impl.function.bitmap.BitPosFunction;
+import org.infinispan.multimap.impl.function.bitmap.BitfieldFunction;
+import org.infinispan.multimap.impl.function.bitmap.GetBitFunction;
+import org.infinispan.multimap.impl.function.bitmap.SetBitFunction;
+
+/**
+ * Bit operations on string values.
+ * <p>
+ * The operations on a single key run on the owner of the key, so only their result is sent back and not the value.
+ * {@link #bitOp(Bitmaps.Operation, Object, Collection)} reads the sources, which may be owned by different nodes, and
+ * stores the result on the owner of the destination.
+ *
+ * @since 15.0
+ * @see Bitmaps
+ */
+public class EmbeddedBitmapCache<K> {
+   public static final String ERR_KEY_CAN_T_BE_NULL = "key can't be null";
+   public static final String ERR_OFFSET_OUT_OF_RANGE = "bit offset is not an integer or out of range";
+   protected final FunctionalMap.ReadWriteMap<K, byte[]> readWriteMap;
+   protected final AdvancedCache<K, byte[]> cache;
+
+   public EmbeddedBitmapCache(Cache<K, byte[]> cache) {
+      this.cache = cache.getAdvancedCache();
+      FunctionalMapImpl<K, byte[]> functionalMap = FunctionalMapImpl.create(this.cache);
+      this.readWriteMap = ReadWriteMapImpl.create(functionalMap);
+   }
+
+   /**
+    * Sets or clears the bit at the offset, growing the value with zeros if needed.
+    *
+    * @param key,    the key
+    * @param offset, the bit offset, from 0 to {@link Bitmaps#MAX_BIT_OFFSET}
+    * @param bit,    whether the bit is set
+    * @return {@link CompletionStage} containing whether the bit was set before
+    */
+   public CompletionStage<Boolean> setBit(K key, long offset, boolean bit) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      checkOffset(offset);
+      return readWriteMap.eval(key, new SetBitFunction<>(offset, bit));
+   }
+
+   /**
+    * @param key,    the key
+    * @param offset, the bit offset
+    * @return {@link CompletionStage} containing whether the bit at the offset is set, false if the value is shorter
+    */
+   public CompletionStage<Boolean> getBit(K key, long offset) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      checkOffset(offset);
+      return readWriteMap.eval(key, new GetBitFunction<>(offset));
+   }
+
+   /**
+    * Counts the bits set between start and end, both inclusive. Negative positions count from the end of the value.
+    *
+    * @param key,     the key
+    * @param start,   the first position
+    * @param end,     the last position
+    * @param bitUnit, whether the positions are bits, or else bytes
+    * @return {@link CompletionStage} containing the number of bits set, 0 if the key does not exist
+    */
+   public CompletionStage<Long> bitCount(K key, long start, long end, boolean bitUnit) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      return readWriteMap.eval(key, new BitCountFunction<>(start, end, bitUnit));
+   }
+
+   /**
+    * Finds the first bit set or clear between start and end, both inclusive. Negative positions count from the end of
+    * the value.
+    *
+    * @param key,      the key
+    * @param bit,      whether to look for a set bit, or else a clear bit
+    * @param start,    the first position
+    * @param end,      the last position
+    * @param endGiven, whether the end was given. If not, the value is considered padded with clear bits
+    * @param bitUnit,  whether the positions are bits, or else bytes
+    * @return {@link CompletionStage} containing the position of the bit, or -1 if not found
+    */
+   public CompletionStage<Long> bitPos(K key, boolean bit, long start, long end, boolean endGiven, boolean bitUnit) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      return readWriteMap.eval(key, new BitPosFunction<>(bit, start, end, endGiven, bitUnit));
+   }
+
+   /**
+    * Applies the operations in order, atomically.
+    *
+    * @param key,        the key
+    * @param operations, the operations
+    * @return {@link CompletionStage} containing the result of each operation, null for an update that overflowed and
+    * was not applied
+    */
+   public CompletionStage<List<Long>> bitfield(K key, List<BitfieldOperation> operations) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      requireNonNull(operations, "operations can't be null");
+      for (BitfieldOperation operation : operations) {
+         checkOffset(operation.offset() + operation.bits() - 1);
+      }
+      return readWriteMap.eval(key, new BitfieldFunction<>(operations));
+   }
+
+   /**
+    * Stores the result of the bitwise operation on the sources into the destination. The destination is removed if
+    * the result is empty.
+    *
+    * @param operation,   the operation, {@link Bitmaps.Operation#NOT} requires a single source
+    * @param destination, the key of the result
+    * @param sources,     the keys of the operands, a missing key is an empty value
+    * @return {@link CompletionStage} containing the length of the result
+    */
+   public CompletionStage<Long> bitOp(Bitmaps.Operation operation, K destination, Collection<K> sources) {
+      requireNonNull(destination, ERR_KEY_CAN_T_BE_NULL);
+      requireNonNull(sources, ERR_KEY_CAN_T_BE_NULL);
+      Set<K> unique = sources instanceof Set ? (Set<K>) sources : new LinkedHashSet<>(sources);
+      return cache.getAllAsync(unique).thenCompose(values -> {
+         byte[] result = Bitmaps.bitOp(operation, operands(sources, values));
+         if (result.length == 0) {
+            return cache.removeAsync(destination).thenApply(ignore -> 0L);
+         }
+         return cache.putAsync(destination, result).thenApply(ignore -> (long) result.length);
+      });
+   }
+
+   private List<byte[]> operands(Collection<K> sources, Map<K, byte[]> values) {
+      // The returned keys may be copies of the keys given, look the values up by content
+      Map<Object, byte[]> found = new HashMap<>(values.size());
+      values.forEach((k, v) -> found.put(byContent(k), v));
+      List<byte[]> operands = new ArrayList<>(sources.size());
+      // Each source is an operand, even if repeated
+      for (K source : sources) {
+         byte[] value = found.get(byContent(source));
+         operands.add(value == null ? new byte[0] : value);
+      }
+      return operands;
+   }
+
+   private static Object byContent(Object key) {
+      return key instanceof byte[] ? new WrappedByteArray((byte[]) key) : key;
+   }
+
+   private static void checkOffset(long offset) {
+      if (offset < 0 || offset > Bitmaps.MAX_BIT_OFFSET) {
+         throw new IllegalArgumentException(ERR_OFFSET_OUT_OF_RANGE);
+      }
+   }
+}
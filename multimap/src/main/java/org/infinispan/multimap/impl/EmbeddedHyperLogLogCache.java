@@ -0,0 +1,91 @@
+package org.infinispan.multimap.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.functional.FunctionalMap;
+import org.infinispan.functional.impl.FunctionalMapImpl;
+import org.infinispan.functional.impl.ReadWriteMapImpl;
+import org.infinispan.multimap.impl.function.hll.HyperLogLogAddFunction;
+import org.infinispan.multimap.impl.function.hll.HyperLogLogMergeFunction;
+
+/**
+ * HyperLogLog cache, estimating the number of distinct elements added to each key with a fixed amount of memory.
+ * <p>
+ * The estimations of several keys are merged on the node invoking the operation, after reading each of them from its
+ * owner, so the keys do not need to be owned by the same nodes.
+ *
+ * @since 15.0
+ * @see HyperLogLogBucket
+ */
+public class EmbeddedHyperLogLogCache<K> {
+   public static final String ERR_KEY_CAN_T_BE_NULL = "key can't be null";
+   public static final String ERR_ELEMENTS_CAN_T_BE_NULL = "elements can't be null";
+   protected final FunctionalMap.ReadWriteMap<K, HyperLogLogBucket> readWriteMap;
+   protected final AdvancedCache<K, HyperLogLogBucket> cache;
+
+   public EmbeddedHyperLogLogCache(Cache<K, HyperLogLogBucket> cache) {
+      this.cache = cache.getAdvancedCache();
+      FunctionalMapImpl<K, HyperLogLogBucket> functionalMap = FunctionalMapImpl.create(this.cache);
+      this.readWriteMap = ReadWriteMapImpl.create(functionalMap);
+   }
+
+   /**
+    * Adds the elements to the HyperLogLog, creating it if it does not exist.
+    *
+    * @param key,      the name of the HyperLogLog
+    * @param elements, the elements to add, may be empty
+    * @return {@link CompletionStage} containing whether the HyperLogLog was created or its estimation changed
+    */
+   public CompletionStage<Boolean> add(K key, Collection<byte[]> elements) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      requireNonNull(elements, ERR_ELEMENTS_CAN_T_BE_NULL);
+      return readWriteMap.eval(key, new HyperLogLogAddFunction<>(elements));
+   }
+
+   /**
+    * Estimates the number of distinct elements added to any of the HyperLogLogs. The keys that do not exist are
+    * ignored.
+    *
+    * @param keys, the names of the HyperLogLogs
+    * @return {@link CompletionStage} containing the estimated cardinality of the union
+    */
+   public CompletionStage<Long> count(Collection<K> keys) {
+      requireNonNull(keys, ERR_KEY_CAN_T_BE_NULL);
+      if (keys.size() == 1) {
+         return cache.getAsync(keys.iterator().next()).thenApply(b -> b == null ? 0 : b.count());
+      }
+      return union(keys).thenApply(HyperLogLogBucket::count);
+   }
+
+   /**
+    * Merges the HyperLogLogs into the destination, creating it if it does not exist. The destination then estimates the
+    * union of its elements and the elements of the sources.
+    *
+    * @param destination, the name of the HyperLogLog to merge into
+    * @param sources,     the names of the HyperLogLogs to merge
+    * @return {@link CompletionStage} completed once the destination is updated
+    */
+   public CompletionStage<Void> merge(K destination, Collection<K> sources) {
+      requireNonNull(destination, ERR_KEY_CAN_T_BE_NULL);
+      requireNonNull(sources, ERR_KEY_CAN_T_BE_NULL);
+      return union(sources).thenCompose(merged -> readWriteMap.eval(destination, new HyperLogLogMergeFunction<>(merged)));
+   }
+
+   private CompletionStage<HyperLogLogBucket> union(Collection<K> keys) {
+      Set<K> unique = keys instanceof Set ? (Set<K>) keys : new LinkedHashSet<>(keys);
+      return cache.getAllAsync(unique).thenApply(buckets -> {
+         HyperLogLogBucket union = new HyperLogLogBucket();
+         for (HyperLogLogBucket bucket : buckets.values()) {
+            union.merge(bucket);
+         }
+         return union;
+      });
+   }
+}
@@ -0,0 +1,234 @@
+package org.infinispan.multimap.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.functional.FunctionalMap;
+import org.infinispan.functional.impl.FunctionalMapImpl;
+import org.infinispan.functional.impl.ReadWriteMapImpl;
+import org.infinispan.multimap.impl.function.stream.StreamAckFunction;
+import org.infinispan.multimap.impl.function.stream.StreamAddFunction;
+import org.infinispan.multimap.impl.function.stream.StreamDeleteFunction;
+import org.infinispan.multimap.impl.function.stream.StreamGroupFunction;
+import org.infinispan.multimap.impl.function.stream.StreamPendingFunction;
+import org.infinispan.multimap.impl.function.stream.StreamPendingSummaryFunction;
+import org.infinispan.multimap.impl.function.stream.StreamRangeFunction;
+import org.infinispan.multimap.impl.function.stream.StreamReadGroupFunction;
+import org.infinispan.multimap.impl.function.stream.StreamTrimFunction;
+
+/**
+ * Stream cache, storing append only logs of entries with increasing IDs and the consumer groups reading them.
+ * <p>
+ * The operations that depend on the time, such as generating an ID or tracking when an entry was delivered, take the
+ * time of the node invoking them, so that the owners of the key apply the same update.
+ *
+ * @since 15.0
+ * @see StreamBucket
+ */
+public class EmbeddedStreamCache<K> {
+   public static final String ERR_KEY_CAN_T_BE_NULL = "key can't be null";
+   public static final String ERR_GROUP_CAN_T_BE_NULL = "group can't be null";
+   public static final String ERR_CONSUMER_CAN_T_BE_NULL = "consumer can't be null";
+   public static final String ERR_ID_CAN_T_BE_NULL = "id can't be null";
+   protected final FunctionalMap.ReadWriteMap<K, StreamBucket> readWriteMap;
+   protected final AdvancedCache<K, StreamBucket> cache;
+   protected final TimeService timeService;
+
+   public EmbeddedStreamCache(Cache<K, StreamBucket> cache) {
+      this.cache = cache.getAdvancedCache();
+      FunctionalMapImpl<K, StreamBucket> functionalMap = FunctionalMapImpl.create(this.cache);
+      this.readWriteMap = ReadWriteMapImpl.create(functionalMap);
+      this.timeService = this.cache.getComponentRegistry().getTimeService();
+   }
+
+   /**
+    * Adds an entry at the end of the stream, creating the stream if it does not exist.
+    *
+    * @param key,             the name of the stream
+    * @param id,              the ID of the entry, or null to generate it from the current time
+    * @param autoSequence,    whether only the time of the ID is given and its sequence is generated
+    * @param fieldsAndValues, the fields of the entry, each followed by its value
+    * @param noMkStream,      whether the entry is not added when the stream does not exist
+    * @param trim,            how to trim the stream after adding the entry, or null to not trim it
+    * @return {@link CompletionStage} containing the ID of the entry, or null if the stream does not exist and
+    * noMkStream is true. Completes exceptionally with a {@link StreamException} if the ID is not greater than the
+    * last ID of the stream
+    */
+   public CompletionStage<StreamID> add(K key, StreamID id, boolean autoSequence, List<byte[]> fieldsAndValues,
+                                        boolean noMkStream, StreamTrimArgs trim) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      requireNonNull(fieldsAndValues, "fieldsAndValues can't be null");
+      return readWriteMap.eval(key, new StreamAddFunction<>(id, autoSequence, timeService.wallClockTime(),
+            fieldsAndValues, noMkStream, trim));
+   }
+
+   /**
+    * @param key, the name of the stream
+    * @return {@link CompletionStage} containing the number of entries of the stream, 0 if it does not exist
+    */
+   public CompletionStage<Long> size(K key) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      return cache.getAsync(key).thenApply(b -> b == null ? 0 : b.size());
+   }
+
+   /**
+    * @param key, the name of the stream
+    * @return {@link CompletionStage} containing the stream, or null if it does not exist
+    */
+   public CompletionStage<StreamBucket> get(K key) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      return cache.getAsync(key);
+   }
+
+   /**
+    * Reads the entries of the stream between the two IDs, both inclusive.
+    *
+    * @param key,     the name of the stream
+    * @param count,   the maximum number of entries, or a negative number for all of them
+    * @param reverse, whether the entries are read from the end of the stream
+    * @return {@link CompletionStage} containing the entries, or null if the stream does not exist
+    */
+   public CompletionStage<List<StreamBucket.Entry>> range(K key, StreamID start, StreamID end, long count,
+                                                          boolean reverse) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      requireNonNull(start, ERR_ID_CAN_T_BE_NULL);
+      requireNonNull(end, ERR_ID_CAN_T_BE_NULL);
+      return readWriteMap.eval(key, new StreamRangeFunction<>(start, end, count, reverse));
+   }
+
+   /**
+    * Deletes entries of the stream.
+    *
+    * @return {@link CompletionStage} containing the number of entries deleted
+    */
+   public CompletionStage<Long> delete(K key, Collection<StreamID> ids) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      requireNonNull(ids, ERR_ID_CAN_T_BE_NULL);
+      return readWriteMap.eval(key, new StreamDeleteFunction<>(ids));
+   }
+
+   /**
+    * Removes the oldest entries of the stream.
+    *
+    * @return {@link CompletionStage} containing the number of entries removed
+    */
+   public CompletionStage<Long> trim(K key, StreamTrimArgs trim) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      requireNonNull(trim, "trim can't be null");
+      return readWriteMap.eval(key, new StreamTrimFunction<>(trim));
+   }
+
+   /**
+    * Creates a consumer group.
+    *
+    * @param id,       the ID of the last entry delivered to the group, or null for the last ID of the stream
+    * @param mkStream, whether to create the stream if it does not exist
+    * @return {@link CompletionStage} completed once the group is created. Completes exceptionally with a
+    * {@link StreamException} if the group already exists, or the stream does not exist and mkStream is false
+    */
+   public CompletionStage<Void> createGroup(K key, String group, StreamID id, boolean mkStream) {
+      return group(key, StreamGroupFunction.Operation.CREATE, group, null, id, mkStream).thenApply(ignore -> null);
+   }
+
+   /**
+    * Changes the last entry delivered to the consumer group.
+    *
+    * @param id, the ID of the last entry delivered to the group, or null for the last ID of the stream
+    */
+   public CompletionStage<Void> setGroupId(K key, String group, StreamID id) {
+      return group(key, StreamGroupFunction.Operation.SET_ID, group, null, id, false).thenApply(ignore -> null);
+   }
+
+   /**
+    * @return {@link CompletionStage} containing whether the group existed
+    */
+   public CompletionStage<Boolean> destroyGroup(K key, String group) {
+      return group(key, StreamGroupFunction.Operation.DESTROY, group, null, null, false).thenApply(r -> r > 0);
+   }
+
+   /**
+    * @return {@link CompletionStage} containing whether the consumer was created, false if it already exists
+    */
+   public CompletionStage<Boolean> createConsumer(K key, String group, String consumer) {
+      requireNonNull(consumer, ERR_CONSUMER_CAN_T_BE_NULL);
+      return group(key, StreamGroupFunction.Operation.CREATE_CONSUMER, group, consumer, null, false).thenApply(r -> r > 0);
+   }
+
+   /**
+    * Deletes the consumer and its pending entries.
+    *
+    * @return {@link CompletionStage} containing the number of pending entries the consumer had
+    */
+   public CompletionStage<Long> deleteConsumer(K key, String group, String consumer) {
+      requireNonNull(consumer, ERR_CONSUMER_CAN_T_BE_NULL);
+      return group(key, StreamGroupFunction.Operation.DELETE_CONSUMER, group, consumer, null, false);
+   }
+
+   private CompletionStage<Long> group(K key, StreamGroupFunction.Operation operation, String group, String consumer,
+                                       StreamID id, boolean mkStream) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      requireNonNull(group, ERR_GROUP_CAN_T_BE_NULL);
+      return readWriteMap.eval(key, new StreamGroupFunction<>(operation, group, consumer, id, mkStream,
+            timeService.wallClockTime()));
+   }
+
+   /**
+    * Reads entries of the stream for a consumer of the group, creating the consumer if it does not exist.
+    *
+    * @param after, the pending entries of the consumer are read after this ID. When null, the entries never delivered
+    *               to the group are read, and become pending for the consumer
+    * @param count, the maximum number of entries, or a negative number for all of them
+    * @param noAck, whether the entries read are acknowledged at once
+    * @return {@link CompletionStage} containing the entries. Completes exceptionally with a {@link StreamException} if
+    * the stream or the group do not exist
+    */
+   public CompletionStage<List<StreamBucket.Entry>> readGroup(K key, String group, String consumer, StreamID after,
+                                                              long count, boolean noAck) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      requireNonNull(group, ERR_GROUP_CAN_T_BE_NULL);
+      requireNonNull(consumer, ERR_CONSUMER_CAN_T_BE_NULL);
+      return readWriteMap.eval(key, new StreamReadGroupFunction<>(group, consumer, after, count, noAck,
+            timeService.wallClockTime()));
+   }
+
+   /**
+    * Acknowledges entries delivered to the group.
+    *
+    * @return {@link CompletionStage} containing the number of entries that were pending
+    */
+   public CompletionStage<Long> ack(K key, String group, Collection<StreamID> ids) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      requireNonNull(group, ERR_GROUP_CAN_T_BE_NULL);
+      requireNonNull(ids, ERR_ID_CAN_T_BE_NULL);
+      return readWriteMap.eval(key, new StreamAckFunction<>(group, ids));
+   }
+
+   /**
+    * @return {@link CompletionStage} containing the summary of the pending entries of the group
+    */
+   public CompletionStage<StreamBucket.PendingSummary> pendingSummary(K key, String group) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      requireNonNull(group, ERR_GROUP_CAN_T_BE_NULL);
+      return readWriteMap.eval(key, new StreamPendingSummaryFunction<>(group));
+   }
+
+   /**
+    * Reads the pending entries of the group between the two IDs, both inclusive.
+    *
+    * @param consumer, the consumer of the entries, or null for all the consumers
+    * @param minIdle,  the minimum time in milliseconds since the entries were last delivered
+    */
+   public CompletionStage<List<StreamBucket.PendingEntry>> pending(K key, String group, StreamID start, StreamID end,
+                                                                   long count, String consumer, long minIdle) {
+      requireNonNull(key, ERR_KEY_CAN_T_BE_NULL);
+      requireNonNull(group, ERR_GROUP_CAN_T_BE_NULL);
+      return readWriteMap.eval(key, new StreamPendingFunction<>(group, start, end, count, consumer, minIdle,
+            timeService.wallClockTime()));
+   }
+}
@@ -40,4 +40,20 @@ public interface ExternalizerIds {
    Integer SORTED_SET_INDEX_OF_FUNCTION = 2078;
    Integer SORTED_SET_INCR_SCORE_FUNCTION = 2079;
    Integer SORTED_SET_AGGREGATE_FUNCTION = 2080;
+   Integer HYPERLOGLOG_ADD_FUNCTION = 2081;
+   Integer HYPERLOGLOG_MERGE_FUNCTION = 2082;
+   Integer BITMAP_SET_BIT_FUNCTION = 2083;
+   Integer BITMAP_GET_BIT_FUNCTION = 2084;
+   Integer BITMAP_BIT_COUNT_FUNCTION = 2085;
+   Integer BITMAP_BIT_POS_FUNCTION = 2086;
+   Integer BITMAP_BITFIELD_FUNCTION = 2087;
+   Integer STREAM_ADD_FUNCTION = 2088;
+   Integer STREAM_RANGE_FUNCTION = 2089;
+   Integer STREAM_GROUP_FUNCTION = 2090;
+   Integer STREAM_READ_GROUP_FUNCTION = 2091;
+   Integer STREAM_ACK_FUNCTION = 2092;
+   Integer STREAM_PENDING_FUNCTION = 2093;
+   Integer STREAM_PENDING_SUMMARY_FUNCTION = 2094;
+   Integer STREAM_DELETE_FUNCTION = 2095;
+   Integer STREAM_TRIM_FUNCTION = 2096;
 }
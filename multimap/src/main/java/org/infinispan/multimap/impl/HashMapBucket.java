@@ -2,6 +2,7 @@
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -26,9 +27,16 @@ private HashMapBucket(Map<K, V> values) {
    }
 
    @ProtoFactory
-   HashMapBucket(Collection<BucketEntry<K, V>> wrappedValues) {
-      this.values = wrappedValues.stream()
-            .collect(Collectors.toMap(e -> new MultimapObjectWrapper<>(e.getKey()), BucketEntry::getValue));
+   HashMapBucket(Collection<BucketEntry<K, V>> wrappedValues, byte[] packedValues) {
+      if (packedValues != null) {
+         this.values = new HashMap<>();
+         PackedBuckets.<K, V>unpackEntries(packedValues, (k, v) -> values.put(new MultimapObjectWrapper<>(k), v));
+      } else if (wrappedValues != null) {
+         this.values = wrappedValues.stream()
+               .collect(Collectors.toMap(e -> new MultimapObjectWrapper<>(e.getKey()), BucketEntry::getValue));
+      } else {
+         this.values = new HashMap<>();
+      }
    }
 
    public static <K, V> HashMapBucket<K, V> create(Map<K, V> values) {
@@ -37,9 +45,29 @@ public static <K, V> HashMapBucket<K, V> create(Map<K, V> values) {
 
    @ProtoField(number = 1, collectionImplementation = ArrayList.class)
    Collection<BucketEntry<K, V>> getWrappedValues() {
+      if (isPackable()) {
+         return Collections.emptyList();
+      }
       return values.entrySet().stream().map(BucketEntry::new).collect(Collectors.toList());
    }
 
+   /**
+    * @return the entries in the compact layout of {@link PackedBuckets} or {@code null} if the keys and values are not
+    * all byte[].
+    */
+   @ProtoField(number = 2)
+   byte[] getPackedValues() {
+      return isPackable() ? PackedBuckets.packEntries(values) : null;
+   }
+
+   private boolean isPackable() {
+      if (!PackedBuckets.packBuckets) return false;
+      for (Map.Entry<MultimapObjectWrapper<K>, V> entry : values.entrySet()) {
+         if (!(entry.getKey().get() instanceof byte[]) || !(entry.getValue() instanceof byte[])) return false;
+      }
+      return true;
+   }
+
    public int putAll(Map<K, V> map) {
       int res = 0;
       for (Map.Entry<K, V> entry : map.entrySet()) {
@@ -0,0 +1,302 @@
+package org.infinispan.multimap.impl;
+
+import java.util.Arrays;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+
+/**
+ * Bucket used to store the HyperLogLog data type.
+ * <p>
+ * The estimation uses the same hash function, register count and estimator as Redis, so the same elements give the
+ * same cardinality. There are 16384 registers of 6 bits each. A bucket with few registers set uses a sparse
+ * encoding, sorted entries of the register index and value, and it is converted to the dense encoding of the
+ * registers packed in 12 KB once the sparse encoding would be larger than {@link #SPARSE_MAX_BYTES}.
+ *
+ * @since 15.0
+ */
+@ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_HYPERLOGLOG_BUCKET)
+public class HyperLogLogBucket {
+   static final int P = 14;
+   static final int Q = 64 - P;
+   static final int REGISTERS = 1 << P;
+   static final int REGISTER_BITS = 6;
+   static final int REGISTER_MAX = (1 << REGISTER_BITS) - 1;
+   static final int DENSE_BYTES = (REGISTERS * REGISTER_BITS + 7) / 8;
+   static final int SPARSE_MAX_BYTES = 3000;
+   // Each sparse entry is the register index in 2 bytes followed by its value
+   private static final int SPARSE_ENTRY_BYTES = 3;
+   private static final double ALPHA_INF = 0.721347520444481703680;
+   private static final long HASH_SEED = 0xadc83b19L;
+
+   byte[] sparse;
+   private int sparseLength;
+   byte[] dense;
+   // The last cardinality computed, -1 when a register changed since
+   private transient long cachedCount = -1;
+
+   public HyperLogLogBucket() {
+      this.sparse = new byte[SPARSE_ENTRY_BYTES * 8];
+   }
+
+   @ProtoFactory
+   HyperLogLogBucket(byte[] sparseEntries, byte[] denseRegisters) {
+      if (denseRegisters != null) {
+         this.dense = denseRegisters;
+      } else {
+         this.sparse = sparseEntries == null ? new byte[SPARSE_ENTRY_BYTES * 8] : sparseEntries;
+         this.sparseLength = sparseEntries == null ? 0 : sparseEntries.length;
+      }
+   }
+
+   @ProtoField(number = 1)
+   byte[] getSparseEntries() {
+      return sparse == null ? null : Arrays.copyOf(sparse, sparseLength);
+   }
+
+   @ProtoField(number = 2)
+   byte[] getDenseRegisters() {
+      return dense;
+   }
+
+   public boolean isSparse() {
+      return dense == null;
+   }
+
+   /**
+    * Adds the element to the estimation.
+    *
+    * @return whether a register changed, and so the estimated cardinality may have changed
+    */
+   public boolean add(byte[] element) {
+      long hash = murmurHash64A(element);
+      int index = (int) (hash & (REGISTERS - 1));
+      // The trailing zeros of the remaining bits, with a bit set after them so that the count stops at Q
+      int count = Long.numberOfTrailingZeros((hash >>> P) | (1L << Q)) + 1;
+      return update(index, count);
+   }
+
+   /**
+    * Merges the registers of the other bucket, so that this bucket estimates the union of both.
+    *
+    * @return whether a register changed
+    */
+   public boolean merge(HyperLogLogBucket other) {
+      boolean changed = false;
+      if (other.isSparse()) {
+         for (int i = 0; i < other.sparseLength; i += SPARSE_ENTRY_BYTES) {
+            changed |= update(sparseIndex(other.sparse, i), other.sparse[i + 2]);
+         }
+      } else {
+         if (isSparse()) {
+            toDense();
+         }
+         for (int i = 0; i < REGISTERS; ++i) {
+            int value = getDense(other.dense, i);
+            if (value > getDense(dense, i)) {
+               setDense(dense, i, value);
+               changed = true;
+            }
+         }
+      }
+      if (changed) {
+         cachedCount = -1;
+      }
+      return changed;
+   }
+
+   /**
+    * @return the estimated number of distinct elements added
+    */
+   public long count() {
+      if (cachedCount >= 0) {
+         return cachedCount;
+      }
+      int[] histogram = new int[Q + 2];
+      if (isSparse()) {
+         int set = sparseLength / SPARSE_ENTRY_BYTES;
+         histogram[0] = REGISTERS - set;
+         for (int i = 0; i < sparseLength; i += SPARSE_ENTRY_BYTES) {
+            histogram[sparse[i + 2]]++;
+         }
+      } else {
+         for (int i = 0; i < REGISTERS; ++i) {
+            histogram[getDense(dense, i)]++;
+         }
+      }
+      double m = REGISTERS;
+      double z = m * tau((m - histogram[Q + 1]) / m);
+      for (int j = Q; j >= 1; --j) {
+         z += histogram[j];
+         z *= 0.5;
+      }
+      z += m * sigma(histogram[0] / m);
+      cachedCount = Math.round(ALPHA_INF * m * m / z);
+      return cachedCount;
+   }
+
+   private boolean update(int index, int count) {
+      if (isSparse()) {
+         int pos = sparseSearch(index);
+         if (pos >= 0) {
+            if (sparse[pos + 2] >= count) {
+               return false;
+            }
+            sparse[pos + 2] = (byte) count;
+         } else if (sparseLength + SPARSE_ENTRY_BYTES > SPARSE_MAX_BYTES) {
+            toDense();
+            return update(index, count);
+         } else {
+            pos = -pos - 1;
+            if (sparseLength + SPARSE_ENTRY_BYTES > sparse.length) {
+               sparse = Arrays.copyOf(sparse, Math.min(sparse.length * 2, SPARSE_MAX_BYTES));
+            }
+            System.arraycopy(sparse, pos, sparse, pos + SPARSE_ENTRY_BYTES, sparseLength - pos);
+            sparse[pos] = (byte) (index >>> 8);
+            sparse[pos + 1] = (byte) index;
+            sparse[pos + 2] = (byte) count;
+            sparseLength += SPARSE_ENTRY_BYTES;
+         }
+      } else {
+         if (getDense(dense, index) >= count) {
+            return false;
+         }
+         setDense(dense, index, count);
+      }
+      cachedCount = -1;
+      return true;
+   }
+
+   /**
+    * @return the offset of the entry of the register, or {@code -(insertion offset) - 1} if it has none
+    */
+   private int sparseSearch(int index) {
+      int low = 0;
+      int high = sparseLength / SPARSE_ENTRY_BYTES - 1;
+      while (low <= high) {
+         int mid = (low + high) >>> 1;
+         int midIndex = sparseIndex(sparse, mid * SPARSE_ENTRY_BYTES);
+         if (midIndex < index) {
+            low = mid + 1;
+         } else if (midIndex > index) {
+            high = mid - 1;
+         } else {
+            return mid * SPARSE_ENTRY_BYTES;
+         }
+      }
+      return -(low * SPARSE_ENTRY_BYTES) - 1;
+   }
+
+   private static int sparseIndex(byte[] entries, int offset) {
+      return ((entries[offset] & 0xFF) << 8) | (entries[offset + 1] & 0xFF);
+   }
+
+   private void toDense() {
+      byte[] registers = new byte[DENSE_BYTES];
+      for (int i = 0; i < sparseLength; i += SPARSE_ENTRY_BYTES) {
+         setDense(registers, sparseIndex(sparse, i), sparse[i + 2]);
+      }
+      dense = registers;
+      sparse = null;
+      sparseLength = 0;
+   }
+
+   // The registers are packed as in Redis, from the least significant bit of each byte
+   private static int getDense(byte[] registers, int index) {
+      int bit = index * REGISTER_BITS;
+      int b = bit >>> 3;
+      int shift = bit & 7;
+      int value = (registers[b] & 0xFF) >>> shift;
+      if (shift > 8 - REGISTER_BITS) {
+         value |= (registers[b + 1] & 0xFF) << (8 - shift);
+      }
+      return value & REGISTER_MAX;
+   }
+
+   private static void setDense(byte[] registers, int index, int value) {
+      int bit = index * REGISTER_BITS;
+      int b = bit >>> 3;
+      int shift = bit & 7;
+      registers[b] = (byte) ((registers[b] & ~(REGISTER_MAX << shift)) | (value << shift));
+      if (shift > 8 - REGISTER_BITS) {
+         int next = 8 - shift;
+         registers[b + 1] = (byte) ((registers[b + 1] & ~(REGISTER_MAX >>> next)) | (value >>> next));
+      }
+   }
+
+   private static double sigma(double x) {
+      if (x == 1.) {
+         return Double.POSITIVE_INFINITY;
+      }
+      double zPrime;
+      double y = 1;
+      double z = x;
+      do {
+         x *= x;
+         zPrime = z;
+         z += x * y;
+         y += y;
+      } while (zPrime != z);
+      return z;
+   }
+
+   private static double tau(double x) {
+      if (x == 0. || x == 1.) {
+         return 0.;
+      }
+      double zPrime;
+      double y = 1.0;
+      double z = 1 - x;
+      do {
+         x = Math.sqrt(x);
+         zPrime = z;
+         y *= 0.5;
+         z -= Math.pow(1 - x, 2) * y;
+      } while (zPrime != z);
+      return z / 3;
+   }
+
+   /**
+    * MurmurHash2, 64-bit version by Austin Appleby, reading the blocks in little endian order.
+    */
+   static long murmurHash64A(byte[] data) {
+      final long m = 0xc6a4a7935bd1e995L;
+      final int r = 47;
+      int len = data.length;
+      long h = HASH_SEED ^ (len * m);
+      int blocks = len >>> 3;
+      for (int i = 0; i < blocks; ++i) {
+         int offset = i << 3;
+         long k = (data[offset] & 0xFFL) | (data[offset + 1] & 0xFFL) << 8 | (data[offset + 2] & 0xFFL) << 16 |
+               (data[offset + 3] & 0xFFL) << 24 | (data[offset + 4] & 0xFFL) << 32 | (data[offset + 5] & 0xFFL) << 40 |
+               (data[offset + 6] & 0xFFL) << 48 | (data[offset + 7] & 0xFFL) << 56;
+         k *= m;
+         k ^= k >>> r;
+         k *= m;
+         h ^= k;
+         h *= m;
+      }
+      int tail = blocks << 3;
+      switch (len & 7) {
+         case 7: h ^= (data[tail + 6] & 0xFFL) << 48;
+         case 6: h ^= (data[tail + 5] & 0xFFL) << 40;
+         case 5: h ^= (data[tail + 4] & 0xFFL) << 32;
+         case 4: h ^= (data[tail + 3] & 0xFFL) << 24;
+         case 3: h ^= (data[tail + 2] & 0xFFL) << 16;
+         case 2: h ^= (data[tail + 1] & 0xFFL) << 8;
+         case 1: h ^= data[tail] & 0xFFL;
+            h *= m;
+      }
+      h ^= h >>> r;
+      h *= m;
+      h ^= h >>> r;
+      return h;
+   }
+
+   @Override
+   public String toString() {
+      return "HyperLogLogBucket{" + (isSparse() ? "sparse=" + sparseLength / SPARSE_ENTRY_BYTES : "dense") + '}';
+   }
+}
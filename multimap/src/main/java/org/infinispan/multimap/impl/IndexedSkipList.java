@@ -0,0 +1,310 @@
+package org.infinispan.multimap.impl;
+
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorted set backing {@link SortedSetBucket}, implemented as a skip list where every link also records how many
+ * elements it skips.
+ * <p>
+ * Besides adding, removing and looking up elements in O(log n), the link spans allow to compute the rank of an element
+ * and to find the element at a given rank in O(log n), so that rank queries and ranges by index or by score do not
+ * need to walk the elements that precede them.
+ * <p>
+ * Lookups by rank use a key that is compared with the elements of the set, which allows to use keys that compare as
+ * equal to several elements, like the score only keys used by {@link SortedSetBucket}.
+ *
+ * @since 15.0
+ */
+final class IndexedSkipList<E extends Comparable<? super E>> extends AbstractSet<E> {
+   static final int MAX_LEVEL = 32;
+   // Probability of an element being promoted to the next level
+   private static final int PROMOTION_ONE_IN = 4;
+
+   private final Node<E> head = new Node<>(null, MAX_LEVEL);
+   private Node<E> tail;
+   private int level = 1;
+   private int size;
+   private int modCount;
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   @Override
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   @Override
+   public void clear() {
+      for (int i = 0; i < MAX_LEVEL; ++i) {
+         head.next[i] = null;
+         head.span[i] = 0;
+      }
+      tail = null;
+      level = 1;
+      size = 0;
+      modCount++;
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public boolean contains(Object o) {
+      Node<E> node = head;
+      E element = (E) o;
+      for (int i = level - 1; i >= 0; --i) {
+         while (node.next[i] != null && node.next[i].element.compareTo(element) < 0) {
+            node = node.next[i];
+         }
+      }
+      node = node.next[0];
+      return node != null && node.element.compareTo(element) == 0;
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public boolean add(E element) {
+      Node<E>[] update = new Node[MAX_LEVEL];
+      int[] rank = new int[MAX_LEVEL];
+      Node<E> node = head;
+      for (int i = level - 1; i >= 0; --i) {
+         rank[i] = i == level - 1 ? 0 : rank[i + 1];
+         while (node.next[i] != null && node.next[i].element.compareTo(element) < 0) {
+            rank[i] += node.span[i];
+            node = node.next[i];
+         }
+         update[i] = node;
+      }
+      if (node.next[0] != null && node.next[0].element.compareTo(element) == 0) {
+         return false;
+      }
+      int newLevel = randomLevel();
+      if (newLevel > level) {
+         for (int i = level; i < newLevel; ++i) {
+            rank[i] = 0;
+            update[i] = head;
+            head.span[i] = size;
+         }
+         level = newLevel;
+      }
+      Node<E> inserted = new Node<>(element, newLevel);
+      for (int i = 0; i < newLevel; ++i) {
+         inserted.next[i] = update[i].next[i];
+         update[i].next[i] = inserted;
+         inserted.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+         update[i].span[i] = (rank[0] - rank[i]) + 1;
+      }
+      for (int i = newLevel; i < level; ++i) {
+         update[i].span[i]++;
+      }
+      inserted.prev = update[0] == head ? null : update[0];
+      if (inserted.next[0] != null) {
+         inserted.next[0].prev = inserted;
+      } else {
+         tail = inserted;
+      }
+      size++;
+      modCount++;
+      return true;
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public boolean remove(Object o) {
+      E element = (E) o;
+      Node<E>[] update = new Node[MAX_LEVEL];
+      Node<E> node = head;
+      for (int i = level - 1; i >= 0; --i) {
+         while (node.next[i] != null && node.next[i].element.compareTo(element) < 0) {
+            node = node.next[i];
+         }
+         update[i] = node;
+      }
+      node = node.next[0];
+      if (node == null || node.element.compareTo(element) != 0) {
+         return false;
+      }
+      for (int i = 0; i < level; ++i) {
+         if (update[i].next[i] == node) {
+            update[i].span[i] += node.span[i] - 1;
+            update[i].next[i] = node.next[i];
+         } else {
+            update[i].span[i]--;
+         }
+      }
+      if (node.next[0] != null) {
+         node.next[0].prev = node.prev;
+      } else {
+         tail = node.prev;
+      }
+      while (level > 1 && head.next[level - 1] == null) {
+         level--;
+      }
+      size--;
+      modCount++;
+      return true;
+   }
+
+   E first() {
+      if (size == 0) throw new NoSuchElementException();
+      return head.next[0].element;
+   }
+
+   E last() {
+      if (size == 0) throw new NoSuchElementException();
+      return tail.element;
+   }
+
+   E pollFirst() {
+      if (size == 0) return null;
+      E element = head.next[0].element;
+      remove(element);
+      return element;
+   }
+
+   E pollLast() {
+      if (size == 0) return null;
+      E element = tail.element;
+      remove(element);
+      return element;
+   }
+
+   /**
+    * @return the number of elements that compare lower than the given key
+    */
+   int countLower(E key) {
+      return count(key, false);
+   }
+
+   /**
+    * @return the number of elements that compare lower than or equal to the given key
+    */
+   int countLowerOrEqual(E key) {
+      return count(key, true);
+   }
+
+   private int count(E key, boolean includeEqual) {
+      Node<E> node = head;
+      int rank = 0;
+      for (int i = level - 1; i >= 0; --i) {
+         while (node.next[i] != null) {
+            int compare = node.next[i].element.compareTo(key);
+            if (compare > 0 || (compare == 0 && !includeEqual)) break;
+            rank += node.span[i];
+            node = node.next[i];
+         }
+      }
+      return rank;
+   }
+
+   /**
+    * @param index the position of the element, which must be greater or equal to 0 and less than {@link #size()}
+    */
+   E get(int index) {
+      return nodeAt(index).element;
+   }
+
+   @Override
+   public Iterator<E> iterator() {
+      return new Itr(size == 0 ? null : head.next[0], false);
+   }
+
+   Iterator<E> descendingIterator() {
+      return new Itr(tail, true);
+   }
+
+   /**
+    * Returns an iterator that starts at the given index, which is counted from the first element when iterating in
+    * ascending order and from the last one otherwise.
+    */
+   Iterator<E> iterator(int index, boolean descending) {
+      if (index >= size) {
+         return new Itr(null, descending);
+      }
+      return new Itr(nodeAt(descending ? size - 1 - index : index), descending);
+   }
+
+   private Node<E> nodeAt(int index) {
+      if (index < 0 || index >= size) {
+         throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      Node<E> node = head;
+      int traversed = 0;
+      // Ranks are 1 based from the head
+      int rank = index + 1;
+      for (int i = level - 1; i >= 0; --i) {
+         while (node.next[i] != null && traversed + node.span[i] <= rank) {
+            traversed += node.span[i];
+            node = node.next[i];
+         }
+         if (traversed == rank) {
+            return node;
+         }
+      }
+      throw new IllegalStateException();
+   }
+
+   private int randomLevel() {
+      int newLevel = 1;
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      while (newLevel < MAX_LEVEL && random.nextInt(PROMOTION_ONE_IN) == 0) {
+         newLevel++;
+      }
+      return newLevel;
+   }
+
+   private static final class Node<E> {
+      final E element;
+      final Node<E>[] next;
+      // Number of elements between this node and the next one in each level, including the latter
+      final int[] span;
+      Node<E> prev;
+
+      @SuppressWarnings("unchecked")
+      Node(E element, int level) {
+         this.element = element;
+         this.next = new Node[level];
+         this.span = new int[level];
+      }
+   }
+
+   private final class Itr implements Iterator<E> {
+      private final boolean descending;
+      private Node<E> next;
+      private Node<E> lastReturned;
+      private int expectedModCount = modCount;
+
+      Itr(Node<E> next, boolean descending) {
+         this.next = next;
+         this.descending = descending;
+      }
+
+      @Override
+      public boolean hasNext() {
+         return next != null;
+      }
+
+      @Override
+      public E next() {
+         if (expectedModCount != modCount) throw new ConcurrentModificationException();
+         if (next == null) throw new NoSuchElementException();
+         lastReturned = next;
+         next = descending ? next.prev : next.next[0];
+         return lastReturned.element;
+      }
+
+      @Override
+      public void remove() {
+         if (lastReturned == null) throw new IllegalStateException();
+         if (expectedModCount != modCount) throw new ConcurrentModificationException();
+         IndexedSkipList.this.remove(lastReturned.element);
+         lastReturned = null;
+         expectedModCount = modCount;
+      }
+   }
+}
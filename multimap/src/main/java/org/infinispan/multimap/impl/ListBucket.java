@@ -14,6 +14,7 @@
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -26,19 +27,18 @@
 @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_LIST_BUCKET)
 public class ListBucket<V> {
 
-   final Deque<V> values;
+   final SegmentedList<V> values;
 
    public ListBucket() {
-      this.values = new ArrayDeque<>(0);
+      this.values = new SegmentedList<>();
    }
 
    public ListBucket(V value) {
-      Deque<V> deque = new ArrayDeque<>(1);
-      deque.add(value);
-      this.values = deque;
+      this.values = new SegmentedList<>();
+      this.values.offerLast(value);
    }
 
-   private ListBucket(Deque<V> values) {
+   private ListBucket(SegmentedList<V> values) {
       this.values = values;
    }
 
@@ -47,16 +47,31 @@ public static <V> ListBucket<V> create(V value) {
    }
 
    @ProtoFactory
-   ListBucket(Collection<MarshallableUserObject<V>> wrappedValues) {
-      this((Deque<V>) wrappedValues.stream().map(MarshallableUserObject::get)
-            .collect(Collectors.toCollection(ArrayDeque::new)));
+   ListBucket(Collection<MarshallableUserObject<V>> wrappedValues, byte[] packedValues) {
+      this(new SegmentedList<>());
+      if (packedValues != null) {
+         PackedBuckets.<V>unpackValues(packedValues, values::offerLast);
+      } else if (wrappedValues != null) {
+         wrappedValues.forEach(v -> values.offerLast(v.get()));
+      }
    }
 
    @ProtoField(number = 1, collectionImplementation = ArrayList.class)
    Collection<MarshallableUserObject<V>> getWrappedValues() {
+      if (PackedBuckets.canPack(values)) {
+         return Collections.emptyList();
+      }
       return this.values.stream().map(MarshallableUserObject::new).collect(Collectors.toCollection(ArrayDeque::new));
    }
 
+   /**
+    * @return the values in the compact layout of {@link PackedBuckets} or {@code null} if they are not all byte[].
+    */
+   @ProtoField(number = 2)
+   byte[] getPackedValues() {
+      return PackedBuckets.canPack(values) ? PackedBuckets.packValues(values) : null;
+   }
+
    public boolean contains(V value) {
       for (V v : values) {
          if (Objects.deepEquals(v, value)) {
@@ -115,35 +130,9 @@ public ListBucket<V> set(long index, V value) {
          return new ListBucket<>(values);
       }
 
-      ArrayDeque<V> newBucket = new ArrayDeque<>(values.size());
-      if (index > 0) {
-         Iterator<V> ite = values.iterator();
-         int currentIndex = 0;
-         while(ite.hasNext()) {
-            V element = ite.next();
-            if (index == currentIndex) {
-               newBucket.offerLast(value);
-            } else {
-               newBucket.offerLast(element);
-            }
-            currentIndex++;
-         }
-      }
-
-      if (index < -1) {
-         Iterator<V> ite = values.descendingIterator();
-         int currentIndex = -1;
-         while(ite.hasNext()) {
-            V element = ite.next();
-            if (index == currentIndex) {
-               newBucket.offerFirst(value);
-            } else {
-               newBucket.offerFirst(element);
-            }
-            currentIndex--;
-         }
-      }
-      return new ListBucket<>(newBucket);
+      // only the segment holding the element is modified
+      values.set((int) (index < 0 ? values.size() + index : index), value);
+      return new ListBucket<>(values);
    }
 
    public Collection<V> sublist(long from, long to) {
@@ -209,23 +198,15 @@ public void trim(long from, long to) {
       long startRemoveCount = from < 0 ? values.size() + from : from;
       long keepCount = (to < 0 ? values.size() + to : to) - startRemoveCount;
 
-      Iterator<V> ite = values.iterator();
-      while(ite.hasNext() && startRemoveCount > 0) {
-         ite.next();
-         ite.remove();
+      // remove from both ends, which only drops whole segments or shrinks the ones at the ends
+      while (!values.isEmpty() && startRemoveCount > 0) {
+         values.pollFirst();
          startRemoveCount--;
       }
 
-      // keep elements
-      while(ite.hasNext() && keepCount >= 0) {
-         ite.next();
-         keepCount--;
-      }
-
-      // remove remaining elements
-      while(ite.hasNext()) {
-         ite.next();
-         ite.remove();
+      long keep = Math.max(0, keepCount + 1);
+      while (values.size() > keep) {
+         values.pollLast();
       }
    }
 
@@ -264,33 +245,16 @@ public Collection<Long> indexOf(V element, long count, long rank, long maxLen) {
    }
 
    public ListBucket<V> insert(boolean before, V pivot, V element) {
-      Deque<V> newValues = new ArrayDeque<>(values.size() +1);
-
-      Iterator<V> iterator = values.iterator();
-      boolean found = false;
-      while (iterator.hasNext()) {
-         V next = iterator.next();
-         if (found) {
-            newValues.offerLast(next);
-         } else {
-            if (Objects.deepEquals(pivot, next))  {
-               found = true;
-               if (before) {
-                  newValues.offerLast(element);
-                  newValues.offerLast(next);
-               } else {
-                  newValues.offerLast(next);
-                  newValues.offerLast(element);
-               }
-            } else {
-               newValues.offerLast(next);
-            }
+      int position = 0;
+      for (V next : values) {
+         if (Objects.deepEquals(pivot, next)) {
+            // only the segment holding the pivot is modified
+            values.insert(before ? position : position + 1, element);
+            return new ListBucket<>(values);
          }
+         position++;
       }
-      if (!found) {
-         return null;
-      }
-      return new ListBucket<>(newValues);
+      return null;
    }
 
    public long remove(long count, V element) {
@@ -375,35 +339,23 @@ public ListBucketResult poll(boolean first, long count) {
 
    public V index(long index) {
       if (index == 0) {
-         return values.element();
+         V first = values.peekFirst();
+         if (first == null) {
+            throw new NoSuchElementException();
+         }
+         return first;
       }
       if (index == values.size() - 1 || index == -1) {
-         return values.getLast();
-      }
-      V result = null;
-      if (index > 0) {
-         if (index >= values.size()) {
-            return null;
-         }
-
-         Iterator<V> iterator = values.iterator();
-         int currentIndex = 0;
-         while (currentIndex++ <= index) {
-            result = iterator.next();
-         }
-      } else {
-         long currentIndex = Math.abs(index);
-         if (currentIndex > values.size()) {
-            return null;
-         }
-
-         Iterator<V> iterator = values.descendingIterator();
-         while (currentIndex-- > 0) {
-            result = iterator.next();
+         V last = values.peekLast();
+         if (last == null) {
+            throw new NoSuchElementException();
          }
+         return last;
       }
-
-      return result;
+      if (index >= values.size() || -index > values.size()) {
+         return null;
+      }
+      return values.get((int) (index < 0 ? values.size() + index : index));
    }
 
 }
@@ -6,11 +6,20 @@
 import org.infinispan.factories.annotations.InfinispanModule;
 import org.infinispan.lifecycle.ModuleLifecycle;
 import org.infinispan.marshall.protostream.impl.SerializationContextRegistry;
+import org.infinispan.multimap.configuration.MultimapConfiguration;
+import org.infinispan.multimap.configuration.MultimapConfigurationBuilder;
 import org.infinispan.multimap.impl.function.hmap.HashMapKeySetFunction;
 import org.infinispan.multimap.impl.function.hmap.HashMapPutFunction;
 import org.infinispan.multimap.impl.function.hmap.HashMapRemoveFunction;
 import org.infinispan.multimap.impl.function.hmap.HashMapReplaceFunction;
 import org.infinispan.multimap.impl.function.hmap.HashMapValuesFunction;
+import org.infinispan.multimap.impl.function.bitmap.BitCountFunction;
+import org.infinispan.multimap.impl.function.bitmap.BitPosFunction;
+import org.infinispan.multimap.impl.function.bitmap.BitfieldFunction;
+import org.infinispan.multimap.impl.function.bitmap.GetBitFunction;
+import org.infinispan.multimap.impl.function.bitmap.SetBitFunction;
+import org.infinispan.multimap.impl.function.hll.HyperLogLogAddFunction;
+import org.infinispan.multimap.impl.function.hll.HyperLogLogMergeFunction;
 import org.infinispan.multimap.impl.function.list.IndexFunction;
 import org.infinispan.multimap.impl.function.list.IndexOfFunction;
 import org.infinispan.multimap.impl.function.list.InsertFunction;
@@ -36,6 +45,15 @@
 import org.infinispan.multimap.impl.function.sortedset.ScoreFunction;
 import org.infinispan.multimap.impl.function.sortedset.SortedSetAggregateFunction;
 import org.infinispan.multimap.impl.function.sortedset.SubsetFunction;
+import org.infinispan.multimap.impl.function.stream.StreamAckFunction;
+import org.infinispan.multimap.impl.function.stream.StreamAddFunction;
+import org.infinispan.multimap.impl.function.stream.StreamDeleteFunction;
+import org.infinispan.multimap.impl.function.stream.StreamGroupFunction;
+import org.infinispan.multimap.impl.function.stream.StreamPendingFunction;
+import org.infinispan.multimap.impl.function.stream.StreamPendingSummaryFunction;
+import org.infinispan.multimap.impl.function.stream.StreamRangeFunction;
+import org.infinispan.multimap.impl.function.stream.StreamReadGroupFunction;
+import org.infinispan.multimap.impl.function.stream.StreamTrimFunction;
 
 import java.util.Map;
 
@@ -55,6 +73,12 @@ public void cacheManagerStarting(GlobalComponentRegistry gcr, GlobalConfiguratio
       ctxRegistry.addContextInitializer(SerializationContextRegistry.MarshallerType.PERSISTENCE, new PersistenceContextInitializerImpl());
       ctxRegistry.addContextInitializer(SerializationContextRegistry.MarshallerType.GLOBAL, new PersistenceContextInitializerImpl());
 
+      MultimapConfiguration configuration = globalConfiguration.module(MultimapConfiguration.class);
+      if (configuration == null) {
+         configuration = MultimapConfigurationBuilder.defaultConfiguration();
+      }
+      PackedBuckets.packBuckets = configuration.packedBuckets();
+
       final Map<Integer, AdvancedExternalizer<?>> externalizerMap = globalConfiguration.serialization()
             .advancedExternalizers();
 
@@ -63,6 +87,9 @@ public void cacheManagerStarting(GlobalComponentRegistry gcr, GlobalConfiguratio
       addSetExternalizers(externalizerMap);
       addHashMapExternalizers(externalizerMap);
       addSortedSetExternalizers(externalizerMap);
+      addHyperLogLogExternalizers(externalizerMap);
+      addBitmapExternalizers(externalizerMap);
+      addStreamExternalizers(externalizerMap);
    }
 
    /**
@@ -135,6 +162,46 @@ private static void addSortedSetExternalizers(Map<Integer, AdvancedExternalizer<
       addAdvancedExternalizer(externalizerMap, SortedSetAggregateFunction.EXTERNALIZER);
    }
 
+   /**
+    * HyperLogLog functions
+    *
+    * @param externalizerMap
+    */
+   private static void addHyperLogLogExternalizers(Map<Integer, AdvancedExternalizer<?>> externalizerMap) {
+      addAdvancedExternalizer(externalizerMap, HyperLogLogAddFunction.EXTERNALIZER);
+      addAdvancedExternalizer(externalizerMap, HyperLogLogMergeFunction.EXTERNALIZER);
+   }
+
+   /**
+    * Bitmap functions
+    *
+    * @param externalizerMap
+    */
+   private static void addBitmapExternalizers(Map<Integer, AdvancedExternalizer<?>> externalizerMap) {
+      addAdvancedExternalizer(externalizerMap, SetBitFunction.EXTERNALIZER);
+      addAdvancedExternalizer(externalizerMap, GetBitFunction.EXTERNALIZER);
+      addAdvancedExternalizer(externalizerMap, BitCountFunction.EXTERNALIZER);
+      addAdvancedExternalizer(externalizerMap, BitPosFunction.EXTERNALIZER);
+      addAdvancedExternalizer(externalizerMap, BitfieldFunction.EXTERNALIZER);
+   }
+
+   /**
+    * Stream functions
+    *
+    * @param externalizerMap
+    */
+   private static void addStreamExternalizers(Map<Integer, AdvancedExternalizer<?>> externalizerMap) {
+      addAdvancedExternalizer(externalizerMap, StreamAddFunction.EXTERNALIZER);
+      addAdvancedExternalizer(externalizerMap, StreamRangeFunction.EXTERNALIZER);
+      addAdvancedExternalizer(externalizerMap, StreamGroupFunction.EXTERNALIZER);
+      addAdvancedExternalizer(externalizerMap, StreamReadGroupFunction.EXTERNALIZER);
+      addAdvancedExternalizer(externalizerMap, StreamAckFunction.EXTERNALIZER);
+      addAdvancedExternalizer(externalizerMap, StreamPendingFunction.EXTERNALIZER);
+      addAdvancedExternalizer(externalizerMap, StreamPendingSummaryFunction.EXTERNALIZER);
+      addAdvancedExternalizer(externalizerMap, StreamDeleteFunction.EXTERNALIZER);
+      addAdvancedExternalizer(externalizerMap, StreamTrimFunction.EXTERNALIZER);
+   }
+
    private static void addAdvancedExternalizer(Map<Integer, AdvancedExternalizer<?>> map, AdvancedExternalizer<?> ext) {
       map.put(ext.getId(), ext);
    }
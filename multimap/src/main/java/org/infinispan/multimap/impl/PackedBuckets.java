@@ -0,0 +1,197 @@
+package org.infinispan.multimap.impl;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.multimap.impl.internal.MultimapObjectWrapper;
+
+/**
+ * Compact binary layout used to marshall buckets whose elements are all {@code byte[]}, which is always the case for
+ * buckets created through the RESP endpoint.
+ * <p>
+ * Instead of wrapping every element in its own {@link org.infinispan.marshall.protostream.impl.MarshallableUserObject}
+ * message, the elements are written back to back in a single byte array:
+ * <pre>
+ *    values:        count, (length, bytes)*
+ *    scored values: count, (score, length, bytes)*
+ *    entries:       count, (key length, key bytes, value length, value bytes)*
+ * </pre>
+ * Counts and lengths are unsigned variable length integers and scores are 8 byte doubles. This keeps the stored form
+ * of a bucket, for example in off-heap memory, close to the size of the elements themselves and allows unmarshalling
+ * it without creating intermediate objects per element.
+ * <p>
+ * The pack methods return {@code null} when the elements are not all {@code byte[]}, in which case the bucket falls
+ * back to the wrapped representation.
+ * <p>
+ * Nodes running an earlier version only read the wrapped representation, and would see a packed bucket as empty.
+ * Buckets are therefore only written packed when
+ * {@link org.infinispan.multimap.configuration.MultimapConfigurationBuilder#packedBuckets(boolean)} is enabled, which
+ * must only be done once every node of the cluster, and every node sharing its stores, runs a version which reads the
+ * packed layout. Packed buckets are always read.
+ * <p>
+ * The same layout is used by the functions that carry scored values, so that the operation replicated to the backup
+ * owners is as compact as the elements it changes. Like the buckets, the functions keep their earlier layout unless
+ * packed buckets are enabled.
+ *
+ * @since 15.0
+ */
+public final class PackedBuckets {
+   // A negative size for MarshallUtil#unmarshallSize, which only writes 0x80 for a null collection
+   private static final byte PACKED_SCORED_VALUES = (byte) 0x81;
+
+   // The generated marshallers have no access to the cache manager, this is set from its configuration when it starts
+   static volatile boolean packBuckets;
+
+   private PackedBuckets() { }
+
+   static boolean canPack(Collection<?> values) {
+      if (!packBuckets) return false;
+      for (Object value : values) {
+         if (!(value instanceof byte[])) return false;
+      }
+      return true;
+   }
+
+   static byte[] packValues(Collection<?> values) {
+      int size = UnsignedNumeric.sizeUnsignedInt(values.size());
+      for (Object value : values) {
+         if (!(value instanceof byte[])) return null;
+         size += sizeOf((byte[]) value);
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(size);
+      UnsignedNumeric.writeUnsignedInt(buffer, values.size());
+      for (Object value : values) {
+         write(buffer, (byte[]) value);
+      }
+      return buffer.array();
+   }
+
+   @SuppressWarnings("unchecked")
+   static <V> void unpackValues(byte[] packed, Consumer<V> consumer) {
+      ByteBuffer buffer = ByteBuffer.wrap(packed);
+      int count = UnsignedNumeric.readUnsignedInt(buffer);
+      for (int i = 0; i < count; ++i) {
+         consumer.accept((V) read(buffer));
+      }
+   }
+
+   static <V> byte[] packScoredValues(Collection<SortedSetBucket.ScoredValue<V>> values) {
+      int size = UnsignedNumeric.sizeUnsignedInt(values.size());
+      for (SortedSetBucket.ScoredValue<V> value : values) {
+         if (!(value.getValue() instanceof byte[])) return null;
+         size += Double.BYTES + sizeOf((byte[]) value.getValue());
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(size);
+      UnsignedNumeric.writeUnsignedInt(buffer, values.size());
+      for (SortedSetBucket.ScoredValue<V> value : values) {
+         buffer.putDouble(value.score());
+         write(buffer, (byte[]) value.getValue());
+      }
+      return buffer.array();
+   }
+
+   @SuppressWarnings("unchecked")
+   static <V> void unpackScoredValues(byte[] packed, Consumer<SortedSetBucket.ScoredValue<V>> consumer) {
+      ByteBuffer buffer = ByteBuffer.wrap(packed);
+      int count = UnsignedNumeric.readUnsignedInt(buffer);
+      for (int i = 0; i < count; ++i) {
+         double score = buffer.getDouble();
+         consumer.accept(SortedSetBucket.ScoredValue.of(score, (V) read(buffer)));
+      }
+   }
+
+   /**
+    * Writes the scored values with {@link MarshallUtil#marshallCollection(Collection, ObjectOutput)}, as earlier
+    * versions do, unless packed buckets are enabled and all the values are {@code byte[]}. The packed layout is
+    * preceded by a marker which earlier versions do not read, and which cannot start a marshalled collection.
+    */
+   public static <V> void writeScoredValues(Collection<SortedSetBucket.ScoredValue<V>> values, ObjectOutput output) throws IOException {
+      byte[] packed = packBuckets && values != null ? packScoredValues(values) : null;
+      if (packed == null) {
+         MarshallUtil.marshallCollection(values, output);
+         return;
+      }
+      output.writeByte(PACKED_SCORED_VALUES);
+      MarshallUtil.marshallByteArray(packed, output);
+   }
+
+   /**
+    * Reads scored values written by {@link #writeScoredValues(Collection, ObjectOutput)} in either layout.
+    */
+   @SuppressWarnings("unchecked")
+   public static <V> Collection<SortedSetBucket.ScoredValue<V>> readScoredValues(ObjectInput input) throws IOException, ClassNotFoundException {
+      byte b = input.readByte();
+      if (b == PACKED_SCORED_VALUES) {
+         Collection<SortedSetBucket.ScoredValue<V>> values = new ArrayList<>();
+         unpackScoredValues(MarshallUtil.unmarshallByteArray(input), values::add);
+         return values;
+      }
+      if ((b & 0x80) != 0) {
+         return null;
+      }
+      // The first byte of MarshallUtil#marshallSize has already been read
+      int size = b & 0x3F;
+      if ((b & 0x40) != 0) {
+         int shift = 6;
+         do {
+            b = input.readByte();
+            size |= (b & 0x7F) << shift;
+            shift += 7;
+         } while ((b & 0x80) != 0);
+      }
+      Collection<SortedSetBucket.ScoredValue<V>> values = new ArrayList<>(size);
+      for (int i = 0; i < size; ++i) {
+         values.add((SortedSetBucket.ScoredValue<V>) input.readObject());
+      }
+      return values;
+   }
+
+   static <K, V> byte[] packEntries(Map<MultimapObjectWrapper<K>, V> entries) {
+      int size = UnsignedNumeric.sizeUnsignedInt(entries.size());
+      for (Map.Entry<MultimapObjectWrapper<K>, V> entry : entries.entrySet()) {
+         if (!(entry.getKey().get() instanceof byte[]) || !(entry.getValue() instanceof byte[])) return null;
+         size += sizeOf((byte[]) entry.getKey().get()) + sizeOf((byte[]) entry.getValue());
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(size);
+      UnsignedNumeric.writeUnsignedInt(buffer, entries.size());
+      for (Map.Entry<MultimapObjectWrapper<K>, V> entry : entries.entrySet()) {
+         write(buffer, (byte[]) entry.getKey().get());
+         write(buffer, (byte[]) entry.getValue());
+      }
+      return buffer.array();
+   }
+
+   @SuppressWarnings("unchecked")
+   static <K, V> void unpackEntries(byte[] packed, BiConsumer<K, V> consumer) {
+      ByteBuffer buffer = ByteBuffer.wrap(packed);
+      int count = UnsignedNumeric.readUnsignedInt(buffer);
+      for (int i = 0; i < count; ++i) {
+         K key = (K) read(buffer);
+         consumer.accept(key, (V) read(buffer));
+      }
+   }
+
+   private static int sizeOf(byte[] bytes) {
+      return UnsignedNumeric.sizeUnsignedInt(bytes.length) + bytes.length;
+   }
+
+   private static void write(ByteBuffer buffer, byte[] bytes) {
+      UnsignedNumeric.writeUnsignedInt(buffer, bytes.length);
+      buffer.put(bytes);
+   }
+
+   private static byte[] read(ByteBuffer buffer) {
+      byte[] bytes = new byte[UnsignedNumeric.readUnsignedInt(buffer)];
+      buffer.get(bytes);
+      return bytes;
+   }
+}
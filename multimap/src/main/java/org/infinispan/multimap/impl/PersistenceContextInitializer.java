@@ -11,10 +11,16 @@
             ListBucket.class,
             HashMapBucket.class,
             HashMapBucket.BucketEntry.class,
+            HyperLogLogBucket.class,
             MultimapObjectWrapper.class,
             SetBucket.class,
             SortedSetBucket.class,
-            SortedSetBucket.ScoredValue.class
+            SortedSetBucket.ScoredValue.class,
+            StreamBucket.class,
+            StreamBucket.Entry.class,
+            StreamBucket.PendingEntry.class,
+            StreamBucket.PendingSummary.class,
+            StreamID.class
       },
       schemaFileName = "persistence.multimap.proto",
       schemaFilePath = "proto/generated",
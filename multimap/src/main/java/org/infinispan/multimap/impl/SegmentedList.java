@@ -0,0 +1,341 @@
+package org.infinispan.multimap.impl;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * List implementation backing {@link ListBucket}, stored as a doubly linked chain of fixed size segments in the style
+ * of a quicklist.
+ * <p>
+ * Adding and removing elements at both ends is O(1) and never copies other elements. Accessing, replacing or
+ * inserting at an index only walks the chain of segments and then works inside a single segment, so at most
+ * {@link #SEGMENT_CAPACITY} elements are moved by any single operation.
+ *
+ * @since 15.0
+ */
+final class SegmentedList<V> extends AbstractCollection<V> {
+   static final int SEGMENT_CAPACITY = 128;
+
+   private Segment<V> head;
+   private Segment<V> tail;
+   private int size;
+   private int modCount;
+
+   SegmentedList() { }
+
+   SegmentedList(Iterable<? extends V> values) {
+      for (V value : values) {
+         offerLast(value);
+      }
+   }
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   @Override
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   @Override
+   public boolean add(V value) {
+      offerLast(value);
+      return true;
+   }
+
+   @Override
+   public void clear() {
+      head = tail = null;
+      size = 0;
+      modCount++;
+   }
+
+   void offerFirst(V value) {
+      if (head == null || head.start == 0) {
+         // New segments for the head are filled from the end, so that further offers at the head do not shift
+         Segment<V> segment = new Segment<>(SEGMENT_CAPACITY);
+         linkBefore(segment, head);
+      }
+      head.items[--head.start] = value;
+      size++;
+      modCount++;
+   }
+
+   void offerLast(V value) {
+      if (tail == null || tail.end == SEGMENT_CAPACITY) {
+         Segment<V> segment = new Segment<>(0);
+         linkAfter(segment, tail);
+      }
+      tail.items[tail.end++] = value;
+      size++;
+      modCount++;
+   }
+
+   V pollFirst() {
+      if (head == null) return null;
+      V value = head.items[head.start];
+      head.items[head.start++] = null;
+      afterRemoval(head);
+      return value;
+   }
+
+   V pollLast() {
+      if (tail == null) return null;
+      V value = tail.items[--tail.end];
+      tail.items[tail.end] = null;
+      afterRemoval(tail);
+      return value;
+   }
+
+   V peekFirst() {
+      return head == null ? null : head.items[head.start];
+   }
+
+   V peekLast() {
+      return tail == null ? null : tail.items[tail.end - 1];
+   }
+
+   /**
+    * @param index the position of the element, which must be greater or equal to 0 and less than {@link #size()}
+    */
+   V get(int index) {
+      Position<V> position = position(index);
+      return position.segment.items[position.offset];
+   }
+
+   /**
+    * Replaces the element at the given index, without modifying the other elements.
+    *
+    * @return the previous element
+    */
+   V set(int index, V value) {
+      Position<V> position = position(index);
+      V previous = position.segment.items[position.offset];
+      position.segment.items[position.offset] = value;
+      modCount++;
+      return previous;
+   }
+
+   /**
+    * Inserts the element so that it ends up at the given index. An index equal to {@link #size()} appends it.
+    */
+   void insert(int index, V value) {
+      if (index == size) {
+         offerLast(value);
+         return;
+      }
+      if (index == 0) {
+         offerFirst(value);
+         return;
+      }
+      Position<V> position = position(index);
+      Segment<V> segment = position.segment;
+      int offset = position.offset;
+      if (segment.size() == SEGMENT_CAPACITY) {
+         // Split the segment in two halves and insert in the one holding the position
+         Segment<V> second = new Segment<>(0);
+         int half = SEGMENT_CAPACITY / 2;
+         System.arraycopy(segment.items, segment.start + half, second.items, 0, SEGMENT_CAPACITY - half);
+         Arrays.fill(segment.items, segment.start + half, segment.end, null);
+         second.end = SEGMENT_CAPACITY - half;
+         segment.end = segment.start + half;
+         linkAfter(second, segment);
+         if (offset >= segment.end) {
+            offset = offset - segment.end;
+            segment = second;
+         }
+      }
+      if (segment.end < SEGMENT_CAPACITY) {
+         System.arraycopy(segment.items, offset, segment.items, offset + 1, segment.end - offset);
+         segment.end++;
+      } else {
+         System.arraycopy(segment.items, segment.start, segment.items, segment.start - 1, offset - segment.start);
+         segment.start--;
+         offset--;
+      }
+      segment.items[offset] = value;
+      size++;
+      modCount++;
+   }
+
+   @Override
+   public Iterator<V> iterator() {
+      return new Itr(false);
+   }
+
+   Iterator<V> descendingIterator() {
+      return new Itr(true);
+   }
+
+   private Position<V> position(int index) {
+      if (index < 0 || index >= size) {
+         throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      // Walk from the closest end
+      if (index < size / 2) {
+         Segment<V> segment = head;
+         while (index >= segment.size()) {
+            index -= segment.size();
+            segment = segment.next;
+         }
+         return new Position<>(segment, segment.start + index);
+      }
+      int fromEnd = size - 1 - index;
+      Segment<V> segment = tail;
+      while (fromEnd >= segment.size()) {
+         fromEnd -= segment.size();
+         segment = segment.prev;
+      }
+      return new Position<>(segment, segment.end - 1 - fromEnd);
+   }
+
+   private void afterRemoval(Segment<V> segment) {
+      size--;
+      modCount++;
+      if (segment.size() == 0) {
+         unlink(segment);
+      }
+   }
+
+   private void linkBefore(Segment<V> segment, Segment<V> successor) {
+      segment.next = successor;
+      if (successor == null) {
+         segment.prev = tail;
+         if (tail != null) tail.next = segment;
+         tail = segment;
+      } else {
+         segment.prev = successor.prev;
+         if (successor.prev != null) successor.prev.next = segment;
+         successor.prev = segment;
+      }
+      if (segment.prev == null) head = segment;
+   }
+
+   private void linkAfter(Segment<V> segment, Segment<V> predecessor) {
+      segment.prev = predecessor;
+      if (predecessor == null) {
+         segment.next = head;
+         if (head != null) head.prev = segment;
+         head = segment;
+      } else {
+         segment.next = predecessor.next;
+         if (predecessor.next != null) predecessor.next.prev = segment;
+         predecessor.next = segment;
+      }
+      if (segment.next == null) tail = segment;
+   }
+
+   private void unlink(Segment<V> segment) {
+      if (segment.prev == null) {
+         head = segment.next;
+      } else {
+         segment.prev.next = segment.next;
+      }
+      if (segment.next == null) {
+         tail = segment.prev;
+      } else {
+         segment.next.prev = segment.prev;
+      }
+   }
+
+   private static final class Segment<V> {
+      final V[] items;
+      int start;
+      int end;
+      Segment<V> prev;
+      Segment<V> next;
+
+      @SuppressWarnings("unchecked")
+      Segment(int position) {
+         this.items = (V[]) new Object[SEGMENT_CAPACITY];
+         this.start = position;
+         this.end = position;
+      }
+
+      int size() {
+         return end - start;
+      }
+   }
+
+   private static final class Position<V> {
+      final Segment<V> segment;
+      final int offset;
+
+      Position(Segment<V> segment, int offset) {
+         this.segment = segment;
+         this.offset = offset;
+      }
+   }
+
+   private final class Itr implements Iterator<V> {
+      private final boolean descending;
+      private Segment<V> segment;
+      // Offset of the next element to return inside segment
+      private int offset;
+      private Segment<V> lastSegment;
+      private int lastOffset = -1;
+      private int expectedModCount = modCount;
+
+      Itr(boolean descending) {
+         this.descending = descending;
+         this.segment = descending ? tail : head;
+         if (segment != null) {
+            offset = descending ? segment.end - 1 : segment.start;
+         }
+      }
+
+      @Override
+      public boolean hasNext() {
+         return segment != null;
+      }
+
+      @Override
+      public V next() {
+         if (expectedModCount != modCount) throw new ConcurrentModificationException();
+         if (segment == null) throw new NoSuchElementException();
+         lastSegment = segment;
+         lastOffset = offset;
+         V value = segment.items[offset];
+         advance();
+         return value;
+      }
+
+      private void advance() {
+         if (descending) {
+            if (--offset < segment.start) {
+               segment = segment.prev;
+               if (segment != null) offset = segment.end - 1;
+            }
+         } else {
+            if (++offset == segment.end) {
+               segment = segment.next;
+               if (segment != null) offset = segment.start;
+            }
+         }
+      }
+
+      @Override
+      public void remove() {
+         if (lastOffset < 0) throw new IllegalStateException();
+         if (expectedModCount != modCount) throw new ConcurrentModificationException();
+         Segment<V> removed = lastSegment;
+         if (descending) {
+            // Elements still to be visited are before the removed one, close the gap from the end
+            System.arraycopy(removed.items, lastOffset + 1, removed.items, lastOffset, removed.end - lastOffset - 1);
+            removed.items[--removed.end] = null;
+         } else {
+            // Elements still to be visited are after the removed one, close the gap from the start
+            System.arraycopy(removed.items, removed.start, removed.items, removed.start + 1, lastOffset - removed.start);
+            removed.items[removed.start++] = null;
+         }
+         afterRemoval(removed);
+         lastOffset = -1;
+         expectedModCount = modCount;
+      }
+   }
+}
@@ -2,7 +2,9 @@
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -43,15 +45,46 @@ public static <V> SetBucket<V> create(V value) {
    }
 
    @ProtoFactory
-   SetBucket(Collection<MultimapObjectWrapper<V>> wrappedValues) {
-      this.values = new HashSet<>(wrappedValues);
+   SetBucket(Collection<MultimapObjectWrapper<V>> wrappedValues, byte[] packedValues) {
+      if (packedValues != null) {
+         this.values = new HashSet<>();
+         PackedBuckets.<V>unpackValues(packedValues, v -> values.add(new MultimapObjectWrapper<>(v)));
+      } else {
+         this.values = wrappedValues == null ? new HashSet<>() : new HashSet<>(wrappedValues);
+      }
    }
 
    @ProtoField(number = 1, collectionImplementation = ArrayList.class)
    Collection<MultimapObjectWrapper<V>> getWrappedValues() {
+      if (isPackable()) {
+         return Collections.emptyList();
+      }
       return new ArrayList<>(values);
    }
 
+   /**
+    * @return the values in the compact layout of {@link PackedBuckets} or {@code null} if they are not all byte[].
+    */
+   @ProtoField(number = 2)
+   byte[] getPackedValues() {
+      if (!isPackable()) {
+         return null;
+      }
+      List<V> unwrapped = new ArrayList<>(values.size());
+      for (MultimapObjectWrapper<V> value : values) {
+         unwrapped.add(value.get());
+      }
+      return PackedBuckets.packValues(unwrapped);
+   }
+
+   private boolean isPackable() {
+      if (!PackedBuckets.packBuckets) return false;
+      for (MultimapObjectWrapper<V> value : values) {
+         if (!(value.get() instanceof byte[])) return false;
+      }
+      return true;
+   }
+
    public Set<V> values() {
       return values.stream().map(MultimapObjectWrapper::get).collect(Collectors.toSet());
    }
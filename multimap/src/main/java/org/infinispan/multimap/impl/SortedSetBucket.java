@@ -13,7 +13,6 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
@@ -29,7 +28,7 @@
 @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_SORTED_SET_BUCKET)
 public class SortedSetBucket<V> {
    private final static Object NO_VALUE = new Object();
-   private final TreeSet<ScoredValue<V>> scoredEntries;
+   final IndexedSkipList<ScoredValue<V>> scoredEntries;
    private final Map<MultimapObjectWrapper<V>, Double> entries;
 
    /**
@@ -121,18 +120,41 @@ public Collection<ScoredValue<V>> inter(Collection<ScoredValue<V>> inputValues,
    }
 
    @ProtoFactory
-   SortedSetBucket(Collection<ScoredValue<V>> wrappedValues) {
-      scoredEntries = new TreeSet<>();
-      scoredEntries.addAll(wrappedValues);
+   SortedSetBucket(Collection<ScoredValue<V>> wrappedValues, byte[] packedValues) {
+      scoredEntries = new IndexedSkipList<>();
       entries = new HashMap<>();
-      wrappedValues.forEach(e -> entries.put(e.wrappedValue(), e.score()));
+      if (packedValues != null) {
+         PackedBuckets.<V>unpackScoredValues(packedValues, this::addScoredValue);
+      } else if (wrappedValues != null) {
+         wrappedValues.forEach(this::addScoredValue);
+      }
    }
 
    @ProtoField(number = 1, collectionImplementation = ArrayList.class)
    Collection<ScoredValue<V>> getWrappedValues() {
+      if (isPackable()) {
+         return Collections.emptyList();
+      }
       return new ArrayList<>(scoredEntries);
    }
 
+   /**
+    * @return the scored values in the compact layout of {@link PackedBuckets} or {@code null} if the members are not
+    * all byte[].
+    */
+   @ProtoField(number = 2)
+   byte[] getPackedValues() {
+      return isPackable() ? PackedBuckets.packScoredValues(scoredEntries) : null;
+   }
+
+   private boolean isPackable() {
+      if (!PackedBuckets.packBuckets) return false;
+      for (MultimapObjectWrapper<V> member : entries.keySet()) {
+         if (!(member.get() instanceof byte[])) return false;
+      }
+      return true;
+   }
+
    /**
     * Returns a copy of the entries;
     * @return entries copy
@@ -150,7 +172,7 @@ public List<ScoredValue<V>> getScoredEntriesAsList() {
    }
 
    public SortedSetBucket() {
-      this.scoredEntries = new TreeSet<>();
+      this.scoredEntries = new IndexedSkipList<>();
       this.entries = new HashMap<>();
    }
 
@@ -174,9 +196,9 @@ public IndexValue indexOf(V member, boolean isRev) {
       if (score == null) {
          return null;
       }
-      SortedSet<ScoredValue<V>> tailedHead = scoredEntries.headSet(new ScoredValue<>(score, wrapMember));
-      return isRev? IndexValue.of(score, scoredEntries.size() - tailedHead.size() - 1)
-            : IndexValue.of(score, tailedHead.size());
+      int rank = scoredEntries.countLower(new ScoredValue<>(score, wrapMember));
+      return isRev? IndexValue.of(score, scoredEntries.size() - rank - 1)
+            : IndexValue.of(score, rank);
    }
 
    public void replace(Collection<ScoredValue<V>> scoredValues) {
@@ -313,25 +335,17 @@ public List<ScoredValue<V>> subsetByIndex(long from, long to, boolean rev) {
          return Collections.emptyList();
       }
 
-      List<ScoredValue<V>> results = new ArrayList<>();
-      Iterator<ScoredValue<V>> ite;
-      if (rev) {
-         ite = scoredEntries.descendingIterator();
-      } else {
-         ite = scoredEntries.iterator();
-      }
-
-      long pos = 0;
-      while ((pos < fromIte) && ite.hasNext()) {
-         ite.next();
-         pos++;
+      fromIte = Math.max(fromIte, 0);
+      toIte = Math.min(toIte, scoredEntries.size() - 1);
+      if (fromIte > toIte) {
+         return Collections.emptyList();
       }
 
-      while ((pos <= toIte) && ite.hasNext()) {
+      List<ScoredValue<V>> results = new ArrayList<>((int) (toIte - fromIte + 1));
+      Iterator<ScoredValue<V>> ite = scoredEntries.iterator((int) fromIte, rev);
+      for (long pos = fromIte; pos <= toIte; pos++) {
          results.add(ite.next());
-         pos++;
       }
-
       return results;
    }
 
@@ -345,54 +359,38 @@ public List<ScoredValue<V>> subset(Double startScore, boolean includeStart, Doub
       boolean includeMin = isRev ? includeStop : includeStart;
       Double max = isRev ? startScore : stopScore;
       boolean includeMax = isRev ? includeStart : includeStop;
-      boolean unboundedMin = min == null || min == Double.MIN_VALUE;
-      boolean unboundedMax = max == null || max == Double.MAX_VALUE;
-
-      if (unboundedMin && unboundedMax) {
-         return applyLimit(scoredEntries, offset, count, isRev);
-      }
-
-      ScoredValue<V> startSv;
-      ScoredValue<V> stopSv;
-      if (unboundedMin) {
-         startSv = scoredEntries.first();
-      } else {
-         if (includeMin) {
-            startSv = scoredEntries.lower(new ScoredValue(min, NO_VALUE));
-         } else {
-            startSv = scoredEntries.higher(new ScoredValue(min, NO_VALUE));
-         }
-
-         if (startSv == null) {
-            startSv = scoredEntries.first();
-         }
-      }
+      return range(lowerBound(min, includeMin), upperBound(max, includeMax), isRev, offset, count);
+   }
 
-      if (unboundedMax) {
-         stopSv = scoredEntries.last();
-      } else {
-         if (includeMax) {
-            stopSv = scoredEntries.higher(new ScoredValue(max, NO_VALUE));
-         } else {
-            stopSv = scoredEntries.lower(new ScoredValue(max, NO_VALUE));
-         }
+   /**
+    * Counts the elements with a score between min and max.
+    */
+   public long count(Double min, boolean includeMin, Double max, boolean includeMax) {
+      return Math.max(0, upperBound(max, includeMax) - lowerBound(min, includeMin));
+   }
 
-         if (stopSv == null) {
-            stopSv = scoredEntries.last();
-         }
+   /**
+    * @return the index of the first element with a score greater than (or equal to, if inclusive) min
+    */
+   @SuppressWarnings({ "unchecked", "rawtypes" })
+   private int lowerBound(Double min, boolean includeMin) {
+      if (min == null || min == Double.MIN_VALUE) {
+         return 0;
       }
+      ScoredValue key = new ScoredValue(min, NO_VALUE);
+      return includeMin ? scoredEntries.countLower(key) : scoredEntries.countLowerOrEqual(key);
+   }
 
-      if (startSv.score() > stopSv.score()) {
-         return Collections.emptyList();
+   /**
+    * @return the index following the last element with a score lower than (or equal to, if inclusive) max
+    */
+   @SuppressWarnings({ "unchecked", "rawtypes" })
+   private int upperBound(Double max, boolean includeMax) {
+      if (max == null || max == Double.MAX_VALUE) {
+         return scoredEntries.size();
       }
-
-      NavigableSet<ScoredValue<V>> subset = scoredEntries.subSet(
-            startSv,
-            unboundedMin || (startSv.score() > min || (includeMin && startSv.score().equals(min))),
-            stopSv,
-            unboundedMax || (stopSv.score() < max || (includeMax && stopSv.score().equals(max))));
-
-      return applyLimit(subset, offset, count, isRev);
+      ScoredValue key = new ScoredValue(max, NO_VALUE);
+      return includeMax ? scoredEntries.countLowerOrEqual(key) : scoredEntries.countLower(key);
    }
 
    public List<ScoredValue<V>> subset(V startValue, boolean includeStart, V stopValue, boolean includeStop, boolean isRev, Long offset, Long count) {
@@ -408,65 +406,57 @@ public List<ScoredValue<V>> subset(V startValue, boolean includeStart, V stopVal
       boolean unboundedMax = maxValue == null;
 
       if (unboundedMin && unboundedMax) {
-         return applyLimit(scoredEntries, offset, count, isRev);
+         return range(0, scoredEntries.size(), isRev, offset, count);
+      }
+      if (scoredEntries.isEmpty()) {
+         return Collections.emptyList();
       }
       // if all the scoredEntries have the same score, then we can pick up first score for lex
       // when all the entries don't have the same score, this method can't work. This is the expected behaviour.
       double score = scoredEntries.first().score;
 
-      ScoredValue<V> minScoredValue = new ScoredValue<>(score, minValue);
-      ScoredValue<V> maxScoredValue = new ScoredValue<>(score, maxValue);
-
-      if (unboundedMin) {
-         NavigableSet<ScoredValue<V>> entries = scoredEntries.headSet(maxScoredValue, includeMax);
-         return applyLimit(entries, offset, count, isRev);
+      int from = 0;
+      if (!unboundedMin) {
+         ScoredValue<V> minScoredValue = new ScoredValue<>(score, minValue);
+         from = includeMin ? scoredEntries.countLower(minScoredValue) : scoredEntries.countLowerOrEqual(minScoredValue);
       }
-
-      if (unboundedMax) {
-         NavigableSet<ScoredValue<V>> entries = scoredEntries.tailSet(minScoredValue, includeMin);
-         return applyLimit(entries, offset, count, isRev);
+      int to = scoredEntries.size();
+      if (!unboundedMax) {
+         ScoredValue<V> maxScoredValue = new ScoredValue<>(score, maxValue);
+         to = includeMax ? scoredEntries.countLowerOrEqual(maxScoredValue) : scoredEntries.countLower(maxScoredValue);
       }
+      return range(from, to, isRev, offset, count);
+   }
 
-      try {
-         NavigableSet<ScoredValue<V>> entries = scoredEntries.subSet(minScoredValue, includeMin, maxScoredValue, includeMax);
-         return applyLimit(entries, offset, count, isRev);
-      } catch (IllegalArgumentException e) {
+   /**
+    * Returns the elements with an index between from, inclusive, and to, exclusive, applying the offset and count
+    * to the elements in the requested order.
+    */
+   private List<ScoredValue<V>> range(int from, int to, boolean isRev, Long offset, Long count) {
+      int length = to - from;
+      if (length <= 0) {
          return Collections.emptyList();
       }
-   }
-
-   private List<ScoredValue<V>> applyLimit(NavigableSet<ScoredValue<V>> subset, final Long offset, final Long count, boolean isRev) {
-      if (!isLimited(offset, count)) {
-         List<ScoredValue<V>> result = new ArrayList<>(entries.size());
-         Iterator<ScoredValue<V>> ite = isRev ? subset.descendingIterator() : subset.iterator();
-         while (ite.hasNext()) {
-            result.add(ite.next());
+      long start = 0;
+      long end = length;
+      if (isLimited(offset, count)) {
+         start = Math.min(Math.max(offset, 0), length);
+         if (count >= 0) {
+            end = Math.min(length, start + count);
          }
-         return result;
       }
-
-      List<ScoredValue<V>> result = new ArrayList<>();
-      Iterator<ScoredValue<V>> ite = isRev ? subset.descendingIterator() : subset.iterator();
-      if (count < 0) {
-         skipOffset(offset, ite);
-         while (ite.hasNext()) {
-            result.add(ite.next());
-         }
-      } else {
-         skipOffset(offset, ite);
-         long localCount = 0;
-         while (ite.hasNext() && localCount++ < count) {
-            result.add(ite.next());
-         }
+      if (start >= end) {
+         return Collections.emptyList();
       }
-      return result;
-   }
 
-   private void skipOffset(Long offset, Iterator<ScoredValue<V>> ite) {
-      long localOffset = 0;
-      while (localOffset++ < offset && ite.hasNext()) {
-         ite.next();
+      List<ScoredValue<V>> result = new ArrayList<>((int) (end - start));
+      // Descending iterators count the index from the last element
+      int index = (int) (isRev ? scoredEntries.size() - to + start : from + start);
+      Iterator<ScoredValue<V>> ite = scoredEntries.iterator(index, isRev);
+      for (long i = start; i < end; i++) {
+         result.add(ite.next());
       }
+      return result;
    }
 
    private static boolean isLimited(Long offset, Long count) {
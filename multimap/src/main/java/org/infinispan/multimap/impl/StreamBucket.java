@@ -0,0 +1,845 @@
+package org.infinispan.multimap.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+
+/**
+ * Bucket used to store the stream data type, an append only log of entries ordered by increasing {@link StreamID}.
+ * <p>
+ * The entries are stored in segments of up to {@link #SEGMENT_CAPACITY} entries, indexed by the ID of their first entry,
+ * like the radix tree of list packs of Redis. Adding an entry only touches the last segment and a range read only
+ * looks up the segment holding its start and then reads the following ones, so neither depends on the length of the
+ * stream. A deleted entry leaves a hole in its segment, and a segment is dropped once all its entries are deleted or
+ * trimmed.
+ * <p>
+ * The consumer groups track the last entry delivered to the group and the entries delivered but not acknowledged
+ * yet, the pending entries, by consumer.
+ * <p>
+ * The bucket is marshalled as two byte arrays, one with the entries and one with the groups, so that its stored form
+ * is close to the size of the entries themselves. The times used by the operations are given by the caller, so that
+ * applying an operation on the backup owners gives the same result as on the primary owner.
+ *
+ * @since 15.0
+ */
+@ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_STREAM_BUCKET)
+public class StreamBucket {
+   static final int SEGMENT_CAPACITY = 100;
+   private static final byte[][] NO_VALUES = new byte[0][];
+
+   private final TreeMap<StreamID, Segment> segments = new TreeMap<>();
+   private final Map<String, ConsumerGroup> groups = new LinkedHashMap<>();
+   private long length;
+   private StreamID lastId = StreamID.MIN;
+   private StreamID maxDeletedId = StreamID.MIN;
+   private long entriesAdded;
+
+   public StreamBucket() {
+   }
+
+   @ProtoFactory
+   StreamBucket(byte[] entries, StreamID lastId, StreamID maxDeletedId, long entriesAdded, byte[] consumerGroups) {
+      if (entries != null) {
+         unpackEntries(entries);
+      }
+      if (consumerGroups != null) {
+         unpackGroups(consumerGroups);
+      }
+      this.lastId = lastId == null ? StreamID.MIN : lastId;
+      this.maxDeletedId = maxDeletedId == null ? StreamID.MIN : maxDeletedId;
+      this.entriesAdded = entriesAdded;
+   }
+
+   @ProtoField(number = 1)
+   byte[] getEntries() {
+      return packEntries();
+   }
+
+   @ProtoField(number = 2)
+   public StreamID getLastId() {
+      return lastId;
+   }
+
+   @ProtoField(number = 3)
+   public StreamID getMaxDeletedId() {
+      return maxDeletedId;
+   }
+
+   /**
+    * @return the number of entries ever added to the stream
+    */
+   @ProtoField(number = 4, defaultValue = "0")
+   public long getEntriesAdded() {
+      return entriesAdded;
+   }
+
+   @ProtoField(number = 5)
+   byte[] getConsumerGroups() {
+      return groups.isEmpty() ? null : packGroups();
+   }
+
+   public long size() {
+      return length;
+   }
+
+   /**
+    * Adds an entry at the end of the stream.
+    *
+    * @param id              the ID of the entry, null to generate it from the time
+    * @param autoSequence    whether only the time of the ID is given and the sequence is generated
+    * @param now             the current time in milliseconds
+    * @param fieldsAndValues the fields of the entry, each followed by its value
+    * @return the ID of the entry
+    * @throws StreamException if the ID is not greater than the last ID of the stream
+    */
+   public StreamID add(StreamID id, boolean autoSequence, long now, List<byte[]> fieldsAndValues) {
+      StreamID newId;
+      if (id == null) {
+         newId = Long.compareUnsigned(now, lastId.ms()) > 0 ? new StreamID(now, 0) : lastId.next();
+      } else if (autoSequence) {
+         int c = Long.compareUnsigned(id.ms(), lastId.ms());
+         if (c < 0) {
+            throw new StreamException("ERR The ID specified in XADD is equal or smaller than the target stream top item");
+         }
+         newId = c > 0 ? new StreamID(id.ms(), 0) : lastId.seq() == -1L ? null : lastId.next();
+      } else {
+         if (id.equals(StreamID.MIN)) {
+            throw new StreamException("ERR The ID specified in XADD must be greater than 0-0");
+         }
+         if (id.compareTo(lastId) <= 0) {
+            throw new StreamException("ERR The ID specified in XADD is equal or smaller than the target stream top item");
+         }
+         newId = id;
+      }
+      if (newId == null) {
+         throw new StreamException("ERR The stream has exhausted the last possible ID, unable to add more items");
+      }
+      append(newId, fieldsAndValues.toArray(NO_VALUES));
+      lastId = newId;
+      entriesAdded++;
+      return newId;
+   }
+
+   private void append(StreamID id, byte[][] values) {
+      Map.Entry<StreamID, Segment> last = segments.lastEntry();
+      Segment segment = last == null ? null : last.getValue();
+      if (segment == null || segment.size == SEGMENT_CAPACITY) {
+         segment = new Segment();
+         segments.put(id, segment);
+      }
+      segment.ids[segment.size] = id;
+      segment.values[segment.size++] = values;
+      segment.live++;
+      length++;
+   }
+
+   /**
+    * Returns the entries between the two IDs, both inclusive.
+    *
+    * @param count   the maximum number of entries, or a negative number for all of them
+    * @param reverse whether the entries are returned from the end, in decreasing order of IDs
+    */
+   public List<Entry> range(StreamID start, StreamID end, long count, boolean reverse) {
+      List<Entry> entries = new ArrayList<>();
+      if (count == 0 || start.compareTo(end) > 0 || segments.isEmpty()) {
+         return entries;
+      }
+      if (reverse) {
+         StreamID floor = segments.floorKey(end);
+         if (floor == null) {
+            return entries;
+         }
+         for (Segment segment : segments.headMap(floor, true).descendingMap().values()) {
+            for (int i = segment.upperBound(end) - 1; i >= 0; --i) {
+               if (segment.ids[i].compareTo(start) < 0) {
+                  return entries;
+               }
+               if (segment.values[i] != null) {
+                  entries.add(segment.entry(i));
+                  if (entries.size() == count) {
+                     return entries;
+                  }
+               }
+            }
+         }
+      } else {
+         StreamID floor = segments.floorKey(start);
+         for (Segment segment : (floor == null ? segments : segments.tailMap(floor, true)).values()) {
+            for (int i = segment.lowerBound(start); i < segment.size; ++i) {
+               if (segment.ids[i].compareTo(end) > 0) {
+                  return entries;
+               }
+               if (segment.values[i] != null) {
+                  entries.add(segment.entry(i));
+                  if (entries.size() == count) {
+                     return entries;
+                  }
+               }
+            }
+         }
+      }
+      return entries;
+   }
+
+   /**
+    * @return the entry with the ID, or null if it does not exist or was deleted
+    */
+   public Entry get(StreamID id) {
+      Map.Entry<StreamID, Segment> floor = segments.floorEntry(id);
+      if (floor == null) {
+         return null;
+      }
+      Segment segment = floor.getValue();
+      int i = segment.lowerBound(id);
+      return i < segment.size && segment.ids[i].equals(id) && segment.values[i] != null ? segment.entry(i) : null;
+   }
+
+   /**
+    * Deletes the entries with the given IDs.
+    *
+    * @return the number of entries deleted
+    */
+   public long delete(Collection<StreamID> ids) {
+      long deleted = 0;
+      for (StreamID id : ids) {
+         Map.Entry<StreamID, Segment> floor = segments.floorEntry(id);
+         if (floor == null) {
+            continue;
+         }
+         Segment segment = floor.getValue();
+         int i = segment.lowerBound(id);
+         if (i < segment.size && segment.ids[i].equals(id) && segment.values[i] != null) {
+            delete(floor.getKey(), segment, i);
+            deleted++;
+            if (id.compareTo(maxDeletedId) > 0) {
+               maxDeletedId = id;
+            }
+         }
+      }
+      return deleted;
+   }
+
+   private void delete(StreamID segmentId, Segment segment, int i) {
+      segment.values[i] = null;
+      segment.live--;
+      length--;
+      if (segment.live == 0) {
+         segments.remove(segmentId);
+      }
+   }
+
+   /**
+    * Removes the oldest entries so that the stream has at most the given length.
+    *
+    * @param approximate whether only whole segments are removed, which may leave more entries than the length
+    * @return the number of entries removed
+    */
+   public long trimToLength(long maxLength, boolean approximate) {
+      long removed = 0;
+      while (length > maxLength) {
+         Map.Entry<StreamID, Segment> first = segments.firstEntry();
+         Segment segment = first.getValue();
+         if (segment.live <= length - maxLength) {
+            segments.remove(first.getKey());
+            length -= segment.live;
+            removed += segment.live;
+         } else {
+            if (!approximate) {
+               for (int i = 0; length > maxLength; ++i) {
+                  if (segment.values[i] != null) {
+                     delete(first.getKey(), segment, i);
+                     removed++;
+                  }
+               }
+            }
+            break;
+         }
+      }
+      return removed;
+   }
+
+   /**
+    * Removes the entries with an ID smaller than the given one.
+    *
+    * @param approximate whether only whole segments are removed, which may leave smaller IDs
+    * @return the number of entries removed
+    */
+   public long trimToMinId(StreamID minId, boolean approximate) {
+      long removed = 0;
+      while (!segments.isEmpty()) {
+         Map.Entry<StreamID, Segment> first = segments.firstEntry();
+         Segment segment = first.getValue();
+         if (segment.ids[segment.size - 1].compareTo(minId) < 0) {
+            segments.remove(first.getKey());
+            length -= segment.live;
+            removed += segment.live;
+         } else {
+            if (!approximate) {
+               int end = segment.lowerBound(minId);
+               for (int i = 0; i < end; ++i) {
+                  if (segment.values[i] != null) {
+                     delete(first.getKey(), segment, i);
+                     removed++;
+                  }
+               }
+            }
+            break;
+         }
+      }
+      return removed;
+   }
+
+   /**
+    * @return the consumer group, or null if it does not exist
+    */
+   public ConsumerGroup group(String name) {
+      return groups.get(name);
+   }
+
+   /**
+    * @return the consumer groups, in the order they were created
+    */
+   public Collection<ConsumerGroup> groups() {
+      return Collections.unmodifiableCollection(groups.values());
+   }
+
+   /**
+    * Creates a consumer group that receives the entries after the given ID.
+    *
+    * @return whether the group was created, false if it already exists
+    */
+   public boolean createGroup(String name, StreamID lastDelivered) {
+      if (groups.containsKey(name)) {
+         return false;
+      }
+      groups.put(name, new ConsumerGroup(name, lastDelivered));
+      return true;
+   }
+
+   public boolean destroyGroup(String name) {
+      return groups.remove(name) != null;
+   }
+
+   private ConsumerGroup requireGroup(String name) {
+      ConsumerGroup group = groups.get(name);
+      if (group == null) {
+         throw new StreamException("NOGROUP No such consumer group '" + name + "'");
+      }
+      return group;
+   }
+
+   /**
+    * Changes the last entry delivered to the group.
+    *
+    * @throws StreamException if the group does not exist
+    */
+   public void setGroupLastDelivered(String name, StreamID lastDelivered) {
+      requireGroup(name).lastDelivered = lastDelivered;
+   }
+
+   /**
+    * @return whether the consumer was created, false if it already exists
+    * @throws StreamException if the group does not exist
+    */
+   public boolean createConsumer(String group, String consumer, long now) {
+      ConsumerGroup g = requireGroup(group);
+      if (g.consumers.containsKey(consumer)) {
+         return false;
+      }
+      g.consumer(consumer, now);
+      return true;
+   }
+
+   /**
+    * Deletes the consumer and its pending entries.
+    *
+    * @return the number of pending entries the consumer had
+    * @throws StreamException if the group does not exist
+    */
+   public long deleteConsumer(String group, String consumer) {
+      ConsumerGroup g = requireGroup(group);
+      Consumer c = g.consumers.remove(consumer);
+      if (c == null) {
+         return 0;
+      }
+      g.pending.values().removeIf(p -> p.consumer.equals(consumer));
+      return c.pending;
+   }
+
+   /**
+    * Reads entries for the consumer of the group, creating the consumer if needed.
+    *
+    * @param after the entries of the consumer that are pending are returned after this ID. When null, the entries
+    *              never delivered to the group are returned, and become pending for the consumer
+    * @param count the maximum number of entries, or a negative number for all of them
+    * @param noAck whether the new entries are acknowledged when delivered, and so never pending
+    * @param now   the current time in milliseconds
+    * @return the entries, an entry deleted while pending has no fields
+    * @throws StreamException if the group does not exist
+    */
+   public List<Entry> readGroup(String group, String consumer, StreamID after, long count, boolean noAck, long now) {
+      ConsumerGroup g = requireGroup(group);
+      Consumer c = g.consumer(consumer, now);
+      if (after == null) {
+         StreamID start = g.lastDelivered.next();
+         if (start == null) {
+            return new ArrayList<>();
+         }
+         List<Entry> entries = range(start, StreamID.MAX, count, false);
+         for (Entry entry : entries) {
+            g.lastDelivered = entry.id;
+            if (!noAck) {
+               PendingEntry previous = g.pending.put(entry.id, new PendingEntry(entry.id, consumer, now, 1));
+               if (previous != null) {
+                  g.consumers.get(previous.consumer).pending--;
+               }
+               c.pending++;
+            }
+         }
+         return entries;
+      }
+      List<Entry> entries = new ArrayList<>();
+      for (PendingEntry p : g.pending.tailMap(after, false).values()) {
+         if (entries.size() == count) {
+            break;
+         }
+         if (p.consumer.equals(consumer)) {
+            p.deliveryTime = now;
+            p.deliveryCount++;
+            Entry entry = get(p.id);
+            entries.add(entry == null ? new Entry(p.id, List.of()) : entry);
+         }
+      }
+      return entries;
+   }
+
+   /**
+    * Removes the entries from the pending entries of the group.
+    *
+    * @return the number of entries that were pending
+    */
+   public long ack(String group, Collection<StreamID> ids) {
+      ConsumerGroup g = groups.get(group);
+      if (g == null) {
+         return 0;
+      }
+      long acked = 0;
+      for (StreamID id : ids) {
+         PendingEntry p = g.pending.remove(id);
+         if (p != null) {
+            g.consumers.get(p.consumer).pending--;
+            acked++;
+         }
+      }
+      return acked;
+   }
+
+   /**
+    * @return the number of pending entries of the group, their smallest and largest IDs and the number by consumer
+    * @throws StreamException if the group does not exist
+    */
+   public PendingSummary pendingSummary(String group) {
+      ConsumerGroup g = requireGroup(group);
+      List<String> consumers = new ArrayList<>();
+      List<Long> counts = new ArrayList<>();
+      for (Consumer c : g.consumers.values()) {
+         if (c.pending > 0) {
+            consumers.add(c.name);
+            counts.add(c.pending);
+         }
+      }
+      if (g.pending.isEmpty()) {
+         return new PendingSummary(0, null, null, consumers, counts);
+      }
+      return new PendingSummary(g.pending.size(), g.pending.firstKey(), g.pending.lastKey(), consumers, counts);
+   }
+
+   /**
+    * Returns the pending entries of the group between the two IDs, both inclusive.
+    *
+    * @param consumer the consumer of the entries, or null for all the consumers
+    * @param minIdle  the minimum time in milliseconds since the entries were delivered
+    * @param now      the current time in milliseconds
+    * @throws StreamException if the group does not exist
+    */
+   public List<PendingEntry> pending(String group, StreamID start, StreamID end, long count, String consumer,
+                                     long minIdle, long now) {
+      ConsumerGroup g = requireGroup(group);
+      List<PendingEntry> entries = new ArrayList<>();
+      if (count <= 0 || start.compareTo(end) > 0) {
+         return entries;
+      }
+      for (PendingEntry p : g.pending.subMap(start, true, end, true).values()) {
+         if ((consumer == null || p.consumer.equals(consumer)) && now - p.deliveryTime >= minIdle) {
+            entries.add(p.copy());
+            if (entries.size() == count) {
+               break;
+            }
+         }
+      }
+      return entries;
+   }
+
+   private byte[] packEntries() {
+      if (length == 0) {
+         return null;
+      }
+      Packer packer = new Packer();
+      packer.writeLong(length);
+      long previousMs = 0;
+      for (Segment segment : segments.values()) {
+         for (int i = 0; i < segment.size; ++i) {
+            byte[][] values = segment.values[i];
+            if (values == null) {
+               continue;
+            }
+            StreamID id = segment.ids[i];
+            // The times only grow, so the difference with the previous entry is small
+            packer.writeLong(id.ms() - previousMs);
+            packer.writeLong(id.seq());
+            previousMs = id.ms();
+            packer.writeLong(values.length);
+            for (byte[] value : values) {
+               packer.writeBytes(value);
+            }
+         }
+      }
+      return packer.toByteArray();
+   }
+
+   private void unpackEntries(byte[] packed) {
+      ByteBuffer buffer = ByteBuffer.wrap(packed);
+      long count = UnsignedNumeric.readUnsignedLong(buffer);
+      long ms = 0;
+      for (long e = 0; e < count; ++e) {
+         ms += UnsignedNumeric.readUnsignedLong(buffer);
+         StreamID id = new StreamID(ms, UnsignedNumeric.readUnsignedLong(buffer));
+         byte[][] values = new byte[UnsignedNumeric.readUnsignedInt(buffer)][];
+         for (int i = 0; i < values.length; ++i) {
+            values[i] = readBytes(buffer);
+         }
+         append(id, values);
+      }
+   }
+
+   private byte[] packGroups() {
+      Packer packer = new Packer();
+      packer.writeLong(groups.size());
+      for (ConsumerGroup group : groups.values()) {
+         packer.writeString(group.name);
+         packer.writeLong(group.lastDelivered.ms());
+         packer.writeLong(group.lastDelivered.seq());
+         packer.writeLong(group.consumers.size());
+         for (Consumer consumer : group.consumers.values()) {
+            packer.writeString(consumer.name);
+            packer.writeLong(consumer.seenTime);
+         }
+         packer.writeLong(group.pending.size());
+         for (PendingEntry p : group.pending.values()) {
+            packer.writeLong(p.id.ms());
+            packer.writeLong(p.id.seq());
+            packer.writeString(p.consumer);
+            packer.writeLong(p.deliveryTime);
+            packer.writeLong(p.deliveryCount);
+         }
+      }
+      return packer.toByteArray();
+   }
+
+   private void unpackGroups(byte[] packed) {
+      ByteBuffer buffer = ByteBuffer.wrap(packed);
+      int count = UnsignedNumeric.readUnsignedInt(buffer);
+      for (int g = 0; g < count; ++g) {
+         String name = readString(buffer);
+         ConsumerGroup group = new ConsumerGroup(name,
+               new StreamID(UnsignedNumeric.readUnsignedLong(buffer), UnsignedNumeric.readUnsignedLong(buffer)));
+         int consumers = UnsignedNumeric.readUnsignedInt(buffer);
+         for (int c = 0; c < consumers; ++c) {
+            group.consumer(readString(buffer), UnsignedNumeric.readUnsignedLong(buffer));
+         }
+         int pending = UnsignedNumeric.readUnsignedInt(buffer);
+         for (int p = 0; p < pending; ++p) {
+            StreamID id = new StreamID(UnsignedNumeric.readUnsignedLong(buffer), UnsignedNumeric.readUnsignedLong(buffer));
+            String consumer = readString(buffer);
+            PendingEntry entry = new PendingEntry(id, consumer, UnsignedNumeric.readUnsignedLong(buffer),
+                  UnsignedNumeric.readUnsignedLong(buffer));
+            group.pending.put(id, entry);
+            group.consumers.get(consumer).pending++;
+         }
+         groups.put(name, group);
+      }
+   }
+
+   private static byte[] readBytes(ByteBuffer buffer) {
+      byte[] bytes = new byte[UnsignedNumeric.readUnsignedInt(buffer)];
+      buffer.get(bytes);
+      return bytes;
+   }
+
+   private static String readString(ByteBuffer buffer) {
+      return new String(readBytes(buffer), StandardCharsets.UTF_8);
+   }
+
+   /**
+    * Writes unsigned variable length numbers and byte arrays prefixed by their length.
+    */
+   private static final class Packer {
+      private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+      void writeLong(long value) {
+         try {
+            UnsignedNumeric.writeUnsignedLong((OutputStream) out, value);
+         } catch (IOException e) {
+            throw new UncheckedIOException(e);
+         }
+      }
+
+      void writeBytes(byte[] bytes) {
+         writeLong(bytes.length);
+         out.write(bytes, 0, bytes.length);
+      }
+
+      void writeString(String string) {
+         writeBytes(string.getBytes(StandardCharsets.UTF_8));
+      }
+
+      byte[] toByteArray() {
+         return out.toByteArray();
+      }
+   }
+
+   /**
+    * A fixed size run of entries, in increasing order of IDs. A deleted entry keeps its ID with null values.
+    */
+   private static final class Segment {
+      final StreamID[] ids = new StreamID[SEGMENT_CAPACITY];
+      final byte[][][] values = new byte[SEGMENT_CAPACITY][][];
+      int size;
+      int live;
+
+      /**
+       * @return the index of the first ID greater or equal to the given one
+       */
+      int lowerBound(StreamID id) {
+         int i = Arrays.binarySearch(ids, 0, size, id);
+         return i >= 0 ? i : -i - 1;
+      }
+
+      /**
+       * @return the index of the first ID greater than the given one
+       */
+      int upperBound(StreamID id) {
+         int i = Arrays.binarySearch(ids, 0, size, id);
+         return i >= 0 ? i + 1 : -i - 1;
+      }
+
+      Entry entry(int i) {
+         return new Entry(ids[i], Arrays.asList(values[i]));
+      }
+   }
+
+   /**
+    * An entry of the stream, its ID followed by its fields and values.
+    */
+   @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_STREAM_ENTRY)
+   public static final class Entry {
+      private final StreamID id;
+      private final List<byte[]> fieldsAndValues;
+
+      @ProtoFactory
+      public Entry(StreamID id, List<byte[]> fieldsAndValues) {
+         this.id = id;
+         this.fieldsAndValues = fieldsAndValues;
+      }
+
+      @ProtoField(number = 1)
+      public StreamID id() {
+         return id;
+      }
+
+      /**
+       * @return the fields of the entry, each followed by its value, or an empty list if the entry was deleted
+       */
+      @ProtoField(number = 2, collectionImplementation = ArrayList.class)
+      public List<byte[]> fieldsAndValues() {
+         return fieldsAndValues;
+      }
+
+      @Override
+      public String toString() {
+         return "Entry{" + id + ", " + fieldsAndValues.size() / 2 + " fields}";
+      }
+   }
+
+   /**
+    * A consumer group of the stream.
+    */
+   public static final class ConsumerGroup {
+      private final String name;
+      private final Map<String, Consumer> consumers = new LinkedHashMap<>();
+      private final NavigableMap<StreamID, PendingEntry> pending = new TreeMap<>();
+      private StreamID lastDelivered;
+
+      ConsumerGroup(String name, StreamID lastDelivered) {
+         this.name = name;
+         this.lastDelivered = lastDelivered;
+      }
+
+      public String name() {
+         return name;
+      }
+
+      public StreamID lastDelivered() {
+         return lastDelivered;
+      }
+
+      public long pendingCount() {
+         return pending.size();
+      }
+
+      public Collection<String> consumers() {
+         return Collections.unmodifiableCollection(consumers.keySet());
+      }
+
+      private Consumer consumer(String name, long now) {
+         Consumer consumer = consumers.computeIfAbsent(name, Consumer::new);
+         consumer.seenTime = now;
+         return consumer;
+      }
+   }
+
+   private static final class Consumer {
+      final String name;
+      long seenTime;
+      long pending;
+
+      Consumer(String name) {
+         this.name = name;
+      }
+   }
+
+   /**
+    * An entry delivered to a consumer and not acknowledged yet.
+    */
+   @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_STREAM_PENDING_ENTRY)
+   public static final class PendingEntry {
+      private final StreamID id;
+      private final String consumer;
+      private long deliveryTime;
+      private long deliveryCount;
+
+      @ProtoFactory
+      public PendingEntry(StreamID id, String consumer, long deliveryTime, long deliveryCount) {
+         this.id = id;
+         this.consumer = consumer;
+         this.deliveryTime = deliveryTime;
+         this.deliveryCount = deliveryCount;
+      }
+
+      @ProtoField(number = 1)
+      public StreamID id() {
+         return id;
+      }
+
+      @ProtoField(number = 2)
+      public String consumer() {
+         return consumer;
+      }
+
+      /**
+       * @return the time of the last delivery in milliseconds
+       */
+      @ProtoField(number = 3, defaultValue = "0")
+      public long deliveryTime() {
+         return deliveryTime;
+      }
+
+      @ProtoField(number = 4, defaultValue = "0")
+      public long deliveryCount() {
+         return deliveryCount;
+      }
+
+      PendingEntry copy() {
+         return new PendingEntry(id, consumer, deliveryTime, deliveryCount);
+      }
+   }
+
+   /**
+    * The pending entries of a consumer group: their number, smallest and largest IDs and the number by consumer.
+    */
+   @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_STREAM_PENDING_SUMMARY)
+   public static final class PendingSummary {
+      private final long count;
+      private final StreamID first;
+      private final StreamID last;
+      private final List<String> consumers;
+      private final List<Long> counts;
+
+      @ProtoFactory
+      public PendingSummary(long count, StreamID first, StreamID last, List<String> consumers, List<Long> counts) {
+         this.count = count;
+         this.first = first;
+         this.last = last;
+         this.consumers = consumers;
+         this.counts = counts;
+      }
+
+      @ProtoField(number = 1, defaultValue = "0")
+      public long count() {
+         return count;
+      }
+
+      /**
+       * @return the smallest ID, null when there are no pending entries
+       */
+      @ProtoField(number = 2)
+      public StreamID first() {
+         return first;
+      }
+
+      @ProtoField(number = 3)
+      public StreamID last() {
+         return last;
+      }
+
+      /**
+       * @return the consumers with pending entries
+       */
+      @ProtoField(number = 4, collectionImplementation = ArrayList.class)
+      public List<String> consumers() {
+         return consumers;
+      }
+
+      /**
+       * @return the number of pending entries of each consumer, in the order of {@link #consumers()}
+       */
+      @ProtoField(number = 5, collectionImplementation = ArrayList.class)
+      public List<Long> counts() {
+         return counts;
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "StreamBucket{length=" + length + ", lastId=" + lastId + ", segments=" + segments.size() +
+            ", groups=" + groups.keySet() + '}';
+   }
+}
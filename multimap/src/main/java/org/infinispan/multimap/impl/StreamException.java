@@ -0,0 +1,17 @@
+package org.infinispan.multimap.impl;
+
+/**
+ * An operation on a stream that can't be applied, such as adding an entry with an ID smaller than the last one or
+ * reading from a consumer group that does not exist. The message starts with the Redis error code.
+ *
+ * @since 15.0
+ */
+public class StreamException extends RuntimeException {
+   public StreamException(String message) {
+      super(message);
+   }
+
+   public StreamException(String message, Throwable cause) {
+      super(message, cause);
+   }
+}
@@ -0,0 +1,120 @@
+package org.infinispan.multimap.impl;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+
+/**
+ * The ID of a stream entry, a time in milliseconds followed by a sequence number for the entries added in the same
+ * millisecond. Both parts are unsigned 64 bit integers, as in Redis.
+ *
+ * @since 15.0
+ */
+@ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_STREAM_ID)
+public final class StreamID implements Comparable<StreamID> {
+   public static final StreamID MIN = new StreamID(0, 0);
+   public static final StreamID MAX = new StreamID(-1L, -1L);
+
+   private final long ms;
+   private final long seq;
+
+   @ProtoFactory
+   public StreamID(long ms, long seq) {
+      this.ms = ms;
+      this.seq = seq;
+   }
+
+   @ProtoField(number = 1, defaultValue = "0")
+   public long ms() {
+      return ms;
+   }
+
+   @ProtoField(number = 2, defaultValue = "0")
+   public long seq() {
+      return seq;
+   }
+
+   /**
+    * @return the ID right after this one, or null if this is the largest ID
+    */
+   public StreamID next() {
+      if (seq != -1L) {
+         return new StreamID(ms, seq + 1);
+      }
+      return ms == -1L ? null : new StreamID(ms + 1, 0);
+   }
+
+   /**
+    * @return the ID right before this one, or null if this is the smallest ID
+    */
+   public StreamID previous() {
+      if (seq != 0) {
+         return new StreamID(ms, seq - 1);
+      }
+      return ms == 0 ? null : new StreamID(ms - 1, -1L);
+   }
+
+   /**
+    * Parses an ID in the {@code ms-seq} form. The sequence may be omitted, in which case it is the given default.
+    *
+    * @throws IllegalArgumentException if the ID is not valid
+    */
+   public static StreamID parse(String id, long defaultSeq) {
+      int dash = id.indexOf('-');
+      try {
+         if (dash < 0) {
+            return new StreamID(Long.parseUnsignedLong(id), defaultSeq);
+         }
+         return new StreamID(Long.parseUnsignedLong(id.substring(0, dash)), Long.parseUnsignedLong(id.substring(dash + 1)));
+      } catch (NumberFormatException e) {
+         throw new IllegalArgumentException("Invalid stream ID specified as stream command argument");
+      }
+   }
+
+   /**
+    * Writes the ID, which may be null, for the externalizers of the stream functions.
+    */
+   public static void writeTo(ObjectOutput output, StreamID id) throws IOException {
+      output.writeBoolean(id != null);
+      if (id != null) {
+         output.writeLong(id.ms);
+         output.writeLong(id.seq);
+      }
+   }
+
+   /**
+    * Reads an ID written by {@link #writeTo(ObjectOutput, StreamID)}.
+    */
+   public static StreamID readFrom(ObjectInput input) throws IOException {
+      return input.readBoolean() ? new StreamID(input.readLong(), input.readLong()) : null;
+   }
+
+   @Override
+   public int compareTo(StreamID o) {
+      int c = Long.compareUnsigned(ms, o.ms);
+      return c != 0 ? c : Long.compareUnsigned(seq, o.seq);
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      StreamID that = (StreamID) o;
+      return ms == that.ms && seq == that.seq;
+   }
+
+   @Override
+   public int hashCode() {
+      return Long.hashCode(ms) * 31 + Long.hashCode(seq);
+   }
+
+   @Override
+   public String toString() {
+      return Long.toUnsignedString(ms) + '-' + Long.toUnsignedString(seq);
+   }
+}
@@ -0,0 +1,68 @@
+package org.infinispan.multimap.impl;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Utility class to hold the trimming options of streams, either a maximum length or a minimum ID
+ * @since 15.0
+ */
+public final class StreamTrimArgs {
+   private final long maxLength;
+   private final StreamID minId;
+   private final boolean approximate;
+
+   private StreamTrimArgs(long maxLength, StreamID minId, boolean approximate) {
+      this.maxLength = maxLength;
+      this.minId = minId;
+      this.approximate = approximate;
+   }
+
+   /**
+    * Keeps at most the given number of entries.
+    *
+    * @param approximate whether only whole segments of entries are removed, which is cheaper but may keep more entries
+    */
+   public static StreamTrimArgs maxLength(long maxLength, boolean approximate) {
+      if (maxLength < 0) {
+         throw new IllegalArgumentException("maxLength can't be negative");
+      }
+      return new StreamTrimArgs(maxLength, null, approximate);
+   }
+
+   /**
+    * Removes the entries with an ID smaller than the given one.
+    *
+    * @param approximate whether only whole segments of entries are removed, which is cheaper but may keep more entries
+    */
+   public static StreamTrimArgs minId(StreamID minId, boolean approximate) {
+      if (minId == null) {
+         throw new IllegalArgumentException("minId can't be null");
+      }
+      return new StreamTrimArgs(-1, minId, approximate);
+   }
+
+   /**
+    * @return the number of entries removed from the bucket
+    */
+   public long trim(StreamBucket bucket) {
+      return minId != null ? bucket.trimToMinId(minId, approximate) : bucket.trimToLength(maxLength, approximate);
+   }
+
+   public static void writeTo(ObjectOutput output, StreamTrimArgs args) throws IOException {
+      output.writeBoolean(args != null);
+      if (args != null) {
+         output.writeLong(args.maxLength);
+         StreamID.writeTo(output, args.minId);
+         output.writeBoolean(args.approximate);
+      }
+   }
+
+   public static StreamTrimArgs readFrom(ObjectInput input) throws IOException {
+      if (!input.readBoolean()) {
+         return null;
+      }
+      return new StreamTrimArgs(input.readLong(), StreamID.readFrom(input), input.readBoolean());
+   }
+}
@@ -0,0 +1,65 @@
+package org.infinispan.multimap.impl.function.bitmap;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.Bitmaps;
+import org.infinispan.multimap.impl.ExternalizerIds;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedBitmapCache#bitCount}
+ * to count the bits set in a range of the value.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class BitCountFunction<K> implements BitmapBaseFunction<K, Long> {
+   public static final AdvancedExternalizer<BitCountFunction> EXTERNALIZER = new Externalizer();
+   private final long start;
+   private final long end;
+   private final boolean bitUnit;
+
+   public BitCountFunction(long start, long end, boolean bitUnit) {
+      this.start = start;
+      this.end = end;
+      this.bitUnit = bitUnit;
+   }
+
+   @Override
+   public Long apply(EntryView.ReadWriteEntryView<K, byte[]> entryView) {
+      Optional<byte[]> existing = entryView.peek();
+      return existing.isPresent() ? Bitmaps.bitCount(existing.get(), start, end, bitUnit) : 0L;
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<BitCountFunction> {
+
+      @Override
+      public Set<Class<? extends BitCountFunction>> getTypeClasses() {
+         return Collections.singleton(BitCountFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.BITMAP_BIT_COUNT_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, BitCountFunction object) throws IOException {
+         output.writeLong(object.start);
+         output.writeLong(object.end);
+         output.writeBoolean(object.bitUnit);
+      }
+
+      @Override
+      public BitCountFunction readObject(ObjectInput input) throws IOException {
+         return new BitCountFunction(input.readLong(), input.readLong(), input.readBoolean());
+      }
+   }
+}
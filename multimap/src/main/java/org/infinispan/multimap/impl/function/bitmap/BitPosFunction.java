@@ -0,0 +1,76 @@
+package org.infinispan.multimap.impl.function.bitmap;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.Bitmaps;
+import org.infinispan.multimap.impl.ExternalizerIds;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedBitmapCache#bitPos}
+ * to find the first bit set or clear in a range of the value.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class BitPosFunction<K> implements BitmapBaseFunction<K, Long> {
+   public static final AdvancedExternalizer<BitPosFunction> EXTERNALIZER = new Externalizer();
+   private final boolean bit;
+   private final long start;
+   private final long end;
+   private final boolean endGiven;
+   private final boolean bitUnit;
+
+   public BitPosFunction(boolean bit, long start, long end, boolean endGiven, boolean bitUnit) {
+      this.bit = bit;
+      this.start = start;
+      this.end = end;
+      this.endGiven = endGiven;
+      this.bitUnit = bitUnit;
+   }
+
+   @Override
+   public Long apply(EntryView.ReadWriteEntryView<K, byte[]> entryView) {
+      Optional<byte[]> existing = entryView.peek();
+      if (existing.isEmpty()) {
+         // A missing key is an empty string, padded with clear bits
+         return bit ? -1L : 0L;
+      }
+      return Bitmaps.bitPos(existing.get(), bit, start, end, endGiven, bitUnit);
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<BitPosFunction> {
+
+      @Override
+      public Set<Class<? extends BitPosFunction>> getTypeClasses() {
+         return Collections.singleton(BitPosFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.BITMAP_BIT_POS_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, BitPosFunction object) throws IOException {
+         output.writeBoolean(object.bit);
+         output.writeLong(object.start);
+         output.writeLong(object.end);
+         output.writeBoolean(object.endGiven);
+         output.writeBoolean(object.bitUnit);
+      }
+
+      @Override
+      public BitPosFunction readObject(ObjectInput input) throws IOException {
+         return new BitPosFunction(input.readBoolean(), input.readLong(), input.readLong(), input.readBoolean(),
+               input.readBoolean());
+      }
+   }
+}
@@ -0,0 +1,92 @@
+package org.infinispan.multimap.impl.function.bitmap;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.BitfieldOperation;
+import org.infinispan.multimap.impl.ExternalizerIds;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedBitmapCache#bitfield}
+ * to read and update integers stored in the value.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class BitfieldFunction<K> implements BitmapBaseFunction<K, List<Long>> {
+   public static final AdvancedExternalizer<BitfieldFunction> EXTERNALIZER = new Externalizer();
+   private static final BitfieldOperation.Type[] TYPES = BitfieldOperation.Type.values();
+   private static final BitfieldOperation.Overflow[] OVERFLOWS = BitfieldOperation.Overflow.values();
+   private final List<BitfieldOperation> operations;
+
+   public BitfieldFunction(List<BitfieldOperation> operations) {
+      this.operations = operations;
+   }
+
+   @Override
+   public List<Long> apply(EntryView.ReadWriteEntryView<K, byte[]> entryView) {
+      Optional<byte[]> existing = entryView.peek();
+      byte[][] holder = {existing.orElseGet(() -> new byte[0])};
+      List<Long> results = new ArrayList<>(operations.size());
+      boolean changed = false;
+      for (BitfieldOperation operation : operations) {
+         Long result = operation.apply(holder);
+         changed |= operation.type() != BitfieldOperation.Type.GET && result != null;
+         results.add(result);
+      }
+      //don't change the cache if only reading. it avoids replicating a no-op
+      if (changed) {
+         entryView.set(holder[0]);
+      }
+      return results;
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<BitfieldFunction> {
+
+      @Override
+      public Set<Class<? extends BitfieldFunction>> getTypeClasses() {
+         return Collections.singleton(BitfieldFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.BITMAP_BITFIELD_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, BitfieldFunction object) throws IOException {
+         List<BitfieldOperation> operations = object.operations;
+         output.writeInt(operations.size());
+         for (BitfieldOperation operation : operations) {
+            MarshallUtil.marshallEnum(operation.type(), output);
+            output.writeBoolean(operation.signed());
+            output.writeByte(operation.bits());
+            output.writeLong(operation.offset());
+            output.writeLong(operation.value());
+            MarshallUtil.marshallEnum(operation.overflow(), output);
+         }
+      }
+
+      @Override
+      public BitfieldFunction readObject(ObjectInput input) throws IOException {
+         int size = input.readInt();
+         List<BitfieldOperation> operations = new ArrayList<>(size);
+         for (int i = 0; i < size; ++i) {
+            operations.add(new BitfieldOperation(MarshallUtil.unmarshallEnum(input, ordinal -> TYPES[ordinal]),
+                  input.readBoolean(), input.readByte(), input.readLong(), input.readLong(),
+                  MarshallUtil.unmarshallEnum(input, ordinal -> OVERFLOWS[ordinal])));
+         }
+         return new BitfieldFunction(operations);
+      }
+   }
+}
@@ -0,0 +1,11 @@
+package org.infinispan.multimap.impl.function.bitmap;
+
+import org.infinispan.functional.EntryView;
+import org.infinispan.util.function.SerializableFunction;
+
+/**
+ * A base function for the bit operations on string values
+ *
+ * @since 15.0
+ */
+public interface BitmapBaseFunction<K, R> extends SerializableFunction<EntryView.ReadWriteEntryView<K, byte[]>, R> {}
@@ -0,0 +1,59 @@
+package org.infinispan.multimap.impl.function.bitmap;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.Bitmaps;
+import org.infinispan.multimap.impl.ExternalizerIds;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedBitmapCache#getBit}
+ * to read a bit of the value.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class GetBitFunction<K> implements BitmapBaseFunction<K, Boolean> {
+   public static final AdvancedExternalizer<GetBitFunction> EXTERNALIZER = new Externalizer();
+   private final long offset;
+
+   public GetBitFunction(long offset) {
+      this.offset = offset;
+   }
+
+   @Override
+   public Boolean apply(EntryView.ReadWriteEntryView<K, byte[]> entryView) {
+      Optional<byte[]> existing = entryView.peek();
+      return existing.isPresent() && Bitmaps.getBit(existing.get(), offset);
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<GetBitFunction> {
+
+      @Override
+      public Set<Class<? extends GetBitFunction>> getTypeClasses() {
+         return Collections.singleton(GetBitFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.BITMAP_GET_BIT_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, GetBitFunction object) throws IOException {
+         output.writeLong(object.offset);
+      }
+
+      @Override
+      public GetBitFunction readObject(ObjectInput input) throws IOException {
+         return new GetBitFunction(input.readLong());
+      }
+   }
+}
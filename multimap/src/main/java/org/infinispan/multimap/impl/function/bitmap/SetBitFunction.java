@@ -0,0 +1,69 @@
+package org.infinispan.multimap.impl.function.bitmap;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.Bitmaps;
+import org.infinispan.multimap.impl.ExternalizerIds;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedBitmapCache#setBit}
+ * to set or clear a bit of the value.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class SetBitFunction<K> implements BitmapBaseFunction<K, Boolean> {
+   public static final AdvancedExternalizer<SetBitFunction> EXTERNALIZER = new Externalizer();
+   private final long offset;
+   private final boolean bit;
+
+   public SetBitFunction(long offset, boolean bit) {
+      this.offset = offset;
+      this.bit = bit;
+   }
+
+   @Override
+   public Boolean apply(EntryView.ReadWriteEntryView<K, byte[]> entryView) {
+      Optional<byte[]> existing = entryView.peek();
+      byte[] value = existing.orElseGet(() -> new byte[0]);
+      boolean previous = Bitmaps.getBit(value, offset);
+      // Like in Redis, the value is created or grown even if the bit does not change
+      if (existing.isEmpty() || previous != bit || offset >>> 3 >= value.length) {
+         // The value is updated in place, unless it has to grow
+         entryView.set(Bitmaps.setBit(value, offset, bit));
+      }
+      return previous;
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<SetBitFunction> {
+
+      @Override
+      public Set<Class<? extends SetBitFunction>> getTypeClasses() {
+         return Collections.singleton(SetBitFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.BITMAP_SET_BIT_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, SetBitFunction object) throws IOException {
+         output.writeLong(object.offset);
+         output.writeBoolean(object.bit);
+      }
+
+      @Override
+      public SetBitFunction readObject(ObjectInput input) throws IOException {
+         return new SetBitFunction(input.readLong(), input.readBoolean());
+      }
+   }
+}
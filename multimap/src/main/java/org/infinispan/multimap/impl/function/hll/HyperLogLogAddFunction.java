@@ -0,0 +1,81 @@
+package org.infinispan.multimap.impl.function.hll;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.ExternalizerIds;
+import org.infinispan.multimap.impl.HyperLogLogBucket;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedHyperLogLogCache#add}
+ * to add elements to a HyperLogLog.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class HyperLogLogAddFunction<K> implements HyperLogLogBucketBaseFunction<K, Boolean> {
+   public static final AdvancedExternalizer<HyperLogLogAddFunction> EXTERNALIZER = new Externalizer();
+   private final Collection<byte[]> elements;
+
+   public HyperLogLogAddFunction(Collection<byte[]> elements) {
+      this.elements = elements;
+   }
+
+   @Override
+   public Boolean apply(EntryView.ReadWriteEntryView<K, HyperLogLogBucket> entryView) {
+      Optional<HyperLogLogBucket> existing = entryView.peek();
+      HyperLogLogBucket bucket = existing.orElseGet(HyperLogLogBucket::new);
+      boolean changed = existing.isEmpty();
+      for (byte[] element : elements) {
+         changed |= bucket.add(element);
+      }
+      //don't change the cache if no register changed. it avoids replicating a no-op
+      if (changed) {
+         entryView.set(bucket);
+      }
+      return changed;
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<HyperLogLogAddFunction> {
+
+      @Override
+      public Set<Class<? extends HyperLogLogAddFunction>> getTypeClasses() {
+         return Collections.singleton(HyperLogLogAddFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.HYPERLOGLOG_ADD_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, HyperLogLogAddFunction object) throws IOException {
+         Collection<byte[]> elements = object.elements;
+         output.writeInt(elements.size());
+         for (byte[] element : elements) {
+            MarshallUtil.marshallByteArray(element, output);
+         }
+      }
+
+      @Override
+      public HyperLogLogAddFunction readObject(ObjectInput input) throws IOException {
+         int size = input.readInt();
+         List<byte[]> elements = new ArrayList<>(size);
+         for (int i = 0; i < size; ++i) {
+            elements.add(MarshallUtil.unmarshallByteArray(input));
+         }
+         return new HyperLogLogAddFunction(elements);
+      }
+   }
+}
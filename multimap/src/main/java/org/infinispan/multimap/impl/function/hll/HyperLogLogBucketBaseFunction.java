@@ -0,0 +1,12 @@
+package org.infinispan.multimap.impl.function.hll;
+
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.HyperLogLogBucket;
+import org.infinispan.util.function.SerializableFunction;
+
+/**
+ * A base function for the HyperLogLog updates
+ *
+ * @since 15.0
+ */
+public interface HyperLogLogBucketBaseFunction<K, R> extends SerializableFunction<EntryView.ReadWriteEntryView<K, HyperLogLogBucket>, R> {}
@@ -0,0 +1,67 @@
+package org.infinispan.multimap.impl.function.hll;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.ExternalizerIds;
+import org.infinispan.multimap.impl.HyperLogLogBucket;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedHyperLogLogCache#merge}
+ * to merge the registers of other HyperLogLogs into a HyperLogLog.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class HyperLogLogMergeFunction<K> implements HyperLogLogBucketBaseFunction<K, Void> {
+   public static final AdvancedExternalizer<HyperLogLogMergeFunction> EXTERNALIZER = new Externalizer();
+   private final HyperLogLogBucket source;
+
+   public HyperLogLogMergeFunction(HyperLogLogBucket source) {
+      this.source = source;
+   }
+
+   @Override
+   public Void apply(EntryView.ReadWriteEntryView<K, HyperLogLogBucket> entryView) {
+      Optional<HyperLogLogBucket> existing = entryView.peek();
+      if (existing.isPresent()) {
+         HyperLogLogBucket bucket = existing.get();
+         if (bucket.merge(source)) {
+            entryView.set(bucket);
+         }
+      } else {
+         entryView.set(source);
+      }
+      return null;
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<HyperLogLogMergeFunction> {
+
+      @Override
+      public Set<Class<? extends HyperLogLogMergeFunction>> getTypeClasses() {
+         return Collections.singleton(HyperLogLogMergeFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.HYPERLOGLOG_MERGE_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, HyperLogLogMergeFunction object) throws IOException {
+         output.writeObject(object.source);
+      }
+
+      @Override
+      public HyperLogLogMergeFunction readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         return new HyperLogLogMergeFunction((HyperLogLogBucket) input.readObject());
+      }
+   }
+}
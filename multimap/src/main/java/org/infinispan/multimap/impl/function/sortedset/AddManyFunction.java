@@ -1,23 +1,20 @@
 package org.infinispan.multimap.impl.function.sortedset;
 
 import org.infinispan.commons.marshall.AdvancedExternalizer;
-import org.infinispan.commons.marshall.MarshallUtil;
 import org.infinispan.functional.EntryView;
 import org.infinispan.multimap.impl.ExternalizerIds;
+import org.infinispan.multimap.impl.PackedBuckets;
 import org.infinispan.multimap.impl.SortedSetAddArgs;
 import org.infinispan.multimap.impl.SortedSetBucket;
 
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
 
-import static org.infinispan.commons.marshall.MarshallUtil.unmarshallCollection;
-
 /**
  * Serializable function used by
  * {@link org.infinispan.multimap.impl.EmbeddedMultimapSortedSetCache#addMany(Object, Collection, SortedSetAddArgs)}  .
@@ -110,7 +107,7 @@ public Integer getId() {
 
       @Override
       public void writeObject(ObjectOutput output, AddManyFunction object) throws IOException {
-         MarshallUtil.marshallCollection(object.scoredValues, output);
+         PackedBuckets.writeScoredValues(object.scoredValues, output);
          output.writeBoolean(object.addOnly);
          output.writeBoolean(object.updateOnly);
          output.writeBoolean(object.updateLessScoresOnly);
@@ -121,7 +118,7 @@ public void writeObject(ObjectOutput output, AddManyFunction object) throws IOEx
 
       @Override
       public AddManyFunction readObject(ObjectInput input) throws IOException, ClassNotFoundException {
-         Collection<SortedSetBucket.ScoredValue> scoredValues = unmarshallCollection(input, ArrayList::new);
+         Collection<SortedSetBucket.ScoredValue<Object>> scoredValues = PackedBuckets.readScoredValues(input);
          return new AddManyFunction(scoredValues, input.readBoolean(), input.readBoolean(),
                input.readBoolean(), input.readBoolean(), input.readBoolean(), input.readBoolean());
       }
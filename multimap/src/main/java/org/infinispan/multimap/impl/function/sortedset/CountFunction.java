@@ -42,8 +42,7 @@ public Long apply(EntryView.ReadWriteEntryView<K, SortedSetBucket<V>> entryView)
       Optional<SortedSetBucket<V>> existing = entryView.peek();
       long count = 0;
       if (existing.isPresent()) {
-         return (long) existing.get()
-               .subset(min, includeMin, max, includeMax, false, null, null).size();
+         return existing.get().count(min, includeMin, max, includeMax);
       }
       return count;
    }
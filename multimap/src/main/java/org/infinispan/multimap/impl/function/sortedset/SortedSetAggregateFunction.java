@@ -4,19 +4,17 @@
 import org.infinispan.commons.marshall.MarshallUtil;
 import org.infinispan.functional.EntryView;
 import org.infinispan.multimap.impl.ExternalizerIds;
+import org.infinispan.multimap.impl.PackedBuckets;
 import org.infinispan.multimap.impl.SortedSetBucket;
 
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
 
-import static org.infinispan.commons.marshall.MarshallUtil.unmarshallCollection;
-
 /**
  * Serializable function used by
  * {@link org.infinispan.multimap.impl.EmbeddedMultimapSortedSetCache#union(Object, Collection, double, SortedSetBucket.AggregateFunction)}
@@ -76,7 +74,7 @@ public Integer getId() {
       @Override
       public void writeObject(ObjectOutput output, SortedSetAggregateFunction object) throws IOException {
          MarshallUtil.marshallEnum(object.type, output);
-         MarshallUtil.marshallCollection(object.scoredValues, output);
+         PackedBuckets.writeScoredValues(object.scoredValues, output);
          output.writeDouble(object.weight);
          MarshallUtil.marshallEnum(object.function, output);
       }
@@ -84,7 +82,7 @@ public void writeObject(ObjectOutput output, SortedSetAggregateFunction object)
       @Override
       public SortedSetAggregateFunction readObject(ObjectInput input) throws IOException, ClassNotFoundException {
          AggregateType aggregateType = MarshallUtil.unmarshallEnum(input, AggregateType::valueOf);
-         Collection<SortedSetBucket.ScoredValue> scoredValues = unmarshallCollection(input, ArrayList::new);
+         Collection<SortedSetBucket.ScoredValue<Object>> scoredValues = PackedBuckets.readScoredValues(input);
          double weight = input.readDouble();
          SortedSetBucket.AggregateFunction aggregateFunction = MarshallUtil.unmarshallEnum(input, SortedSetBucket.AggregateFunction::valueOf);
          return new SortedSetAggregateFunction(aggregateType, scoredValues, weight, aggregateFunction);
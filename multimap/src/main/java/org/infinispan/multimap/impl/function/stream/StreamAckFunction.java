@@ -0,0 +1,84 @@
+package org.infinispan.multimap.impl.function.stream;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.ExternalizerIds;
+import org.infinispan.multimap.impl.StreamBucket;
+import org.infinispan.multimap.impl.StreamID;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedStreamCache#ack}
+ * to remove entries from the pending entries of a consumer group.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class StreamAckFunction<K> implements StreamBucketBaseFunction<K, Long> {
+   public static final AdvancedExternalizer<StreamAckFunction> EXTERNALIZER = new Externalizer();
+   private final String group;
+   private final Collection<StreamID> ids;
+
+   public StreamAckFunction(String group, Collection<StreamID> ids) {
+      this.group = group;
+      this.ids = ids;
+   }
+
+   @Override
+   public Long apply(EntryView.ReadWriteEntryView<K, StreamBucket> entryView) {
+      Optional<StreamBucket> existing = entryView.peek();
+      if (existing.isEmpty()) {
+         return 0L;
+      }
+      StreamBucket bucket = existing.get();
+      long acked = bucket.ack(group, ids);
+      if (acked > 0) {
+         entryView.set(bucket);
+      }
+      return acked;
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<StreamAckFunction> {
+
+      @Override
+      public Set<Class<? extends StreamAckFunction>> getTypeClasses() {
+         return Collections.singleton(StreamAckFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.STREAM_ACK_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, StreamAckFunction object) throws IOException {
+         output.writeUTF(object.group);
+         Collection<StreamID> ids = object.ids;
+         output.writeInt(ids.size());
+         for (StreamID id : ids) {
+            StreamID.writeTo(output, id);
+         }
+      }
+
+      @Override
+      public StreamAckFunction readObject(ObjectInput input) throws IOException {
+         String group = input.readUTF();
+         int size = input.readInt();
+         List<StreamID> ids = new ArrayList<>(size);
+         for (int i = 0; i < size; ++i) {
+            ids.add(StreamID.readFrom(input));
+         }
+         return new StreamAckFunction(group, ids);
+      }
+   }
+}
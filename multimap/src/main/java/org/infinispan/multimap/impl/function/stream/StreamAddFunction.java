@@ -0,0 +1,104 @@
+package org.infinispan.multimap.impl.function.stream;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.ExternalizerIds;
+import org.infinispan.multimap.impl.StreamBucket;
+import org.infinispan.multimap.impl.StreamID;
+import org.infinispan.multimap.impl.StreamTrimArgs;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedStreamCache#add}
+ * to append an entry to a stream, and optionally trim it.
+ * <p>
+ * The time used to generate the ID is given by the caller, so that the backup owners generate the same ID.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class StreamAddFunction<K> implements StreamBucketBaseFunction<K, StreamID> {
+   public static final AdvancedExternalizer<StreamAddFunction> EXTERNALIZER = new Externalizer();
+   private final StreamID id;
+   private final boolean autoSequence;
+   private final long now;
+   private final List<byte[]> fieldsAndValues;
+   private final boolean noMkStream;
+   private final StreamTrimArgs trim;
+
+   public StreamAddFunction(StreamID id, boolean autoSequence, long now, List<byte[]> fieldsAndValues,
+                            boolean noMkStream, StreamTrimArgs trim) {
+      this.id = id;
+      this.autoSequence = autoSequence;
+      this.now = now;
+      this.fieldsAndValues = fieldsAndValues;
+      this.noMkStream = noMkStream;
+      this.trim = trim;
+   }
+
+   @Override
+   public StreamID apply(EntryView.ReadWriteEntryView<K, StreamBucket> entryView) {
+      Optional<StreamBucket> existing = entryView.peek();
+      if (existing.isEmpty() && noMkStream) {
+         return null;
+      }
+      StreamBucket bucket = existing.orElseGet(StreamBucket::new);
+      StreamID added = bucket.add(id, autoSequence, now, fieldsAndValues);
+      if (trim != null) {
+         trim.trim(bucket);
+      }
+      entryView.set(bucket);
+      return added;
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<StreamAddFunction> {
+
+      @Override
+      public Set<Class<? extends StreamAddFunction>> getTypeClasses() {
+         return Collections.singleton(StreamAddFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.STREAM_ADD_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, StreamAddFunction object) throws IOException {
+         StreamID.writeTo(output, object.id);
+         output.writeBoolean(object.autoSequence);
+         output.writeLong(object.now);
+         List<byte[]> fieldsAndValues = object.fieldsAndValues;
+         output.writeInt(fieldsAndValues.size());
+         for (byte[] value : fieldsAndValues) {
+            MarshallUtil.marshallByteArray(value, output);
+         }
+         output.writeBoolean(object.noMkStream);
+         StreamTrimArgs.writeTo(output, object.trim);
+      }
+
+      @Override
+      public StreamAddFunction readObject(ObjectInput input) throws IOException {
+         StreamID id = StreamID.readFrom(input);
+         boolean autoSequence = input.readBoolean();
+         long now = input.readLong();
+         int size = input.readInt();
+         List<byte[]> fieldsAndValues = new ArrayList<>(size);
+         for (int i = 0; i < size; ++i) {
+            fieldsAndValues.add(MarshallUtil.unmarshallByteArray(input));
+         }
+         return new StreamAddFunction(id, autoSequence, now, fieldsAndValues, input.readBoolean(),
+               StreamTrimArgs.readFrom(input));
+      }
+   }
+}
@@ -0,0 +1,81 @@
+package org.infinispan.multimap.impl.function.stream;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.ExternalizerIds;
+import org.infinispan.multimap.impl.StreamBucket;
+import org.infinispan.multimap.impl.StreamID;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedStreamCache#delete}
+ * to delete entries of a stream by ID.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class StreamDeleteFunction<K> implements StreamBucketBaseFunction<K, Long> {
+   public static final AdvancedExternalizer<StreamDeleteFunction> EXTERNALIZER = new Externalizer();
+   private final Collection<StreamID> ids;
+
+   public StreamDeleteFunction(Collection<StreamID> ids) {
+      this.ids = ids;
+   }
+
+   @Override
+   public Long apply(EntryView.ReadWriteEntryView<K, StreamBucket> entryView) {
+      Optional<StreamBucket> existing = entryView.peek();
+      if (existing.isEmpty()) {
+         return 0L;
+      }
+      StreamBucket bucket = existing.get();
+      long deleted = bucket.delete(ids);
+      // An empty stream is kept, it still has its last ID and its groups
+      if (deleted > 0) {
+         entryView.set(bucket);
+      }
+      return deleted;
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<StreamDeleteFunction> {
+
+      @Override
+      public Set<Class<? extends StreamDeleteFunction>> getTypeClasses() {
+         return Collections.singleton(StreamDeleteFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.STREAM_DELETE_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, StreamDeleteFunction object) throws IOException {
+         Collection<StreamID> ids = object.ids;
+         output.writeInt(ids.size());
+         for (StreamID id : ids) {
+            StreamID.writeTo(output, id);
+         }
+      }
+
+      @Override
+      public StreamDeleteFunction readObject(ObjectInput input) throws IOException {
+         int size = input.readInt();
+         List<StreamID> ids = new ArrayList<>(size);
+         for (int i = 0; i < size; ++i) {
+            ids.add(StreamID.readFrom(input));
+         }
+         return new StreamDeleteFunction(ids);
+      }
+   }
+}
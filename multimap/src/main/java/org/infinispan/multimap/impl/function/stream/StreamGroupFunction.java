@@ -0,0 +1,128 @@
+package org.infinispan.multimap.impl.function.stream;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.ExternalizerIds;
+import org.infinispan.multimap.impl.StreamBucket;
+import org.infinispan.multimap.impl.StreamException;
+import org.infinispan.multimap.impl.StreamID;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedStreamCache}
+ * to manage the consumer groups of a stream and their consumers.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class StreamGroupFunction<K> implements StreamBucketBaseFunction<K, Long> {
+   public static final AdvancedExternalizer<StreamGroupFunction> EXTERNALIZER = new Externalizer();
+   public static final String ERR_KEY_REQUIRED = "ERR The XGROUP subcommand requires the key to exist. " +
+         "Note that for CREATE you may want to use the MKSTREAM option to create an empty stream automatically.";
+
+   public enum Operation {
+      CREATE,
+      SET_ID,
+      DESTROY,
+      CREATE_CONSUMER,
+      DELETE_CONSUMER;
+
+      private static final Operation[] CACHED_VALUES = values();
+   }
+
+   private final Operation operation;
+   private final String group;
+   private final String consumer;
+   private final StreamID id;
+   private final boolean mkStream;
+   private final long now;
+
+   /**
+    * @param consumer the consumer, for the consumer operations
+    * @param id       the last delivered ID of the group, or null for the last ID of the stream
+    * @param mkStream whether {@link Operation#CREATE} creates the stream if it does not exist
+    * @param now      the current time in milliseconds
+    */
+   public StreamGroupFunction(Operation operation, String group, String consumer, StreamID id, boolean mkStream,
+                              long now) {
+      this.operation = operation;
+      this.group = group;
+      this.consumer = consumer;
+      this.id = id;
+      this.mkStream = mkStream;
+      this.now = now;
+   }
+
+   @Override
+   public Long apply(EntryView.ReadWriteEntryView<K, StreamBucket> entryView) {
+      Optional<StreamBucket> existing = entryView.peek();
+      if (existing.isEmpty() && (operation != Operation.CREATE || !mkStream)) {
+         throw new StreamException(ERR_KEY_REQUIRED);
+      }
+      StreamBucket bucket = existing.orElseGet(StreamBucket::new);
+      long result;
+      switch (operation) {
+         case CREATE:
+            if (!bucket.createGroup(group, id == null ? bucket.getLastId() : id)) {
+               throw new StreamException("BUSYGROUP Consumer Group name already exists");
+            }
+            result = 1;
+            break;
+         case SET_ID:
+            bucket.setGroupLastDelivered(group, id == null ? bucket.getLastId() : id);
+            result = 1;
+            break;
+         case DESTROY:
+            result = bucket.destroyGroup(group) ? 1 : 0;
+            break;
+         case CREATE_CONSUMER:
+            result = bucket.createConsumer(group, consumer, now) ? 1 : 0;
+            break;
+         case DELETE_CONSUMER:
+            result = bucket.deleteConsumer(group, consumer);
+            break;
+         default:
+            throw new IllegalStateException("Unknown operation " + operation);
+      }
+      entryView.set(bucket);
+      return result;
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<StreamGroupFunction> {
+
+      @Override
+      public Set<Class<? extends StreamGroupFunction>> getTypeClasses() {
+         return Collections.singleton(StreamGroupFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.STREAM_GROUP_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, StreamGroupFunction object) throws IOException {
+         MarshallUtil.marshallEnum(object.operation, output);
+         output.writeUTF(object.group);
+         MarshallUtil.marshallString(object.consumer, output);
+         StreamID.writeTo(output, object.id);
+         output.writeBoolean(object.mkStream);
+         output.writeLong(object.now);
+      }
+
+      @Override
+      public StreamGroupFunction readObject(ObjectInput input) throws IOException {
+         Operation operation = MarshallUtil.unmarshallEnum(input, ordinal -> Operation.CACHED_VALUES[ordinal]);
+         return new StreamGroupFunction(operation, input.readUTF(), MarshallUtil.unmarshallString(input),
+               StreamID.readFrom(input), input.readBoolean(), input.readLong());
+      }
+   }
+}
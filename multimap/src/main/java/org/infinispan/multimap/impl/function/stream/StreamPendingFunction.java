@@ -0,0 +1,86 @@
+package org.infinispan.multimap.impl.function.stream;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.ExternalizerIds;
+import org.infinispan.multimap.impl.StreamBucket;
+import org.infinispan.multimap.impl.StreamException;
+import org.infinispan.multimap.impl.StreamID;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedStreamCache#pending}
+ * to read the pending entries of a consumer group.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class StreamPendingFunction<K> implements StreamBucketBaseFunction<K, List<StreamBucket.PendingEntry>> {
+   public static final AdvancedExternalizer<StreamPendingFunction> EXTERNALIZER = new Externalizer();
+   private final String group;
+   private final StreamID start;
+   private final StreamID end;
+   private final long count;
+   private final String consumer;
+   private final long minIdle;
+   private final long now;
+
+   public StreamPendingFunction(String group, StreamID start, StreamID end, long count, String consumer, long minIdle,
+                                long now) {
+      this.group = group;
+      this.start = start;
+      this.end = end;
+      this.count = count;
+      this.consumer = consumer;
+      this.minIdle = minIdle;
+      this.now = now;
+   }
+
+   @Override
+   public List<StreamBucket.PendingEntry> apply(EntryView.ReadWriteEntryView<K, StreamBucket> entryView) {
+      Optional<StreamBucket> existing = entryView.peek();
+      if (existing.isEmpty()) {
+         throw new StreamException("NOGROUP No such key or consumer group '" + group + "'");
+      }
+      return existing.get().pending(group, start, end, count, consumer, minIdle, now);
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<StreamPendingFunction> {
+
+      @Override
+      public Set<Class<? extends StreamPendingFunction>> getTypeClasses() {
+         return Collections.singleton(StreamPendingFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.STREAM_PENDING_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, StreamPendingFunction object) throws IOException {
+         output.writeUTF(object.group);
+         StreamID.writeTo(output, object.start);
+         StreamID.writeTo(output, object.end);
+         output.writeLong(object.count);
+         MarshallUtil.marshallString(object.consumer, output);
+         output.writeLong(object.minIdle);
+         output.writeLong(object.now);
+      }
+
+      @Override
+      public StreamPendingFunction readObject(ObjectInput input) throws IOException {
+         return new StreamPendingFunction(input.readUTF(), StreamID.readFrom(input), StreamID.readFrom(input),
+               input.readLong(), MarshallUtil.unmarshallString(input), input.readLong(), input.readLong());
+      }
+   }
+}
@@ -0,0 +1,63 @@
+package org.infinispan.multimap.impl.function.stream;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.ExternalizerIds;
+import org.infinispan.multimap.impl.StreamBucket;
+import org.infinispan.multimap.impl.StreamException;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedStreamCache#pendingSummary}
+ * to summarize the pending entries of a consumer group.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class StreamPendingSummaryFunction<K> implements StreamBucketBaseFunction<K, StreamBucket.PendingSummary> {
+   public static final AdvancedExternalizer<StreamPendingSummaryFunction> EXTERNALIZER = new Externalizer();
+   private final String group;
+
+   public StreamPendingSummaryFunction(String group) {
+      this.group = group;
+   }
+
+   @Override
+   public StreamBucket.PendingSummary apply(EntryView.ReadWriteEntryView<K, StreamBucket> entryView) {
+      Optional<StreamBucket> existing = entryView.peek();
+      if (existing.isEmpty()) {
+         throw new StreamException("NOGROUP No such key or consumer group '" + group + "'");
+      }
+      return existing.get().pendingSummary(group);
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<StreamPendingSummaryFunction> {
+
+      @Override
+      public Set<Class<? extends StreamPendingSummaryFunction>> getTypeClasses() {
+         return Collections.singleton(StreamPendingSummaryFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.STREAM_PENDING_SUMMARY_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, StreamPendingSummaryFunction object) throws IOException {
+         output.writeUTF(object.group);
+      }
+
+      @Override
+      public StreamPendingSummaryFunction readObject(ObjectInput input) throws IOException {
+         return new StreamPendingSummaryFunction(input.readUTF());
+      }
+   }
+}
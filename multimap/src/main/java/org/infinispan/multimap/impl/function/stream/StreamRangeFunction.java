@@ -0,0 +1,74 @@
+package org.infinispan.multimap.impl.function.stream;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.ExternalizerIds;
+import org.infinispan.multimap.impl.StreamBucket;
+import org.infinispan.multimap.impl.StreamID;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedStreamCache#range}
+ * to read the entries of a stream between two IDs.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class StreamRangeFunction<K> implements StreamBucketBaseFunction<K, List<StreamBucket.Entry>> {
+   public static final AdvancedExternalizer<StreamRangeFunction> EXTERNALIZER = new Externalizer();
+   private final StreamID start;
+   private final StreamID end;
+   private final long count;
+   private final boolean reverse;
+
+   public StreamRangeFunction(StreamID start, StreamID end, long count, boolean reverse) {
+      this.start = start;
+      this.end = end;
+      this.count = count;
+      this.reverse = reverse;
+   }
+
+   @Override
+   public List<StreamBucket.Entry> apply(EntryView.ReadWriteEntryView<K, StreamBucket> entryView) {
+      Optional<StreamBucket> existing = entryView.peek();
+      if (existing.isEmpty()) {
+         return null;
+      }
+      return existing.get().range(start, end, count, reverse);
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<StreamRangeFunction> {
+
+      @Override
+      public Set<Class<? extends StreamRangeFunction>> getTypeClasses() {
+         return Collections.singleton(StreamRangeFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.STREAM_RANGE_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, StreamRangeFunction object) throws IOException {
+         StreamID.writeTo(output, object.start);
+         StreamID.writeTo(output, object.end);
+         output.writeLong(object.count);
+         output.writeBoolean(object.reverse);
+      }
+
+      @Override
+      public StreamRangeFunction readObject(ObjectInput input) throws IOException {
+         return new StreamRangeFunction(StreamID.readFrom(input), StreamID.readFrom(input), input.readLong(),
+               input.readBoolean());
+      }
+   }
+}
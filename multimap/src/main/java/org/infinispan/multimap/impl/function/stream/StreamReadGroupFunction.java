@@ -0,0 +1,89 @@
+package org.infinispan.multimap.impl.function.stream;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.ExternalizerIds;
+import org.infinispan.multimap.impl.StreamBucket;
+import org.infinispan.multimap.impl.StreamException;
+import org.infinispan.multimap.impl.StreamID;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedStreamCache#readGroup}
+ * to read the entries of a stream for a consumer of a group.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class StreamReadGroupFunction<K> implements StreamBucketBaseFunction<K, List<StreamBucket.Entry>> {
+   public static final AdvancedExternalizer<StreamReadGroupFunction> EXTERNALIZER = new Externalizer();
+   private final String group;
+   private final String consumer;
+   private final StreamID after;
+   private final long count;
+   private final boolean noAck;
+   private final long now;
+
+   public StreamReadGroupFunction(String group, String consumer, StreamID after, long count, boolean noAck, long now) {
+      this.group = group;
+      this.consumer = consumer;
+      this.after = after;
+      this.count = count;
+      this.noAck = noAck;
+      this.now = now;
+   }
+
+   @Override
+   public List<StreamBucket.Entry> apply(EntryView.ReadWriteEntryView<K, StreamBucket> entryView) {
+      Optional<StreamBucket> existing = entryView.peek();
+      if (existing.isEmpty()) {
+         throw new StreamException("NOGROUP No such key or consumer group '" + group + "' in XREADGROUP with GROUP option");
+      }
+      StreamBucket bucket = existing.get();
+      StreamBucket.ConsumerGroup consumerGroup = bucket.group(group);
+      boolean newConsumer = consumerGroup != null && !consumerGroup.consumers().contains(consumer);
+      List<StreamBucket.Entry> entries = bucket.readGroup(group, consumer, after, count, noAck, now);
+      // Polling a stream without new entries does not change it, unless it creates the consumer
+      if (!entries.isEmpty() || newConsumer) {
+         entryView.set(bucket);
+      }
+      return entries;
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<StreamReadGroupFunction> {
+
+      @Override
+      public Set<Class<? extends StreamReadGroupFunction>> getTypeClasses() {
+         return Collections.singleton(StreamReadGroupFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.STREAM_READ_GROUP_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, StreamReadGroupFunction object) throws IOException {
+         output.writeUTF(object.group);
+         output.writeUTF(object.consumer);
+         StreamID.writeTo(output, object.after);
+         output.writeLong(object.count);
+         output.writeBoolean(object.noAck);
+         output.writeLong(object.now);
+      }
+
+      @Override
+      public StreamReadGroupFunction readObject(ObjectInput input) throws IOException {
+         return new StreamReadGroupFunction(input.readUTF(), input.readUTF(), StreamID.readFrom(input),
+               input.readLong(), input.readBoolean(), input.readLong());
+      }
+   }
+}
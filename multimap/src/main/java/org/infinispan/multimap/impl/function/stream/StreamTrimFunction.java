@@ -0,0 +1,68 @@
+package org.infinispan.multimap.impl.function.stream;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AdvancedExternalizer;
+import org.infinispan.functional.EntryView;
+import org.infinispan.multimap.impl.ExternalizerIds;
+import org.infinispan.multimap.impl.StreamBucket;
+import org.infinispan.multimap.impl.StreamTrimArgs;
+
+/**
+ * Serializable function used by
+ * {@link org.infinispan.multimap.impl.EmbeddedStreamCache#trim}
+ * to remove the oldest entries of a stream.
+ *
+ * @see <a href="http://infinispan.org/documentation/">Marshalling of Functions</a>
+ * @since 15.0
+ */
+public final class StreamTrimFunction<K> implements StreamBucketBaseFunction<K, Long> {
+   public static final AdvancedExternalizer<StreamTrimFunction> EXTERNALIZER = new Externalizer();
+   private final StreamTrimArgs trim;
+
+   public StreamTrimFunction(StreamTrimArgs trim) {
+      this.trim = trim;
+   }
+
+   @Override
+   public Long apply(EntryView.ReadWriteEntryView<K, StreamBucket> entryView) {
+      Optional<StreamBucket> existing = entryView.peek();
+      if (existing.isEmpty()) {
+         return 0L;
+      }
+      StreamBucket bucket = existing.get();
+      long removed = trim.trim(bucket);
+      if (removed > 0) {
+         entryView.set(bucket);
+      }
+      return removed;
+   }
+
+   private static class Externalizer implements AdvancedExternalizer<StreamTrimFunction> {
+
+      @Override
+      public Set<Class<? extends StreamTrimFunction>> getTypeClasses() {
+         return Collections.singleton(StreamTrimFunction.class);
+      }
+
+      @Override
+      public Integer getId() {
+         return ExternalizerIds.STREAM_TRIM_FUNCTION;
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, StreamTrimFunction object) throws IOException {
+         StreamTrimArgs.writeTo(output, object.trim);
+      }
+
+      @Override
+      public StreamTrimFunction readObject(ObjectInput input) throws IOException {
+         return new StreamTrimFunction(StreamTrimArgs.readFrom(input));
+      }
+   }
+}
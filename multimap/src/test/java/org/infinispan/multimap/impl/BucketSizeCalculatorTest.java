@@ -0,0 +1,78 @@
+package org.infinispan.multimap.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+/**
+ * Checks that the size estimated for the buckets grows with their content and the extrapolation of the samples.
+ *
+ * @since 15.0
+ */
+@Test(groups = "unit", testName = "multimap.BucketSizeCalculatorTest")
+public class BucketSizeCalculatorTest {
+   private static final byte[] KEY = new byte[0];
+
+   public void testSizeGrowsWithElements() {
+      BucketSizeCalculator calculator = new BucketSizeCalculator(0);
+      ListBucket<byte[]> list = new ListBucket<>();
+      SetBucket<byte[]> set = new SetBucket<>();
+      SortedSetBucket<byte[]> sortedSet = new SortedSetBucket<>();
+      StreamBucket stream = new StreamBucket();
+      long emptyList = calculator.calculateSize(KEY, list);
+      long emptySet = calculator.calculateSize(KEY, set);
+      long emptySortedSet = calculator.calculateSize(KEY, sortedSet);
+      long emptyStream = calculator.calculateSize(KEY, stream);
+      for (int i = 0; i < 500; i++) {
+         byte[] element = bytes("element-" + i);
+         list.offer(element, false);
+         set.add(element);
+         sortedSet.addMany(List.of(SortedSetBucket.ScoredValue.of(i, element)), false, false, false, false);
+         stream.add(null, false, i, List.of(bytes("field"), element));
+      }
+      assertThat(calculator.calculateSize(KEY, list)).isGreaterThan(emptyList + 500 * "element-0".length());
+      assertThat(calculator.calculateSize(KEY, set)).isGreaterThan(emptySet + 500 * "element-0".length());
+      assertThat(calculator.calculateSize(KEY, sortedSet)).isGreaterThan(emptySortedSet + 500 * "element-0".length());
+      assertThat(calculator.calculateSize(KEY, stream)).isGreaterThan(emptyStream + 500 * "fieldelement-0".length());
+   }
+
+   public void testSamplesAreExtrapolated() {
+      Map<byte[], byte[]> values = new HashMap<>();
+      for (int i = 0; i < 100; i++) {
+         values.put(bytes("field-" + i), bytes("value"));
+      }
+      HashMapBucket<byte[], byte[]> hash = HashMapBucket.create(values);
+      long all = new BucketSizeCalculator(0).calculateSize(KEY, hash);
+      long sampled = new BucketSizeCalculator(5).calculateSize(KEY, hash);
+      // The fields only differ by a few characters, so the estimate is close to the real size
+      assertThat(sampled).isBetween(all * 9 / 10, all * 11 / 10);
+
+      hash.putAll(Map.of(bytes("big"), new byte[100_000]));
+      assertThat(new BucketSizeCalculator(0).calculateSize(KEY, hash)).isGreaterThan(all + 100_000);
+   }
+
+   public void testHyperLogLog() {
+      BucketSizeCalculator calculator = new BucketSizeCalculator();
+      HyperLogLogBucket hll = new HyperLogLogBucket();
+      long sparse = calculator.calculateSize(KEY, hll);
+      for (int i = 0; i < 10_000; i++) {
+         hll.add(bytes("element-" + i));
+      }
+      assertThat(hll.isSparse()).isFalse();
+      assertThat(calculator.calculateSize(KEY, hll)).isGreaterThan(sparse).isGreaterThan(HyperLogLogBucket.DENSE_BYTES);
+   }
+
+   public void testNegativeSamples() {
+      assertThatThrownBy(() -> new BucketSizeCalculator(-1)).isInstanceOf(IllegalArgumentException.class);
+   }
+
+   private static byte[] bytes(String s) {
+      return s.getBytes(StandardCharsets.US_ASCII);
+   }
+}
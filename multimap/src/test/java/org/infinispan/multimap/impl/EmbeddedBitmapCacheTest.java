@@ -0,0 +1,179 @@
+package org.infinispan.multimap.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.infinispan.functional.FunctionalTestUtils.await;
+import static org.infinispan.multimap.impl.EmbeddedBitmapCache.ERR_OFFSET_OUT_OF_RANGE;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.multimap.impl.BitfieldOperation.Overflow;
+import org.infinispan.multimap.impl.BitfieldOperation.Type;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Single Bitmap Cache Test
+ *
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "multimap.EmbeddedBitmapCacheTest")
+public class EmbeddedBitmapCacheTest extends SingleCacheManagerTest {
+
+   EmbeddedBitmapCache<String> bitmapCache;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      // start a single cache instance
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(MultimapSCI.INSTANCE);
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      cm.createCache("test", builder.build());
+      cache = cm.getCache("test");
+      bitmapCache = new EmbeddedBitmapCache<>(cm.getCache("test"));
+      return cm;
+   }
+
+   public void testSetAndGetBit() {
+      assertThat(await(bitmapCache.setBit("bits", 7, true))).isFalse();
+      assertThat(await(bitmapCache.setBit("bits", 7, true))).isTrue();
+      assertThat(await(bitmapCache.getBit("bits", 7))).isTrue();
+      assertThat(await(bitmapCache.getBit("bits", 6))).isFalse();
+      assertThat(await(bitmapCache.getBit("bits", 1000))).isFalse();
+      assertThat(await(bitmapCache.getBit("not_existing", 0))).isFalse();
+      assertThat(cache.get("bits")).isEqualTo(new byte[]{1});
+
+      // Clearing a bit after the end still grows the value
+      assertThat(await(bitmapCache.setBit("bits", 23, false))).isFalse();
+      assertThat(cache.get("bits")).isEqualTo(new byte[]{1, 0, 0});
+      assertThat(await(bitmapCache.setBit("bits", 7, false))).isTrue();
+      assertThat(cache.get("bits")).isEqualTo(new byte[3]);
+
+      assertThatThrownBy(() -> bitmapCache.setBit("bits", -1, true)).isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining(ERR_OFFSET_OUT_OF_RANGE);
+      assertThatThrownBy(() -> bitmapCache.getBit("bits", Bitmaps.MAX_BIT_OFFSET + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+   }
+
+   public void testBitCount() {
+      cache.put("foobar", "foobar".getBytes());
+      assertThat(await(bitmapCache.bitCount("foobar", 0, -1, false))).isEqualTo(26);
+      assertThat(await(bitmapCache.bitCount("foobar", 0, 0, false))).isEqualTo(4);
+      assertThat(await(bitmapCache.bitCount("foobar", 1, 1, false))).isEqualTo(6);
+      assertThat(await(bitmapCache.bitCount("foobar", 5, 30, true))).isEqualTo(17);
+      assertThat(await(bitmapCache.bitCount("foobar", -2, -1, false))).isEqualTo(7);
+      assertThat(await(bitmapCache.bitCount("foobar", 3, 1, false))).isZero();
+      assertThat(await(bitmapCache.bitCount("not_existing", 0, -1, false))).isZero();
+   }
+
+   public void testBitCountMatchesBytes() {
+      byte[] value = new byte[1000];
+      new Random(42).nextBytes(value);
+      for (int start = 0; start < 80; start += 7) {
+         for (int end = start; end < 8000; end += 997) {
+            long expected = 0;
+            for (int i = start; i <= end; ++i) {
+               expected += Bitmaps.getBit(value, i) ? 1 : 0;
+            }
+            assertThat(Bitmaps.bitCount(value, start, end, true)).isEqualTo(expected);
+         }
+      }
+   }
+
+   public void testBitPos() {
+      cache.put("pos", new byte[]{(byte) 0xFF, (byte) 0xF0, 0});
+      assertThat(await(bitmapCache.bitPos("pos", false, 0, -1, false, false))).isEqualTo(12);
+      assertThat(await(bitmapCache.bitPos("pos", true, 2, -1, false, false))).isEqualTo(-1);
+      assertThat(await(bitmapCache.bitPos("pos", true, 7, 15, true, true))).isEqualTo(7);
+      assertThat(await(bitmapCache.bitPos("pos", false, 7, 15, true, true))).isEqualTo(12);
+
+      cache.put("ones", new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF});
+      // Without an end, the clear bit after the value is found
+      assertThat(await(bitmapCache.bitPos("ones", false, 0, -1, false, false))).isEqualTo(24);
+      assertThat(await(bitmapCache.bitPos("ones", false, 0, -1, true, false))).isEqualTo(-1);
+
+      assertThat(await(bitmapCache.bitPos("not_existing", false, 0, -1, false, false))).isZero();
+      assertThat(await(bitmapCache.bitPos("not_existing", true, 0, -1, false, false))).isEqualTo(-1);
+
+      // A set bit after whole words of clear bits
+      byte[] value = new byte[100];
+      value[93] = 0x04;
+      assertThat(Bitmaps.bitPos(value, true, 1, -1, false, false)).isEqualTo(93 * 8 + 5);
+   }
+
+   public void testBitOp() {
+      cache.put("key1", "foobar".getBytes());
+      cache.put("key2", "abcdef".getBytes());
+      assertThat(await(bitmapCache.bitOp(Bitmaps.Operation.AND, "dest", List.of("key1", "key2")))).isEqualTo(6);
+      assertThat(cache.get("dest")).isEqualTo("`bc`ab".getBytes());
+      assertThat(await(bitmapCache.bitOp(Bitmaps.Operation.OR, "dest", List.of("key1", "key2")))).isEqualTo(6);
+      assertThat(cache.get("dest")).isEqualTo("goofev".getBytes());
+
+      byte[] long1 = new byte[21];
+      byte[] long2 = new byte[13];
+      Random random = new Random(7);
+      random.nextBytes(long1);
+      random.nextBytes(long2);
+      cache.put("long1", long1);
+      cache.put("long2", long2);
+      assertThat(await(bitmapCache.bitOp(Bitmaps.Operation.XOR, "dest", List.of("long1", "long2", "not_existing"))))
+            .isEqualTo(21);
+      byte[] expected = new byte[21];
+      for (int i = 0; i < expected.length; ++i) {
+         expected[i] = (byte) (long1[i] ^ (i < long2.length ? long2[i] : 0));
+      }
+      assertThat(cache.get("dest")).isEqualTo(expected);
+      await(bitmapCache.bitOp(Bitmaps.Operation.AND, "dest", List.of("long1", "long2")));
+      for (int i = 0; i < expected.length; ++i) {
+         expected[i] = (byte) (i < long2.length ? long1[i] & long2[i] : 0);
+      }
+      assertThat(cache.get("dest")).isEqualTo(expected);
+      await(bitmapCache.bitOp(Bitmaps.Operation.NOT, "dest", List.of("long1")));
+      for (int i = 0; i < expected.length; ++i) {
+         expected[i] = (byte) ~long1[i];
+      }
+      assertThat(cache.get("dest")).isEqualTo(expected);
+      // The sources are not modified
+      assertThat(cache.get("long1")).isEqualTo(long1);
+
+      // An empty result removes the destination
+      assertThat(await(bitmapCache.bitOp(Bitmaps.Operation.OR, "dest", List.of("not_existing")))).isZero();
+      assertThat(cache.containsKey("dest")).isFalse();
+   }
+
+   public void testBitfield() {
+      List<Long> results = await(bitmapCache.bitfield("field", List.of(
+            new BitfieldOperation(Type.INCRBY, true, 5, 100, 1, Overflow.WRAP),
+            new BitfieldOperation(Type.GET, false, 4, 0, 0, Overflow.WRAP))));
+      assertThat(results).containsExactly(1L, 0L);
+
+      results = await(bitmapCache.bitfield("field", List.of(
+            new BitfieldOperation(Type.SET, false, 8, 0, 255, Overflow.WRAP),
+            new BitfieldOperation(Type.GET, false, 8, 0, 0, Overflow.WRAP),
+            new BitfieldOperation(Type.GET, true, 8, 0, 0, Overflow.WRAP),
+            new BitfieldOperation(Type.INCRBY, false, 8, 0, 10, Overflow.WRAP),
+            new BitfieldOperation(Type.INCRBY, false, 8, 0, 300, Overflow.SAT),
+            new BitfieldOperation(Type.INCRBY, false, 8, 0, 1, Overflow.FAIL),
+            new BitfieldOperation(Type.SET, true, 4, 8, -9, Overflow.SAT),
+            new BitfieldOperation(Type.GET, true, 4, 8, 0, Overflow.WRAP),
+            new BitfieldOperation(Type.INCRBY, true, 64, 16, Long.MAX_VALUE, Overflow.WRAP),
+            new BitfieldOperation(Type.INCRBY, true, 64, 16, Long.MAX_VALUE, Overflow.SAT))));
+      assertThat(results).containsExactly(0L, 255L, -1L, 9L, 255L, null, 0L, -8L, Long.MAX_VALUE, Long.MAX_VALUE);
+
+      // Reading does not create the key
+      assertThat(await(bitmapCache.bitfield("not_existing", List.of(
+            new BitfieldOperation(Type.GET, true, 64, 0, 0, Overflow.WRAP))))).containsExactly(0L);
+      assertThat(cache.containsKey("not_existing")).isFalse();
+   }
+
+   public void testWrongType() {
+      cache.put("set", new SetBucket<>());
+      assertThatThrownBy(() -> await(bitmapCache.setBit("set", 0, true))).hasRootCauseInstanceOf(ClassCastException.class);
+      assertThatThrownBy(() -> await(bitmapCache.bitOp(Bitmaps.Operation.OR, "dest", Arrays.asList("set"))))
+            .hasRootCauseInstanceOf(ClassCastException.class);
+   }
+}
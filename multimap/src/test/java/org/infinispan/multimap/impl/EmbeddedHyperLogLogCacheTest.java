@@ -0,0 +1,136 @@
+package org.infinispan.multimap.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.infinispan.functional.FunctionalTestUtils.await;
+import static org.infinispan.multimap.impl.EmbeddedHyperLogLogCache.ERR_ELEMENTS_CAN_T_BE_NULL;
+import static org.infinispan.multimap.impl.EmbeddedHyperLogLogCache.ERR_KEY_CAN_T_BE_NULL;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.persistence.impl.PersistenceMarshallerImpl;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Single HyperLogLog Cache Test
+ *
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "multimap.EmbeddedHyperLogLogCacheTest")
+public class EmbeddedHyperLogLogCacheTest extends SingleCacheManagerTest {
+
+   EmbeddedHyperLogLogCache<String> hllCache;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      // start a single cache instance
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(MultimapSCI.INSTANCE);
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      cm.createCache("test", builder.build());
+      cache = cm.getCache("test");
+      hllCache = new EmbeddedHyperLogLogCache<>(cm.getCache("test"));
+      return cm;
+   }
+
+   public void testAdd() {
+      assertThat(await(hllCache.add("visitors", List.of()))).isTrue();
+      assertThat(await(hllCache.count(List.of("visitors")))).isZero();
+
+      assertThat(await(hllCache.add("visitors", elements("user", 0, 3)))).isTrue();
+      assertThat(await(hllCache.count(List.of("visitors")))).isEqualTo(3);
+      // Adding the same elements again does not change the estimation
+      assertThat(await(hllCache.add("visitors", elements("user", 0, 3)))).isFalse();
+      assertThat(await(hllCache.count(List.of("visitors")))).isEqualTo(3);
+      assertThat(await(hllCache.count(List.of("not_existing")))).isZero();
+
+      assertThatThrownBy(() -> await(hllCache.add(null, List.of()))).isInstanceOf(NullPointerException.class)
+            .hasMessageContaining(ERR_KEY_CAN_T_BE_NULL);
+      assertThatThrownBy(() -> await(hllCache.add("visitors", null))).isInstanceOf(NullPointerException.class)
+            .hasMessageContaining(ERR_ELEMENTS_CAN_T_BE_NULL);
+   }
+
+   public void testDenseEstimation() {
+      int count = 100_000;
+      for (int i = 0; i < count; i += 1000) {
+         await(hllCache.add("many", elements("element", i, i + 1000)));
+      }
+      HyperLogLogBucket bucket = (HyperLogLogBucket) cache.get("many");
+      assertThat(bucket.isSparse()).isFalse();
+      assertThat(bucket.getDenseRegisters()).hasSize(HyperLogLogBucket.DENSE_BYTES);
+      // The standard error with 16384 registers is 0.81%
+      assertThat(await(hllCache.count(List.of("many")))).isBetween((long) (count * 0.97), (long) (count * 1.03));
+   }
+
+   public void testSparseToDense() {
+      HyperLogLogBucket bucket = new HyperLogLogBucket();
+      int added = 0;
+      while (bucket.isSparse()) {
+         assertThat(bucket.getSparseEntries().length).isLessThanOrEqualTo(HyperLogLogBucket.SPARSE_MAX_BYTES);
+         bucket.add(("e" + added++).getBytes(StandardCharsets.US_ASCII));
+      }
+      assertThat(bucket.getSparseEntries()).isNull();
+      assertThat(added).isGreaterThan(900);
+
+      // Both encodings give the same estimation
+      HyperLogLogBucket sparse = new HyperLogLogBucket();
+      for (int i = 0; i < added - 1; ++i) {
+         sparse.add(("e" + i).getBytes(StandardCharsets.US_ASCII));
+      }
+      assertThat(sparse.isSparse()).isTrue();
+      HyperLogLogBucket dense = new HyperLogLogBucket(null, new byte[HyperLogLogBucket.DENSE_BYTES]);
+      dense.merge(sparse);
+      assertThat(dense.count()).isEqualTo(sparse.count());
+   }
+
+   public void testCountAndMergeMany() {
+      await(hllCache.add("a", elements("x", 0, 5000)));
+      await(hllCache.add("b", elements("x", 2500, 7500)));
+      await(hllCache.add("c", elements("y", 0, 10)));
+      long union = await(hllCache.count(List.of("a", "b", "c", "not_existing")));
+      assertThat(union).isBetween(7300L, 7720L);
+      // Counting many keys does not modify them
+      assertThat(await(hllCache.count(List.of("c")))).isEqualTo(10);
+
+      await(hllCache.merge("union", List.of("a", "b", "c")));
+      assertThat(await(hllCache.count(List.of("union")))).isEqualTo(union);
+      // Merging into an existing HyperLogLog keeps its elements
+      await(hllCache.merge("c", List.of("a")));
+      assertThat(await(hllCache.count(List.of("c")))).isEqualTo(await(hllCache.count(List.of("a", "c"))));
+
+      await(hllCache.merge("empty", List.of("not_existing")));
+      assertThat(cache.containsKey("empty")).isTrue();
+      assertThat(await(hllCache.count(List.of("empty")))).isZero();
+   }
+
+   public void testMarshalling() throws Exception {
+      PersistenceMarshallerImpl pm = TestingUtil.extractPersistenceMarshaller(cacheManager);
+      HyperLogLogBucket sparse = new HyperLogLogBucket();
+      elements("s", 0, 100).forEach(sparse::add);
+      HyperLogLogBucket copy = (HyperLogLogBucket) pm.objectFromByteBuffer(pm.objectToByteBuffer(sparse));
+      assertThat(copy.isSparse()).isTrue();
+      assertThat(copy.count()).isEqualTo(sparse.count());
+      // The copy can still be updated
+      assertThat(copy.add("another".getBytes(StandardCharsets.US_ASCII))).isTrue();
+
+      HyperLogLogBucket dense = new HyperLogLogBucket();
+      elements("d", 0, 5000).forEach(dense::add);
+      copy = (HyperLogLogBucket) pm.objectFromByteBuffer(pm.objectToByteBuffer(dense));
+      assertThat(copy.isSparse()).isFalse();
+      assertThat(copy.count()).isEqualTo(dense.count());
+   }
+
+   private static List<byte[]> elements(String prefix, int from, int to) {
+      List<byte[]> elements = new ArrayList<>(to - from);
+      for (int i = from; i < to; ++i) {
+         elements.add((prefix + i).getBytes(StandardCharsets.US_ASCII));
+      }
+      return elements;
+   }
+}
@@ -0,0 +1,216 @@
+package org.infinispan.multimap.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.infinispan.functional.FunctionalTestUtils.await;
+import static org.infinispan.multimap.impl.EmbeddedStreamCache.ERR_KEY_CAN_T_BE_NULL;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.persistence.impl.PersistenceMarshallerImpl;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Single Stream Cache Test
+ *
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "multimap.EmbeddedStreamCacheTest")
+public class EmbeddedStreamCacheTest extends SingleCacheManagerTest {
+
+   EmbeddedStreamCache<String> streamCache;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      // start a single cache instance
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(MultimapSCI.INSTANCE);
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      cm.createCache("test", builder.build());
+      cache = cm.getCache("test");
+      streamCache = new EmbeddedStreamCache<>(cm.getCache("test"));
+      return cm;
+   }
+
+   public void testAdd() {
+      StreamID first = await(streamCache.add("events", null, false, fields("a", "1"), false, null));
+      StreamID second = await(streamCache.add("events", null, false, fields("b", "2"), false, null));
+      assertThat(second).isGreaterThan(first);
+      assertThat(await(streamCache.size("events"))).isEqualTo(2);
+
+      StreamID explicit = new StreamID(second.ms() + 1000, 5);
+      assertThat(await(streamCache.add("events", explicit, false, fields("c", "3"), false, null))).isEqualTo(explicit);
+      assertThat(await(streamCache.add("events", new StreamID(explicit.ms(), 0), true, fields("d", "4"), false, null)))
+            .isEqualTo(new StreamID(explicit.ms(), 6));
+      assertThatThrownBy(() -> await(streamCache.add("events", explicit, false, fields("e", "5"), false, null)))
+            .hasRootCauseInstanceOf(StreamException.class)
+            .hasStackTraceContaining("ERR The ID specified in XADD is equal or smaller than the target stream top item");
+      assertThatThrownBy(() -> await(streamCache.add("other", StreamID.MIN, false, fields("e", "5"), false, null)))
+            .hasRootCauseInstanceOf(StreamException.class)
+            .hasStackTraceContaining("ERR The ID specified in XADD must be greater than 0-0");
+
+      assertThat(await(streamCache.add("not_existing", null, false, fields("a", "1"), true, null))).isNull();
+      assertThat(cache.containsKey("not_existing")).isFalse();
+      assertThat(await(streamCache.size("not_existing"))).isZero();
+
+      assertThatThrownBy(() -> await(streamCache.add(null, null, false, fields("a", "1"), false, null)))
+            .isInstanceOf(NullPointerException.class)
+            .hasMessageContaining(ERR_KEY_CAN_T_BE_NULL);
+   }
+
+   public void testRangeAcrossSegments() {
+      int count = StreamBucket.SEGMENT_CAPACITY * 3 + 10;
+      for (int i = 1; i <= count; ++i) {
+         await(streamCache.add("log", new StreamID(i, 0), false, fields("n", Integer.toString(i)), false, null));
+      }
+      List<StreamBucket.Entry> all = await(streamCache.range("log", StreamID.MIN, StreamID.MAX, -1, false));
+      assertThat(all).hasSize(count);
+      assertThat(ids(all)).isSorted();
+
+      List<StreamBucket.Entry> middle = await(streamCache.range("log", new StreamID(95, 0), new StreamID(205, 0), -1, false));
+      assertThat(ids(middle)).containsExactlyElementsOf(range(95, 205));
+      List<StreamBucket.Entry> reverse = await(streamCache.range("log", new StreamID(95, 0), new StreamID(205, 0), 3, true));
+      assertThat(ids(reverse)).containsExactly(205L, 204L, 203L);
+      assertThat(value(reverse.get(0))).isEqualTo("205");
+      assertThat(await(streamCache.range("log", new StreamID(count + 1, 0), StreamID.MAX, -1, false))).isEmpty();
+      assertThat(await(streamCache.range("not_existing", StreamID.MIN, StreamID.MAX, -1, false))).isNull();
+
+      assertThat(await(streamCache.delete("log", List.of(new StreamID(100, 0), new StreamID(101, 0), new StreamID(101, 0)))))
+            .isEqualTo(2);
+      assertThat(ids(await(streamCache.range("log", new StreamID(99, 0), new StreamID(102, 0), -1, false))))
+            .containsExactly(99L, 102L);
+      assertThat(ids(await(streamCache.range("log", new StreamID(99, 0), new StreamID(102, 0), -1, true))))
+            .containsExactly(102L, 99L);
+      assertThat(await(streamCache.size("log"))).isEqualTo(count - 2);
+   }
+
+   public void testTrim() {
+      for (int i = 1; i <= 250; ++i) {
+         await(streamCache.add("trimmed", new StreamID(i, 0), false, fields("n", Integer.toString(i)), false, null));
+      }
+      // Approximate trimming only drops whole segments
+      assertThat(await(streamCache.trim("trimmed", StreamTrimArgs.maxLength(120, true)))).isEqualTo(100);
+      assertThat(await(streamCache.size("trimmed"))).isEqualTo(150);
+      assertThat(await(streamCache.trim("trimmed", StreamTrimArgs.maxLength(120, false)))).isEqualTo(30);
+      assertThat(ids(await(streamCache.range("trimmed", StreamID.MIN, StreamID.MAX, 1, false)))).containsExactly(131L);
+      assertThat(await(streamCache.trim("trimmed", StreamTrimArgs.minId(new StreamID(201, 0), false)))).isEqualTo(70);
+      assertThat(ids(await(streamCache.range("trimmed", StreamID.MIN, StreamID.MAX, 1, false)))).containsExactly(201L);
+
+      // Adding with trimming keeps the length bounded
+      for (int i = 251; i <= 400; ++i) {
+         await(streamCache.add("trimmed", new StreamID(i, 0), false, fields("n", Integer.toString(i)), false,
+               StreamTrimArgs.maxLength(10, false)));
+      }
+      assertThat(await(streamCache.size("trimmed"))).isEqualTo(10);
+      assertThat(await(streamCache.trim("not_existing", StreamTrimArgs.maxLength(0, false)))).isZero();
+   }
+
+   public void testConsumerGroups() {
+      for (int i = 1; i <= 5; ++i) {
+         await(streamCache.add("jobs", new StreamID(i, 0), false, fields("job", Integer.toString(i)), false, null));
+      }
+      await(streamCache.createGroup("jobs", "workers", StreamID.MIN, false));
+      assertThatThrownBy(() -> await(streamCache.createGroup("jobs", "workers", StreamID.MIN, false)))
+            .hasRootCauseInstanceOf(StreamException.class)
+            .hasStackTraceContaining("BUSYGROUP");
+      assertThatThrownBy(() -> await(streamCache.createGroup("no_jobs", "workers", null, false)))
+            .hasRootCauseInstanceOf(StreamException.class)
+            .hasStackTraceContaining("requires the key to exist");
+      await(streamCache.createGroup("no_jobs", "workers", null, true));
+      assertThat(await(streamCache.size("no_jobs"))).isZero();
+
+      assertThat(ids(await(streamCache.readGroup("jobs", "workers", "alice", null, 2, false)))).containsExactly(1L, 2L);
+      assertThat(ids(await(streamCache.readGroup("jobs", "workers", "bob", null, -1, false)))).containsExactly(3L, 4L, 5L);
+      assertThat(await(streamCache.readGroup("jobs", "workers", "bob", null, -1, false))).isEmpty();
+
+      StreamBucket.PendingSummary summary = await(streamCache.pendingSummary("jobs", "workers"));
+      assertThat(summary.count()).isEqualTo(5);
+      assertThat(summary.first()).isEqualTo(new StreamID(1, 0));
+      assertThat(summary.last()).isEqualTo(new StreamID(5, 0));
+      assertThat(summary.consumers()).containsExactly("alice", "bob");
+      assertThat(summary.counts()).containsExactly(2L, 3L);
+
+      // Reading the history of the consumer delivers the pending entries again
+      assertThat(ids(await(streamCache.readGroup("jobs", "workers", "alice", StreamID.MIN, -1, false)))).containsExactly(1L, 2L);
+      List<StreamBucket.PendingEntry> pending = await(streamCache.pending("jobs", "workers", StreamID.MIN, StreamID.MAX, 10, "alice", 0));
+      assertThat(pending).extracting(StreamBucket.PendingEntry::deliveryCount).containsExactly(2L, 2L);
+      assertThat(await(streamCache.pending("jobs", "workers", StreamID.MIN, StreamID.MAX, 10, null, 0))).hasSize(5);
+      assertThat(await(streamCache.pending("jobs", "workers", StreamID.MIN, StreamID.MAX, 10, null, 60_000))).isEmpty();
+
+      assertThat(await(streamCache.ack("jobs", "workers", List.of(new StreamID(1, 0), new StreamID(3, 0), new StreamID(9, 0)))))
+            .isEqualTo(2);
+      assertThat(await(streamCache.ack("jobs", "not_existing", List.of(new StreamID(2, 0))))).isZero();
+      assertThat(await(streamCache.pendingSummary("jobs", "workers")).count()).isEqualTo(3);
+
+      // A deleted pending entry is returned without fields
+      await(streamCache.delete("jobs", List.of(new StreamID(2, 0))));
+      List<StreamBucket.Entry> history = await(streamCache.readGroup("jobs", "workers", "alice", StreamID.MIN, -1, false));
+      assertThat(ids(history)).containsExactly(2L);
+      assertThat(history.get(0).fieldsAndValues()).isEmpty();
+
+      assertThat(await(streamCache.createConsumer("jobs", "workers", "carol"))).isTrue();
+      assertThat(await(streamCache.createConsumer("jobs", "workers", "carol"))).isFalse();
+      assertThat(await(streamCache.deleteConsumer("jobs", "workers", "bob"))).isEqualTo(2);
+      assertThat(await(streamCache.pendingSummary("jobs", "workers")).consumers()).containsExactly("alice");
+
+      await(streamCache.setGroupId("jobs", "workers", new StreamID(3, 0)));
+      assertThat(ids(await(streamCache.readGroup("jobs", "workers", "carol", null, -1, true)))).containsExactly(4L, 5L);
+      assertThat(await(streamCache.pendingSummary("jobs", "workers")).consumers()).containsExactly("alice");
+
+      assertThat(await(streamCache.destroyGroup("jobs", "workers"))).isTrue();
+      assertThat(await(streamCache.destroyGroup("jobs", "workers"))).isFalse();
+      assertThatThrownBy(() -> await(streamCache.readGroup("jobs", "workers", "alice", null, -1, false)))
+            .hasRootCauseInstanceOf(StreamException.class)
+            .hasStackTraceContaining("NOGROUP");
+   }
+
+   public void testMarshalling() throws Exception {
+      PersistenceMarshallerImpl pm = TestingUtil.extractPersistenceMarshaller(cacheManager);
+      StreamBucket bucket = new StreamBucket();
+      for (int i = 0; i < 150; ++i) {
+         bucket.add(null, false, 1_000_000L + i / 3, fields("f" + i, "v" + i));
+      }
+      bucket.delete(List.of(new StreamID(1_000_000L, 1)));
+      bucket.createGroup("g", StreamID.MIN);
+      bucket.readGroup("g", "c", null, 10, false, 42);
+
+      StreamBucket copy = (StreamBucket) pm.objectFromByteBuffer(pm.objectToByteBuffer(bucket));
+      assertThat(copy.size()).isEqualTo(149);
+      assertThat(copy.getLastId()).isEqualTo(bucket.getLastId());
+      assertThat(copy.getMaxDeletedId()).isEqualTo(new StreamID(1_000_000L, 1));
+      assertThat(copy.getEntriesAdded()).isEqualTo(150);
+      assertThat(ids(copy.range(StreamID.MIN, StreamID.MAX, -1, false)))
+            .containsExactlyElementsOf(ids(bucket.range(StreamID.MIN, StreamID.MAX, -1, false)));
+      StreamBucket.PendingSummary summary = copy.pendingSummary("g");
+      assertThat(summary.count()).isEqualTo(10);
+      assertThat(summary.consumers()).containsExactly("c");
+      assertThat(copy.pending("g", StreamID.MIN, StreamID.MAX, 1, null, 0, 42).get(0).deliveryTime()).isEqualTo(42);
+      // The copy can still be updated
+      assertThat(copy.add(null, false, 2_000_000L, fields("last", "entry"))).isEqualTo(new StreamID(2_000_000L, 0));
+   }
+
+   private static List<byte[]> fields(String... fieldsAndValues) {
+      return Arrays.stream(fieldsAndValues).map(s -> s.getBytes(StandardCharsets.US_ASCII))
+            .collect(Collectors.toList());
+   }
+
+   private static List<Long> ids(List<StreamBucket.Entry> entries) {
+      return entries.stream().map(e -> e.id().ms()).collect(Collectors.toList());
+   }
+
+   private static List<Long> range(long from, long to) {
+      return LongStream.rangeClosed(from, to).boxed().collect(Collectors.toList());
+   }
+
+   private static String value(StreamBucket.Entry entry) {
+      return new String(entry.fieldsAndValues().get(1), StandardCharsets.US_ASCII);
+   }
+}
@@ -0,0 +1,93 @@
+package org.infinispan.multimap.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.testng.annotations.Test;
+
+/**
+ * Compares the behaviour of {@link IndexedSkipList} with a {@link TreeSet}, checking the ranks after every kind of
+ * modification.
+ *
+ * @since 15.0
+ */
+@Test(groups = "unit", testName = "multimap.IndexedSkipListTest")
+public class IndexedSkipListTest {
+
+   private static final int ELEMENTS = 2000;
+
+   public void testAddRemoveAndRanks() {
+      IndexedSkipList<Integer> list = new IndexedSkipList<>();
+      TreeSet<Integer> expected = new TreeSet<>();
+      Random random = new Random(12345);
+      for (int i = 0; i < ELEMENTS * 2; ++i) {
+         int value = random.nextInt(ELEMENTS);
+         if (random.nextInt(3) == 0) {
+            assertThat(list.remove(value)).isEqualTo(expected.remove(value));
+         } else {
+            assertThat(list.add(value)).isEqualTo(expected.add(value));
+         }
+      }
+      assertThat(list).containsExactlyElementsOf(expected);
+      assertThat(list.size()).isEqualTo(expected.size());
+      assertThat(list.first()).isEqualTo(expected.first());
+      assertThat(list.last()).isEqualTo(expected.last());
+
+      List<Integer> ordered = new ArrayList<>(expected);
+      for (int i = 0; i < ordered.size(); ++i) {
+         assertThat(list.get(i)).isEqualTo(ordered.get(i));
+         assertThat(list.countLower(ordered.get(i))).isEqualTo(i);
+         assertThat(list.countLowerOrEqual(ordered.get(i))).isEqualTo(i + 1);
+      }
+      for (int value = -1; value <= ELEMENTS; ++value) {
+         assertThat(list.countLower(value)).isEqualTo(expected.headSet(value, false).size());
+         assertThat(list.contains(value)).isEqualTo(expected.contains(value));
+      }
+   }
+
+   public void testIteratorsFromIndex() {
+      IndexedSkipList<Integer> list = new IndexedSkipList<>();
+      for (int i = 0; i < ELEMENTS; ++i) {
+         list.add(i);
+      }
+      Iterator<Integer> ascending = list.iterator(100, false);
+      Iterator<Integer> descending = list.iterator(100, true);
+      for (int i = 0; i < 10; ++i) {
+         assertThat(ascending.next()).isEqualTo(100 + i);
+         assertThat(descending.next()).isEqualTo(ELEMENTS - 101 - i);
+      }
+      assertThat(list.iterator(ELEMENTS, false).hasNext()).isFalse();
+
+      List<Integer> reversed = new ArrayList<>();
+      list.descendingIterator().forEachRemaining(reversed::add);
+      assertThat(reversed).hasSize(ELEMENTS).startsWith(ELEMENTS - 1).endsWith(0);
+   }
+
+   public void testPollAndIteratorRemove() {
+      IndexedSkipList<Integer> list = new IndexedSkipList<>();
+      TreeSet<Integer> expected = new TreeSet<>();
+      for (int i = 0; i < ELEMENTS; ++i) {
+         list.add(i);
+         expected.add(i);
+      }
+      for (int i = 0; i < 50; ++i) {
+         assertThat(list.pollFirst()).isEqualTo(expected.pollFirst());
+         assertThat(list.pollLast()).isEqualTo(expected.pollLast());
+      }
+      list.removeIf(i -> i % 3 == 0);
+      expected.removeIf(i -> i % 3 == 0);
+      assertThat(list).containsExactlyElementsOf(expected);
+      assertThat(list.get(10)).isEqualTo(new ArrayList<>(expected).get(10));
+
+      list.clear();
+      assertThat(list).isEmpty();
+      assertThat(list.pollFirst()).isNull();
+      list.add(1);
+      assertThat(list.get(0)).isEqualTo(1);
+   }
+}
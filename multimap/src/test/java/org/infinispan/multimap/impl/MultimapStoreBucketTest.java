@@ -1,10 +1,24 @@
 package org.infinispan.multimap.impl;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.testng.AssertJUnit.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commons.marshall.JavaSerializationMarshaller;
+import org.infinispan.commons.marshall.MarshallUtil;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.global.GlobalConfigurationBuilder;
 import org.infinispan.manager.EmbeddedCacheManager;
@@ -13,6 +27,7 @@
 import org.infinispan.multimap.api.embedded.EmbeddedMultimapCacheManagerFactory;
 import org.infinispan.multimap.api.embedded.MultimapCache;
 import org.infinispan.multimap.api.embedded.MultimapCacheManager;
+import org.infinispan.multimap.configuration.MultimapConfigurationBuilder;
 import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
 import org.infinispan.test.AbstractInfinispanTest;
 import org.infinispan.test.TestingUtil;
@@ -41,4 +56,130 @@ public void testMultimapWithJavaSerializationMarshaller() throws Exception {
       assertTrue(pm.getSerializationContext().canMarshall(Bucket.class));
       assertTrue(multimapCache.containsKey("k1").get(1, TimeUnit.SECONDS));
    }
+
+   public void testWrappedBucketsByDefault() throws Exception {
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(MultimapSCI.INSTANCE);
+      try {
+         PersistenceMarshallerImpl pm = TestingUtil.extractPersistenceMarshaller(cm);
+         byte[] a = "a".getBytes(StandardCharsets.US_ASCII);
+         byte[] b = "bb".getBytes(StandardCharsets.US_ASCII);
+
+         // Nodes of earlier versions only read the wrapped values
+         HashMapBucket<byte[], byte[]> hash = HashMapBucket.create(Map.of(a, b));
+         assertThat(hash.getPackedValues()).isNull();
+         assertThat(hash.getWrappedValues()).hasSize(1);
+         assertThat(roundTrip(pm, hash).get(a)).isEqualTo(b);
+
+         ListBucket<byte[]> list = ListBucket.create(a).offer(b, false);
+         assertThat(list.getPackedValues()).isNull();
+         assertThat(roundTrip(pm, list).toDeque()).containsExactly(a, b);
+      } finally {
+         TestingUtil.killCacheManagers(cm);
+      }
+   }
+
+   public void testPackedBucketsRoundTrip() throws Exception {
+      GlobalConfigurationBuilder globalBuilder = new GlobalConfigurationBuilder().nonClusteredDefault();
+      globalBuilder.serialization().addContextInitializer(MultimapSCI.INSTANCE);
+      globalBuilder.addModule(MultimapConfigurationBuilder.class).packedBuckets(true);
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(globalBuilder, new ConfigurationBuilder());
+      try {
+         assertTrue(PackedBuckets.packBuckets);
+         PersistenceMarshallerImpl pm = TestingUtil.extractPersistenceMarshaller(cm);
+         byte[] a = "a".getBytes(StandardCharsets.US_ASCII);
+         byte[] b = "bb".getBytes(StandardCharsets.US_ASCII);
+
+         ListBucket<byte[]> list = ListBucket.create(a).offer(b, false);
+         assertThat(list.getPackedValues()).isNotNull();
+         assertThat(list.getWrappedValues()).isEmpty();
+         ListBucket<byte[]> listCopy = roundTrip(pm, list);
+         assertThat(listCopy.toDeque()).containsExactly(a, b);
+
+         SetBucket<byte[]> set = SetBucket.create(a);
+         set.add(b);
+         assertThat(set.getPackedValues()).isNotNull();
+         assertThat(roundTrip(pm, set).toSet()).containsExactlyInAnyOrder(a, b);
+
+         SortedSetBucket<byte[]> sortedSet = new SortedSetBucket<>();
+         sortedSet.addMany(List.of(SortedSetBucket.ScoredValue.of(2, b), SortedSetBucket.ScoredValue.of(1, a)),
+               false, false, false, false);
+         assertThat(sortedSet.getPackedValues()).isNotNull();
+         List<SortedSetBucket.ScoredValue<byte[]>> scored = roundTrip(pm, sortedSet).getScoredEntriesAsList();
+         assertThat(scored).extracting(SortedSetBucket.ScoredValue::getValue).containsExactly(a, b);
+         assertThat(scored).extracting(SortedSetBucket.ScoredValue::score).containsExactly(1d, 2d);
+
+         HashMapBucket<byte[], byte[]> hash = HashMapBucket.create(Map.of(a, b));
+         assertThat(hash.getPackedValues()).isNotNull();
+         assertThat(roundTrip(pm, hash).get(a)).isEqualTo(b);
+
+         // Non byte[] elements keep using the wrapped representation
+         SetBucket<String> strings = new SetBucket<>(new HashSet<>(Set.of("x", "y")));
+         assertThat(strings.getPackedValues()).isNull();
+         assertThat(roundTrip(pm, strings).toSet()).containsExactlyInAnyOrder("x", "y");
+      } finally {
+         PackedBuckets.packBuckets = false;
+         TestingUtil.killCacheManagers(cm);
+      }
+   }
+
+   public void testPackedScoredValuesPayload() throws Exception {
+      byte[] a = "a".getBytes(StandardCharsets.US_ASCII);
+      byte[] b = "bb".getBytes(StandardCharsets.US_ASCII);
+      List<SortedSetBucket.ScoredValue<byte[]>> values = List.of(SortedSetBucket.ScoredValue.of(1, a),
+            SortedSetBucket.ScoredValue.of(2.5, b));
+
+      boolean packBuckets = PackedBuckets.packBuckets;
+      try {
+         PackedBuckets.packBuckets = true;
+         assertScoredValuesRoundTrip(values, a, b);
+
+         // Earlier versions read the same bytes as this one writes when packing is disabled
+         PackedBuckets.packBuckets = false;
+         ByteArrayOutputStream written = new ByteArrayOutputStream();
+         try (ObjectOutputStream output = new ScoreOutputStream(written)) {
+            PackedBuckets.writeScoredValues(values, output);
+         }
+         ByteArrayOutputStream expected = new ByteArrayOutputStream();
+         try (ObjectOutputStream output = new ScoreOutputStream(expected)) {
+            MarshallUtil.marshallCollection(values, output);
+         }
+         assertThat(written.toByteArray()).isEqualTo(expected.toByteArray());
+      } finally {
+         PackedBuckets.packBuckets = packBuckets;
+      }
+   }
+
+   private static void assertScoredValuesRoundTrip(List<SortedSetBucket.ScoredValue<byte[]>> values, byte[] a, byte[] b) throws Exception {
+      try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(writeScoredValues(values)))) {
+         Collection<SortedSetBucket.ScoredValue<byte[]>> copy = PackedBuckets.readScoredValues(input);
+         assertThat(copy).extracting(SortedSetBucket.ScoredValue::getValue).containsExactly(a, b);
+         assertThat(copy).extracting(SortedSetBucket.ScoredValue::score).containsExactly(1d, 2.5d);
+      }
+   }
+
+   // ScoredValue is marshalled by protostream, only its score is written here
+   private static class ScoreOutputStream extends ObjectOutputStream {
+      ScoreOutputStream(OutputStream out) throws IOException {
+         super(out);
+         enableReplaceObject(true);
+      }
+
+      @Override
+      protected Object replaceObject(Object obj) {
+         return obj instanceof SortedSetBucket.ScoredValue ? ((SortedSetBucket.ScoredValue<?>) obj).score() : obj;
+      }
+   }
+
+   private static byte[] writeScoredValues(List<SortedSetBucket.ScoredValue<byte[]>> values) throws Exception {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+         PackedBuckets.writeScoredValues(values, output);
+      }
+      return bytes.toByteArray();
+   }
+
+   @SuppressWarnings("unchecked")
+   private static <T> T roundTrip(PersistenceMarshallerImpl pm, T object) throws Exception {
+      return (T) pm.objectFromByteBuffer(pm.objectToByteBuffer(object));
+   }
 }
@@ -0,0 +1,109 @@
+package org.infinispan.multimap.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+/**
+ * Compares the behaviour of {@link SegmentedList} with an {@link ArrayList} for operations that span several
+ * segments.
+ *
+ * @since 15.0
+ */
+@Test(groups = "unit", testName = "multimap.SegmentedListTest")
+public class SegmentedListTest {
+
+   private static final int ELEMENTS = SegmentedList.SEGMENT_CAPACITY * 5 + 17;
+
+   public void testOfferAndPollBothEnds() {
+      SegmentedList<Integer> list = new SegmentedList<>();
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < ELEMENTS; ++i) {
+         if (i % 3 == 0) {
+            list.offerFirst(i);
+            expected.add(0, i);
+         } else {
+            list.offerLast(i);
+            expected.add(i);
+         }
+      }
+      assertThat(list).containsExactlyElementsOf(expected);
+      assertThat(list.peekFirst()).isEqualTo(expected.get(0));
+      assertThat(list.peekLast()).isEqualTo(expected.get(expected.size() - 1));
+
+      while (!expected.isEmpty()) {
+         assertThat(list.pollFirst()).isEqualTo(expected.remove(0));
+         if (!expected.isEmpty()) {
+            assertThat(list.pollLast()).isEqualTo(expected.remove(expected.size() - 1));
+         }
+      }
+      assertThat(list).isEmpty();
+      assertThat(list.pollFirst()).isNull();
+      assertThat(list.pollLast()).isNull();
+   }
+
+   public void testGetAndSet() {
+      SegmentedList<Integer> list = new SegmentedList<>();
+      for (int i = 0; i < ELEMENTS; ++i) {
+         list.offerFirst(-i);
+         list.offerLast(i);
+      }
+      List<Integer> expected = new ArrayList<>(list);
+      for (int i = 0; i < expected.size(); i += 7) {
+         assertThat(list.get(i)).isEqualTo(expected.get(i));
+         assertThat(list.set(i, i * 1000)).isEqualTo(expected.get(i));
+         expected.set(i, i * 1000);
+      }
+      assertThat(list).containsExactlyElementsOf(expected);
+   }
+
+   public void testInsertSplitsSegments() {
+      SegmentedList<Integer> list = new SegmentedList<>();
+      List<Integer> expected = new ArrayList<>();
+      Random random = new Random(12345);
+      for (int i = 0; i < ELEMENTS; ++i) {
+         int index = random.nextInt(expected.size() + 1);
+         list.insert(index, i);
+         expected.add(index, i);
+      }
+      assertThat(list).containsExactlyElementsOf(expected);
+      for (int i = 0; i < expected.size(); ++i) {
+         assertThat(list.get(i)).isEqualTo(expected.get(i));
+      }
+   }
+
+   public void testIteratorRemove() {
+      SegmentedList<Integer> list = new SegmentedList<>();
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < ELEMENTS; ++i) {
+         list.offerLast(i);
+         expected.add(i);
+      }
+      for (Iterator<Integer> it = list.iterator(); it.hasNext(); ) {
+         if (it.next() % 2 == 0) it.remove();
+      }
+      expected.removeIf(i -> i % 2 == 0);
+      assertThat(list).containsExactlyElementsOf(expected);
+
+      for (Iterator<Integer> it = list.descendingIterator(); it.hasNext(); ) {
+         if (it.next() % 3 == 0) it.remove();
+      }
+      expected.removeIf(i -> i % 3 == 0);
+      assertThat(list).containsExactlyElementsOf(expected);
+
+      List<Integer> reversed = new ArrayList<>();
+      list.descendingIterator().forEachRemaining(reversed::add);
+      Collections.reverse(expected);
+      assertThat(reversed).containsExactlyElementsOf(expected);
+
+      list.removeIf(i -> true);
+      assertThat(list).isEmpty();
+      assertThat(list.size()).isZero();
+   }
+}
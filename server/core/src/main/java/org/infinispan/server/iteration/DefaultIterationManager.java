@@ -39,6 +39,7 @@
 import org.infinispan.reactive.publisher.impl.DeliveryGuarantee;
 import org.infinispan.security.actions.SecurityActions;
 import org.infinispan.server.core.logging.Log;
+import org.infinispan.stream.impl.local.LocalCacheStream;
 import org.infinispan.util.KeyValuePair;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 
@@ -87,11 +88,12 @@ class DefaultIterationState implements IterationState, Closeable {
    final int batch;
    final boolean metadata;
    final Function<Object, Object> resultFunction;
+   final boolean converted;
    private final String id;
    private final IterationReaper reaper;
 
    DefaultIterationState(String id, IterationSegmentsListener listener, Iterator<CacheEntry<Object, Object>> iterator, CacheStream<CacheEntry<Object, Object>> stream,
-                         int batch, boolean metadata, Function<Object, Object> resultFunction, IterationReaper reaper) {
+                         int batch, boolean metadata, Function<Object, Object> resultFunction, boolean converted, IterationReaper reaper) {
       this.id = id;
       this.listener = listener;
       this.iterator = iterator;
@@ -99,6 +101,7 @@ class DefaultIterationState implements IterationState, Closeable {
       this.batch = batch;
       this.metadata = metadata;
       this.resultFunction = resultFunction;
+      this.converted = converted;
       this.reaper = reaper;
    }
 
@@ -185,14 +188,22 @@ public IterationState start(AdvancedCache cache, BitSet segments, String filterC
       }
       Iterator<CacheEntry<Object, Object>> iterator = filteredStream.iterator();
 
-      DefaultIterationState iterationState = new DefaultIterationState(iterationId, segmentListener, iterator, stream, batch, metadata, resultTransformer, new IterationReaper(this, iterationId));
+      DefaultIterationState iterationState = new DefaultIterationState(iterationId, segmentListener, iterator, stream, batch, metadata, resultTransformer,
+            filterConverterFactory != null, new IterationReaper(this, iterationId));
 
       iterationStateMap.put(iterationId, iterationState);
       if (log.isTraceEnabled()) log.tracef("Started iteration %s", iterationId);
       return iterationState;
    }
 
+   /**
+    * Returns the stream the iteration starts from: the entries of the cache, or the stream provided by the context if
+    * there is one.
+    */
    protected CacheStream<CacheEntry<Object, Object>> baseStream(AdvancedCache cache, IterationInitializationContext ctx) {
+      if (ctx != null) {
+         return new LocalCacheStream<>(ctx.getBaseStream(), false, SecurityActions.getCacheComponentRegistry(cache));
+      }
       return cache.cacheEntrySet().stream();
    }
 
@@ -230,10 +241,10 @@ public IterableIterationResult next(String iterationId, int batch) {
             entries.add(iterationState.iterator.next());
          }
          return new IterableIterationResult(iterationState.listener.getFinished(entries.isEmpty()), iterationState.iterator.hasNext() ? IterableIterationResult.Status.Success : IterableIterationResult.Status.Finished,
-               entries, iterationState.metadata, iterationState.resultFunction);
+               entries, iterationState.metadata, iterationState.resultFunction, iterationState.converted);
       } else {
          return new IterableIterationResult(Collections.emptySet(), IterableIterationResult.Status.InvalidIteration,
-               Collections.emptyList(), false, Function.identity());
+               Collections.emptyList(), false, Function.identity(), false);
       }
    }
 
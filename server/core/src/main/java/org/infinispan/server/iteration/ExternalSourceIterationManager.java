@@ -6,7 +6,6 @@
 import org.infinispan.CacheStream;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.container.entries.CacheEntry;
-import org.infinispan.security.actions.SecurityActions;
 import org.infinispan.stream.impl.local.LocalCacheStream;
 
 /**
@@ -31,8 +30,6 @@ public ExternalSourceIterationManager(TimeService timeService) {
 
    @Override
    protected CacheStream<CacheEntry<Object, Object>> baseStream(AdvancedCache cache, IterationInitializationContext ctx) {
-      return ctx == null
-            ? EMPTY_STREAM
-            : new LocalCacheStream<>(ctx.getBaseStream(), false, SecurityActions.getCacheComponentRegistry(cache));
+      return ctx == null ? EMPTY_STREAM : super.baseStream(cache, ctx);
    }
 }
@@ -24,13 +24,16 @@ public enum Status {
    private final List<CacheEntry> entries;
    private final boolean metadata;
    private final Function<Object, Object> resultFunction;
+   private final boolean converted;
 
-   IterableIterationResult(Set<Integer> finishedSegments, Status statusCode, List<CacheEntry> entries, boolean metadata, Function<Object, Object> resultFunction) {
+   IterableIterationResult(Set<Integer> finishedSegments, Status statusCode, List<CacheEntry> entries, boolean metadata, Function<Object, Object> resultFunction,
+                           boolean converted) {
       this.finishedSegments = finishedSegments;
       this.statusCode = statusCode;
       this.entries = entries;
       this.metadata = metadata;
       this.resultFunction = resultFunction;
+      this.converted = converted;
    }
 
    public Status getStatusCode() {
@@ -64,4 +67,11 @@ public String toString() {
    public Function<Object, Object> getResultFunction() {
       return resultFunction;
    }
+
+   /**
+    * @return whether the values are the output of a filter converter, rather than the values read from the cache
+    */
+   public boolean isConverted() {
+      return converted;
+   }
 }
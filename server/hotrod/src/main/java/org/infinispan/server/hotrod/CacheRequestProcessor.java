@@ -14,17 +14,26 @@
 import javax.security.auth.Subject;
 
 import org.infinispan.AdvancedCache;
+import org.infinispan.commons.dataconversion.IdentityEncoder;
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.io.CompressionAlgorithm;
 import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.util.BloomFilter;
 import org.infinispan.commons.util.IntSets;
 import org.infinispan.commons.util.MurmurHash3BloomFilter;
 import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.container.versioning.NumericVersion;
 import org.infinispan.context.Flag;
+import org.infinispan.distribution.LocalizedCacheTopology;
+import org.infinispan.encoding.DataConversion;
 import org.infinispan.metadata.Metadata;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryVisited;
 import org.infinispan.reactive.publisher.impl.DeliveryGuarantee;
 import org.infinispan.security.actions.SecurityActions;
 import org.infinispan.server.core.transport.ConnectionMetadata;
+import org.infinispan.server.core.transport.ExtendedByteBuf;
 import org.infinispan.server.hotrod.HotRodServer.ExtendedCacheInfo;
 import org.infinispan.server.hotrod.logging.Log;
 import org.infinispan.server.hotrod.tracing.HotRodTelemetryService;
@@ -34,6 +43,7 @@
 import org.infinispan.stats.Stats;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 
 class CacheRequestProcessor extends BaseRequestProcessor {
@@ -61,6 +71,13 @@ void ping(HotRodHeader header, Subject subject) {
       writeResponse(header, header.encoder().pingResponse(header, server, channel, OperationStatus.Success));
    }
 
+   void negotiateCompression(HotRodHeader header, Subject subject, byte[] algorithms) {
+      // Compression is negotiated per cache, fail if the client cannot access it
+      server.cache(server.getCacheInfo(header), header, subject);
+      CompressionAlgorithm algorithm = server.getValueCompressor().negotiate(algorithms);
+      writeResponse(header, header.encoder().negotiateCompressionResponse(header, server, channel, algorithm));
+   }
+
    void stats(HotRodHeader header, Subject subject) {
       AdvancedCache<byte[], byte[]> cache = server.cache(server.getCacheInfo(header), header, subject);
       executor.execute(() -> blockingStats(header, cache));
@@ -83,9 +100,59 @@ void get(HotRodHeader header, Subject subject, byte[] key) {
       ExtendedCacheInfo cacheInfo = server.getCacheInfo(header);
       AdvancedCache<byte[], byte[]> cache = server.cache(cacheInfo, header, subject);
 
+      if (header.op == HotRodOperation.GET && getOffHeap(header, cacheInfo, cache, key)) {
+         return;
+      }
       getInternal(header, cache, key);
    }
 
+   /**
+    * Copies the value straight from the off-heap memory of the data container to the response, instead of copying it
+    * to a byte array first. The entry is locked while it is copied, so it cannot be evicted or freed concurrently.
+    * Only the reads without side effects, of keys owned by this node, can skip the cache: misses and any other read
+    * fall back to {@link #getInternal(HotRodHeader, AdvancedCache, byte[])}.
+    *
+    * @return whether the response was written
+    */
+   private boolean getOffHeap(HotRodHeader header, ExtendedCacheInfo cacheInfo, AdvancedCache<byte[], byte[]> cache,
+                              byte[] key) {
+      InternalDataContainer<?, ?> container = cacheInfo.offHeapDataContainer;
+      if (container == null || header.hasFlag(ProtocolFlag.CompressedValues) ||
+            !cache.getStatus().allowInvocations() || !isIdentity(cache.getKeyDataConversion()) ||
+            !isIdentity(cache.getValueDataConversion()) || cacheInfo.cacheNotifier.hasListener(CacheEntryVisited.class)) {
+         return false;
+      }
+      WrappedByteArray wrappedKey = new WrappedByteArray(key);
+      int segment;
+      if (cacheInfo.segmented) {
+         LocalizedCacheTopology cacheTopology = cacheInfo.distributionManager.getCacheTopology();
+         segment = cacheTopology.getSegment(wrappedKey);
+         if (!cacheTopology.isSegmentReadOwner(segment)) {
+            return false;
+         }
+      } else {
+         segment = 0;
+      }
+      ByteBuf buf = header.encoder().valueResponse(header, server, channel,
+            out -> container.readOffHeapValue(segment, wrappedKey, (address, length) -> {
+               ExtendedByteBuf.writeUnsignedInt(length, out);
+               out.writeBytes(Unpooled.wrappedBuffer(address, length, false));
+            }));
+      if (buf == null) {
+         return false;
+      }
+      writeResponse(header, buf);
+      return true;
+   }
+
+   @SuppressWarnings("deprecation")
+   private static boolean isIdentity(DataConversion dataConversion) {
+      MediaType requestMediaType = dataConversion.getRequestMediaType();
+      MediaType storageMediaType = dataConversion.getStorageMediaType();
+      return dataConversion.getEncoder() == IdentityEncoder.INSTANCE && (requestMediaType == null ||
+            storageMediaType == null || requestMediaType.matchesAll() || requestMediaType.equals(storageMediaType));
+   }
+
    void updateBloomFilter(HotRodHeader header, Subject subject, byte[] bloomArray) {
       try {
          BloomFilter<byte[]> filter = bloomFilters.get(header.cacheName);
@@ -140,7 +207,8 @@ private void handleGet(HotRodHeader header, CacheEntry<byte[], byte[]> result, T
             try {
                switch (header.op) {
                   case GET:
-                     writeResponse(header, header.encoder().valueResponse(header, server, channel, OperationStatus.Success, result.getValue()));
+                     byte[] value = server.getValueCompressor().toResponse(header, result.getValue());
+                     writeResponse(header, header.encoder().valueResponse(header, server, channel, OperationStatus.Success, value));
                      break;
                   case GET_WITH_VERSION:
                      NumericVersion numericVersion = (NumericVersion) result.getMetadata().version();
@@ -228,6 +296,7 @@ void put(HotRodHeader header, Subject subject, byte[] key, byte[] value, Metadat
       ExtendedCacheInfo cacheInfo = server.getCacheInfo(header);
       AdvancedCache<byte[], byte[]> cache = server.cache(cacheInfo, header, subject);
       metadata.version(cacheInfo.versionGenerator.generateNew());
+      value = server.getValueCompressor().toStorage(header, cacheInfo, value);
       putInternal(header, cache, key, value, metadata.build(), span);
    }
 
@@ -251,6 +320,7 @@ void replaceIfUnmodified(HotRodHeader header, Subject subject, byte[] key, long
       ExtendedCacheInfo cacheInfo = server.getCacheInfo(header);
       AdvancedCache<byte[], byte[]> cache = server.cache(cacheInfo, header, subject);
       metadata.version(cacheInfo.versionGenerator.generateNew());
+      value = server.getValueCompressor().toStorage(header, cacheInfo, value);
       replaceIfUnmodifiedInternal(header, cache, key, version, value, metadata.build(), span);
    }
 
@@ -297,6 +367,7 @@ void replace(HotRodHeader header, Subject subject, byte[] key, byte[] value, Met
       ExtendedCacheInfo cacheInfo = server.getCacheInfo(header);
       AdvancedCache<byte[], byte[]> cache = server.cache(cacheInfo, header, subject);
       metadata.version(cacheInfo.versionGenerator.generateNew());
+      value = server.getValueCompressor().toStorage(header, cacheInfo, value);
       replaceInternal(header, cache, key, value, metadata.build(), span);
    }
 
@@ -341,6 +412,7 @@ void putIfAbsent(HotRodHeader header, Subject subject, byte[] key, byte[] value,
       ExtendedCacheInfo cacheInfo = server.getCacheInfo(header);
       AdvancedCache<byte[], byte[]> cache = server.cache(cacheInfo, header, subject);
       metadata.version(cacheInfo.versionGenerator.generateNew());
+      value = server.getValueCompressor().toStorage(header, cacheInfo, value);
       putIfAbsentInternal(header, cache, key, value, metadata.build(), span);
    }
 
@@ -454,6 +526,8 @@ void putAll(HotRodHeader header, Subject subject, Map<byte[], byte[]> entries, M
       ExtendedCacheInfo cacheInfo = server.getCacheInfo(header);
       AdvancedCache<byte[], byte[]> cache = server.cache(cacheInfo, header, subject);
       metadata.version(cacheInfo.versionGenerator.generateNew());
+      ValueCompressor valueCompressor = server.getValueCompressor();
+      entries.replaceAll((k, v) -> valueCompressor.toStorage(header, cacheInfo, v));
       putAllInternal(header, cache, entries, metadata.build(), span);
    }
 
@@ -560,7 +634,8 @@ void addClientListener(HotRodHeader header, Subject subject, byte[] listenerId,
                           String filterFactory, List<byte[]> filterParams, String converterFactory,
                           List<byte[]> converterParams, boolean useRawData, int listenerInterests, int bloomBits) {
       Object span = telemetryService.requestStart(HotRodOperation.ADD_CLIENT_LISTENER.name(), header.otherParams);
-      AdvancedCache<byte[], byte[]> cache = server.cache(server.getCacheInfo(header), header, subject);
+      ExtendedCacheInfo cacheInfo = server.getCacheInfo(header);
+      AdvancedCache<byte[], byte[]> cache = server.cache(cacheInfo, header, subject);
       BloomFilter<byte[]> bloomFilter = null;
       if (bloomBits > 0) {
          bloomFilter = MurmurHash3BloomFilter.createConcurrentFilter(bloomBits);
@@ -569,7 +644,7 @@ void addClientListener(HotRodHeader header, Subject subject, byte[] listenerId,
       }
       CompletionStage<Void> stage = listenerRegistry.addClientListener(channel, header, listenerId, cache,
             includeCurrentState, filterFactory, filterParams, converterFactory, converterParams, useRawData,
-            listenerInterests, bloomFilter);
+            listenerInterests, bloomFilter, cacheInfo.compressedStorage);
       stage.whenComplete((ignore, cause) -> {
          if (cause != null) {
             log.trace("Failed to add listener", cause);
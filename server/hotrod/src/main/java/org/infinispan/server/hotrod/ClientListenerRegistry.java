@@ -119,7 +119,8 @@ CompletionStage<Void> addClientListener(Channel ch, HotRodHeader h, byte[] liste
                           AdvancedCache<byte[], byte[]> cache, boolean includeState,
                           String filterFactory, List<byte[]> binaryFilterParams,
                           String converterFactory, List<byte[]> binaryConverterParams,
-                          boolean useRawData, int listenerInterests, BloomFilter<byte[]> bloomFilter) {
+                          boolean useRawData, int listenerInterests, BloomFilter<byte[]> bloomFilter,
+                          boolean compressedValues) {
 
       CacheEventFilter<byte[], byte[]> filter;
       CacheEventConverter<byte[], byte[], byte[]> converter;
@@ -161,6 +162,12 @@ CompletionStage<Void> addClientListener(Channel ch, HotRodHeader h, byte[] liste
             filter = null;
             converter = null;
          }
+         if (compressedValues && (filter != null || converter != null)) {
+            // The filters and converters, and the values they send, must not see the values as stored
+            DecompressingEventFilterConverter decompressing = new DecompressingEventFilterConverter(filter, converter);
+            filter = filter == null ? null : decompressing;
+            converter = converter == null ? null : decompressing;
+         }
       }
       BaseClientEventSender clientEventSender = getClientEventSender(includeState, ch, h.encoder(), h.version, cache,
                                                                      listenerId, eventType, h.messageId, bloomFilter);
@@ -0,0 +1,110 @@
+package org.infinispan.server.hotrod;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Set;
+
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.io.ValueCompression;
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.notifications.cachelistener.filter.CacheEventConverter;
+import org.infinispan.notifications.cachelistener.filter.CacheEventFilter;
+import org.infinispan.notifications.cachelistener.filter.CacheEventFilterConverter;
+import org.infinispan.notifications.cachelistener.filter.EventType;
+
+/**
+ * Decompresses the values of the events of a cache storing {@link ValueCompression} frames, before passing them to the
+ * filter and converter of a client listener. The filters, converters and clients therefore see the values as they
+ * were written, for the events and for the current state of the cache.
+ *
+ * @since 15.0
+ */
+@Scope(Scopes.NONE)
+class DecompressingEventFilterConverter implements CacheEventFilterConverter<byte[], byte[], byte[]> {
+   private final CacheEventFilter<byte[], byte[]> filter;
+   private final CacheEventConverter<byte[], byte[], byte[]> converter;
+
+   /**
+    * @param filter the filter of the listener, or null
+    * @param converter the converter of the listener, or null
+    */
+   DecompressingEventFilterConverter(CacheEventFilter<byte[], byte[]> filter,
+                                     CacheEventConverter<byte[], byte[], byte[]> converter) {
+      this.filter = filter;
+      this.converter = converter;
+   }
+
+   @Override
+   public boolean accept(byte[] key, byte[] oldValue, Metadata oldMetadata, byte[] newValue, Metadata newMetadata,
+                         EventType eventType) {
+      return filter == null || filter.accept(key, decompress(oldValue), oldMetadata, decompress(newValue), newMetadata,
+            eventType);
+   }
+
+   @Override
+   public byte[] convert(byte[] key, byte[] oldValue, Metadata oldMetadata, byte[] newValue, Metadata newMetadata,
+                         EventType eventType) {
+      return converter.convert(key, decompress(oldValue), oldMetadata, decompress(newValue), newMetadata, eventType);
+   }
+
+   @Override
+   public byte[] filterAndConvert(byte[] key, byte[] oldValue, Metadata oldMetadata, byte[] newValue,
+                                  Metadata newMetadata, EventType eventType) {
+      byte[] oldPlain = decompress(oldValue);
+      byte[] newPlain = decompress(newValue);
+      if (filter != null && !filter.accept(key, oldPlain, oldMetadata, newPlain, newMetadata, eventType)) {
+         return null;
+      }
+      return converter.convert(key, oldPlain, oldMetadata, newPlain, newMetadata, eventType);
+   }
+
+   @Override
+   public MediaType format() {
+      return filter != null ? filter.format() : converter.format();
+   }
+
+   @Override
+   public boolean useRequestFormat() {
+      return converter != null && converter.useRequestFormat();
+   }
+
+   @Inject
+   protected void injectDependencies(ComponentRegistry cr) {
+      if (filter != null) {
+         cr.wireDependencies(filter);
+      }
+      if (converter != null && converter != filter) {
+         cr.wireDependencies(converter);
+      }
+   }
+
+   private static byte[] decompress(byte[] value) {
+      return value == null ? null : ValueCompression.decompress(value);
+   }
+
+   static class Externalizer extends AbstractExternalizer<DecompressingEventFilterConverter> {
+      @Override
+      public Set<Class<? extends DecompressingEventFilterConverter>> getTypeClasses() {
+         return Collections.singleton(DecompressingEventFilterConverter.class);
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, DecompressingEventFilterConverter object) throws IOException {
+         output.writeObject(object.filter);
+         output.writeObject(object.converter);
+      }
+
+      @Override
+      public DecompressingEventFilterConverter readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         return new DecompressingEventFilterConverter((CacheEventFilter<byte[], byte[]>) input.readObject(),
+               (CacheEventConverter<byte[], byte[], byte[]>) input.readObject());
+      }
+   }
+}
@@ -21,6 +21,7 @@
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.infinispan.AdvancedCache;
@@ -30,6 +31,7 @@
 import org.infinispan.commons.IllegalLifecycleStateException;
 import org.infinispan.commons.dataconversion.MediaType;
 import org.infinispan.commons.dataconversion.MediaTypeIds;
+import org.infinispan.commons.io.CompressionAlgorithm;
 import org.infinispan.commons.logging.LogFactory;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.tx.XidImpl;
@@ -142,9 +144,22 @@ public ByteBuf valueResponse(HotRodHeader header, HotRodServer server, Channel c
       return buf;
    }
 
+   @Override
+   public ByteBuf valueResponse(HotRodHeader header, HotRodServer server, Channel channel, Predicate<ByteBuf> valueWriter) {
+      ByteBuf buf = writeHeader(header, server, channel, OperationStatus.Success);
+      if (!valueWriter.test(buf)) {
+         buf.release();
+         return null;
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("Write response to %s messageId=%d status=%s with value written in place", header.op, header.messageId, OperationStatus.Success);
+      }
+      return buf;
+   }
+
    @Override
    public ByteBuf valueResponse(HotRodHeader header, HotRodServer server, Channel channel, OperationStatus status, CacheEntry<byte[], byte[]> prev) {
-      return valueResponse(header, server, channel, status, prev != null ? prev.getValue() : null);
+      return valueResponse(header, server, channel, status, prev != null ? cacheValue(header, server, prev.getValue()) : null);
    }
 
    @Override
@@ -173,7 +188,7 @@ public ByteBuf bulkGetResponse(HotRodHeader header, HotRodServer server, Channel
             Map.Entry<byte[], byte[]> entry = iterator.next();
             buf.writeByte(1); // Not done
             ExtendedByteBuf.writeRangedBytes(entry.getKey(), buf);
-            ExtendedByteBuf.writeRangedBytes(entry.getValue(), buf);
+            ExtendedByteBuf.writeRangedBytes(cacheValue(header, server, entry.getValue()), buf);
             count++;
          }
          buf.writeByte(0); // Done
@@ -261,7 +276,7 @@ private void writePair(ByteBuf buf, String key, String value) {
    public ByteBuf valueWithVersionResponse(HotRodHeader header, HotRodServer server, Channel channel, byte[] value, long version) {
       ByteBuf buf = writeHeader(header, server, channel, OperationStatus.Success);
       buf.writeLong(version);
-      ExtendedByteBuf.writeRangedBytes(value, buf);
+      ExtendedByteBuf.writeRangedBytes(cacheValue(header, server, value), buf);
       return buf;
    }
 
@@ -275,7 +290,7 @@ protected ByteBuf writeMetadataResponse(HotRodHeader header, HotRodServer server
       ByteBuf buf = writeHeader(header, server, channel, status);
       MetadataUtils.writeMetadata(MetadataUtils.extractLifespan(entry), MetadataUtils.extractMaxIdle(entry),
             MetadataUtils.extractCreated(entry), MetadataUtils.extractLastUsed(entry), MetadataUtils.extractVersion(entry), buf);
-      ExtendedByteBuf.writeRangedBytes(entry != null ? entry.getValue() : Util.EMPTY_BYTE_ARRAY, buf);
+      ExtendedByteBuf.writeRangedBytes(entry != null ? cacheValue(header, server, entry.getValue()) : Util.EMPTY_BYTE_ARRAY, buf);
       return buf;
    }
 
@@ -284,7 +299,7 @@ public ByteBuf getStreamResponse(HotRodHeader header, HotRodServer server, Chann
       ByteBuf buf = writeHeader(header, server, channel, OperationStatus.Success);
       MetadataUtils.writeMetadata(MetadataUtils.extractLifespan(entry), MetadataUtils.extractMaxIdle(entry),
             MetadataUtils.extractCreated(entry), MetadataUtils.extractLastUsed(entry), MetadataUtils.extractVersion(entry), buf);
-      ExtendedByteBuf.writeRangedBytes(entry.getValue(), offset, buf);
+      ExtendedByteBuf.writeRangedBytes(cacheValue(header, server, entry.getValue()), offset, buf);
       return buf;
    }
 
@@ -294,11 +309,19 @@ public ByteBuf getAllResponse(HotRodHeader header, HotRodServer server, Channel
       ExtendedByteBuf.writeUnsignedInt(entries.size(), buf);
       for (Map.Entry<byte[], byte[]> entry : entries.entrySet()) {
          ExtendedByteBuf.writeRangedBytes(entry.getKey(), buf);
-         ExtendedByteBuf.writeRangedBytes(entry.getValue(), buf);
+         ExtendedByteBuf.writeRangedBytes(cacheValue(header, server, entry.getValue()), buf);
       }
       return buf;
    }
 
+   /**
+    * Converts a value read from the cache to the form expected by the client, which depends on whether the values are
+    * stored compressed and on whether the client negotiated compression.
+    */
+   private static byte[] cacheValue(HotRodHeader header, HotRodServer server, byte[] value) {
+      return server.getValueCompressor().toResponse(header, value);
+   }
+
    @Override
    public ByteBuf bulkGetKeysResponse(HotRodHeader header, HotRodServer server, Channel channel, CloseableIterator<byte[]> iterator) {
       ByteBuf buf = writeHeader(header, server, channel, OperationStatus.Success);
@@ -360,7 +383,9 @@ public ByteBuf iterationNextResponse(HotRodHeader header, HotRodServer server, C
                ExtendedByteBuf.writeRangedBytes((byte[]) o, buf);
             }
          } else if (value instanceof byte[]) {
-            ExtendedByteBuf.writeRangedBytes((byte[]) value, buf);
+            // The output of a filter converter is never stored compressed
+            byte[] bytes = iterationResult.isConverted() ? (byte[]) value : cacheValue(header, server, (byte[]) value);
+            ExtendedByteBuf.writeRangedBytes(bytes, buf);
          } else {
             throw new IllegalArgumentException("Unsupported type passed: " + value.getClass());
          }
@@ -427,6 +452,13 @@ public ByteBuf unsignedLongResponse(HotRodHeader header, HotRodServer server, Ch
       return buf;
    }
 
+   @Override
+   public ByteBuf negotiateCompressionResponse(HotRodHeader header, HotRodServer server, Channel channel, CompressionAlgorithm algorithm) {
+      ByteBuf buf = writeHeader(header, server, channel, OperationStatus.Success);
+      buf.writeByte(algorithm.id());
+      return buf;
+   }
+
    @Override
    public ByteBuf longResponse(HotRodHeader header, HotRodServer server, Channel channel, long value) {
       ByteBuf buf = writeHeader(header, server, channel, OperationStatus.Success);
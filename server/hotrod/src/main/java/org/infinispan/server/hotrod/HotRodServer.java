@@ -41,6 +41,8 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.Configurations;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.container.versioning.VersionGenerator;
 import org.infinispan.context.Flag;
 import org.infinispan.distribution.DistributionManager;
@@ -60,6 +62,7 @@
 import org.infinispan.metadata.Metadata;
 import org.infinispan.multimap.impl.EmbeddedMultimapCache;
 import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.notifications.cachelistener.annotation.TopologyChanged;
 import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
 import org.infinispan.notifications.cachelistener.filter.CacheEventConverterFactory;
@@ -67,6 +70,7 @@
 import org.infinispan.notifications.cachelistener.filter.CacheEventFilterFactory;
 import org.infinispan.notifications.cachemanagerlistener.annotation.CacheStopped;
 import org.infinispan.notifications.cachemanagerlistener.event.CacheStoppedEvent;
+import org.infinispan.partitionhandling.PartitionHandling;
 import org.infinispan.registry.InternalCacheRegistry;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.security.actions.SecurityActions;
@@ -123,6 +127,7 @@ public class HotRodServer extends AbstractProtocolServer<HotRodServerConfigurati
    private IterationManager iterationManager;
    private RemoveCacheListener removeCacheListener;
    private ClientCounterManagerNotificationManager clientCounterNotificationManager;
+   private ValueCompressor valueCompressor;
    private HotRodAccessLogging accessLogging = new HotRodAccessLogging();
    private ScheduledExecutorService scheduledExecutor;
    private TimeService timeService;
@@ -159,6 +164,10 @@ public ClientCounterManagerNotificationManager getClientCounterNotificationManag
       return clientCounterNotificationManager;
    }
 
+   ValueCompressor getValueCompressor() {
+      return valueCompressor;
+   }
+
    @Override
    public ChannelOutboundHandler getEncoder() {
       return null;
@@ -242,6 +251,7 @@ protected void startInternal() {
       clientListenerRegistry = new ClientListenerRegistry(gcr.getComponent(EncoderRegistry.class),
             gcr.getComponent(ExecutorService.class, NON_BLOCKING_EXECUTOR));
       clientCounterNotificationManager = new ClientCounterManagerNotificationManager(asCounterManager(cacheManager));
+      valueCompressor = new ValueCompressor(this, configuration);
 
       addKeyValueFilterConverterFactory(ToEmptyBytesKeyValueFilterConverter.class.getName(), new ToEmptyBytesFactory());
 
@@ -401,7 +411,7 @@ public ExtendedCacheInfo getCacheInfo(String cacheName, byte hotRodVersion, long
 
          AdvancedCache<byte[], byte[]> cache = obtainAnonymizedCache(cacheName);
          Configuration cacheCfg = SecurityActions.getCacheConfiguration(cache);
-         info = new ExtendedCacheInfo(cache, cacheCfg);
+         info = new ExtendedCacheInfo(cache, cacheCfg, valueCompressor.storesCompressed(cache, cacheCfg));
          updateCacheInfo(info);
          if (keep) {
             knownCaches.put(cacheName, info);
@@ -622,9 +632,14 @@ public static class ExtendedCacheInfo extends CacheInfo<byte[], byte[]> {
       final Configuration configuration;
       final boolean transactional;
       final boolean clustered;
+      final boolean compressedStorage;
+      // The data container when GET responses can be copied from its off-heap memory, otherwise null
+      final InternalDataContainer<?, ?> offHeapDataContainer;
+      final CacheNotifier<?, ?> cacheNotifier;
+      final boolean segmented;
       volatile boolean indexing;
 
-      ExtendedCacheInfo(AdvancedCache<byte[], byte[]> cache, Configuration configuration) {
+      ExtendedCacheInfo(AdvancedCache<byte[], byte[]> cache, Configuration configuration, boolean compressedStorage) {
          super(SecurityActions.anonymizeSecureCache(cache));
          this.distributionManager = SecurityActions.getDistributionManager(cache);
          ComponentRegistry componentRegistry = SecurityActions.getCacheComponentRegistry(cache);
@@ -633,6 +648,11 @@ public static class ExtendedCacheInfo extends CacheInfo<byte[], byte[]> {
          this.configuration = configuration;
          this.transactional = configuration.transaction().transactionMode().isTransactional();
          this.clustered = configuration.clustering().cacheMode().isClustered();
+         this.compressedStorage = compressedStorage;
+         this.offHeapDataContainer = readsOffHeap(configuration, transactional, compressedStorage) ?
+               componentRegistry.getInternalDataContainer().running() : null;
+         this.cacheNotifier = componentRegistry.getCacheNotifier().running();
+         this.segmented = configuration.clustering().cacheMode().needsStateTransfer();
 
          // Start conservative and assume we have all the stuff that can cause operations to block
          this.indexing = true;
@@ -641,6 +661,16 @@ public static class ExtendedCacheInfo extends CacheInfo<byte[], byte[]> {
       public void update(boolean indexing) {
          this.indexing = indexing;
       }
+
+      /**
+       * Values can be read from the off-heap memory of the data container only if the read has no side effect and
+       * needs no conversion: the per-request conditions are checked by {@link CacheRequestProcessor}.
+       */
+      private static boolean readsOffHeap(Configuration configuration, boolean transactional, boolean compressedStorage) {
+         return configuration.memory().storage() == StorageType.OFF_HEAP && !transactional && !compressedStorage &&
+               !configuration.statistics().enabled() && !configuration.security().authorization().enabled() &&
+               configuration.clustering().partitionHandling().whenSplit() == PartitionHandling.ALLOW_READ_WRITES;
+      }
    }
 
    @Listener(sync = false, observation = Listener.Observation.POST)
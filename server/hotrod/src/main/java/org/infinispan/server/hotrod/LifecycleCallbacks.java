@@ -6,6 +6,7 @@
 import static org.infinispan.server.core.ExternalizerIds.CONDITIONAL_MARK_ROLLBACK_FUNCTION;
 import static org.infinispan.server.core.ExternalizerIds.CREATE_STATE_FUNCTION;
 import static org.infinispan.server.core.ExternalizerIds.DECISION_FUNCTION;
+import static org.infinispan.server.core.ExternalizerIds.DECOMPRESSING_EVENT_FILTER_CONVERTER;
 import static org.infinispan.server.core.ExternalizerIds.ITERATION_FILTER;
 import static org.infinispan.server.core.ExternalizerIds.KEY_VALUE_VERSION_CONVERTER;
 import static org.infinispan.server.core.ExternalizerIds.KEY_VALUE_WITH_PREVIOUS_CONVERTER;
@@ -81,6 +82,7 @@ public void cacheManagerStarting(GlobalComponentRegistry gcr, GlobalConfiguratio
       externalizers.put(MULTI_HOMED_SERVER_ADDRESS, new MultiHomedServerAddress.Externalizer());
       externalizers.put(KEY_VALUE_VERSION_CONVERTER, new KeyValueVersionConverter.Externalizer());
       externalizers.put(KEY_VALUE_WITH_PREVIOUS_CONVERTER, new KeyValueWithPreviousEventConverterExternalizer());
+      externalizers.put(DECOMPRESSING_EVENT_FILTER_CONVERTER, new DecompressingEventFilterConverter.Externalizer());
       externalizers.put(ITERATION_FILTER, new IterationFilter.IterationFilterExternalizer());
       externalizers.put(TX_STATE, TxState.EXTERNALIZER);
       externalizers.put(CACHE_XID, CacheXid.EXTERNALIZER);
@@ -0,0 +1,103 @@
+package org.infinispan.server.hotrod;
+
+import static org.infinispan.commons.dataconversion.MediaType.APPLICATION_OCTET_STREAM;
+import static org.infinispan.commons.dataconversion.MediaType.APPLICATION_UNKNOWN;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.io.CompressionAlgorithm;
+import org.infinispan.commons.io.ValueCompression;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.server.hotrod.HotRodServer.ExtendedCacheInfo;
+import org.infinispan.server.hotrod.configuration.HotRodServerConfiguration;
+
+/**
+ * Converts the values of the requests with the {@link ProtocolFlag#CompressedValues} flag. Clients set the flag once
+ * they negotiated compression for a cache, and then send and expect values as {@link ValueCompression} frames.
+ * <p>
+ * Caches which store values as opaque bytes can keep them compressed, when {@link
+ * HotRodServerConfiguration#storeCompressed()} is enabled. Their values are then stored as frames: the frames sent
+ * by the clients are stored as they are, and are returned without compressing them again. Values are decompressed
+ * for the requests without the flag.
+ *
+ * @since 15.0
+ */
+final class ValueCompressor {
+   private final HotRodServer server;
+   private final CompressionAlgorithm algorithm;
+   private final int threshold;
+   private final boolean storeCompressed;
+
+   ValueCompressor(HotRodServer server, HotRodServerConfiguration configuration) {
+      this.server = server;
+      this.algorithm = configuration.compression();
+      this.threshold = configuration.compressionThreshold();
+      this.storeCompressed = algorithm != CompressionAlgorithm.NONE && configuration.storeCompressed();
+   }
+
+   /**
+    * @param clientAlgorithms the identifiers of the algorithms supported by the client
+    * @return the algorithm the client must use, or {@link CompressionAlgorithm#NONE} if values are not compressed.
+    */
+   CompressionAlgorithm negotiate(byte[] clientAlgorithms) {
+      if (algorithm != CompressionAlgorithm.NONE) {
+         for (byte id : clientAlgorithms) {
+            if (id == algorithm.id()) {
+               return algorithm;
+            }
+         }
+      }
+      return CompressionAlgorithm.NONE;
+   }
+
+   /**
+    * @return whether the values of the cache are stored compressed. Only the caches which store opaque bytes can, and
+    * transactional caches cannot, because the values of the transactions are written without any conversion.
+    */
+   boolean storesCompressed(AdvancedCache<?, ?> cache, Configuration configuration) {
+      if (!storeCompressed || configuration.transaction().transactionMode().isTransactional()) {
+         return false;
+      }
+      MediaType storageMediaType = cache.getValueDataConversion().getStorageMediaType();
+      return storageMediaType == null || storageMediaType.match(APPLICATION_OCTET_STREAM) ||
+            storageMediaType.match(APPLICATION_UNKNOWN);
+   }
+
+   /**
+    * @return the value of a request as it must be written in the cache.
+    */
+   byte[] toStorage(HotRodHeader header, ExtendedCacheInfo cacheInfo, byte[] value) {
+      boolean compressedRequest = header.hasFlag(ProtocolFlag.CompressedValues);
+      if (cacheInfo.compressedStorage) {
+         if (compressedRequest) {
+            // Stores only the frames which this server can decompress for the plain readers
+            ValueCompression.validate(value);
+            return value;
+         }
+         return ValueCompression.compress(value, algorithm, threshold);
+      }
+      return compressedRequest ? ValueCompression.decompress(value) : value;
+   }
+
+   /**
+    * @return the value read from the cache as it must be written in the response.
+    */
+   byte[] toResponse(HotRodHeader header, byte[] value) {
+      boolean compressedRequest = header.hasFlag(ProtocolFlag.CompressedValues);
+      if (value == null || (!compressedRequest && !storeCompressed)) {
+         return value;
+      }
+      if (server.getCacheInfo(header).compressedStorage) {
+         if (!compressedRequest) {
+            return ValueCompression.decompress(value);
+         }
+         CompressionAlgorithm stored = ValueCompression.algorithm(value);
+         if (stored == algorithm || stored == CompressionAlgorithm.NONE) {
+            return value;
+         }
+         // Stored with an algorithm which was configured before, the client only negotiated the current one
+         return ValueCompression.compress(ValueCompression.decompress(value), algorithm, threshold);
+      }
+      return ValueCompression.compress(value, algorithm, threshold);
+   }
+}
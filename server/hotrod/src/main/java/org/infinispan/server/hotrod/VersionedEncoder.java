@@ -3,8 +3,10 @@
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.infinispan.CacheSet;
+import org.infinispan.commons.io.CompressionAlgorithm;
 import org.infinispan.commons.tx.XidImpl;
 import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.container.entries.CacheEntry;
@@ -39,6 +41,14 @@ public interface VersionedEncoder {
 
    ByteBuf valueResponse(HotRodHeader header, HotRodServer server, Channel channel, OperationStatus status, CacheEntry<byte[], byte[]> prev);
 
+   /**
+    * Writes a successful response to a GET, whose value is written in the buffer by {@code valueWriter} as ranged
+    * bytes, so that it does not need to be copied in a byte array first.
+    *
+    * @return the response, or {@code null} if {@code valueWriter} returned false without writing a value.
+    */
+   ByteBuf valueResponse(HotRodHeader header, HotRodServer server, Channel channel, Predicate<ByteBuf> valueWriter);
+
    ByteBuf successResponse(HotRodHeader header, HotRodServer server, Channel channel, CacheEntry<byte[], byte[]> result);
 
    ByteBuf errorResponse(HotRodHeader header, HotRodServer server, Channel channel, String message, OperationStatus status);
@@ -80,6 +90,8 @@ ByteBuf statsResponse(HotRodHeader header, HotRodServer server, Channel channel,
 
    ByteBuf unsignedLongResponse(HotRodHeader header, HotRodServer server, Channel channel, long value);
 
+   ByteBuf negotiateCompressionResponse(HotRodHeader header, HotRodServer server, Channel channel, CompressionAlgorithm algorithm);
+
    ByteBuf longResponse(HotRodHeader header, HotRodServer server, Channel channel, long value);
 
    ByteBuf transactionResponse(HotRodHeader header, HotRodServer server, Channel channel, int xaReturnCode);
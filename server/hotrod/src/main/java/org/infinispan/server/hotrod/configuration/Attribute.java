@@ -11,6 +11,8 @@ public enum Attribute {
    UNKNOWN(null), // must be first
 
    AWAIT_INITIAL_RETRIEVAL,
+   COMPRESSION,
+   COMPRESSION_THRESHOLD,
    EXTERNAL_HOST,
    EXTERNAL_PORT,
    HOST_NAME,
@@ -27,6 +29,7 @@ public enum Attribute {
    SERVER_PRINCIPAL,
    SERVER_NAME,
    SOCKET_BINDING,
+   STORE_COMPRESSED,
    TOPOLOGY_STATE_TRANSFER,
    STRENGTH,
    VALUE;
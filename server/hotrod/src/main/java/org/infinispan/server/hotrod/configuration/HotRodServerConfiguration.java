@@ -4,6 +4,7 @@
 import org.infinispan.commons.configuration.ConfigurationFor;
 import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.io.CompressionAlgorithm;
 import org.infinispan.server.core.configuration.EncryptionConfiguration;
 import org.infinispan.server.core.configuration.IpFilterConfiguration;
 import org.infinispan.server.core.configuration.ProtocolServerConfiguration;
@@ -20,13 +21,16 @@ public class HotRodServerConfiguration extends ProtocolServerConfiguration<HotRo
    public static final AttributeDefinition<Integer> PROXY_PORT = AttributeDefinition.builder(Attribute.EXTERNAL_PORT, -1).immutable().build();
    // The Hot Rod server has a different default
    public static final AttributeDefinition<Integer> WORKER_THREADS = AttributeDefinition.builder("worker-threads", 160).immutable().build();
+   public static final AttributeDefinition<CompressionAlgorithm> COMPRESSION = AttributeDefinition.builder(Attribute.COMPRESSION, CompressionAlgorithm.NONE).immutable().build();
+   public static final AttributeDefinition<Integer> COMPRESSION_THRESHOLD = AttributeDefinition.builder(Attribute.COMPRESSION_THRESHOLD, 1024).immutable().build();
+   public static final AttributeDefinition<Boolean> STORE_COMPRESSED = AttributeDefinition.builder(Attribute.STORE_COMPRESSED, false).immutable().build();
 
    private final TopologyCacheConfiguration topologyCache;
    private final EncryptionConfiguration encryption;
 
    public static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(HotRodServerConfiguration.class, ProtocolServerConfiguration.attributeDefinitionSet(),
-            WORKER_THREADS, PROXY_HOST, PROXY_PORT);
+            WORKER_THREADS, PROXY_HOST, PROXY_PORT, COMPRESSION, COMPRESSION_THRESHOLD, STORE_COMPRESSED);
    }
 
    HotRodServerConfiguration(AttributeSet attributes,
@@ -83,6 +87,28 @@ public boolean topologyStateTransfer() {
       return !topologyCache.lazyRetrieval();
    }
 
+   /**
+    * @return the algorithm which compresses the values exchanged with the clients that support it, or {@link
+    * CompressionAlgorithm#NONE} if values are never compressed.
+    */
+   public CompressionAlgorithm compression() {
+      return attributes.attribute(COMPRESSION).get();
+   }
+
+   /**
+    * @return the minimum size in bytes of the values which are compressed.
+    */
+   public int compressionThreshold() {
+      return attributes.attribute(COMPRESSION_THRESHOLD).get();
+   }
+
+   /**
+    * @return whether values are kept compressed in caches which store them as opaque bytes.
+    */
+   public boolean storeCompressed() {
+      return attributes.attribute(STORE_COMPRESSED).get();
+   }
+
    @Override
    public SaslAuthenticationConfiguration authentication() {
       return authentication;
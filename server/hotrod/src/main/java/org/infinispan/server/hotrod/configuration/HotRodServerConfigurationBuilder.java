@@ -2,12 +2,16 @@
 
 import static org.infinispan.server.core.configuration.ProtocolServerConfiguration.HOST;
 import static org.infinispan.server.core.configuration.ProtocolServerConfiguration.NAME;
+import static org.infinispan.server.hotrod.configuration.HotRodServerConfiguration.COMPRESSION;
+import static org.infinispan.server.hotrod.configuration.HotRodServerConfiguration.COMPRESSION_THRESHOLD;
 import static org.infinispan.server.hotrod.configuration.HotRodServerConfiguration.PROXY_HOST;
 import static org.infinispan.server.hotrod.configuration.HotRodServerConfiguration.PROXY_PORT;
+import static org.infinispan.server.hotrod.configuration.HotRodServerConfiguration.STORE_COMPRESSED;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.io.CompressionAlgorithm;
 import org.infinispan.configuration.cache.LockingConfigurationBuilder;
 import org.infinispan.configuration.cache.StateTransferConfigurationBuilder;
 import org.infinispan.server.core.configuration.EncryptionConfigurationBuilder;
@@ -122,6 +126,37 @@ public HotRodServerConfigurationBuilder topologyStateTransfer(boolean topologySt
       return this;
    }
 
+   /**
+    * Configures the algorithm which compresses the values exchanged with the clients. The clients which enable
+    * compression for a cache negotiate it with the server, and send and receive the values of that cache compressed
+    * with this algorithm. Defaults to {@link CompressionAlgorithm#NONE}, which disables compression.
+    */
+   public HotRodServerConfigurationBuilder compression(CompressionAlgorithm compression) {
+      attributes.attribute(COMPRESSION).set(compression);
+      return this;
+   }
+
+   /**
+    * Configures the minimum size in bytes of the values which are compressed. Smaller values are sent and stored
+    * uncompressed. Defaults to 1024.
+    */
+   public HotRodServerConfigurationBuilder compressionThreshold(int compressionThreshold) {
+      attributes.attribute(COMPRESSION_THRESHOLD).set(compressionThreshold);
+      return this;
+   }
+
+   /**
+    * Configures whether values are kept compressed in the caches which store them as opaque bytes, i.e. with the
+    * {@code application/octet-stream} or {@code application/unknown} media type. The values are then returned to the
+    * clients which negotiated compression without being compressed again, and decompressed for the others. Other
+    * endpoints, iteration, queries and listeners see the compressed values. Transactional caches never store compressed
+    * values. It must be enabled before the caches contain data, and must not be disabled afterwards. Defaults to false.
+    */
+   public HotRodServerConfigurationBuilder storeCompressed(boolean storeCompressed) {
+      attributes.attribute(STORE_COMPRESSED).set(storeCompressed);
+      return this;
+   }
+
    @Override
    public HotRodServerConfiguration create() {
       if (!attributes.attribute(NAME).isModified()) {
@@ -145,6 +180,10 @@ public void validate() {
       if (attributes.attribute(PROXY_HOST).isNull() && attributes.attribute(HOST).isNull()) {
          throw Log.CONFIG.missingHostAddress();
       }
+      attributes.attribute(COMPRESSION).get().checkAvailable();
+      if (attributes.attribute(COMPRESSION_THRESHOLD).get() < 0) {
+         throw Log.CONFIG.invalidCompressionThreshold();
+      }
       topologyCache.validate();
       encryption.validate();
    }
@@ -112,4 +112,7 @@ public interface Log extends BasicLogger {
    @LogMessage(level = WARN)
    @Message(value = "Client %s keeps providing outdated topology %s", id = 28029)
    void clientNotUpdatingTopology(SocketAddress socketAddress, int topologyId);
+
+   @Message(value = "The compression threshold cannot be negative", id = 28030)
+   CacheConfigurationException invalidCompressionThreshold();
 }
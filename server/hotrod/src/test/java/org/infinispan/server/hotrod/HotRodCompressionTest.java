@@ -0,0 +1,115 @@
+package org.infinispan.server.hotrod;
+
+import static org.infinispan.server.hotrod.OperationStatus.Success;
+import static org.infinispan.server.hotrod.event.AbstractHotRodClusterEventsTest.addLengthPrefix;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.assertByteArrayEquals;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.assertStatus;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.k;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.startHotRodServer;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.withClientListener;
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.io.CompressionAlgorithm;
+import org.infinispan.commons.io.ValueCompression;
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.cachelistener.filter.CacheEventConverter;
+import org.infinispan.notifications.cachelistener.filter.CacheEventConverterFactory;
+import org.infinispan.server.hotrod.configuration.HotRodServerConfigurationBuilder;
+import org.infinispan.server.hotrod.event.EventLogListener;
+import org.infinispan.server.hotrod.test.TestIteratorNextResponse;
+import org.infinispan.server.hotrod.test.TestIteratorStartResponse;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.KeyValuePair;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the readers of a cache storing compressed values see the values as they were written.
+ *
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "server.hotrod.HotRodCompressionTest")
+public class HotRodCompressionTest extends HotRodSingleNodeTest {
+   private static final CompressionAlgorithm ALGORITHM = CompressionAlgorithm.DEFLATE;
+   private static final int THRESHOLD = 16;
+
+   @Override
+   protected EmbeddedCacheManager createTestCacheManager() {
+      return TestCacheManagerFactory.createCacheManager(
+            new GlobalConfigurationBuilder().nonClusteredDefault().defaultCacheName(cacheName),
+            hotRodCacheConfiguration(new ConfigurationBuilder(), MediaType.APPLICATION_OCTET_STREAM));
+   }
+
+   @Override
+   protected HotRodServer createStartHotRodServer(EmbeddedCacheManager cacheManager) {
+      HotRodServerConfigurationBuilder builder = new HotRodServerConfigurationBuilder();
+      builder.compression(ALGORITHM).compressionThreshold(THRESHOLD).storeCompressed(true);
+      HotRodServer server = startHotRodServer(cacheManager, builder);
+      server.addCacheEventConverterFactory("value-converter-factory", new ValueConverterFactory());
+      return server;
+   }
+
+   @Override
+   protected byte protocolVersion() {
+      return 40;
+   }
+
+   public void testIterationDecompressesValues(Method m) {
+      byte[] plainKey = k(m, "plain-");
+      byte[] plainValue = value(m, "plain-");
+      byte[] compressedKey = k(m, "compressed-");
+      byte[] compressedValue = value(m, "compressed-");
+      assertStatus(client().put(plainKey, 0, 0, plainValue), Success);
+      assertStatus(client().put(compressedKey, 0, 0, ValueCompression.compress(compressedValue, ALGORITHM, THRESHOLD),
+            ProtocolFlag.CompressedValues.getValue()), Success);
+
+      assertEquals(ALGORITHM, ValueCompression.algorithm(advancedCache.withStorageMediaType().get(plainKey)));
+      assertEquals(ALGORITHM, ValueCompression.algorithm(advancedCache.withStorageMediaType().get(compressedKey)));
+
+      TestIteratorStartResponse start = client().iteratorStart(null, null, null, 10, false);
+      TestIteratorNextResponse next = client().iteratorNext(start.iteratorId);
+      Map<WrappedByteArray, byte[]> entries = next.entries;
+      assertEquals(2, entries.size());
+      assertByteArrayEquals(plainValue, entries.get(new WrappedByteArray(plainKey)));
+      assertByteArrayEquals(compressedValue, entries.get(new WrappedByteArray(compressedKey)));
+      assertStatus(client().iteratorEnd(start.iteratorId), Success);
+   }
+
+   public void testListenerConvertsDecompressedValues(Method m) {
+      byte[] key = k(m);
+      byte[] value = value(m, "v1-");
+      assertStatus(client().put(key, 0, 0, value), Success);
+      EventLogListener eventListener = new EventLogListener();
+      withClientListener(client(), eventListener, Optional.empty(),
+            Optional.of(new KeyValuePair<>("value-converter-factory", Collections.emptyList())), true, true, () -> {
+               // The current state of the cache
+               eventListener.expectSingleCustomEvent(cache, addLengthPrefix(key, value));
+               byte[] value2 = value(m, "v2-");
+               client().put(key, 0, 0, value2);
+               eventListener.expectSingleCustomEvent(cache, addLengthPrefix(key, value2));
+            });
+   }
+
+   private static byte[] value(Method m, String prefix) {
+      // Compressible, but short enough for the length prefix of the events
+      return (prefix + m.getName() + "-" + "0123456789".repeat(6)).getBytes(StandardCharsets.UTF_8);
+   }
+
+   private static class ValueConverterFactory implements CacheEventConverterFactory {
+      @Override
+      public <K, V, C> CacheEventConverter<K, V, C> getConverter(Object[] params) {
+         return (CacheEventConverter<K, V, C>) (CacheEventConverter<byte[], byte[], byte[]>) (key, oldValue, oldMetadata, newValue, newMetadata, eventType) ->
+               newValue == null ? addLengthPrefix(key) : addLengthPrefix(key, newValue);
+      }
+   }
+}
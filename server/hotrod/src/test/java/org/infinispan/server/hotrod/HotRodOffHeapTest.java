@@ -0,0 +1,165 @@
+package org.infinispan.server.hotrod;
+
+import static org.infinispan.server.hotrod.OperationStatus.Success;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.assertKeyDoesNotExist;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.assertStatus;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.assertSuccess;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.startHotRodServer;
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.commands.read.GetCacheEntryCommand;
+import org.infinispan.commands.read.GetKeyValueCommand;
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.io.CompressionAlgorithm;
+import org.infinispan.commons.io.ValueCompression;
+import org.infinispan.commons.time.ControlledTimeService;
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.DDAsyncInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.server.hotrod.configuration.HotRodServerConfigurationBuilder;
+import org.infinispan.server.hotrod.test.HotRodClient;
+import org.infinispan.server.hotrod.test.HotRodMagicKeyGenerator;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the reads of an off-heap cache: the GET requests for the keys owned by the node are answered from the
+ * off-heap memory, without invoking the cache, and the other reads fall back to the cache.
+ *
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "server.hotrod.HotRodOffHeapTest")
+public class HotRodOffHeapTest extends HotRodMultiNodeTest {
+   private static final CompressionAlgorithm ALGORITHM = CompressionAlgorithm.DEFLATE;
+   private static final int THRESHOLD = 16;
+
+   private final ControlledTimeService timeService = new ControlledTimeService();
+   private final ReadCountingInterceptor reads = new ReadCountingInterceptor();
+
+   @Override
+   protected String cacheName() {
+      return "hotRodOffHeap";
+   }
+
+   @Override
+   protected ConfigurationBuilder createCacheConfig() {
+      // Stores the bytes sent by the clients, which therefore need no conversion
+      ConfigurationBuilder builder = hotRodCacheConfiguration(
+            getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false), MediaType.APPLICATION_UNKNOWN);
+      builder.clustering().hash().numOwners(1).l1().disable();
+      builder.memory().storage(StorageType.OFF_HEAP);
+      return builder;
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() {
+      EmbeddedCacheManager cm = super.createCacheManager();
+      TestingUtil.replaceComponent(cm, TimeService.class, timeService, true);
+      return cm;
+   }
+
+   @Override
+   protected void createCacheManagers() {
+      super.createCacheManagers();
+      TestingUtil.extractInterceptorChain(cache(0, cacheName())).addInterceptor(reads, 0);
+   }
+
+   @Override
+   protected HotRodServer startTestHotRodServer(EmbeddedCacheManager cacheManager, int port) {
+      HotRodServerConfigurationBuilder builder = new HotRodServerConfigurationBuilder();
+      builder.compression(ALGORITHM).compressionThreshold(THRESHOLD);
+      return startHotRodServer(cacheManager, port, builder);
+   }
+
+   @Override
+   protected byte protocolVersion() {
+      return 40;
+   }
+
+   public void testGetHit(Method m) throws Exception {
+      byte[] key = HotRodMagicKeyGenerator.newKey(cache(0, cacheName()));
+      byte[] value = value(m);
+      assertStatus(client().put(key, 0, 0, value), Success);
+
+      int before = reads.count.get();
+      assertSuccess(client().get(key, 0), value);
+      assertEquals(before, reads.count.get());
+   }
+
+   public void testGetMiss() throws Exception {
+      byte[] key = HotRodMagicKeyGenerator.newKey(cache(0, cacheName()));
+
+      int before = reads.count.get();
+      assertKeyDoesNotExist(client().get(key, 0));
+      assertEquals(before + 1, reads.count.get());
+   }
+
+   public void testGetExpired(Method m) throws Exception {
+      byte[] key = HotRodMagicKeyGenerator.newKey(cache(0, cacheName()));
+      byte[] value = value(m);
+      assertStatus(client().put(key, 10, 0, value), Success);
+
+      int before = reads.count.get();
+      assertSuccess(client().get(key, 0), value);
+      assertEquals(before, reads.count.get());
+
+      timeService.advance(TimeUnit.SECONDS.toMillis(11));
+      assertKeyDoesNotExist(client().get(key, 0));
+      assertEquals(before + 1, reads.count.get());
+   }
+
+   public void testGetNonOwner(Method m) throws Exception {
+      byte[] key = HotRodMagicKeyGenerator.newKey(cache(1, cacheName()));
+      byte[] value = value(m);
+      assertStatus(client().put(key, 0, 0, value), Success);
+
+      int before = reads.count.get();
+      assertSuccess(client().get(key, 0), value);
+      assertEquals(before + 1, reads.count.get());
+   }
+
+   public void testGetCompressedValues(Method m) throws Exception {
+      byte[] key = HotRodMagicKeyGenerator.newKey(cache(0, cacheName()));
+      byte[] value = value(m);
+      assertStatus(client().put(key, 0, 0, value), Success);
+
+      int before = reads.count.get();
+      assertSuccess(client().get(key, ProtocolFlag.CompressedValues.getValue()),
+            ValueCompression.compress(value, ALGORITHM, THRESHOLD));
+      assertEquals(before + 1, reads.count.get());
+   }
+
+   private HotRodClient client() {
+      return clients().get(0);
+   }
+
+   private static byte[] value(Method m) {
+      return ("v-" + m.getName() + "-" + "0123456789".repeat(6)).getBytes(StandardCharsets.UTF_8);
+   }
+
+   static class ReadCountingInterceptor extends DDAsyncInterceptor {
+      final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand command) throws Throwable {
+         count.incrementAndGet();
+         return invokeNext(ctx, command);
+      }
+
+      @Override
+      public Object visitGetCacheEntryCommand(InvocationContext ctx, GetCacheEntryCommand command) throws Throwable {
+         count.incrementAndGet();
+         return invokeNext(ctx, command);
+      }
+   }
+}
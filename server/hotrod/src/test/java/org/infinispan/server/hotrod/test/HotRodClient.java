@@ -948,7 +948,35 @@ protected void decode(ChannelHandlerContext ctx, ByteBuf buf, List<Object> out)
             resp = new TestIteratorStartResponse(op.version, id, op.cacheName, op.clientIntel, op.topologyId, topologyChangeResponse, iterationId);
             break;
          case ITERATION_NEXT:
-            resp = new TestIteratorNextResponse(op.version, id, op.cacheName, op.clientIntel, op.topologyId, topologyChangeResponse);
+            Map<WrappedByteArray, byte[]> entries = new HashMap<>();
+            if (status == Success) {
+               // The finished segments
+               ExtendedByteBuf.readRangedBytes(buf);
+               int numEntries = readUnsignedInt(buf);
+               int projections = numEntries > 0 && op.version >= 24 ? readUnsignedInt(buf) : 1;
+               for (int i = 0; i < numEntries; i++) {
+                  if (op.version >= 25 && buf.readByte() == 1) {
+                     byte flags = buf.readByte();
+                     if ((flags & 0x01) != 0x01) {
+                        buf.readLong();
+                        readUnsignedInt(buf);
+                     }
+                     if ((flags & 0x02) != 0x02) {
+                        buf.readLong();
+                        readUnsignedInt(buf);
+                     }
+                     buf.readLong();
+                  }
+                  byte[] key = ExtendedByteBuf.readRangedBytes(buf);
+                  byte[] value = ExtendedByteBuf.readRangedBytes(buf);
+                  for (int j = 1; j < projections; j++) {
+                     ExtendedByteBuf.readRangedBytes(buf);
+                  }
+                  entries.put(new WrappedByteArray(key), value);
+               }
+            }
+            resp = new TestIteratorNextResponse(op.version, id, op.cacheName, op.clientIntel, op.topologyId,
+                  topologyChangeResponse, entries);
             break;
          case PREPARE_TX:
          case ROLLBACK_TX:
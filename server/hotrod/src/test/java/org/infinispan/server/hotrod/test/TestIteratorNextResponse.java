@@ -2,11 +2,18 @@
 
 import static org.infinispan.server.hotrod.OperationStatus.Success;
 
+import java.util.Map;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.server.hotrod.HotRodOperation;
 
 public class TestIteratorNextResponse extends TestResponse {
+   public final Map<WrappedByteArray, byte[]> entries;
+
    protected TestIteratorNextResponse(byte version, long messageId, String cacheName, short clientIntel,
-                                      int topologyId, AbstractTestTopologyAwareResponse topologyResponse) {
+                                      int topologyId, AbstractTestTopologyAwareResponse topologyResponse,
+                                      Map<WrappedByteArray, byte[]> entries) {
       super(version, messageId, cacheName, clientIntel, HotRodOperation.ITERATION_NEXT, Success, topologyId, topologyResponse);
+      this.entries = entries;
    }
 }
@@ -13,6 +13,8 @@
 import java.time.temporal.Temporal;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
@@ -27,7 +29,10 @@
 import org.infinispan.container.versioning.VersionGenerator;
 import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.metadata.Metadata;
+import org.infinispan.security.AuthorizationManager;
+import org.infinispan.security.AuthorizationPermission;
 import org.infinispan.security.Security;
+import org.infinispan.security.actions.SecurityActions;
 import org.infinispan.server.core.transport.NettyTransport;
 import org.infinispan.server.memcached.logging.Header;
 import org.infinispan.server.memcached.logging.Log;
@@ -112,6 +117,21 @@ public void resumeRead() {
       }
    }
 
+   /**
+    * Reads the entries of the keys of several get requests with a single getAll. Each key was requested on its own, so
+    * only the {@code READ} permission of a single get is required, not the {@code BULK_READ} permission of
+    * {@link AdvancedCache#getAllCacheEntriesAsync(Set)}.
+    */
+   protected CompletableFuture<Map<byte[], CacheEntry<byte[], byte[]>>> getAllCacheEntries(Set<byte[]> keys) {
+      AuthorizationManager authorizationManager = SecurityActions.getCacheAuthorizationManager(cache);
+      if (authorizationManager == null) {
+         return cache.getAllCacheEntriesAsync(keys);
+      }
+      authorizationManager.checkPermission(subject, AuthorizationPermission.READ);
+      AdvancedCache<byte[], byte[]> unwrapped = SecurityActions.getUnwrappedCache(cache);
+      return unwrapped.getAllCacheEntriesAsync(keys);
+   }
+
    protected abstract MemcachedResponse failedResponse(Header header, Throwable t);
 
    protected abstract MemcachedResponse send(Header header, CompletionStage<?> response);
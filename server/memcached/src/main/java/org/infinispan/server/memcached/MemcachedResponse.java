@@ -45,7 +45,9 @@ public boolean isSuccessful() {
 
    public void writeResponse(Object response, ByteBufPool allocator) {
       if (response != null) {
-         if (response instanceof ByteBuf[]) {
+         if (response instanceof Writer) {
+            responseBytes = ((Writer) response).write(allocator);
+         } else if (response instanceof ByteBuf[]) {
             responseBytes = writeResponse((ByteBuf[]) response, allocator);
          } else if (response instanceof byte[]) {
             responseBytes = writeResponse((byte[]) response, allocator);
@@ -81,6 +83,17 @@ public void flushed(ChannelFuture future) {
       }
    }
 
+   /**
+    * A response that writes itself to the outbound buffer, instead of being copied from an intermediate buffer.
+    */
+   @FunctionalInterface
+   public interface Writer {
+      /**
+       * @return the number of bytes written
+       */
+      int write(ByteBufPool allocator);
+   }
+
    private static int writeResponse(ByteBuf[] response, ByteBufPool allocator) {
       int size = 0;
       for (ByteBuf buf : response) {
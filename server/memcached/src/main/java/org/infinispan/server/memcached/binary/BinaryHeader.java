@@ -53,6 +53,10 @@ public BinaryHeader replace(Temporal requestStart, int requestBytes, String prin
       return this;
    }
 
+   BinaryHeader copy(Object key) {
+      return new BinaryHeader(requestStart, requestBytes, principalName, key, op, opaque, cas);
+   }
+
    public BinaryCommand getCommand() {
       return op;
    }
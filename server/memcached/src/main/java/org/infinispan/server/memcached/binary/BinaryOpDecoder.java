@@ -12,16 +12,24 @@
 import static org.infinispan.server.memcached.MemcachedStatus.KEY_EXISTS;
 import static org.infinispan.server.memcached.MemcachedStatus.KEY_NOT_FOUND;
 import static org.infinispan.server.memcached.MemcachedStatus.NO_ERROR;
+import static org.infinispan.server.memcached.binary.BinaryConstants.MAGIC_REQ;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 
 import javax.security.auth.Subject;
 
+import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.util.SimpleImmutableEntry;
 import org.infinispan.commons.util.Util;
 import org.infinispan.commons.util.Version;
@@ -36,7 +44,14 @@
 import org.infinispan.util.concurrent.CompletionStages;
 import org.jgroups.util.CompletableFutures;
 
+import io.netty.buffer.ByteBuf;
+
 abstract class BinaryOpDecoder extends BinaryDecoder {
+   // The maximum number of quiet gets read with a single getAll
+   private static final int MAX_QUIET_GETS = 1024;
+
+   // The quiet gets waiting to be read together
+   private final List<BinaryHeader> quietGets = new ArrayList<>();
 
    protected BinaryOpDecoder(MemcachedServer server, Subject subject) {
       super(server, subject);
@@ -51,6 +66,60 @@ protected MemcachedResponse get(BinaryHeader header, byte[] key, boolean quiet)
       return send(header, cs.thenAccept(e -> handleGet(e, header, key, quiet)));
    }
 
+   /**
+    * Clients send a multi-get as a sequence of GETQ/GETKQ, terminated by a NOOP or a non quiet get. The consecutive
+    * quiet gets that have already been received are read with a single getAll, which sends one command to each owner
+    * instead of one command for each key.
+    *
+    * @return whether a response was added to {@code out}
+    */
+   protected boolean getQuiet(BinaryHeader header, byte[] key, ByteBuf buf, List<Object> out) {
+      if (quietGets.isEmpty() && !nextIsQuietGet(buf)) {
+         return out.add(get(header, key, true));
+      }
+      // The header is reused by the next request, and its key is not the one of this request
+      quietGets.add(header.copy(key));
+      if (quietGets.size() < MAX_QUIET_GETS && nextIsQuietGet(buf)) {
+         return false;
+      }
+      List<BinaryHeader> headers = new ArrayList<>(quietGets);
+      quietGets.clear();
+      Set<byte[]> keys = Collections.newSetFromMap(new IdentityHashMap<>(headers.size()));
+      for (BinaryHeader h : headers) {
+         keys.add((byte[]) h.getKey());
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("Reading %d quiet gets with a single getAll", headers.size());
+      }
+      CompletableFuture<Map<byte[], CacheEntry<byte[], byte[]>>> cs = getAllCacheEntries(keys);
+      if (CompletionStages.isCompletedSuccessfully(cs)) {
+         handleQuietGets(CompletionStages.join(cs), headers);
+         return out.add(send(header, CompletableFutures.completedNull()));
+      }
+      return out.add(send(header, cs.thenAccept(entries -> handleQuietGets(entries, headers))));
+   }
+
+   private static boolean nextIsQuietGet(ByteBuf buf) {
+      if (buf.readableBytes() < 2 || buf.getByte(buf.readerIndex()) != MAGIC_REQ) {
+         return false;
+      }
+      byte op = buf.getByte(buf.readerIndex() + 1);
+      return op == BinaryCommand.GETQ.opCode() || op == BinaryCommand.GETKQ.opCode();
+   }
+
+   private void handleQuietGets(Map<byte[], CacheEntry<byte[], byte[]>> entries, List<BinaryHeader> headers) {
+      // The returned keys are not the instances that were requested
+      Map<WrappedByteArray, CacheEntry<byte[], byte[]>> found = new HashMap<>(entries.size());
+      for (CacheEntry<byte[], byte[]> entry : entries.values()) {
+         found.put(new WrappedByteArray(entry.getKey()), entry);
+      }
+      // Each hit is written to the outbound buffer, misses have no response
+      for (BinaryHeader h : headers) {
+         byte[] key = (byte[]) h.getKey();
+         handleGet(found.get(new WrappedByteArray(key)), h, key, true);
+      }
+   }
+
    private void handleGet(CacheEntry<byte[], byte[]> e, BinaryHeader header, byte[] key, boolean quiet) {
       boolean withKey = header.getCommand() == BinaryCommand.GETK || header.getCommand() == BinaryCommand.GETKQ;
       // getq/getkq
@@ -4,6 +4,7 @@
 
 import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 
 import org.infinispan.server.core.transport.ExtendedByteBufJava;
@@ -120,6 +121,10 @@ public static List<byte[]> text_list(ByteBuf buf, TokenReader reader) {
    }
 
    public static List<byte[]> text_key_list(ByteBuf buf, TokenReader reader) {
+      // Wait for the whole line, otherwise a request split across reads would only see the first keys
+      if (buf.bytesBefore((byte) '\n') < 0) {
+         return Collections.emptyList();
+      }
       List<byte[]> list = new ArrayList<>();
       for (byte[] b = text_key(buf, reader); b != null; b = text_key(buf, reader)) {
          list.add(b);
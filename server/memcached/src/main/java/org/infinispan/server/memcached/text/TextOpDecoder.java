@@ -34,10 +34,14 @@
 import java.io.StreamCorruptedException;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
@@ -45,6 +49,7 @@
 import javax.security.auth.Subject;
 
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.util.Version;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.container.entries.CacheEntry;
@@ -56,7 +61,6 @@
 import org.infinispan.server.memcached.MemcachedResponse;
 import org.infinispan.server.memcached.MemcachedServer;
 import org.infinispan.server.memcached.ParseUtil;
-import org.infinispan.util.concurrent.AggregateCompletionStage;
 import org.infinispan.util.concurrent.CompletionStages;
 
 import io.netty.buffer.ByteBuf;
@@ -73,19 +77,15 @@ protected TextOpDecoder(MemcachedServer server, Subject subject) {
    protected MemcachedResponse get(TextHeader header, List<byte[]> keys, boolean withVersions) {
       int numberOfKeys = keys.size();
       if (numberOfKeys > 1) {
-         CacheEntry<byte[], byte[]>[] arr = new CacheEntry[numberOfKeys];
-         List<CacheEntry<byte[], byte[]>> entries = Collections.synchronizedList(Arrays.asList(arr));
-         AggregateCompletionStage<List<CacheEntry<byte[], byte[]>>> acs = CompletionStages.aggregateCompletionStage(entries);
-         for (int i = 0; i < numberOfKeys; ++i) {
-            acs.dependsOn(doGetMultipleKeys(keys, entries, i));
-         }
-
-         var cs = acs.freeze();
+         // A single getAll, which sends one command to each owner instead of one for each key
+         Set<byte[]> keySet = Collections.newSetFromMap(new IdentityHashMap<>(numberOfKeys));
+         keySet.addAll(keys);
+         CompletionStage<Map<byte[], CacheEntry<byte[], byte[]>>> cs = getAllCacheEntries(keySet);
          if (CompletionStages.isCompletedSuccessfully(cs)) {
-            return send(header, CompletableFuture.completedFuture(createMultiGetResponse(entries)));
+            return send(header, CompletableFuture.completedFuture(createMultiGetResponse(keys, CompletionStages.join(cs), withVersions)));
          }
 
-         return send(header, cs.thenApply(this::createMultiGetResponse));
+         return send(header, cs.thenApply(entries -> createMultiGetResponse(keys, entries, withVersions)));
       }
 
       byte[] key = keys.get(0);
@@ -229,13 +229,54 @@ private Object createMultiGetResponse(List<CacheEntry<byte[], byte[]>> entries)
       return elements;
    }
 
-   private CompletionStage<Void> doGetMultipleKeys(List<byte[]> keys, List<CacheEntry<byte[], byte[]>> entries, int i) {
-      try {
-         return cache.getCacheEntryAsync(keys.get(i))
-               .thenAccept(entry -> entries.set(i, entry));
-      } catch (Throwable t) {
-         return failedFuture(t);
+   private static MemcachedResponse.Writer createMultiGetResponse(List<byte[]> keys, Map<byte[], CacheEntry<byte[], byte[]>> entries, boolean withVersions) {
+      // The returned keys are not the instances that were requested
+      Map<WrappedByteArray, CacheEntry<byte[], byte[]>> found = new HashMap<>(entries.size());
+      for (CacheEntry<byte[], byte[]> entry : entries.values()) {
+         found.put(new WrappedByteArray(entry.getKey()), entry);
+      }
+      return allocator -> {
+         List<CacheEntry<byte[], byte[]>> hits = new ArrayList<>(keys.size());
+         List<byte[]> headers = new ArrayList<>(keys.size());
+         int size = END_SIZE;
+         for (byte[] key : keys) {
+            CacheEntry<byte[], byte[]> entry = found.get(new WrappedByteArray(key));
+            if (entry != null) {
+               byte[] h = getHeader(key, entry, withVersions);
+               hits.add(entry);
+               headers.add(h);
+               size += h.length + entry.getValue().length + 2 * CRLFBytes.length;
+            }
+         }
+         // Write all the values to the outbound buffer at once
+         ByteBuf buf = allocator.acquire(size);
+         for (int i = 0; i < hits.size(); ++i) {
+            buf.writeBytes(headers.get(i));
+            writeGetHeaderData(hits.get(i).getValue(), buf);
+         }
+         writeGetHeaderEnd(buf);
+         return size;
+      };
+   }
+
+   /**
+    * @return {@code VALUE <key> <flags> <bytes> [<cas unique>]}
+    */
+   private static byte[] getHeader(byte[] key, CacheEntry<byte[], byte[]> entry, boolean withVersion) {
+      StringBuilder sb = new StringBuilder(32);
+      Metadata metadata = entry.getMetadata();
+      sb.append(' ').append(metadata instanceof MemcachedMetadata ? ((MemcachedMetadata) metadata).flags : 0);
+      sb.append(' ').append(entry.getValue().length);
+      if (withVersion) {
+         sb.append(' ').append(((NumericVersion) metadata.version()).getVersion());
+      }
+      byte[] header = new byte[VALUE_SIZE + key.length + sb.length()];
+      System.arraycopy(VALUE, 0, header, 0, VALUE_SIZE);
+      System.arraycopy(key, 0, header, VALUE_SIZE, key.length);
+      for (int i = 0; i < sb.length(); ++i) {
+         header[VALUE_SIZE + key.length + i] = (byte) sb.charAt(i);
       }
+      return header;
    }
 
    private CompletionStage<Void> doGatMultipleKeys(List<byte[]> keys, List<CacheEntry<byte[], byte[]>> entries, int expiration, int idx) {
@@ -3,7 +3,9 @@
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -47,6 +49,23 @@ public void testGetFromNonOwner() throws InterruptedException, ExecutionExceptio
       assertEquals(nonOwner.get("1"), "v1");
    }
 
+   public void testGetMultipleKeysFromManyOwners() throws InterruptedException, ExecutionException, TimeoutException {
+      MemcachedClient client = clients.get(0);
+      List<String> keys = new ArrayList<>();
+      for (int i = 0; i < 100; ++i) {
+         keys.add("multi-" + i);
+         assertTrue(client.set("multi-" + i, 0, "v" + i).get(timeout, TimeUnit.SECONDS));
+      }
+      keys.add("multi-missing");
+      for (MemcachedClient c : clients) {
+         Map<String, Object> values = c.getBulk(keys);
+         assertEquals(values.size(), 100);
+         for (int i = 0; i < 100; ++i) {
+            assertEquals(values.get("multi-" + i), "v" + i);
+         }
+      }
+   }
+
    private MemcachedClient getFirstNonOwner(String k) {
       return getCacheThat(k, false);
    }
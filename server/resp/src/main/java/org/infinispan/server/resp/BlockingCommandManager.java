@@ -0,0 +1,494 @@
+package org.infinispan.server.resp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.annotation.TopologyChanged;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
+import org.infinispan.notifications.cachelistener.filter.CacheEventFilter;
+import org.infinispan.security.actions.SecurityActions;
+import org.infinispan.server.resp.filter.EventListenerKeysFilter;
+import org.infinispan.server.resp.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * Parks the blocking commands, such as BLPOP, until an element can be removed from one of their keys or their timeout
+ * expires, without holding a thread.
+ * <p>
+ * A single clustered listener is installed on each cache while at least one command is blocked on it on this node. Its
+ * filter only lets through the keys commands are blocked on, so that the owners do not send the node every write of
+ * the cache. A clustered listener cannot change its filter, so when a command blocks on a key the filter does not
+ * accept, a listener for all the blocked keys replaces it. The keys no command waits for anymore are dropped from the
+ * filter at the next replacement.
+ * <p>
+ * The listener looks up the commands blocked on the modified key and does not remove anything itself: they are woken
+ * up one at a time, in the order they blocked, until one of them finds nothing to remove. A command blocked on several
+ * keys is only ever removing from one of them at a time, so that it never receives more than one element.
+ * <p>
+ * Inside MULTI/EXEC a blocking command does not block: it removes an element if one of its keys has one, and returns
+ * {@code null} otherwise.
+ * <p>
+ * The timeout is tracked by the event loop of the client connection, so a change of the owners of the keys does not
+ * affect it. The blocked commands are woken up again after a topology change, in case an event was missed while the
+ * owners changed.
+ *
+ * @since 15.0
+ */
+public class BlockingCommandManager {
+   private static final Log log = LogFactory.getLog(BlockingCommandManager.class, Log.class);
+
+   private final ConcurrentMap<String, CacheWaiters> caches = new ConcurrentHashMap<>();
+
+   /**
+    * Removes an element from the first of the keys that has one, waiting until one of them has an element when none
+    * of them has one now.
+    *
+    * @param handler the handler of the connection, whose cache holds the keys
+    * @param ctx the context of the blocked connection
+    * @param keys the keys to remove an element from, in the order they are tried
+    * @param timeout the maximum time to wait in milliseconds, or 0 to wait forever
+    * @param poll removes an element from the given key, returning {@code null} when there is none
+    * @return a stage completed with the value returned by {@code poll}, or with {@code null} after the timeout
+    */
+   public <T> CompletionStage<T> block(Resp3Handler handler, ChannelHandlerContext ctx, List<byte[]> keys,
+                                       long timeout, Function<byte[], CompletionStage<T>> poll) {
+      // The arguments are reused by the decoder
+      List<byte[]> keyList = List.copyOf(keys);
+      if (handler.isExecutingTransaction()) {
+         // The following commands of the transaction cannot wait, the keys are tried once as Redis does
+         return pollFirst(keyList, 0, poll);
+      }
+      AdvancedCache<byte[], byte[]> cache = handler.cache();
+      CacheWaiters cacheWaiters = caches.get(cache.getName());
+      // A command does not take an element that a command blocked before it is waiting for
+      if (cacheWaiters != null) {
+         for (byte[] key : keyList) {
+            if (cacheWaiters.waiters.containsKey(new WrappedByteArray(key))) {
+               return park(cache, ctx, keyList, timeout, poll);
+            }
+         }
+      }
+      return pollFirst(keyList, 0, poll).thenCompose(value -> {
+         if (value != null) {
+            return CompletableFuture.completedFuture(value);
+         }
+         return park(cache, ctx, keyList, timeout, poll);
+      });
+   }
+
+   /**
+    * @return the number of commands blocked on this node
+    */
+   int blockedCommands() {
+      int blocked = 0;
+      for (CacheWaiters cacheWaiters : caches.values()) {
+         blocked += cacheWaiters.blocked();
+      }
+      return blocked;
+   }
+
+   private static <T> CompletionStage<T> pollFirst(List<byte[]> keys, int index, Function<byte[], CompletionStage<T>> poll) {
+      if (index == keys.size()) {
+         return CompletableFutures.completedNull();
+      }
+      return poll.apply(keys.get(index)).thenCompose(value -> {
+         if (value != null) {
+            return CompletableFuture.completedFuture(value);
+         }
+         return pollFirst(keys, index + 1, poll);
+      });
+   }
+
+   private <T> CompletionStage<T> park(AdvancedCache<byte[], byte[]> cache, ChannelHandlerContext ctx, List<byte[]> keys,
+                                       long timeout, Function<byte[], CompletionStage<T>> poll) {
+      CacheWaiters cacheWaiters = caches.computeIfAbsent(cache.getName(), ignore -> {
+         // Receive the keys in storage format, so that the events of any data type can be converted
+         MediaType vmt = cache.getValueDataConversion().getStorageMediaType();
+         // The listener is shared by the connections, it must not be bound to the subject of the first one
+         AdvancedCache<byte[], byte[]> unwrapped = SecurityActions.getUnwrappedCache(cache);
+         return new CacheWaiters(unwrapped.withMediaType(MediaType.APPLICATION_OCTET_STREAM, vmt));
+      });
+      Waiter<T> waiter = new Waiter<>(cacheWaiters, ctx, keys, poll);
+      CompletionStage<Void> listenerStage = cacheWaiters.add(waiter);
+      if (timeout > 0) {
+         waiter.timeout = ctx.executor().schedule(waiter::expire, timeout, TimeUnit.MILLISECONDS);
+      }
+      ctx.channel().closeFuture().addListener(waiter);
+
+      listenerStage.whenComplete((ignore, t) -> {
+         if (t != null) {
+            waiter.fail(t);
+            return;
+         }
+         if (waiter.isDone()) {
+            return;
+         }
+         if (log.isTraceEnabled()) {
+            log.tracef("Blocked %s on %d keys", ctx.channel(), keys.size());
+         }
+         // An element may have been added before the listener was installed
+         waiter.signalAll();
+      });
+      return waiter.result;
+   }
+
+   /**
+    * The commands blocked on the keys of a cache on this node. The listener is installed when the first command blocks,
+    * and removed once no command is blocked anymore.
+    */
+   private static class CacheWaiters {
+      private final AdvancedCache<byte[], ?> cache;
+      private final ConcurrentMap<WrappedByteArray, KeyWaiters> waiters = new ConcurrentHashMap<>();
+      // Guarded by this
+      private int blocked;
+      private CacheListener listener;
+
+      CacheWaiters(AdvancedCache<byte[], ?> cache) {
+         this.cache = cache;
+      }
+
+      /**
+       * @return a stage completed once the listener notifying the waiter is installed
+       */
+      synchronized CompletionStage<Void> add(Waiter<?> waiter) {
+         for (WrappedByteArray key : waiter.keys) {
+            waiters.compute(key, (ignore, kw) -> {
+               if (kw == null) {
+                  kw = new KeyWaiters();
+               }
+               kw.add(waiter);
+               return kw;
+            });
+         }
+         if (listener == null || !listener.keys.containsAll(waiter.keys)) {
+            // A new instance every time, so a listener being removed never removes the one being installed
+            CacheListener previous = listener;
+            listener = new CacheListener(this, waiters.keySet());
+            listener.installed = cache.addListenerAsync(listener, listener.filter(), null);
+            if (previous != null) {
+               // The previous listener keeps notifying its keys until the new one is installed
+               removeListener(previous, listener.installed);
+            }
+         }
+         blocked++;
+         return listener.installed;
+      }
+
+      synchronized void remove(Waiter<?> waiter) {
+         for (WrappedByteArray key : waiter.keys) {
+            waiters.computeIfPresent(key, (ignore, kw) -> kw.remove(waiter) ? null : kw);
+         }
+         if (--blocked == 0) {
+            CacheListener removed = listener;
+            listener = null;
+            removeListener(removed, CompletableFutures.completedNull());
+         }
+      }
+
+      private void removeListener(CacheListener removed, CompletionStage<Void> after) {
+         after.handle((ignore, t) -> null)
+               .thenCompose(ignore -> removed.installed)
+               .whenComplete((ignore, t) -> {
+                  if (t == null) {
+                     cache.removeListenerAsync(removed);
+                  }
+               });
+      }
+
+      synchronized int blocked() {
+         return blocked;
+      }
+
+      void signal(WrappedByteArray key) {
+         KeyWaiters kw = waiters.get(key);
+         if (kw != null && kw.startDrain()) {
+            drain(key, kw);
+         }
+      }
+
+      void signalAll() {
+         for (WrappedByteArray key : waiters.keySet()) {
+            signal(key);
+         }
+      }
+
+      /**
+       * Wakes up the waiters of the key in the order they blocked, until one of them finds nothing to remove.
+       */
+      private void drain(WrappedByteArray key, KeyWaiters kw) {
+         Waiter<?> waiter = kw.next(key);
+         if (waiter == null) {
+            waiters.computeIfPresent(key, (ignore, current) -> current == kw && kw.isEmpty() ? null : current);
+            return;
+         }
+         // When an element was removed, there may be more for the following waiters
+         waiter.poll(key).thenAccept(removed -> {
+            if (kw.continueDrain(removed)) {
+               drain(key, kw);
+            }
+         });
+      }
+   }
+
+   /**
+    * Receives the modifications of the keys commands were blocked on when it was created, and wakes up the commands
+    * blocked on the modified key.
+    */
+   @Listener(clustered = true)
+   public static class CacheListener {
+      private final CacheWaiters cacheWaiters;
+      private final Set<WrappedByteArray> keys;
+      private CompletionStage<Void> installed;
+
+      CacheListener(CacheWaiters cacheWaiters, Set<WrappedByteArray> keys) {
+         this.cacheWaiters = cacheWaiters;
+         this.keys = Set.copyOf(keys);
+      }
+
+      CacheEventFilter<Object, Object> filter() {
+         byte[][] filterKeys = new byte[keys.size()][];
+         int i = 0;
+         for (WrappedByteArray key : keys) {
+            filterKeys[i++] = key.getBytes();
+         }
+         return new EventListenerKeysFilter(filterKeys, cacheWaiters.cache.getKeyDataConversion());
+      }
+
+      @CacheEntryCreated
+      @CacheEntryModified
+      public CompletionStage<Void> onEvent(CacheEntryEvent<Object, Object> event) {
+         if (!event.isPre()) {
+            cacheWaiters.signal(new WrappedByteArray((byte[]) cacheWaiters.cache.getKeyDataConversion().fromStorage(event.getKey())));
+         }
+         return CompletableFutures.completedNull();
+      }
+
+      @TopologyChanged
+      public CompletionStage<Void> onTopologyChange(TopologyChangedEvent<Object, Object> event) {
+         if (!event.isPre()) {
+            // An event may have been missed while the owners changed
+            cacheWaiters.signalAll();
+         }
+         return CompletableFutures.completedNull();
+      }
+   }
+
+   /**
+    * The waiters of a single key on this node, in the order they blocked.
+    */
+   private static class KeyWaiters {
+      private final Deque<Waiter<?>> queue = new ArrayDeque<>();
+      private boolean draining;
+      private boolean signalled;
+
+      synchronized void add(Waiter<?> waiter) {
+         queue.add(waiter);
+      }
+
+      /**
+       * @return whether the key no longer has waiters
+       */
+      synchronized boolean remove(Waiter<?> waiter) {
+         queue.remove(waiter);
+         return isEmpty();
+      }
+
+      synchronized boolean isEmpty() {
+         return queue.isEmpty() && !draining;
+      }
+
+      /**
+       * @return whether the caller must drain the waiters, otherwise the drain in progress is repeated
+       */
+      synchronized boolean startDrain() {
+         signalled = true;
+         if (draining) {
+            return false;
+         }
+         draining = true;
+         return true;
+      }
+
+      synchronized boolean continueDrain(boolean removed) {
+         if (removed || signalled) {
+            return true;
+         }
+         draining = false;
+         return false;
+      }
+
+      /**
+       * @return the first waiter that can remove an element from the key, or {@code null} to stop draining
+       */
+      synchronized Waiter<?> next(WrappedByteArray key) {
+         signalled = false;
+         for (Iterator<Waiter<?>> it = queue.iterator(); it.hasNext(); ) {
+            Waiter<?> waiter = it.next();
+            if (waiter.claim(key)) {
+               return waiter;
+            }
+            if (waiter.isDone()) {
+               it.remove();
+            }
+         }
+         draining = false;
+         return null;
+      }
+   }
+
+   /**
+    * A blocked command, waiting for an element on any of its keys.
+    */
+   private static class Waiter<T> implements ChannelFutureListener {
+      private final CacheWaiters cacheWaiters;
+      private final ChannelHandlerContext ctx;
+      private final List<WrappedByteArray> keys;
+      private final Function<byte[], CompletionStage<T>> poll;
+      private final CompletableFuture<T> result = new CompletableFuture<>();
+      // The keys signalled while an element was being removed from another key
+      private final List<WrappedByteArray> missed = new ArrayList<>(1);
+      private ScheduledFuture<?> timeout;
+      private boolean polling;
+      private boolean expired;
+      private boolean done;
+
+      Waiter(CacheWaiters cacheWaiters, ChannelHandlerContext ctx, List<byte[]> keys,
+             Function<byte[], CompletionStage<T>> poll) {
+         this.cacheWaiters = cacheWaiters;
+         this.ctx = ctx;
+         this.keys = new ArrayList<>(keys.size());
+         for (byte[] key : keys) {
+            WrappedByteArray wrapped = new WrappedByteArray(key);
+            if (!this.keys.contains(wrapped)) {
+               this.keys.add(wrapped);
+            }
+         }
+         this.poll = poll;
+      }
+
+      void signalAll() {
+         for (WrappedByteArray key : keys) {
+            cacheWaiters.signal(key);
+         }
+      }
+
+      synchronized boolean isDone() {
+         return done;
+      }
+
+      synchronized boolean claim(WrappedByteArray key) {
+         if (done) {
+            return false;
+         }
+         if (polling) {
+            missed.add(key);
+            return false;
+         }
+         polling = true;
+         return true;
+      }
+
+      /**
+       * Removes an element from the key, the waiter must have been claimed.
+       *
+       * @return whether an element was removed
+       */
+      CompletionStage<Boolean> poll(WrappedByteArray key) {
+         CompletionStage<T> stage;
+         try {
+            stage = poll.apply(key.getBytes());
+         } catch (Throwable t) {
+            stage = CompletableFuture.failedFuture(t);
+         }
+         return stage.handle((value, t) -> {
+            if (t != null) {
+               // The key may hold another type or its owner may have left, wait for the next event
+               log.tracef(t, "Failed to remove an element from a blocked key for %s", ctx.channel());
+            }
+            List<WrappedByteArray> retry;
+            boolean complete;
+            synchronized (this) {
+               polling = false;
+               complete = value != null || expired;
+               done |= complete;
+               retry = new ArrayList<>(missed);
+               missed.clear();
+            }
+            if (complete) {
+               finish(value);
+            } else {
+               for (WrappedByteArray missedKey : retry) {
+                  cacheWaiters.signal(missedKey);
+               }
+            }
+            return value != null;
+         });
+      }
+
+      void expire() {
+         synchronized (this) {
+            if (done) {
+               return;
+            }
+            if (polling) {
+               // The element being removed must not be lost, the outcome of the removal decides
+               expired = true;
+               return;
+            }
+            done = true;
+         }
+         finish(null);
+      }
+
+      void fail(Throwable t) {
+         synchronized (this) {
+            if (done) {
+               return;
+            }
+            done = true;
+         }
+         cacheWaiters.remove(this);
+         result.completeExceptionally(t);
+      }
+
+      private void finish(T value) {
+         if (timeout != null) {
+            timeout.cancel(false);
+         }
+         ctx.channel().closeFuture().removeListener(this);
+         cacheWaiters.remove(this);
+         result.complete(value);
+      }
+
+      /**
+       * Invoked when the connection is closed.
+       */
+      @Override
+      public void operationComplete(ChannelFuture future) {
+         expire();
+      }
+   }
+}
@@ -19,4 +19,13 @@ public interface ByteBufPool extends IntFunction<ByteBuf> {
    default ByteBuf acquire(int requiredSize) {
       return apply(requiredSize);
    }
+
+   /**
+    * Sends the bytes written so far to the client, before the command completes. Only a command executed in order can
+    * send part of its reply, for the others this does nothing as their reply is sent once the previous ones are.
+    * <p>
+    * This method must be invoked from the event loop.
+    */
+   default void flush() {
+   }
 }
@@ -97,6 +97,15 @@ public static ByteBuf bytesToResult(Collection<byte[]> results, ByteBufPool allo
       return bytesToResult(resultBytesSize, results, alloc);
    }
 
+   public static ByteBuf writeArrayHeader(int elements, ByteBufPool alloc) {
+      int elementsSize = stringSize(elements);
+      // * + digit length + \r\n
+      ByteBuf byteBuf = alloc.acquire(1 + elementsSize + 2);
+      byteBuf.writeByte('*');
+      setIntChars(elements, elementsSize, byteBuf);
+      return byteBuf.writeBytes(CRLF);
+   }
+
    public static ByteBuf bytesToResult(int resultBytesSize, Collection<byte[]> results, ByteBufPool alloc) {
       int elements = results.size();
       int elementsSize = stringSize(elements);
@@ -1,10 +1,12 @@
 package org.infinispan.server.resp;
 
+import org.infinispan.multimap.impl.StreamBucket;
 import org.infinispan.server.resp.response.LCSResponse;
 import org.infinispan.server.resp.response.SetResponse;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BiConsumer;
 
 import static org.infinispan.server.resp.RespConstants.CRLF_STRING;
@@ -38,6 +40,12 @@ private Consumers() {
 
    public static final BiConsumer<byte[], ByteBufPool> BULK_BICONSUMER = Resp3Handler::handleBulkResult;
 
+   /**
+    * Writes a reply that is already encoded, such as the reply of a script
+    */
+   public static final BiConsumer<byte[], ByteBufPool> RAW_BICONSUMER = (reply, alloc) -> alloc.acquire(reply.length)
+         .writeBytes(reply);
+
    public static final BiConsumer<Collection<byte[]>, ByteBufPool> COLLECTION_BULK_BICONSUMER = Resp3Handler::handleCollectionBulkResult;
 
    public static final BiConsumer<byte[], ByteBufPool> GET_BICONSUMER = (innerValueBytes, alloc) -> {
@@ -102,6 +110,38 @@ private Consumers() {
       }
    };
 
+   public static final BiConsumer<List<StreamBucket.Entry>, ByteBufPool> STREAM_ENTRIES_BICONSUMER = Consumers::handleStreamEntries;
+
+   /**
+    * The reply of XREAD and XREADGROUP, the entries read by stream. A null list is a null reply, after a timeout.
+    */
+   public static final BiConsumer<List<Map.Entry<byte[], List<StreamBucket.Entry>>>, ByteBufPool> STREAM_READ_BICONSUMER = (res, alloc) -> {
+      if (res == null) {
+         Resp3Handler.handleBulkResult((byte[]) null, alloc);
+         return;
+      }
+      Resp3Handler.writeArrayPrefix(res.size(), alloc);
+      for (Map.Entry<byte[], List<StreamBucket.Entry>> stream : res) {
+         Resp3Handler.writeArrayPrefix(2, alloc);
+         Resp3Handler.handleBulkResult(stream.getKey(), alloc);
+         handleStreamEntries(stream.getValue(), alloc);
+      }
+   };
+
+   private static void handleStreamEntries(List<StreamBucket.Entry> entries, ByteBufPool alloc) {
+      Resp3Handler.writeArrayPrefix(entries.size(), alloc);
+      for (StreamBucket.Entry entry : entries) {
+         Resp3Handler.writeArrayPrefix(2, alloc);
+         Resp3Handler.handleBulkAsciiResult(entry.id().toString(), alloc);
+         if (entry.fieldsAndValues().isEmpty()) {
+            // Deleted while pending
+            Resp3Handler.handleBulkResult((byte[]) null, alloc);
+         } else {
+            Resp3Handler.handleCollectionBulkResult(entry.fieldsAndValues(), alloc);
+         }
+      }
+   }
+
    private static void handleIdxArray(LCSResponse res, ByteBufPool alloc) {
       // return idx. it's a 4 items array
       Resp3Handler.writeArrayPrefix(4, alloc);
@@ -0,0 +1,24 @@
+package org.infinispan.server.resp;
+
+import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.factories.GlobalComponentRegistry;
+import org.infinispan.factories.annotations.InfinispanModule;
+import org.infinispan.lifecycle.ModuleLifecycle;
+import org.infinispan.marshall.protostream.impl.SerializationContextRegistry;
+
+/**
+ * Module lifecycle callbacks implementation that registers the marshallers of the functions sent to the owners of
+ * the keys.
+ *
+ * @since 15.0
+ */
+@InfinispanModule(name = "server-resp", requiredModules = "core")
+public class LifecycleCallbacks implements ModuleLifecycle {
+   @Override
+   public void cacheManagerStarting(GlobalComponentRegistry gcr, GlobalConfiguration globalConfiguration) {
+      SerializationContextRegistry ctxRegistry = gcr.getComponent(SerializationContextRegistry.class);
+      PersistenceContextInitializerImpl sci = new PersistenceContextInitializerImpl();
+      ctxRegistry.addContextInitializer(SerializationContextRegistry.MarshallerType.PERSISTENCE, sci);
+      ctxRegistry.addContextInitializer(SerializationContextRegistry.MarshallerType.GLOBAL, sci);
+   }
+}
@@ -0,0 +1,22 @@
+package org.infinispan.server.resp;
+
+import org.infinispan.protostream.SerializationContextInitializer;
+import org.infinispan.protostream.annotations.AutoProtoSchemaBuilder;
+import org.infinispan.server.resp.scripting.ScriptFunction;
+
+/**
+ * Interface used to initialise the {@link org.infinispan.marshall.persistence.impl.PersistenceMarshallerImpl}'s
+ * {@link org.infinispan.protostream.SerializationContext} with the classes of the RESP server that are sent between
+ * the nodes.
+ *
+ * @since 15.0
+ */
+@AutoProtoSchemaBuilder(
+      includeClasses = ScriptFunction.class,
+      schemaFileName = "persistence.resp.proto",
+      schemaFilePath = "proto/generated",
+      schemaPackageName = "org.infinispan.persistence.resp",
+      service = false
+)
+interface PersistenceContextInitializer extends SerializationContextInitializer {
+}
@@ -13,10 +13,16 @@
 import org.infinispan.Cache;
 import org.infinispan.commons.dataconversion.MediaType;
 import org.infinispan.context.Flag;
+import org.infinispan.functional.FunctionalMap;
+import org.infinispan.functional.impl.FunctionalMapImpl;
+import org.infinispan.functional.impl.ReadWriteMapImpl;
+import org.infinispan.multimap.impl.EmbeddedBitmapCache;
+import org.infinispan.multimap.impl.EmbeddedHyperLogLogCache;
 import org.infinispan.multimap.impl.EmbeddedMultimapListCache;
 import org.infinispan.multimap.impl.EmbeddedMultimapPairCache;
 import org.infinispan.multimap.impl.EmbeddedMultimapSortedSetCache;
 import org.infinispan.multimap.impl.EmbeddedSetCache;
+import org.infinispan.multimap.impl.EmbeddedStreamCache;
 import org.infinispan.security.AuthorizationManager;
 import org.infinispan.security.AuthorizationPermission;
 import org.infinispan.server.resp.commands.Resp3Command;
@@ -32,8 +38,14 @@ public class Resp3Handler extends Resp3AuthHandler {
    protected EmbeddedMultimapPairCache<byte[], byte[], byte[]> mapMultimap;
    protected EmbeddedSetCache<byte[], byte[]> embeddedSetCache;
    protected EmbeddedMultimapSortedSetCache<byte[], byte[]> sortedSetMultimap;
+   protected EmbeddedHyperLogLogCache<byte[]> hyperLogLogCache;
+   protected EmbeddedBitmapCache<byte[]> bitmapCache;
+   protected EmbeddedStreamCache<byte[]> streamCache;
+   protected FunctionalMap.ReadWriteMap<byte[], Object> scriptMap;
 
    private final MediaType valueMediaType;
+   // Whether the commands queued by MULTI are being executed
+   private boolean executingTransaction;
 
    Resp3Handler(RespServer respServer, MediaType valueMediaType) {
       super(respServer);
@@ -49,6 +61,10 @@ public void setCache(AdvancedCache<byte[], byte[]> cache) {
       mapMultimap = new EmbeddedMultimapPairCache<>(toMultimap);
       embeddedSetCache = new EmbeddedSetCache<>(toMultimap);
       sortedSetMultimap = new EmbeddedMultimapSortedSetCache<>(toMultimap);
+      hyperLogLogCache = new EmbeddedHyperLogLogCache<>(toMultimap);
+      bitmapCache = new EmbeddedBitmapCache<>(toMultimap);
+      streamCache = new EmbeddedStreamCache<>(toMultimap);
+      scriptMap = ReadWriteMapImpl.create(FunctionalMapImpl.create(toMultimap.getAdvancedCache()));
    }
 
    public EmbeddedMultimapListCache<byte[], byte[]> getListMultimap() {
@@ -67,6 +83,37 @@ public EmbeddedMultimapSortedSetCache<byte[], byte[]> getSortedSeMultimap() {
       return sortedSetMultimap;
    }
 
+   public EmbeddedHyperLogLogCache<byte[]> getHyperLogLogCache() {
+      return hyperLogLogCache;
+   }
+
+   public EmbeddedBitmapCache<byte[]> getBitmapCache() {
+      return bitmapCache;
+   }
+
+   public EmbeddedStreamCache<byte[]> getStreamCache() {
+      return streamCache;
+   }
+
+   /**
+    * Returns whether the commands queued by MULTI are being executed, in which case the blocking commands return
+    * straight away instead of waiting for an element
+    */
+   public boolean isExecutingTransaction() {
+      return executingTransaction;
+   }
+
+   public void setExecutingTransaction(boolean executingTransaction) {
+      this.executingTransaction = executingTransaction;
+   }
+
+   /**
+    * Returns the map used to run the scripts on the owner of their key, with the values as stored, whatever their type
+    */
+   public FunctionalMap.ReadWriteMap<byte[], Object> getScriptMap() {
+      return scriptMap;
+   }
+
    @Override
    protected CompletionStage<RespRequestHandler> actualHandleRequest(ChannelHandlerContext ctx, RespCommand type,
          List<byte[]> arguments) {
@@ -110,7 +157,8 @@ protected static void handleCollectionLongResult(Collection<Long> collection, By
          handleNullResult(alloc);
       } else {
          String result = "*" + collection.size() + CRLF_STRING
-               + collection.stream().map(value -> ":" + value + CRLF_STRING).collect(Collectors.joining());
+               + collection.stream().map(value -> value == null ? "$-1" + CRLF_STRING : ":" + value + CRLF_STRING)
+               .collect(Collectors.joining());
          ByteBufferUtils.stringToByteBufAscii(result, alloc);
       }
    }
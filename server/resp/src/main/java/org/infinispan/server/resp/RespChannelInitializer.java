@@ -38,6 +38,6 @@ public void initializeChannel(Channel ch) {
 
       RespDecoder decoder = new RespDecoder();
       pipeline.addLast(decoder);
-      pipeline.addLast(new RespHandler(decoder, initialHandler));
+      pipeline.addLast(new RespHandler(decoder, initialHandler, respServer.getConfiguration().pipelineDepth()));
    }
 }
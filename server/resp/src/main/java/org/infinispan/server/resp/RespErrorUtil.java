@@ -4,6 +4,7 @@
 import java.util.function.Consumer;
 
 import org.infinispan.commons.CacheException;
+import org.infinispan.multimap.impl.StreamException;
 
 public final class RespErrorUtil {
 
@@ -65,6 +66,11 @@ public static void transactionAborted(ByteBufPool allocatorToUse) {
             "-EXECABORT Transaction discarded because of previous errors.\r\n", allocatorToUse);
    }
 
+   public static void noScript(ByteBufPool allocatorToUse) {
+      ByteBufferUtils.stringToByteBufAscii(
+            "-NOSCRIPT No matching script. Please use EVAL.\r\n", allocatorToUse);
+   }
+
    public static void customError(String message, ByteBufPool allocatorToUse) {
       ByteBufferUtils.stringToByteBuf(
             "-ERR " + message + "\r\n", allocatorToUse);
@@ -88,6 +94,12 @@ public static Consumer<ByteBufPool> handleException(Throwable t) {
          return RespErrorUtil::valueNotInteger;
       }
 
+      if (ex instanceof StreamException) {
+         // The message starts with the error code
+         String message = ex.getMessage();
+         return allocator -> ByteBufferUtils.stringToByteBuf("-" + message + "\r\n", allocator);
+      }
+
       return null;
    }
 }
@@ -1,9 +1,15 @@
 package org.infinispan.server.resp;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletionStage;
 
+import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.util.Util;
+import org.infinispan.server.resp.commands.Resp3Command;
 import org.infinispan.server.resp.logging.Log;
 import org.infinispan.util.concurrent.CompletionStages;
 import org.infinispan.util.logging.LogFactory;
@@ -12,11 +18,20 @@
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 
+/**
+ * Dispatches the decoded commands to the current {@link RespRequestHandler} and writes the replies to the channel.
+ * <p>
+ * When the pipeline depth is greater than 1, commands that {@link Resp3Command#allowsOutOfOrderExecution() allow it}
+ * do not wait for the previous commands to complete, as long as they do not share a key with a command still in
+ * progress. Each of them writes its reply to its own buffer, and the replies are sent in request order. Any other
+ * command, including every command sent inside MULTI/EXEC, waits until the commands in progress have completed.
+ */
 public class RespHandler extends ChannelInboundHandlerAdapter {
    protected final static Log log = LogFactory.getLog(RespHandler.class, Log.class);
    protected final static int MINIMUM_BUFFER_SIZE;
 
    protected final BaseRespDecoder resumeHandler;
+   protected final int pipelineDepth;
    protected RespRequestHandler requestHandler;
 
    protected ByteBuf outboundBuffer;
@@ -24,13 +39,32 @@ public class RespHandler extends ChannelInboundHandlerAdapter {
    // flush and may not want to also resume on writability changes
    protected boolean resumeAutoReadOnWritability;
 
+   // The commands running out of order, in request order
+   private final ArrayDeque<PipelinedReply> pipeline = new ArrayDeque<>();
+   // The keys of the commands running out of order
+   private final Set<WrappedByteArray> pipelinedKeys = new HashSet<>();
+   // A command waiting for the commands running out of order to complete
+   private RespCommand deferredCommand;
+   private List<byte[]> deferredArguments;
+   // Whether reading was paused until a command running out of order completes
+   private boolean waitingOnPipeline;
+   // Whether reading was paused until a command running in order completes
+   private boolean waitingOnCommand;
+   // Whether buffered replies were written to the channel without being flushed
+   private boolean writtenWithoutFlush;
+
    static {
       MINIMUM_BUFFER_SIZE = Integer.parseInt(System.getProperty("infinispan.resp.minimum-buffer-size", "4096"));
    }
 
    public RespHandler(BaseRespDecoder resumeHandler, RespRequestHandler requestHandler) {
+      this(resumeHandler, requestHandler, 1);
+   }
+
+   public RespHandler(BaseRespDecoder resumeHandler, RespRequestHandler requestHandler, int pipelineDepth) {
       this.resumeHandler = resumeHandler;
       this.requestHandler = requestHandler;
+      this.pipelineDepth = pipelineDepth;
    }
 
    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, int size) {
@@ -47,6 +81,12 @@ protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, int size) {
    }
 
    private void flushBufferIfNeeded(ChannelHandlerContext ctx, boolean runOnEventLoop) {
+      if (outboundBuffer == null && writtenWithoutFlush) {
+         writtenWithoutFlush = false;
+         ctx.flush();
+         return;
+      }
+      writtenWithoutFlush = false;
       if (outboundBuffer != null) {
          log.tracef("Writing and flushing buffer %s", outboundBuffer);
          if (runOnEventLoop) {
@@ -63,14 +103,27 @@ private void flushBufferIfNeeded(ChannelHandlerContext ctx, boolean runOnEventLo
 
    @Override
    public void channelRegistered(ChannelHandlerContext ctx) throws Exception {
-      ctx.channel().attr(RespRequestHandler.BYTE_BUF_POOL_ATTRIBUTE_KEY)
-            .set(size -> allocateBuffer(ctx, size));
+      ctx.channel().attr(RespRequestHandler.BYTE_BUF_POOL_ATTRIBUTE_KEY).set(new ByteBufPool() {
+         @Override
+         public ByteBuf apply(int size) {
+            return allocateBuffer(ctx, size);
+         }
+
+         @Override
+         public void flush() {
+            flushBufferIfNeeded(ctx, false);
+         }
+      });
       super.channelRegistered(ctx);
    }
 
    @Override
    public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
       super.channelUnregistered(ctx);
+      for (PipelinedReply reply : pipeline) {
+         reply.release();
+      }
+      pipeline.clear();
       requestHandler.handleChannelDisconnect(ctx);
    }
 
@@ -117,6 +170,23 @@ protected void handleCommandAndArguments(ChannelHandlerContext ctx, RespCommand
          log.tracef("Received command: %s with arguments %s for %s", command, Util.toStr(arguments), ctx.channel());
       }
 
+      if (pipelineDepth > 1) {
+         List<WrappedByteArray> keys = outOfOrderKeys(command, arguments);
+         if (keys != null) {
+            handleOutOfOrder(ctx, command, arguments, keys);
+            return;
+         }
+         if (!pipeline.isEmpty()) {
+            log.tracef("Disabling auto read for channel %s until pipelined commands are complete", ctx.channel());
+            // The arguments list is reused by the decoder
+            deferredCommand = command;
+            deferredArguments = new ArrayList<>(arguments);
+            ctx.channel().config().setAutoRead(false);
+            waitingOnPipeline = true;
+            return;
+         }
+      }
+
       CompletionStage<RespRequestHandler> stage = requestHandler.handleRequest(ctx, command, arguments);
       if (CompletionStages.isCompletedSuccessfully(stage)) {
          requestHandler = CompletionStages.join(stage);
@@ -133,8 +203,10 @@ protected void handleCommandAndArguments(ChannelHandlerContext ctx, RespCommand
       log.tracef("Disabling auto read for channel %s until previous command is complete", ctx.channel());
       // Disable reading any more from socket - until command is complete
       ctx.channel().config().setAutoRead(false);
+      waitingOnCommand = true;
       stage.whenComplete((handler, t) -> {
          assert ctx.channel().eventLoop().inEventLoop();
+         waitingOnCommand = false;
          if (t != null) {
             exceptionCaught(ctx, t);
             return;
@@ -147,6 +219,156 @@ protected void handleCommandAndArguments(ChannelHandlerContext ctx, RespCommand
       });
    }
 
+   /**
+    * @return the keys of the command if it can run without waiting for the commands in progress, {@code null} otherwise
+    */
+   private List<WrappedByteArray> outOfOrderKeys(RespCommand command, List<byte[]> arguments) {
+      // Transactions, subscriptions and authentication use other handlers
+      if (!(requestHandler instanceof Resp3Handler) || !(command instanceof Resp3Command) ||
+            !((Resp3Command) command).allowsOutOfOrderExecution() || command.getFirstKeyPos() <= 0 ||
+            !command.hasValidNumberOfArguments(arguments)) {
+         return null;
+      }
+      // Key positions count the command name, which is not part of the arguments
+      int lastKeyPos = command.getLastKeyPos() < 0 ? arguments.size() + command.getLastKeyPos() + 1 : command.getLastKeyPos();
+      List<WrappedByteArray> keys = new ArrayList<>(1);
+      for (int pos = command.getFirstKeyPos(); pos <= Math.min(lastKeyPos, arguments.size()); pos += Math.max(command.getSteps(), 1)) {
+         WrappedByteArray key = new WrappedByteArray(arguments.get(pos - 1));
+         if (pipelinedKeys.contains(key)) {
+            // Commands on the same key must run in order
+            return null;
+         }
+         keys.add(key);
+      }
+      return keys;
+   }
+
+   private void handleOutOfOrder(ChannelHandlerContext ctx, RespCommand command, List<byte[]> arguments, List<WrappedByteArray> keys) {
+      PipelinedReply reply = new PipelinedReply(ctx, keys);
+      pipeline.addLast(reply);
+      pipelinedKeys.addAll(keys);
+
+      ByteBufPool allocator = requestHandler.allocatorToUse;
+      requestHandler.allocatorToUse = reply;
+      CompletionStage<RespRequestHandler> stage;
+      try {
+         // The arguments list is reused by the decoder
+         stage = requestHandler.handleRequest(ctx, command, new ArrayList<>(arguments));
+      } finally {
+         requestHandler.allocatorToUse = allocator;
+      }
+
+      if (CompletionStages.isCompletedSuccessfully(stage)) {
+         completeOutOfOrder(ctx, reply);
+      } else {
+         stage.whenComplete((ignore, t) -> {
+            assert ctx.channel().eventLoop().inEventLoop();
+            if (t != null) {
+               // The replies of the following commands are waiting on this one, so it replies with the error
+               log.unexpectedException(t);
+               Resp3Handler.handleThrowable(reply, t);
+            }
+            completeOutOfOrder(ctx, reply);
+            flushBufferIfNeeded(ctx, false);
+            resumeAfterPipeline(ctx);
+         });
+      }
+
+      if (pipeline.size() >= pipelineDepth) {
+         log.tracef("Disabling auto read for channel %s as %d pipelined commands are in progress", ctx.channel(), pipeline.size());
+         ctx.channel().config().setAutoRead(false);
+         waitingOnPipeline = true;
+      }
+   }
+
+   private void completeOutOfOrder(ChannelHandlerContext ctx, PipelinedReply reply) {
+      reply.done = true;
+      pipelinedKeys.removeAll(reply.keys);
+      // Send the replies that are now first in request order
+      while (!pipeline.isEmpty() && pipeline.peekFirst().done) {
+         pipeline.removeFirst();
+         PipelinedReply next = pipeline.peekFirst();
+         if (next != null) {
+            next.writeBuffered(ctx);
+         }
+      }
+   }
+
+   private void resumeAfterPipeline(ChannelHandlerContext ctx) {
+      if (!waitingOnPipeline) {
+         return;
+      }
+      if (deferredCommand != null) {
+         if (!pipeline.isEmpty()) {
+            return;
+         }
+         RespCommand command = deferredCommand;
+         List<byte[]> arguments = deferredArguments;
+         deferredCommand = null;
+         deferredArguments = null;
+         waitingOnPipeline = false;
+         handleCommandAndArguments(ctx, command, arguments);
+         // The command may have paused reading again
+         if (waitingOnPipeline || waitingOnCommand || resumeAutoReadOnWritability) {
+            return;
+         }
+      } else if (pipeline.size() >= pipelineDepth) {
+         return;
+      }
+      waitingOnPipeline = false;
+      flushBufferIfNeeded(ctx, false);
+      log.tracef("Re-enabling auto read for channel %s as pipelined commands are complete", ctx.channel());
+      resumeAutoRead(ctx);
+   }
+
+   /**
+    * The allocator of a command running out of order. The first command in request order writes directly to the
+    * outbound buffer, the following ones buffer their reply until all the previous replies have been written.
+    */
+   private class PipelinedReply implements ByteBufPool {
+      private final ChannelHandlerContext ctx;
+      private final List<WrappedByteArray> keys;
+      private ByteBuf buffer;
+      private boolean done;
+
+      PipelinedReply(ChannelHandlerContext ctx, List<WrappedByteArray> keys) {
+         this.ctx = ctx;
+         this.keys = keys;
+      }
+
+      @Override
+      public ByteBuf apply(int size) {
+         if (pipeline.peekFirst() == this) {
+            return allocateBuffer(ctx, size);
+         }
+         if (buffer == null) {
+            buffer = ctx.alloc().buffer(size);
+         } else {
+            buffer.ensureWritable(size);
+         }
+         return buffer;
+      }
+
+      void writeBuffered(ChannelHandlerContext ctx) {
+         if (buffer != null) {
+            if (outboundBuffer != null) {
+               ctx.write(outboundBuffer, ctx.voidPromise());
+               outboundBuffer = null;
+            }
+            ctx.write(buffer, ctx.voidPromise());
+            buffer = null;
+            writtenWithoutFlush = true;
+         }
+      }
+
+      void release() {
+         if (buffer != null) {
+            buffer.release();
+            buffer = null;
+         }
+      }
+   }
+
    @Override
    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
       log.unexpectedException(cause);
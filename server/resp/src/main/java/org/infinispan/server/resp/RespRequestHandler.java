@@ -121,13 +121,15 @@ private <E> CompletionStage<RespRequestHandler> stageToReturn(CompletionStage<E>
       // Only one or the other can be null
       assert (biConsumer != null && handlerWhenComplete == null) || (biConsumer == null && handlerWhenComplete != null) :
             "triConsumer was: " + biConsumer + " and handlerWhenComplete was: " + handlerWhenComplete;
+      // Capture the allocator, a pipelined request writes its reply to its own allocator
+      ByteBufPool alloc = allocatorToUse;
       if (CompletionStages.isCompletedSuccessfully(stage)) {
          E result = CompletionStages.join(stage);
          try {
             if (handlerWhenComplete != null) {
                return CompletableFuture.completedFuture(handlerWhenComplete.apply(result));
             }
-            biConsumer.accept(result, allocatorToUse);
+            biConsumer.accept(result, alloc);
          } catch (Throwable t) {
             return CompletableFuture.failedFuture(t);
          }
@@ -138,10 +140,10 @@ private <E> CompletionStage<RespRequestHandler> stageToReturn(CompletionStage<E>
          // until this request completes, meaning the thenApply will always be invoked in the event loop as well
          return CompletionStages.handleAndComposeAsync(stage, (e, t) -> {
             if (t != null) {
-               Resp3Handler.handleThrowable(allocatorToUse, t);
+               Resp3Handler.handleThrowable(alloc, t);
             } else {
                try {
-                  biConsumer.accept(e, allocatorToUse);
+                  biConsumer.accept(e, alloc);
                } catch (Throwable innerT) {
                   return CompletableFuture.failedFuture(innerT);
                }
@@ -2,6 +2,7 @@
 
 import static org.infinispan.commons.logging.Log.CONFIG;
 
+
 import org.infinispan.AdvancedCache;
 import org.infinispan.commons.dataconversion.MediaType;
 import org.infinispan.commons.logging.Log;
@@ -10,7 +11,10 @@
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.distribution.ch.impl.CRC16HashFunctionPartitioner;
+import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.factories.GlobalComponentRegistry;
 import org.infinispan.security.actions.SecurityActions;
 import org.infinispan.server.core.AbstractProtocolServer;
@@ -20,6 +24,7 @@
 import org.infinispan.server.iteration.ExternalSourceIterationManager;
 import org.infinispan.server.resp.configuration.RespServerConfiguration;
 import org.infinispan.server.resp.filter.GlobMatchFilterConverterFactory;
+import org.infinispan.server.resp.scripting.RespScripts;
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInboundHandler;
@@ -40,6 +45,11 @@ public class RespServer extends AbstractProtocolServer<RespServerConfiguration>
    private DefaultIterationManager iterationManager;
    private ExternalSourceIterationManager dataStructureIterationManager;
    private TimeService timeService;
+   private BlockingCommandManager blockingCommandManager;
+   private RespScripts scripts;
+   private final ScanStatistics scanStatistics = new ScanStatistics();
+   private DataContainer<?, ?> dataContainer;
+   private boolean keyPrefixIndex;
 
    public RespServer() {
       super("Resp");
@@ -49,6 +59,8 @@ public RespServer() {
    protected void startInternal() {
       GlobalComponentRegistry gcr = SecurityActions.getGlobalComponentRegistry(cacheManager);
       this.timeService = gcr.getTimeService();
+      this.blockingCommandManager = new BlockingCommandManager();
+      this.scripts = new RespScripts(configuration, timeService, getBlockingManager().asExecutor("resp-script"));
       this.iterationManager = new DefaultIterationManager(gcr.getTimeService());
       this.dataStructureIterationManager = new ExternalSourceIterationManager(gcr.getTimeService());
       iterationManager.addKeyValueFilterConverterFactory(GlobMatchFilterConverterFactory.class.getName(), new GlobMatchFilterConverterFactory());
@@ -89,6 +101,29 @@ protected void startInternal() {
          throw CONFIG.respCacheKeyMediaTypeSupplied(cacheName, explicitConfiguration.encoding().keyDataType().mediaType());
       }
       super.startInternal();
+      AdvancedCache<?, ?> cache = SecurityActions.getUnwrappedCache(cacheManager, cacheName).getAdvancedCache();
+      dataContainer = cache.getDataContainer();
+      if (configuration.keyPrefixIndex()) {
+         keyPrefixIndex = enableKeyPrefixIndex(cache.getCacheConfiguration());
+      }
+      // The owners of the keys run the scripts with the engines and limits of their own server
+      ComponentRegistry registry = cache.getComponentRegistry();
+      if (registry.getComponent(RespScripts.class) == null) {
+         registry.registerComponent(scripts, RespScripts.class);
+      }
+   }
+
+   private boolean enableKeyPrefixIndex(Configuration cacheConfiguration) {
+      // The index only knows the keys of the local container, which must then hold all the keys of the cache
+      if (cacheConfiguration.clustering().cacheMode().isDistributed() || cacheConfiguration.persistence().usingStores()) {
+         log.warn("The RESP key prefix index requires a local or replicated cache without persistence, SCAN will visit all the keys.");
+         return false;
+      }
+      if (dataContainer instanceof InternalDataContainer && ((InternalDataContainer<?, ?>) dataContainer).enableKeyPrefixIndex()) {
+         return true;
+      }
+      log.warn("The data container of the RESP cache does not support the key prefix index, SCAN will visit all the keys.");
+      return false;
    }
 
    @Override
@@ -144,4 +179,34 @@ public ExternalSourceIterationManager getDataStructureIterationManager() {
    public TimeService getTimeService() {
       return timeService;
    }
+
+   public BlockingCommandManager getBlockingCommandManager() {
+      return blockingCommandManager;
+   }
+
+   /**
+    * Returns the data container of the RESP cache, which must only be used for reads that are not subject to
+    * authorization
+    */
+   public DataContainer<?, ?> getDataContainer() {
+      return dataContainer;
+   }
+
+   /**
+    * Returns whether the data container of the RESP cache indexes the keys by prefix
+    */
+   public boolean isKeyPrefixIndexEnabled() {
+      return keyPrefixIndex;
+   }
+
+   public ScanStatistics getScanStatistics() {
+      return scanStatistics;
+   }
+
+   /**
+    * Returns the scripts of this server, which EVALSHA can run
+    */
+   public RespScripts getScripts() {
+      return scripts;
+   }
 }
@@ -1,5 +1,12 @@
 package org.infinispan.server.resp;
 
+import org.infinispan.multimap.impl.HashMapBucket;
+import org.infinispan.multimap.impl.HyperLogLogBucket;
+import org.infinispan.multimap.impl.ListBucket;
+import org.infinispan.multimap.impl.SetBucket;
+import org.infinispan.multimap.impl.SortedSetBucket;
+import org.infinispan.multimap.impl.StreamBucket;
+
 /**
  * @since 15.0
  **/
@@ -12,5 +19,26 @@ public enum RespTypes {
    string,
    zset,
    // Not a real Resp type
-   unknown
+   unknown;
+
+   /**
+    * @return the type of a key from the class of the value in the cache
+    */
+   public static RespTypes fromValueClass(Class<?> c) {
+      if (c == HashMapBucket.class) {
+         return hash;
+      } else if (c == ListBucket.class) {
+         return list;
+      } else if (c == SetBucket.class) {
+         return set;
+      } else if (c == SortedSetBucket.class) {
+         return zset;
+      } else if (c == StreamBucket.class) {
+         return stream;
+      } else if (c == byte[].class || c == HyperLogLogBucket.class) {
+         // Redis stores HyperLogLogs as strings
+         return string;
+      }
+      return unknown;
+   }
 }
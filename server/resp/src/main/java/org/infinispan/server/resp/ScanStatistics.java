@@ -0,0 +1,48 @@
+package org.infinispan.server.resp;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the key iterations started by SCAN and KEYS and the number of keys they visited, which is the cost of the
+ * iteration regardless of how many keys matched its pattern.
+ * <p>
+ * An iteration using the key prefix index visits the indexed keys starting with the literal prefix of the pattern.
+ * Other iterations visit every key of the cache, which is counted as the number of entries of the local data container
+ * when the iteration starts.
+ *
+ * @since 15.0
+ */
+public class ScanStatistics {
+   private final LongAdder scans = new LongAdder();
+   private final LongAdder indexedScans = new LongAdder();
+   private final LongAdder keysVisited = new LongAdder();
+
+   /**
+    * Records an iteration over all the keys of the cache.
+    */
+   public void fullScan(long keys) {
+      scans.increment();
+      keysVisited.add(keys);
+   }
+
+   /**
+    * Records an iteration using the key prefix index, once it is closed.
+    */
+   public void indexedScan(long keys) {
+      scans.increment();
+      indexedScans.increment();
+      keysVisited.add(keys);
+   }
+
+   public long scans() {
+      return scans.sum();
+   }
+
+   public long indexedScans() {
+      return indexedScans.sum();
+   }
+
+   public long keysVisited() {
+      return keysVisited.sum();
+   }
+}
@@ -108,6 +108,30 @@ public static boolean isPositiveInf(byte[] arg) {
       return arg[0] == (byte) '+' && arg[1] == (byte) 'i' && arg[2] == (byte) 'n' && arg[3] == (byte) 'f';
    }
 
+   /**
+    * Parses the timeout of a blocking command, in seconds with an optional decimal part.
+    *
+    * @param argument, byte[]
+    * @return the timeout in milliseconds, 0 to wait forever
+    * @throws NumberFormatException if the timeout is not a valid number or is negative
+    */
+   public static long toTimeoutMillis(byte[] argument) {
+      double seconds;
+      try {
+         seconds = toDouble(argument);
+      } catch (NumberFormatException e) {
+         throw new NumberFormatException("timeout is not a float or out of range");
+      }
+      if (Double.isNaN(seconds) || Double.isInfinite(seconds)) {
+         throw new NumberFormatException("timeout is not a float or out of range");
+      }
+      if (seconds < 0) {
+         throw new NumberFormatException("timeout is negative");
+      }
+      // Round up, so that a small timeout does not mean waiting forever
+      return (long) Math.ceil(seconds * 1000);
+   }
+
    public static byte[] toByteArray(long value) {
       int size = ByteBufferUtils.stringSize(value);
       ByteBuf buf = Unpooled.wrappedBuffer(new byte[size]);
@@ -5,6 +5,13 @@
 import java.util.List;
 
 import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.commands.bitmap.BITCOUNT;
+import org.infinispan.server.resp.commands.bitmap.BITFIELD;
+import org.infinispan.server.resp.commands.bitmap.BITFIELD_RO;
+import org.infinispan.server.resp.commands.bitmap.BITOP;
+import org.infinispan.server.resp.commands.bitmap.BITPOS;
+import org.infinispan.server.resp.commands.bitmap.GETBIT;
+import org.infinispan.server.resp.commands.bitmap.SETBIT;
 import org.infinispan.server.resp.commands.cluster.CLUSTER;
 import org.infinispan.server.resp.commands.connection.AUTH;
 import org.infinispan.server.resp.commands.connection.CLIENT;
@@ -26,6 +33,7 @@
 import org.infinispan.server.resp.commands.generic.EXPIRETIME;
 import org.infinispan.server.resp.commands.generic.FLUSHALL;
 import org.infinispan.server.resp.commands.generic.FLUSHDB;
+import org.infinispan.server.resp.commands.generic.KEYS;
 import org.infinispan.server.resp.commands.generic.PEXPIRETIME;
 import org.infinispan.server.resp.commands.generic.PTTL;
 import org.infinispan.server.resp.commands.generic.SCAN;
@@ -45,6 +53,12 @@
 import org.infinispan.server.resp.commands.hash.HSCAN;
 import org.infinispan.server.resp.commands.hash.HSET;
 import org.infinispan.server.resp.commands.hash.HVALS;
+import org.infinispan.server.resp.commands.hll.PFADD;
+import org.infinispan.server.resp.commands.hll.PFCOUNT;
+import org.infinispan.server.resp.commands.hll.PFMERGE;
+import org.infinispan.server.resp.commands.list.BLMOVE;
+import org.infinispan.server.resp.commands.list.BLPOP;
+import org.infinispan.server.resp.commands.list.BRPOP;
 import org.infinispan.server.resp.commands.list.LINDEX;
 import org.infinispan.server.resp.commands.list.LINSERT;
 import org.infinispan.server.resp.commands.list.LLEN;
@@ -67,12 +81,16 @@
 import org.infinispan.server.resp.commands.pubsub.PUNSUBSCRIBE;
 import org.infinispan.server.resp.commands.pubsub.SUBSCRIBE;
 import org.infinispan.server.resp.commands.pubsub.UNSUBSCRIBE;
+import org.infinispan.server.resp.commands.scripting.EVAL;
+import org.infinispan.server.resp.commands.scripting.EVALSHA;
+import org.infinispan.server.resp.commands.scripting.SCRIPT;
 import org.infinispan.server.resp.commands.set.SADD;
 import org.infinispan.server.resp.commands.set.SCARD;
 import org.infinispan.server.resp.commands.set.SINTER;
 import org.infinispan.server.resp.commands.set.SINTERCARD;
 import org.infinispan.server.resp.commands.set.SINTERSTORE;
 import org.infinispan.server.resp.commands.set.SMEMBERS;
+import org.infinispan.server.resp.commands.sortedset.BZPOPMIN;
 import org.infinispan.server.resp.commands.sortedset.ZADD;
 import org.infinispan.server.resp.commands.sortedset.ZCARD;
 import org.infinispan.server.resp.commands.sortedset.ZCOUNT;
@@ -96,6 +114,17 @@
 import org.infinispan.server.resp.commands.sortedset.ZSCORE;
 import org.infinispan.server.resp.commands.sortedset.ZUNION;
 import org.infinispan.server.resp.commands.sortedset.ZUNIONSTORE;
+import org.infinispan.server.resp.commands.stream.XACK;
+import org.infinispan.server.resp.commands.stream.XADD;
+import org.infinispan.server.resp.commands.stream.XDEL;
+import org.infinispan.server.resp.commands.stream.XGROUP;
+import org.infinispan.server.resp.commands.stream.XLEN;
+import org.infinispan.server.resp.commands.stream.XPENDING;
+import org.infinispan.server.resp.commands.stream.XRANGE;
+import org.infinispan.server.resp.commands.stream.XREAD;
+import org.infinispan.server.resp.commands.stream.XREADGROUP;
+import org.infinispan.server.resp.commands.stream.XREVRANGE;
+import org.infinispan.server.resp.commands.stream.XTRIM;
 import org.infinispan.server.resp.commands.string.APPEND;
 import org.infinispan.server.resp.commands.string.DECR;
 import org.infinispan.server.resp.commands.string.DECRBY;
@@ -130,25 +159,28 @@ public final class Commands {
       // NOTE that the order within the sub array matters, commands we want to have the lowest latency should be first
       // in this array as they are looked up sequentially for matches
       ALL_COMMANDS[0] = new RespCommand[]{new APPEND(), new AUTH()};
+      ALL_COMMANDS[1] = new RespCommand[]{new BLPOP(), new BRPOP(), new BLMOVE(), new BZPOPMIN(), new BITCOUNT(), new BITFIELD(), new BITFIELD_RO(), new BITOP(), new BITPOS()};
       ALL_COMMANDS[2] = new RespCommand[]{new CONFIG(), new COMMAND(), new CLUSTER(), new CLIENT() };
       // DEL should always be first here
       ALL_COMMANDS[3] = new RespCommand[]{new DEL(), new DECR(), new DECRBY(), new DBSIZE()};
-      ALL_COMMANDS[4] = new RespCommand[]{new ECHO(), new EXISTS(), new EXPIRE(), new EXPIREAT(), new EXPIRETIME(), new EXEC()};
+      ALL_COMMANDS[4] = new RespCommand[]{new ECHO(), new EXISTS(), new EXPIRE(), new EXPIREAT(), new EXPIRETIME(), new EXEC(), new EVAL(), new EVALSHA()};
       ALL_COMMANDS[5] = new RespCommand[]{new FLUSHDB(), new FLUSHALL()};
       // GET should always be first here
-      ALL_COMMANDS[6] = new RespCommand[]{new GET(), new GETDEL(), new GETEX(), new GETRANGE()};
+      ALL_COMMANDS[6] = new RespCommand[]{new GET(), new GETDEL(), new GETEX(), new GETRANGE(), new GETBIT()};
       ALL_COMMANDS[7] = new RespCommand[]{new HELLO(), new HGET(), new HSET(), new HLEN(), new HEXISTS(), new HDEL(), new HMGET(), new HKEYS(), new HVALS(), new HSCAN(), new HGETALL(), new HMSET(), new HINCRBY(), new HINCRBYFLOAT(), new HRANDFIELD()};
       ALL_COMMANDS[8] = new RespCommand[]{new INCR(), new INCRBY(), new INCRBYFLOAT(), new INFO()};
+      ALL_COMMANDS[10] = new RespCommand[]{new KEYS()};
       ALL_COMMANDS[11] = new RespCommand[]{new LINDEX(), new LINSERT(), new LPUSH(), new LPUSHX(), new LPOP(), new LRANGE(), new LLEN(), new LPOS(), new LREM(), new LSET(), new LTRIM(), new LMOVE(), new LMPOP() };
       ALL_COMMANDS[12] = new RespCommand[]{new MGET(), new MSET(), new MULTI(), new MODULE(), new MEMORY()};
-      ALL_COMMANDS[15] = new RespCommand[]{new PUBLISH(), new PING(), new PSUBSCRIBE(), new PUNSUBSCRIBE(), new PTTL(), new PEXPIRETIME()};
+      ALL_COMMANDS[15] = new RespCommand[]{new PUBLISH(), new PING(), new PSUBSCRIBE(), new PUNSUBSCRIBE(), new PTTL(), new PEXPIRETIME(), new PFADD(), new PFCOUNT(), new PFMERGE()};
       ALL_COMMANDS[16] = new RespCommand[]{new QUIT()};
       ALL_COMMANDS[17] = new RespCommand[]{new RPUSH(), new RPUSHX(), new RPOP(), new RESET(), new READWRITE(), new READONLY(), new RPOPLPUSH() };
       // SET should always be first here
-      ALL_COMMANDS[18] = new RespCommand[]{new SET(), new SMEMBERS(), new SADD(), new STRLEN(), new SCARD(), new SINTER(), new SINTERSTORE(), new SINTERCARD(), new SUBSCRIBE(), new SELECT(), new STRALGO(), new SCAN(), new SETRANGE()};
+      ALL_COMMANDS[18] = new RespCommand[]{new SET(), new SMEMBERS(), new SADD(), new STRLEN(), new SCARD(), new SINTER(), new SINTERSTORE(), new SINTERCARD(), new SUBSCRIBE(), new SELECT(), new STRALGO(), new SCAN(), new SETRANGE(), new SETBIT(), new SCRIPT()};
       ALL_COMMANDS[19] = new RespCommand[]{new TTL(), new TYPE()};
       ALL_COMMANDS[20] = new RespCommand[]{new UNSUBSCRIBE(), new UNWATCH()};
       ALL_COMMANDS[22] = new RespCommand[]{new WATCH()};
+      ALL_COMMANDS[23] = new RespCommand[]{new XACK(), new XADD(), new XDEL(), new XGROUP(), new XLEN(), new XPENDING(), new XRANGE(), new XREAD(), new XREADGROUP(), new XREVRANGE(), new XTRIM()};
       ALL_COMMANDS[25] = new RespCommand[]{new ZADD(), new ZCARD(), new ZCOUNT(), new ZDIFF(), new ZDIFFSTORE(), new ZINCRBY(), new ZINTER(), new ZINTERSTORE(),
             new ZPOPMAX(), new ZPOPMIN(), new ZRANGE(), new ZRANGESTORE(), new ZREVRANGE(), new ZRANGEBYSCORE(), new ZRANK(), new ZREVRANGEBYSCORE(),
             new ZRANGEBYLEX(), new ZREVRANGEBYLEX(), new ZREVRANK(), new ZSCORE(), new ZMSCORE(), new ZUNION(), new ZUNIONSTORE() };
@@ -15,6 +15,7 @@
 import org.infinispan.server.resp.Resp3Handler;
 import org.infinispan.server.resp.RespCommand;
 import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.ScanStatistics;
 
 import io.netty.channel.ChannelHandlerContext;
 
@@ -265,6 +266,10 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
          sb.append("io_threaded_writes_processed:0\r\n");
          sb.append("reply_buffer_shrinks:0\r\n");
          sb.append("reply_buffer_expands:0\r\n");
+         ScanStatistics scanStatistics = handler.respServer().getScanStatistics();
+         sb.append("scan_total:").append(scanStatistics.scans()).append(CRLF_STRING);
+         sb.append("scan_indexed_total:").append(scanStatistics.indexedScans()).append(CRLF_STRING);
+         sb.append("scan_keys_visited:").append(scanStatistics.keysVisited()).append(CRLF_STRING);
          sb.append(CRLF_STRING);
       }
 
@@ -15,6 +15,18 @@ public interface Resp3Command {
 
    CompletionStage<RespRequestHandler> perform(Resp3Handler handler, ChannelHandlerContext ctx, List<byte[]> arguments);
 
+   /**
+    * Whether the command can run while previous commands of the same connection are still in progress, when the
+    * connection pipelines requests. Such a command must only access the keys found at its key positions, must write
+    * its reply before {@link #perform(Resp3Handler, ChannelHandlerContext, List)} returns or through
+    * {@link Resp3Handler#stageToReturn}, and must keep the current handler.
+    *
+    * @return {@code true} if the command can be executed out of order, {@code false} otherwise
+    */
+   default boolean allowsOutOfOrderExecution() {
+      return false;
+   }
+
    default CompletionStage<RespRequestHandler> handleException(Resp3Handler handler, Throwable t) {
       Throwable ex = t;
       if (t instanceof CompletionException) {
@@ -0,0 +1,58 @@
+package org.infinispan.server.resp.commands.bitmap;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/bitcount/
+ *
+ * Counts the number of set bits in a string, optionally in a range of bytes or bits. The bits are counted on the
+ * owner of the key.
+ *
+ * @since 15.0
+ */
+public class BITCOUNT extends RespCommand implements Resp3Command {
+   public BITCOUNT() {
+      super(-2, 1, 1, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      long start = 0;
+      long end = -1;
+      boolean bitUnit = false;
+      try {
+         if (arguments.size() == 2 || arguments.size() > 4) {
+            throw new IllegalArgumentException(BitmapArgs.ERR_SYNTAX);
+         }
+         if (arguments.size() > 2) {
+            start = BitmapArgs.integer(arguments.get(1));
+            end = BitmapArgs.integer(arguments.get(2));
+         }
+         if (arguments.size() > 3) {
+            bitUnit = BitmapArgs.bitUnit(arguments.get(3));
+         }
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+      return handler.stageToReturn(handler.getBitmapCache().bitCount(arguments.get(0), start, end, bitUnit), ctx,
+            Consumers.LONG_BICONSUMER);
+   }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
+}
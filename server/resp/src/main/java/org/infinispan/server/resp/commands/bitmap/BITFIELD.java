@@ -0,0 +1,53 @@
+package org.infinispan.server.resp.commands.bitmap;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.multimap.impl.BitfieldOperation;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/bitfield/
+ *
+ * Treats a string as an array of integers of any width and offset, and reads, sets or increments them. All the
+ * sub commands run atomically on the owner of the key. Returns the result of each GET, SET and INCRBY.
+ *
+ * @since 15.0
+ */
+public class BITFIELD extends RespCommand implements Resp3Command {
+   public BITFIELD() {
+      super(-2, 1, 1, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      return bitfield(handler, ctx, arguments, false);
+   }
+
+   static CompletionStage<RespRequestHandler> bitfield(Resp3Handler handler, ChannelHandlerContext ctx,
+         List<byte[]> arguments, boolean readOnly) {
+      List<BitfieldOperation> operations;
+      try {
+         operations = BitmapArgs.bitfield(arguments.subList(1, arguments.size()), readOnly);
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+      return handler.stageToReturn(handler.getBitmapCache().bitfield(arguments.get(0), operations), ctx,
+            Consumers.COLLECTION_LONG_BICONSUMER);
+   }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
+}
@@ -0,0 +1,36 @@
+package org.infinispan.server.resp.commands.bitmap;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/bitfield-ro/
+ *
+ * Read-only variant of BITFIELD, only accepting GET sub commands.
+ *
+ * @since 15.0
+ */
+public class BITFIELD_RO extends RespCommand implements Resp3Command {
+   public BITFIELD_RO() {
+      super(-2, 1, 1, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      return BITFIELD.bitfield(handler, ctx, arguments, true);
+   }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
+}
@@ -0,0 +1,48 @@
+package org.infinispan.server.resp.commands.bitmap;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.multimap.impl.Bitmaps;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/bitop/
+ *
+ * Performs a bitwise AND, OR, XOR or NOT between strings and stores the result in the destination key. The shorter
+ * strings are padded with zeros. Returns the length of the result, and removes the destination if it is empty.
+ *
+ * @since 15.0
+ */
+public class BITOP extends RespCommand implements Resp3Command {
+   public BITOP() {
+      super(-4, 2, -1, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      Bitmaps.Operation operation;
+      try {
+         operation = Bitmaps.Operation.valueOf(BitmapArgs.toString(arguments.get(0)));
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.syntaxError(handler.allocator());
+         return handler.myStage();
+      }
+      List<byte[]> sources = arguments.subList(2, arguments.size());
+      if (operation == Bitmaps.Operation.NOT && sources.size() != 1) {
+         RespErrorUtil.customError("BITOP NOT must be called with a single source key.", handler.allocator());
+         return handler.myStage();
+      }
+      return handler.stageToReturn(handler.getBitmapCache().bitOp(operation, arguments.get(1), sources), ctx,
+            Consumers.LONG_BICONSUMER);
+   }
+}
@@ -0,0 +1,66 @@
+package org.infinispan.server.resp.commands.bitmap;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/bitpos/
+ *
+ * Returns the position of the first bit set to 1 or 0 in a string, optionally in a range of bytes or bits. The
+ * string is searched on the owner of the key.
+ *
+ * @since 15.0
+ */
+public class BITPOS extends RespCommand implements Resp3Command {
+   public BITPOS() {
+      super(-3, 1, 1, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      boolean bit;
+      long start = 0;
+      long end = -1;
+      boolean bitUnit = false;
+      try {
+         if (arguments.size() > 5) {
+            throw new IllegalArgumentException(BitmapArgs.ERR_SYNTAX);
+         }
+         byte[] value = arguments.get(1);
+         if (value.length != 1 || (value[0] != '0' && value[0] != '1')) {
+            throw new IllegalArgumentException("The bit argument must be 1 or 0.");
+         }
+         bit = value[0] == '1';
+         if (arguments.size() > 2) {
+            start = BitmapArgs.integer(arguments.get(2));
+         }
+         if (arguments.size() > 3) {
+            end = BitmapArgs.integer(arguments.get(3));
+         }
+         if (arguments.size() > 4) {
+            bitUnit = BitmapArgs.bitUnit(arguments.get(4));
+         }
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+      return handler.stageToReturn(handler.getBitmapCache().bitPos(arguments.get(0), bit, start, end,
+            arguments.size() > 3, bitUnit), ctx, Consumers.LONG_BICONSUMER);
+   }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
+}
@@ -0,0 +1,142 @@
+package org.infinispan.server.resp.commands.bitmap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.infinispan.multimap.impl.BitfieldOperation;
+import org.infinispan.multimap.impl.Bitmaps;
+import org.infinispan.server.resp.commands.ArgumentUtils;
+
+/**
+ * Parsing of the arguments of the bitmap commands. The methods throw {@link IllegalArgumentException} with the error
+ * message to reply.
+ *
+ * @since 15.0
+ */
+final class BitmapArgs {
+   static final String ERR_OFFSET = "bit offset is not an integer or out of range";
+   static final String ERR_NOT_INTEGER = "value is not an integer or out of range";
+   static final String ERR_SYNTAX = "syntax error";
+   static final String ERR_BITFIELD_TYPE = "Invalid bitfield type. Use something like i16 u8. Note that u64 is not supported but i64 is.";
+
+   private BitmapArgs() { }
+
+   static String toString(byte[] argument) {
+      return new String(argument, StandardCharsets.US_ASCII).toUpperCase();
+   }
+
+   static long offset(byte[] argument) {
+      try {
+         long offset = ArgumentUtils.toLong(argument);
+         if (offset >= 0 && offset <= Bitmaps.MAX_BIT_OFFSET) {
+            return offset;
+         }
+      } catch (NumberFormatException e) {
+         // Reported below
+      }
+      throw new IllegalArgumentException(ERR_OFFSET);
+   }
+
+   static long integer(byte[] argument) {
+      try {
+         return ArgumentUtils.toLong(argument);
+      } catch (NumberFormatException e) {
+         throw new IllegalArgumentException(ERR_NOT_INTEGER);
+      }
+   }
+
+   /**
+    * @return whether the unit is BIT, or else BYTE
+    */
+   static boolean bitUnit(byte[] argument) {
+      switch (toString(argument)) {
+         case "BIT":
+            return true;
+         case "BYTE":
+            return false;
+         default:
+            throw new IllegalArgumentException(ERR_SYNTAX);
+      }
+   }
+
+   /**
+    * Parses the sub commands of BITFIELD.
+    *
+    * @param arguments the arguments after the key
+    * @param readOnly  whether only GET is accepted, for BITFIELD_RO
+    */
+   static List<BitfieldOperation> bitfield(List<byte[]> arguments, boolean readOnly) {
+      List<BitfieldOperation> operations = new ArrayList<>();
+      BitfieldOperation.Overflow overflow = BitfieldOperation.Overflow.WRAP;
+      int i = 0;
+      while (i < arguments.size()) {
+         String subCommand = toString(arguments.get(i));
+         if (readOnly && !subCommand.equals("GET")) {
+            throw new IllegalArgumentException("BITFIELD_RO only supports the GET subcommand");
+         }
+         switch (subCommand) {
+            case "OVERFLOW":
+               if (i + 1 >= arguments.size()) {
+                  throw new IllegalArgumentException(ERR_SYNTAX);
+               }
+               try {
+                  overflow = BitfieldOperation.Overflow.valueOf(toString(arguments.get(i + 1)));
+               } catch (IllegalArgumentException e) {
+                  throw new IllegalArgumentException("Invalid OVERFLOW type specified");
+               }
+               i += 2;
+               continue;
+            case "GET":
+            case "SET":
+            case "INCRBY":
+               BitfieldOperation.Type type = BitfieldOperation.Type.valueOf(subCommand);
+               int count = type == BitfieldOperation.Type.GET ? 3 : 4;
+               if (i + count > arguments.size()) {
+                  throw new IllegalArgumentException(ERR_SYNTAX);
+               }
+               byte[] encoding = arguments.get(i + 1);
+               boolean signed = encoding.length > 0 && (encoding[0] == 'i' || encoding[0] == 'I');
+               int bits = bits(encoding, signed);
+               long offset = bitfieldOffset(arguments.get(i + 2), bits);
+               long value = count == 4 ? integer(arguments.get(i + 3)) : 0;
+               operations.add(new BitfieldOperation(type, signed, bits, offset, value, overflow));
+               i += count;
+               continue;
+            default:
+               throw new IllegalArgumentException(ERR_SYNTAX);
+         }
+      }
+      return operations;
+   }
+
+   private static int bits(byte[] encoding, boolean signed) {
+      if (encoding.length < 2 || (!signed && encoding[0] != 'u' && encoding[0] != 'U')) {
+         throw new IllegalArgumentException(ERR_BITFIELD_TYPE);
+      }
+      long bits;
+      try {
+         bits = ArgumentUtils.toLong(Arrays.copyOfRange(encoding, 1, encoding.length));
+      } catch (NumberFormatException e) {
+         throw new IllegalArgumentException(ERR_BITFIELD_TYPE);
+      }
+      if (bits < 1 || bits > (signed ? 64 : 63)) {
+         throw new IllegalArgumentException(ERR_BITFIELD_TYPE);
+      }
+      return (int) bits;
+   }
+
+   // The offset is either in bits, or prefixed by # and multiplied by the width of the type
+   private static long bitfieldOffset(byte[] argument, int bits) {
+      boolean multiply = argument.length > 0 && argument[0] == '#';
+      long offset = offset(multiply ? Arrays.copyOfRange(argument, 1, argument.length) : argument);
+      if (multiply) {
+         offset *= bits;
+      }
+      if (offset + bits - 1 > Bitmaps.MAX_BIT_OFFSET) {
+         throw new IllegalArgumentException(ERR_OFFSET);
+      }
+      return offset;
+   }
+}
@@ -0,0 +1,46 @@
+package org.infinispan.server.resp.commands.bitmap;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/getbit/
+ *
+ * Returns the bit value at offset in the string value stored at key. The bit is read on the owner of the key.
+ *
+ * @since 15.0
+ */
+public class GETBIT extends RespCommand implements Resp3Command {
+   public GETBIT() {
+      super(3, 1, 1, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      long offset;
+      try {
+         offset = BitmapArgs.offset(arguments.get(1));
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+      return handler.stageToReturn(handler.getBitmapCache().getBit(arguments.get(0), offset)
+            .thenApply(bit -> bit ? 1L : 0L), ctx, Consumers.LONG_BICONSUMER);
+   }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
+}
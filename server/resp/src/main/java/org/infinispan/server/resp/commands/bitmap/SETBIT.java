@@ -0,0 +1,53 @@
+package org.infinispan.server.resp.commands.bitmap;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/setbit/
+ *
+ * Sets or clears the bit at offset in the string value stored at key, growing the string if needed. Returns the
+ * original bit value. The bit is updated on the owner of the key.
+ *
+ * @since 15.0
+ */
+public class SETBIT extends RespCommand implements Resp3Command {
+   public SETBIT() {
+      super(4, 1, 1, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      long offset;
+      boolean bit;
+      try {
+         offset = BitmapArgs.offset(arguments.get(1));
+         byte[] value = arguments.get(2);
+         if (value.length != 1 || (value[0] != '0' && value[0] != '1')) {
+            throw new IllegalArgumentException("bit is not an integer or out of range");
+         }
+         bit = value[0] == '1';
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+      return handler.stageToReturn(handler.getBitmapCache().setBit(arguments.get(0), offset, bit)
+            .thenApply(previous -> previous ? 1L : 0L), ctx, Consumers.LONG_BICONSUMER);
+   }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
+}
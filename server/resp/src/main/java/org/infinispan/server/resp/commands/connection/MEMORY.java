@@ -2,27 +2,59 @@
 
 import static org.infinispan.server.resp.RespConstants.CRLF_STRING;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.CompletionStage;
 
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.offheap.OffHeapMemoryAllocator;
+import org.infinispan.multimap.impl.BucketSizeCalculator;
 import org.infinispan.security.AuthorizationPermission;
+import org.infinispan.server.resp.ByteBufPool;
 import org.infinispan.server.resp.ByteBufferUtils;
 import org.infinispan.server.resp.Consumers;
 import org.infinispan.server.resp.Resp3Handler;
 import org.infinispan.server.resp.RespCommand;
 import org.infinispan.server.resp.RespErrorUtil;
 import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.RespTypes;
+import org.infinispan.server.resp.commands.ArgumentUtils;
 import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.util.concurrent.BlockingManager;
 
 import io.netty.channel.ChannelHandlerContext;
 
 /**
  * <a href="https://redis.io/commands/memory/">MEMORY</a>
+ * <p>
+ * The sizes are estimated with the entry size calculators used by memory based eviction, extended to the buckets of
+ * the multimap types by {@link BucketSizeCalculator}. {@code MEMORY STATS} and {@code MEMORY BIGKEYS} only look at
+ * the entries stored in this node.
+ * <p>
+ * {@code MEMORY BIGKEYS [COUNT keys] [SAMPLES elements]} is not a Redis command: it does on the server the scan of
+ * {@code redis-cli --bigkeys}, returning for every type the biggest key, its size, the number of keys and their total
+ * size. At most {@code COUNT} keys are scanned, all of them by default.
  *
  * @since 15.0
  */
 public class MEMORY extends RespCommand implements Resp3Command {
+   // The number of entries measured by MEMORY STATS to estimate the size of the dataset
+   static final int STATS_SAMPLES = 10_000;
+
    public MEMORY() {
       super(-2, 0, 0, 0);
    }
@@ -34,57 +66,242 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler, Channel
       String subcommand = new String(arguments.get(0), StandardCharsets.US_ASCII).toUpperCase();
       switch (subcommand) {
          case "STATS":
-            StringBuilder sb = new StringBuilder();
-            sb.append("*54\r\n");
-            addStat(sb, "peak.allocated", 0); //1
-            addStat(sb, "total.allocated", 0); //3
-            addStat(sb, "startup.allocated", 0); //5
-            addStat(sb, "replication.backlog", 0);//7
-            addStat(sb, "clients.slaves", 0); //9
-            addStat(sb, "clients.normal", 0); //11
-            addStat(sb, "cluster.links", 0); //13
-            addStat(sb, "aof.buffer", 0); //15
-            addStat(sb, "lua.caches", 0); //17
-            addStat(sb, "functions.caches", 0); //19
-            addStat(sb, "overhead.total", 0); //21
-            addStat(sb, "keys.count", 0); //23
-            addStat(sb, "keys.bytes-per-key", 0); //25
-            addStat(sb, "dataset.bytes", 0); //27
-            addStat(sb, "dataset.percentage", "0.0"); //29
-            addStat(sb, "peak.percentage", "0.0"); //31
-            addStat(sb, "allocator.allocated", 0); //33
-            addStat(sb, "allocator.active", 0); //35
-            addStat(sb, "allocator.resident", 0); //37
-            addStat(sb, "allocator-fragmentation.ratio", "0.0"); //39
-            addStat(sb, "allocator-fragmentation.bytes", 0); //41
-            addStat(sb, "allocator-rss.ratio", "0.0"); //43
-            addStat(sb, "allocator-rss.bytes", 0); //45
-            addStat(sb, "rss-overhead.ratio", "0.0"); //47
-            addStat(sb, "rss-overhead.bytes", 0); //49
-            addStat(sb, "fragmentation", "0.0"); //51
-            addStat(sb, "fragmentation.bytes", 0); //53
-            ByteBufferUtils.stringToByteBufAscii(sb, handler.allocator());
-            break;
+            return handler.stageToReturn(blockingManager(handler).supplyBlocking(() -> stats(handler.cache()), "memory-stats"),
+                  ctx, ByteBufferUtils::stringToByteBufAscii);
          case "USAGE":
-            if (arguments.size() < 2) {
-               RespErrorUtil.wrongArgumentCount(this, handler.allocator());
-               return handler.myStage();
-            } else {
-               byte[] key = arguments.get(1);
-               return handler.stageToReturn(handler.cache().getAsync(key).thenApply(v ->
-                           v == null ? null : (long) (key.length + v.length + 14) / 8 * 8),
-                     ctx, Consumers.LONG_BICONSUMER);
-            }
+            return usage(handler, ctx, arguments);
+         case "BIGKEYS":
+            return bigKeys(handler, ctx, arguments);
          case "DOCTOR":
          case "MALLOC-STATS":
          case "PURGE":
             ByteBufferUtils.stringToByteBufAscii("-ERR module loading/unloading unsupported\r\n", handler.allocator());
             break;
+         default:
+            RespErrorUtil.unknownCommand(handler.allocator());
       }
       return handler.myStage();
    }
 
-   private void addStat(StringBuilder sb, String s, int i) {
+   private CompletionStage<RespRequestHandler> usage(Resp3Handler handler, ChannelHandlerContext ctx, List<byte[]> arguments) {
+      if (arguments.size() != 2 && arguments.size() != 4) {
+         RespErrorUtil.wrongArgumentCount(this, handler.allocator());
+         return handler.myStage();
+      }
+      int samples = BucketSizeCalculator.DEFAULT_SAMPLES;
+      if (arguments.size() == 4) {
+         if (!"SAMPLES".equalsIgnoreCase(new String(arguments.get(2), StandardCharsets.US_ASCII))) {
+            RespErrorUtil.syntaxError(handler.allocator());
+            return handler.myStage();
+         }
+         samples = parseCount(arguments.get(3));
+         if (samples < 0) {
+            RespErrorUtil.valueNotInteger(handler.allocator());
+            return handler.myStage();
+         }
+      }
+      byte[] key = arguments.get(1);
+      int s = samples;
+      MediaType vmt = handler.cache().getValueDataConversion().getStorageMediaType();
+      AdvancedCache<Object, Object> cache = handler.cache().withMediaType(MediaType.APPLICATION_OCTET_STREAM, vmt);
+      return handler.stageToReturn(cache.getCacheEntryAsync(key).thenApply(e -> {
+         if (e == null) {
+            return null;
+         }
+         // The entry is measured as it is stored in the data container
+         Object storageValue = cache.getValueDataConversion().toStorage(e.getValue());
+         if (storageValue != e.getValue()) {
+            // The entry is a copy made by the conversion of the value
+            e.setValue(storageValue);
+         }
+         return BucketSizeCalculator.entrySize(cache.getKeyDataConversion().toStorage(key), e, s);
+      }), ctx, Consumers.LONG_BICONSUMER);
+   }
+
+   private CompletionStage<RespRequestHandler> bigKeys(Resp3Handler handler, ChannelHandlerContext ctx, List<byte[]> arguments) {
+      if (arguments.size() % 2 == 0) {
+         RespErrorUtil.wrongArgumentCount(this, handler.allocator());
+         return handler.myStage();
+      }
+      int count = 0;
+      int samples = BucketSizeCalculator.DEFAULT_SAMPLES;
+      for (int i = 1; i < arguments.size(); i += 2) {
+         String option = new String(arguments.get(i), StandardCharsets.US_ASCII).toUpperCase();
+         int value = parseCount(arguments.get(i + 1));
+         if (value < 0) {
+            RespErrorUtil.valueNotInteger(handler.allocator());
+            return handler.myStage();
+         }
+         switch (option) {
+            case "COUNT":
+               count = value;
+               break;
+            case "SAMPLES":
+               samples = value;
+               break;
+            default:
+               RespErrorUtil.syntaxError(handler.allocator());
+               return handler.myStage();
+         }
+      }
+      int c = count;
+      int s = samples;
+      return handler.stageToReturn(blockingManager(handler).supplyBlocking(() -> scanBigKeys(handler.cache(), c, s), "memory-bigkeys"),
+            ctx, MEMORY::writeBigKeys);
+   }
+
+   private static String stats(AdvancedCache<byte[], byte[]> cache) {
+      DataContainer<Object, Object> container = dataContainer(cache);
+      long keys = container.sizeIncludingExpired();
+
+      MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+      long peakHeap = 0;
+      for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+         if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+            peakHeap += pool.getPeakUsage().getUsed();
+         }
+      }
+
+      long dataset;
+      long allocated;
+      long active;
+      long resident;
+      long fragmented;
+      long total;
+      if (cache.getCacheConfiguration().memory().storage() == StorageType.OFF_HEAP) {
+         OffHeapMemoryAllocator allocator = cache.getComponentRegistry().getComponent(OffHeapMemoryAllocator.class);
+         dataset = allocator.getAllocatedAmount();
+         allocated = dataset;
+         active = allocator.getReservedAmount();
+         resident = active;
+         fragmented = allocator.getFragmentedAmount();
+         total = heap.getUsed() + dataset;
+      } else {
+         dataset = estimateDatasetSize(container, keys);
+         allocated = heap.getUsed();
+         active = heap.getCommitted();
+         resident = active;
+         fragmented = Math.max(0, active - allocated);
+         total = heap.getUsed();
+      }
+      long peak = Math.max(total, peakHeap);
+      long overhead = Math.max(0, total - dataset);
+
+      StringBuilder sb = new StringBuilder();
+      sb.append("*54\r\n");
+      addStat(sb, "peak.allocated", peak); //1
+      addStat(sb, "total.allocated", total); //3
+      addStat(sb, "startup.allocated", 0); //5
+      addStat(sb, "replication.backlog", 0);//7
+      addStat(sb, "clients.slaves", 0); //9
+      addStat(sb, "clients.normal", 0); //11
+      addStat(sb, "cluster.links", 0); //13
+      addStat(sb, "aof.buffer", 0); //15
+      addStat(sb, "lua.caches", 0); //17
+      addStat(sb, "functions.caches", 0); //19
+      addStat(sb, "overhead.total", overhead); //21
+      addStat(sb, "keys.count", keys); //23
+      addStat(sb, "keys.bytes-per-key", keys == 0 ? 0 : dataset / keys); //25
+      addStat(sb, "dataset.bytes", dataset); //27
+      addStat(sb, "dataset.percentage", ratio(dataset * 100, total)); //29
+      addStat(sb, "peak.percentage", ratio(total * 100, peak)); //31
+      addStat(sb, "allocator.allocated", allocated); //33
+      addStat(sb, "allocator.active", active); //35
+      addStat(sb, "allocator.resident", resident); //37
+      addStat(sb, "allocator-fragmentation.ratio", ratio(active, allocated)); //39
+      addStat(sb, "allocator-fragmentation.bytes", fragmented); //41
+      addStat(sb, "allocator-rss.ratio", ratio(resident, active)); //43
+      addStat(sb, "allocator-rss.bytes", resident - active); //45
+      addStat(sb, "rss-overhead.ratio", "1.0"); //47
+      addStat(sb, "rss-overhead.bytes", 0); //49
+      addStat(sb, "fragmentation", ratio(resident, allocated)); //51
+      addStat(sb, "fragmentation.bytes", resident - allocated); //53
+      return sb.toString();
+   }
+
+   /**
+    * Measures the first entries of the container and extrapolates the result to all of them.
+    */
+   private static long estimateDatasetSize(DataContainer<Object, Object> container, long keys) {
+      int measured = 0;
+      long size = 0;
+      Iterator<InternalCacheEntry<Object, Object>> it = container.iteratorIncludingExpired();
+      while (it.hasNext() && measured < STATS_SAMPLES) {
+         InternalCacheEntry<Object, Object> entry = it.next();
+         size += sizeOf(entry, BucketSizeCalculator.DEFAULT_SAMPLES);
+         measured++;
+      }
+      return measured == 0 || measured >= keys ? size : (long) ((double) size / measured * keys);
+   }
+
+   private static List<BigKey> scanBigKeys(AdvancedCache<byte[], byte[]> cache, int count, int samples) {
+      DataContainer<Object, Object> container = dataContainer(cache);
+      Map<RespTypes, BigKey> biggest = new EnumMap<>(RespTypes.class);
+      int scanned = 0;
+      Iterator<InternalCacheEntry<Object, Object>> it = container.iterator();
+      while (it.hasNext() && (count == 0 || scanned < count)) {
+         InternalCacheEntry<Object, Object> entry = it.next();
+         Object value = entry.getValue();
+         RespTypes type = value instanceof WrappedBytes ? RespTypes.string : RespTypes.fromValueClass(value.getClass());
+         long size = sizeOf(entry, samples);
+         BigKey current = biggest.computeIfAbsent(type, BigKey::new);
+         current.keys++;
+         current.totalBytes += size;
+         if (current.key == null || size > current.bytes) {
+            Object key = entry.getKey();
+            current.key = key instanceof WrappedBytes ? ((WrappedBytes) key).getBytes() : (byte[]) key;
+            current.bytes = size;
+         }
+         scanned++;
+      }
+      return new ArrayList<>(biggest.values());
+   }
+
+   private static long sizeOf(InternalCacheEntry<Object, Object> entry, int samples) {
+      try {
+         return BucketSizeCalculator.entrySize(entry.getKey(), entry, samples);
+      } catch (IllegalArgumentException e) {
+         // A value which is not a RESP type, it does not have a known size
+         return 0;
+      }
+   }
+
+   private static void writeBigKeys(List<BigKey> result, ByteBufPool alloc) {
+      Resp3Handler.writeArrayPrefix(result.size(), alloc);
+      for (BigKey bigKey : result) {
+         Resp3Handler.writeArrayPrefix(5, alloc);
+         Resp3Handler.handleBulkAsciiResult(bigKey.type.name(), alloc);
+         Consumers.BULK_BICONSUMER.accept(bigKey.key, alloc);
+         ByteBufferUtils.writeLong(bigKey.bytes, alloc);
+         ByteBufferUtils.writeLong(bigKey.keys, alloc);
+         ByteBufferUtils.writeLong(bigKey.totalBytes, alloc);
+      }
+   }
+
+   // The keys and the values are in their storage format, not byte[]
+   @SuppressWarnings("unchecked")
+   private static DataContainer<Object, Object> dataContainer(AdvancedCache<byte[], byte[]> cache) {
+      return (DataContainer) cache.getDataContainer();
+   }
+
+   private static BlockingManager blockingManager(Resp3Handler handler) {
+      return handler.cache().getComponentRegistry().getComponent(BlockingManager.class);
+   }
+
+   private static int parseCount(byte[] arg) {
+      try {
+         long value = ArgumentUtils.toLong(arg);
+         return value < 0 || value > Integer.MAX_VALUE ? -1 : (int) value;
+      } catch (NumberFormatException e) {
+         return -1;
+      }
+   }
+
+   private static String ratio(long dividend, long divisor) {
+      return divisor == 0 ? "0.0" : String.format(Locale.ROOT, "%.3f", (double) dividend / divisor);
+   }
+
+   private static void addStat(StringBuilder sb, String s, long i) {
       sb.append('$');
       sb.append(s.length());
       sb.append(CRLF_STRING);
@@ -95,7 +312,7 @@ private void addStat(StringBuilder sb, String s, int i) {
       sb.append(CRLF_STRING);
    }
 
-   private void addStat(StringBuilder sb, String s, String v) {
+   private static void addStat(StringBuilder sb, String s, String v) {
       sb.append('$');
       sb.append(s.length());
       sb.append(CRLF_STRING);
@@ -107,4 +324,20 @@ private void addStat(StringBuilder sb, String s, String v) {
       sb.append(v);
       sb.append(CRLF_STRING);
    }
+
+   /**
+    * The biggest key of a type found by {@code MEMORY BIGKEYS}, with the number and the total size of the keys of
+    * that type.
+    */
+   private static final class BigKey {
+      final RespTypes type;
+      byte[] key;
+      long bytes;
+      long keys;
+      long totalBytes;
+
+      BigKey(RespTypes type) {
+         this.type = type;
+      }
+   }
 }
@@ -2,15 +2,14 @@
 
 import java.util.List;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.atomic.AtomicLong;
 
+import org.infinispan.security.AuthorizationPermission;
 import org.infinispan.server.resp.Consumers;
 import org.infinispan.server.resp.Resp3Handler;
 import org.infinispan.server.resp.RespCommand;
 import org.infinispan.server.resp.RespRequestHandler;
 import org.infinispan.server.resp.commands.Resp3Command;
-import org.infinispan.util.concurrent.AggregateCompletionStage;
-import org.infinispan.util.concurrent.CompletionStages;
+import org.infinispan.server.resp.operation.BatchOperation;
 
 import io.netty.channel.ChannelHandlerContext;
 
@@ -29,17 +28,14 @@ public EXISTS() {
    public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
          ChannelHandlerContext ctx,
          List<byte[]> arguments) {
-      AggregateCompletionStage<Void> acs = CompletionStages.aggregateCompletionStage();
-      AtomicLong presentCount = new AtomicLong(arguments.size());
-      for (byte[] bs : arguments) {
-         acs.dependsOn(handler.cache().touch(bs, false).thenApply((v) -> {
-            if (!v) {
-               presentCount.decrementAndGet();
-            }
-            return null;
-         }));
-      }
-      return handler.stageToReturn(acs.freeze().thenApply(v -> presentCount.get()), ctx,
+      // The owners send back only the keys, the reduction does not go through the secured cache
+      handler.checkPermission(AuthorizationPermission.READ);
+      return handler.stageToReturn(BatchOperation.countPresent(handler.cache(), arguments), ctx,
             Consumers.LONG_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
@@ -0,0 +1,66 @@
+package org.infinispan.server.resp.commands.generic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.reactive.publisher.impl.DeliveryGuarantee;
+import org.infinispan.server.iteration.IterableIterationResult;
+import org.infinispan.server.iteration.IterationManager;
+import org.infinispan.server.iteration.IterationState;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.server.resp.commands.iteration.KeyPrefixIterationContext;
+import org.infinispan.server.resp.filter.GlobMatchFilterConverterFactory;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * <a href="https://redis.io/commands/keys/">KEYS</a>
+ * <p>
+ * Returns all the keys matching the pattern, as SCAN would with the same MATCH pattern, so the keys are only read from
+ * the key prefix index when it is enabled and the pattern starts with literal characters.
+ *
+ * @since 15.0
+ */
+public class KEYS extends RespCommand implements Resp3Command {
+   private static final int BATCH_SIZE = 1000;
+
+   public KEYS() {
+      super(2, 0, 0, 0);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+                                                      ChannelHandlerContext ctx,
+                                                      List<byte[]> arguments) {
+      byte[] glob = arguments.get(0);
+      KeyPrefixIterationContext iic = KeyPrefixIterationContext.create(handler, glob);
+      IterationManager manager = handler.respServer().getIterationManager();
+      CompletionStage<List<byte[]>> keys = handler.respServer().getBlockingManager().supplyBlocking(() -> {
+         IterationState state = manager.start(handler.cache(), null, GlobMatchFilterConverterFactory.class.getName(),
+               Collections.singletonList(glob), MediaType.APPLICATION_OCTET_STREAM, BATCH_SIZE, false,
+               DeliveryGuarantee.AT_LEAST_ONCE, iic);
+         try {
+            List<byte[]> result = new ArrayList<>();
+            IterableIterationResult batch;
+            do {
+               batch = manager.next(state.getId(), BATCH_SIZE);
+               for (CacheEntry<?, ?> entry : batch.getEntries()) {
+                  result.add((byte[]) entry.getKey());
+               }
+            } while (batch.getStatusCode() == IterableIterationResult.Status.Success);
+            return result;
+         } finally {
+            manager.close(state.getId());
+         }
+      }, "keys");
+      return handler.stageToReturn(keys, ctx, Consumers.COLLECTION_BULK_BICONSUMER);
+   }
+}
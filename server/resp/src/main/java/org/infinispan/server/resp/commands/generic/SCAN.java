@@ -3,14 +3,22 @@
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.server.iteration.IterationInitializationContext;
 import org.infinispan.server.iteration.IterationManager;
 import org.infinispan.server.resp.Resp3Handler;
 import org.infinispan.server.resp.commands.iteration.BaseIterationCommand;
+import org.infinispan.server.resp.commands.iteration.IterationArguments;
+import org.infinispan.server.resp.commands.iteration.KeyPrefixIterationContext;
 
 /**
  * <a href="https://redis.io/commands/scan/">SCAN</a>
+ * <p>
+ * When the keys are indexed by prefix, a MATCH pattern starting with literal characters only visits the keys with
+ * that prefix.
  *
  * @since 15.0
  */
@@ -25,6 +33,12 @@ protected IterationManager retrieveIterationManager(Resp3Handler handler) {
       return handler.respServer().getIterationManager();
    }
 
+   @Override
+   protected CompletionStage<IterationInitializationContext> initializeIteration(Resp3Handler handler, List<byte[]> arguments,
+                                                                                 IterationArguments args) {
+      return CompletableFuture.completedFuture(KeyPrefixIterationContext.create(handler, args.getMatch()));
+   }
+
    @Override
    protected String cursor(List<byte[]> raw) {
       return new String(raw.get(0), StandardCharsets.US_ASCII);
@@ -55,4 +55,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
          }
       }), ctx, Consumers.LONG_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
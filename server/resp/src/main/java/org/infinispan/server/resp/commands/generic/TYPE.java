@@ -5,10 +5,6 @@
 import java.util.concurrent.CompletionStage;
 
 import org.infinispan.commons.dataconversion.MediaType;
-import org.infinispan.multimap.impl.HashMapBucket;
-import org.infinispan.multimap.impl.ListBucket;
-import org.infinispan.multimap.impl.SetBucket;
-import org.infinispan.multimap.impl.SortedSetBucket;
 import org.infinispan.server.resp.Consumers;
 import org.infinispan.server.resp.Resp3Handler;
 import org.infinispan.server.resp.RespCommand;
@@ -38,20 +34,12 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
          if (e == null) {
             return RespTypes.none.name().getBytes(StandardCharsets.US_ASCII);
          }
-         Class<?> c = e.getValue().getClass();
-         if (c == HashMapBucket.class) {
-            return RespTypes.hash.name().getBytes(StandardCharsets.US_ASCII);
-         } else if (c == ListBucket.class) {
-            return RespTypes.list.name().getBytes(StandardCharsets.US_ASCII);
-         } else if (c == SetBucket.class) {
-            return RespTypes.set.name().getBytes(StandardCharsets.US_ASCII);
-         } else if (c == SortedSetBucket.class) {
-            return RespTypes.zset.name().getBytes(StandardCharsets.US_ASCII);
-         } else if (c == byte[].class) {
-            return RespTypes.string.name().getBytes(StandardCharsets.US_ASCII);
-         } else {
-            return RespTypes.unknown.name().getBytes(StandardCharsets.US_ASCII);
-         }
+         return RespTypes.fromValueClass(e.getValue().getClass()).name().getBytes(StandardCharsets.US_ASCII);
       }), ctx, Consumers.GET_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
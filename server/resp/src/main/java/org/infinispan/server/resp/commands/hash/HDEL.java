@@ -33,4 +33,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler, Channel
       EmbeddedMultimapPairCache<byte[], byte[], byte[]> multimap = handler.getHashMapMultimap();
       return handler.stageToReturn(multimap.remove(arguments.get(0), arguments.subList(1, arguments.size())), ctx, HSET.CONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
@@ -38,4 +38,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler, Channel
       CompletionStage<Long> cs = multimap.contains(arguments.get(0), arguments.get(1)).thenApply(CONVERTER);
       return handler.stageToReturn(cs, ctx, Consumers.LONG_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
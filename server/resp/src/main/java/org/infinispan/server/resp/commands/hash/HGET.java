@@ -33,4 +33,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler, Channel
       EmbeddedMultimapPairCache<byte[], byte[], byte[]> hashMap = handler.getHashMapMultimap();
       return handler.stageToReturn(hashMap.get(arguments.get(0), arguments.get(1)), ctx, Consumers.BULK_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
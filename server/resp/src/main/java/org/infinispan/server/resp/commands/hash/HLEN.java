@@ -32,4 +32,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler, Channel
       EmbeddedMultimapPairCache<byte[], byte[], byte[]> multimap = handler.getHashMapMultimap();
       return handler.stageToReturn(multimap.size(arguments.get(0)), ctx, HSET.CONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
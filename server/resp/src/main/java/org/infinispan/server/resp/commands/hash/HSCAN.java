@@ -12,6 +12,7 @@
 import org.infinispan.server.iteration.map.MapIterationInitializationContext;
 import org.infinispan.server.resp.Resp3Handler;
 import org.infinispan.server.resp.commands.iteration.BaseIterationCommand;
+import org.infinispan.server.resp.commands.iteration.IterationArguments;
 
 /**
  * `<code>HSCAN key cursor [MATCH pattern] [COUNT count]</code>` command.
@@ -34,7 +35,8 @@ protected IterationManager retrieveIterationManager(Resp3Handler handler) {
    }
 
    @Override
-   protected CompletionStage<IterationInitializationContext> initializeIteration(Resp3Handler handler, List<byte[]> arguments) {
+   protected CompletionStage<IterationInitializationContext> initializeIteration(Resp3Handler handler, List<byte[]> arguments,
+                                                                                 IterationArguments args) {
       EmbeddedMultimapPairCache<byte[], byte[], byte[]> multimap = handler.getHashMapMultimap();
       return multimap.get(arguments.get(0)).thenApply(entry -> {
          if (entry == null) return null;
@@ -35,4 +35,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler, Channel
 
       return handler.stageToReturn(setEntries(handler, arguments), ctx, CONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
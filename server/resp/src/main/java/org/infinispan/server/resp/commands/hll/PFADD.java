@@ -0,0 +1,41 @@
+package org.infinispan.server.resp.commands.hll;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.multimap.impl.EmbeddedHyperLogLogCache;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/pfadd/
+ *
+ * Adds all the element arguments to the HyperLogLog data structure stored at the variable name specified as first
+ * argument. Returns 1 if the HyperLogLog was created or its approximated cardinality changed, 0 otherwise.
+ *
+ * @since 15.0
+ */
+public class PFADD extends RespCommand implements Resp3Command {
+   public PFADD() {
+      super(-2, 1, 1, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      EmbeddedHyperLogLogCache<byte[]> hll = handler.getHyperLogLogCache();
+      return handler.stageToReturn(hll.add(arguments.get(0), arguments.subList(1, arguments.size()))
+            .thenApply(changed -> changed ? 1L : 0L), ctx, Consumers.LONG_BICONSUMER);
+   }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
+}
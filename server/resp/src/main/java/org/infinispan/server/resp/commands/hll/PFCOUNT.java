@@ -0,0 +1,40 @@
+package org.infinispan.server.resp.commands.hll;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.multimap.impl.EmbeddedHyperLogLogCache;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/pfcount/
+ *
+ * Returns the approximated cardinality of the HyperLogLog stored at the key, or of the union of the HyperLogLogs
+ * when more than one key is given. Keys that do not exist are counted as empty.
+ *
+ * @since 15.0
+ */
+public class PFCOUNT extends RespCommand implements Resp3Command {
+   public PFCOUNT() {
+      super(-2, 1, -1, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      EmbeddedHyperLogLogCache<byte[]> hll = handler.getHyperLogLogCache();
+      return handler.stageToReturn(hll.count(arguments), ctx, Consumers.LONG_BICONSUMER);
+   }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
+}
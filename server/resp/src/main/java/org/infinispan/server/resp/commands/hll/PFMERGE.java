@@ -0,0 +1,36 @@
+package org.infinispan.server.resp.commands.hll;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.multimap.impl.EmbeddedHyperLogLogCache;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/pfmerge/
+ *
+ * Merges the source HyperLogLogs into the destination, which then approximates the cardinality of the union of all
+ * of them. The destination is created if it does not exist, even when no source exists.
+ *
+ * @since 15.0
+ */
+public class PFMERGE extends RespCommand implements Resp3Command {
+   public PFMERGE() {
+      super(-2, 1, -1, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      EmbeddedHyperLogLogCache<byte[]> hll = handler.getHyperLogLogCache();
+      return handler.stageToReturn(hll.merge(arguments.get(0), arguments.subList(1, arguments.size())), ctx,
+            Consumers.OK_BICONSUMER);
+   }
+}
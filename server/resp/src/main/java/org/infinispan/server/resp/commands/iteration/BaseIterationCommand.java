@@ -37,7 +37,7 @@ public final CompletionStage<RespRequestHandler> perform(Resp3Handler handler, C
       String cursor = cursor(arguments);
 
       if (INITIAL_CURSOR.equals(cursor)) {
-         CompletionStage<IterationInitializationContext> initialization = initializeIteration(handler, arguments);
+         CompletionStage<IterationInitializationContext> initialization = initializeIteration(handler, arguments, args);
          if (initialization != null) {
             return initialization.thenCompose(iic -> initializeAndIterate(handler, ctx, manager, args, iic));
          }
@@ -91,7 +91,8 @@ private CompletionStage<RespRequestHandler> iterate(Resp3Handler handler, Iterat
 
    protected abstract IterationManager retrieveIterationManager(Resp3Handler handler);
 
-   protected CompletionStage<IterationInitializationContext> initializeIteration(Resp3Handler handler, List<byte[]> arguments) {
+   protected CompletionStage<IterationInitializationContext> initializeIteration(Resp3Handler handler, List<byte[]> arguments,
+                                                                                 IterationArguments args) {
       return null;
    }
 
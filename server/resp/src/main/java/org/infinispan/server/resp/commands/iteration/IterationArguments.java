@@ -41,6 +41,13 @@ public List<byte[]> getFilterConverterParams() {
       return filterConverterParams;
    }
 
+   /**
+    * Returns the glob pattern of the MATCH option, or null if there is none
+    */
+   public byte[] getMatch() {
+      return filterConverterParams == null ? null : filterConverterParams.get(0);
+   }
+
    public RespTypes getType() {
       return type;
    }
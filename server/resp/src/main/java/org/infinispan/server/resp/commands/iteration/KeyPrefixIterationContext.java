@@ -0,0 +1,121 @@
+package org.infinispan.server.resp.commands.iteration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.impl.InternalDataContainer;
+import org.infinispan.server.iteration.IterationInitializationContext;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespServer;
+import org.infinispan.server.resp.ScanStatistics;
+import org.infinispan.server.resp.logging.Log;
+import org.infinispan.stream.impl.local.AbstractLocalCacheStream;
+
+/**
+ * Iterates over the keys of the RESP cache starting with the literal prefix of a glob pattern, using the key prefix
+ * index of the data container instead of visiting all the keys.
+ * <p>
+ * The entries only have a key, as the glob filter applied afterwards does not read the value.
+ *
+ * @since 15.0
+ */
+public class KeyPrefixIterationContext implements IterationInitializationContext {
+   private static final Log log = LogFactory.getLog(KeyPrefixIterationContext.class, Log.class);
+   // Characters which do not match themselves once the glob is converted to a regular expression
+   private static final String SPECIAL_CHARACTERS = "*?[]{}()+|^$";
+
+   private final InternalDataContainer<Object, Object> container;
+   private final byte[] prefix;
+   private final ScanStatistics statistics;
+
+   private KeyPrefixIterationContext(InternalDataContainer<Object, Object> container, byte[] prefix, ScanStatistics statistics) {
+      this.container = container;
+      this.prefix = prefix;
+      this.statistics = statistics;
+   }
+
+   /**
+    * Returns the context of an iteration over the keys matching the given glob pattern, or null if the iteration has to
+    * visit all the keys of the cache, because the pattern has no literal prefix or the keys are not indexed. The
+    * iteration is counted in the {@link ScanStatistics} of the server.
+    *
+    * @param glob the pattern of the MATCH option, or null if there is none
+    */
+   public static KeyPrefixIterationContext create(Resp3Handler handler, byte[] glob) {
+      RespServer server = handler.respServer();
+      InternalDataContainer<Object, Object> container = (InternalDataContainer<Object, Object>) server.getDataContainer();
+      if (glob != null && server.isKeyPrefixIndexEnabled()) {
+         byte[] prefix = literalPrefix(glob);
+         if (prefix.length > 0 && container.keyPrefixIterator(null, prefix, null) != null) {
+            return new KeyPrefixIterationContext(container, prefix, server.getScanStatistics());
+         }
+      }
+      int keys = server.getDataContainer().sizeIncludingExpired();
+      if (log.isTraceEnabled()) {
+         log.tracef("Iteration with pattern %s visits all the %d keys", glob == null ? null : Util.toStr(glob), keys);
+      }
+      server.getScanStatistics().fullScan(keys);
+      return null;
+   }
+
+   /**
+    * Returns the bytes every key matching the glob pattern starts with, which are the characters before the first one
+    * with a special meaning in the regular expression the glob is converted to.
+    */
+   static byte[] literalPrefix(byte[] glob) {
+      String pattern = new String(glob, StandardCharsets.UTF_8);
+      if (pattern.indexOf('|') >= 0) {
+         // An alternative can match keys with another prefix
+         return Util.EMPTY_BYTE_ARRAY;
+      }
+      int end = 0;
+      while (end < pattern.length() && SPECIAL_CHARACTERS.indexOf(pattern.charAt(end)) < 0) {
+         end++;
+      }
+      if (end > 0 && end < pattern.length() && (pattern.charAt(end) == '+' || pattern.charAt(end) == '{')) {
+         // The quantifier applies to the previous character, which may then be absent
+         end = pattern.offsetByCodePoints(end, -1);
+      }
+      return pattern.substring(0, end).getBytes(StandardCharsets.UTF_8);
+   }
+
+   @Override
+   public AbstractLocalCacheStream.StreamSupplier<CacheEntry<Object, Object>, Stream<CacheEntry<Object, Object>>> getBaseStream() {
+      return this::buildStream;
+   }
+
+   private Stream<CacheEntry<Object, Object>> buildStream(IntSet segments, Set<?> keysToFilter, boolean parallel) {
+      LongAdder visited = new LongAdder();
+      Iterator<InternalCacheEntry<Object, Object>> iterator = container.keyPrefixIterator(segments, prefix, visited);
+      if (iterator == null) {
+         throw new IllegalStateException("The key prefix index is no longer available");
+      }
+      return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL | Spliterator.DISTINCT), parallel)
+            .map(KeyPrefixIterationContext::toEntry)
+            .onClose(() -> {
+               if (log.isTraceEnabled()) {
+                  log.tracef("Iteration with prefix %s visited %d keys", Util.toStr(prefix), visited.sum());
+               }
+               statistics.indexedScan(visited.sum());
+            });
+   }
+
+   private static CacheEntry<Object, Object> toEntry(InternalCacheEntry<Object, Object> ice) {
+      Object key = ice.getKey();
+      byte[] bytes = key instanceof WrappedBytes ? ((WrappedBytes) key).getBytes() : (byte[]) key;
+      return new ImmortalCacheEntry(bytes, Util.EMPTY_BYTE_ARRAY);
+   }
+}
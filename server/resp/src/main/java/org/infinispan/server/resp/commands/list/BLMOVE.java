@@ -0,0 +1,98 @@
+package org.infinispan.server.resp.commands.list;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.multimap.impl.EmbeddedMultimapListCache;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.ArgumentUtils;
+import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.server.resp.logging.Log;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * @link https://redis.io/commands/blmove/
+ * <p>
+ * The blocking version of {@link LMOVE}. When the source list is empty, the connection is blocked until an element is
+ * pushed to it or the timeout expires, then the element is moved as with {@link LMOVE}.
+ * <p>
+ * Returns the element being moved, or null after the timeout. A timeout of zero blocks forever.
+ *
+ * @since 15.0
+ */
+public class BLMOVE extends RespCommand implements Resp3Command {
+
+   public BLMOVE() {
+      super(6, 1, 2, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler, ChannelHandlerContext ctx,
+                                                      List<byte[]> arguments) {
+      byte[] source = arguments.get(0);
+      byte[] destination = arguments.get(1);
+      final String sourceWhereFrom = new String(arguments.get(2)).toUpperCase();
+      final String destinationWhereFrom = new String(arguments.get(3)).toUpperCase();
+      final boolean isSourceLeft = LMOVE.LEFT.equals(sourceWhereFrom);
+      final boolean isDestinationLeft = LMOVE.LEFT.equals(destinationWhereFrom);
+      if ((!isSourceLeft && !LMOVE.RIGHT.equals(sourceWhereFrom)) || (!isDestinationLeft && !LMOVE.RIGHT.equals(
+            destinationWhereFrom))) {
+         RespErrorUtil.syntaxError(handler.allocator());
+         return handler.myStage();
+      }
+      final long timeout;
+      try {
+         timeout = ArgumentUtils.toTimeoutMillis(arguments.get(4));
+      } catch (NumberFormatException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+
+      boolean sameList = Arrays.equals(source, destination);
+      if (!sameList) {
+         // warn when different lists
+         Log.SERVER.lmoveConsistencyMessage();
+      }
+
+      EmbeddedMultimapListCache<byte[], byte[]> listMultimap = handler.getListMultimap();
+      Function<byte[], CompletionStage<byte[]>> move;
+      if (sameList) {
+         if (isSourceLeft == isDestinationLeft) {
+            // peek the element and do nothing else
+            move = key -> listMultimap.index(key, isSourceLeft ? 0 : -1);
+         } else {
+            move = key -> listMultimap.rotate(key, isSourceLeft);
+         }
+      } else {
+         move = key -> {
+            CompletionStage<Collection<byte[]>> pollCall = isSourceLeft ?
+                  listMultimap.pollFirst(key, 1) :
+                  listMultimap.pollLast(key, 1);
+            return pollCall.thenCompose(pollResult -> {
+               if (pollResult == null || pollResult.isEmpty()) {
+                  return CompletableFutures.completedNull();
+               }
+               byte[] element = pollResult.iterator().next();
+               CompletionStage<Void> offerCall = isDestinationLeft ?
+                     listMultimap.offerFirst(destination, element) :
+                     listMultimap.offerLast(destination, element);
+               return offerCall.thenApply(ignore -> element);
+            });
+         };
+      }
+
+      CompletionStage<byte[]> moved = handler.respServer().getBlockingCommandManager()
+            .block(handler, ctx, Collections.singletonList(source), timeout, move);
+      return handler.stageToReturn(moved, ctx, Consumers.GET_BICONSUMER);
+   }
+}
@@ -0,0 +1,21 @@
+package org.infinispan.server.resp.commands.list;
+
+import org.infinispan.server.resp.commands.list.internal.BPOP;
+
+/**
+ * @link https://redis.io/commands/blpop/
+ *
+ * The blocking version of {@link LPOP}. Removes and returns the first element of the first non-empty list, checking
+ * the keys in the order they are given. When all the lists are empty, the connection is blocked until an element is
+ * pushed to one of them or the timeout expires.
+ *
+ * Returns a two-element array with the key and the removed element, or null after the timeout. A timeout of zero
+ * blocks forever.
+ *
+ * @since 15.0
+ */
+public class BLPOP extends BPOP {
+   public BLPOP() {
+      super(true);
+   }
+}
@@ -40,4 +40,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
       CompletionStage<byte[]> value = listMultimap.index(key, index);
       return handler.stageToReturn(value, ctx, Consumers.GET_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
@@ -36,4 +36,8 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
       return handler.stageToReturn(listMultimap.size(key), ctx, Consumers.LONG_BICONSUMER);
    }
 
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
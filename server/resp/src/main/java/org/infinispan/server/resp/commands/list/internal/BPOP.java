@@ -0,0 +1,55 @@
+package org.infinispan.server.resp.commands.list.internal;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.multimap.impl.EmbeddedMultimapListCache;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.ArgumentUtils;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * Abstract class for common code on blocking POP operations
+ *
+ * @since 15.0
+ */
+public abstract class BPOP extends RespCommand implements Resp3Command {
+   protected boolean first;
+
+   public BPOP(boolean first) {
+      super(-3, 1, -2, 1);
+      this.first = first;
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+                                                      ChannelHandlerContext ctx,
+                                                      List<byte[]> arguments) {
+      final long timeout;
+      try {
+         timeout = ArgumentUtils.toTimeoutMillis(arguments.get(arguments.size() - 1));
+      } catch (NumberFormatException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+
+      EmbeddedMultimapListCache<byte[], byte[]> listMultimap = handler.getListMultimap();
+      List<byte[]> keys = arguments.subList(0, arguments.size() - 1);
+      CompletionStage<Collection<byte[]>> popped = handler.respServer().getBlockingCommandManager()
+            .block(handler, ctx, keys, timeout, key -> {
+               CompletionStage<Collection<byte[]>> values = first ?
+                     listMultimap.pollFirst(key, 1) :
+                     listMultimap.pollLast(key, 1);
+               return values.thenApply(c -> c == null || c.isEmpty() ? null : Arrays.asList(key, c.iterator().next()));
+            });
+      return handler.stageToReturn(popped, ctx, Consumers.GET_ARRAY_BICONSUMER);
+   }
+}
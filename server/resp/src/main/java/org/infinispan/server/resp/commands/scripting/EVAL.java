@@ -0,0 +1,98 @@
+package org.infinispan.server.resp.commands.scripting;
+
+import static org.infinispan.server.resp.Util.utf8;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+import org.infinispan.security.AuthorizationPermission;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.ArgumentUtils;
+import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.server.resp.scripting.RespScripts;
+import org.infinispan.server.resp.scripting.ScriptFunction;
+import org.infinispan.util.concurrent.BlockingManager;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/eval/
+ *
+ * Runs a script with the given keys and arguments. The script runs on the owner of its key while the key is locked,
+ * so a read-modify-write of the key takes a single round trip and no transaction. A script can therefore declare a
+ * single key, possibly repeated, and a script without keys runs on the node that received it. Scripts are never run
+ * on the event loop.
+ * <p>
+ * The script is cached by its SHA1 digest, so that EVALSHA can run it again. Running a script requires the EXEC
+ * permission and an enabled script engine.
+ *
+ * @since 15.0
+ * @see RespScripts
+ */
+public class EVAL extends RespCommand implements Resp3Command {
+   public EVAL() {
+      super(-3, 0, 0, 0);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      handler.checkPermission(AuthorizationPermission.EXEC);
+      RespScripts scripts = handler.respServer().getScripts();
+      if (!scripts.isEnabled()) {
+         RespErrorUtil.customError("Scripting is not enabled", handler.allocator());
+         return handler.myStage();
+      }
+      String script = utf8(arguments.get(0));
+      scripts.register(script);
+      return eval(handler, ctx, script, arguments);
+   }
+
+   /**
+    * Runs the script with the keys and arguments following the script, or its digest, in the arguments.
+    */
+   static CompletionStage<RespRequestHandler> eval(Resp3Handler handler, ChannelHandlerContext ctx, String script,
+                                                   List<byte[]> arguments) {
+      int numKeys;
+      try {
+         numKeys = ArgumentUtils.toInt(arguments.get(1));
+      } catch (NumberFormatException e) {
+         RespErrorUtil.valueNotInteger(handler.allocator());
+         return handler.myStage();
+      }
+      if (numKeys < 0) {
+         RespErrorUtil.customError("Number of keys can't be negative", handler.allocator());
+         return handler.myStage();
+      }
+      if (numKeys > arguments.size() - 2) {
+         RespErrorUtil.customError("Number of keys can't be greater than number of args", handler.allocator());
+         return handler.myStage();
+      }
+      List<byte[]> keys = arguments.subList(2, 2 + numKeys);
+      List<byte[]> args = arguments.subList(2 + numKeys, arguments.size());
+      for (byte[] key : keys) {
+         if (!Arrays.equals(key, keys.get(0))) {
+            RespErrorUtil.customError("Scripts can only access the single key they run on", handler.allocator());
+            return handler.myStage();
+         }
+      }
+      BlockingManager blockingManager = handler.respServer().getBlockingManager();
+      CompletionStage<byte[]> reply;
+      if (keys.isEmpty()) {
+         reply = blockingManager.supplyBlocking(() -> handler.respServer().getScripts().eval(script, null, keys, args),
+               "resp-eval");
+      } else {
+         // A local owner runs the function in the invoking thread
+         reply = blockingManager.supplyBlocking(() -> handler.getScriptMap().eval(keys.get(0),
+               new ScriptFunction(script, keys, args)), "resp-eval").thenCompose(Function.identity());
+      }
+      return handler.stageToReturn(reply, ctx, Consumers.RAW_BICONSUMER);
+   }
+}
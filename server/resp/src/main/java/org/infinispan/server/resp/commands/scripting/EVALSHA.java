@@ -0,0 +1,44 @@
+package org.infinispan.server.resp.commands.scripting;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.security.AuthorizationPermission;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/evalsha/
+ *
+ * Runs a script loaded in this server by EVAL or SCRIPT LOAD, given its SHA1 digest. The source of the script is sent
+ * to the owner of the key, which runs its own compiled copy.
+ *
+ * @since 15.0
+ * @see EVAL
+ */
+public class EVALSHA extends RespCommand implements Resp3Command {
+   public EVALSHA() {
+      super(-3, 0, 0, 0);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      handler.checkPermission(AuthorizationPermission.EXEC);
+      String sha = new String(arguments.get(0), StandardCharsets.US_ASCII).toLowerCase(Locale.ROOT);
+      String script = handler.respServer().getScripts().source(sha);
+      if (script == null) {
+         RespErrorUtil.noScript(handler.allocator());
+         return handler.myStage();
+      }
+      return EVAL.eval(handler, ctx, script, arguments);
+   }
+}
@@ -0,0 +1,81 @@
+package org.infinispan.server.resp.commands.scripting;
+
+import static org.infinispan.server.resp.Util.utf8;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.security.AuthorizationPermission;
+import org.infinispan.server.resp.ByteBufferUtils;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.server.resp.scripting.RespScripts;
+import org.infinispan.server.resp.scripting.ScriptError;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * <a href="https://redis.io/commands/script/">SCRIPT</a>
+ *
+ * Manages the scripts of this server: LOAD compiles a script and returns its SHA1 digest without running it, EXISTS
+ * tells which digests EVALSHA can run and FLUSH drops the scripts. FLUSH requires the ADMIN permission, the other
+ * subcommands the EXEC permission.
+ *
+ * @since 15.0
+ */
+public class SCRIPT extends RespCommand implements Resp3Command {
+   public SCRIPT() {
+      super(-2, 0, 0, 0);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler, ChannelHandlerContext ctx,
+                                                      List<byte[]> arguments) {
+      String subcommand = utf8(arguments.get(0)).toUpperCase(Locale.ROOT);
+      RespScripts scripts = handler.respServer().getScripts();
+      switch (subcommand) {
+         case "LOAD":
+            handler.checkPermission(AuthorizationPermission.EXEC);
+            if (arguments.size() != 2) {
+               ByteBufferUtils.stringToByteBufAscii("-ERR wrong number of arguments for 'script|load' command\r\n", handler.allocator());
+               break;
+            }
+            if (!scripts.isEnabled()) {
+               RespErrorUtil.customError("Scripting is not enabled", handler.allocator());
+               break;
+            }
+            String sha;
+            try {
+               sha = scripts.load(utf8(arguments.get(1)));
+            } catch (ScriptError e) {
+               ByteBufferUtils.stringToByteBuf("-" + e.getMessage() + "\r\n", handler.allocator());
+               break;
+            }
+            Resp3Handler.handleBulkAsciiResult(sha, handler.allocator());
+            break;
+         case "EXISTS":
+            handler.checkPermission(AuthorizationPermission.EXEC);
+            List<Long> exists = new ArrayList<>(arguments.size() - 1);
+            for (int i = 1; i < arguments.size(); i++) {
+               exists.add(scripts.source(utf8(arguments.get(i)).toLowerCase(Locale.ROOT)) != null ? 1L : 0L);
+            }
+            Consumers.COLLECTION_LONG_BICONSUMER.accept(exists, handler.allocator());
+            break;
+         case "FLUSH":
+            handler.checkPermission(AuthorizationPermission.ADMIN);
+            // ASYNC and SYNC are the same, dropping the scripts is immediate
+            scripts.flush();
+            Consumers.OK_BICONSUMER.accept(null, handler.allocator());
+            break;
+         default:
+            ByteBufferUtils.stringToByteBufAscii("-ERR unsupported command\r\n", handler.allocator());
+      }
+      return handler.myStage();
+   }
+}
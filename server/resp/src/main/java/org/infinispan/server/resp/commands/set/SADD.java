@@ -42,4 +42,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
       CompletionStage<Long> cs = aggregateCompletionStage.freeze().thenApply(ignore -> addedCount.get());
       return handler.stageToReturn(cs, ctx, Consumers.LONG_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
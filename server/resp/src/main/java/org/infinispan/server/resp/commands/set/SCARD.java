@@ -32,4 +32,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
       EmbeddedSetCache<byte[], byte[]> esc = handler.getEmbeddedSetCache();
       return handler.stageToReturn(esc.size(arguments.get(0)), ctx, Consumers.LONG_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
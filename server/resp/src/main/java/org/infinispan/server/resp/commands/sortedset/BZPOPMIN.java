@@ -0,0 +1,61 @@
+package org.infinispan.server.resp.commands.sortedset;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.multimap.impl.EmbeddedMultimapSortedSetCache;
+import org.infinispan.multimap.impl.SortedSetBucket;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.ArgumentUtils;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * The blocking version of {@link ZPOPMIN}. Removes and returns the member with the lowest score of the first non-empty
+ * sorted set, checking the keys in the order they are given. When all the sorted sets are empty, the connection is
+ * blocked until a member is added to one of them or the timeout expires.
+ *
+ * Returns a three-element array with the key, the member and its score, or null after the timeout. A timeout of zero
+ * blocks forever.
+ *
+ * @since 15.0
+ * @see <a href="https://redis.io/commands/bzpopmin/">Redis Documentation</a>
+ */
+public class BZPOPMIN extends RespCommand implements Resp3Command {
+
+   public BZPOPMIN() {
+      super(-3, 1, -2, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+                                                      ChannelHandlerContext ctx,
+                                                      List<byte[]> arguments) {
+      final long timeout;
+      try {
+         timeout = ArgumentUtils.toTimeoutMillis(arguments.get(arguments.size() - 1));
+      } catch (NumberFormatException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+
+      EmbeddedMultimapSortedSetCache<byte[], byte[]> sortedSetCache = handler.getSortedSeMultimap();
+      List<byte[]> keys = arguments.subList(0, arguments.size() - 1);
+      CompletionStage<Collection<byte[]>> popped = handler.respServer().getBlockingCommandManager()
+            .block(handler, ctx, keys, timeout, key -> sortedSetCache.pop(key, true, 1).thenApply(r -> {
+               if (r == null || r.isEmpty()) {
+                  return null;
+               }
+               SortedSetBucket.ScoredValue<byte[]> e = r.iterator().next();
+               return List.of(key, e.getValue(), Double.toString(e.score()).getBytes(StandardCharsets.US_ASCII));
+            }));
+      return handler.stageToReturn(popped, ctx, Consumers.GET_ARRAY_BICONSUMER);
+   }
+}
@@ -0,0 +1,150 @@
+package org.infinispan.server.resp.commands.stream;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.infinispan.multimap.impl.StreamID;
+import org.infinispan.multimap.impl.StreamTrimArgs;
+import org.infinispan.server.resp.commands.ArgumentUtils;
+
+/**
+ * Parsing of the arguments of the stream commands. The methods throw {@link IllegalArgumentException} with the error
+ * message to reply.
+ *
+ * @since 15.0
+ */
+final class StreamArgs {
+   static final String ERR_SYNTAX = "syntax error";
+   static final String ERR_NOT_INTEGER = "value is not an integer or out of range";
+   static final String ERR_INVALID_ID = "Invalid stream ID specified as stream command argument";
+
+   private StreamArgs() { }
+
+   static String toString(byte[] argument) {
+      return new String(argument, StandardCharsets.UTF_8);
+   }
+
+   static String option(byte[] argument) {
+      return new String(argument, StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+   }
+
+   static boolean is(byte[] argument, String value) {
+      return argument.length == value.length() && option(argument).equals(value);
+   }
+
+   /**
+    * Parses an ID, whose sequence defaults to the given one when omitted.
+    */
+   static StreamID id(byte[] argument, long defaultSeq) {
+      return StreamID.parse(toString(argument), defaultSeq);
+   }
+
+   /**
+    * Parses the start of a range, {@code -} for the smallest ID and a {@code (} prefix for an exclusive start.
+    */
+   static StreamID start(byte[] argument) {
+      String start = toString(argument);
+      if (start.equals("-")) {
+         return StreamID.MIN;
+      }
+      if (start.equals("+")) {
+         return StreamID.MAX;
+      }
+      if (start.startsWith("(")) {
+         StreamID next = StreamID.parse(start.substring(1), 0).next();
+         if (next == null) {
+            throw new IllegalArgumentException("invalid start ID for the interval");
+         }
+         return next;
+      }
+      return StreamID.parse(start, 0);
+   }
+
+   /**
+    * Parses the end of a range, {@code +} for the largest ID and a {@code (} prefix for an exclusive end.
+    */
+   static StreamID end(byte[] argument) {
+      String end = toString(argument);
+      if (end.equals("+")) {
+         return StreamID.MAX;
+      }
+      if (end.equals("-")) {
+         return StreamID.MIN;
+      }
+      if (end.startsWith("(")) {
+         StreamID previous = StreamID.parse(end.substring(1), -1L).previous();
+         if (previous == null) {
+            throw new IllegalArgumentException("invalid end ID for the interval");
+         }
+         return previous;
+      }
+      return StreamID.parse(end, -1L);
+   }
+
+   static long integer(byte[] argument) {
+      try {
+         return ArgumentUtils.toLong(argument);
+      } catch (NumberFormatException e) {
+         throw new IllegalArgumentException(ERR_NOT_INTEGER);
+      }
+   }
+
+   /**
+    * Parses a COUNT, where a negative or zero count means all the entries.
+    */
+   static long count(byte[] argument) {
+      long count = integer(argument);
+      return count <= 0 ? -1 : count;
+   }
+
+   static List<StreamID> ids(List<byte[]> arguments, int from) {
+      List<StreamID> ids = new ArrayList<>(arguments.size() - from);
+      for (int i = from; i < arguments.size(); ++i) {
+         ids.add(id(arguments.get(i), 0));
+      }
+      return ids;
+   }
+
+   /**
+    * Parses {@code MAXLEN|MINID [=|~] threshold [LIMIT count]} at the given position.
+    *
+    * @param trim receives the trimming options
+    * @return the position after the options
+    */
+   static int trim(List<byte[]> arguments, int position, StreamTrimArgs[] trim) {
+      boolean maxLength = is(arguments.get(position), "MAXLEN");
+      if (!maxLength && !is(arguments.get(position), "MINID")) {
+         throw new IllegalArgumentException(ERR_SYNTAX);
+      }
+      int i = position + 1;
+      boolean approximate = false;
+      if (i < arguments.size() && (is(arguments.get(i), "~") || is(arguments.get(i), "="))) {
+         approximate = is(arguments.get(i), "~");
+         i++;
+      }
+      if (i >= arguments.size()) {
+         throw new IllegalArgumentException(ERR_SYNTAX);
+      }
+      if (maxLength) {
+         long threshold = integer(arguments.get(i));
+         if (threshold < 0) {
+            throw new IllegalArgumentException("The MAXLEN argument must be >= 0.");
+         }
+         trim[0] = StreamTrimArgs.maxLength(threshold, approximate);
+      } else {
+         trim[0] = StreamTrimArgs.minId(id(arguments.get(i), 0), approximate);
+      }
+      i++;
+      // The entries are trimmed by whole segments, so there is no work to limit
+      if (i + 1 < arguments.size() && is(arguments.get(i), "LIMIT")) {
+         if (!approximate) {
+            throw new IllegalArgumentException("syntax error, LIMIT cannot be used without the special ~ option");
+         }
+         integer(arguments.get(i + 1));
+         i += 2;
+      }
+      return i;
+   }
+}
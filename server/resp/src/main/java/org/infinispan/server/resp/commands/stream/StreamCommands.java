@@ -0,0 +1,87 @@
+package org.infinispan.server.resp.commands.stream;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.IntFunction;
+
+import org.infinispan.multimap.impl.StreamBucket;
+import org.infinispan.multimap.impl.StreamID;
+import org.infinispan.server.resp.Resp3Handler;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * Helpers shared by the stream commands.
+ *
+ * @since 15.0
+ */
+final class StreamCommands {
+   static final String ERR_UNBALANCED = "Unbalanced '%s' list of streams: for each stream key an ID or '$' must be specified.";
+
+   private StreamCommands() { }
+
+   static byte[] idBytes(StreamID id) {
+      return id == null ? null : id.toString().getBytes(StandardCharsets.US_ASCII);
+   }
+
+   /**
+    * Reads the streams, keeping those with entries. When none has entries and a timeout is given, waits until one of
+    * them has entries, and then returns only that one.
+    *
+    * @param keys    the keys of the streams
+    * @param timeout the maximum time to wait in milliseconds, 0 to wait forever, or a negative number to not wait
+    * @param read    reads the stream at the given index, completing with the entries or with null when there are none
+    * @return a stage completed with the streams with entries, or with null when none has entries
+    */
+   static CompletionStage<List<Map.Entry<byte[], List<StreamBucket.Entry>>>> read(Resp3Handler handler,
+         ChannelHandlerContext ctx, List<byte[]> keys, long timeout,
+         IntFunction<CompletionStage<List<StreamBucket.Entry>>> read) {
+      CompletionStage<List<Map.Entry<byte[], List<StreamBucket.Entry>>>> all = readAll(keys, read);
+      if (timeout < 0) {
+         return all;
+      }
+      return all.thenCompose(streams -> {
+         if (streams != null) {
+            return CompletableFuture.completedFuture(streams);
+         }
+         return handler.respServer().getBlockingCommandManager().block(handler, ctx, keys, timeout,
+               key -> {
+                  int index = indexOf(keys, key);
+                  return read.apply(index).thenApply(entries -> entries == null ? null : List.of(Map.entry(keys.get(index), entries)));
+               });
+      });
+   }
+
+   private static CompletionStage<List<Map.Entry<byte[], List<StreamBucket.Entry>>>> readAll(List<byte[]> keys,
+         IntFunction<CompletionStage<List<StreamBucket.Entry>>> read) {
+      @SuppressWarnings("unchecked")
+      CompletableFuture<List<StreamBucket.Entry>>[] reads = new CompletableFuture[keys.size()];
+      for (int i = 0; i < reads.length; ++i) {
+         reads[i] = read.apply(i).toCompletableFuture();
+      }
+      return CompletableFuture.allOf(reads).thenApply(ignore -> {
+         List<Map.Entry<byte[], List<StreamBucket.Entry>>> streams = new ArrayList<>(reads.length);
+         for (int i = 0; i < reads.length; ++i) {
+            List<StreamBucket.Entry> entries = reads[i].join();
+            if (entries != null) {
+               streams.add(Map.entry(keys.get(i), entries));
+            }
+         }
+         return streams.isEmpty() ? null : streams;
+      });
+   }
+
+   private static int indexOf(List<byte[]> keys, byte[] key) {
+      for (int i = 0; i < keys.size(); ++i) {
+         if (Arrays.equals(keys.get(i), key)) {
+            return i;
+         }
+      }
+      throw new IllegalArgumentException();
+   }
+}
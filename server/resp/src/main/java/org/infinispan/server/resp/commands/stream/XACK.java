@@ -0,0 +1,44 @@
+package org.infinispan.server.resp.commands.stream;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.multimap.impl.StreamID;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/xack/
+ *
+ * Removes entries from the pending entries of a consumer group of the stream stored at the key.
+ *
+ * Returns the number of entries that were pending.
+ *
+ * @since 15.0
+ */
+public class XACK extends RespCommand implements Resp3Command {
+   public XACK() {
+      super(-4, 1, 1, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      List<StreamID> ids;
+      try {
+         ids = StreamArgs.ids(arguments, 2);
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+      return handler.stageToReturn(handler.getStreamCache().ack(arguments.get(0), StreamArgs.toString(arguments.get(1)), ids),
+            ctx, Consumers.LONG_BICONSUMER);
+   }
+}
@@ -0,0 +1,80 @@
+package org.infinispan.server.resp.commands.stream;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.multimap.impl.StreamID;
+import org.infinispan.multimap.impl.StreamTrimArgs;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/xadd/
+ *
+ * Appends an entry to the stream stored at the key, creating the stream unless NOMKSTREAM is given, and optionally
+ * trims the stream with MAXLEN or MINID. The ID is generated from the time of this node when given as {@code *}.
+ *
+ * Returns the ID of the entry, or null when the stream does not exist and NOMKSTREAM is given.
+ *
+ * @since 15.0
+ */
+public class XADD extends RespCommand implements Resp3Command {
+   public XADD() {
+      super(-5, 1, 1, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      boolean noMkStream = false;
+      StreamTrimArgs[] trim = new StreamTrimArgs[1];
+      StreamID id;
+      boolean autoSequence = false;
+      List<byte[]> fieldsAndValues;
+      try {
+         int i = 1;
+         while (true) {
+            if (StreamArgs.is(arguments.get(i), "NOMKSTREAM")) {
+               noMkStream = true;
+               i++;
+            } else if (StreamArgs.is(arguments.get(i), "MAXLEN") || StreamArgs.is(arguments.get(i), "MINID")) {
+               i = StreamArgs.trim(arguments, i, trim);
+            } else {
+               break;
+            }
+            if (i >= arguments.size()) {
+               throw new IllegalArgumentException(StreamArgs.ERR_SYNTAX);
+            }
+         }
+         String idArgument = new String(arguments.get(i), StandardCharsets.US_ASCII);
+         if (idArgument.equals("*")) {
+            id = null;
+         } else if (idArgument.endsWith("-*")) {
+            id = StreamID.parse(idArgument.substring(0, idArgument.length() - 2), 0);
+            autoSequence = true;
+         } else {
+            id = StreamID.parse(idArgument, 0);
+         }
+         fieldsAndValues = arguments.subList(i + 1, arguments.size());
+         if (fieldsAndValues.isEmpty() || fieldsAndValues.size() % 2 != 0) {
+            RespErrorUtil.wrongArgumentNumber(this, handler.allocator());
+            return handler.myStage();
+         }
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+      // The arguments are reused by the decoder
+      CompletionStage<StreamID> added = handler.getStreamCache().add(arguments.get(0), id, autoSequence,
+            List.copyOf(fieldsAndValues), noMkStream, trim[0]);
+      return handler.stageToReturn(added.thenApply(StreamCommands::idBytes), ctx, Consumers.GET_BICONSUMER);
+   }
+}
@@ -0,0 +1,43 @@
+package org.infinispan.server.resp.commands.stream;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.multimap.impl.StreamID;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/xdel/
+ *
+ * Deletes entries of the stream stored at the key by ID.
+ *
+ * Returns the number of entries deleted.
+ *
+ * @since 15.0
+ */
+public class XDEL extends RespCommand implements Resp3Command {
+   public XDEL() {
+      super(-3, 1, 1, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      List<StreamID> ids;
+      try {
+         ids = StreamArgs.ids(arguments, 1);
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+      return handler.stageToReturn(handler.getStreamCache().delete(arguments.get(0), ids), ctx, Consumers.LONG_BICONSUMER);
+   }
+}
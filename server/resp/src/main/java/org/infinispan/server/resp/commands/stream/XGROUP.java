@@ -0,0 +1,105 @@
+package org.infinispan.server.resp.commands.stream;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.multimap.impl.EmbeddedStreamCache;
+import org.infinispan.multimap.impl.StreamID;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/xgroup/
+ *
+ * Manages the consumer groups of the stream stored at the key:
+ * <ul>
+ *    <li>CREATE key group id|$ [MKSTREAM] creates a group receiving the entries after the ID</li>
+ *    <li>SETID key group id|$ changes the last entry delivered to the group</li>
+ *    <li>DESTROY key group deletes the group and its pending entries</li>
+ *    <li>CREATECONSUMER key group consumer creates a consumer in the group</li>
+ *    <li>DELCONSUMER key group consumer deletes a consumer and its pending entries</li>
+ * </ul>
+ * The ENTRIESREAD option is accepted and ignored, as the lag of the groups is not tracked.
+ *
+ * @since 15.0
+ */
+public class XGROUP extends RespCommand implements Resp3Command {
+   public XGROUP() {
+      super(-2, 2, 2, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      String subcommand = StreamArgs.option(arguments.get(0));
+      EmbeddedStreamCache<byte[]> streamCache = handler.getStreamCache();
+      try {
+         switch (subcommand) {
+            case "CREATE":
+            case "SETID": {
+               boolean create = subcommand.equals("CREATE");
+               if (arguments.size() < 4) {
+                  return wrongArguments(handler, subcommand);
+               }
+               StreamID id = StreamArgs.is(arguments.get(3), "$") ? null : StreamArgs.id(arguments.get(3), 0);
+               boolean mkStream = false;
+               for (int i = 4; i < arguments.size(); ++i) {
+                  if (create && StreamArgs.is(arguments.get(i), "MKSTREAM")) {
+                     mkStream = true;
+                  } else if (StreamArgs.is(arguments.get(i), "ENTRIESREAD") && i + 1 < arguments.size()) {
+                     StreamArgs.integer(arguments.get(++i));
+                  } else {
+                     throw new IllegalArgumentException(StreamArgs.ERR_SYNTAX);
+                  }
+               }
+               byte[] key = arguments.get(1);
+               String group = StreamArgs.toString(arguments.get(2));
+               CompletionStage<Void> stage = create ?
+                     streamCache.createGroup(key, group, id, mkStream) :
+                     streamCache.setGroupId(key, group, id);
+               return handler.stageToReturn(stage, ctx, Consumers.OK_BICONSUMER);
+            }
+            case "DESTROY":
+               if (arguments.size() != 3) {
+                  return wrongArguments(handler, subcommand);
+               }
+               return handler.stageToReturn(streamCache.destroyGroup(arguments.get(1), StreamArgs.toString(arguments.get(2)))
+                     .thenApply(destroyed -> destroyed ? 1L : 0L), ctx, Consumers.LONG_BICONSUMER);
+            case "CREATECONSUMER":
+               if (arguments.size() != 4) {
+                  return wrongArguments(handler, subcommand);
+               }
+               return handler.stageToReturn(streamCache.createConsumer(arguments.get(1),
+                     StreamArgs.toString(arguments.get(2)), StreamArgs.toString(arguments.get(3)))
+                     .thenApply(created -> created ? 1L : 0L), ctx, Consumers.LONG_BICONSUMER);
+            case "DELCONSUMER":
+               if (arguments.size() != 4) {
+                  return wrongArguments(handler, subcommand);
+               }
+               return handler.stageToReturn(streamCache.deleteConsumer(arguments.get(1),
+                     StreamArgs.toString(arguments.get(2)), StreamArgs.toString(arguments.get(3))),
+                     ctx, Consumers.LONG_BICONSUMER);
+            default:
+               RespErrorUtil.customError("unknown subcommand '" + StreamArgs.toString(arguments.get(0)) + "'.",
+                     handler.allocator());
+               return handler.myStage();
+         }
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+   }
+
+   private static CompletionStage<RespRequestHandler> wrongArguments(Resp3Handler handler, String subcommand) {
+      RespErrorUtil.customError("wrong number of arguments for 'xgroup|" + subcommand.toLowerCase() + "' command",
+            handler.allocator());
+      return handler.myStage();
+   }
+}
@@ -0,0 +1,99 @@
+package org.infinispan.server.resp.commands.stream;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.multimap.impl.StreamBucket;
+import org.infinispan.multimap.impl.StreamID;
+import org.infinispan.server.resp.ByteBufPool;
+import org.infinispan.server.resp.ByteBufferUtils;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/xpending/
+ *
+ * Inspects the entries delivered to a consumer group of the stream stored at the key and not acknowledged yet.
+ * Without a range, returns their number, smallest and largest IDs and their number by consumer. With a range, returns
+ * the ID, consumer, idle time in milliseconds and number of deliveries of the entries in the range, optionally only
+ * those idle for IDLE milliseconds or delivered to the given consumer.
+ *
+ * @since 15.0
+ */
+public class XPENDING extends RespCommand implements Resp3Command {
+   public XPENDING() {
+      super(-3, 1, 1, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      byte[] key = arguments.get(0);
+      String group = StreamArgs.toString(arguments.get(1));
+      if (arguments.size() == 2) {
+         return handler.stageToReturn(handler.getStreamCache().pendingSummary(key, group), ctx, XPENDING::writeSummary);
+      }
+      long minIdle = 0;
+      StreamID start;
+      StreamID end;
+      long count;
+      String consumer = null;
+      try {
+         int i = 2;
+         if (StreamArgs.is(arguments.get(i), "IDLE") && arguments.size() > i + 1) {
+            minIdle = StreamArgs.integer(arguments.get(i + 1));
+            i += 2;
+         }
+         if (arguments.size() - i < 3 || arguments.size() - i > 4) {
+            throw new IllegalArgumentException(StreamArgs.ERR_SYNTAX);
+         }
+         start = StreamArgs.start(arguments.get(i));
+         end = StreamArgs.end(arguments.get(i + 1));
+         count = StreamArgs.integer(arguments.get(i + 2));
+         if (arguments.size() - i == 4) {
+            consumer = StreamArgs.toString(arguments.get(i + 3));
+         }
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+      TimeService timeService = handler.cache().getComponentRegistry().getTimeService();
+      return handler.stageToReturn(handler.getStreamCache().pending(key, group, start, end, count, consumer, minIdle), ctx,
+            (entries, alloc) -> writeEntries(entries, timeService.wallClockTime(), alloc));
+   }
+
+   private static void writeSummary(StreamBucket.PendingSummary summary, ByteBufPool alloc) {
+      Resp3Handler.writeArrayPrefix(4, alloc);
+      ByteBufferUtils.writeLong(summary.count(), alloc);
+      Resp3Handler.handleBulkAsciiResult(summary.first() == null ? null : summary.first().toString(), alloc);
+      Resp3Handler.handleBulkAsciiResult(summary.last() == null ? null : summary.last().toString(), alloc);
+      if (summary.consumers().isEmpty()) {
+         Resp3Handler.handleBulkAsciiResult(null, alloc);
+         return;
+      }
+      Resp3Handler.writeArrayPrefix(summary.consumers().size(), alloc);
+      for (int i = 0; i < summary.consumers().size(); ++i) {
+         Resp3Handler.writeArrayPrefix(2, alloc);
+         Resp3Handler.handleBulkResult(summary.consumers().get(i), alloc);
+         Resp3Handler.handleBulkAsciiResult(Long.toString(summary.counts().get(i)), alloc);
+      }
+   }
+
+   private static void writeEntries(List<StreamBucket.PendingEntry> entries, long now, ByteBufPool alloc) {
+      Resp3Handler.writeArrayPrefix(entries.size(), alloc);
+      for (StreamBucket.PendingEntry entry : entries) {
+         Resp3Handler.writeArrayPrefix(4, alloc);
+         Resp3Handler.handleBulkAsciiResult(entry.id().toString(), alloc);
+         Resp3Handler.handleBulkResult(entry.consumer(), alloc);
+         ByteBufferUtils.writeLong(Math.max(0, now - entry.deliveryTime()), alloc);
+         ByteBufferUtils.writeLong(entry.deliveryCount(), alloc);
+      }
+   }
+}
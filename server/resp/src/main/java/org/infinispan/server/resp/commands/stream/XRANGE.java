@@ -0,0 +1,70 @@
+package org.infinispan.server.resp.commands.stream;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.multimap.impl.StreamBucket;
+import org.infinispan.multimap.impl.StreamID;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/xrange/
+ *
+ * Returns the entries of the stream stored at the key with an ID between start and end, both inclusive unless
+ * prefixed by {@code (}. The special IDs {@code -} and {@code +} are the smallest and largest IDs. COUNT limits the
+ * number of entries returned.
+ *
+ * Only the segments of the stream holding the range are read, so the cost does not depend on the length of the
+ * stream.
+ *
+ * @since 15.0
+ */
+public class XRANGE extends RespCommand implements Resp3Command {
+   private final boolean reverse;
+
+   public XRANGE() {
+      this(false);
+   }
+
+   protected XRANGE(boolean reverse) {
+      super(-4, 1, 1, 1);
+      this.reverse = reverse;
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      StreamID start;
+      StreamID end;
+      long count = -1;
+      try {
+         // XREVRANGE takes the end first
+         start = StreamArgs.start(arguments.get(reverse ? 2 : 1));
+         end = StreamArgs.end(arguments.get(reverse ? 1 : 2));
+         if (arguments.size() > 3) {
+            if (arguments.size() != 5 || !StreamArgs.is(arguments.get(3), "COUNT")) {
+               throw new IllegalArgumentException(StreamArgs.ERR_SYNTAX);
+            }
+            count = StreamArgs.integer(arguments.get(4));
+            if (count < 0) {
+               count = -1;
+            }
+         }
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+      CompletionStage<List<StreamBucket.Entry>> entries = handler.getStreamCache()
+            .range(arguments.get(0), start, end, count, reverse)
+            .thenApply(l -> l == null ? List.of() : l);
+      return handler.stageToReturn(entries, ctx, Consumers.STREAM_ENTRIES_BICONSUMER);
+   }
+}
@@ -0,0 +1,107 @@
+package org.infinispan.server.resp.commands.stream;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.multimap.impl.EmbeddedStreamCache;
+import org.infinispan.multimap.impl.StreamBucket;
+import org.infinispan.multimap.impl.StreamID;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/xread/
+ *
+ * Reads the entries with an ID greater than the given one from each of the streams, {@code $} being the last entry of
+ * the stream when the command is received. With BLOCK, when no stream has entries, the connection is blocked until
+ * an entry is added to one of them or the timeout in milliseconds expires, 0 waiting forever.
+ *
+ * Returns the entries by stream, omitting the streams without entries, or null when none has entries.
+ *
+ * @since 15.0
+ */
+public class XREAD extends RespCommand implements Resp3Command {
+   public XREAD() {
+      super(-4, 0, 0, 0);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      long count = -1;
+      long block = -1;
+      List<byte[]> keys;
+      List<byte[]> ids;
+      try {
+         int streams = -1;
+         for (int i = 0; i < arguments.size() && streams < 0; ++i) {
+            if (StreamArgs.is(arguments.get(i), "COUNT") && i + 1 < arguments.size()) {
+               count = StreamArgs.count(arguments.get(++i));
+            } else if (StreamArgs.is(arguments.get(i), "BLOCK") && i + 1 < arguments.size()) {
+               block = StreamArgs.integer(arguments.get(++i));
+               if (block < 0) {
+                  throw new IllegalArgumentException("timeout is negative");
+               }
+            } else if (StreamArgs.is(arguments.get(i), "STREAMS")) {
+               streams = i + 1;
+            } else {
+               throw new IllegalArgumentException(StreamArgs.ERR_SYNTAX);
+            }
+         }
+         int remaining = arguments.size() - streams;
+         if (streams < 0 || remaining == 0 || remaining % 2 != 0) {
+            throw new IllegalArgumentException(String.format(StreamCommands.ERR_UNBALANCED, "xread"));
+         }
+         // The arguments are reused by the decoder
+         keys = List.copyOf(arguments.subList(streams, streams + remaining / 2));
+         ids = List.copyOf(arguments.subList(streams + remaining / 2, arguments.size()));
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+
+      EmbeddedStreamCache<byte[]> streamCache = handler.getStreamCache();
+      StreamID[] after = new StreamID[keys.size()];
+      CompletableFuture<?>[] resolved = new CompletableFuture[keys.size()];
+      try {
+         for (int i = 0; i < after.length; ++i) {
+            int index = i;
+            if (StreamArgs.is(ids.get(i), "$")) {
+               // No entry exists between the last one still in the stream and the last one ever added
+               resolved[i] = streamCache.range(keys.get(i), StreamID.MIN, StreamID.MAX, 1, true)
+                     .thenAccept(last -> after[index] = last == null || last.isEmpty() ? StreamID.MIN : last.get(0).id())
+                     .toCompletableFuture();
+            } else {
+               after[i] = StreamArgs.id(ids.get(i), 0);
+               resolved[i] = CompletableFuture.completedFuture(null);
+            }
+         }
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+      long limit = count;
+      long timeout = block;
+      return handler.stageToReturn(CompletableFuture.allOf(resolved).thenCompose(ignore ->
+            StreamCommands.read(handler, ctx, keys, timeout, i -> read(streamCache, keys.get(i), after[i], limit))),
+            ctx, Consumers.STREAM_READ_BICONSUMER);
+   }
+
+   private static CompletionStage<List<StreamBucket.Entry>> read(EmbeddedStreamCache<byte[]> streamCache, byte[] key,
+                                                                StreamID after, long count) {
+      StreamID start = after.next();
+      if (start == null) {
+         return CompletableFuture.completedFuture(null);
+      }
+      return streamCache.range(key, start, StreamID.MAX, count, false)
+            .thenApply(entries -> entries == null || entries.isEmpty() ? null : entries);
+   }
+}
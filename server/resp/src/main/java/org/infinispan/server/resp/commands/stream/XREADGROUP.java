@@ -0,0 +1,102 @@
+package org.infinispan.server.resp.commands.stream;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.multimap.impl.EmbeddedStreamCache;
+import org.infinispan.multimap.impl.StreamID;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/xreadgroup/
+ *
+ * Reads entries of the streams for a consumer of a group. With the ID {@code >}, the entries never delivered to the
+ * group are read and become pending for the consumer, unless NOACK is given. With another ID, the pending entries of
+ * the consumer after that ID are read again. BLOCK waits for new entries like {@link XREAD}, when all the IDs are
+ * {@code >}.
+ *
+ * Returns the entries by stream, or null when no stream has entries.
+ *
+ * @since 15.0
+ */
+public class XREADGROUP extends RespCommand implements Resp3Command {
+   public XREADGROUP() {
+      super(-7, 0, 0, 0);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      long count = -1;
+      long block = -1;
+      boolean noAck = false;
+      String group;
+      String consumer;
+      List<byte[]> keys;
+      StreamID[] after;
+      try {
+         if (!StreamArgs.is(arguments.get(0), "GROUP")) {
+            throw new IllegalArgumentException(StreamArgs.ERR_SYNTAX);
+         }
+         group = StreamArgs.toString(arguments.get(1));
+         consumer = StreamArgs.toString(arguments.get(2));
+         int streams = -1;
+         for (int i = 3; i < arguments.size() && streams < 0; ++i) {
+            if (StreamArgs.is(arguments.get(i), "COUNT") && i + 1 < arguments.size()) {
+               count = StreamArgs.count(arguments.get(++i));
+            } else if (StreamArgs.is(arguments.get(i), "BLOCK") && i + 1 < arguments.size()) {
+               block = StreamArgs.integer(arguments.get(++i));
+               if (block < 0) {
+                  throw new IllegalArgumentException("timeout is negative");
+               }
+            } else if (StreamArgs.is(arguments.get(i), "NOACK")) {
+               noAck = true;
+            } else if (StreamArgs.is(arguments.get(i), "STREAMS")) {
+               streams = i + 1;
+            } else {
+               throw new IllegalArgumentException(StreamArgs.ERR_SYNTAX);
+            }
+         }
+         int remaining = arguments.size() - streams;
+         if (streams < 0 || remaining == 0 || remaining % 2 != 0) {
+            throw new IllegalArgumentException(String.format(StreamCommands.ERR_UNBALANCED, "xreadgroup"));
+         }
+         // The arguments are reused by the decoder
+         keys = List.copyOf(arguments.subList(streams, streams + remaining / 2));
+         after = new StreamID[keys.size()];
+         for (int i = 0; i < after.length; ++i) {
+            byte[] id = arguments.get(streams + keys.size() + i);
+            if (StreamArgs.is(id, "$")) {
+               throw new IllegalArgumentException("The $ ID is meaningless in the context of XREADGROUP: you want to " +
+                     "read the history of this consumer by specifying a proper ID, or use the > ID to get new messages. " +
+                     "The $ ID would just return an empty result set.");
+            }
+            after[i] = StreamArgs.is(id, ">") ? null : StreamArgs.id(id, 0);
+            if (after[i] != null) {
+               // Reading the history never blocks
+               block = -1;
+            }
+         }
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+
+      EmbeddedStreamCache<byte[]> streamCache = handler.getStreamCache();
+      long limit = count;
+      boolean ack = noAck;
+      return handler.stageToReturn(StreamCommands.read(handler, ctx, keys, block, i ->
+            streamCache.readGroup(keys.get(i), group, consumer, after[i], limit, ack)
+                  // The history of the consumer is returned even when empty
+                  .thenApply(entries -> entries.isEmpty() && after[i] == null ? null : entries)),
+            ctx, Consumers.STREAM_READ_BICONSUMER);
+   }
+}
@@ -0,0 +1,14 @@
+package org.infinispan.server.resp.commands.stream;
+
+/**
+ * {@link} https://redis.io/commands/xrevrange/
+ *
+ * The same as {@link XRANGE}, with the end of the range given first and the entries returned from the largest ID.
+ *
+ * @since 15.0
+ */
+public class XREVRANGE extends XRANGE {
+   public XREVRANGE() {
+      super(true);
+   }
+}
@@ -0,0 +1,46 @@
+package org.infinispan.server.resp.commands.stream;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.multimap.impl.StreamTrimArgs;
+import org.infinispan.server.resp.Consumers;
+import org.infinispan.server.resp.Resp3Handler;
+import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespErrorUtil;
+import org.infinispan.server.resp.RespRequestHandler;
+import org.infinispan.server.resp.commands.Resp3Command;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * {@link} https://redis.io/commands/xtrim/
+ *
+ * Removes the oldest entries of the stream stored at the key, keeping at most MAXLEN entries or the entries with an
+ * ID of at least MINID. With {@code ~}, only whole segments of entries are removed.
+ *
+ * Returns the number of entries removed.
+ *
+ * @since 15.0
+ */
+public class XTRIM extends RespCommand implements Resp3Command {
+   public XTRIM() {
+      super(-4, 1, 1, 1);
+   }
+
+   @Override
+   public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
+         ChannelHandlerContext ctx,
+         List<byte[]> arguments) {
+      StreamTrimArgs[] trim = new StreamTrimArgs[1];
+      try {
+         if (StreamArgs.trim(arguments, 1, trim) != arguments.size()) {
+            throw new IllegalArgumentException(StreamArgs.ERR_SYNTAX);
+         }
+      } catch (IllegalArgumentException e) {
+         RespErrorUtil.customError(e.getMessage(), handler.allocator());
+         return handler.myStage();
+      }
+      return handler.stageToReturn(handler.getStreamCache().trim(arguments.get(0), trim[0]), ctx, Consumers.LONG_BICONSUMER);
+   }
+}
@@ -27,4 +27,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
             .stageToReturn(StringMutators.append(handler.cache(), arguments.get(0), arguments.get(1)),
                   ctx, Consumers.LONG_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
@@ -25,4 +25,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
                                                       List<byte[]> arguments) {
       return handler.stageToReturn(CounterIncOrDec.counterIncOrDec(handler.cache(), arguments.get(0), false), ctx, Consumers.LONG_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
@@ -27,4 +27,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
                                                       List<byte[]> arguments) {
       return handler.stageToReturn(CounterIncOrDec.counterIncOrDecBy(handler.cache(), arguments.get(0), ArgumentUtils.toLong(arguments.get(1)), false), ctx, Consumers.LONG_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
@@ -57,4 +57,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
       }
       return handler.stageToReturn(deleteStages.freeze(), ctx, AI_CONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
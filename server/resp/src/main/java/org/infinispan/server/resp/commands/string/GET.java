@@ -32,4 +32,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
 
       return handler.stageToReturn(handler.cache().getAsync(keyBytes), ctx, Consumers.GET_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
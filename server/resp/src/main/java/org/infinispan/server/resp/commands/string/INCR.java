@@ -27,4 +27,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
             .stageToReturn(CounterIncOrDec.counterIncOrDec(handler.cache(), arguments.get(0), true),
                   ctx, Consumers.LONG_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
@@ -29,4 +29,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
             .stageToReturn(CounterIncOrDec.counterIncOrDecBy(handler.cache(), arguments.get(0), ArgumentUtils.toLong(arguments.get(1)), true),
                   ctx, Consumers.LONG_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
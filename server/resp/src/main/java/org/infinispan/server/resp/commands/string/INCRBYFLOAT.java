@@ -30,4 +30,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
                         new String(arguments.get(1), StandardCharsets.US_ASCII)),
                   ctx, Consumers.DOUBLE_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
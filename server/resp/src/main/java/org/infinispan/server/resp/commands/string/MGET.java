@@ -1,16 +1,23 @@
 package org.infinispan.server.resp.commands.string;
 
+import java.lang.invoke.MethodHandles;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.atomic.AtomicInteger;
 
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.server.core.logging.Log;
+import org.infinispan.server.resp.ByteBufPool;
 import org.infinispan.server.resp.ByteBufferUtils;
 import org.infinispan.server.resp.Resp3Handler;
 import org.infinispan.server.resp.RespCommand;
+import org.infinispan.server.resp.RespConstants;
 import org.infinispan.server.resp.RespRequestHandler;
 import org.infinispan.server.resp.commands.Resp3Command;
+import org.infinispan.server.resp.operation.BatchOperation;
 import org.infinispan.util.concurrent.AggregateCompletionStage;
 import org.infinispan.util.concurrent.CompletionStages;
 
@@ -21,6 +28,8 @@
  * @since 14.0
  */
 public class MGET extends RespCommand implements Resp3Command {
+   private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass(), Log.class);
+
    public MGET() {
       super(-2, 1, -1, 1);
    }
@@ -34,35 +43,94 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
          ByteBufferUtils.stringToByteBufAscii("*0\r\n", handler.allocator());
          return handler.myStage();
       }
-      List<byte[]> results = Collections.synchronizedList(Arrays.asList(
-            new byte[keysToRetrieve][]));
-      AtomicInteger resultBytesSize = new AtomicInteger();
+      Reply reply = new Reply(arguments, handler.respServer().getConfiguration().streamBatchedReplies() ? handler.allocator() : null);
       AggregateCompletionStage<Void> getStage = CompletionStages.aggregateCompletionStage();
-      for (int i = 0; i < keysToRetrieve; ++i) {
-         int innerCount = i;
-         byte[] keyBytes = arguments.get(i);
-         getStage.dependsOn(handler.cache().getAsync(keyBytes)
-               .whenComplete((returnValue, t) -> {
-                  if (returnValue != null) {
-                     results.set(innerCount, returnValue);
-                     int length = returnValue.length;
-                     if (length > 0) {
-                        // $ + digit length (log10 + 1) + /r/n + byte length
-                        resultBytesSize.addAndGet(1 + (int) Math.log10(length) + 1 + 2 + returnValue.length);
-                     } else {
-                        // $0 + /r/n
-                        resultBytesSize.addAndGet(2 + 2);
-                     }
-                  } else {
-                     // $-1
-                     resultBytesSize.addAndGet(3);
-                  }
-                  // /r/n
-                  resultBytesSize.addAndGet(2);
-               }));
+      // One getAll for each primary owner, instead of one get for each key
+      for (List<Integer> positions : BatchOperation.groupByPrimaryOwner(handler.cache(), arguments, 1)) {
+         CompletionStage<Map<WrappedByteArray, byte[]>> stage = BatchOperation.getAll(handler.cache(), arguments, positions);
+         if (reply.alloc == null) {
+            getStage.dependsOn(stage.thenAccept(values -> reply.complete(positions, values)));
+         } else {
+            // The reply buffer can only be written from the event loop
+            getStage.dependsOn(stage.thenAcceptAsync(values -> {
+               reply.complete(positions, values);
+               // Send the values of this batch now, instead of once every owner has replied
+               if (reply.write()) {
+                  reply.alloc.flush();
+               }
+            }, ctx.channel().eventLoop()));
+         }
+      }
+      if (reply.alloc == null) {
+         return handler.stageToReturn(getStage.freeze(), ctx, (ignore, alloc) ->
+               ByteBufferUtils.bytesToResult(Arrays.asList(reply.results), alloc));
+      }
+      CompletionStage<Void> stage = getStage.freeze().handleAsync((ignore, t) -> {
+         if (t == null) {
+            return null;
+         }
+         // Values retrieved after the failure must not be written
+         reply.failed = true;
+         if (reply.written > 0) {
+            // An error reply cannot follow part of an array, the client would read it as one of the values
+            log.debugf(t, "Closing channel %s as MGET failed after part of the reply was written", ctx.channel());
+            ctx.channel().close();
+            return null;
+         }
+         throw CompletableFutures.asCompletionException(t);
+      }, ctx.channel().eventLoop());
+      return handler.stageToReturn(stage, ctx, (ignore, alloc) -> reply.write());
+   }
+
+   private static final class Reply {
+      private final List<byte[]> keys;
+      private final byte[][] results;
+      private final boolean[] completed;
+      private final ByteBufPool alloc;
+      // Only accessed from the event loop
+      private int written;
+      private boolean failed;
+
+      Reply(List<byte[]> keys, ByteBufPool alloc) {
+         this.keys = keys;
+         this.results = new byte[keys.size()][];
+         this.completed = alloc == null ? null : new boolean[keys.size()];
+         this.alloc = alloc;
+      }
+
+      synchronized void complete(List<Integer> positions, Map<WrappedByteArray, byte[]> values) {
+         for (int position : positions) {
+            results[position] = values.get(new WrappedByteArray(keys.get(position)));
+            if (completed != null) {
+               completed[position] = true;
+            }
+         }
+      }
+
+      /**
+       * Writes the values that follow the ones already written, up to the first value still being retrieved.
+       *
+       * @return whether any value was written
+       */
+      boolean write() {
+         if (failed) {
+            return false;
+         }
+         int previouslyWritten = written;
+         if (written == 0 && completed[0]) {
+            ByteBufferUtils.writeArrayHeader(results.length, alloc);
+         }
+         while (written < results.length && completed[written]) {
+            byte[] value = results[written];
+            if (value == null) {
+               alloc.acquire(RespConstants.NIL.length).writeBytes(RespConstants.NIL);
+            } else {
+               ByteBufferUtils.bytesToResult(value, alloc);
+            }
+            // Let the value be collected as soon as it is written
+            results[written++] = null;
+         }
+         return written > previouslyWritten;
       }
-      return handler.stageToReturn(getStage.freeze(), ctx, (ignore, alloc) ->
-         ByteBufferUtils.bytesToResult(resultBytesSize.get(), results, alloc)
-      );
    }
 }
@@ -12,8 +12,7 @@
 import org.infinispan.server.resp.RespCommand;
 import org.infinispan.server.resp.RespRequestHandler;
 import org.infinispan.server.resp.commands.Resp3Command;
-import org.infinispan.util.concurrent.AggregateCompletionStage;
-import org.infinispan.util.concurrent.CompletionStages;
+import org.infinispan.server.resp.operation.BatchOperation;
 
 import io.netty.channel.ChannelHandlerContext;
 
@@ -38,12 +37,6 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
          ByteBufferUtils.stringToByteBufAscii("-ERR Missing a value for a key\r\n", handler.allocator());
          return handler.myStage();
       }
-      AggregateCompletionStage<Void> setStage = CompletionStages.aggregateCompletionStage();
-      for (int i = 0; i < keyValuePairCount; i += 2) {
-         byte[] keyBytes = arguments.get(i);
-         byte[] valueBytes = arguments.get(i + 1);
-         setStage.dependsOn(handler.cache().putAsync(keyBytes, valueBytes));
-      }
-      return handler.stageToReturn(setStage.freeze(), ctx, Consumers.OK_BICONSUMER);
+      return handler.stageToReturn(BatchOperation.putAll(handler.cache(), arguments), ctx, Consumers.OK_BICONSUMER);
    }
 }
@@ -34,4 +34,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
             handler.ignorePreviousValuesCache().putAsync(arguments.get(0), arguments.get(1)),
             ctx, Consumers.OK_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
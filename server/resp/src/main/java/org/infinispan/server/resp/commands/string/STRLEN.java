@@ -32,4 +32,9 @@ public CompletionStage<RespRequestHandler> perform(Resp3Handler handler,
       .thenApply(buff -> buff!=null ? buff.length : 0L);
       return handler.stageToReturn(strLenAsync, ctx, Consumers.LONG_BICONSUMER);
    }
+
+   @Override
+   public boolean allowsOutOfOrderExecution() {
+      return true;
+   }
 }
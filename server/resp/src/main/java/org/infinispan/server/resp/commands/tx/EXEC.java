@@ -78,8 +78,13 @@ private CompletionStage<?> perform(List<TransactionCommand> commands, RespTransa
          cache.startBatch();
       }
       Resp3Handler.writeArrayPrefix(commands.size(), curr.allocator());
+      // The blocking commands must not wait for other clients inside the transaction
+      next.setExecutingTransaction(true);
       return orderlyExecution(next, ctx, commands, 0, CompletableFutures.completedNull())
-            .whenComplete((ignore, t) -> cache.endBatch(true));
+            .whenComplete((ignore, t) -> {
+               next.setExecutingTransaction(false);
+               cache.endBatch(true);
+            });
    }
 
    private CompletionStage<?> orderlyExecution(Resp3Handler handler, ChannelHandlerContext ctx,
@@ -2,6 +2,8 @@
 
 import org.infinispan.commons.configuration.BuiltBy;
 import org.infinispan.commons.configuration.ConfigurationFor;
+import org.infinispan.commons.configuration.attributes.AttributeDefinition;
+import org.infinispan.commons.configuration.attributes.AttributeSerializer;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.server.core.configuration.EncryptionConfiguration;
 import org.infinispan.server.core.configuration.IpFilterConfiguration;
@@ -21,9 +23,17 @@ public class RespServerConfiguration extends ProtocolServerConfiguration<RespSer
 
    public static final int DEFAULT_RESP_PORT = 6379;
    public static final String DEFAULT_RESP_CACHE = "respCache";
+   public static final AttributeDefinition<Integer> PIPELINE_DEPTH = AttributeDefinition.builder("pipeline-depth", 16).immutable().build();
+   public static final AttributeDefinition<Boolean> STREAM_BATCHED_REPLIES = AttributeDefinition.builder("stream-batched-replies", false).immutable().build();
+   public static final AttributeDefinition<Boolean> KEY_PREFIX_INDEX = AttributeDefinition.builder("key-prefix-index", false).immutable().build();
+   public static final AttributeDefinition<String[]> SCRIPT_ENGINES = AttributeDefinition.builder("script-engines", new String[0], String[].class)
+         .serializer(AttributeSerializer.STRING_ARRAY).immutable().build();
+   public static final AttributeDefinition<Integer> SCRIPT_CACHE_SIZE = AttributeDefinition.builder("script-cache-size", 1000).immutable().build();
+   public static final AttributeDefinition<Long> SCRIPT_TIME_LIMIT = AttributeDefinition.builder("script-time-limit", 5000L).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(RespServerConfiguration.class, ProtocolServerConfiguration.attributeDefinitionSet());
+      return new AttributeSet(RespServerConfiguration.class, ProtocolServerConfiguration.attributeDefinitionSet(), PIPELINE_DEPTH, STREAM_BATCHED_REPLIES, KEY_PREFIX_INDEX,
+            SCRIPT_ENGINES, SCRIPT_CACHE_SIZE, SCRIPT_TIME_LIMIT);
    }
 
    private final RespAuthenticationConfiguration authentication;
@@ -44,4 +54,28 @@ public RespAuthenticationConfiguration authentication() {
    public EncryptionConfiguration encryption() {
       return encryption;
    }
+
+   public int pipelineDepth() {
+      return attributes.attribute(PIPELINE_DEPTH).get();
+   }
+
+   public boolean streamBatchedReplies() {
+      return attributes.attribute(STREAM_BATCHED_REPLIES).get();
+   }
+
+   public boolean keyPrefixIndex() {
+      return attributes.attribute(KEY_PREFIX_INDEX).get();
+   }
+
+   public String[] scriptEngines() {
+      return attributes.attribute(SCRIPT_ENGINES).get();
+   }
+
+   public int scriptCacheSize() {
+      return attributes.attribute(SCRIPT_CACHE_SIZE).get();
+   }
+
+   public long scriptTimeLimit() {
+      return attributes.attribute(SCRIPT_TIME_LIMIT).get();
+   }
 }
@@ -1,11 +1,19 @@
 package org.infinispan.server.resp.configuration;
 
+import static org.infinispan.server.resp.configuration.RespServerConfiguration.KEY_PREFIX_INDEX;
+import static org.infinispan.server.resp.configuration.RespServerConfiguration.PIPELINE_DEPTH;
+import static org.infinispan.server.resp.configuration.RespServerConfiguration.SCRIPT_CACHE_SIZE;
+import static org.infinispan.server.resp.configuration.RespServerConfiguration.SCRIPT_ENGINES;
+import static org.infinispan.server.resp.configuration.RespServerConfiguration.SCRIPT_TIME_LIMIT;
+import static org.infinispan.server.resp.configuration.RespServerConfiguration.STREAM_BATCHED_REPLIES;
+
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.server.core.admin.AdminOperationsHandler;
 import org.infinispan.server.core.configuration.EncryptionConfigurationBuilder;
 import org.infinispan.server.core.configuration.ProtocolServerConfigurationBuilder;
+import org.infinispan.server.resp.logging.Log;
 
 /**
  * RespServerConfigurationBuilder.
@@ -58,6 +66,78 @@ public EncryptionConfigurationBuilder encryption() {
       return encryption;
    }
 
+   /**
+    * Sets how many pipelined commands of a connection may run at the same time. Commands on different keys are
+    * executed without waiting for the previous ones to complete, while the replies are still sent in request order.
+    * A depth of 1 executes every command after the previous one has completed. Defaults to 16.
+    */
+   public RespServerConfigurationBuilder pipelineDepth(int pipelineDepth) {
+      attributes.attribute(PIPELINE_DEPTH).set(pipelineDepth);
+      return this;
+   }
+
+   /**
+    * Sets whether the replies of commands reading many keys, such as MGET, are sent to the client as the owners of the
+    * keys answer, instead of once all the values have been retrieved. A streamed reply cannot be replaced by an error, so
+    * the connection is closed if a read fails after part of the reply was written. Defaults to false.
+    */
+   public RespServerConfigurationBuilder streamBatchedReplies(boolean streamBatchedReplies) {
+      attributes.attribute(STREAM_BATCHED_REPLIES).set(streamBatchedReplies);
+      return this;
+   }
+
+   /**
+    * Sets whether the keys of the RESP cache are indexed in sorted order, so that SCAN and KEYS with a pattern
+    * starting with a literal prefix only visit the keys with that prefix. The index uses additional memory for every
+    * key and is not available for off-heap or distributed caches. Defaults to false.
+    */
+   public RespServerConfigurationBuilder keyPrefixIndex(boolean keyPrefixIndex) {
+      attributes.attribute(KEY_PREFIX_INDEX).set(keyPrefixIndex);
+      return this;
+   }
+
+   /**
+    * Sets the names of the JSR-223 script engines that EVAL, EVALSHA and SCRIPT LOAD may use, such as {@code lua} or
+    * {@code js}. A script runs with the first engine, unless a {@code #!} shebang on its first line names another of
+    * them. Scripting is disabled when no engine is allowed, which is the default.
+    */
+   public RespServerConfigurationBuilder scriptEngines(String... scriptEngines) {
+      attributes.attribute(SCRIPT_ENGINES).set(scriptEngines);
+      return this;
+   }
+
+   /**
+    * Sets how many scripts each node keeps, both the sources that EVALSHA can run and the compiled scripts. The least
+    * recently used scripts are dropped first. Defaults to 1000.
+    */
+   public RespServerConfigurationBuilder scriptCacheSize(int scriptCacheSize) {
+      attributes.attribute(SCRIPT_CACHE_SIZE).set(scriptCacheSize);
+      return this;
+   }
+
+   /**
+    * Sets the time in milliseconds that a script may run. A script that exceeds it fails, and its updates are
+    * discarded. The limit is checked whenever the script calls a command and when it ends. Defaults to 5000.
+    */
+   public RespServerConfigurationBuilder scriptTimeLimit(long scriptTimeLimit) {
+      attributes.attribute(SCRIPT_TIME_LIMIT).set(scriptTimeLimit);
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      super.validate();
+      if (attributes.attribute(PIPELINE_DEPTH).get() < 1) {
+         throw Log.CONFIG.illegalPipelineDepth(attributes.attribute(PIPELINE_DEPTH).get());
+      }
+      if (attributes.attribute(SCRIPT_CACHE_SIZE).get() < 1) {
+         throw Log.CONFIG.illegalScriptCacheSize(attributes.attribute(SCRIPT_CACHE_SIZE).get());
+      }
+      if (attributes.attribute(SCRIPT_TIME_LIMIT).get() < 1) {
+         throw Log.CONFIG.illegalScriptTimeLimit(attributes.attribute(SCRIPT_TIME_LIMIT).get());
+      }
+   }
+
    @Override
    public RespServerConfiguration create() {
       return new RespServerConfiguration(attributes.protect(), ipFilter.create(), ssl.create(), authentication.create(), encryption.create());
@@ -52,4 +52,13 @@ public interface Log extends BasicLogger {
    @LogMessage(level = WARN)
    @Message(value = "Multi-key operations without batching have a relaxed isolation level. Consider enabling batching.", id = 12007)
    void multiKeyOperationUseBatching();
+
+   @Message(value = "The RESP pipeline depth must be at least 1, but was %d", id = 12008)
+   CacheConfigurationException illegalPipelineDepth(int depth);
+
+   @Message(value = "The RESP script cache size must be at least 1, but was %d", id = 12009)
+   CacheConfigurationException illegalScriptCacheSize(int size);
+
+   @Message(value = "The RESP script time limit must be at least 1 millisecond, but was %d", id = 12010)
+   CacheConfigurationException illegalScriptTimeLimit(long timeLimit);
 }
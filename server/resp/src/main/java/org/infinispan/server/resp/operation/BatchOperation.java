@@ -0,0 +1,123 @@
+package org.infinispan.server.resp.operation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.LocalizedCacheTopology;
+import org.infinispan.encoding.DataConversion;
+import org.infinispan.reactive.publisher.PublisherReducers;
+import org.infinispan.reactive.publisher.impl.ClusterPublisherManager;
+import org.infinispan.reactive.publisher.impl.DeliveryGuarantee;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.security.actions.SecurityActions;
+
+/**
+ * Operations on many keys that are sent as one command to each primary owner, instead of one command per key.
+ *
+ * @since 15.0
+ */
+public final class BatchOperation {
+
+   private BatchOperation() { }
+
+   /**
+    * Groups the keys by their primary owner.
+    *
+    * @param cache the cache holding the keys
+    * @param arguments the command arguments
+    * @param step the distance between two keys in the arguments, starting from the first argument
+    * @return the positions in the arguments of the keys owned by each node, a single group if the cache is local
+    */
+   public static Collection<List<Integer>> groupByPrimaryOwner(AdvancedCache<byte[], ?> cache, List<byte[]> arguments, int step) {
+      DistributionManager dm = SecurityActions.getDistributionManager(cache);
+      if (dm == null) {
+         List<Integer> positions = new ArrayList<>(arguments.size() / step);
+         for (int i = 0; i < arguments.size(); i += step) {
+            positions.add(i);
+         }
+         return Collections.singletonList(positions);
+      }
+      LocalizedCacheTopology topology = dm.getCacheTopology();
+      DataConversion keyConversion = cache.getKeyDataConversion();
+      Map<Address, List<Integer>> groups = new HashMap<>();
+      for (int i = 0; i < arguments.size(); i += step) {
+         Address owner = topology.getDistribution(keyConversion.toStorage(arguments.get(i))).primary();
+         groups.computeIfAbsent(owner, ignore -> new ArrayList<>()).add(i);
+      }
+      return groups.values();
+   }
+
+   /**
+    * Retrieves the values of the keys at the given positions with a single {@code getAll}.
+    *
+    * @return the values found, by key
+    */
+   public static <V> CompletionStage<Map<WrappedByteArray, V>> getAll(AdvancedCache<byte[], V> cache, List<byte[]> arguments, List<Integer> positions) {
+      Set<byte[]> keys = Collections.newSetFromMap(new LinkedHashMap<>(positions.size()));
+      for (int position : positions) {
+         keys.add(arguments.get(position));
+      }
+      // The returned keys are not the instances that were given, look the values up by content instead
+      return cache.getAllAsync(keys).thenApply(values -> {
+         Map<WrappedByteArray, V> found = new HashMap<>(values.size());
+         values.forEach((k, v) -> found.put(new WrappedByteArray(k), v));
+         return found;
+      });
+   }
+
+   /**
+    * Counts the keys of the arguments present in the cache, without transferring their values. Each owner receives a
+    * single request with the keys it owns and returns the ones it holds.
+    * <p>
+    * The reduction does not check the permissions of the cache, the caller must check the {@code READ} permission.
+    *
+    * @return the number of arguments present in the cache, a key given many times is counted each time
+    */
+   public static CompletionStage<Long> countPresent(AdvancedCache<byte[], ?> cache, List<byte[]> arguments) {
+      DataConversion keyConversion = cache.getKeyDataConversion();
+      List<Object> storageKeys = new ArrayList<>(arguments.size());
+      for (byte[] key : arguments) {
+         storageKeys.add(keyConversion.toStorage(key));
+      }
+      ClusterPublisherManager<Object, ?> cpm = SecurityActions.getCacheComponentRegistry(cache).getComponent(ClusterPublisherManager.class);
+      return cpm.keyReduction(false, null, new HashSet<>(storageKeys), null, EnumUtil.EMPTY_BIT_SET,
+            DeliveryGuarantee.EXACTLY_ONCE, PublisherReducers.toArrayReducer(), PublisherReducers.<Object>toArrayFinalizer())
+            .thenApply(found -> {
+               Set<Object> present = new HashSet<>(Arrays.asList(found));
+               long count = 0;
+               for (Object key : storageKeys) {
+                  if (present.contains(key)) {
+                     count++;
+                  }
+               }
+               return count;
+            });
+   }
+
+   /**
+    * Stores the key value pairs of the arguments, a key followed by its value, with a single {@code putAll}. When a
+    * key is repeated, the last value is stored.
+    */
+   public static CompletionStage<Void> putAll(AdvancedCache<byte[], byte[]> cache, List<byte[]> arguments) {
+      Map<WrappedByteArray, byte[]> unique = new LinkedHashMap<>(arguments.size() / 2);
+      for (int i = 0; i < arguments.size(); i += 2) {
+         unique.put(new WrappedByteArray(arguments.get(i)), arguments.get(i + 1));
+      }
+      Map<byte[], byte[]> entries = new LinkedHashMap<>(unique.size());
+      unique.forEach((k, v) -> entries.put(k.getBytes(), v));
+      return cache.putAllAsync(entries);
+   }
+}
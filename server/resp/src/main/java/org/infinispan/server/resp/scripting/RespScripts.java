@@ -0,0 +1,322 @@
+package org.infinispan.server.resp.scripting;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.commons.util.Util;
+import org.infinispan.functional.EntryView;
+import org.infinispan.server.resp.configuration.RespServerConfiguration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Compiles and runs the scripts of EVAL and EVALSHA with the JSR-223 engines allowed by the configuration of the
+ * server. Scripting is disabled when no engine is allowed.
+ * <p>
+ * A script runs with the first allowed engine, unless its first line is a shebang naming another of them, such as
+ * {@code #!js}. Each server keeps a bounded number of script sources, which EVALSHA can run, and of compiled scripts,
+ * both by SHA1 digest. A script that runs longer than the time limit fails and its updates are discarded.
+ * <p>
+ * The engines evaluate the scripts on the blocking threads. The thread running a script, possibly while holding the
+ * lock of its key, waits for the evaluation at most until the time limit, then the evaluating thread is interrupted,
+ * whether or not the script runs commands. An engine which ignores interruptions keeps its blocking thread busy until
+ * the script ends, but the updates of the script are discarded and its key is released.
+ * <p>
+ * The value returned by a script is converted to a RESP reply: {@code null} and {@code false} to a null bulk string,
+ * {@code true} to 1, a number to an integer, a map with an {@code err} or {@code ok} field to an error or a status, and
+ * any other map, collection or array to an array of its values.
+ *
+ * @since 15.0
+ */
+public final class RespScripts {
+   private static final byte[] NULL_BULK = "$-1\r\n".getBytes(StandardCharsets.US_ASCII);
+   private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+   private final ScriptEngineManager engineManager = new ScriptEngineManager(RespScripts.class.getClassLoader());
+   private final ConcurrentMap<String, ScriptEngine> engines = new ConcurrentHashMap<>(2);
+   private final List<String> languages;
+   private final Cache<String, String> sources;
+   private final Cache<String, Compiled> compiled;
+   private final TimeService timeService;
+   private final long timeLimit;
+   private final Executor executor;
+
+   public RespScripts(RespServerConfiguration configuration, TimeService timeService, Executor executor) {
+      this.languages = List.of(configuration.scriptEngines());
+      this.sources = Caffeine.newBuilder().maximumSize(configuration.scriptCacheSize()).build();
+      this.compiled = Caffeine.newBuilder().maximumSize(configuration.scriptCacheSize()).build();
+      this.timeService = timeService;
+      this.timeLimit = configuration.scriptTimeLimit();
+      this.executor = executor;
+   }
+
+   public static String sha1(String script) {
+      try {
+         MessageDigest digest = MessageDigest.getInstance("SHA-1");
+         return Util.toHexString(digest.digest(script.getBytes(StandardCharsets.UTF_8))).toLowerCase(Locale.ROOT);
+      } catch (NoSuchAlgorithmException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   /**
+    * Returns whether at least one script engine is allowed
+    */
+   public boolean isEnabled() {
+      return !languages.isEmpty();
+   }
+
+   /**
+    * Keeps the source of the script, so that EVALSHA can run it.
+    *
+    * @return the SHA1 digest of the script
+    */
+   public String register(String script) {
+      String sha = sha1(script);
+      sources.asMap().putIfAbsent(sha, script);
+      return sha;
+   }
+
+   /**
+    * Compiles the script, unless already cached, and keeps its source, so that EVALSHA can run it.
+    *
+    * @return the SHA1 digest of the script
+    * @throws ScriptError if the engine of the script is not allowed or the script does not compile
+    */
+   public String load(String script) {
+      compiled(script);
+      return register(script);
+   }
+
+   /**
+    * Returns the source of the script with the given SHA1 digest, or null if this server does not have it
+    */
+   public String source(String sha) {
+      return sources.getIfPresent(sha);
+   }
+
+   /**
+    * Drops the script sources and the compiled scripts.
+    */
+   public void flush() {
+      sources.invalidateAll();
+      compiled.invalidateAll();
+   }
+
+   /**
+    * Runs the script against the entry of its key.
+    *
+    * @param entry the entry of the first key, null if the script has no key
+    * @return the RESP reply of the script
+    */
+   public byte[] eval(String script, EntryView.ReadWriteEntryView<byte[], Object> entry, List<byte[]> keys,
+                      List<byte[]> args) {
+      ScriptExecution redis = new ScriptExecution(keys.isEmpty() ? null : keys.get(0),
+            entry == null ? null : entry.peek().orElse(null), timeService, timeLimit);
+      Object result;
+      try {
+         result = evaluate(compiled(script), redis, strings(keys), strings(args));
+         redis.checkTimeLimit();
+      } catch (ScriptError e) {
+         result = redis.error_reply(e.getMessage());
+      } finally {
+         // The updates of a script that ran for too long are discarded, as it may not have completed them
+         if (entry != null && !redis.exceededTimeLimit()) {
+            redis.apply(entry);
+         }
+      }
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      encode(result, out);
+      return out.toByteArray();
+   }
+
+   /**
+    * Evaluates the script on a blocking thread and waits for it until the time limit.
+    */
+   private Object evaluate(Compiled compiled, ScriptExecution redis, String[] keys, String[] args) {
+      CompletableFuture<Object> evaluation = CompletableFuture.supplyAsync(() -> {
+         redis.started();
+         try {
+            return compiled.eval(redis, keys, args);
+         } finally {
+            redis.ended();
+         }
+      }, executor);
+      try {
+         return evaluation.get(redis.remainingTime(), TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+         redis.timeOut();
+         throw redis.timeLimitError();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         redis.timeOut();
+         throw new ScriptError("ERR Script interrupted");
+      } catch (ExecutionException e) {
+         Throwable cause = e.getCause();
+         if (cause instanceof ScriptError) {
+            throw (ScriptError) cause;
+         }
+         throw new ScriptError("ERR Error running script: " + cause.getMessage());
+      }
+   }
+
+   private Compiled compiled(String script) {
+      return compiled.get(sha1(script), sha -> compile(sha, script));
+   }
+
+   private Compiled compile(String sha, String script) {
+      if (languages.isEmpty()) {
+         throw new ScriptError(ScriptExecution.ERR_DISABLED);
+      }
+      String language = languages.get(0);
+      String source = script;
+      // Redis 7 shebang, the first line names the engine followed by optional flags
+      if (script.startsWith("#!")) {
+         int eol = script.indexOf('\n');
+         String shebang = (eol < 0 ? script.substring(2) : script.substring(2, eol)).trim();
+         int space = shebang.indexOf(' ');
+         language = space < 0 ? shebang : shebang.substring(0, space);
+         // Keep the line so that the line numbers of the errors are the same
+         source = eol < 0 ? "" : script.substring(eol);
+      }
+      if (!languages.contains(language)) {
+         throw new ScriptError("ERR Scripting engine '" + language + "' is not enabled");
+      }
+      ScriptEngine engine = engines.computeIfAbsent(language, engineManager::getEngineByName);
+      if (engine == null) {
+         engines.remove(language);
+         throw new ScriptError("ERR Could not find scripting engine '" + language + "'");
+      }
+      CompiledScript compiled = null;
+      if (engine instanceof Compilable) {
+         try {
+            compiled = ((Compilable) engine).compile(source);
+         } catch (ScriptException e) {
+            throw new ScriptError("ERR Error compiling script (new function): user_script_" + sha + ": " + e.getMessage());
+         }
+      }
+      return new Compiled(engine, compiled, source);
+   }
+
+   private static String[] strings(List<byte[]> values) {
+      String[] strings = new String[values.size()];
+      for (int i = 0; i < strings.length; ++i) {
+         strings[i] = new String(values.get(i), StandardCharsets.UTF_8);
+      }
+      return strings;
+   }
+
+   static void encode(Object result, ByteArrayOutputStream out) {
+      if (result == null || Boolean.FALSE.equals(result)) {
+         out.writeBytes(NULL_BULK);
+      } else if (Boolean.TRUE.equals(result)) {
+         simple(':', "1", out);
+      } else if (result instanceof Number) {
+         simple(':', Long.toString(((Number) result).longValue()), out);
+      } else if (result instanceof byte[]) {
+         bulk((byte[]) result, out);
+      } else if (result instanceof CharSequence) {
+         bulk(result.toString().getBytes(StandardCharsets.UTF_8), out);
+      } else if (result instanceof Map) {
+         Map<?, ?> map = (Map<?, ?>) result;
+         Object error = map.get("err");
+         Object status = map.get("ok");
+         if (error != null) {
+            simple('-', error.toString(), out);
+         } else if (status != null) {
+            simple('+', status.toString(), out);
+         } else {
+            // Script arrays, such as those of JavaScript, may be maps of their indexes
+            array(map.values(), out);
+         }
+      } else if (result instanceof Collection) {
+         array((Collection<?>) result, out);
+      } else if (result instanceof Object[]) {
+         array(Arrays.asList((Object[]) result), out);
+      } else {
+         bulk(result.toString().getBytes(StandardCharsets.UTF_8), out);
+      }
+   }
+
+   private static void array(Collection<?> values, ByteArrayOutputStream out) {
+      simple('*', Integer.toString(values.size()), out);
+      for (Object value : values) {
+         encode(value, out);
+      }
+   }
+
+   private static void bulk(byte[] value, ByteArrayOutputStream out) {
+      simple('$', Integer.toString(value.length), out);
+      out.writeBytes(value);
+      out.writeBytes(CRLF);
+   }
+
+   private static void simple(char type, String value, ByteArrayOutputStream out) {
+      out.write(type);
+      // Simple strings can't span several lines
+      out.writeBytes(value.replace('\r', ' ').replace('\n', ' ').getBytes(StandardCharsets.UTF_8));
+      out.writeBytes(CRLF);
+   }
+
+   private static final class Compiled {
+      private final ScriptEngine engine;
+      private final CompiledScript compiled;
+      private final String source;
+      private final boolean threadSafe;
+
+      Compiled(ScriptEngine engine, CompiledScript compiled, String source) {
+         this.engine = engine;
+         this.compiled = compiled;
+         this.source = source;
+         this.threadSafe = engine.getFactory().getParameter("THREADING") != null;
+      }
+
+      Object eval(ScriptExecution redis, String[] keys, String[] args) {
+         if (threadSafe) {
+            return doEval(redis, keys, args);
+         }
+         synchronized (engine) {
+            return doEval(redis, keys, args);
+         }
+      }
+
+      private Object doEval(ScriptExecution redis, String[] keys, String[] args) {
+         Bindings bindings = engine.createBindings();
+         bindings.put("redis", redis);
+         bindings.put("KEYS", keys);
+         bindings.put("ARGV", args);
+         try {
+            return compiled != null ? compiled.eval(bindings) : engine.eval(source, bindings);
+         } catch (ScriptException | RuntimeException e) {
+            for (Throwable t = e; t != null; t = t.getCause()) {
+               if (t instanceof ScriptError) {
+                  throw (ScriptError) t;
+               }
+            }
+            throw new ScriptError("ERR Error running script: " + e.getMessage());
+         }
+      }
+   }
+}
@@ -0,0 +1,13 @@
+package org.infinispan.server.resp.scripting;
+
+/**
+ * An error raised while compiling or running a script. The message is the error reply, starting with the error code,
+ * on a single line.
+ *
+ * @since 15.0
+ */
+public class ScriptError extends RuntimeException {
+   public ScriptError(String message) {
+      super(message.replace('\r', ' ').replace('\n', ' '), null, false, false);
+   }
+}
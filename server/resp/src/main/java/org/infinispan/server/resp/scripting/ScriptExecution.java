@@ -0,0 +1,281 @@
+package org.infinispan.server.resp.scripting;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.functional.EntryView;
+
+/**
+ * The {@code redis} object of a script, which runs commands against the key of the script.
+ * <p>
+ * The commands see the value as it was when the script started, followed by the updates of the previous commands.
+ * The updates are applied to the entry when the script ends, even if it fails, as Redis does not roll them back.
+ * <p>
+ * A bulk reply is returned to the script as a string, a missing value as {@code false}, an integer reply as a long and
+ * a status reply as a map with the {@code ok} field.
+ * <p>
+ * Once the script has run longer than its time limit, the next command fails, even with {@link #pcall(Object...)},
+ * and the thread evaluating the script is interrupted.
+ *
+ * @since 15.0
+ */
+public class ScriptExecution {
+   static final String ERR_NON_LOCAL_KEY = "ERR Script attempted to access a non local key in a cluster node";
+   static final String ERR_UNKNOWN_COMMAND = "ERR Unknown Redis command called from script";
+   static final String ERR_WRONG_TYPE = "WRONGTYPE Operation against a key holding the wrong kind of value";
+   static final String ERR_NOT_INTEGER = "ERR value is not an integer or out of range";
+   static final String ERR_DISABLED = "ERR Scripting is not enabled";
+   private static final Map<String, Object> OK = Map.of("ok", "OK");
+
+   private final byte[] key;
+   private final TimeService timeService;
+   private final long timeLimit;
+   private final long endTime;
+   private Object value;
+   private boolean modified;
+   private volatile boolean timedOut;
+   // The thread evaluating the script, interrupted when the time limit is exceeded
+   private Thread evaluating;
+
+   ScriptExecution(byte[] key, Object value, TimeService timeService, long timeLimit) {
+      this.key = key;
+      this.value = value;
+      this.timeService = timeService;
+      this.timeLimit = timeLimit;
+      this.endTime = timeService.expectedEndTime(timeLimit, TimeUnit.MILLISECONDS);
+   }
+
+   /**
+    * Runs the command, failing the script if the command fails.
+    */
+   public Object call(Object... arguments) {
+      return run(arguments);
+   }
+
+   /**
+    * Runs the command, returning an error reply to the script if the command fails.
+    */
+   public Object pcall(Object... arguments) {
+      try {
+         return run(arguments);
+      } catch (ScriptError e) {
+         if (timedOut) {
+            throw e;
+         }
+         return error_reply(e.getMessage());
+      }
+   }
+
+   public Map<String, Object> error_reply(String message) {
+      return Map.of("err", message);
+   }
+
+   public Map<String, Object> status_reply(String message) {
+      return Map.of("ok", message);
+   }
+
+   public String sha1hex(String script) {
+      return RespScripts.sha1(script);
+   }
+
+   boolean exceededTimeLimit() {
+      if (!timedOut && timeService.isTimeExpired(endTime)) {
+         timedOut = true;
+      }
+      return timedOut;
+   }
+
+   void checkTimeLimit() {
+      if (exceededTimeLimit()) {
+         throw timeLimitError();
+      }
+   }
+
+   ScriptError timeLimitError() {
+      return new ScriptError("ERR Script exceeded the time limit of " + timeLimit + " ms");
+   }
+
+   long remainingTime() {
+      return timeService.remainingTime(endTime, TimeUnit.MILLISECONDS);
+   }
+
+   synchronized void started() {
+      evaluating = Thread.currentThread();
+      if (timedOut) {
+         evaluating.interrupt();
+      }
+   }
+
+   synchronized void ended() {
+      evaluating = null;
+      // The blocking thread must not keep an interruption meant for this script
+      Thread.interrupted();
+   }
+
+   /**
+    * Fails the next commands of the script, and interrupts its evaluation if it is still running.
+    */
+   synchronized void timeOut() {
+      timedOut = true;
+      if (evaluating != null) {
+         evaluating.interrupt();
+      }
+   }
+
+   void apply(EntryView.ReadWriteEntryView<byte[], Object> entry) {
+      if (!modified) {
+         return;
+      }
+      if (value == null) {
+         entry.remove();
+      } else {
+         entry.set(value);
+      }
+   }
+
+   private Object run(Object[] arguments) {
+      checkTimeLimit();
+      if (arguments.length == 0) {
+         throw new ScriptError("ERR Please specify at least one argument for this redis lib call");
+      }
+      String command = string(arguments[0]).toUpperCase(Locale.ROOT);
+      switch (command) {
+         case "PING":
+            arity(command, arguments, 1, 2);
+            return arguments.length == 1 ? Map.of("ok", "PONG") : string(arguments[1]);
+         case "GET":
+            arity(command, arguments, 2, 2);
+            checkKey(arguments[1]);
+            byte[] current = current();
+            return current == null ? Boolean.FALSE : new String(current, StandardCharsets.UTF_8);
+         case "SET":
+            arity(command, arguments, 3, 3);
+            checkKey(arguments[1]);
+            update(bytes(arguments[2]));
+            return OK;
+         case "DEL":
+         case "EXISTS":
+            arity(command, arguments, 2, Integer.MAX_VALUE);
+            long count = 0;
+            for (int i = 1; i < arguments.length; ++i) {
+               checkKey(arguments[i]);
+               if (value != null) {
+                  count++;
+                  if (command.equals("DEL")) {
+                     update(null);
+                  }
+               }
+            }
+            return count;
+         case "INCR":
+         case "DECR":
+            arity(command, arguments, 2, 2);
+            checkKey(arguments[1]);
+            return increment(command.equals("INCR") ? 1 : -1);
+         case "INCRBY":
+         case "DECRBY":
+            arity(command, arguments, 3, 3);
+            checkKey(arguments[1]);
+            long delta = parseLong(bytes(arguments[2]));
+            if (command.equals("DECRBY")) {
+               if (delta == Long.MIN_VALUE) {
+                  throw new ScriptError("ERR decrement would overflow");
+               }
+               delta = -delta;
+            }
+            return increment(delta);
+         case "APPEND":
+            arity(command, arguments, 3, 3);
+            checkKey(arguments[1]);
+            byte[] previous = current();
+            byte[] suffix = bytes(arguments[2]);
+            if (previous == null) {
+               update(suffix);
+               return (long) suffix.length;
+            }
+            byte[] appended = Arrays.copyOf(previous, previous.length + suffix.length);
+            System.arraycopy(suffix, 0, appended, previous.length, suffix.length);
+            update(appended);
+            return (long) appended.length;
+         case "STRLEN":
+            arity(command, arguments, 2, 2);
+            checkKey(arguments[1]);
+            current = current();
+            return current == null ? 0L : (long) current.length;
+         default:
+            throw new ScriptError(ERR_UNKNOWN_COMMAND);
+      }
+   }
+
+   private long increment(long delta) {
+      byte[] current = current();
+      long result;
+      try {
+         result = Math.addExact(current == null ? 0 : parseLong(current), delta);
+      } catch (ArithmeticException e) {
+         throw new ScriptError("ERR increment or decrement would overflow");
+      }
+      update(Long.toString(result).getBytes(StandardCharsets.US_ASCII));
+      return result;
+   }
+
+   private byte[] current() {
+      if (value != null && !(value instanceof byte[])) {
+         throw new ScriptError(ERR_WRONG_TYPE);
+      }
+      return (byte[]) value;
+   }
+
+   private void update(byte[] newValue) {
+      value = newValue;
+      modified = true;
+   }
+
+   private void checkKey(Object argument) {
+      if (key == null || !Arrays.equals(key, bytes(argument))) {
+         throw new ScriptError(ERR_NON_LOCAL_KEY);
+      }
+   }
+
+   private static void arity(String command, Object[] arguments, int min, int max) {
+      if (arguments.length < min || arguments.length > max) {
+         throw new ScriptError("ERR wrong number of arguments for '" + command.toLowerCase(Locale.ROOT) + "' command");
+      }
+   }
+
+   private static long parseLong(byte[] value) {
+      try {
+         return Long.parseLong(new String(value, StandardCharsets.US_ASCII));
+      } catch (NumberFormatException e) {
+         throw new ScriptError(ERR_NOT_INTEGER);
+      }
+   }
+
+   static byte[] bytes(Object argument) {
+      if (argument instanceof byte[]) {
+         return (byte[]) argument;
+      }
+      return string(argument).getBytes(StandardCharsets.UTF_8);
+   }
+
+   private static String string(Object argument) {
+      if (argument == null) {
+         throw new ScriptError("ERR Lua redis lib command arguments must be strings or integers");
+      }
+      if (argument instanceof byte[]) {
+         return new String((byte[]) argument, StandardCharsets.UTF_8);
+      }
+      // Script numbers may be doubles, Redis passes them as integers when they have no fraction
+      if (argument instanceof Double || argument instanceof Float) {
+         double d = ((Number) argument).doubleValue();
+         if (d == Math.rint(d) && !Double.isInfinite(d)) {
+            return Long.toString((long) d);
+         }
+      }
+      return argument.toString();
+   }
+}
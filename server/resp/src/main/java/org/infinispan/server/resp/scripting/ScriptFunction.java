@@ -0,0 +1,63 @@
+package org.infinispan.server.resp.scripting;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.infinispan.commands.functional.functions.InjectableComponent;
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.functional.EntryView;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+
+/**
+ * Runs a script on the owner of its key, while the key is locked, so that the script reads and updates the value
+ * atomically.
+ * <p>
+ * The function carries the source of the script rather than its digest, so that any node can run it. The owner runs
+ * it with the {@link RespScripts} of its RESP server, so with the script engines and limits configured there.
+ *
+ * @since 15.0
+ */
+@ProtoTypeId(ProtoStreamTypeIds.RESP_SCRIPT_FUNCTION)
+public class ScriptFunction implements Function<EntryView.ReadWriteEntryView<byte[], Object>, byte[]>, InjectableComponent {
+   private static final byte[] DISABLED = ("-" + ScriptExecution.ERR_DISABLED + "\r\n").getBytes(StandardCharsets.US_ASCII);
+
+   @ProtoField(number = 1)
+   final String script;
+
+   @ProtoField(number = 2, collectionImplementation = ArrayList.class)
+   final List<byte[]> keys;
+
+   @ProtoField(number = 3, collectionImplementation = ArrayList.class)
+   final List<byte[]> args;
+
+   private RespScripts scripts;
+
+   @ProtoFactory
+   public ScriptFunction(String script, List<byte[]> keys, List<byte[]> args) {
+      this.script = script;
+      this.keys = keys;
+      this.args = args;
+   }
+
+   @Override
+   public void inject(ComponentRegistry registry) {
+      scripts = registry.getComponent(RespScripts.class);
+   }
+
+   /**
+    * @return the reply of the script, encoded in RESP
+    */
+   @Override
+   public byte[] apply(EntryView.ReadWriteEntryView<byte[], Object> entryView) {
+      // The owner has no RESP server for the cache
+      if (scripts == null) {
+         return DISABLED;
+      }
+      return scripts.eval(script, entryView, keys, args);
+   }
+}
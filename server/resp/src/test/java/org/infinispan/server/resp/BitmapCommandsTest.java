@@ -0,0 +1,131 @@
+package org.infinispan.server.resp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.infinispan.server.resp.test.RespTestingUtil.assertWrongType;
+
+import org.testng.annotations.Test;
+
+import io.lettuce.core.BitFieldArgs;
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.output.ArrayOutput;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+
+@Test(groups = "functional", testName = "server.resp.BitmapCommandsTest")
+public class BitmapCommandsTest extends SingleNodeRespBaseTest {
+
+   public void testSetbitGetbit() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      assertThat(redis.setbit("bits", 7, 1)).isZero();
+      assertThat(redis.setbit("bits", 7, 0)).isEqualTo(1);
+      assertThat(redis.getbit("bits", 7)).isZero();
+      assertThat(redis.setbit("bits", 1, 1)).isZero();
+      assertThat(redis.get("bits")).isEqualTo("@");
+      assertThat(redis.getbit("bits", 1)).isEqualTo(1);
+      assertThat(redis.getbit("bits", 100)).isZero();
+      assertThat(redis.getbit("nonexistent", 0)).isZero();
+      // Setting a bit after the end grows the string
+      redis.setbit("bits", 23, 0);
+      assertThat(redis.strlen("bits")).isEqualTo(3);
+
+      assertThatThrownBy(() -> redis.setbit("bits", -1, 1)).isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("ERR bit offset is not an integer or out of range");
+      assertThatThrownBy(() -> redis.setbit("bits", 1, 2)).isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("ERR bit is not an integer or out of range");
+      assertWrongType(() -> redis.rpush("list", "a"), () -> redis.setbit("list", 0, 1));
+   }
+
+   public void testBitcount() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.set("mykey", "foobar");
+      assertThat(redis.bitcount("mykey")).isEqualTo(26);
+      assertThat(redis.bitcount("mykey", 0, 0)).isEqualTo(4);
+      assertThat(redis.bitcount("mykey", 1, 1)).isEqualTo(6);
+      assertThat(redis.bitcount("mykey", -2, -1)).isEqualTo(7);
+      assertThat(redis.bitcount("nonexistent")).isZero();
+
+      assertThat(redis.dispatch(CommandType.BITCOUNT, new IntegerOutput<>(StringCodec.UTF8),
+            new CommandArgs<>(StringCodec.UTF8).addKey("mykey").add(5).add(30).add("BIT"))).isEqualTo(17);
+   }
+
+   public void testBitpos() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.setbit("pos", 12, 1);
+      assertThat(redis.bitpos("pos", true)).isEqualTo(12);
+      assertThat(redis.bitpos("pos", false)).isZero();
+      assertThat(redis.bitpos("pos", true, 2)).isEqualTo(-1);
+      assertThat(redis.bitpos("pos", true, 0, -1)).isEqualTo(12);
+
+      redis.set("ones", "\u007f");
+      redis.setbit("ones", 0, 1);
+      // Without an end, the first clear bit after the string is returned
+      assertThat(redis.bitpos("ones", false)).isEqualTo(8);
+      assertThat(redis.bitpos("ones", false, 0, -1)).isEqualTo(-1);
+
+      assertThat(redis.bitpos("nonexistent", false)).isZero();
+      assertThat(redis.bitpos("nonexistent", true)).isEqualTo(-1);
+   }
+
+   public void testBitop() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.set("key1", "foobar");
+      redis.set("key2", "abcdef");
+      assertThat(redis.bitopAnd("dest", "key1", "key2")).isEqualTo(6);
+      assertThat(redis.get("dest")).isEqualTo("`bc`ab");
+      assertThat(redis.bitopOr("dest", "key1", "key2", "nonexistent")).isEqualTo(6);
+      assertThat(redis.get("dest")).isEqualTo("goofev");
+      assertThat(redis.bitopXor("dest", "key1", "key1")).isEqualTo(6);
+      assertThat(redis.bitcount("dest")).isZero();
+      redis.set("short", "A");
+      assertThat(redis.bitopNot("dest", "short")).isEqualTo(1);
+      assertThat(redis.getbit("dest", 1)).isZero();
+      assertThat(redis.bitcount("dest")).isEqualTo(6);
+
+      // An empty result removes the destination
+      assertThat(redis.bitopOr("dest", "nonexistent")).isZero();
+      assertThat(redis.exists("dest")).isZero();
+
+      assertThatThrownBy(() -> redis.dispatch(CommandType.BITOP, new IntegerOutput<>(StringCodec.UTF8),
+            new CommandArgs<>(StringCodec.UTF8).add("NOT").addKeys("dest", "key1", "key2")))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("ERR BITOP NOT must be called with a single source key.");
+      assertWrongType(() -> redis.sadd("set", "a"), () -> redis.bitopAnd("dest", "key1", "set"));
+   }
+
+   public void testBitfield() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      assertThat(redis.bitfield("field", new BitFieldArgs()
+            .incrBy(BitFieldArgs.signed(5), 100, 1)
+            .get(BitFieldArgs.unsigned(4), 0)))
+            .containsExactly(1L, 0L);
+
+      assertThat(redis.bitfield("counters", new BitFieldArgs()
+            .set(BitFieldArgs.unsigned(8), 0, 255)
+            .incrBy(BitFieldArgs.unsigned(8), 0, 10)
+            .overflow(BitFieldArgs.OverflowType.SAT)
+            .incrBy(BitFieldArgs.unsigned(8), 0, 300)
+            .overflow(BitFieldArgs.OverflowType.FAIL)
+            .incrBy(BitFieldArgs.unsigned(8), 0, 1)
+            .get(BitFieldArgs.signed(8), BitFieldArgs.typeWidthBasedOffset(0))))
+            .containsExactly(0L, 9L, 255L, null, -1L);
+
+      assertThat(redis.dispatch(new RespSingleNodeTest.SimpleCommand("BITFIELD_RO"),
+            new ArrayOutput<>(StringCodec.UTF8),
+            new CommandArgs<>(StringCodec.UTF8).addKey("counters").add("GET").add("u8").add(0)))
+            .containsExactly(255L);
+      assertThatThrownBy(() -> redis.dispatch(new RespSingleNodeTest.SimpleCommand("BITFIELD_RO"),
+            new ArrayOutput<>(StringCodec.UTF8),
+            new CommandArgs<>(StringCodec.UTF8).addKey("counters").add("INCRBY").add("u8").add(0).add(1)))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("ERR BITFIELD_RO only supports the GET subcommand");
+
+      assertThatThrownBy(() -> redis.dispatch(CommandType.BITFIELD, new ArrayOutput<>(StringCodec.UTF8),
+            new CommandArgs<>(StringCodec.UTF8).addKey("counters").add("GET").add("u64").add(0)))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("ERR Invalid bitfield type");
+   }
+}
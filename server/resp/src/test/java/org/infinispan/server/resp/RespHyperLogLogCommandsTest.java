@@ -0,0 +1,66 @@
+package org.infinispan.server.resp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.infinispan.server.resp.test.RespTestingUtil.assertWrongType;
+
+import org.testng.annotations.Test;
+
+import io.lettuce.core.api.sync.RedisCommands;
+
+@Test(groups = "functional", testName = "server.resp.RespHyperLogLogCommandsTest")
+public class RespHyperLogLogCommandsTest extends SingleNodeRespBaseTest {
+
+   public void testPfadd() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      assertThat(redis.pfadd("hll", "a", "b", "c", "d", "e", "f", "g")).isEqualTo(1);
+      assertThat(redis.pfcount("hll")).isEqualTo(7);
+      assertThat(redis.pfadd("hll", "a", "b")).isEqualTo(0);
+      assertThat(redis.pfadd("hll", "h")).isEqualTo(1);
+      assertThat(redis.pfcount("hll")).isEqualTo(8);
+      assertThat(redis.type("hll")).isEqualTo("string");
+
+      assertWrongType(() -> redis.set("leads", "tristan"), () -> redis.pfadd("leads", "william"));
+      assertWrongType(() -> redis.rpush("listleads", "tristan"), () -> redis.pfcount("listleads"));
+   }
+
+   public void testPfcount() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      assertThat(redis.pfcount("nonexistent")).isZero();
+
+      String[] elements = new String[1000];
+      for (int i = 0; i < 10_000; i += elements.length) {
+         for (int j = 0; j < elements.length; ++j) {
+            elements[j] = "element" + (i + j);
+         }
+         redis.pfadd("large", elements);
+      }
+      assertThat(redis.pfcount("large")).isBetween(9700L, 10300L);
+
+      redis.pfadd("small", "element1", "another");
+      long large = redis.pfcount("large");
+      // The new element may not change the estimation of a large set
+      assertThat(redis.pfcount("large", "small", "nonexistent")).isBetween(large, large + 2);
+      // Counting many keys does not modify them
+      assertThat(redis.pfcount("small")).isEqualTo(2);
+   }
+
+   public void testPfmerge() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.pfadd("merge1", "foo", "bar", "zap", "a");
+      redis.pfadd("merge2", "a", "b", "c", "foo");
+      assertThat(redis.pfmerge("merge3", "merge1", "merge2")).isEqualTo("OK");
+      assertThat(redis.pfcount("merge3")).isEqualTo(6);
+
+      // The destination keeps its own elements
+      redis.pfadd("merge4", "x");
+      redis.pfmerge("merge4", "merge1", "nonexistent");
+      assertThat(redis.pfcount("merge4")).isEqualTo(5);
+
+      // The destination is created even if no source exists
+      redis.pfmerge("merge5", "nonexistent");
+      assertThat(redis.exists("merge5")).isEqualTo(1);
+      assertThat(redis.pfcount("merge5")).isZero();
+
+      assertWrongType(() -> redis.set("leads", "tristan"), () -> redis.pfmerge("merge6", "leads"));
+   }
+}
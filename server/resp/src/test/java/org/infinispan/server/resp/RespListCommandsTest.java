@@ -4,11 +4,14 @@
 import io.lettuce.core.LMoveArgs;
 import io.lettuce.core.LPosArgs;
 import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.StatefulRedisConnection;
 import io.lettuce.core.api.sync.RedisCommands;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static io.lettuce.core.LMPopArgs.Builder.left;
 import static io.lettuce.core.LMPopArgs.Builder.right;
@@ -371,4 +374,98 @@ public void testLMPOP() {
       assertThat(redis.exists("leads")).isEqualTo(0);
       assertWrongType(() -> redis.set("another", "tristan"), () -> redis.lmpop(left(), "another"));
    }
+
+   public void testBLPOP() throws Exception {
+      redis.rpush("leads", "william", "tristan");
+      KeyValue<String, String> popped = redis.blpop(1, "unk1", "leads");
+      assertThat(popped.getKey()).isEqualTo("leads");
+      assertThat(popped.getValue()).isEqualTo("william");
+
+      // Times out when all the lists are empty
+      assertThat(redis.blpop(0.1, "unk1", "unk2")).isNull();
+
+      StatefulRedisConnection<String, String> first = client.connect();
+      StatefulRedisConnection<String, String> second = client.connect();
+      try {
+         // Blocked clients are served in the order they blocked
+         RedisFuture<KeyValue<String, String>> firstPop = first.async().blpop(0, "jobs");
+         waitForBlockedCommands(1);
+         RedisFuture<KeyValue<String, String>> secondPop = second.async().blpop(10, "other", "jobs");
+         assertThat(firstPop.isDone()).isFalse();
+
+         redis.rpush("jobs", "job1", "job2");
+         assertThat(firstPop.get(10, TimeUnit.SECONDS).getValue()).isEqualTo("job1");
+         KeyValue<String, String> kv = secondPop.get(10, TimeUnit.SECONDS);
+         assertThat(kv.getKey()).isEqualTo("jobs");
+         assertThat(kv.getValue()).isEqualTo("job2");
+         assertThat(redis.exists("jobs")).isEqualTo(0);
+      } finally {
+         first.close();
+         second.close();
+      }
+
+      assertThatThrownBy(() -> redis.blpop(-1, "leads"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("timeout is negative");
+      assertWrongType(() -> redis.set("another", "tristan"), () -> redis.blpop(1, "another"));
+   }
+
+   public void testBRPOP() throws Exception {
+      StatefulRedisConnection<String, String> connection = client.connect();
+      try {
+         RedisFuture<KeyValue<String, String>> pop = connection.async().brpop(10, "leads");
+         waitForBlockedCommands(1);
+         redis.rpush("leads", "tristan");
+         KeyValue<String, String> popped = pop.get(10, TimeUnit.SECONDS);
+         assertThat(popped.getKey()).isEqualTo("leads");
+         assertThat(popped.getValue()).isEqualTo("tristan");
+         assertThat(redis.exists("leads")).isEqualTo(0);
+      } finally {
+         connection.close();
+      }
+   }
+
+   public void testBLMOVE() throws Exception {
+      assertThat(redis.blmove("unk1", "leads", LMoveArgs.Builder.rightLeft(), 0.1)).isNull();
+
+      StatefulRedisConnection<String, String> connection = client.connect();
+      try {
+         RedisFuture<String> move = connection.async().blmove("leads", "new_leads", LMoveArgs.Builder.rightLeft(), 10);
+         waitForBlockedCommands(1);
+         redis.rpush("leads", "tristan");
+         assertThat(move.get(10, TimeUnit.SECONDS)).isEqualTo("tristan");
+         assertThat(redis.exists("leads")).isEqualTo(0);
+         assertThat(redis.lrange("new_leads", 0, -1)).containsExactly("tristan");
+      } finally {
+         connection.close();
+      }
+   }
+
+   public void testBlockOnKeysAddedLater() throws Exception {
+      int listenersBefore = cache.getAdvancedCache().getListeners().size();
+      StatefulRedisConnection<String, String> first = client.connect();
+      StatefulRedisConnection<String, String> second = client.connect();
+      try {
+         RedisFuture<KeyValue<String, String>> firstPop = first.async().blpop(10, "jobs");
+         waitForBlockedCommands(1);
+         // The listener of the first key is replaced by one which also receives the events of the second
+         RedisFuture<KeyValue<String, String>> secondPop = second.async().blpop(10, "tasks");
+         waitForBlockedCommands(2);
+         eventually(() -> cache.getAdvancedCache().getListeners().size() == listenersBefore + 1);
+
+         redis.rpush("tasks", "task1");
+         assertThat(secondPop.get(10, TimeUnit.SECONDS).getValue()).isEqualTo("task1");
+         assertThat(firstPop.isDone()).isFalse();
+         redis.rpush("jobs", "job1");
+         assertThat(firstPop.get(10, TimeUnit.SECONDS).getValue()).isEqualTo("job1");
+      } finally {
+         first.close();
+         second.close();
+      }
+      eventually(() -> cache.getAdvancedCache().getListeners().size() == listenersBefore);
+   }
+
+   private void waitForBlockedCommands(int count) {
+      eventually(() -> server.getBlockingCommandManager().blockedCommands() == count);
+   }
 }
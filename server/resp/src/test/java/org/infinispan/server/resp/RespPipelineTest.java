@@ -0,0 +1,147 @@
+package org.infinispan.server.resp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.server.resp.configuration.RespServerConfigurationBuilder;
+import org.testng.annotations.Test;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * Sends pipelined commands with a pipeline depth lower than the number of commands, so that some of them run out of
+ * order and some wait for the others to complete.
+ *
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "server.resp.RespPipelineTest")
+public class RespPipelineTest extends SingleNodeRespBaseTest {
+
+   @Override
+   protected RespServerConfigurationBuilder serverConfiguration() {
+      return super.serverConfiguration().pipelineDepth(4);
+   }
+
+   public void testPipelinedRepliesInOrder() throws Exception {
+      RedisAsyncCommands<String, String> redis = redisConnection.async();
+      redis.setAutoFlushCommands(false);
+      try {
+         List<RedisFuture<?>> futures = new ArrayList<>();
+         int count = 100;
+         for (int i = 0; i < count; ++i) {
+            futures.add(redis.set("pipeline-k" + i, "v" + i));
+            futures.add(redis.get("pipeline-k" + i));
+            // Commands on the same key must run in order
+            futures.add(redis.incr("pipeline-counter"));
+            futures.add(redis.append("pipeline-k" + i, "-" + i));
+            if (i % 10 == 0) {
+               // A command that is not executed out of order
+               futures.add(redis.ping());
+            }
+         }
+         redis.flushCommands();
+
+         int pos = 0;
+         for (int i = 0; i < count; ++i) {
+            assertThat(futures.get(pos++).get(10, TimeUnit.SECONDS)).isEqualTo("OK");
+            assertThat(futures.get(pos++).get(10, TimeUnit.SECONDS)).isEqualTo("v" + i);
+            assertThat(futures.get(pos++).get(10, TimeUnit.SECONDS)).isEqualTo(i + 1L);
+            String expected = "v" + i + "-" + i;
+            assertThat(futures.get(pos++).get(10, TimeUnit.SECONDS)).isEqualTo((long) expected.length());
+            if (i % 10 == 0) {
+               assertThat(futures.get(pos++).get(10, TimeUnit.SECONDS)).isEqualTo("PONG");
+            }
+         }
+      } finally {
+         redis.setAutoFlushCommands(true);
+      }
+
+      RedisCommands<String, String> sync = redisConnection.sync();
+      assertThat(sync.get("pipeline-counter")).isEqualTo("100");
+      assertThat(sync.get("pipeline-k42")).isEqualTo("v42-42");
+   }
+
+   public void testPipelinedTransaction() throws Exception {
+      RedisAsyncCommands<String, String> redis = redisConnection.async();
+      redis.setAutoFlushCommands(false);
+      try {
+         RedisFuture<String> set = redis.set("pipeline-tx", "1");
+         RedisFuture<String> multi = redis.multi();
+         RedisFuture<Long> incr = redis.incr("pipeline-tx");
+         RedisFuture<?> exec = redis.exec();
+         RedisFuture<String> get = redis.get("pipeline-tx");
+         redis.flushCommands();
+
+         assertThat(set.get(10, TimeUnit.SECONDS)).isEqualTo("OK");
+         assertThat(multi.get(10, TimeUnit.SECONDS)).isEqualTo("OK");
+         exec.get(10, TimeUnit.SECONDS);
+         assertThat(incr.get(10, TimeUnit.SECONDS)).isEqualTo(2L);
+         assertThat(get.get(10, TimeUnit.SECONDS)).isEqualTo("2");
+      } finally {
+         redis.setAutoFlushCommands(true);
+      }
+   }
+
+   public void testFailedPipelinedCommand() {
+      // Every GET completes when the test completes its stage
+      Map<String, CompletableFuture<Void>> pending = new HashMap<>();
+      Resp3Handler handler = new Resp3Handler(server, MediaType.APPLICATION_OCTET_STREAM) {
+         @Override
+         protected CompletionStage<RespRequestHandler> actualHandleRequest(ChannelHandlerContext ctx, RespCommand type, List<byte[]> arguments) {
+            byte[] key = arguments.get(0);
+            ByteBufPool alloc = allocatorToUse;
+            CompletableFuture<Void> stage = new CompletableFuture<>();
+            pending.put(new String(key, StandardCharsets.US_ASCII), stage);
+            return stage.thenApply(ignore -> {
+               Consumers.GET_BICONSUMER.accept(key, alloc);
+               return this;
+            });
+         }
+      };
+      RespDecoder decoder = new RespDecoder();
+      EmbeddedChannel channel = new EmbeddedChannel(decoder, new RespHandler(decoder, handler, 4));
+      try {
+         channel.writeInbound(Unpooled.copiedBuffer("*2\r\n$3\r\nGET\r\n$1\r\na\r\n" +
+               "*2\r\n$3\r\nGET\r\n$4\r\nfail\r\n" +
+               "*2\r\n$3\r\nGET\r\n$1\r\nb\r\n", StandardCharsets.US_ASCII));
+         assertThat(pending).containsOnlyKeys("a", "fail", "b");
+
+         pending.get("b").complete(null);
+         pending.get("fail").completeExceptionally(new CacheException("injected failure"));
+         assertThat(readOutbound(channel)).isEmpty();
+         pending.get("a").complete(null);
+
+         String replies = readOutbound(channel);
+         assertThat(replies).startsWith("$1\r\na\r\n-ERR ").endsWith("\r\n$1\r\nb\r\n").contains("injected failure");
+         assertThat(channel.isOpen()).isTrue();
+      } finally {
+         channel.finishAndReleaseAll();
+      }
+   }
+
+   private static String readOutbound(EmbeddedChannel channel) {
+      StringBuilder sb = new StringBuilder();
+      ByteBuf buf;
+      while ((buf = channel.readOutbound()) != null) {
+         sb.append(buf.toString(StandardCharsets.US_ASCII));
+         buf.release();
+      }
+      return sb.toString();
+   }
+}
@@ -0,0 +1,158 @@
+package org.infinispan.server.resp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.server.resp.configuration.RespServerConfigurationBuilder;
+import org.testng.annotations.Test;
+
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.sync.RedisCommands;
+
+/**
+ * The scripts are JavaScript, run by Nashorn, as there is no Lua engine in the test classpath.
+ */
+@Test(groups = "functional", testName = "server.resp.RespScriptingTest")
+public class RespScriptingTest extends SingleNodeRespBaseTest {
+   private static final String COMPARE_AND_SET = "#!js\n" +
+         "redis.call('GET', KEYS[0]) == ARGV[0] ? (redis.call('SET', KEYS[0], ARGV[1]), 1) : 0";
+
+   @Override
+   protected RespServerConfigurationBuilder serverConfiguration() {
+      return super.serverConfiguration().scriptEngines("js").scriptTimeLimit(500);
+   }
+
+   public void testEvalReadModifyWrite() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.set("cas", "v1");
+      Long updated = redis.eval(COMPARE_AND_SET, ScriptOutputType.INTEGER, new String[]{"cas"}, "v1", "v2");
+      assertThat(updated).isEqualTo(1);
+      assertThat(redis.get("cas")).isEqualTo("v2");
+      updated = redis.eval(COMPARE_AND_SET, ScriptOutputType.INTEGER, new String[]{"cas"}, "v1", "v3");
+      assertThat(updated).isEqualTo(0);
+      assertThat(redis.get("cas")).isEqualTo("v2");
+
+      String script = "#!js\nfor (var i = 0; i < 10; i++) redis.call('INCRBY', KEYS[0], ARGV[0]);" +
+            "redis.call('APPEND', KEYS[0], '0'); redis.call('GET', KEYS[0])";
+      assertThat((String) redis.eval(script, ScriptOutputType.VALUE, new String[]{"counter"}, "2")).isEqualTo("200");
+      Long deleted = redis.eval("#!js\nredis.call('DEL', KEYS[0], KEYS[0])", ScriptOutputType.INTEGER, "counter");
+      assertThat(deleted).isEqualTo(1);
+      assertThat(redis.exists("counter")).isZero();
+   }
+
+   public void testEvalReplies() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      assertThat((String) redis.eval("#!js\n'hello ' + ARGV[0]", ScriptOutputType.VALUE, new String[0], "world"))
+            .isEqualTo("hello world");
+      // Without a shebang, the script runs with the first allowed engine
+      assertThat((String) redis.eval("'no ' + 'shebang'", ScriptOutputType.VALUE)).isEqualTo("no shebang");
+      assertThat((Long) redis.eval("#!js\n40 + 2.5", ScriptOutputType.INTEGER)).isEqualTo(42);
+      assertThat((String) redis.eval("#!js\nredis.call('GET', KEYS[0])", ScriptOutputType.VALUE, "missing")).isNull();
+      assertThat((List<Object>) redis.eval("#!js\n[1, 'two', [3]]", ScriptOutputType.MULTI))
+            .containsExactly(1L, "two", List.of(3L));
+      assertThat((String) redis.eval("#!js\nredis.status_reply('FINE')", ScriptOutputType.STATUS)).isEqualTo("FINE");
+      assertThatThrownBy(() -> redis.eval("#!js\nredis.error_reply('MYERR failed')", ScriptOutputType.STATUS))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessage("MYERR failed");
+   }
+
+   public void testEvalErrors() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      assertThatThrownBy(() -> redis.eval("#!js\nredis.call('GET', 'other')", ScriptOutputType.VALUE, "key"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("ERR Script attempted to access a non local key in a cluster node");
+      assertThatThrownBy(() -> redis.eval("#!js\nredis.call('FLUSHALL')", ScriptOutputType.VALUE))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("ERR Unknown Redis command called from script");
+      assertThatThrownBy(() -> redis.eval("#!js\n1", ScriptOutputType.INTEGER, "k1", "k2"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("ERR Scripts can only access the single key they run on");
+      assertThatThrownBy(() -> redis.eval("#!js\nnot javascript(", ScriptOutputType.INTEGER))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("ERR Error compiling script");
+      assertThatThrownBy(() -> redis.eval("#!nolang\n1", ScriptOutputType.INTEGER))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("ERR Scripting engine 'nolang' is not enabled");
+
+      redis.rpush("list", "a");
+      assertThatThrownBy(() -> redis.eval("#!js\nredis.call('GET', KEYS[0])", ScriptOutputType.VALUE, "list"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("WRONGTYPE");
+      assertThat((String) redis.eval("#!js\nredis.pcall('INCR', KEYS[0]).err", ScriptOutputType.VALUE, "list"))
+            .startsWith("WRONGTYPE");
+      // The updates before an error are kept
+      assertThatThrownBy(() -> redis.eval("#!js\nredis.call('SET', KEYS[0], 'a'); redis.call('INCR', KEYS[0])",
+            ScriptOutputType.INTEGER, "partial"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("ERR value is not an integer or out of range");
+      assertThat(redis.get("partial")).isEqualTo("a");
+   }
+
+   public void testEvalTimeLimit() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      String busy = "var end = Date.now() + 1000; while (Date.now() < end) {}";
+      assertThatThrownBy(() -> redis.eval("#!js\n" + busy + " redis.call('SET', KEYS[0], 'late')", ScriptOutputType.STATUS, "slow"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("ERR Script exceeded the time limit of 500 ms");
+      // The updates of the script are discarded, even those made before the limit
+      assertThatThrownBy(() -> redis.eval("#!js\nredis.call('SET', KEYS[0], 'early'); " + busy +
+            " redis.pcall('GET', KEYS[0])", ScriptOutputType.VALUE, "slow"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("ERR Script exceeded the time limit of 500 ms");
+      assertThat(redis.exists("slow")).isZero();
+   }
+
+   public void testEvalTimeLimitWithoutCommands() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      // The script never calls a command, it is only stopped by the time limit
+      String busy = "#!js\nvar end = Date.now() + 2000; while (Date.now() < end) {} 1";
+      long start = System.nanoTime();
+      assertThatThrownBy(() -> redis.eval(busy, ScriptOutputType.INTEGER, "busy"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("ERR Script exceeded the time limit of 500 ms");
+      assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+      // The key is released while the script is still running
+      assertThat(redis.set("busy", "v")).isEqualTo("OK");
+      assertThat(redis.get("busy")).isEqualTo("v");
+      // Nashorn is not thread safe, wait until it has finished the script before the next test
+      eventually(() -> {
+         try {
+            return "done".equals(redis.eval("#!js\n'done'", ScriptOutputType.VALUE));
+         } catch (RedisCommandExecutionException e) {
+            return false;
+         }
+      });
+      assertThat(redis.get("busy")).isEqualTo("v");
+   }
+
+   public void testScriptLoadAndEvalsha() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      String sha = redis.scriptLoad(COMPARE_AND_SET);
+      assertThat(sha).isEqualTo(redis.digest(COMPARE_AND_SET));
+      assertThat(redis.scriptExists(sha, "0000000000000000000000000000000000000000")).containsExactly(true, false);
+
+      redis.set("sha", "a");
+      Long updated = redis.evalsha(sha, ScriptOutputType.INTEGER, new String[]{"sha"}, "a", "b");
+      assertThat(updated).isEqualTo(1);
+      assertThat(redis.get("sha")).isEqualTo("b");
+
+      String evalSha = redis.digest("#!js\n'evaluated'");
+      assertThat(redis.scriptExists(evalSha)).containsExactly(false);
+      redis.eval("#!js\n'evaluated'", ScriptOutputType.VALUE);
+      assertThat((String) redis.evalsha(evalSha, ScriptOutputType.VALUE)).isEqualTo("evaluated");
+
+      assertThatThrownBy(() -> redis.scriptLoad("#!js\nnot javascript("))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("ERR Error compiling script");
+
+      assertThat(redis.scriptFlush()).isEqualTo("OK");
+      assertThat(redis.scriptExists(sha, evalSha)).containsExactly(false, false);
+      assertThatThrownBy(() -> redis.evalsha(sha, ScriptOutputType.INTEGER, new String[]{"sha"}, "b", "c"))
+            .isInstanceOf(RedisNoScriptException.class);
+   }
+}
@@ -1,8 +1,10 @@
 package org.infinispan.server.resp;
 
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 
 import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.test.Exceptions;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.global.GlobalConfigurationBuilder;
@@ -10,6 +12,7 @@
 import org.infinispan.server.core.test.Stoppable;
 import org.infinispan.server.resp.configuration.RespServerConfiguration;
 import org.infinispan.server.resp.configuration.RespServerConfigurationBuilder;
+import org.infinispan.server.resp.scripting.ScriptError;
 import org.infinispan.test.AbstractInfinispanTest;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.testng.annotations.Test;
@@ -60,4 +63,14 @@ public void testNoDefaultConfigurationClustered() {
                assertEquals(CacheMode.REPL_SYNC, ms.getCache().getCacheConfiguration().clustering().cacheMode());
             }));
    }
+
+   public void testScriptingDisabledByDefault() {
+      Stoppable.useCacheManager(TestCacheManagerFactory.createCacheManager(), cm ->
+            Stoppable.useServer(new RespServer(), ms -> {
+               ms.start(new RespServerConfigurationBuilder().port(0).build(), cm);
+               assertFalse(ms.getScripts().isEnabled());
+               Exceptions.expectException(ScriptError.class, "ERR Scripting is not enabled",
+                     () -> ms.getScripts().load("#!js\n1"));
+            }));
+   }
 }
@@ -25,6 +25,7 @@
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -34,6 +35,7 @@
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.server.resp.commands.Commands;
+import org.infinispan.server.resp.configuration.RespServerConfigurationBuilder;
 import org.infinispan.server.resp.test.CommonRespTests;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Factory;
@@ -51,6 +53,7 @@
 import io.lettuce.core.api.sync.RedisCommands;
 import io.lettuce.core.codec.StringCodec;
 import io.lettuce.core.output.ArrayOutput;
+import io.lettuce.core.output.IntegerOutput;
 import io.lettuce.core.output.StatusOutput;
 import io.lettuce.core.protocol.CommandArgs;
 import io.lettuce.core.protocol.ProtocolKeyword;
@@ -68,12 +71,14 @@ public class RespSingleNodeTest extends SingleNodeRespBaseTest {
 
    private CacheMode cacheMode = CacheMode.LOCAL;
    private boolean simpleCache;
+   private boolean keyPrefixIndex;
 
    @Factory
    public Object[] factory() {
       return new Object[]{
             new RespSingleNodeTest(),
-            new RespSingleNodeTest().simpleCache()
+            new RespSingleNodeTest().simpleCache(),
+            new RespSingleNodeTest().keyPrefixIndex()
       };
    }
 
@@ -83,9 +88,19 @@ RespSingleNodeTest simpleCache() {
       return this;
    }
 
+   RespSingleNodeTest keyPrefixIndex() {
+      this.keyPrefixIndex = true;
+      return this;
+   }
+
    @Override
    protected String parameters() {
-      return "[simpleCache=" + simpleCache + ", cacheMode=" + cacheMode + "]";
+      return "[simpleCache=" + simpleCache + ", cacheMode=" + cacheMode + ", keyPrefixIndex=" + keyPrefixIndex + "]";
+   }
+
+   @Override
+   protected RespServerConfigurationBuilder serverConfiguration() {
+      return super.serverConfiguration().keyPrefixIndex(keyPrefixIndex);
    }
 
    @Override
@@ -400,7 +415,7 @@ public void testAuth() {
    public void testNotImplementedCommand() {
       RedisCommands<String, String> redis = redisConnection.sync();
       Exceptions.expectException(RedisCommandExecutionException.class, "ERR unknown command",
-            () -> redis.xdel("not-supported", "should error"));
+            () -> redis.geoadd("not-supported", 13.361389, 38.115556, "should error"));
    }
 
    protected RedisPubSubCommands<String, String> createPubSubConnection() {
@@ -598,6 +613,60 @@ public void testScanMatch() {
          if (cursor.isFinished())
             break;
       }
+      assertThat(keys).isEqualTo(all.stream().filter(k -> k.startsWith("k1")).collect(Collectors.toSet()));
+   }
+
+   @Test
+   public void testScanMatchKeysVisited() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.flushdb();
+      for (int i = 0; i < 100; i++) {
+         redis.set("visited-other-" + i, v(i));
+      }
+      for (int i = 0; i < 5; i++) {
+         redis.set("visited:" + i, v(i));
+      }
+      long visited = infoStat(redis, "scan_keys_visited");
+      long indexed = infoStat(redis, "scan_indexed_total");
+      Set<String> keys = new HashSet<>();
+      ScanArgs args = ScanArgs.Builder.matches("visited:*");
+      for (KeyScanCursor<String> cursor = redis.scan(args); ; cursor = redis.scan(cursor, args)) {
+         keys.addAll(cursor.getKeys());
+         if (cursor.isFinished())
+            break;
+      }
+      assertThat(keys).hasSize(5);
+      if (keyPrefixIndex) {
+         // Only the keys with the prefix are visited
+         assertThat(infoStat(redis, "scan_keys_visited")).isEqualTo(visited + 5);
+         assertThat(infoStat(redis, "scan_indexed_total")).isEqualTo(indexed + 1);
+      } else {
+         assertThat(infoStat(redis, "scan_keys_visited")).isGreaterThanOrEqualTo(visited + 105);
+         assertThat(infoStat(redis, "scan_indexed_total")).isEqualTo(indexed);
+      }
+   }
+
+   @Test
+   public void testKeys() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.flushdb();
+      for (int i = 0; i < 15; i++) {
+         redis.set("keys-" + i, v(i));
+      }
+      redis.set("other", "v");
+      assertThat(redis.keys("keys-1*")).containsExactlyInAnyOrder("keys-1", "keys-10", "keys-11", "keys-12", "keys-13", "keys-14");
+      assertThat(redis.keys("*")).hasSize(16);
+      assertThat(redis.keys("keys-?")).hasSize(10);
+      assertThat(redis.keys("missing*")).isEmpty();
+   }
+
+   private static long infoStat(RedisCommands<String, String> redis, String name) {
+      for (String line : redis.info("stats").split("\r\n")) {
+         if (line.startsWith(name + ":")) {
+            return Long.parseLong(line.substring(name.length() + 1));
+         }
+      }
+      throw new AssertionError(name + " not found");
    }
 
    @Test
@@ -758,10 +827,75 @@ public void testPExpireTime() {
    @Test
    public void testMemoryUsage() {
       RedisCommands<String, String> redis = redisConnection.sync();
+      assertThat(redis.memoryUsage(k())).isNull();
       redis.set(k(), "1");
-      assertThat(redis.memoryUsage(k())).isEqualTo(16);
+      long small = redis.memoryUsage(k());
+      assertThat(small).isPositive();
       redis.set(k(1), "a".repeat(1001));
-      assertThat(redis.memoryUsage(k(1))).isEqualTo(1032);
+      assertThat(redis.memoryUsage(k(1))).isGreaterThan(small + 1000);
+
+      for (int i = 0; i < 100; i++) {
+         redis.rpush(k(2), "element-" + i);
+         redis.hset(k(3), "field-" + i, "value-" + i);
+      }
+      long list = redis.memoryUsage(k(2));
+      assertThat(list).isGreaterThan(100 * "element-0".length());
+      assertThat(redis.hset(k(3), "field-100", "x".repeat(10_000))).isTrue();
+      // The extra field is only seen when all the elements are measured
+      CommandArgs<String, String> args = new CommandArgs<>(StringCodec.UTF8).add("USAGE").addKey(k(3)).add("SAMPLES").add(0);
+      long hash = redis.dispatch(new SimpleCommand("MEMORY"), new IntegerOutput<>(StringCodec.UTF8), args);
+      assertThat(hash).isGreaterThan(10_000 + 100 * "field-0value-0".length());
+   }
+
+   @Test
+   public void testMemoryStats() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.flushall();
+      for (int i = 0; i < 10; i++) {
+         redis.set(k(i), v(i));
+      }
+      redis.sadd(k(10), "a", "b", "c");
+      CommandArgs<String, String> args = new CommandArgs<>(StringCodec.UTF8).add("STATS");
+      List<Object> response = redis.dispatch(new SimpleCommand("MEMORY"), new ArrayOutput<>(StringCodec.UTF8), args);
+      Map<Object, Object> stats = new HashMap<>();
+      for (int i = 0; i < response.size(); i += 2) {
+         stats.put(response.get(i), response.get(i + 1));
+      }
+      assertThat(stats).containsEntry("keys.count", 11L);
+      long dataset = (Long) stats.get("dataset.bytes");
+      assertThat(dataset).isPositive();
+      assertThat(stats.get("keys.bytes-per-key")).isEqualTo(dataset / 11);
+      assertThat((Long) stats.get("total.allocated")).isGreaterThanOrEqualTo(dataset);
+      assertThat((Long) stats.get("allocator.allocated")).isPositive();
+   }
+
+   @Test
+   public void testMemoryBigKeys() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.flushall();
+      redis.set(k(), "small");
+      redis.set(k(1), "b".repeat(1000));
+      redis.lpush(k(2), "a", "b");
+      CommandArgs<String, String> args = new CommandArgs<>(StringCodec.UTF8).add("BIGKEYS");
+      List<Object> response = redis.dispatch(new SimpleCommand("MEMORY"), new ArrayOutput<>(StringCodec.UTF8), args);
+      assertThat(response).hasSize(2);
+      Map<Object, List<Object>> byType = new HashMap<>();
+      for (Object o : response) {
+         List<Object> type = (List<Object>) o;
+         byType.put(type.get(0), type);
+      }
+      List<Object> strings = byType.get("string");
+      assertThat(strings.get(1)).isEqualTo(k(1));
+      assertThat(strings.get(2)).isEqualTo(redis.memoryUsage(k(1)));
+      assertThat(strings.get(3)).isEqualTo(2L);
+      assertThat((Long) strings.get(4)).isEqualTo(redis.memoryUsage(k()) + redis.memoryUsage(k(1)));
+      List<Object> lists = byType.get("list");
+      assertThat(lists.get(1)).isEqualTo(k(2));
+      assertThat(lists.get(3)).isEqualTo(1L);
+
+      args = new CommandArgs<>(StringCodec.UTF8).add("BIGKEYS").add("COUNT").add(1);
+      response = redis.dispatch(new SimpleCommand("MEMORY"), new ArrayOutput<>(StringCodec.UTF8), args);
+      assertThat(response).hasSize(1);
    }
 
    @Test
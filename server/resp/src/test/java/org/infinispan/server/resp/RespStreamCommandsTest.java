@@ -0,0 +1,209 @@
+package org.infinispan.server.resp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.infinispan.server.resp.test.RespTestingUtil.assertWrongType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.infinispan.commons.time.ControlledTimeService;
+import org.testng.annotations.Test;
+
+import io.lettuce.core.Consumer;
+import io.lettuce.core.Limit;
+import io.lettuce.core.Range;
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.XAddArgs;
+import io.lettuce.core.XGroupCreateArgs;
+import io.lettuce.core.XReadArgs;
+import io.lettuce.core.XTrimArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.models.stream.PendingMessage;
+import io.lettuce.core.models.stream.PendingMessages;
+
+@Test(groups = "functional", testName = "server.resp.RespStreamCommandsTest")
+public class RespStreamCommandsTest extends SingleNodeRespBaseTest {
+
+   public void testXaddAndXrange() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      String first = redis.xadd("events", Map.of("sensor", "1", "value", "20"));
+      String second = redis.xadd("events", Map.of("sensor", "2"));
+      assertThat(first).matches("\\d+-\\d+");
+      assertThat(second).isNotEqualTo(first);
+      assertThat(redis.xlen("events")).isEqualTo(2);
+      assertThat(redis.type("events")).isEqualTo("stream");
+
+      assertThat(redis.xadd("ids", new XAddArgs().id("5-1"), "f", "v")).isEqualTo("5-1");
+      assertThat(redis.xadd("ids", new XAddArgs().id("5-*"), "f", "v")).isEqualTo("5-2");
+      assertThat(redis.xadd("ids", new XAddArgs().id("7"), "f", "v")).isEqualTo("7-0");
+      assertThatThrownBy(() -> redis.xadd("ids", new XAddArgs().id("6-0"), "f", "v"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessage("ERR The ID specified in XADD is equal or smaller than the target stream top item");
+      assertThatThrownBy(() -> redis.xadd("zero", new XAddArgs().id("0-0"), "f", "v"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessage("ERR The ID specified in XADD must be greater than 0-0");
+      assertThat(redis.xadd("missing", XAddArgs.Builder.nomkstream(), "f", "v")).isNull();
+      assertThat(redis.exists("missing")).isZero();
+
+      List<StreamMessage<String, String>> messages = redis.xrange("ids", Range.create("-", "+"));
+      assertThat(ids(messages)).containsExactly("5-1", "5-2", "7-0");
+      assertThat(messages.get(0).getStream()).isEqualTo("ids");
+      assertThat(messages.get(0).getBody()).containsEntry("f", "v");
+      assertThat(ids(redis.xrange("ids", Range.create("5", "5")))).containsExactly("5-1", "5-2");
+      assertThat(ids(redis.xrange("ids", Range.from(Range.Boundary.excluding("5-1"), Range.Boundary.unbounded()))))
+            .containsExactly("5-2", "7-0");
+      assertThat(ids(redis.xrange("ids", Range.create("-", "+"), Limit.from(1)))).containsExactly("5-1");
+      assertThat(ids(redis.xrevrange("ids", Range.create("-", "+"), Limit.from(2)))).containsExactly("7-0", "5-2");
+      assertThat(redis.xrange("not_existing", Range.create("-", "+"))).isEmpty();
+      assertThat(redis.xlen("not_existing")).isZero();
+
+      assertThat(redis.xdel("ids", "5-2", "8-0")).isEqualTo(1);
+      assertThat(ids(redis.xrange("ids", Range.create("-", "+")))).containsExactly("5-1", "7-0");
+      // The last ID is kept after deleting the last entry
+      assertThat(redis.xdel("ids", "7-0")).isEqualTo(1);
+      assertThatThrownBy(() -> redis.xadd("ids", new XAddArgs().id("7-0"), "f", "v"))
+            .isInstanceOf(RedisCommandExecutionException.class);
+
+      assertThatThrownBy(() -> redis.xrange("ids", Range.create("a", "+")))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessage("ERR Invalid stream ID specified as stream command argument");
+      assertWrongType(() -> redis.set("string", "value"), () -> redis.xadd("string", Map.of("f", "v")));
+      assertWrongType(() -> {}, () -> redis.xlen("string"));
+   }
+
+   public void testXtrim() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      for (int i = 1; i <= 300; ++i) {
+         redis.xadd("trimmed", new XAddArgs().id(i + "-0"), "n", Integer.toString(i));
+      }
+      // The approximate trimming removes whole segments
+      assertThat(redis.xtrim("trimmed", true, 150)).isEqualTo(100);
+      assertThat(redis.xtrim("trimmed", 150)).isEqualTo(50);
+      assertThat(redis.xlen("trimmed")).isEqualTo(150);
+      assertThat(redis.xtrim("trimmed", XTrimArgs.Builder.minId("201"))).isEqualTo(50);
+      assertThat(ids(redis.xrange("trimmed", Range.create("-", "+"), Limit.from(1)))).containsExactly("201-0");
+
+      redis.xadd("trimmed", XAddArgs.Builder.maxlen(10), "n", "301");
+      assertThat(redis.xlen("trimmed")).isEqualTo(10);
+      assertThat(redis.xtrim("not_existing", 0)).isZero();
+   }
+
+   public void testXread() throws Exception {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      redis.xadd("s1", new XAddArgs().id("1-0"), "a", "1");
+      redis.xadd("s1", new XAddArgs().id("2-0"), "a", "2");
+      redis.xadd("s2", new XAddArgs().id("1-0"), "b", "1");
+
+      List<StreamMessage<String, String>> read = redis.xread(XReadArgs.StreamOffset.from("s1", "0"),
+            XReadArgs.StreamOffset.from("s2", "1-0"), XReadArgs.StreamOffset.from("not_existing", "0"));
+      assertThat(ids(read)).containsExactly("1-0", "2-0");
+      assertThat(read).extracting(StreamMessage::getStream).containsOnly("s1");
+      assertThat(ids(redis.xread(XReadArgs.Builder.count(1), XReadArgs.StreamOffset.from("s1", "0"),
+            XReadArgs.StreamOffset.from("s2", "0")))).containsExactly("1-0", "1-0");
+      assertThat(redis.xread(XReadArgs.StreamOffset.latest("s1"))).isEmpty();
+      assertThat(redis.xread(XReadArgs.Builder.block(100), XReadArgs.StreamOffset.latest("s1"))).isEmpty();
+
+      StatefulRedisConnection<String, String> connection = client.connect();
+      try {
+         RedisFuture<List<StreamMessage<String, String>>> blocked = connection.async()
+               .xread(XReadArgs.Builder.block(0), XReadArgs.StreamOffset.latest("s1"), XReadArgs.StreamOffset.latest("s3"));
+         waitForBlockedCommands(1);
+         assertThat(blocked.isDone()).isFalse();
+         redis.xadd("s3", new XAddArgs().id("9-0"), "c", "3");
+         List<StreamMessage<String, String>> messages = blocked.get(10, TimeUnit.SECONDS);
+         assertThat(messages).hasSize(1);
+         assertThat(messages.get(0).getStream()).isEqualTo("s3");
+         assertThat(messages.get(0).getId()).isEqualTo("9-0");
+         assertThat(messages.get(0).getBody()).containsEntry("c", "3");
+      } finally {
+         connection.close();
+      }
+
+      assertThatThrownBy(() -> redis.xread(XReadArgs.Builder.block(-1), XReadArgs.StreamOffset.from("s1", "0")))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("timeout is negative");
+   }
+
+   public void testConsumerGroups() throws Exception {
+      RedisCommands<String, String> redis = redisConnection.sync();
+      for (int i = 1; i <= 4; ++i) {
+         redis.xadd("jobs", new XAddArgs().id(i + "-0"), "job", Integer.toString(i));
+      }
+      assertThat(redis.xgroupCreate(XReadArgs.StreamOffset.from("jobs", "0"), "workers")).isEqualTo("OK");
+      assertThatThrownBy(() -> redis.xgroupCreate(XReadArgs.StreamOffset.from("jobs", "0"), "workers"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessage("BUSYGROUP Consumer Group name already exists");
+      assertThatThrownBy(() -> redis.xgroupCreate(XReadArgs.StreamOffset.latest("no_jobs"), "workers"))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageContaining("requires the key to exist");
+      assertThat(redis.xgroupCreate(XReadArgs.StreamOffset.latest("no_jobs"), "workers", XGroupCreateArgs.Builder.mkstream()))
+            .isEqualTo("OK");
+      assertThat(redis.type("no_jobs")).isEqualTo("stream");
+
+      Consumer<String> alice = Consumer.from("workers", "alice");
+      Consumer<String> bob = Consumer.from("workers", "bob");
+      assertThat(ids(redis.xreadgroup(alice, XReadArgs.Builder.count(3), XReadArgs.StreamOffset.lastConsumed("jobs"))))
+            .containsExactly("1-0", "2-0", "3-0");
+      assertThat(ids(redis.xreadgroup(bob, XReadArgs.StreamOffset.lastConsumed("jobs")))).containsExactly("4-0");
+      assertThat(redis.xreadgroup(bob, XReadArgs.StreamOffset.lastConsumed("jobs"))).isEmpty();
+
+      PendingMessages summary = redis.xpending("jobs", "workers");
+      assertThat(summary.getCount()).isEqualTo(4);
+      assertThat(summary.getMessageIds().getLower().getValue()).isEqualTo("1-0");
+      assertThat(summary.getMessageIds().getUpper().getValue()).isEqualTo("4-0");
+      assertThat(summary.getConsumerMessageCount()).containsEntry("alice", 3L).containsEntry("bob", 1L);
+
+      ((ControlledTimeService) timeService).advance(5000);
+      // Reading the history delivers the pending entries again
+      assertThat(ids(redis.xreadgroup(alice, XReadArgs.StreamOffset.from("jobs", "1-0")))).containsExactly("2-0", "3-0");
+      List<PendingMessage> pending = redis.xpending("jobs", alice, Range.create("-", "+"), Limit.from(10));
+      assertThat(pending).extracting(PendingMessage::getId).containsExactly("1-0", "2-0", "3-0");
+      assertThat(pending).extracting(PendingMessage::getRedeliveryCount).containsExactly(1L, 2L, 2L);
+      assertThat(pending.get(0).getMsSinceLastDelivery()).isEqualTo(5000);
+      assertThat(pending.get(1).getMsSinceLastDelivery()).isZero();
+
+      assertThat(redis.xack("jobs", "workers", "1-0", "2-0", "9-0")).isEqualTo(2);
+      assertThat(redis.xpending("jobs", "workers").getCount()).isEqualTo(2);
+
+      assertThat(redis.xgroupCreateconsumer("jobs", Consumer.from("workers", "carol"))).isTrue();
+      assertThat(redis.xgroupDelconsumer("jobs", bob)).isEqualTo(1);
+      assertThat(redis.xgroupSetid(XReadArgs.StreamOffset.from("jobs", "2-0"), "workers")).isEqualTo("OK");
+      assertThat(ids(redis.xreadgroup(Consumer.from("workers", "carol"), XReadArgs.Builder.noack(true),
+            XReadArgs.StreamOffset.lastConsumed("jobs")))).containsExactly("3-0", "4-0");
+      assertThat(redis.xpending("jobs", "workers").getConsumerMessageCount()).containsOnlyKeys("alice");
+
+      StatefulRedisConnection<String, String> connection = client.connect();
+      try {
+         RedisFuture<List<StreamMessage<String, String>>> blocked = connection.async()
+               .xreadgroup(bob, XReadArgs.Builder.block(10_000), XReadArgs.StreamOffset.lastConsumed("jobs"));
+         waitForBlockedCommands(1);
+         redis.xadd("jobs", new XAddArgs().id("5-0"), "job", "5");
+         assertThat(ids(blocked.get(10, TimeUnit.SECONDS))).containsExactly("5-0");
+      } finally {
+         connection.close();
+      }
+
+      assertThat(redis.xgroupDestroy("jobs", "workers")).isTrue();
+      assertThat(redis.xgroupDestroy("jobs", "workers")).isFalse();
+      assertThatThrownBy(() -> redis.xreadgroup(alice, XReadArgs.StreamOffset.lastConsumed("jobs")))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageStartingWith("NOGROUP");
+      assertThatThrownBy(() -> redis.xreadgroup(alice, XReadArgs.StreamOffset.lastConsumed("not_existing")))
+            .isInstanceOf(RedisCommandExecutionException.class)
+            .hasMessageStartingWith("NOGROUP");
+   }
+
+   private static List<String> ids(List<StreamMessage<String, String>> messages) {
+      return messages.stream().map(StreamMessage::getId).collect(Collectors.toList());
+   }
+
+   private void waitForBlockedCommands(int count) {
+      eventually(() -> server.getBlockingCommandManager().blockedCommands() == count);
+   }
+}
@@ -0,0 +1,18 @@
+package org.infinispan.server.resp;
+
+import org.infinispan.server.resp.configuration.RespServerConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the two node tests with the replies of multi-key reads written as the owners answer.
+ *
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "server.resp.RespTwoNodeStreamingTest")
+public class RespTwoNodeStreamingTest extends RespTwoNodeTest {
+
+   @Override
+   protected RespServerConfigurationBuilder serverConfiguration(int offset) {
+      return super.serverConfiguration(offset).streamBatchedReplies(true);
+   }
+}
@@ -1,17 +1,27 @@
 package org.infinispan.server.resp;
 
 import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.KeyValue;
 import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.output.StatusOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
 import org.infinispan.Cache;
 import org.infinispan.distribution.DistributionTestHelper;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
+import org.infinispan.server.resp.configuration.RespServerConfigurationBuilder;
 import org.infinispan.server.resp.test.CommonRespTests;
 import org.infinispan.test.Mocks;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.CheckPoint;
 import org.testng.annotations.Test;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -25,6 +35,11 @@
 @Test(groups = "functional", testName = "server.resp.RespTwoNodeTest")
 public class RespTwoNodeTest extends BaseMultipleRespTest {
 
+   @Override
+   protected RespServerConfigurationBuilder serverConfiguration(int offset) {
+      return super.serverConfiguration(offset).scriptEngines("js");
+   }
+
    public void testConcurrentOperations() throws ExecutionException, InterruptedException, TimeoutException {
       CheckPoint checkPoint = new CheckPoint();
       checkPoint.triggerForever(Mocks.AFTER_RELEASE);
@@ -62,4 +77,47 @@ public void testConcurrentOperations() throws ExecutionException, InterruptedExc
    public void testPipeline() throws ExecutionException, InterruptedException, TimeoutException {
       CommonRespTests.testPipeline(redisConnection1);
    }
+
+   public void testMultiKeyCommands() throws ExecutionException, InterruptedException, TimeoutException {
+      RedisCommands<String, String> redis = redisConnection1.sync();
+      Map<String, String> values = new LinkedHashMap<>();
+      for (int i = 0; i < 500; ++i) {
+         values.put("batch-k" + i, "v" + i);
+      }
+      assertThat(redis.mset(values)).isEqualTo(OK);
+
+      String[] keys = new String[values.size() + 2];
+      values.keySet().toArray(keys);
+      keys[values.size()] = "batch-missing";
+      keys[values.size() + 1] = "batch-k0";
+      List<KeyValue<String, String>> results = redis.mget(keys);
+      assertThat(results).hasSize(keys.length);
+      for (int i = 0; i < values.size(); ++i) {
+         assertThat(results.get(i).getKey()).isEqualTo("batch-k" + i);
+         assertThat(results.get(i).getValue()).isEqualTo("v" + i);
+      }
+      assertThat(results.get(values.size()).hasValue()).isFalse();
+      assertThat(results.get(values.size() + 1).getValue()).isEqualTo("v0");
+
+      // Present keys are counted every time they are given
+      assertThat(redis.exists(keys)).isEqualTo(values.size() + 1);
+
+      // The last value of a repeated key is stored
+      redisConnection1.async().dispatch(CommandType.MSET, new StatusOutput<>(StringCodec.UTF8),
+            new CommandArgs<>(StringCodec.UTF8).add("batch-k1").add("first").add("batch-k1").add("second")).get(10, TimeUnit.SECONDS);
+      assertThat(redisConnection2.sync().get("batch-k1")).isEqualTo("second");
+   }
+
+   public void testEvalOnOwner() {
+      RedisCommands<String, String> redis = redisConnection1.sync();
+      // The script runs on the owner of each key, whichever node received it
+      String script = "#!js\nredis.call('INCRBY', KEYS[0], ARGV[0])";
+      for (int i = 0; i < 20; ++i) {
+         Long value = redis.eval(script, ScriptOutputType.INTEGER, new String[]{"eval-k" + i}, String.valueOf(i));
+         assertThat(value).isEqualTo(i);
+      }
+      for (int i = 0; i < 20; ++i) {
+         assertThat(redisConnection2.sync().get("eval-k" + i)).isEqualTo(String.valueOf(i));
+      }
+   }
 }
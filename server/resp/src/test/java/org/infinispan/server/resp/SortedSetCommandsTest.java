@@ -1,15 +1,20 @@
 package org.infinispan.server.resp;
 
+import io.lettuce.core.KeyValue;
 import io.lettuce.core.Limit;
 import io.lettuce.core.Range;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScoredValue;
 import io.lettuce.core.ZAddArgs;
 import io.lettuce.core.ZAggregateArgs;
 import io.lettuce.core.ZStoreArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
 import io.lettuce.core.api.sync.RedisCommands;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static io.lettuce.core.Range.Boundary.excluding;
 import static io.lettuce.core.Range.Boundary.including;
@@ -284,6 +289,30 @@ public void testZPOPMIN() {
       assertWrongType(() -> redis.set("another", "tristan"), () ->  redis.zpopmin("another"));
    }
 
+   public void testBZPOPMIN() throws Exception {
+      redis.zadd("people", just(-10, "tristan"), just(1, "ryan"));
+      KeyValue<String, ScoredValue<String>> popped = redis.bzpopmin(1, "not_existing", "people");
+      assertThat(popped.getKey()).isEqualTo("people");
+      assertThat(popped.getValue()).isEqualTo(just(-10.0, "tristan"));
+
+      // Times out when all the sorted sets are empty
+      assertThat(redis.bzpopmin(0.1, "not_existing")).isNull();
+
+      StatefulRedisConnection<String, String> connection = client.connect();
+      try {
+         RedisFuture<KeyValue<String, ScoredValue<String>>> pop = connection.async().bzpopmin(10, "new_people");
+         eventually(() -> server.getBlockingCommandManager().blockedCommands() == 1);
+         redis.zadd("new_people", just(17, "vittorio"));
+         popped = pop.get(10, TimeUnit.SECONDS);
+         assertThat(popped.getKey()).isEqualTo("new_people");
+         assertThat(popped.getValue()).isEqualTo(just(17.0, "vittorio"));
+         assertThat(redis.exists("new_people")).isEqualTo(0);
+      } finally {
+         connection.close();
+      }
+      assertWrongType(() -> redis.set("another", "tristan"), () -> redis.bzpopmin(1, "another"));
+   }
+
    public void testZPOPMAX() {
       assertThat(redis.zpopmax("not_existing").isEmpty()).isTrue();
       assertThat(redis.zpopmax("not_existing", 2)).isEmpty();
@@ -9,6 +9,7 @@
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.testng.annotations.Test;
 
+import io.lettuce.core.KeyValue;
 import io.lettuce.core.RedisCommandExecutionException;
 import io.lettuce.core.TransactionResult;
 import io.lettuce.core.api.StatefulRedisConnection;
@@ -45,6 +46,28 @@ public void testStartTxAndQueueCommands() throws Exception {
       }
    }
 
+   @Test
+   public void testBlockingCommandsDoNotBlockInTransaction() {
+      RedisCommands<String, String> redis = redisConnection.sync();
+
+      assertThat(redis.multi()).isEqualTo(OK);
+      redis.rpush("tx-block-list", "william");
+      redis.blpop(0, "tx-block-empty", "tx-block-list");
+      // Returns nil straight away instead of blocking the transaction forever
+      redis.blpop(0, "tx-block-empty");
+      redis.brpop(0, "tx-block-list");
+
+      TransactionResult result = redis.exec();
+      assertThat(result).hasSize(4);
+      assertThat((Long) result.get(0)).isEqualTo(1L);
+      KeyValue<String, String> popped = result.get(1);
+      assertThat(popped.getKey()).isEqualTo("tx-block-list");
+      assertThat(popped.getValue()).isEqualTo("william");
+      assertThat((Object) result.get(2)).isNull();
+      assertThat((Object) result.get(3)).isNull();
+      assertThat(server.getBlockingCommandManager().blockedCommands()).isZero();
+   }
+
    @Test
    public void testExecWithoutMulti() {
       RedisCommands<String, String> redis = redisConnection.sync();
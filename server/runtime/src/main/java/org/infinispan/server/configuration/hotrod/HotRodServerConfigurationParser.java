@@ -3,6 +3,7 @@
 import static org.infinispan.server.configuration.ServerConfigurationParser.parseSasl;
 
 import org.infinispan.commons.configuration.io.ConfigurationReader;
+import org.infinispan.commons.io.CompressionAlgorithm;
 import org.infinispan.configuration.global.GlobalConfigurationBuilder;
 import org.infinispan.configuration.parsing.ConfigurationBuilderHolder;
 import org.infinispan.configuration.parsing.ConfigurationParser;
@@ -97,6 +98,18 @@ private void parseHotRodConnector(ConfigurationReader reader, ServerConfiguratio
                builder.topologyNetworkPrefixOverride(Boolean.parseBoolean(value));
                break;
             }
+            case COMPRESSION: {
+               builder.compression(ParseUtils.parseEnum(reader, i, CompressionAlgorithm.class, value));
+               break;
+            }
+            case COMPRESSION_THRESHOLD: {
+               builder.compressionThreshold(ParseUtils.parseInt(reader, i, value));
+               break;
+            }
+            case STORE_COMPRESSED: {
+               builder.storeCompressed(ParseUtils.parseBoolean(reader, i, value));
+               break;
+            }
             default: {
                ServerConfigurationParser.parseCommonConnectorAttributes(reader, i, serverBuilder, builder);
             }
@@ -11,9 +11,15 @@ public enum Attribute {
    UNKNOWN(null), // must be first
 
    CACHE,
+   KEY_PREFIX_INDEX,
    NAME,
+   PIPELINE_DEPTH,
+   SCRIPT_CACHE_SIZE,
+   SCRIPT_ENGINES,
+   SCRIPT_TIME_LIMIT,
    SECURITY_REALM,
-   SOCKET_BINDING;
+   SOCKET_BINDING,
+   STREAM_BATCHED_REPLIES;
 
    private static final Map<String, Attribute> ATTRIBUTES;
 
@@ -84,6 +84,30 @@ private void parseResp(ConfigurationReader reader, ServerConfigurationBuilder se
                builder.name(value);
                break;
             }
+            case PIPELINE_DEPTH: {
+               builder.pipelineDepth(ParseUtils.parseInt(reader, i, value));
+               break;
+            }
+            case STREAM_BATCHED_REPLIES: {
+               builder.streamBatchedReplies(ParseUtils.parseBoolean(reader, i, value));
+               break;
+            }
+            case KEY_PREFIX_INDEX: {
+               builder.keyPrefixIndex(ParseUtils.parseBoolean(reader, i, value));
+               break;
+            }
+            case SCRIPT_ENGINES: {
+               builder.scriptEngines(reader.getListAttributeValue(i));
+               break;
+            }
+            case SCRIPT_CACHE_SIZE: {
+               builder.scriptCacheSize(ParseUtils.parseInt(reader, i, value));
+               break;
+            }
+            case SCRIPT_TIME_LIMIT: {
+               builder.scriptTimeLimit(ParseUtils.parseLong(reader, i, value));
+               break;
+            }
             case SOCKET_BINDING: {
                builder.socketBinding(value);
                builder.startTransport(true);